@@ -0,0 +1,87 @@
+package org.cloudvision.trading.benchmark;
+
+import org.cloudvision.trading.bot.backtest.BacktestConfig;
+import org.cloudvision.trading.bot.backtest.BacktestEngine;
+import org.cloudvision.trading.bot.backtest.BacktestResult;
+import org.cloudvision.trading.bot.strategy.AbstractTradingStrategy;
+import org.cloudvision.trading.bot.strategy.StrategyConfig;
+import org.cloudvision.trading.bot.strategy.impl.MovingAverageStrategy;
+import org.cloudvision.trading.bot.strategy.impl.RSIStrategy;
+import org.cloudvision.trading.bot.strategy.impl.SuperTrendStrategy;
+import org.cloudvision.trading.model.CandlestickData;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BacktestEngine.run: one full backtest of a strategy over the fixture repeated 100 times
+ * (100k candles, the first 200 used as warm-up). Candles per second = 100k / score.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class BacktestBenchmark {
+
+    private static final int WARMUP = 200;
+
+    @Param({"moving_average", "rsi", "supertrend"})
+    public String strategyId;
+
+    @Param({"false", "true"})
+    public boolean fillOnNextOpen;
+
+    private List<CandlestickData> warmup;
+    private List<CandlestickData> candles;
+    private BacktestConfig config;
+    private AbstractTradingStrategy strategy;
+    private PrintStream stdout;
+
+    @Setup(Level.Trial)
+    public void loadFixture() {
+        stdout = BenchmarkFixtures.silenceStdout();
+        List<CandlestickData> stream = BenchmarkFixtures.repeatedCandles(100);
+        warmup = stream.subList(0, WARMUP);
+        candles = stream.subList(WARMUP, stream.size());
+        CandlestickData first = stream.get(0);
+        config = BacktestConfig.builder()
+            .strategyId(strategyId)
+            .provider(first.getProvider())
+            .symbol(first.getSymbol())
+            .interval(first.getInterval())
+            .fillOnNextOpen(fillOnNextOpen)
+            .warmupCandles(WARMUP)
+            .build();
+    }
+
+    @Setup(Level.Invocation)
+    public void createStrategy() {
+        if ("moving_average".equals(strategyId)) {
+            strategy = new MovingAverageStrategy();
+        } else if ("rsi".equals(strategyId)) {
+            strategy = new RSIStrategy();
+        } else if ("supertrend".equals(strategyId)) {
+            strategy = new SuperTrendStrategy();
+        } else {
+            throw new IllegalArgumentException("Unknown strategy: " + strategyId);
+        }
+        StrategyConfig strategyConfig = new StrategyConfig(strategyId, List.of(config.getSymbol()));
+        strategyConfig.setMaxPositionSize(new BigDecimal("1000"));
+        strategy.initialize(strategyConfig);
+    }
+
+    @Benchmark
+    public BacktestResult run() {
+        return new BacktestEngine(config).run("bench", strategy, warmup, candles, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreStdout() {
+        System.setOut(stdout);
+    }
+}
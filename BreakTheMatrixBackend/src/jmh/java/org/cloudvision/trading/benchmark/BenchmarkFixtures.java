@@ -0,0 +1,81 @@
+package org.cloudvision.trading.benchmark;
+
+import org.cloudvision.trading.MarketDataFixtures;
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.model.TradeData;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recorded market data for the benchmarks.
+ *
+ * Candles come from the 1m BTCUSDT fixture (override with -Dbench.fixture=path/to/candles.json).
+ * Trades are derived from those candles as in {@link MarketDataFixtures#trades(List, int)}.
+ */
+public final class BenchmarkFixtures {
+
+    public static final String DEFAULT_FIXTURE = MarketDataFixtures.CANDLE_FIXTURE;
+
+    private static List<CandlestickData> candles;
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Candles of the fixture, oldest first
+     */
+    public static synchronized List<CandlestickData> candles() {
+        if (candles == null) {
+            candles = MarketDataFixtures.loadCandles(Path.of(System.getProperty("bench.fixture", DEFAULT_FIXTURE)));
+        }
+        return candles;
+    }
+
+    /**
+     * The fixture repeated {@code cycles} times, shifted in time so open times keep increasing
+     */
+    public static List<CandlestickData> repeatedCandles(int cycles) {
+        List<CandlestickData> source = candles();
+        Duration span = Duration.between(source.get(0).getOpenTime(), source.get(source.size() - 1).getOpenTime())
+            .plusMinutes(1);
+        List<CandlestickData> result = new ArrayList<>(source.size() * cycles);
+        for (int cycle = 0; cycle < cycles; cycle++) {
+            Duration shift = span.multipliedBy(cycle);
+            for (CandlestickData candle : source) {
+                result.add(shifted(candle, shift));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Trades derived from the fixture candles (at most {@code tradesPerCandle} per candle), oldest first
+     */
+    public static List<TradeData> trades(int tradesPerCandle) {
+        return MarketDataFixtures.trades(candles(), tradesPerCandle);
+    }
+
+    /**
+     * Replace System.out with a sink so benchmarked code that logs per call is not measuring the console
+     * @return the previous stream, to restore in tear-down
+     */
+    public static PrintStream silenceStdout() {
+        PrintStream previous = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        return previous;
+    }
+
+    private static CandlestickData shifted(CandlestickData candle, Duration shift) {
+        return new CandlestickData(
+            candle.getSymbol(), candle.getOpenTime().plus(shift), candle.getCloseTime().plus(shift),
+            candle.getOpen(), candle.getHigh(), candle.getLow(), candle.getClose(),
+            candle.getVolume(), candle.getQuoteAssetVolume(), candle.getNumberOfTrades(),
+            candle.getInterval(), candle.getProvider(), candle.isClosed()
+        );
+    }
+}
@@ -0,0 +1,69 @@
+package org.cloudvision.trading.benchmark;
+
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.model.TimeInterval;
+import org.cloudvision.trading.service.CandleAggregator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CandleAggregator cost per base kline: derives 3m/5m/15m/1h/4h/1d from the recorded 1m fixture,
+ * for closed candles and for forming-candle updates.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CandleAggregatorBenchmark {
+
+    private static final List<TimeInterval> TARGETS = List.of(
+        TimeInterval.THREE_MINUTES, TimeInterval.FIVE_MINUTES, TimeInterval.FIFTEEN_MINUTES,
+        TimeInterval.ONE_HOUR, TimeInterval.FOUR_HOURS, TimeInterval.ONE_DAY);
+
+    private List<CandlestickData> stream;
+    private CandleAggregator aggregator;
+    private int forming;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void loadFixture() {
+        stream = BenchmarkFixtures.repeatedCandles(50);
+        forming = BenchmarkFixtures.candles().size() - 1;
+    }
+
+    /**
+     * Aggregator warmed up with the fixture's closed candles, so every bucket is live
+     */
+    @Setup(Level.Iteration)
+    public void resetAggregator() {
+        aggregator = new CandleAggregator("Binance", "BTCUSDT", TimeInterval.ONE_MINUTE, TARGETS);
+        for (int i = 0; i < forming; i++) {
+            aggregator.onCandle(stream.get(i), candle -> { });
+        }
+        next = forming + 1;
+    }
+
+    /**
+     * A closed 1m candle (rolls the buckets it ends)
+     */
+    @Benchmark
+    public void closedCandle(Blackhole bh) {
+        if (next == stream.size()) {
+            resetAggregator();
+        }
+        aggregator.onCandle(stream.get(next++), bh::consume);
+    }
+
+    /**
+     * Update of the forming 1m candle - the most frequent kline event
+     */
+    @Benchmark
+    public void formingUpdate(Blackhole bh) {
+        aggregator.onCandle(stream.get(forming), bh::consume);
+    }
+}
@@ -0,0 +1,88 @@
+package org.cloudvision.trading.benchmark;
+
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.service.CandlestickHistoryService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CandlestickHistoryService ingestion (new candle / forming-candle update) and reads
+ * (last N, time range), fed from the recorded 1m fixture.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CandlestickHistoryBenchmark {
+
+    private static final String PROVIDER = "Binance";
+    private static final String SYMBOL = "BTCUSDT";
+    private static final String INTERVAL = "1m";
+
+    @Param({"100", "500"})
+    public int readCount;
+
+    private List<CandlestickData> stream;
+    private CandlestickHistoryService service;
+    private int next;
+    private Instant rangeStart;
+    private Instant rangeEnd;
+
+    @Setup(Level.Trial)
+    public void loadFixture() {
+        stream = BenchmarkFixtures.repeatedCandles(50);
+    }
+
+    @Setup(Level.Iteration)
+    public void fillHistory() {
+        service = new CandlestickHistoryService();
+        List<CandlestickData> fixture = BenchmarkFixtures.candles();
+        for (CandlestickData candle : fixture) {
+            service.addCandlestick(candle);
+        }
+        rangeEnd = fixture.get(fixture.size() - 1).getOpenTime();
+        rangeStart = fixture.get(fixture.size() - readCount).getOpenTime();
+        next = fixture.size();
+    }
+
+    /**
+     * A new candle at the head of the series
+     */
+    @Benchmark
+    public void appendCandle() {
+        if (next == stream.size()) {
+            service.clearAllHistory();
+            next = 0;
+        }
+        service.addCandlestick(stream.get(next++));
+    }
+
+    /**
+     * Update of the forming (latest) candle - the most frequent write from the kline stream
+     */
+    @Benchmark
+    public void updateFormingCandle() {
+        service.addCandlestick(stream.get(BenchmarkFixtures.candles().size() - 1));
+    }
+
+    @Benchmark
+    public List<CandlestickData> lastN() {
+        return service.getLastNCandlesticks(PROVIDER, SYMBOL, INTERVAL, readCount);
+    }
+
+    @Benchmark
+    public void lastNCloses(Blackhole bh) {
+        bh.consume(service.getLastNCloses(PROVIDER, SYMBOL, INTERVAL, readCount));
+    }
+
+    @Benchmark
+    public List<CandlestickData> timeRange() {
+        return service.getCandlesticks(PROVIDER, SYMBOL, INTERVAL, rangeStart, rangeEnd);
+    }
+}
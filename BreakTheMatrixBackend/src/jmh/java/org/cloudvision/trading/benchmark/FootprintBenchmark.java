@@ -0,0 +1,75 @@
+package org.cloudvision.trading.benchmark;
+
+import org.cloudvision.trading.model.FixedTrade;
+import org.cloudvision.trading.model.FootprintCandle;
+import org.cloudvision.trading.model.TimeInterval;
+import org.cloudvision.trading.model.TradeData;
+import org.cloudvision.trading.service.FootprintCandleService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FootprintCandleService per-trade cost on trades derived from the recorded 1m fixture:
+ * processTrade (adds and rebuilds the candle) vs addTrade (adds only), BigDecimal and fixed-point input.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FootprintBenchmark {
+
+    @Param({"50"})
+    public int tradesPerCandle;
+
+    @Param({"ONE_MINUTE", "FIFTEEN_MINUTES"})
+    public TimeInterval interval;
+
+    private List<TradeData> trades;
+    private List<FixedTrade> fixedTrades;
+    private FootprintCandleService service;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void loadFixture() {
+        trades = BenchmarkFixtures.trades(tradesPerCandle);
+        fixedTrades = new ArrayList<>(trades.size());
+        for (TradeData trade : trades) {
+            fixedTrades.add(trade.toFixed());
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void newService() {
+        service = new FootprintCandleService();
+        next = 0;
+    }
+
+    @Benchmark
+    public FootprintCandle processTrade() {
+        return service.processTrade(trades.get(nextIndex()), interval);
+    }
+
+    @Benchmark
+    public void addTrade() {
+        service.addTrade(trades.get(nextIndex()), interval);
+    }
+
+    @Benchmark
+    public void addFixedTrade() {
+        service.addTrade(fixedTrades.get(nextIndex()), interval);
+    }
+
+    private int nextIndex() {
+        if (next == trades.size()) {
+            // Replaying the tape again would revisit old candles; start from an empty service
+            service = new FootprintCandleService();
+            next = 0;
+        }
+        return next++;
+    }
+}
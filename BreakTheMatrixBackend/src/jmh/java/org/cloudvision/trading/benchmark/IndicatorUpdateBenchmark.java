@@ -0,0 +1,81 @@
+package org.cloudvision.trading.benchmark;
+
+import org.cloudvision.trading.bot.indicators.Indicator;
+import org.cloudvision.trading.bot.indicators.IndicatorInstanceManager;
+import org.cloudvision.trading.bot.indicators.impl.*;
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.service.CandlestickHistoryService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IndicatorInstanceManager.updateAllForContext: one closed candle fanned out to every active
+ * instance of the context. Instances are warmed up with the first half of the fixture.
+ * parallelism=1 updates instances on the calling thread, 0 uses one dispatch thread per CPU.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class IndicatorUpdateBenchmark {
+
+    /** Comma-separated indicator ids activated on the context */
+    @Param({"sma", "sma,volume,engulfing,orderblock,market_structure_trailing_stop"})
+    public String indicatorIds;
+
+    @Param({"1", "0"})
+    public int parallelism;
+
+    private List<CandlestickData> stream;
+    private IndicatorInstanceManager manager;
+    private PrintStream stdout;
+    private int next;
+    private int warmup;
+
+    @Setup(Level.Trial)
+    public void loadFixture() {
+        stdout = BenchmarkFixtures.silenceStdout();
+        stream = BenchmarkFixtures.repeatedCandles(50);
+        warmup = BenchmarkFixtures.candles().size() / 2;
+    }
+
+    @Setup(Level.Iteration)
+    public void activate() {
+        List<Indicator> indicators = List.of(
+            new SMAIndicator(), new VolumeIndicator(), new EngulfingCandleIndicator(),
+            new OrderBlockIndicator(), new MarketStructureTrailingStopIndicator()
+        );
+        manager = new IndicatorInstanceManager(indicators, new CandlestickHistoryService(), parallelism);
+        List<CandlestickData> warmupCandles = stream.subList(0, warmup);
+        for (String id : indicatorIds.split(",")) {
+            Map<String, Object> params = new HashMap<>();
+            manager.activateIndicatorWithCandles(id.trim(), warmupCandles, params);
+        }
+        next = warmup;
+    }
+
+    @Benchmark
+    public Map<String, IndicatorInstanceManager.IndicatorResult> updateAllForContext() {
+        if (next == stream.size()) {
+            next = warmup;
+        }
+        return manager.updateAllForContext(stream.get(next++));
+    }
+
+    @TearDown(Level.Iteration)
+    public void deactivate() {
+        manager.shutdown();
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreStdout() {
+        System.setOut(stdout);
+    }
+}
@@ -0,0 +1,106 @@
+package org.cloudvision.trading.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files (e.g. a committed baseline and the latest run):
+ * score, p99 for sample-time runs and allocated bytes per operation (from -prof gc).
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.main=org.cloudvision.trading.benchmark.JmhResultComparator
+ *           -Djmh.args="benchmarks/baseline.json target/jmh-result.json"
+ */
+public class JmhResultComparator {
+
+    private static final String ALLOC_NORM = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: JmhResultComparator <baseline.json> <current.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = load(Path.of(args[0]));
+        Map<String, JsonNode> current = load(Path.of(args[1]));
+
+        System.out.printf("%-90s %14s %14s %9s %12s %12s%n",
+            "Benchmark", "Baseline", "Current", "Change", "B/op before", "B/op after");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue();
+            JsonNode before = baseline.get(entry.getKey());
+            double score = now.path("primaryMetric").path("score").asDouble();
+            String unit = now.path("primaryMetric").path("scoreUnit").asText();
+
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s %12s %12s  (new, %s)%n",
+                    entry.getKey(), "-", score, "-", "-", allocation(now), unit);
+                continue;
+            }
+            double previous = before.path("primaryMetric").path("score").asDouble();
+            double change = previous == 0 ? 0 : (score - previous) / previous * 100;
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %12s %12s  %s%s%n",
+                entry.getKey(), previous, score, change, allocation(before), allocation(now), unit,
+                percentile(before, now));
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                System.out.printf("%-90s  (missing in current run)%n", key);
+            }
+        }
+    }
+
+    /**
+     * benchmark [params] (mode) -> result
+     */
+    private static Map<String, JsonNode> load(Path path) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(Files.readAllBytes(path))) {
+            StringBuilder key = new StringBuilder(shortName(result.path("benchmark").asText()));
+            JsonNode params = result.path("params");
+            if (params.size() > 0) {
+                Map<String, String> sorted = new TreeMap<>();
+                Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    sorted.put(field.getKey(), field.getValue().asText());
+                }
+                key.append(' ').append(sorted);
+            }
+            key.append(" (").append(result.path("mode").asText()).append(')');
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static String shortName(String benchmark) {
+        String[] parts = benchmark.split("\\.");
+        return parts.length >= 2 ? parts[parts.length - 2] + "." + parts[parts.length - 1] : benchmark;
+    }
+
+    private static String allocation(JsonNode result) {
+        Iterator<Map.Entry<String, JsonNode>> metrics = result.path("secondaryMetrics").fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            if (metric.getKey().endsWith(ALLOC_NORM)) {
+                return String.format("%.1f", metric.getValue().path("score").asDouble());
+            }
+        }
+        return "-";
+    }
+
+    private static String percentile(JsonNode before, JsonNode now) {
+        JsonNode p99Before = before.path("primaryMetric").path("scorePercentiles").path("99.0");
+        JsonNode p99Now = now.path("primaryMetric").path("scorePercentiles").path("99.0");
+        if (!"sample".equals(now.path("mode").asText()) || p99Before.isMissingNode() || p99Now.isMissingNode()) {
+            return "";
+        }
+        return String.format(", p99 %.3f -> %.3f", p99Before.asDouble(), p99Now.asDouble());
+    }
+}
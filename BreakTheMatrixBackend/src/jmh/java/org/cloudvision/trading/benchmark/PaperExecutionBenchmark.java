@@ -0,0 +1,109 @@
+package org.cloudvision.trading.benchmark;
+
+import org.cloudvision.trading.bot.account.PaperTradingAccount;
+import org.cloudvision.trading.bot.account.PositionSide;
+import org.cloudvision.trading.bot.model.Order;
+import org.cloudvision.trading.bot.model.OrderSide;
+import org.cloudvision.trading.bot.model.OrderType;
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.model.FixedCandle;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PaperTradingAccount order execution (open + close round trip at fixture prices) and
+ * per-tick mark-to-market of open positions (BigDecimal map vs fixed-point price).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PaperExecutionBenchmark {
+
+    private static final String SYMBOL = "BTCUSDT";
+    private static final BigDecimal QUANTITY = new BigDecimal("0.01000000");
+    private static final int RESET_EVERY = 10_000;
+
+    @Param({"10"})
+    public int openPositions;
+
+    private List<CandlestickData> candles;
+    private PaperTradingAccount account;
+    private PrintStream stdout;
+    private int next;
+    private long executions;
+
+    @Setup(Level.Trial)
+    public void loadFixture() {
+        stdout = BenchmarkFixtures.silenceStdout();
+        candles = BenchmarkFixtures.candles();
+    }
+
+    @Setup(Level.Iteration)
+    public void newAccount() {
+        account = new PaperTradingAccount("bench", "Benchmark", new BigDecimal("100000000"));
+        BigDecimal price = candles.get(0).getClose();
+        for (int i = 0; i < openPositions; i++) {
+            Order order = order(OrderSide.BUY, PositionSide.LONG, price);
+            order.setSuggestedStopLoss(price.multiply(new BigDecimal("0.5")));
+            order.setSuggestedTakeProfit(price.multiply(new BigDecimal("2")));
+            account.executeOrder(order);
+        }
+        next = 0;
+        executions = 0;
+    }
+
+    /**
+     * Open a SHORT and close it again at the next fixture price (two executeOrder calls)
+     */
+    @Benchmark
+    public void executeRoundTrip(Blackhole bh) {
+        BigDecimal entry = nextCandle().getClose();
+        BigDecimal exit = nextCandle().getClose();
+        bh.consume(account.executeOrder(order(OrderSide.SELL, PositionSide.SHORT, entry)));
+        bh.consume(account.executeOrder(order(OrderSide.BUY, PositionSide.SHORT, exit)));
+        if (++executions % RESET_EVERY == 0) {
+            // Keep the order / trade history from growing without bound across the iteration
+            newAccount();
+        }
+    }
+
+    @Benchmark
+    public void markToMarketDecimal() {
+        CandlestickData candle = nextCandle();
+        account.updateCurrentPrices(Map.of(SYMBOL, candle.getClose()));
+    }
+
+    @Benchmark
+    public void markToMarketFixed() {
+        FixedCandle candle = nextCandle().toFixed();
+        account.updateCurrentPrice(SYMBOL, candle.getClose(), candle.getPriceScale());
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreStdout() {
+        System.setOut(stdout);
+    }
+
+    private CandlestickData nextCandle() {
+        if (next == candles.size()) {
+            next = 0;
+        }
+        return candles.get(next++);
+    }
+
+    private static Order order(OrderSide side, PositionSide positionSide, BigDecimal price) {
+        Order order = new Order(UUID.randomUUID().toString(), SYMBOL, OrderType.MARKET, side, QUANTITY, price, "benchmark");
+        order.setPositionSide(positionSide);
+        return order;
+    }
+}
@@ -0,0 +1,75 @@
+package org.cloudvision.trading.benchmark;
+
+import org.cloudvision.trading.bot.strategy.AbstractTradingStrategy;
+import org.cloudvision.trading.bot.strategy.impl.MovingAverageStrategy;
+import org.cloudvision.trading.bot.strategy.impl.RSIStrategy;
+import org.cloudvision.trading.bot.strategy.impl.SuperTrendStrategy;
+import org.cloudvision.trading.bot.visualization.VisualizationManager;
+import org.cloudvision.trading.model.CandlestickData;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.PrintStream;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * generateHistoricalVisualizationData over a bootstrap window of the fixture (1000 candles,
+ * or the fixture repeated for 5000). One call is one full historical pass for one symbol.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class StrategyVisualizationBenchmark {
+
+    @Param({"rsi", "supertrend", "moving_average"})
+    public String strategyId;
+
+    @Param({"1000", "5000"})
+    public int bootstrapCandles;
+
+    private List<CandlestickData> history;
+    private AbstractTradingStrategy strategy;
+    private PrintStream stdout;
+
+    @Setup(Level.Trial)
+    public void loadFixture() {
+        stdout = BenchmarkFixtures.silenceStdout();
+        int cycles = (bootstrapCandles + BenchmarkFixtures.candles().size() - 1) / BenchmarkFixtures.candles().size();
+        history = BenchmarkFixtures.repeatedCandles(cycles).subList(0, bootstrapCandles);
+    }
+
+    @Setup(Level.Iteration)
+    public void createStrategy() throws ReflectiveOperationException {
+        if ("rsi".equals(strategyId)) {
+            strategy = new RSIStrategy();
+        } else if ("supertrend".equals(strategyId)) {
+            strategy = new SuperTrendStrategy();
+        } else if ("moving_average".equals(strategyId)) {
+            strategy = new MovingAverageStrategy();
+        } else {
+            throw new IllegalArgumentException("Unknown strategy: " + strategyId);
+        }
+        // Outside Spring the visualization manager is not injected, and without it the pass returns early
+        for (Field field : strategy.getClass().getDeclaredFields()) {
+            if (field.getType() == VisualizationManager.class) {
+                field.setAccessible(true);
+                field.set(strategy, new VisualizationManager());
+            }
+        }
+    }
+
+    @Benchmark
+    public AbstractTradingStrategy generateHistoricalVisualizationData() {
+        strategy.generateHistoricalVisualizationData(history);
+        return strategy;
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreStdout() {
+        System.setOut(stdout);
+    }
+}
@@ -0,0 +1,92 @@
+package org.cloudvision.trading.benchmark;
+
+import org.cloudvision.trading.model.FixedTrade;
+import org.cloudvision.trading.model.InstrumentSpec;
+import org.cloudvision.trading.model.TimeInterval;
+import org.cloudvision.trading.model.TradeData;
+import org.cloudvision.trading.profile.ProfileSettings;
+import org.cloudvision.trading.profile.SymbolProfileBook;
+import org.cloudvision.trading.profile.VolumeProfile;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SymbolProfileBook per-trade cost and profile queries (current day, arbitrary range from the
+ * prefix sums, composite) on trades derived from the recorded 1m fixture.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class VolumeProfileBenchmark {
+
+    private static final InstrumentSpec BTCUSDT = new InstrumentSpec("BTCUSDT",
+        new BigDecimal("0.01"), new BigDecimal("0.00001"));
+
+    @Param({"10", "100"})
+    public String rowSize;
+
+    private List<FixedTrade> trades;
+    private ProfileSettings settings;
+    private SymbolProfileBook book;
+    private SymbolProfileBook filledBook;
+    private long rangeFrom;
+    private long rangeTo;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void loadFixture() {
+        trades = new ArrayList<>();
+        for (TradeData trade : BenchmarkFixtures.trades(20)) {
+            trades.add(trade.toFixed(BTCUSDT));
+        }
+        settings = new ProfileSettings(
+            List.of(TimeInterval.EIGHT_HOURS, TimeInterval.ONE_DAY, TimeInterval.ONE_WEEK),
+            TimeInterval.ONE_MINUTE, TimeInterval.THIRTY_MINUTES, 60, 168, 30, 70, 4);
+
+        filledBook = new SymbolProfileBook("BTCUSDT", new BigDecimal(rowSize), BTCUSDT.getQuantityScale(), settings);
+        for (FixedTrade trade : trades) {
+            filledBook.onTrade(trade);
+        }
+        // An unaligned range over most of the fixture
+        long first = trades.get(0).getTimestamp();
+        long last = trades.get(trades.size() - 1).getTimestamp();
+        rangeFrom = first + (last - first) / 7;
+        rangeTo = last - (last - first) / 5;
+    }
+
+    @Setup(Level.Iteration)
+    public void newBook() {
+        book = new SymbolProfileBook("BTCUSDT", new BigDecimal(rowSize), BTCUSDT.getQuantityScale(), settings);
+        next = 0;
+    }
+
+    @Benchmark
+    public void onTrade() {
+        if (next == trades.size()) {
+            newBook();
+        }
+        book.onTrade(trades.get(next++));
+    }
+
+    @Benchmark
+    public VolumeProfile currentDay() {
+        return filledBook.getCurrentProfile(TimeInterval.ONE_DAY);
+    }
+
+    @Benchmark
+    public VolumeProfile range() {
+        return filledBook.getRangeProfile("range", rangeFrom, rangeTo);
+    }
+
+    @Benchmark
+    public VolumeProfile composite() {
+        return filledBook.getCompositeProfile(TimeInterval.EIGHT_HOURS, 3);
+    }
+}
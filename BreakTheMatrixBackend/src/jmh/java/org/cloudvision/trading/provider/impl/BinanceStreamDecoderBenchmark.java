@@ -0,0 +1,192 @@
+package org.cloudvision.trading.provider.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.cloudvision.trading.orderbook.LocalOrderBook;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JsonNode tree decoding (the previous BinanceTradingProvider path) vs the streaming
+ * {@link BinanceStreamDecoder}, per message type.
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="BinanceStreamDecoderBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BinanceStreamDecoderBenchmark {
+
+    private static final String TRADE =
+        "{\"e\":\"trade\",\"E\":1718000000123,\"s\":\"BTCUSDT\",\"t\":3601234567,\"p\":\"67123.45000000\"," +
+        "\"q\":\"0.01234000\",\"T\":1718000000120,\"m\":true,\"M\":true}";
+
+    private static final String AGG_TRADE =
+        "{\"e\":\"aggTrade\",\"E\":1718000000123,\"s\":\"BTCUSDT\",\"a\":2901234567,\"p\":\"67123.45000000\"," +
+        "\"q\":\"0.01234000\",\"f\":3601234560,\"l\":3601234567,\"T\":1718000000120,\"m\":false,\"M\":true}";
+
+    private static final String KLINE =
+        "{\"e\":\"kline\",\"E\":1718000000123,\"s\":\"BTCUSDT\",\"k\":{\"t\":1718000000000,\"T\":1718000059999," +
+        "\"s\":\"BTCUSDT\",\"i\":\"1m\",\"f\":3601234000,\"L\":3601234567,\"o\":\"67100.00000000\"," +
+        "\"c\":\"67123.45000000\",\"h\":\"67150.10000000\",\"l\":\"67090.00000000\",\"v\":\"12.34500000\"," +
+        "\"n\":567,\"x\":false,\"q\":\"828456.12345678\",\"V\":\"6.10000000\",\"Q\":\"409000.00000000\",\"B\":\"0\"}}";
+
+    private static final String DEPTH_UPDATE = depthUpdate(20);
+
+    @Param({"TRADE", "AGG_TRADE", "KLINE", "DEPTH_UPDATE"})
+    public String messageType;
+
+    private String message;
+    private ObjectMapper objectMapper;
+    private BinanceStreamDecoder decoder;
+
+    @Setup
+    public void setup() {
+        switch (messageType) {
+            case "TRADE": message = TRADE; break;
+            case "AGG_TRADE": message = AGG_TRADE; break;
+            case "KLINE": message = KLINE; break;
+            default: message = DEPTH_UPDATE;
+        }
+        objectMapper = new ObjectMapper();
+        decoder = new BinanceStreamDecoder();
+    }
+
+    /**
+     * Previous path: readTree, probe "e" repeatedly, BigDecimal from asText()
+     */
+    @Benchmark
+    public void jsonNodeTree(Blackhole bh) throws Exception {
+        JsonNode json = objectMapper.readTree(message);
+        if (json.has("result") && json.get("result").isNull()) {
+            return;
+        }
+        if (json.has("error")) {
+            return;
+        }
+        if (json.has("e") && "kline".equals(json.get("e").asText())) {
+            JsonNode k = json.get("k");
+            bh.consume(k.get("s").asText().toUpperCase());
+            bh.consume(k.get("t").asLong());
+            bh.consume(k.get("T").asLong());
+            bh.consume(new BigDecimal(k.get("o").asText()));
+            bh.consume(new BigDecimal(k.get("h").asText()));
+            bh.consume(new BigDecimal(k.get("l").asText()));
+            bh.consume(new BigDecimal(k.get("c").asText()));
+            bh.consume(new BigDecimal(k.get("v").asText()));
+            bh.consume(new BigDecimal(k.get("q").asText()));
+            bh.consume(k.get("n").asInt());
+            bh.consume(k.get("i").asText());
+            bh.consume(k.get("x").asBoolean());
+        } else if (json.has("e") && "24hrTicker".equals(json.get("e").asText())) {
+            bh.consume(json);
+        } else if (json.has("e") && "trade".equals(json.get("e").asText())) {
+            bh.consume(json.get("s").asText().toUpperCase());
+            bh.consume(json.get("t").asLong());
+            bh.consume(new BigDecimal(json.get("p").asText()));
+            bh.consume(new BigDecimal(json.get("q").asText()));
+            bh.consume(json.get("T").asLong());
+            bh.consume(json.get("m").asBoolean());
+        } else if (json.has("e") && "aggTrade".equals(json.get("e").asText())) {
+            bh.consume(json.get("s").asText().toUpperCase());
+            bh.consume(json.get("a").asLong());
+            bh.consume(new BigDecimal(json.get("p").asText()));
+            bh.consume(new BigDecimal(json.get("q").asText()));
+            bh.consume(json.get("T").asLong());
+            bh.consume(json.get("m").asBoolean());
+            bh.consume(json.get("f").asLong());
+            bh.consume(json.get("l").asLong());
+        } else if (json.has("e") && "depthUpdate".equals(json.get("e").asText())) {
+            bh.consume(json.get("s").asText().toUpperCase());
+            bh.consume(json.get("U").asLong());
+            bh.consume(json.get("u").asLong());
+            JsonNode bids = json.get("b");
+            long[] bidPrices = new long[bids.size()];
+            long[] bidQuantities = new long[bids.size()];
+            for (int i = 0; i < bids.size(); i++) {
+                bidPrices[i] = LocalOrderBook.parseScaled(bids.get(i).get(0).asText());
+                bidQuantities[i] = LocalOrderBook.parseScaled(bids.get(i).get(1).asText());
+            }
+            JsonNode asks = json.get("a");
+            long[] askPrices = new long[asks.size()];
+            long[] askQuantities = new long[asks.size()];
+            for (int i = 0; i < asks.size(); i++) {
+                askPrices[i] = LocalOrderBook.parseScaled(asks.get(i).get(0).asText());
+                askQuantities[i] = LocalOrderBook.parseScaled(asks.get(i).get(1).asText());
+            }
+            bh.consume(bidPrices);
+            bh.consume(bidQuantities);
+            bh.consume(askPrices);
+            bh.consume(askQuantities);
+        }
+    }
+
+    /**
+     * Streaming decode into the reusable event, fixed-point fields only
+     */
+    @Benchmark
+    public void streamingDecode(Blackhole bh) throws Exception {
+        BinanceStreamDecoder.Event event = decoder.decode(message);
+        bh.consume(event.type);
+        bh.consume(event.price);
+        bh.consume(event.close);
+        bh.consume(event.bidCount);
+    }
+
+    /**
+     * Streaming decode plus the BigDecimal fields the provider still builds for the model
+     */
+    @Benchmark
+    public void streamingDecodeToModel(Blackhole bh) throws Exception {
+        BinanceStreamDecoder.Event event = decoder.decode(message);
+        switch (event.type) {
+            case KLINE:
+                bh.consume(decimal(event.open));
+                bh.consume(decimal(event.high));
+                bh.consume(decimal(event.low));
+                bh.consume(decimal(event.close));
+                bh.consume(event.klineVolume);
+                bh.consume(event.quoteVolume);
+                break;
+            case TRADE:
+            case AGG_TRADE:
+                bh.consume(decimal(event.price));
+                bh.consume(decimal(event.quantity));
+                break;
+            case DEPTH_UPDATE:
+                bh.consume(event.bidPricesCopy());
+                bh.consume(event.bidQuantitiesCopy());
+                bh.consume(event.askPricesCopy());
+                bh.consume(event.askQuantitiesCopy());
+                break;
+            default:
+                bh.consume(event);
+        }
+    }
+
+    private static BigDecimal decimal(long scaled) {
+        return BigDecimal.valueOf(scaled, LocalOrderBook.SCALE);
+    }
+
+    private static String depthUpdate(int levelsPerSide) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"e\":\"depthUpdate\",\"E\":1718000000123,\"s\":\"BTCUSDT\",\"U\":48123456789,\"u\":48123456812,\"b\":[");
+        for (int i = 0; i < levelsPerSide; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("[\"").append(67123 - i).append(".45000000\",\"").append(i % 5).append(".12300000\"]");
+        }
+        sb.append("],\"a\":[");
+        for (int i = 0; i < levelsPerSide; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("[\"").append(67124 + i).append(".05000000\",\"").append(i % 3).append(".45600000\"]");
+        }
+        sb.append("]}");
+        return sb.toString();
+    }
+}
@@ -6,6 +6,7 @@ import org.cloudvision.trading.bot.websocket.StrategyVisualizationWebSocketHandl
 import org.cloudvision.trading.bot.websocket.PositionsWebSocketHandler;
 import org.cloudvision.trading.bot.websocket.IndicatorWebSocketHandler;
 import org.cloudvision.trading.bot.websocket.ReplayWebSocketHandler;
+import org.cloudvision.trading.bot.websocket.SweepWebSocketHandler;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
@@ -22,6 +23,7 @@ public class WebSocketConfig implements WebSocketConfigurer {
     private final PositionsWebSocketHandler positionsWebSocketHandler;
     private final IndicatorWebSocketHandler indicatorWebSocketHandler;
     private final ReplayWebSocketHandler replayWebSocketHandler;
+    private final SweepWebSocketHandler sweepWebSocketHandler;
 
     public WebSocketConfig(EchoWebSocketHandler echoWebSocketHandler, 
                           TradingWebSocketHandler tradingWebSocketHandler,
@@ -29,7 +31,8 @@ public class WebSocketConfig implements WebSocketConfigurer {
                           StrategyVisualizationWebSocketHandler strategyVisualizationWebSocketHandler,
                           PositionsWebSocketHandler positionsWebSocketHandler,
                           IndicatorWebSocketHandler indicatorWebSocketHandler,
-                          ReplayWebSocketHandler replayWebSocketHandler) {
+                          ReplayWebSocketHandler replayWebSocketHandler,
+                          SweepWebSocketHandler sweepWebSocketHandler) {
         this.echoWebSocketHandler = echoWebSocketHandler;
         this.tradingWebSocketHandler = tradingWebSocketHandler;
         this.orderFlowWebSocketHandler = orderFlowWebSocketHandler;
@@ -37,6 +40,7 @@ public class WebSocketConfig implements WebSocketConfigurer {
         this.positionsWebSocketHandler = positionsWebSocketHandler;
         this.indicatorWebSocketHandler = indicatorWebSocketHandler;
         this.replayWebSocketHandler = replayWebSocketHandler;
+        this.sweepWebSocketHandler = sweepWebSocketHandler;
     }
 
     @Override
@@ -48,6 +52,7 @@ public class WebSocketConfig implements WebSocketConfigurer {
         registry.addHandler(positionsWebSocketHandler, "/positions-ws").setAllowedOrigins("*");
         registry.addHandler(indicatorWebSocketHandler, "/indicator-ws").setAllowedOrigins("*");
         registry.addHandler(replayWebSocketHandler, "/replay-ws").setAllowedOrigins("*");
+        registry.addHandler(sweepWebSocketHandler, "/sweep-ws").setAllowedOrigins("*");
     }
 }
 
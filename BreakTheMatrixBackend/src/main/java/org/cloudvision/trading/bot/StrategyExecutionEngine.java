@@ -0,0 +1,188 @@
+package org.cloudvision.trading.bot;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs strategy work on a fixed set of single-threaded lanes, sharded by symbol.
+ *
+ * A symbol always maps to the same lane, so all work for one strategy/symbol pair runs
+ * in submission order on one thread and needs no locking, while different symbols are
+ * processed concurrently. The lane count is fixed, so adding symbols spreads them over
+ * the same threads instead of adding threads.
+ */
+@Service
+public class StrategyExecutionEngine {
+
+    public static final int DEFAULT_LANE_CAPACITY = 4096;
+
+    private final Lane[] lanes;
+
+    public StrategyExecutionEngine(@Value("${trading.strategy.lanes:0}") int laneCount) {
+        int count = laneCount > 0 ? laneCount : Runtime.getRuntime().availableProcessors();
+        this.lanes = new Lane[count];
+        for (int i = 0; i < count; i++) {
+            lanes[i] = new Lane(i, DEFAULT_LANE_CAPACITY);
+            lanes[i].start();
+        }
+        System.out.println("🛤️ Strategy execution engine started with " + count + " lane(s)");
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    public int laneOf(String symbol) {
+        return symbol == null ? 0 : Math.floorMod(symbol.hashCode(), lanes.length);
+    }
+
+    /**
+     * Queue work on the symbol's lane. A full lane makes the caller wait, so no work is lost.
+     */
+    public void submit(String symbol, Runnable task) {
+        lanes[laneOf(symbol)].offer(task);
+    }
+
+    /**
+     * Queue depth, throughput and latency per lane
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new TreeMap<>();
+        for (Lane lane : lanes) {
+            stats.put(lane.getName(), lane.getStats());
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Lane lane : lanes) {
+            lane.stop();
+        }
+    }
+
+    /**
+     * One shard: bounded queue + dedicated worker thread + metrics
+     */
+    private static class Lane implements Runnable {
+        private final String name;
+        private final BlockingQueue<Task> queue;
+
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong blockedNanos = new AtomicLong();
+        private volatile long lastLagNanos;
+        private volatile long maxLagNanos;
+        private volatile long lastTaskNanos;
+        private volatile long maxTaskNanos;
+
+        private volatile boolean running;
+        private Thread worker;
+
+        Lane(int index, int capacity) {
+            this.name = "strategy-lane-" + index;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        String getName() { return name; }
+
+        void start() {
+            running = true;
+            worker = new Thread(this, name);
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        void stop() {
+            running = false;
+            queue.clear();
+            if (worker != null) {
+                worker.interrupt();
+            }
+        }
+
+        void offer(Runnable runnable) {
+            if (!running) {
+                return;
+            }
+            Task task = new Task(runnable, System.nanoTime());
+            if (queue.offer(task)) {
+                return;
+            }
+            long waitStart = System.nanoTime();
+            try {
+                while (running && !queue.offer(task, 100, TimeUnit.MILLISECONDS)) {
+                    // keep waiting until the lane drains or stops
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                blockedNanos.addAndGet(System.nanoTime() - waitStart);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                Task task;
+                try {
+                    task = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                long start = System.nanoTime();
+                long lag = start - task.enqueuedNanos;
+                lastLagNanos = lag;
+                if (lag > maxLagNanos) {
+                    maxLagNanos = lag;
+                }
+                try {
+                    task.runnable.run();
+                    processed.incrementAndGet();
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    System.err.println("❌ Error on " + name + ": " + e.getMessage());
+                    e.printStackTrace();
+                }
+                long took = System.nanoTime() - start;
+                lastTaskNanos = took;
+                if (took > maxTaskNanos) {
+                    maxTaskNanos = took;
+                }
+            }
+        }
+
+        Map<String, Object> getStats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("queueDepth", queue.size());
+            stats.put("processed", processed.get());
+            stats.put("failed", failed.get());
+            stats.put("lastLagMicros", lastLagNanos / 1_000);
+            stats.put("maxLagMicros", maxLagNanos / 1_000);
+            stats.put("lastTaskMicros", lastTaskNanos / 1_000);
+            stats.put("maxTaskMicros", maxTaskNanos / 1_000);
+            stats.put("submitterBlockedMillis", blockedNanos.get() / 1_000_000);
+            return stats;
+        }
+    }
+
+    private static class Task {
+        final Runnable runnable;
+        final long enqueuedNanos;
+
+        Task(Runnable runnable, long enqueuedNanos) {
+            this.runnable = runnable;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+}
@@ -3,8 +3,12 @@ package org.cloudvision.trading.bot;
 import org.cloudvision.trading.bot.model.Order;
 import org.cloudvision.trading.bot.strategy.TradingStrategy;
 import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.model.FixedCandle;
+import org.cloudvision.trading.model.FixedPoint;
 import org.cloudvision.trading.model.TimeInterval;
 import org.cloudvision.trading.model.TradingData;
+import org.cloudvision.trading.service.MarketDataBus;
+import org.cloudvision.trading.service.MarketDataBus.BackpressurePolicy;
 import org.cloudvision.trading.service.UniversalTradingDataService;
 import org.springframework.stereotype.Service;
 
@@ -14,6 +18,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 @Service
@@ -23,35 +28,63 @@ public class TradingBot {
     private final OrderManager orderManager;
     private final RiskManager riskManager;
     private final org.cloudvision.trading.bot.account.AccountManager accountManager;
+    private final MarketDataBus marketDataBus;
+    private final StrategyExecutionEngine executionEngine;
+    
+    // Accounts and order books are shared by all symbols; lanes serialize on this when they touch them
+    private final Object executionLock = new Object();
     
     private final List<TradingStrategy> strategies = new CopyOnWriteArrayList<>();
     private final Map<String, Boolean> strategyStatus = new ConcurrentHashMap<>();
-    private boolean botEnabled = false;
-    private boolean tradingEnabled = false; // Separate flag for trading execution
+    private volatile boolean botEnabled = false;
+    private volatile boolean tradingEnabled = false; // Separate flag for trading execution
     
-    // Multiple additional handlers to forward data to (e.g., WebSocket handlers, footprint builder, etc.)
-    private final List<Consumer<TradingData>> additionalDataHandlers = new CopyOnWriteArrayList<>();
+    // Additional handlers (e.g., WebSocket handlers, footprint builder) each run on their own bus subscription
+    private final AtomicInteger additionalHandlerCount = new AtomicInteger();
 
     public TradingBot(UniversalTradingDataService tradingDataService,
                      OrderManager orderManager,
                      RiskManager riskManager,
-                     org.cloudvision.trading.bot.account.AccountManager accountManager) {
+                     org.cloudvision.trading.bot.account.AccountManager accountManager,
+                     MarketDataBus marketDataBus,
+                     StrategyExecutionEngine executionEngine) {
         this.tradingDataService = tradingDataService;
         this.orderManager = orderManager;
         this.riskManager = riskManager;
         this.accountManager = accountManager;
+        this.marketDataBus = marketDataBus;
+        this.executionEngine = executionEngine;
         
-        // Set up data handler to process incoming market data
-        this.tradingDataService.setGlobalDataHandler(this::processMarketData);
+        // Provider threads only publish to the bus; strategies consume from their own queue.
+        // BLOCK: strategies must see every candle close, so a full queue slows ingestion instead of losing data.
+        this.marketDataBus.subscribe("trading-bot", BackpressurePolicy.BLOCK,
+                                     MarketDataBus.DEFAULT_QUEUE_CAPACITY, this::processMarketData);
+        this.tradingDataService.setGlobalDataHandler(marketDataBus::publish);
     }
 
     /**
      * Add an additional data handler (e.g., for WebSocket broadcasting, footprint building)
-     * Supports multiple handlers without overwriting
+     * Supports multiple handlers without overwriting. The handler gets its own queue and thread;
+     * ticker/book/forming-candle updates it falls behind on are conflated.
      */
     public void addDataHandler(Consumer<TradingData> handler) {
-        this.additionalDataHandlers.add(handler);
-        System.out.println("🔗 Additional data handler added to TradingBot (total: " + additionalDataHandlers.size() + ")");
+        int number = additionalHandlerCount.incrementAndGet();
+        subscribeHandler("handler-" + number, BackpressurePolicy.CONFLATE_BY_SYMBOL, handler, number);
+    }
+
+    /**
+     * Add a named data handler with an explicit backpressure policy
+     */
+    public void addDataHandler(String name, BackpressurePolicy policy, Consumer<TradingData> handler) {
+        subscribeHandler(name, policy, handler, additionalHandlerCount.incrementAndGet());
+    }
+
+    /**
+     * @param number Position of the handler, taken from a single increment of the handler count
+     */
+    private void subscribeHandler(String name, BackpressurePolicy policy, Consumer<TradingData> handler, int number) {
+        marketDataBus.subscribe(name, policy, MarketDataBus.DEFAULT_QUEUE_CAPACITY, handler);
+        System.out.println("🔗 Additional data handler '" + name + "' added to TradingBot (total: " + number + ")");
     }
     
     /**
@@ -65,33 +98,34 @@ public class TradingBot {
     }
     
     /**
-     * Process incoming market data and execute strategies
+     * Process incoming market data and execute strategies.
+     * Runs on the bus thread; strategy work is handed to the symbol's execution lane.
      */
     private void processMarketData(TradingData data) {
         // Note: Candlestick storage is now handled by UniversalTradingDataService
         // TradingBot focuses only on trading logic
         
         // Update current prices for all accounts to calculate unrealized P&L
-        updateAccountPrices(data);
-        
-        // Forward to all additional handlers FIRST (e.g., WebSocket, footprint builder, etc.)
-        if (!additionalDataHandlers.isEmpty()) {
-            for (Consumer<TradingData> handler : additionalDataHandlers) {
-                try {
-                    handler.accept(data);
-                } catch (Exception e) {
-                    System.err.println("❌ Error in additional data handler: " + e.getMessage());
-                    e.printStackTrace();
-                }
-            }
+        synchronized (executionLock) {
+            updateAccountPrices(data);
         }
         
-        // Then process for trading bot
-        if (!botEnabled) {
+        // Additional handlers (WebSocket, footprint builder, etc.) receive data from the bus on their own threads
+        
+        // Then process for trading bot. Derived higher-timeframe candles are for history, indicators
+        // and charts only; strategies keep consuming the provider streams they were built on
+        if (!botEnabled || data.isDerived()) {
             return;
         }
 
-        // Process data through all enabled strategies
+        // Same symbol -> same lane, so each strategy sees a symbol's events in order
+        executionEngine.submit(data.getSymbol(), () -> runStrategies(data));
+    }
+
+    /**
+     * Process data through all enabled strategies (on the symbol's execution lane)
+     */
+    private void runStrategies(TradingData data) {
         for (TradingStrategy strategy : strategies) {
             if (strategy.isEnabled() && strategyStatus.getOrDefault(strategy.getStrategyId(), true)) {
                 try {
@@ -106,22 +140,8 @@ public class TradingBot {
                     // Always process orders for analysis, but only execute if trading is enabled
                     for (Order order : orders) {
                         if (tradingEnabled) {
-                            // Apply risk management and execute through active account
-                            if (riskManager.validateOrder(order)) {
-                                // Execute order through AccountManager (uses active account)
-                                Order executedOrder = accountManager.executeOrder(order);
-                                
-                                if (executedOrder.getStatus() == org.cloudvision.trading.bot.model.OrderStatus.FILLED) {
-                                    // Also track in OrderManager for backward compatibility
-                                    orderManager.submitOrder(executedOrder);
-                                    
-                                    String accountName = accountManager.getActiveAccount().getAccountName();
-                                    System.out.println("🤖 Bot executed order on [" + accountName + "]: " + executedOrder);
-                                } else {
-                                    System.out.println("❌ Order execution failed: " + executedOrder.getStatus());
-                                }
-                            } else {
-                                System.out.println("❌ Risk manager rejected order: " + order);
+                            synchronized (executionLock) {
+                                executeOrder(order);
                             }
                         } else {
                             // Analysis mode - log signals but don't execute
@@ -138,6 +158,29 @@ public class TradingBot {
         }
     }
 
+    /**
+     * Apply risk management and execute through the active account
+     */
+    private void executeOrder(Order order) {
+        if (!riskManager.validateOrder(order)) {
+            System.out.println("❌ Risk manager rejected order: " + order);
+            return;
+        }
+        
+        // Execute order through AccountManager (uses active account)
+        Order executedOrder = accountManager.executeOrder(order);
+        
+        if (executedOrder.getStatus() == org.cloudvision.trading.bot.model.OrderStatus.FILLED) {
+            // Also track in OrderManager for backward compatibility
+            orderManager.submitOrder(executedOrder);
+            
+            String accountName = accountManager.getActiveAccount().getAccountName();
+            System.out.println("🤖 Bot executed order on [" + accountName + "]: " + executedOrder);
+        } else {
+            System.out.println("❌ Order execution failed: " + executedOrder.getStatus());
+        }
+    }
+
     /**
      * Add a trading strategy to the bot
      * Strategies are registered but DISABLED by default for safety
@@ -204,6 +247,12 @@ public class TradingBot {
         System.out.println("🔄 Bootstrapping strategies with historical data...");
         
         for (TradingStrategy strategy : strategies) {
+            // Restored from a checkpoint: already warm, no need to fetch history again
+            if (strategy.isRestoredFromCheckpoint()) {
+                System.out.println("♻️ " + strategy.getStrategyName() + " restored from checkpoint - skipping historical bootstrap");
+                continue;
+            }
+            
             // Collect all historical data for this strategy
             List<CandlestickData> allHistoricalData = new ArrayList<>();
             
@@ -372,6 +421,8 @@ public class TradingBot {
     public OrderManager getOrderManager() { return orderManager; }
     public RiskManager getRiskManager() { return riskManager; }
     public org.cloudvision.trading.bot.account.AccountManager getAccountManager() { return accountManager; }
+    public MarketDataBus getMarketDataBus() { return marketDataBus; }
+    public StrategyExecutionEngine getExecutionEngine() { return executionEngine; }
     
     /**
      * Get bot mode description
@@ -405,35 +456,35 @@ public class TradingBot {
      * This updates unrealized P&L for open positions
      */
     private void updateAccountPrices(TradingData data) {
-        // Extract current price from the data
-        java.math.BigDecimal currentPrice = null;
+        // Extract current price from the data as a fixed-point value
+        long currentPrice;
+        int scale;
         String symbol = data.getSymbol();
         
         switch (data.getType()) {
             case TICKER:
-                currentPrice = data.getPrice();
+                if (data.getPrice() == null) {
+                    return;
+                }
+                scale = Math.max(0, Math.min(data.getPrice().scale(), FixedPoint.MAX_SCALE));
+                currentPrice = FixedPoint.toScaled(data.getPrice(), scale);
                 break;
             case KLINE:
-                if (data.getCandlestickData() != null) {
-                    currentPrice = data.getCandlestickData().getClose();
+                if (data.getCandlestickData() == null) {
+                    return;
                 }
+                FixedCandle candle = data.getCandlestickData().toFixed();
+                currentPrice = candle.getClose();
+                scale = candle.getPriceScale();
                 break;
             default:
                 return; // Unknown data type
         }
         
-        if (currentPrice == null) {
-            return;
-        }
-        
-        // Create price map
-        Map<String, java.math.BigDecimal> currentPrices = new ConcurrentHashMap<>();
-        currentPrices.put(symbol, currentPrice);
-        
         // Update prices for all accounts
         for (org.cloudvision.trading.bot.account.TradingAccount account : accountManager.getAllAccounts()) {
             try {
-                account.updateCurrentPrices(currentPrices);
+                account.updateCurrentPrice(symbol, currentPrice, scale);
             } catch (Exception e) {
                 System.err.println("❌ Error updating prices for account " + account.getAccountName() + ": " + e.getMessage());
             }
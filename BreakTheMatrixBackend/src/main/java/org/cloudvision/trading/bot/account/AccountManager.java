@@ -27,6 +27,15 @@ public class AccountManager {
         System.out.println("💼 Account Manager initialized with default paper trading account");
     }
     
+    /**
+     * Manager over a single, already active account (e.g. a backtest's simulated account).
+     * Not a Spring constructor; the application context uses the default one.
+     */
+    public AccountManager(TradingAccount account) {
+        accounts.put(account.getAccountId(), account);
+        this.activeAccountId = account.getAccountId();
+    }
+    
     /**
      * Register a trading account
      */
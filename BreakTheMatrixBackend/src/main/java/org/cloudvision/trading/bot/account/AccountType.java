@@ -6,7 +6,8 @@ package org.cloudvision.trading.bot.account;
 public enum AccountType {
     PAPER_TRADING("Paper Trading", "Simulated trading with virtual money"),
     LIVE_TRADING("Live Trading", "Real trading with actual funds"),
-    TESTNET("Testnet", "Exchange testnet account");
+    TESTNET("Testnet", "Exchange testnet account"),
+    BACKTEST("Backtest", "Simulated fills on archived market data");
     
     private final String displayName;
     private final String description;
@@ -501,5 +501,11 @@ public class PaperTradingAccount implements TradingAccount {
         // Update unrealized P&L for all open positions
         positionManager.updatePrices(currentPrices);
     }
+    
+    @Override
+    public void updateCurrentPrice(String symbol, long price, int scale) {
+        // Fixed-point mark-to-market, no per-tick BigDecimal math
+        positionManager.updatePrice(symbol, price, scale);
+    }
 }
 
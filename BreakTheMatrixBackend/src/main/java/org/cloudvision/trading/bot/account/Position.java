@@ -1,5 +1,7 @@
 package org.cloudvision.trading.bot.account;
 
+import org.cloudvision.trading.model.FixedPoint;
+
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Duration;
@@ -24,10 +26,22 @@ public class Position {
     private BigDecimal realizedPnL = BigDecimal.ZERO;
     private BigDecimal unrealizedPnL = BigDecimal.ZERO;
     
+    // Last fixed-point mark; unrealized P&L is derived from it on read. The mark is written by the
+    // price feed and read by API and strategy threads, so it and the cached P&L share markLock
+    private final Object markLock = new Object();
+    private long markPrice;
+    private int markScale;
+    private boolean markDirty;
+    
     // Risk management
     private BigDecimal stopLoss;
     private BigDecimal takeProfit;
     
+    // Stop loss / take profit at the scale of the incoming prices (levelScale = -1: not computed)
+    private int levelScale = -1;
+    private long stopLossScaled;
+    private long takeProfitScaled;
+    
     // Metadata
     private String strategyId;
     private boolean isOpen;
@@ -47,35 +61,50 @@ public class Position {
      * Update unrealized P&L based on current market price
      */
     public void updateUnrealizedPnL(BigDecimal currentPrice) {
-        if (!isOpen) return;
-        
-        BigDecimal priceDiff = side == PositionSide.LONG 
-            ? currentPrice.subtract(entryPrice)
-            : entryPrice.subtract(currentPrice);
+        synchronized (markLock) {
+            if (!isOpen) return;
+            
+            this.unrealizedPnL = unrealizedPnLAt(currentPrice);
+            this.markDirty = false;
+        }
+    }
+    
+    /**
+     * Record a fixed-point market price; the BigDecimal unrealized P&L is only computed when read
+     */
+    public void markToMarket(long price, int scale) {
+        synchronized (markLock) {
+            if (!isOpen) return;
             
-        this.unrealizedPnL = priceDiff.multiply(quantity).setScale(8, RoundingMode.HALF_UP);
+            this.markPrice = price;
+            this.markScale = scale;
+            this.markDirty = true;
+        }
     }
     
     /**
      * Close the position (full or partial)
      */
     public void close(BigDecimal closePrice, BigDecimal closeQuantity) {
-        if (!isOpen) return;
-        
-        BigDecimal priceDiff = side == PositionSide.LONG 
-            ? closePrice.subtract(entryPrice)
-            : entryPrice.subtract(closePrice);
+        synchronized (markLock) {
+            if (!isOpen) return;
             
-        BigDecimal pnl = priceDiff.multiply(closeQuantity).setScale(8, RoundingMode.HALF_UP);
-        this.realizedPnL = this.realizedPnL.add(pnl);
-        
-        this.quantity = this.quantity.subtract(closeQuantity);
-        
-        if (this.quantity.compareTo(BigDecimal.ZERO) <= 0) {
-            this.isOpen = false;
-            this.exitTime = Instant.now();
-            this.exitPrice = closePrice;
-            this.unrealizedPnL = BigDecimal.ZERO;
+            BigDecimal priceDiff = side == PositionSide.LONG 
+                ? closePrice.subtract(entryPrice)
+                : entryPrice.subtract(closePrice);
+                
+            BigDecimal pnl = priceDiff.multiply(closeQuantity).setScale(8, RoundingMode.HALF_UP);
+            this.realizedPnL = this.realizedPnL.add(pnl);
+            
+            this.quantity = this.quantity.subtract(closeQuantity);
+            
+            if (this.quantity.compareTo(BigDecimal.ZERO) <= 0) {
+                this.isOpen = false;
+                this.exitTime = Instant.now();
+                this.exitPrice = closePrice;
+                this.unrealizedPnL = BigDecimal.ZERO;
+                this.markDirty = false;
+            }
         }
     }
     
@@ -83,7 +112,7 @@ public class Position {
      * Get total P&L (realized + unrealized)
      */
     public BigDecimal getTotalPnL() {
-        return realizedPnL.add(unrealizedPnL);
+        return realizedPnL.add(getUnrealizedPnL());
     }
     
     /**
@@ -186,6 +215,47 @@ public class Position {
             : currentPrice.compareTo(takeProfit) <= 0;
     }
     
+    /**
+     * Check if stop loss is hit by a fixed-point price (same result as the BigDecimal check)
+     */
+    public boolean isStopLossHit(long price, int scale) {
+        if (stopLoss == null) return false;
+        
+        ensureLevels(scale);
+        return side == PositionSide.LONG 
+            ? price <= stopLossScaled
+            : price >= stopLossScaled;
+    }
+    
+    /**
+     * Check if take profit is hit by a fixed-point price (same result as the BigDecimal check)
+     */
+    public boolean isTakeProfitHit(long price, int scale) {
+        if (takeProfit == null) return false;
+        
+        ensureLevels(scale);
+        return side == PositionSide.LONG 
+            ? price >= takeProfitScaled
+            : price <= takeProfitScaled;
+    }
+    
+    /**
+     * Scale SL/TP once per price scale. Rounding is towards the "not hit" side so that
+     * comparing scaled longs gives exactly the same answer as comparing the BigDecimals.
+     */
+    private void ensureLevels(int scale) {
+        if (levelScale == scale) return;
+        
+        boolean isLong = side == PositionSide.LONG;
+        if (stopLoss != null) {
+            stopLossScaled = FixedPoint.toScaled(stopLoss, scale, isLong ? RoundingMode.FLOOR : RoundingMode.CEILING);
+        }
+        if (takeProfit != null) {
+            takeProfitScaled = FixedPoint.toScaled(takeProfit, scale, isLong ? RoundingMode.CEILING : RoundingMode.FLOOR);
+        }
+        levelScale = scale;
+    }
+    
     // Getters and setters
     
     public String getPositionId() {
@@ -229,7 +299,20 @@ public class Position {
     }
     
     public BigDecimal getUnrealizedPnL() {
-        return unrealizedPnL;
+        synchronized (markLock) {
+            if (markDirty) {
+                unrealizedPnL = unrealizedPnLAt(FixedPoint.toBigDecimal(markPrice, markScale));
+                markDirty = false;
+            }
+            return unrealizedPnL;
+        }
+    }
+    
+    private BigDecimal unrealizedPnLAt(BigDecimal price) {
+        BigDecimal priceDiff = side == PositionSide.LONG 
+            ? price.subtract(entryPrice)
+            : entryPrice.subtract(price);
+        return priceDiff.multiply(quantity).setScale(8, RoundingMode.HALF_UP);
     }
     
     public BigDecimal getStopLoss() {
@@ -238,6 +321,7 @@ public class Position {
     
     public void setStopLoss(BigDecimal stopLoss) {
         this.stopLoss = stopLoss;
+        this.levelScale = -1;
     }
     
     public BigDecimal getTakeProfit() {
@@ -246,6 +330,7 @@ public class Position {
     
     public void setTakeProfit(BigDecimal takeProfit) {
         this.takeProfit = takeProfit;
+        this.levelScale = -1;
     }
     
     public String getStrategyId() {
@@ -1,5 +1,7 @@
 package org.cloudvision.trading.bot.account;
 
+import org.cloudvision.trading.model.FixedPoint;
+
 import java.math.BigDecimal;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -90,6 +92,27 @@ public class PositionManager {
         }
     }
     
+    /**
+     * Mark open positions of one symbol to a fixed-point price and check stop loss / take profit.
+     * BigDecimals are only created when a position is closed.
+     */
+    public void updatePrice(String symbol, long price, int scale) {
+        for (Position position : openPositions.values()) {
+            if (!position.getSymbol().equals(symbol)) continue;
+            
+            position.markToMarket(price, scale);
+            
+            // Check stop loss / take profit
+            if (position.isStopLossHit(price, scale)) {
+                System.out.println("⛔ Stop Loss hit for " + position.getSymbol());
+                closePosition(position.getPositionId(), FixedPoint.toBigDecimal(price, scale), position.getQuantity());
+            } else if (position.isTakeProfitHit(price, scale)) {
+                System.out.println("🎯 Take Profit hit for " + position.getSymbol());
+                closePosition(position.getPositionId(), FixedPoint.toBigDecimal(price, scale), position.getQuantity());
+            }
+        }
+    }
+    
     /**
      * Get all open positions
      */
@@ -1,6 +1,7 @@
 package org.cloudvision.trading.bot.account;
 
 import org.cloudvision.trading.bot.model.Order;
+import org.cloudvision.trading.model.FixedPoint;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -146,5 +147,13 @@ public interface TradingAccount {
      * @param currentPrices Map of symbol -> current price
      */
     void updateCurrentPrices(Map<String, BigDecimal> currentPrices);
+    
+    /**
+     * Update the current price of one symbol, given as a fixed-point value
+     * @param price Price scaled by 10^scale
+     */
+    default void updateCurrentPrice(String symbol, long price, int scale) {
+        updateCurrentPrices(Map.of(symbol, FixedPoint.toBigDecimal(price, scale)));
+    }
 }
 
@@ -0,0 +1,455 @@
+package org.cloudvision.trading.bot.backtest;
+
+import org.cloudvision.trading.bot.account.AccountStats;
+import org.cloudvision.trading.bot.account.AccountType;
+import org.cloudvision.trading.bot.account.Position;
+import org.cloudvision.trading.bot.account.PositionManager;
+import org.cloudvision.trading.bot.account.PositionSide;
+import org.cloudvision.trading.bot.account.TradingAccount;
+import org.cloudvision.trading.bot.model.Order;
+import org.cloudvision.trading.bot.model.OrderSide;
+import org.cloudvision.trading.bot.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Simulated futures account for one backtest run.
+ * Fills are charged a fee and moved against the order by the configured slippage; time comes from
+ * the simulated clock set by the engine. Positions close FIFO per symbol and side, so a run is
+ * deterministic. Not thread-safe: a run drives its account from a single thread.
+ */
+public class BacktestAccount implements TradingAccount {
+
+    private static final BigDecimal BPS = new BigDecimal("10000");
+
+    private final String accountId;
+    private final BigDecimal initialBalance;
+    private final BigDecimal feeRate;
+    private final BigDecimal buySlippage;  // Price multiplier for fills that buy
+    private final BigDecimal sellSlippage; // Price multiplier for fills that sell
+
+    private BigDecimal balance;
+    private BigDecimal lockedMargin = BigDecimal.ZERO;
+    private BigDecimal totalFees = BigDecimal.ZERO;
+    private Instant clock = Instant.EPOCH;
+    private boolean enabled = true;
+
+    // Open lots per symbol, oldest first
+    private final Map<String, List<Lot>> openLots = new LinkedHashMap<>();
+    private final Map<String, BigDecimal> lastPrices = new HashMap<>();
+    private final List<Position> closedPositions = new ArrayList<>();
+    private final List<BacktestTrade> trades = new ArrayList<>();
+
+    private int filledOrders = 0;
+    private int rejectedOrders = 0;
+
+    public BacktestAccount(String accountId, BigDecimal initialBalance, BigDecimal feeRate, BigDecimal slippageBps) {
+        this.accountId = accountId;
+        this.initialBalance = initialBalance;
+        this.balance = initialBalance;
+        this.feeRate = feeRate;
+        BigDecimal slippage = slippageBps.divide(BPS, 10, RoundingMode.HALF_UP);
+        this.buySlippage = BigDecimal.ONE.add(slippage);
+        this.sellSlippage = BigDecimal.ONE.subtract(slippage);
+    }
+
+    /**
+     * Advance the simulated clock; fills and closes are stamped with it
+     */
+    public void setClock(Instant time) {
+        this.clock = time;
+    }
+
+    public Instant getClock() {
+        return clock;
+    }
+
+    @Override
+    public String getAccountId() {
+        return accountId;
+    }
+
+    @Override
+    public String getAccountName() {
+        return "Backtest " + accountId;
+    }
+
+    @Override
+    public AccountType getAccountType() {
+        return AccountType.BACKTEST;
+    }
+
+    /**
+     * Fill a market order at its own price (plus slippage)
+     */
+    @Override
+    public Order executeOrder(Order order) {
+        return fill(order, order.getPrice());
+    }
+
+    /**
+     * Fill a market order at the given reference price (plus slippage)
+     */
+    public Order fill(Order order, BigDecimal referencePrice) {
+        if (!enabled || order.getQuantity() == null || order.getQuantity().compareTo(BigDecimal.ZERO) <= 0
+                || referencePrice == null) {
+            return reject(order);
+        }
+
+        PositionSide positionSide = order.getPositionSide() != null ? order.getPositionSide() : PositionSide.LONG;
+        boolean isOpening = (order.getSide() == OrderSide.BUY && positionSide == PositionSide.LONG) ||
+                           (order.getSide() == OrderSide.SELL && positionSide == PositionSide.SHORT);
+        BigDecimal price = slipped(referencePrice, order.getSide());
+
+        if (isOpening) {
+            BigDecimal notional = price.multiply(order.getQuantity());
+            BigDecimal fee = fee(notional);
+            if (balance.subtract(lockedMargin).compareTo(notional.add(fee)) < 0) {
+                return reject(order);
+            }
+            Position position = new Position(order.getSymbol(), positionSide, price, order.getQuantity());
+            position.setStopLoss(order.getSuggestedStopLoss());
+            position.setTakeProfit(order.getSuggestedTakeProfit());
+            position.setStrategyId(order.getStrategyId());
+            openLots.computeIfAbsent(order.getSymbol(), k -> new ArrayList<>()).add(new Lot(position, clock, fee));
+            lockedMargin = lockedMargin.add(notional);
+            balance = balance.subtract(fee);
+            totalFees = totalFees.add(fee);
+        } else if (close(order.getSymbol(), positionSide, order.getQuantity(), price,
+                         BacktestTrade.ExitReason.SIGNAL).compareTo(BigDecimal.ZERO) == 0) {
+            return reject(order);
+        }
+
+        filledOrders++;
+        order.setStatus(OrderStatus.FILLED);
+        order.setExecutedQuantity(order.getQuantity());
+        order.setExecutedPrice(price);
+        order.setExecutedAt(clock);
+        return order;
+    }
+
+    /**
+     * Trigger stop losses and take profits of a symbol's positions against a price range.
+     * A level the range opened beyond fills at the open; if both levels of a position are inside
+     * the range the stop is assumed to have been hit first.
+     */
+    public void checkExits(String symbol, BigDecimal open, BigDecimal high, BigDecimal low) {
+        List<Lot> lots = openLots.get(symbol);
+        if (lots == null || lots.isEmpty()) {
+            return;
+        }
+        for (Lot lot : new ArrayList<>(lots)) {
+            Position position = lot.position;
+            BigDecimal stop = position.getStopLoss();
+            BigDecimal target = position.getTakeProfit();
+            boolean isLong = position.getSide() == PositionSide.LONG;
+            OrderSide exitSide = isLong ? OrderSide.SELL : OrderSide.BUY;
+
+            if (stop != null && (isLong ? low.compareTo(stop) <= 0 : high.compareTo(stop) >= 0)) {
+                BigDecimal level = isLong ? stop.min(open) : stop.max(open);
+                closeLot(symbol, lot, position.getQuantity(), slipped(level, exitSide), BacktestTrade.ExitReason.STOP_LOSS);
+            } else if (target != null && (isLong ? high.compareTo(target) >= 0 : low.compareTo(target) <= 0)) {
+                BigDecimal level = isLong ? target.max(open) : target.min(open);
+                closeLot(symbol, lot, position.getQuantity(), slipped(level, exitSide), BacktestTrade.ExitReason.TAKE_PROFIT);
+            }
+        }
+    }
+
+    /**
+     * Record the latest price of a symbol for equity and unrealized P&L
+     */
+    public void markToMarket(String symbol, BigDecimal price) {
+        lastPrices.put(symbol, price);
+    }
+
+    /**
+     * Balance plus unrealized P&L at the last marked prices
+     */
+    public double getEquity() {
+        double equity = balance.doubleValue();
+        for (Map.Entry<String, List<Lot>> entry : openLots.entrySet()) {
+            BigDecimal price = lastPrices.get(entry.getKey());
+            if (price == null) {
+                continue;
+            }
+            double last = price.doubleValue();
+            for (Lot lot : entry.getValue()) {
+                Position position = lot.position;
+                double diff = last - position.getEntryPrice().doubleValue();
+                equity += (position.getSide() == PositionSide.LONG ? diff : -diff) * position.getQuantity().doubleValue();
+            }
+        }
+        return equity;
+    }
+
+    /**
+     * Close every open position at the last marked price (or its entry price if never marked)
+     */
+    public void closeAll(BacktestTrade.ExitReason reason) {
+        for (Map.Entry<String, List<Lot>> entry : new ArrayList<>(openLots.entrySet())) {
+            String symbol = entry.getKey();
+            for (Lot lot : new ArrayList<>(entry.getValue())) {
+                Position position = lot.position;
+                BigDecimal reference = lastPrices.getOrDefault(symbol, position.getEntryPrice());
+                OrderSide exitSide = position.getSide() == PositionSide.LONG ? OrderSide.SELL : OrderSide.BUY;
+                closeLot(symbol, lot, position.getQuantity(), slipped(reference, exitSide), reason);
+            }
+        }
+    }
+
+    public List<BacktestTrade> getTrades() {
+        return trades;
+    }
+
+    public BigDecimal getTotalFees() {
+        return totalFees;
+    }
+
+    public BigDecimal getInitialBalance() {
+        return initialBalance;
+    }
+
+    public int getFilledOrderCount() {
+        return filledOrders;
+    }
+
+    public int getRejectedOrderCount() {
+        return rejectedOrders;
+    }
+
+    /**
+     * Close up to {@code quantity} of a symbol's positions on one side, oldest first
+     * @return quantity actually closed
+     */
+    private BigDecimal close(String symbol, PositionSide side, BigDecimal quantity, BigDecimal price,
+                             BacktestTrade.ExitReason reason) {
+        List<Lot> lots = openLots.get(symbol);
+        if (lots == null) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal remaining = quantity;
+        for (Lot lot : new ArrayList<>(lots)) {
+            if (remaining.compareTo(BigDecimal.ZERO) <= 0) {
+                break;
+            }
+            if (lot.position.getSide() != side) {
+                continue;
+            }
+            BigDecimal closeQty = remaining.min(lot.position.getQuantity());
+            closeLot(symbol, lot, closeQty, price, reason);
+            remaining = remaining.subtract(closeQty);
+        }
+        return quantity.subtract(remaining);
+    }
+
+    private void closeLot(String symbol, Lot lot, BigDecimal closeQty, BigDecimal price,
+                          BacktestTrade.ExitReason reason) {
+        Position position = lot.position;
+        BigDecimal lotQty = position.getQuantity();
+        BigDecimal pnlBefore = position.getRealizedPnL();
+        position.close(price, closeQty);
+        BigDecimal grossPnL = position.getRealizedPnL().subtract(pnlBefore);
+
+        // Entry fee is attributed to the closed part in proportion to quantity
+        BigDecimal entryFee = closeQty.compareTo(lotQty) >= 0
+            ? lot.entryFee
+            : lot.entryFee.multiply(closeQty).divide(lotQty, 8, RoundingMode.HALF_UP);
+        lot.entryFee = lot.entryFee.subtract(entryFee);
+        BigDecimal exitFee = fee(price.multiply(closeQty));
+
+        lockedMargin = lockedMargin.subtract(position.getEntryPrice().multiply(closeQty));
+        balance = balance.add(grossPnL).subtract(exitFee);
+        totalFees = totalFees.add(exitFee);
+
+        trades.add(new BacktestTrade(symbol, position.getSide(), lot.entryTime, clock,
+            position.getEntryPrice(), price, closeQty, grossPnL, entryFee.add(exitFee), reason));
+
+        if (!position.isOpen()) {
+            openLots.get(symbol).remove(lot);
+            closedPositions.add(position);
+        }
+    }
+
+    private BigDecimal slipped(BigDecimal price, OrderSide side) {
+        BigDecimal multiplier = side == OrderSide.BUY ? buySlippage : sellSlippage;
+        return multiplier.compareTo(BigDecimal.ONE) == 0
+            ? price
+            : price.multiply(multiplier).setScale(Math.max(price.scale(), 8), RoundingMode.HALF_UP);
+    }
+
+    private BigDecimal fee(BigDecimal notional) {
+        return notional.multiply(feeRate).setScale(8, RoundingMode.HALF_UP);
+    }
+
+    private Order reject(Order order) {
+        rejectedOrders++;
+        order.setStatus(OrderStatus.REJECTED);
+        return order;
+    }
+
+    @Override
+    public boolean cancelOrder(String orderId) {
+        return false; // Market orders fill immediately
+    }
+
+    @Override
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    @Override
+    public BigDecimal getAvailableBalance() {
+        return balance.subtract(lockedMargin);
+    }
+
+    @Override
+    public BigDecimal getAssetBalance(String asset) {
+        return "USDT".equals(asset) ? balance : BigDecimal.ZERO;
+    }
+
+    @Override
+    public Map<String, BigDecimal> getAllBalances() {
+        return Map.of("USDT", balance);
+    }
+
+    @Override
+    public BigDecimal getTotalExposure() {
+        return lockedMargin;
+    }
+
+    @Override
+    public BigDecimal getDailyPnL() {
+        return BigDecimal.ZERO; // Not tracked; see the equity curve of the result
+    }
+
+    @Override
+    public Order getOrder(String orderId) {
+        return null; // Orders are not retained; fills are summarized as trades
+    }
+
+    @Override
+    public List<Order> getAllOrders() {
+        return List.of();
+    }
+
+    @Override
+    public List<Order> getOpenOrders() {
+        return List.of();
+    }
+
+    @Override
+    public List<Order> getFilledOrders() {
+        return List.of();
+    }
+
+    @Override
+    public BigDecimal getTotalPnL() {
+        return BigDecimal.valueOf(getEquity()).subtract(initialBalance);
+    }
+
+    @Override
+    public AccountStats getAccountStats() {
+        BigDecimal realized = balance.subtract(initialBalance);
+        BigDecimal total = getTotalPnL();
+        BacktestStats stats = BacktestStats.fromTrades(initialBalance, trades);
+        return new AccountStats(
+            accountId, initialBalance, balance, total, realized, total.subtract(realized),
+            stats.getTotalTrades(), stats.getWinningTrades(), stats.getLosingTrades(),
+            stats.getWinRate(), stats.getLargestWin(), stats.getLargestLoss(),
+            stats.getAverageWin(), stats.getAverageLoss(), stats.getProfitFactor(),
+            Instant.EPOCH, trades.isEmpty() ? null : trades.get(trades.size() - 1).getExitTime()
+        );
+    }
+
+    @Override
+    public void reset() {
+        balance = initialBalance;
+        lockedMargin = BigDecimal.ZERO;
+        totalFees = BigDecimal.ZERO;
+        openLots.clear();
+        lastPrices.clear();
+        closedPositions.clear();
+        trades.clear();
+        filledOrders = 0;
+        rejectedOrders = 0;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public List<Position> getOpenPositions() {
+        List<Position> positions = new ArrayList<>();
+        for (List<Lot> lots : openLots.values()) {
+            for (Lot lot : lots) {
+                positions.add(lot.position);
+            }
+        }
+        return positions;
+    }
+
+    @Override
+    public List<Position> getOpenPositionsBySymbol(String symbol) {
+        List<Lot> lots = openLots.get(symbol);
+        if (lots == null || lots.isEmpty()) {
+            return List.of();
+        }
+        List<Position> positions = new ArrayList<>(lots.size());
+        for (Lot lot : lots) {
+            positions.add(lot.position);
+        }
+        return positions;
+    }
+
+    @Override
+    public Position getPosition(String positionId) {
+        for (List<Lot> lots : openLots.values()) {
+            for (Lot lot : lots) {
+                if (lot.position.getPositionId().equals(positionId)) {
+                    return lot.position;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<Position> getPositionHistory() {
+        return closedPositions;
+    }
+
+    @Override
+    public PositionManager getPositionManager() {
+        return null; // Positions are tracked by the account itself
+    }
+
+    @Override
+    public void updateCurrentPrices(Map<String, BigDecimal> currentPrices) {
+        lastPrices.putAll(currentPrices);
+    }
+
+    /**
+     * Open position with its simulated entry time and the part of its entry fee not yet attributed
+     */
+    private static class Lot {
+        private final Position position;
+        private final Instant entryTime;
+        private BigDecimal entryFee;
+
+        private Lot(Position position, Instant entryTime, BigDecimal entryFee) {
+            this.position = position;
+            this.entryTime = entryTime;
+            this.entryFee = entryFee;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package org.cloudvision.trading.bot.backtest;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration for a backtest run
+ * The strategy is a registered strategy id; its configuration is copied and the overrides below applied.
+ */
+public class BacktestConfig {
+
+    private final String strategyId;
+    private final String provider;
+    private final String symbol;
+    private final String interval;
+    private final Instant startTime;
+    private final Instant endTime;
+    private final BigDecimal initialBalance;
+    private final BigDecimal positionSize; // Notional per entry (null = the strategy's maxPositionSize)
+    private final BigDecimal feeRate; // Fraction of notional charged per fill (0.0004 = 4 bps taker)
+    private final BigDecimal slippageBps; // Adverse price move applied to every fill, in basis points
+    private final boolean fillOnNextOpen; // Fill signals at the next candle's open instead of the signal price
+    private final int warmupCandles; // Candles before the range used to bootstrap the strategy
+    private final Map<String, Object> parameters; // Strategy parameter overrides
+
+    public static final BigDecimal DEFAULT_INITIAL_BALANCE = new BigDecimal("10000");
+    public static final BigDecimal DEFAULT_FEE_RATE = new BigDecimal("0.0004");
+    public static final int DEFAULT_WARMUP_CANDLES = 200;
+
+    private BacktestConfig(Builder builder) {
+        this.strategyId = builder.strategyId;
+        this.provider = builder.provider;
+        this.symbol = builder.symbol;
+        this.interval = builder.interval;
+        this.startTime = builder.startTime;
+        this.endTime = builder.endTime;
+        this.initialBalance = builder.initialBalance;
+        this.positionSize = builder.positionSize;
+        this.feeRate = builder.feeRate;
+        this.slippageBps = builder.slippageBps;
+        this.fillOnNextOpen = builder.fillOnNextOpen;
+        this.warmupCandles = builder.warmupCandles;
+        this.parameters = builder.parameters;
+    }
+
+    /**
+     * Constructor for Jackson deserialization
+     */
+    @JsonCreator
+    public BacktestConfig(
+            @JsonProperty("strategyId") String strategyId,
+            @JsonProperty("provider") String provider,
+            @JsonProperty("symbol") String symbol,
+            @JsonProperty("interval") String interval,
+            @JsonProperty("startTime") Instant startTime,
+            @JsonProperty("endTime") Instant endTime,
+            @JsonProperty("initialBalance") BigDecimal initialBalance,
+            @JsonProperty("positionSize") BigDecimal positionSize,
+            @JsonProperty("feeRate") BigDecimal feeRate,
+            @JsonProperty("slippageBps") BigDecimal slippageBps,
+            @JsonProperty("fillOnNextOpen") Boolean fillOnNextOpen,
+            @JsonProperty("warmupCandles") Integer warmupCandles,
+            @JsonProperty("parameters") Map<String, Object> parameters) {
+        this.strategyId = strategyId;
+        this.provider = provider;
+        this.symbol = symbol;
+        this.interval = interval;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.initialBalance = initialBalance != null ? initialBalance : DEFAULT_INITIAL_BALANCE;
+        this.positionSize = positionSize;
+        this.feeRate = feeRate != null ? feeRate : DEFAULT_FEE_RATE;
+        this.slippageBps = slippageBps != null ? slippageBps : BigDecimal.ZERO;
+        this.fillOnNextOpen = fillOnNextOpen != null && fillOnNextOpen;
+        this.warmupCandles = warmupCandles != null && warmupCandles >= 0 ? warmupCandles : DEFAULT_WARMUP_CANDLES;
+        this.parameters = parameters != null ? parameters : new HashMap<>();
+    }
+
+    // Getters
+    public String getStrategyId() { return strategyId; }
+    public String getProvider() { return provider; }
+    public String getSymbol() { return symbol; }
+    public String getInterval() { return interval; }
+    public Instant getStartTime() { return startTime; }
+    public Instant getEndTime() { return endTime; }
+    public BigDecimal getInitialBalance() { return initialBalance; }
+    public BigDecimal getPositionSize() { return positionSize; }
+    public BigDecimal getFeeRate() { return feeRate; }
+    public BigDecimal getSlippageBps() { return slippageBps; }
+    public boolean isFillOnNextOpen() { return fillOnNextOpen; }
+    public int getWarmupCandles() { return warmupCandles; }
+    public Map<String, Object> getParameters() { return parameters; }
+
+    /**
+     * Copy of this configuration with different strategy parameter overrides
+     */
+    public BacktestConfig withParameters(Map<String, Object> parameters) {
+        return toBuilder().parameters(parameters).build();
+    }
+
+    public Builder toBuilder() {
+        return builder()
+            .strategyId(strategyId)
+            .provider(provider)
+            .symbol(symbol)
+            .interval(interval)
+            .startTime(startTime)
+            .endTime(endTime)
+            .initialBalance(initialBalance)
+            .positionSize(positionSize)
+            .feeRate(feeRate)
+            .slippageBps(slippageBps)
+            .fillOnNextOpen(fillOnNextOpen)
+            .warmupCandles(warmupCandles)
+            .parameters(parameters);
+    }
+
+    // Builder pattern
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private String strategyId;
+        private String provider;
+        private String symbol;
+        private String interval;
+        private Instant startTime;
+        private Instant endTime;
+        private BigDecimal initialBalance = DEFAULT_INITIAL_BALANCE;
+        private BigDecimal positionSize;
+        private BigDecimal feeRate = DEFAULT_FEE_RATE;
+        private BigDecimal slippageBps = BigDecimal.ZERO;
+        private boolean fillOnNextOpen = false;
+        private int warmupCandles = DEFAULT_WARMUP_CANDLES;
+        private Map<String, Object> parameters = new HashMap<>();
+
+        public Builder strategyId(String strategyId) {
+            this.strategyId = strategyId;
+            return this;
+        }
+
+        public Builder provider(String provider) {
+            this.provider = provider;
+            return this;
+        }
+
+        public Builder symbol(String symbol) {
+            this.symbol = symbol;
+            return this;
+        }
+
+        public Builder interval(String interval) {
+            this.interval = interval;
+            return this;
+        }
+
+        public Builder startTime(Instant startTime) {
+            this.startTime = startTime;
+            return this;
+        }
+
+        public Builder endTime(Instant endTime) {
+            this.endTime = endTime;
+            return this;
+        }
+
+        public Builder initialBalance(BigDecimal initialBalance) {
+            this.initialBalance = initialBalance;
+            return this;
+        }
+
+        public Builder positionSize(BigDecimal positionSize) {
+            this.positionSize = positionSize;
+            return this;
+        }
+
+        public Builder feeRate(BigDecimal feeRate) {
+            this.feeRate = feeRate;
+            return this;
+        }
+
+        public Builder slippageBps(BigDecimal slippageBps) {
+            this.slippageBps = slippageBps;
+            return this;
+        }
+
+        public Builder fillOnNextOpen(boolean fillOnNextOpen) {
+            this.fillOnNextOpen = fillOnNextOpen;
+            return this;
+        }
+
+        public Builder warmupCandles(int warmupCandles) {
+            this.warmupCandles = warmupCandles;
+            return this;
+        }
+
+        public Builder parameters(Map<String, Object> parameters) {
+            this.parameters = parameters != null ? new HashMap<>(parameters) : new HashMap<>();
+            return this;
+        }
+
+        public Builder parameter(String key, Object value) {
+            this.parameters.put(key, value);
+            return this;
+        }
+
+        public BacktestConfig build() {
+            BacktestConfig config = new BacktestConfig(this);
+            config.validate();
+            return config;
+        }
+    }
+
+    /**
+     * Check required fields and ranges
+     * @throws IllegalArgumentException if the configuration cannot be run
+     */
+    public void validate() {
+        if (strategyId == null || strategyId.isEmpty()) {
+            throw new IllegalArgumentException("Strategy ID is required");
+        }
+        if (provider == null || provider.isEmpty()) {
+            throw new IllegalArgumentException("Provider is required");
+        }
+        if (symbol == null || symbol.isEmpty()) {
+            throw new IllegalArgumentException("Symbol is required");
+        }
+        if (interval == null || interval.isEmpty()) {
+            throw new IllegalArgumentException("Interval is required");
+        }
+        if (startTime != null && endTime != null && !startTime.isBefore(endTime)) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+        if (initialBalance == null || initialBalance.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Initial balance must be positive");
+        }
+        if (positionSize != null && positionSize.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Position size must be positive");
+        }
+        if (feeRate == null || feeRate.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Fee rate cannot be negative");
+        }
+        if (slippageBps == null || slippageBps.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Slippage cannot be negative");
+        }
+        if (warmupCandles < 0) {
+            throw new IllegalArgumentException("Warm-up candles cannot be negative");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BacktestConfig{strategy=%s, %s:%s:%s, %s to %s, balance=%s, fee=%s, slippage=%sbps}",
+            strategyId, provider, symbol, interval, startTime, endTime, initialBalance, feeRate, slippageBps);
+    }
+}
@@ -0,0 +1,164 @@
+package org.cloudvision.trading.bot.backtest;
+
+import org.cloudvision.trading.bot.account.AccountManager;
+import org.cloudvision.trading.bot.model.Order;
+import org.cloudvision.trading.bot.model.OrderStatus;
+import org.cloudvision.trading.bot.strategy.TradingStrategy;
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.model.TradeData;
+import org.cloudvision.trading.model.TradingData;
+import org.cloudvision.trading.model.TradingDataType;
+import org.cloudvision.trading.service.CandlestickHistoryService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Event-driven backtest of one strategy instance over archived candles (and optionally trades).
+ *
+ * Single-threaded and deterministic: the strategy reads candle history and positions from private
+ * services and fills through a {@link BacktestAccount}; the live AccountManager, RiskManager,
+ * candle history and visualization are never touched. Per candle:
+ * 1. orders queued on the previous candle fill at this open (fillOnNextOpen)
+ * 2. stops and targets are checked against the trades inside the candle, or its high/low
+ * 3. the candle is appended to the private history and passed to the strategy as a closed kline
+ * 4. resulting orders fill at their price, or are queued for the next open
+ */
+public class BacktestEngine {
+
+    private static final double MILLIS_PER_YEAR = 365.25 * 24 * 60 * 60 * 1000;
+
+    private final BacktestConfig config;
+
+    public BacktestEngine(BacktestConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Run a strategy instance that is initialized but otherwise unused; the instance is consumed.
+     *
+     * @param warmup Candles before the range, used to bootstrap the strategy (oldest first)
+     * @param candles Candles to trade (oldest first, closed)
+     * @param trades Optional trade tape covering the candles (oldest first), or null
+     * @throws IllegalStateException if the strategy throws while processing an event
+     */
+    public BacktestResult run(String backtestId, TradingStrategy strategy, List<CandlestickData> warmup,
+                              List<CandlestickData> candles, List<TradeData> trades) {
+        long started = System.nanoTime();
+
+        BacktestAccount account = new BacktestAccount(
+            backtestId, config.getInitialBalance(), config.getFeeRate(), config.getSlippageBps());
+        CandlestickHistoryService history = new CandlestickHistoryService();
+        history.setMaxCandles(config.getProvider(), config.getSymbol(), config.getInterval(),
+            Math.max(1000, warmup.size() + 1));
+        strategy.useIsolatedServices(new AccountManager(account), history);
+
+        if (!warmup.isEmpty()) {
+            history.addCandlesticks(config.getProvider(), config.getSymbol(), config.getInterval(), warmup);
+            strategy.bootstrapWithHistoricalData(new ArrayList<>(warmup));
+        }
+
+        int count = candles.size();
+        long[] equityTimes = new long[count];
+        double[] equity = new double[count];
+        List<Order> pending = new ArrayList<>();
+        int tradeIndex = 0;
+        int tradesProcessed = 0;
+
+        for (int i = 0; i < count; i++) {
+            CandlestickData candle = candles.get(i);
+            String symbol = candle.getSymbol();
+
+            // 1. Signals of the previous candle fill at this open
+            account.setClock(candle.getOpenTime());
+            if (!pending.isEmpty()) {
+                for (Order order : pending) {
+                    account.fill(order, candle.getOpen());
+                }
+                pending.clear();
+            }
+
+            // 2. Intrabar: replay the trade tape when there is one, otherwise use the candle's range
+            boolean tapeCovered = false;
+            if (trades != null) {
+                while (tradeIndex < trades.size()
+                        && !trades.get(tradeIndex).getTimestamp().isAfter(candle.getCloseTime())) {
+                    TradeData trade = trades.get(tradeIndex++);
+                    if (trade.getTimestamp().isBefore(candle.getOpenTime())) {
+                        continue;
+                    }
+                    account.setClock(trade.getTimestamp());
+                    account.checkExits(symbol, trade.getPrice(), trade.getPrice(), trade.getPrice());
+                    account.markToMarket(symbol, trade.getPrice());
+                    TradingData data = new TradingData(symbol, trade.getTimestamp(), candle.getProvider(),
+                        TradingDataType.TRADE, trade);
+                    execute(account, analyze(strategy, data), pending);
+                    tradesProcessed++;
+                    tapeCovered = true;
+                }
+            }
+            account.setClock(candle.getCloseTime());
+            if (!tapeCovered) {
+                account.checkExits(symbol, candle.getOpen(), candle.getHigh(), candle.getLow());
+            }
+
+            // 3. Closed candle into the private history, then the strategy
+            history.addCandlestick(candle);
+            account.markToMarket(symbol, candle.getClose());
+            TradingData data = new TradingData(symbol, candle.getCloseTime(), candle.getProvider(),
+                TradingDataType.KLINE, candle);
+
+            // 4. Orders fill now or at the next open
+            execute(account, analyze(strategy, data), pending);
+
+            equityTimes[i] = candle.getCloseTime().toEpochMilli();
+            equity[i] = account.getEquity();
+        }
+
+        // Flatten at the last price so the statistics include every position
+        account.closeAll(BacktestTrade.ExitReason.END_OF_DATA);
+        if (count > 0) {
+            equity[count - 1] = account.getEquity();
+        }
+
+        BacktestStats stats = BacktestStats.calculate(
+            config.getInitialBalance(), account.getTrades(), equity, count, periodsPerYear(candles));
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        return new BacktestResult(backtestId, config, strategy.getStrategyName(), stats, account.getTrades(),
+            equityTimes, equity, count, warmup.size(), tradesProcessed,
+            account.getFilledOrderCount(), account.getRejectedOrderCount(), elapsedMillis);
+    }
+
+    private List<Order> analyze(TradingStrategy strategy, TradingData data) {
+        try {
+            return strategy.analyze(data);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Strategy " + strategy.getStrategyId() + " failed at " +
+                data.getTimestamp() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void execute(BacktestAccount account, List<Order> orders, List<Order> pending) {
+        for (Order order : orders) {
+            if (order.getStatus() != OrderStatus.PENDING) {
+                continue;
+            }
+            if (config.isFillOnNextOpen()) {
+                pending.add(order);
+            } else {
+                account.executeOrder(order);
+            }
+        }
+    }
+
+    private static double periodsPerYear(List<CandlestickData> candles) {
+        if (candles.isEmpty()) {
+            return 0;
+        }
+        CandlestickData first = candles.get(0);
+        long candleMillis = Duration.between(first.getOpenTime(), first.getCloseTime()).plusMillis(1).toMillis();
+        return candleMillis > 0 ? MILLIS_PER_YEAR / candleMillis : 0;
+    }
+}
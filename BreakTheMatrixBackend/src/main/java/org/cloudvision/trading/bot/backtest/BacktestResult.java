@@ -0,0 +1,130 @@
+package org.cloudvision.trading.bot.backtest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a backtest run: statistics, closed trades and the per-candle equity curve
+ */
+public class BacktestResult {
+
+    private final String backtestId;
+    private final BacktestConfig config;
+    private final String strategyName;
+    private final BacktestStats stats;
+    private final List<BacktestTrade> trades;
+    private final long[] equityTimes; // Candle close times, epoch millis
+    private final double[] equity;
+    private final int equityPoints;
+    private final int warmupCandles;
+    private final int tradesProcessed;
+    private final int filledOrders;
+    private final int rejectedOrders;
+    private final long elapsedMillis;
+
+    public BacktestResult(String backtestId, BacktestConfig config, String strategyName, BacktestStats stats,
+                          List<BacktestTrade> trades, long[] equityTimes, double[] equity, int equityPoints,
+                          int warmupCandles, int tradesProcessed, int filledOrders, int rejectedOrders,
+                          long elapsedMillis) {
+        this.backtestId = backtestId;
+        this.config = config;
+        this.strategyName = strategyName;
+        this.stats = stats;
+        this.trades = trades;
+        this.equityTimes = equityTimes;
+        this.equity = equity;
+        this.equityPoints = equityPoints;
+        this.warmupCandles = warmupCandles;
+        this.tradesProcessed = tradesProcessed;
+        this.filledOrders = filledOrders;
+        this.rejectedOrders = rejectedOrders;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters
+    public String getBacktestId() { return backtestId; }
+    public BacktestConfig getConfig() { return config; }
+    public String getStrategyName() { return strategyName; }
+    public BacktestStats getStats() { return stats; }
+    public List<BacktestTrade> getTrades() { return trades; }
+    public int getCandlesProcessed() { return equityPoints; }
+    public int getWarmupCandles() { return warmupCandles; }
+    public int getTradesProcessed() { return tradesProcessed; }
+    public int getFilledOrders() { return filledOrders; }
+    public int getRejectedOrders() { return rejectedOrders; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public Instant getFirstCandle() {
+        return equityPoints > 0 ? Instant.ofEpochMilli(equityTimes[0]) : null;
+    }
+
+    public Instant getLastCandle() {
+        return equityPoints > 0 ? Instant.ofEpochMilli(equityTimes[equityPoints - 1]) : null;
+    }
+
+    public double getCandlesPerSecond() {
+        return elapsedMillis > 0 ? equityPoints * 1000.0 / elapsedMillis : equityPoints;
+    }
+
+    /**
+     * Equity curve reduced to at most {@code maxPoints} points (evenly spaced, last point always kept)
+     */
+    public List<EquityPoint> getEquityCurve(int maxPoints) {
+        if (equityPoints == 0 || maxPoints <= 0) {
+            return List.of();
+        }
+        int step = Math.max(1, (equityPoints + maxPoints - 1) / maxPoints);
+        List<EquityPoint> curve = new ArrayList<>(Math.min(equityPoints, maxPoints) + 1);
+        for (int i = 0; i < equityPoints; i += step) {
+            curve.add(new EquityPoint(Instant.ofEpochMilli(equityTimes[i]), equity[i]));
+        }
+        if ((equityPoints - 1) % step != 0) {
+            curve.add(new EquityPoint(Instant.ofEpochMilli(equityTimes[equityPoints - 1]), equity[equityPoints - 1]));
+        }
+        return curve;
+    }
+
+    /**
+     * Run metadata and statistics, without the trade list and equity curve
+     */
+    public Map<String, Object> getSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("backtestId", backtestId);
+        summary.put("strategyId", config.getStrategyId());
+        summary.put("strategyName", strategyName);
+        summary.put("provider", config.getProvider());
+        summary.put("symbol", config.getSymbol());
+        summary.put("interval", config.getInterval());
+        summary.put("parameters", config.getParameters());
+        summary.put("firstCandle", getFirstCandle());
+        summary.put("lastCandle", getLastCandle());
+        summary.put("candlesProcessed", equityPoints);
+        summary.put("warmupCandles", warmupCandles);
+        summary.put("tradesProcessed", tradesProcessed);
+        summary.put("filledOrders", filledOrders);
+        summary.put("rejectedOrders", rejectedOrders);
+        summary.put("elapsedMillis", elapsedMillis);
+        summary.put("candlesPerSecond", getCandlesPerSecond());
+        summary.put("stats", stats);
+        return summary;
+    }
+
+    /**
+     * Equity after one candle
+     */
+    public static class EquityPoint {
+        private final Instant time;
+        private final double equity;
+
+        public EquityPoint(Instant time, double equity) {
+            this.time = time;
+            this.equity = equity;
+        }
+
+        public Instant getTime() { return time; }
+        public double getEquity() { return equity; }
+    }
+}
@@ -0,0 +1,202 @@
+package org.cloudvision.trading.bot.backtest;
+
+import org.cloudvision.trading.bot.TradingBot;
+import org.cloudvision.trading.bot.strategy.StrategyConfig;
+import org.cloudvision.trading.bot.strategy.TradingStrategy;
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.model.TradeData;
+import org.cloudvision.trading.service.CandlestickHistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Runs backtests of registered strategies on archived candles.
+ * Each run uses a fresh instance of the strategy's class, initialized with a copy of the registered
+ * configuration plus the run's overrides, so the live instance and its state are left alone.
+ * The most recent results are kept in memory.
+ */
+@Service
+public class BacktestService {
+
+    private final CandlestickHistoryService historyService;
+    private final int maxResults;
+
+    @Autowired(required = false)
+    private TradingBot tradingBot;
+
+    // Most recent results, oldest evicted first
+    private final Map<String, BacktestResult> results;
+
+    public BacktestService(CandlestickHistoryService historyService,
+                           @Value("${trading.backtest.max-results:10}") int maxResults) {
+        this.historyService = historyService;
+        this.maxResults = Math.max(1, maxResults);
+        this.results = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BacktestResult> eldest) {
+                return size() > BacktestService.this.maxResults;
+            }
+        });
+    }
+
+    /**
+     * Run a backtest on archived candles and keep its result
+     * @throws IllegalArgumentException if the configuration or strategy is invalid
+     * @throws IllegalStateException if there is no data or the strategy fails during the run
+     */
+    public BacktestResult run(BacktestConfig config) {
+        config.validate();
+        TradingStrategy template = findStrategy(config.getStrategyId());
+        CandleRange range = loadCandles(config);
+
+        System.out.println("🧪 Backtesting " + template.getStrategyName() + " on " + config.getProvider() + ":" +
+                         config.getSymbol() + ":" + config.getInterval() + " (" + range.candles.size() +
+                         " candles, " + range.warmup.size() + " warm-up)");
+
+        BacktestResult result = run(config, template, range.warmup, range.candles, null);
+        results.put(result.getBacktestId(), result);
+
+        System.out.println("✅ Backtest " + result.getBacktestId() + " finished in " + result.getElapsedMillis() +
+                         "ms (" + String.format("%.0f", result.getCandlesPerSecond()) + " candles/s): " +
+                         result.getStats());
+        return result;
+    }
+
+    /**
+     * Run a backtest on caller-supplied data without keeping the result
+     * @param trades Optional trade tape (oldest first), or null to resolve stops from candle ranges
+     */
+    public BacktestResult run(BacktestConfig config, TradingStrategy template, List<CandlestickData> warmup,
+                              List<CandlestickData> candles, List<TradeData> trades) {
+        TradingStrategy strategy = createStrategy(template, config);
+        return new BacktestEngine(config).run(UUID.randomUUID().toString(), strategy, warmup, candles, trades);
+    }
+
+    /**
+     * Registered strategy by id
+     * @throws IllegalArgumentException if no such strategy is registered
+     */
+    public TradingStrategy findStrategy(String strategyId) {
+        if (tradingBot != null) {
+            for (TradingStrategy strategy : tradingBot.getStrategies()) {
+                if (strategy.getStrategyId().equals(strategyId)) {
+                    return strategy;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Strategy not found: " + strategyId);
+    }
+
+    /**
+     * Fresh, unregistered instance of the template's class, configured for the run
+     */
+    public TradingStrategy createStrategy(TradingStrategy template, BacktestConfig config) {
+        TradingStrategy strategy;
+        try {
+            strategy = template.getClass().getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Strategy " + template.getStrategyId() +
+                " cannot be instantiated for a backtest: " + e.getMessage(), e);
+        }
+
+        StrategyConfig strategyConfig = new StrategyConfig(template.getStrategyId(), List.of(config.getSymbol()));
+        StrategyConfig source = template.getConfig();
+        if (source != null) {
+            strategyConfig.setMaxPositionSize(source.getMaxPositionSize());
+            strategyConfig.setStopLossPercentage(source.getStopLossPercentage());
+            strategyConfig.setTakeProfitPercentage(source.getTakeProfitPercentage());
+            source.getParameters().forEach(strategyConfig::setParameter);
+        }
+        if (config.getPositionSize() != null) {
+            strategyConfig.setMaxPositionSize(config.getPositionSize());
+        }
+        config.getParameters().forEach(strategyConfig::setParameter);
+
+        strategy.initialize(strategyConfig);
+        return strategy;
+    }
+
+    /**
+     * Candles to trade and the warm-up window before them
+     * @throws IllegalStateException if there are no closed candles for the configuration
+     */
+    public CandleRange loadCandles(BacktestConfig config) {
+        List<CandlestickData> loaded = config.getStartTime() != null && config.getEndTime() != null
+            ? historyService.getCandlesticks(config.getProvider(), config.getSymbol(), config.getInterval(),
+                config.getStartTime(), config.getEndTime())
+            : historyService.getCandlesticks(config.getProvider(), config.getSymbol(), config.getInterval());
+
+        List<CandlestickData> candles = new ArrayList<>(loaded.size());
+        for (CandlestickData candle : loaded) {
+            if (candle.isClosed()) {
+                candles.add(candle);
+            }
+        }
+        if (candles.isEmpty()) {
+            throw new IllegalStateException("No historical data available for " + config.getProvider() + ":" +
+                config.getSymbol() + ":" + config.getInterval());
+        }
+
+        int warmupCount = config.getWarmupCandles();
+        if (config.getStartTime() == null || config.getEndTime() == null) {
+            // No explicit range: the head of what is loaded serves as warm-up
+            int split = Math.min(warmupCount, candles.size() / 2);
+            return new CandleRange(new ArrayList<>(candles.subList(0, split)),
+                new ArrayList<>(candles.subList(split, candles.size())));
+        }
+        if (warmupCount == 0) {
+            return new CandleRange(List.of(), candles);
+        }
+
+        CandlestickData first = candles.get(0);
+        Duration candleDuration = Duration.between(first.getOpenTime(), first.getCloseTime()).plusMillis(1);
+        Instant warmupStart = first.getOpenTime().minus(candleDuration.multipliedBy(warmupCount));
+        List<CandlestickData> before = historyService.getCandlesticks(
+            config.getProvider(), config.getSymbol(), config.getInterval(),
+            warmupStart, first.getOpenTime().minusMillis(1)
+        );
+        List<CandlestickData> warmup = before.size() > warmupCount
+            ? new ArrayList<>(before.subList(before.size() - warmupCount, before.size()))
+            : before;
+        return new CandleRange(warmup, candles);
+    }
+
+    public BacktestResult getResult(String backtestId) {
+        BacktestResult result = results.get(backtestId);
+        if (result == null) {
+            throw new IllegalArgumentException("Backtest not found: " + backtestId);
+        }
+        return result;
+    }
+
+    public List<BacktestResult> getResults() {
+        synchronized (results) {
+            return new ArrayList<>(results.values());
+        }
+    }
+
+    public boolean removeResult(String backtestId) {
+        return results.remove(backtestId) != null;
+    }
+
+    /**
+     * Warm-up candles and the candles to trade, both oldest first
+     */
+    public static class CandleRange {
+        private final List<CandlestickData> warmup;
+        private final List<CandlestickData> candles;
+
+        public CandleRange(List<CandlestickData> warmup, List<CandlestickData> candles) {
+            this.warmup = warmup;
+            this.candles = candles;
+        }
+
+        public List<CandlestickData> getWarmup() { return warmup; }
+        public List<CandlestickData> getCandles() { return candles; }
+    }
+}
@@ -0,0 +1,177 @@
+package org.cloudvision.trading.bot.backtest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Performance statistics of a backtest: trade statistics (net of fees) plus equity-curve
+ * statistics (return, drawdown, annualized Sharpe ratio of per-candle returns)
+ */
+public class BacktestStats {
+
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+    private final int totalTrades;
+    private final int winningTrades;
+    private final int losingTrades;
+    private final BigDecimal winRate;
+    private final BigDecimal grossProfit;
+    private final BigDecimal grossLoss;
+    private final BigDecimal netProfit;
+    private final BigDecimal totalFees;
+    private final BigDecimal profitFactor;
+    private final BigDecimal averageWin;
+    private final BigDecimal averageLoss;
+    private final BigDecimal largestWin;
+    private final BigDecimal largestLoss;
+    private final BigDecimal finalEquity;
+    private final BigDecimal totalReturnPercent;
+    private final BigDecimal maxDrawdown;
+    private final BigDecimal maxDrawdownPercent;
+    private final double sharpeRatio;
+
+    private BacktestStats(int totalTrades, int winningTrades, int losingTrades, BigDecimal winRate,
+                          BigDecimal grossProfit, BigDecimal grossLoss, BigDecimal netProfit, BigDecimal totalFees,
+                          BigDecimal profitFactor, BigDecimal averageWin, BigDecimal averageLoss,
+                          BigDecimal largestWin, BigDecimal largestLoss, BigDecimal finalEquity,
+                          BigDecimal totalReturnPercent, BigDecimal maxDrawdown, BigDecimal maxDrawdownPercent,
+                          double sharpeRatio) {
+        this.totalTrades = totalTrades;
+        this.winningTrades = winningTrades;
+        this.losingTrades = losingTrades;
+        this.winRate = winRate;
+        this.grossProfit = grossProfit;
+        this.grossLoss = grossLoss;
+        this.netProfit = netProfit;
+        this.totalFees = totalFees;
+        this.profitFactor = profitFactor;
+        this.averageWin = averageWin;
+        this.averageLoss = averageLoss;
+        this.largestWin = largestWin;
+        this.largestLoss = largestLoss;
+        this.finalEquity = finalEquity;
+        this.totalReturnPercent = totalReturnPercent;
+        this.maxDrawdown = maxDrawdown;
+        this.maxDrawdownPercent = maxDrawdownPercent;
+        this.sharpeRatio = sharpeRatio;
+    }
+
+    /**
+     * Trade statistics only (no equity curve)
+     */
+    public static BacktestStats fromTrades(BigDecimal initialBalance, List<BacktestTrade> trades) {
+        return calculate(initialBalance, trades, null, 0, 0);
+    }
+
+    /**
+     * @param equity Equity after each candle (the first {@code points} entries are used)
+     * @param periodsPerYear Candles per year, to annualize the Sharpe ratio
+     */
+    public static BacktestStats calculate(BigDecimal initialBalance, List<BacktestTrade> trades,
+                                          double[] equity, int points, double periodsPerYear) {
+        int wins = 0;
+        int losses = 0;
+        BigDecimal grossProfit = BigDecimal.ZERO;
+        BigDecimal grossLoss = BigDecimal.ZERO;
+        BigDecimal fees = BigDecimal.ZERO;
+        BigDecimal largestWin = BigDecimal.ZERO;
+        BigDecimal largestLoss = BigDecimal.ZERO;
+
+        for (BacktestTrade trade : trades) {
+            BigDecimal pnl = trade.getNetPnL();
+            fees = fees.add(trade.getFees());
+            if (pnl.compareTo(BigDecimal.ZERO) > 0) {
+                wins++;
+                grossProfit = grossProfit.add(pnl);
+                largestWin = largestWin.max(pnl);
+            } else {
+                losses++;
+                grossLoss = grossLoss.add(pnl.abs());
+                largestLoss = largestLoss.min(pnl);
+            }
+        }
+
+        int total = trades.size();
+        BigDecimal netProfit = grossProfit.subtract(grossLoss);
+        BigDecimal winRate = total > 0
+            ? BigDecimal.valueOf(wins).divide(BigDecimal.valueOf(total), 4, RoundingMode.HALF_UP)
+            : BigDecimal.ZERO;
+        BigDecimal profitFactor = grossLoss.compareTo(BigDecimal.ZERO) > 0
+            ? grossProfit.divide(grossLoss, 4, RoundingMode.HALF_UP)
+            : BigDecimal.ZERO;
+        BigDecimal averageWin = wins > 0
+            ? grossProfit.divide(BigDecimal.valueOf(wins), 8, RoundingMode.HALF_UP)
+            : BigDecimal.ZERO;
+        BigDecimal averageLoss = losses > 0
+            ? grossLoss.divide(BigDecimal.valueOf(losses), 8, RoundingMode.HALF_UP).negate()
+            : BigDecimal.ZERO;
+
+        // Equity curve: drawdown from the running peak, Sharpe ratio of per-candle returns
+        double finalEquity = initialBalance.doubleValue() + netProfit.doubleValue();
+        double maxDrawdown = 0;
+        double maxDrawdownPercent = 0;
+        double sharpe = 0;
+        if (equity != null && points > 0) {
+            double peak = initialBalance.doubleValue();
+            double previous = peak;
+            double sum = 0;
+            double sumSquares = 0;
+            for (int i = 0; i < points; i++) {
+                double value = equity[i];
+                peak = Math.max(peak, value);
+                double drawdown = peak - value;
+                if (drawdown > maxDrawdown) {
+                    maxDrawdown = drawdown;
+                    maxDrawdownPercent = peak > 0 ? drawdown / peak * 100 : 0;
+                }
+                double r = previous != 0 ? value / previous - 1 : 0;
+                sum += r;
+                sumSquares += r * r;
+                previous = value;
+            }
+            double mean = sum / points;
+            double variance = sumSquares / points - mean * mean;
+            if (variance > 0 && periodsPerYear > 0) {
+                sharpe = mean / Math.sqrt(variance) * Math.sqrt(periodsPerYear);
+            }
+            finalEquity = equity[points - 1];
+        }
+
+        BigDecimal finalEquityValue = BigDecimal.valueOf(finalEquity).setScale(8, RoundingMode.HALF_UP);
+        BigDecimal totalReturn = finalEquityValue.subtract(initialBalance)
+            .divide(initialBalance, 6, RoundingMode.HALF_UP).multiply(HUNDRED);
+
+        return new BacktestStats(total, wins, losses, winRate, grossProfit, grossLoss, netProfit, fees,
+            profitFactor, averageWin, averageLoss, largestWin, largestLoss, finalEquityValue, totalReturn,
+            BigDecimal.valueOf(maxDrawdown).setScale(8, RoundingMode.HALF_UP),
+            BigDecimal.valueOf(maxDrawdownPercent).setScale(4, RoundingMode.HALF_UP),
+            sharpe);
+    }
+
+    // Getters
+    public int getTotalTrades() { return totalTrades; }
+    public int getWinningTrades() { return winningTrades; }
+    public int getLosingTrades() { return losingTrades; }
+    public BigDecimal getWinRate() { return winRate; }
+    public BigDecimal getGrossProfit() { return grossProfit; }
+    public BigDecimal getGrossLoss() { return grossLoss; }
+    public BigDecimal getNetProfit() { return netProfit; }
+    public BigDecimal getTotalFees() { return totalFees; }
+    public BigDecimal getProfitFactor() { return profitFactor; }
+    public BigDecimal getAverageWin() { return averageWin; }
+    public BigDecimal getAverageLoss() { return averageLoss; }
+    public BigDecimal getLargestWin() { return largestWin; }
+    public BigDecimal getLargestLoss() { return largestLoss; }
+    public BigDecimal getFinalEquity() { return finalEquity; }
+    public BigDecimal getTotalReturnPercent() { return totalReturnPercent; }
+    public BigDecimal getMaxDrawdown() { return maxDrawdown; }
+    public BigDecimal getMaxDrawdownPercent() { return maxDrawdownPercent; }
+    public double getSharpeRatio() { return sharpeRatio; }
+
+    @Override
+    public String toString() {
+        return String.format("BacktestStats{trades=%d, winRate=%s, net=%s, return=%s%%, maxDD=%s%%, sharpe=%.2f}",
+            totalTrades, winRate, netProfit, totalReturnPercent, maxDrawdownPercent, sharpeRatio);
+    }
+}
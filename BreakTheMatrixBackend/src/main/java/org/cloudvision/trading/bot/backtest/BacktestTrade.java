@@ -0,0 +1,73 @@
+package org.cloudvision.trading.bot.backtest;
+
+import org.cloudvision.trading.bot.account.PositionSide;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A closed (or partially closed) position in a backtest, timed on the simulated clock
+ */
+public class BacktestTrade {
+
+    /**
+     * Why the position was closed
+     */
+    public enum ExitReason {
+        SIGNAL,
+        STOP_LOSS,
+        TAKE_PROFIT,
+        END_OF_DATA
+    }
+
+    private final String symbol;
+    private final PositionSide side;
+    private final Instant entryTime;
+    private final Instant exitTime;
+    private final BigDecimal entryPrice;
+    private final BigDecimal exitPrice;
+    private final BigDecimal quantity;
+    private final BigDecimal grossPnL;
+    private final BigDecimal fees;
+    private final ExitReason exitReason;
+
+    public BacktestTrade(String symbol, PositionSide side, Instant entryTime, Instant exitTime,
+                         BigDecimal entryPrice, BigDecimal exitPrice, BigDecimal quantity,
+                         BigDecimal grossPnL, BigDecimal fees, ExitReason exitReason) {
+        this.symbol = symbol;
+        this.side = side;
+        this.entryTime = entryTime;
+        this.exitTime = exitTime;
+        this.entryPrice = entryPrice;
+        this.exitPrice = exitPrice;
+        this.quantity = quantity;
+        this.grossPnL = grossPnL;
+        this.fees = fees;
+        this.exitReason = exitReason;
+    }
+
+    // Getters
+    public String getSymbol() { return symbol; }
+    public PositionSide getSide() { return side; }
+    public Instant getEntryTime() { return entryTime; }
+    public Instant getExitTime() { return exitTime; }
+    public BigDecimal getEntryPrice() { return entryPrice; }
+    public BigDecimal getExitPrice() { return exitPrice; }
+    public BigDecimal getQuantity() { return quantity; }
+    public BigDecimal getGrossPnL() { return grossPnL; }
+    public BigDecimal getFees() { return fees; }
+    public ExitReason getExitReason() { return exitReason; }
+
+    /**
+     * P&L after entry and exit fees
+     */
+    public BigDecimal getNetPnL() {
+        return grossPnL.subtract(fees);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BacktestTrade{%s %s qty=%s, %s -> %s, net=%s, %s}",
+            side, symbol, quantity, entryPrice, exitPrice, getNetPnL(), exitReason);
+    }
+}
@@ -0,0 +1,175 @@
+package org.cloudvision.trading.bot.backtest;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.*;
+
+/**
+ * Configuration for a parameter sweep: a base backtest, a parameter grid and how to search and rank it.
+ *
+ * Without walk-forward every sampled parameter set is backtested over the whole range. With
+ * {@code walkForwardWindows} = N the range is cut into N rolling windows whose out-of-sample parts
+ * tile the end of the range; each window picks the best set on its in-sample part and then runs
+ * that set, unchanged, on the out-of-sample part.
+ */
+public class SweepConfig {
+
+    public static final String SAMPLING_GRID = "grid";
+    public static final String SAMPLING_RANDOM = "random";
+    public static final double DEFAULT_TRAIN_FRACTION = 0.7;
+
+    private final BacktestConfig backtest; // Strategy, data range, costs; its parameters apply to every run
+    private final SortedMap<String, List<Object>> grid; // Parameter name -> candidate values
+    private final String sampling; // "grid" = every combination, "random" = {@code samples} distinct combinations
+    private final int samples;
+    private final long seed; // Random sampling is reproducible for the same seed
+    private final SweepObjective objective;
+    private final int minTrades; // Runs with fewer closed trades rank last
+    private final int walkForwardWindows; // 0 = single pass over the whole range
+    private final double trainFraction; // In-sample share of each walk-forward window
+
+    @JsonCreator
+    public SweepConfig(
+            @JsonProperty("backtest") BacktestConfig backtest,
+            @JsonProperty("grid") Map<String, List<Object>> grid,
+            @JsonProperty("sampling") String sampling,
+            @JsonProperty("samples") Integer samples,
+            @JsonProperty("seed") Long seed,
+            @JsonProperty("objective") String objective,
+            @JsonProperty("minTrades") Integer minTrades,
+            @JsonProperty("walkForwardWindows") Integer walkForwardWindows,
+            @JsonProperty("trainFraction") Double trainFraction) {
+        this.backtest = backtest;
+        this.grid = grid != null ? new TreeMap<>(grid) : new TreeMap<>();
+        this.sampling = sampling != null ? sampling.toLowerCase() : SAMPLING_GRID;
+        this.samples = samples != null ? samples : 0;
+        this.seed = seed != null ? seed : 42L;
+        this.objective = objective != null ? SweepObjective.fromString(objective) : SweepObjective.SHARPE;
+        this.minTrades = minTrades != null ? minTrades : 1;
+        this.walkForwardWindows = walkForwardWindows != null ? walkForwardWindows : 0;
+        this.trainFraction = trainFraction != null ? trainFraction : DEFAULT_TRAIN_FRACTION;
+    }
+
+    // Getters
+    public BacktestConfig getBacktest() { return backtest; }
+    public SortedMap<String, List<Object>> getGrid() { return grid; }
+    public String getSampling() { return sampling; }
+    public int getSamples() { return samples; }
+    public long getSeed() { return seed; }
+    public SweepObjective getObjective() { return objective; }
+    public int getMinTrades() { return minTrades; }
+    public int getWalkForwardWindows() { return walkForwardWindows; }
+    public double getTrainFraction() { return trainFraction; }
+
+    public boolean isWalkForward() {
+        return walkForwardWindows > 0;
+    }
+
+    /**
+     * Number of combinations in the full grid
+     */
+    public long getCombinationCount() {
+        long count = 1;
+        for (List<Object> values : grid.values()) {
+            count = Math.multiplyExact(count, values.size());
+        }
+        return count;
+    }
+
+    /**
+     * Combination by index in the full grid (mixed radix over the parameter names in sorted order)
+     */
+    public Map<String, Object> getCombination(long index) {
+        Map<String, Object> combination = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Object>> entry : grid.entrySet()) {
+            List<Object> values = entry.getValue();
+            combination.put(entry.getKey(), values.get((int) (index % values.size())));
+            index /= values.size();
+        }
+        return combination;
+    }
+
+    /**
+     * Grid indices to evaluate: all of them, or a seeded random subset in ascending order
+     */
+    public long[] sampleCombinations() {
+        long total = getCombinationCount();
+        if (!SAMPLING_RANDOM.equals(sampling) || samples >= total) {
+            long[] all = new long[(int) total];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        Random random = new Random(seed);
+        Set<Long> picked = new TreeSet<>();
+        while (picked.size() < samples) {
+            picked.add(Math.floorMod(random.nextLong(), total));
+        }
+        long[] indices = new long[picked.size()];
+        int i = 0;
+        for (Long index : picked) {
+            indices[i++] = index;
+        }
+        return indices;
+    }
+
+    /**
+     * Check the grid and search settings (the base backtest is validated separately)
+     * @param maxRuns Upper bound on the parameter sets evaluated per window
+     * @throws IllegalArgumentException if the sweep cannot be run
+     */
+    public void validate(int maxRuns) {
+        if (backtest == null) {
+            throw new IllegalArgumentException("Backtest configuration is required");
+        }
+        backtest.validate();
+        if (grid.isEmpty()) {
+            throw new IllegalArgumentException("Parameter grid is required");
+        }
+        for (Map.Entry<String, List<Object>> entry : grid.entrySet()) {
+            if (entry.getValue() == null || entry.getValue().isEmpty()) {
+                throw new IllegalArgumentException("No values for parameter: " + entry.getKey());
+            }
+        }
+        if (!SAMPLING_GRID.equals(sampling) && !SAMPLING_RANDOM.equals(sampling)) {
+            throw new IllegalArgumentException("Sampling must be 'grid' or 'random': " + sampling);
+        }
+        if (SAMPLING_RANDOM.equals(sampling) && samples <= 0) {
+            throw new IllegalArgumentException("Random sampling requires a positive number of samples");
+        }
+
+        long runs;
+        try {
+            runs = getCombinationCount();
+        } catch (ArithmeticException e) {
+            runs = Long.MAX_VALUE;
+        }
+        if (SAMPLING_RANDOM.equals(sampling)) {
+            runs = Math.min(runs, samples);
+        }
+        if (runs > maxRuns) {
+            throw new IllegalArgumentException("Sweep has " + runs + " parameter sets, limit is " + maxRuns +
+                " (use random sampling)");
+        }
+
+        if (walkForwardWindows < 0) {
+            throw new IllegalArgumentException("Walk-forward windows cannot be negative");
+        }
+        if (trainFraction <= 0 || trainFraction >= 1) {
+            throw new IllegalArgumentException("Train fraction must be between 0 and 1");
+        }
+        if (minTrades < 0) {
+            throw new IllegalArgumentException("Minimum trades cannot be negative");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SweepConfig{strategy=%s, parameters=%s, sampling=%s, objective=%s, windows=%d}",
+            backtest != null ? backtest.getStrategyId() : null, grid.keySet(), sampling, objective,
+            walkForwardWindows);
+    }
+}
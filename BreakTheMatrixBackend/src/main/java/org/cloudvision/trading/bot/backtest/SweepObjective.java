@@ -0,0 +1,54 @@
+package org.cloudvision.trading.bot.backtest;
+
+/**
+ * What a parameter sweep maximizes; higher scores rank first
+ */
+public enum SweepObjective {
+    SHARPE("Annualized Sharpe ratio"),
+    TOTAL_RETURN("Total return %"),
+    NET_PROFIT("Net profit after fees"),
+    PROFIT_FACTOR("Gross profit / gross loss"),
+    WIN_RATE("Winning trades / all trades"),
+    RETURN_OVER_DRAWDOWN("Total return % / max drawdown %");
+
+    private final String description;
+
+    SweepObjective(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public double score(BacktestStats stats) {
+        if (this == SHARPE) {
+            return stats.getSharpeRatio();
+        } else if (this == TOTAL_RETURN) {
+            return stats.getTotalReturnPercent().doubleValue();
+        } else if (this == NET_PROFIT) {
+            return stats.getNetProfit().doubleValue();
+        } else if (this == PROFIT_FACTOR) {
+            return stats.getProfitFactor().doubleValue();
+        } else if (this == WIN_RATE) {
+            return stats.getWinRate().doubleValue();
+        } else {
+            double drawdown = stats.getMaxDrawdownPercent().doubleValue();
+            double totalReturn = stats.getTotalReturnPercent().doubleValue();
+            return drawdown > 0 ? totalReturn / drawdown : totalReturn;
+        }
+    }
+
+    /**
+     * Objective by name, case-insensitive ("sharpe", "total_return", ...)
+     * @throws IllegalArgumentException for an unknown name
+     */
+    public static SweepObjective fromString(String name) {
+        for (SweepObjective objective : values()) {
+            if (objective.name().equalsIgnoreCase(name)) {
+                return objective;
+            }
+        }
+        throw new IllegalArgumentException("Unknown objective: " + name);
+    }
+}
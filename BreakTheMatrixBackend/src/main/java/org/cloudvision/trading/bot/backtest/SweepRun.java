@@ -0,0 +1,60 @@
+package org.cloudvision.trading.bot.backtest;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * One parameter set evaluated on one range of a sweep
+ */
+public class SweepRun {
+
+    private final long combinationIndex; // Index in the full grid, breaks score ties
+    private final int window; // Walk-forward window, 0 for a single-pass sweep
+    private final Map<String, Object> parameters;
+    private final Instant firstCandle;
+    private final Instant lastCandle;
+    private final int candles;
+    private final BacktestStats stats;
+    private final double score;
+    private final boolean qualified; // Enough trades to be ranked on its score
+    private final long elapsedMillis;
+
+    public SweepRun(long combinationIndex, int window, Map<String, Object> parameters, BacktestResult result,
+                    SweepObjective objective, int minTrades) {
+        this.combinationIndex = combinationIndex;
+        this.window = window;
+        this.parameters = parameters;
+        this.firstCandle = result.getFirstCandle();
+        this.lastCandle = result.getLastCandle();
+        this.candles = result.getCandlesProcessed();
+        this.stats = result.getStats();
+        this.score = objective.score(stats);
+        this.qualified = stats.getTotalTrades() >= minTrades;
+        this.elapsedMillis = result.getElapsedMillis();
+    }
+
+    // Getters
+    public long getCombinationIndex() { return combinationIndex; }
+    public int getWindow() { return window; }
+    public Map<String, Object> getParameters() { return parameters; }
+    public Instant getFirstCandle() { return firstCandle; }
+    public Instant getLastCandle() { return lastCandle; }
+    public int getCandles() { return candles; }
+    public BacktestStats getStats() { return stats; }
+    public double getScore() { return score; }
+    public boolean isQualified() { return qualified; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    /**
+     * True if this run ranks before the other: qualified first, then higher score, then grid order
+     */
+    public boolean ranksBefore(SweepRun other) {
+        if (qualified != other.qualified) {
+            return qualified;
+        }
+        if (score != other.score) {
+            return score > other.score;
+        }
+        return combinationIndex < other.combinationIndex;
+    }
+}
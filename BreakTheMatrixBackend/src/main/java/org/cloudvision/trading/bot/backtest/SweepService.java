@@ -0,0 +1,260 @@
+package org.cloudvision.trading.bot.backtest;
+
+import jakarta.annotation.PreDestroy;
+import org.cloudvision.trading.bot.strategy.TradingStrategy;
+import org.cloudvision.trading.model.CandlestickData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Parameter sweeps and walk-forward optimization over isolated backtests.
+ *
+ * The candles of a sweep are loaded once into an unmodifiable list that every worker reads
+ * through sub-list views; each run gets a fresh strategy instance, account and candle history,
+ * so runs share nothing mutable and can execute on all cores. A sweep is coordinated by its own
+ * thread, which submits one task per parameter set to a shared fork-join pool and waits for a
+ * window to finish before starting the next.
+ */
+@Service
+public class SweepService {
+
+    private final BacktestService backtestService;
+    private final int maxRuns;
+    private final int maxFinished;
+    private final ForkJoinPool pool;
+
+    // Running sweeps, plus the most recently finished ones (oldest evicted first)
+    private final Map<String, SweepSession> sweeps = new ConcurrentHashMap<>();
+
+    public SweepService(BacktestService backtestService,
+                        @Value("${trading.backtest.sweep.parallelism:0}") int parallelism,
+                        @Value("${trading.backtest.sweep.max-runs:5000}") int maxRuns,
+                        @Value("${trading.backtest.sweep.max-finished:10}") int maxFinished) {
+        this.backtestService = backtestService;
+        this.maxRuns = Math.max(1, maxRuns);
+        this.maxFinished = Math.max(1, maxFinished);
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads);
+
+        System.out.println("✅ SweepService initialized (parallelism: " + threads + ", max runs: " + this.maxRuns +
+                         ", finished sweeps kept: " + this.maxFinished + ")");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (SweepSession session : sweeps.values()) {
+            session.cancel();
+        }
+        pool.shutdownNow();
+    }
+
+    /**
+     * Validate the sweep, load its candles and start it in the background
+     * @throws IllegalArgumentException if the configuration or strategy is invalid
+     * @throws IllegalStateException if there is no data for the configuration
+     */
+    public SweepSession start(SweepConfig config) {
+        config.validate(maxRuns);
+        BacktestConfig base = config.getBacktest();
+        TradingStrategy template = backtestService.findStrategy(base.getStrategyId());
+        BacktestService.CandleRange range = backtestService.loadCandles(base);
+
+        // One read-only dataset for all workers: warm-up candles followed by the candles to trade
+        List<CandlestickData> dataset = new ArrayList<>(range.getWarmup().size() + range.getCandles().size());
+        dataset.addAll(range.getWarmup());
+        dataset.addAll(range.getCandles());
+        dataset = Collections.unmodifiableList(dataset);
+
+        int[][] windows = planWindows(config, range.getWarmup().size(), dataset.size());
+        long[] combinations = config.sampleCombinations();
+        int totalRuns = combinations.length * windows.length + (config.isWalkForward() ? windows.length : 0);
+
+        String sweepId = UUID.randomUUID().toString();
+        SweepSession session = new SweepSession(sweepId, config, template.getStrategyName(), totalRuns,
+            windows.length);
+        sweeps.put(sweepId, session);
+
+        System.out.println("🧪 Sweep " + sweepId + ": " + template.getStrategyName() + " on " + base.getProvider() +
+                         ":" + base.getSymbol() + ":" + base.getInterval() + " (" + range.getCandles().size() +
+                         " candles, " + combinations.length + " parameter sets, " + windows.length + " window(s), " +
+                         config.getObjective() + ")");
+
+        List<CandlestickData> data = dataset;
+        Thread coordinator = new Thread(() -> execute(session, template, data, windows, combinations),
+            "Sweep-" + sweepId);
+        coordinator.setDaemon(true);
+        coordinator.start();
+        return session;
+    }
+
+    /**
+     * Dataset index ranges per window: {trainFrom, trainTo, testTo}; testTo == trainTo for a single pass.
+     * Out-of-sample parts have equal length and tile the end of the range, windows roll forward by one of them.
+     */
+    private static int[][] planWindows(SweepConfig config, int offset, int size) {
+        int candles = size - offset;
+        if (!config.isWalkForward()) {
+            return new int[][] { { offset, size, size } };
+        }
+
+        int count = config.getWalkForwardWindows();
+        double fraction = config.getTrainFraction();
+        int testLength = (int) (candles / (count + fraction / (1 - fraction)));
+        int trainLength = candles - count * testLength;
+        if (testLength < 2 || trainLength < 2) {
+            throw new IllegalArgumentException("Not enough candles (" + candles + ") for " + count +
+                " walk-forward windows");
+        }
+
+        int[][] windows = new int[count][];
+        for (int i = 0; i < count; i++) {
+            int trainFrom = offset + i * testLength;
+            int trainTo = trainFrom + trainLength;
+            windows[i] = new int[] { trainFrom, trainTo, trainTo + testLength };
+        }
+        return windows;
+    }
+
+    private void execute(SweepSession session, TradingStrategy template, List<CandlestickData> data,
+                         int[][] windows, long[] combinations) {
+        SweepConfig config = session.getConfig();
+        long started = System.currentTimeMillis();
+        try {
+            for (int w = 0; w < windows.length && !session.isCancelled(); w++) {
+                int[] window = windows[w];
+                int index = w;
+
+                List<ForkJoinTask<SweepRun>> tasks = new ArrayList<>(combinations.length);
+                for (long combination : combinations) {
+                    tasks.add(pool.submit(() ->
+                        evaluate(session, template, data, window[0], window[1], index, combination)));
+                }
+
+                SweepRun windowBest = null;
+                for (ForkJoinTask<SweepRun> task : tasks) {
+                    SweepRun run = task.join();
+                    if (run != null && (windowBest == null || run.ranksBefore(windowBest))) {
+                        windowBest = run;
+                    }
+                }
+
+                if (config.isWalkForward() && windowBest != null && !session.isCancelled()) {
+                    SweepRun inSample = windowBest;
+                    SweepRun outOfSample = pool.submit(() -> evaluate(session, template, data, window[1], window[2],
+                        index, inSample.getCombinationIndex(), false)).join();
+                    if (outOfSample != null) {
+                        session.recordWindow(new SweepWindow(index, inSample, outOfSample));
+                    }
+                }
+            }
+
+            if (session.isCancelled()) {
+                session.finish(SweepState.CANCELLED, null);
+            } else if (session.getCompletedRuns() == 0) {
+                session.finish(SweepState.ERROR, null);
+            } else {
+                session.finish(SweepState.COMPLETED, null);
+            }
+        } catch (Exception e) {
+            session.finish(SweepState.ERROR, e.getMessage());
+        }
+        evictFinished();
+
+        System.out.println("✅ Sweep " + session.getSweepId() + " " + session.getState() + " in " +
+                         (System.currentTimeMillis() - started) + "ms (" + session.getCompletedRuns() + " runs, " +
+                         session.getFailedRuns() + " failed)" +
+                         (session.getBest() != null ? ", best " + session.getBest().getParameters() +
+                             " score " + String.format("%.4f", session.getBest().getScore()) : ""));
+    }
+
+    /**
+     * Drop the oldest finished sweeps beyond the retention limit; running sweeps are never evicted
+     */
+    private void evictFinished() {
+        List<SweepSession> finished = new ArrayList<>();
+        for (SweepSession session : sweeps.values()) {
+            if (session.getState() != SweepState.RUNNING) {
+                finished.add(session);
+            }
+        }
+        if (finished.size() <= maxFinished) {
+            return;
+        }
+        finished.sort(Comparator.comparing(SweepSession::getFinishedAt));
+        for (SweepSession session : finished.subList(0, finished.size() - maxFinished)) {
+            sweeps.remove(session.getSweepId(), session);
+        }
+    }
+
+    private SweepRun evaluate(SweepSession session, TradingStrategy template, List<CandlestickData> data,
+                              int from, int to, int window, long combination) {
+        return evaluate(session, template, data, from, to, window, combination, true);
+    }
+
+    /**
+     * Backtest one parameter set on data[from, to), warmed up on the candles just before {@code from}
+     * @param ranked Whether the run enters the sweep's ranking (out-of-sample runs do not)
+     * @return the run, or null if the sweep was cancelled or the backtest failed
+     */
+    private SweepRun evaluate(SweepSession session, TradingStrategy template, List<CandlestickData> data,
+                              int from, int to, int window, long combination, boolean ranked) {
+        if (session.isCancelled()) {
+            return null;
+        }
+        SweepConfig config = session.getConfig();
+        Map<String, Object> combined = config.getCombination(combination);
+        Map<String, Object> parameters = new HashMap<>(config.getBacktest().getParameters());
+        parameters.putAll(combined);
+
+        try {
+            BacktestConfig runConfig = config.getBacktest().withParameters(parameters);
+            List<CandlestickData> warmup = data.subList(Math.max(0, from - runConfig.getWarmupCandles()), from);
+            BacktestResult result = backtestService.run(runConfig, template, warmup, data.subList(from, to), null);
+            SweepRun run = new SweepRun(combination, window, combined, result, config.getObjective(),
+                config.getMinTrades());
+            session.recordRun(run, ranked);
+            return run;
+        } catch (RuntimeException e) {
+            System.err.println("❌ Sweep " + session.getSweepId() + " run " + combined + " failed: " + e.getMessage());
+            session.recordFailure(e);
+            return null;
+        }
+    }
+
+    public SweepSession getSweep(String sweepId) {
+        SweepSession session = sweeps.get(sweepId);
+        if (session == null) {
+            throw new IllegalArgumentException("Sweep not found: " + sweepId);
+        }
+        return session;
+    }
+
+    public boolean hasSweep(String sweepId) {
+        return sweeps.containsKey(sweepId);
+    }
+
+    public List<SweepSession> getSweeps() {
+        return new ArrayList<>(sweeps.values());
+    }
+
+    public void cancel(String sweepId) {
+        getSweep(sweepId).cancel();
+    }
+
+    /**
+     * Cancel (if running) and discard a sweep
+     */
+    public boolean removeSweep(String sweepId) {
+        SweepSession session = sweeps.remove(sweepId);
+        if (session == null) {
+            return false;
+        }
+        session.cancel();
+        return true;
+    }
+}
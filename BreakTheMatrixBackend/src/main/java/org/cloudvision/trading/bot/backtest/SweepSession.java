@@ -0,0 +1,223 @@
+package org.cloudvision.trading.bot.backtest;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Progress and results of one parameter sweep.
+ * Runs complete on pool threads; listeners are notified at most every {@link #PROGRESS_INTERVAL_MS}
+ * while running and once when the sweep ends.
+ */
+public class SweepSession {
+
+    public static final long PROGRESS_INTERVAL_MS = 250;
+
+    private final String sweepId;
+    private final SweepConfig config;
+    private final String strategyName;
+    private final int totalRuns;
+    private final int windowCount;
+    private final Instant startedAt;
+
+    private volatile SweepState state = SweepState.RUNNING;
+    private volatile boolean cancelled;
+    private volatile String error;
+    private volatile Instant finishedAt;
+    private volatile SweepRun best; // Best run so far across all windows (in-sample for walk-forward)
+
+    private final AtomicInteger completedRuns = new AtomicInteger();
+    private final AtomicInteger failedRuns = new AtomicInteger();
+    private final AtomicLong lastNotified = new AtomicLong();
+    private final List<SweepRun> runs = Collections.synchronizedList(new ArrayList<>());
+    private final List<SweepWindow> windows = Collections.synchronizedList(new ArrayList<>());
+    private final List<Consumer<SweepSession>> listeners = new CopyOnWriteArrayList<>();
+
+    public SweepSession(String sweepId, SweepConfig config, String strategyName, int totalRuns, int windowCount) {
+        this.sweepId = sweepId;
+        this.config = config;
+        this.strategyName = strategyName;
+        this.totalRuns = totalRuns;
+        this.windowCount = windowCount;
+        this.startedAt = Instant.now();
+    }
+
+    // Getters
+    public String getSweepId() { return sweepId; }
+    public SweepConfig getConfig() { return config; }
+    public SweepState getState() { return state; }
+    public boolean isCancelled() { return cancelled; }
+    public int getTotalRuns() { return totalRuns; }
+    public int getCompletedRuns() { return completedRuns.get(); }
+    public int getFailedRuns() { return failedRuns.get(); }
+    public SweepRun getBest() { return best; }
+    public Instant getFinishedAt() { return finishedAt; }
+
+    public double getProgress() {
+        return totalRuns > 0 ? (completedRuns.get() + failedRuns.get()) * 100.0 / totalRuns : 100.0;
+    }
+
+    public void addListener(Consumer<SweepSession> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<SweepSession> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Ask the sweep to stop; runs already executing finish, queued ones are skipped
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    void recordRun(SweepRun run, boolean ranked) {
+        if (ranked) {
+            runs.add(run);
+            synchronized (this) {
+                if (best == null || run.ranksBefore(best)) {
+                    best = run;
+                }
+            }
+        }
+        completedRuns.incrementAndGet();
+        notifyProgress();
+    }
+
+    void recordFailure(Exception e) {
+        failedRuns.incrementAndGet();
+        if (error == null) {
+            error = e.getMessage();
+        }
+        notifyProgress();
+    }
+
+    void recordWindow(SweepWindow window) {
+        windows.add(window);
+    }
+
+    void finish(SweepState finalState, String finalError) {
+        if (finalError != null) {
+            error = finalError;
+        }
+        finishedAt = Instant.now();
+        state = finalState;
+        notifyListeners();
+    }
+
+    /**
+     * Ranked runs, best first
+     * @param window Only runs of this walk-forward window, or null for all
+     * @param limit Maximum number of runs returned
+     */
+    public List<SweepRun> getRanking(Integer window, int limit) {
+        List<SweepRun> ranked = new ArrayList<>();
+        synchronized (runs) {
+            for (SweepRun run : runs) {
+                if (window == null || run.getWindow() == window) {
+                    ranked.add(run);
+                }
+            }
+        }
+        ranked.sort((a, b) -> a == b ? 0 : a.ranksBefore(b) ? -1 : 1);
+        return ranked.size() > limit ? new ArrayList<>(ranked.subList(0, limit)) : ranked;
+    }
+
+    public List<SweepWindow> getWindows() {
+        synchronized (windows) {
+            List<SweepWindow> copy = new ArrayList<>(windows);
+            copy.sort(Comparator.comparingInt(SweepWindow::getWindow));
+            return copy;
+        }
+    }
+
+    /**
+     * Progress, timing and the best run so far (plus the walk-forward summary once windows complete)
+     */
+    public Map<String, Object> getStatus() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long elapsedMs = end.toEpochMilli() - startedAt.toEpochMilli();
+        int done = completedRuns.get();
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("sweepId", sweepId);
+        status.put("strategyId", config.getBacktest().getStrategyId());
+        status.put("strategyName", strategyName);
+        status.put("symbol", config.getBacktest().getSymbol());
+        status.put("interval", config.getBacktest().getInterval());
+        status.put("state", state);
+        status.put("objective", config.getObjective());
+        status.put("sampling", config.getSampling());
+        status.put("totalRuns", totalRuns);
+        status.put("completedRuns", done);
+        status.put("failedRuns", failedRuns.get());
+        status.put("progress", getProgress());
+        status.put("startedAt", startedAt);
+        status.put("finishedAt", finishedAt);
+        status.put("elapsedMs", elapsedMs);
+        status.put("runsPerSecond", elapsedMs > 0 ? done * 1000.0 / elapsedMs : 0);
+        status.put("best", best);
+        if (config.isWalkForward()) {
+            status.put("walkForward", getWalkForwardSummary());
+        }
+        if (error != null) {
+            status.put("error", error);
+        }
+        return status;
+    }
+
+    /**
+     * Out-of-sample totals over the completed windows. Efficiency is the mean out-of-sample score
+     * divided by the mean in-sample score of the chosen parameter sets.
+     */
+    public Map<String, Object> getWalkForwardSummary() {
+        List<SweepWindow> completed = getWindows();
+        double inSampleScore = 0;
+        double outOfSampleScore = 0;
+        double netProfit = 0;
+        int trades = 0;
+        for (SweepWindow window : completed) {
+            inSampleScore += window.getInSample().getScore();
+            outOfSampleScore += window.getOutOfSample().getScore();
+            netProfit += window.getOutOfSample().getStats().getNetProfit().doubleValue();
+            trades += window.getOutOfSample().getStats().getTotalTrades();
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("windows", windowCount);
+        summary.put("completedWindows", completed.size());
+        summary.put("trainFraction", config.getTrainFraction());
+        if (!completed.isEmpty()) {
+            double meanIn = inSampleScore / completed.size();
+            double meanOut = outOfSampleScore / completed.size();
+            summary.put("meanInSampleScore", meanIn);
+            summary.put("meanOutOfSampleScore", meanOut);
+            summary.put("efficiency", meanIn != 0 ? meanOut / meanIn : 0);
+            summary.put("outOfSampleNetProfit", netProfit);
+            summary.put("outOfSampleTrades", trades);
+        }
+        return summary;
+    }
+
+    private void notifyProgress() {
+        long now = System.currentTimeMillis();
+        long last = lastNotified.get();
+        if (now - last >= PROGRESS_INTERVAL_MS && lastNotified.compareAndSet(last, now)) {
+            notifyListeners();
+        }
+    }
+
+    private void notifyListeners() {
+        for (Consumer<SweepSession> listener : listeners) {
+            try {
+                listener.accept(this);
+            } catch (Exception e) {
+                System.err.println("❌ Error in sweep listener: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.cloudvision.trading.bot.backtest;
+
+/**
+ * Parameter sweep state
+ */
+public enum SweepState {
+    RUNNING("Running"),
+    COMPLETED("Completed"),
+    CANCELLED("Cancelled"),
+    ERROR("Error");
+
+    private final String displayName;
+
+    SweepState(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
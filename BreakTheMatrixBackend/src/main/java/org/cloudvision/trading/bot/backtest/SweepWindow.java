@@ -0,0 +1,22 @@
+package org.cloudvision.trading.bot.backtest;
+
+/**
+ * Outcome of one walk-forward window: the best parameter set in-sample and how it did out-of-sample
+ */
+public class SweepWindow {
+
+    private final int window;
+    private final SweepRun inSample; // Best run on the window's in-sample part
+    private final SweepRun outOfSample; // Same parameters on the following out-of-sample part
+
+    public SweepWindow(int window, SweepRun inSample, SweepRun outOfSample) {
+        this.window = window;
+        this.inSample = inSample;
+        this.outOfSample = outOfSample;
+    }
+
+    // Getters
+    public int getWindow() { return window; }
+    public SweepRun getInSample() { return inSample; }
+    public SweepRun getOutOfSample() { return outOfSample; }
+}
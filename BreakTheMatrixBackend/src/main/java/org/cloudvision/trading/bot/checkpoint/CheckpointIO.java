@@ -0,0 +1,121 @@
+package org.cloudvision.trading.bot.checkpoint;
+
+import org.cloudvision.trading.model.CandlestickData;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Binary encoding helpers shared by the checkpoint file and the state snapshots of
+ * indicators and strategies. Decimals are written exactly (scale + unscaled bytes).
+ */
+public final class CheckpointIO {
+
+    private CheckpointIO() {
+    }
+
+    public static void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeInt(Integer.MIN_VALUE);
+            return;
+        }
+        out.writeInt(value.scale());
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeShort(unscaled.length);
+        out.write(unscaled);
+    }
+
+    public static BigDecimal readDecimal(DataInput in) throws IOException {
+        int scale = in.readInt();
+        if (scale == Integer.MIN_VALUE) {
+            return null;
+        }
+        byte[] unscaled = new byte[in.readUnsignedShort()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    public static void writeNullableString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    public static String readNullableString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    public static void writeStringMap(DataOutput out, Map<String, String> map) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeUTF(entry.getValue());
+        }
+    }
+
+    public static Map<String, String> readStringMap(DataInput in) throws IOException {
+        int size = in.readInt();
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(in.readUTF(), in.readUTF());
+        }
+        return map;
+    }
+
+    public static void writeDecimalMap(DataOutput out, Map<String, BigDecimal> map) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<String, BigDecimal> entry : map.entrySet()) {
+            out.writeUTF(entry.getKey());
+            writeDecimal(out, entry.getValue());
+        }
+    }
+
+    public static Map<String, BigDecimal> readDecimalMap(DataInput in) throws IOException {
+        int size = in.readInt();
+        Map<String, BigDecimal> map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            String key = in.readUTF();
+            map.put(key, readDecimal(in));
+        }
+        return map;
+    }
+
+    /**
+     * Candle without its provider/symbol/interval, which the surrounding record already carries
+     */
+    public static void writeCandle(DataOutput out, CandlestickData candle) throws IOException {
+        out.writeLong(candle.getOpenTime().toEpochMilli());
+        out.writeLong(candle.getCloseTime().toEpochMilli());
+        writeDecimal(out, candle.getOpen());
+        writeDecimal(out, candle.getHigh());
+        writeDecimal(out, candle.getLow());
+        writeDecimal(out, candle.getClose());
+        writeDecimal(out, candle.getVolume());
+        writeDecimal(out, candle.getQuoteAssetVolume());
+        out.writeInt(candle.getNumberOfTrades());
+        out.writeBoolean(candle.isClosed());
+    }
+
+    public static CandlestickData readCandle(DataInput in, String provider, String symbol, String interval)
+            throws IOException {
+        Instant openTime = Instant.ofEpochMilli(in.readLong());
+        Instant closeTime = Instant.ofEpochMilli(in.readLong());
+        BigDecimal open = readDecimal(in);
+        BigDecimal high = readDecimal(in);
+        BigDecimal low = readDecimal(in);
+        BigDecimal close = readDecimal(in);
+        BigDecimal volume = readDecimal(in);
+        BigDecimal quoteVolume = readDecimal(in);
+        int trades = in.readInt();
+        boolean closed = in.readBoolean();
+        return new CandlestickData(symbol, openTime, closeTime, open, high, low, close,
+            volume, quoteVolume, trades, interval, provider, closed);
+    }
+}
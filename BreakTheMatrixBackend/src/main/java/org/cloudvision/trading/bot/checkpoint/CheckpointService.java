@@ -0,0 +1,377 @@
+package org.cloudvision.trading.bot.checkpoint;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PreDestroy;
+import org.cloudvision.trading.bot.TradingBot;
+import org.cloudvision.trading.bot.indicators.IndicatorInstanceManager;
+import org.cloudvision.trading.bot.indicators.IndicatorInstanceManager.IndicatorInstance;
+import org.cloudvision.trading.bot.indicators.IndicatorInstanceManager.IndicatorResult;
+import org.cloudvision.trading.bot.indicators.IndicatorInstanceManager.InstanceCheckpoint;
+import org.cloudvision.trading.bot.strategy.TradingStrategy;
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.service.CandlestickHistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Periodic checkpoints of indicator instances and strategy state, restored on startup.
+ *
+ * The checkpoint file holds every active indicator instance (parameters, stored results and,
+ * where supported, a state snapshot) plus each strategy's snapshot. On startup the candle
+ * window is paged in from the archive, instances resume from their snapshots (or re-warm from
+ * the checkpointed candles) and strategies skip the historical bootstrap, so a restart needs
+ * no exchange round trip. The file is replaced atomically, so a crash mid-write keeps the last one.
+ */
+@Service
+public class CheckpointService {
+
+    private static final int MAGIC = 0x42544D43; // "BTMC"
+    private static final int VERSION = 2;
+
+    private final IndicatorInstanceManager instanceManager;
+    private final CandlestickHistoryService historyService;
+    private final boolean enabled;
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader paramsReader; // Floats as Double, the type request parameters arrive with
+
+    @Autowired(required = false)
+    private TradingBot tradingBot;
+
+    // Snapshots of strategies that were not registered at restore time, carried into later checkpoints
+    private final Map<String, byte[]> pendingStrategies = new ConcurrentHashMap<>();
+
+    // Nothing is written until the previous checkpoint has been restored, so it is never overwritten by an empty one
+    private volatile boolean restored;
+    private volatile Instant lastCheckpoint;
+
+    public CheckpointService(IndicatorInstanceManager instanceManager,
+                             CandlestickHistoryService historyService,
+                             @Value("${trading.checkpoint.enabled:true}") boolean enabled,
+                             @Value("${trading.checkpoint.file:data/checkpoint/state.bin}") String file) {
+        this.instanceManager = instanceManager;
+        this.historyService = historyService;
+        this.enabled = enabled;
+        this.file = Paths.get(file);
+
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        this.paramsReader = objectMapper.readerFor(new TypeReference<LinkedHashMap<String, Object>>() {})
+            .without(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+        System.out.println("💾 State checkpoints " + (enabled ? "enabled: " + this.file.toAbsolutePath() : "disabled"));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            restore();
+        } catch (Exception e) {
+            System.err.println("❌ Checkpoint restore failed: " + e.getMessage());
+        } finally {
+            restored = true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${trading.checkpoint.interval-ms:60000}",
+               initialDelayString = "${trading.checkpoint.interval-ms:60000}")
+    public void scheduledCheckpoint() {
+        if (!enabled || !restored) {
+            return;
+        }
+        try {
+            writeCheckpoint();
+        } catch (Exception e) {
+            System.err.println("❌ Checkpoint failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduledCheckpoint();
+    }
+
+    /**
+     * Write a checkpoint of all indicator instances and strategies now
+     */
+    public synchronized Map<String, Object> writeCheckpoint() throws IOException {
+        long start = System.nanoTime();
+
+        List<InstanceCheckpoint> instances = new ArrayList<>();
+        for (IndicatorInstance instance : instanceManager.getAllInstances()) {
+            instances.add(instanceManager.checkpointInstance(instance));
+        }
+
+        Map<String, byte[]> strategies = new LinkedHashMap<>(pendingStrategies);
+        if (tradingBot != null) {
+            for (TradingStrategy strategy : tradingBot.getStrategies()) {
+                try {
+                    byte[] snapshot = strategy.snapshotState();
+                    if (snapshot != null) {
+                        strategies.put(strategy.getStrategyId(), snapshot);
+                    }
+                } catch (Exception e) {
+                    System.err.println("⚠️ Could not snapshot strategy " + strategy.getStrategyId() + ": " + e.getMessage());
+                }
+            }
+        }
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream stream = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(
+                 new BufferedOutputStream(new GZIPOutputStream(stream, 1 << 16), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(System.currentTimeMillis());
+
+            out.writeInt(instances.size());
+            for (InstanceCheckpoint instance : instances) {
+                writeInstance(out, instance);
+            }
+
+            out.writeInt(strategies.size());
+            for (Map.Entry<String, byte[]> entry : strategies.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().length);
+                out.write(entry.getValue());
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        lastCheckpoint = Instant.now();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("file", file.toAbsolutePath().toString());
+        stats.put("indicators", instances.size());
+        stats.put("strategies", strategies.size());
+        stats.put("bytes", Files.size(file));
+        stats.put("millis", (System.nanoTime() - start) / 1_000_000);
+        System.out.println("💾 Checkpoint written: " + stats);
+        return stats;
+    }
+
+    /**
+     * Restore indicator instances and strategy state from the checkpoint file, if there is one
+     */
+    public synchronized Map<String, Object> restore() throws IOException {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        if (!Files.exists(file)) {
+            System.out.println("💾 No checkpoint at " + file.toAbsolutePath() + " - starting cold");
+            stats.put("restored", false);
+            return stats;
+        }
+
+        long start = System.nanoTime();
+        List<InstanceCheckpoint> instances = new ArrayList<>();
+        Map<String, byte[]> strategies = new LinkedHashMap<>();
+        Instant createdAt;
+
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(
+                 new BufferedInputStream(new GZIPInputStream(stream, 1 << 16), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a checkpoint file: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported checkpoint version " + version);
+            }
+            createdAt = Instant.ofEpochMilli(in.readLong());
+
+            int instanceCount = in.readInt();
+            for (int i = 0; i < instanceCount; i++) {
+                instances.add(readInstance(in));
+            }
+
+            int strategyCount = in.readInt();
+            for (int i = 0; i < strategyCount; i++) {
+                String strategyId = in.readUTF();
+                byte[] snapshot = new byte[in.readInt()];
+                in.readFully(snapshot);
+                strategies.put(strategyId, snapshot);
+            }
+        }
+
+        System.out.println("♻️ Restoring checkpoint from " + createdAt + " (" +
+                         instances.size() + " indicators, " + strategies.size() + " strategies)");
+
+        // Page the candle windows in from the archive before anything replays or catches up
+        Set<String> contexts = new HashSet<>();
+        for (InstanceCheckpoint instance : instances) {
+            String context = instance.getProvider() + ":" + instance.getSymbol() + ":" + instance.getInterval();
+            if (contexts.add(context)) {
+                historyService.loadFromArchive(instance.getProvider(), instance.getSymbol(),
+                    instance.getInterval(), IndicatorInstance.MAX_HISTORY_SIZE);
+            }
+        }
+
+        int restoredIndicators = 0;
+        for (InstanceCheckpoint instance : instances) {
+            try {
+                instanceManager.restoreInstance(instance);
+                restoredIndicators++;
+            } catch (Exception e) {
+                System.err.println("⚠️ Could not restore indicator " + instance.getIndicatorId() +
+                                 " for " + instance.getSymbol() + " " + instance.getInterval() + ": " + e.getMessage());
+            }
+        }
+
+        int restoredStrategies = 0;
+        Map<String, TradingStrategy> registered = new HashMap<>();
+        if (tradingBot != null) {
+            for (TradingStrategy strategy : tradingBot.getStrategies()) {
+                registered.put(strategy.getStrategyId(), strategy);
+            }
+        }
+        for (Map.Entry<String, byte[]> entry : strategies.entrySet()) {
+            TradingStrategy strategy = registered.get(entry.getKey());
+            if (strategy == null) {
+                pendingStrategies.put(entry.getKey(), entry.getValue());
+                continue;
+            }
+            try {
+                if (strategy.restoreState(entry.getValue())) {
+                    restoredStrategies++;
+                    System.out.println("♻️ Restored strategy state: " + entry.getKey());
+                }
+            } catch (Exception e) {
+                System.err.println("⚠️ Could not restore strategy " + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+
+        stats.put("restored", true);
+        stats.put("checkpointTime", createdAt.toString());
+        stats.put("indicators", restoredIndicators);
+        stats.put("strategies", restoredStrategies);
+        stats.put("pendingStrategies", pendingStrategies.size());
+        stats.put("millis", (System.nanoTime() - start) / 1_000_000);
+        System.out.println("✅ Checkpoint restored: " + stats);
+        return stats;
+    }
+
+    public Instant getLastCheckpoint() {
+        return lastCheckpoint;
+    }
+
+    // ============================================================
+    // Encoding
+    // ============================================================
+
+    private void writeInstance(DataOutputStream out, InstanceCheckpoint instance) throws IOException {
+        out.writeUTF(instance.getIndicatorId());
+        out.writeUTF(instance.getProvider());
+        out.writeUTF(instance.getSymbol());
+        out.writeUTF(instance.getInterval());
+        writeParams(out, instance.getParams());
+        out.writeLong(instance.getUpdateCount());
+
+        List<IndicatorResult> history = instance.getHistory();
+        out.writeInt(history.size());
+        for (IndicatorResult result : history) {
+            out.writeLong(result.getTimestamp().toEpochMilli());
+            CandlestickData candle = result.getCandle();
+            out.writeBoolean(candle != null);
+            if (candle != null) {
+                CheckpointIO.writeCandle(out, candle);
+            }
+            CheckpointIO.writeDecimalMap(out, result.getValues());
+
+            Map<String, Object> extras = result.getAdditionalData();
+            if (extras.isEmpty()) {
+                out.writeInt(-1);
+            } else {
+                byte[] json = objectMapper.writeValueAsBytes(extras);
+                out.writeInt(json.length);
+                out.write(json);
+            }
+        }
+
+        byte[] snapshot = instance.getStateSnapshot();
+        out.writeInt(snapshot != null ? snapshot.length : -1);
+        if (snapshot != null) {
+            out.write(snapshot);
+        }
+    }
+
+    private InstanceCheckpoint readInstance(DataInputStream in) throws IOException {
+        String indicatorId = in.readUTF();
+        String provider = in.readUTF();
+        String symbol = in.readUTF();
+        String interval = in.readUTF();
+        Map<String, Object> params = readParams(in);
+        long updateCount = in.readLong();
+
+        int rows = in.readInt();
+        List<IndicatorResult> history = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Instant timestamp = Instant.ofEpochMilli(in.readLong());
+            CandlestickData candle = in.readBoolean()
+                ? CheckpointIO.readCandle(in, provider, symbol, interval)
+                : null;
+            Map<String, BigDecimal> values = CheckpointIO.readDecimalMap(in);
+
+            Map<String, Object> extras = null;
+            int length = in.readInt();
+            if (length >= 0) {
+                byte[] json = new byte[length];
+                in.readFully(json);
+                extras = objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+            }
+            history.add(new IndicatorResult(timestamp, values, candle, extras));
+        }
+
+        byte[] snapshot = null;
+        int length = in.readInt();
+        if (length >= 0) {
+            snapshot = new byte[length];
+            in.readFully(snapshot);
+        }
+
+        return new InstanceCheckpoint(indicatorId, provider, symbol, interval, params, history, snapshot, updateCount);
+    }
+
+    /**
+     * Parameters as JSON, so lists and nested maps come back as they went in
+     */
+    private void writeParams(DataOutputStream out, Map<String, Object> params) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(params);
+        out.writeInt(json.length);
+        out.write(json);
+    }
+
+    private Map<String, Object> readParams(DataInputStream in) throws IOException {
+        byte[] json = new byte[in.readInt()];
+        in.readFully(json);
+        return paramsReader.readValue(json);
+    }
+}
@@ -0,0 +1,142 @@
+package org.cloudvision.trading.bot.controller;
+
+import org.cloudvision.trading.bot.backtest.BacktestConfig;
+import org.cloudvision.trading.bot.backtest.BacktestResult;
+import org.cloudvision.trading.bot.backtest.BacktestService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * REST API for backtests
+ * Runs a registered strategy over archived candles on a simulated account
+ */
+@RestController
+@RequestMapping("/api/backtest")
+@CrossOrigin(origins = "*")
+public class BacktestController {
+
+    private final BacktestService backtestService;
+
+    @Autowired
+    public BacktestController(BacktestService backtestService) {
+        this.backtestService = backtestService;
+    }
+
+    /**
+     * Run a backtest (synchronously)
+     *
+     * POST /api/backtest/run
+     * Body: BacktestConfig
+     * Returns: summary with statistics; trades and equity curve via the endpoints below
+     */
+    @PostMapping("/run")
+    public ResponseEntity<?> run(@RequestBody BacktestConfig config) {
+        try {
+            BacktestResult result = backtestService.run(config);
+            return ResponseEntity.ok(result.getSummary());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Backtest failed: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Summaries of the kept results
+     *
+     * GET /api/backtest/results
+     */
+    @GetMapping("/results")
+    public ResponseEntity<?> getResults() {
+        List<Map<String, Object>> summaries = backtestService.getResults().stream()
+            .map(BacktestResult::getSummary)
+            .collect(Collectors.toList());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("totalResults", summaries.size());
+        response.put("results", summaries);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Result summary
+     *
+     * GET /api/backtest/{backtestId}
+     */
+    @GetMapping("/{backtestId}")
+    public ResponseEntity<?> getResult(@PathVariable String backtestId) {
+        try {
+            return ResponseEntity.ok(backtestService.getResult(backtestId).getSummary());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Closed trades of a result
+     *
+     * GET /api/backtest/{backtestId}/trades
+     */
+    @GetMapping("/{backtestId}/trades")
+    public ResponseEntity<?> getTrades(@PathVariable String backtestId) {
+        try {
+            BacktestResult result = backtestService.getResult(backtestId);
+            return ResponseEntity.ok(Map.of(
+                "backtestId", backtestId,
+                "totalTrades", result.getTrades().size(),
+                "trades", result.getTrades()
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Equity curve of a result, reduced to at most {@code points} points
+     *
+     * GET /api/backtest/{backtestId}/equity?points=1000
+     */
+    @GetMapping("/{backtestId}/equity")
+    public ResponseEntity<?> getEquity(@PathVariable String backtestId,
+                                       @RequestParam(defaultValue = "1000") int points) {
+        try {
+            BacktestResult result = backtestService.getResult(backtestId);
+            return ResponseEntity.ok(Map.of(
+                "backtestId", backtestId,
+                "candlesProcessed", result.getCandlesProcessed(),
+                "equity", result.getEquityCurve(points)
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Discard a result
+     *
+     * DELETE /api/backtest/{backtestId}
+     */
+    @DeleteMapping("/{backtestId}")
+    public ResponseEntity<?> deleteResult(@PathVariable String backtestId) {
+        if (!backtestService.removeResult(backtestId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", "Backtest not found: " + backtestId));
+        }
+        return ResponseEntity.ok(Map.of("message", "Backtest removed", "backtestId", backtestId));
+    }
+}
@@ -9,8 +9,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.cloudvision.trading.bot.indicators.Indicator;
+import org.cloudvision.trading.bot.indicators.IndicatorHistoryBuffer;
 import org.cloudvision.trading.bot.indicators.IndicatorParameter;
 import org.cloudvision.trading.bot.indicators.IndicatorInstanceManager;
+import org.cloudvision.trading.bot.model.ColumnarIndicatorHistory;
 import org.cloudvision.trading.bot.model.IndicatorResponse;
 import org.cloudvision.trading.bot.strategy.IndicatorMetadata;
 import org.cloudvision.trading.bot.visualization.ShapeRegistry;
@@ -453,7 +455,9 @@ public class IndicatorController {
         description = "Returns historical indicator values from active indicator instances for charting. " +
                      "If indicatorId is provided, returns data for that specific indicator. " +
                      "If indicatorId is omitted, returns data for ALL active indicators in the given context. " +
-                     "Indicators must be activated first via /api/indicators/instances/activate"
+                     "Indicators must be activated first via /api/indicators/instances/activate. " +
+                     "Set format=columnar for a compact layout (shared delta-encoded time axis, candles once, " +
+                     "one number array per series) and since/until (epoch seconds) to fetch only a time range."
     )
     @io.swagger.v3.oas.annotations.parameters.RequestBody(
         description = "Historical data request parameters. The indicatorId is optional - omit it to get data for all active indicators in the context.",
@@ -473,6 +477,19 @@ public class IndicatorController {
                     }
                     """
                 ),
+                @ExampleObject(
+                    name = "Columnar range",
+                    description = "Only the rows after the last one the chart already has, in columnar layout",
+                    value = """
+                    {
+                      "provider": "Binance",
+                      "symbol": "BTCUSDT",
+                      "interval": "5m",
+                      "format": "columnar",
+                      "since": 1704067500
+                    }
+                    """
+                ),
                 @ExampleObject(
                     name = "Specific indicator - SMA(20)",
                     description = "Get 200 data points of SMA(20) for BTCUSDT 5-minute chart",
@@ -809,6 +826,10 @@ examples = {
                 ));
             }
             
+            if (request.isColumnar()) {
+                return ResponseEntity.ok(buildColumnarResponse(request, activeInstances, requestedCount));
+            }
+            
             // Process data for each active indicator
             // NOTE: We get stored results that were calculated in real-time, NOT recalculated!
             List<IndicatorResponse> indicatorsData = new ArrayList<>();
@@ -818,8 +839,8 @@ examples = {
                 String instanceKey = instance.getInstanceKey();
                 
                 // Get historical data from stored results (ensures consistency with real-time state)
-                List<IndicatorInstanceManager.IndicatorResult> dataPoints = 
-                    indicatorManager.getHistoricalData(instanceKey, requestedCount);
+                IndicatorHistoryBuffer.View dataPoints = 
+                    selectRange(indicatorManager, instanceKey, request, requestedCount);
                 
                 // Get visualization metadata
                 Map<String, IndicatorMetadata> metadata = indicatorManager.getVisualizationMetadata(
@@ -856,6 +877,50 @@ examples = {
         }
     }
     
+    /**
+     * Same data as the default format, as one shared time axis plus number columns
+     * (see {@link ColumnarIndicatorHistory})
+     */
+    private Map<String, Object> buildColumnarResponse(HistoricalRequest request,
+                                                      List<IndicatorInstanceManager.IndicatorInstance> activeInstances,
+                                                      int requestedCount) {
+        ColumnarIndicatorHistory history = new ColumnarIndicatorHistory(
+            request.getProvider(), request.getSymbol(), request.getInterval()
+        );
+        for (IndicatorInstanceManager.IndicatorInstance instance : activeInstances) {
+            history.add(
+                instance,
+                selectRange(indicatorManager, instance.getInstanceKey(), request, requestedCount),
+                indicatorManager.getVisualizationMetadata(instance.getIndicatorId(), instance.getParams())
+            );
+        }
+        
+        Map<String, Object> response = history.toMap();
+        response.put("requestedCount", requestedCount);
+        response.put("since", request.getSince());
+        response.put("until", request.getUntil());
+        response.put("fromActiveInstances", true);
+        return response;
+    }
+    
+    /**
+     * Stored results of an instance inside [since, until] (epoch seconds, both optional),
+     * keeping the newest {@code count}. A view over the instance's history, nothing is copied.
+     */
+    private static IndicatorHistoryBuffer.View selectRange(
+            IndicatorInstanceManager manager, String instanceKey, HistoricalRequest request, int count) {
+        if (request.getSince() == null && request.getUntil() == null) {
+            return manager.getHistoricalData(instanceKey, count);
+        }
+        
+        IndicatorHistoryBuffer.View all =
+            manager.getHistoricalData(instanceKey, IndicatorInstanceManager.IndicatorInstance.MAX_HISTORY_SIZE);
+        return all.between(
+            request.getSince() != null ? request.getSince() * 1000 : null,
+            request.getUntil() != null ? request.getUntil() * 1000 + 999 : null
+        ).last(count);
+    }
+    
     // DTOs
     
     public static class IndicatorListItem {
@@ -967,6 +1032,9 @@ examples = {
         private String symbol;
         private String interval;
         private Integer count;
+        private String format;   // "columnar" for the compact layout, default is one object per point
+        private Long since;      // epoch seconds, inclusive
+        private Long until;      // epoch seconds, inclusive
         
         public String getProvider() { return provider; }
         public void setProvider(String provider) { this.provider = provider; }
@@ -976,6 +1044,14 @@ examples = {
         public void setInterval(String interval) { this.interval = interval; }
         public Integer getCount() { return count; }
         public void setCount(Integer count) { this.count = count; }
+        public String getFormat() { return format; }
+        public void setFormat(String format) { this.format = format; }
+        public Long getSince() { return since; }
+        public void setSince(Long since) { this.since = since; }
+        public Long getUntil() { return until; }
+        public void setUntil(Long until) { this.until = until; }
+        
+        public boolean isColumnar() { return "columnar".equalsIgnoreCase(format); }
     }
 }
 
@@ -0,0 +1,168 @@
+package org.cloudvision.trading.bot.controller;
+
+import org.cloudvision.trading.bot.backtest.SweepConfig;
+import org.cloudvision.trading.bot.backtest.SweepRun;
+import org.cloudvision.trading.bot.backtest.SweepService;
+import org.cloudvision.trading.bot.backtest.SweepSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * REST API for parameter sweeps and walk-forward optimization
+ * Sweeps run in the background; progress is streamed on /sweep-ws or polled here
+ */
+@RestController
+@RequestMapping("/api/backtest/sweeps")
+@CrossOrigin(origins = "*")
+public class SweepController {
+
+    private final SweepService sweepService;
+
+    @Autowired
+    public SweepController(SweepService sweepService) {
+        this.sweepService = sweepService;
+    }
+
+    /**
+     * Start a sweep
+     *
+     * POST /api/backtest/sweeps
+     * Body: SweepConfig, e.g.
+     * {
+     *   "backtest": { "strategyId": "supertrend", "provider": "Binance", "symbol": "BTCUSDT", "interval": "5m" },
+     *   "grid": { "atrPeriod": [7, 10, 14], "atrMultiplier": [2.0, 3.0, 4.0] },
+     *   "objective": "sharpe",
+     *   "walkForwardWindows": 4
+     * }
+     * Returns: initial status with the sweepId
+     */
+    @PostMapping
+    public ResponseEntity<?> start(@RequestBody SweepConfig config) {
+        try {
+            SweepSession session = sweepService.start(config);
+            return ResponseEntity.ok(session.getStatus());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Sweep failed to start: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Status of all sweeps
+     *
+     * GET /api/backtest/sweeps
+     */
+    @GetMapping
+    public ResponseEntity<?> getSweeps() {
+        List<Map<String, Object>> statuses = sweepService.getSweeps().stream()
+            .map(SweepSession::getStatus)
+            .collect(Collectors.toList());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("totalSweeps", statuses.size());
+        response.put("sweeps", statuses);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Sweep status: progress, best run so far, walk-forward summary
+     *
+     * GET /api/backtest/sweeps/{sweepId}
+     */
+    @GetMapping("/{sweepId}")
+    public ResponseEntity<?> getSweep(@PathVariable String sweepId) {
+        try {
+            return ResponseEntity.ok(sweepService.getSweep(sweepId).getStatus());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Runs ranked by the sweep's objective, best first
+     *
+     * GET /api/backtest/sweeps/{sweepId}/ranking?limit=50&window=0
+     */
+    @GetMapping("/{sweepId}/ranking")
+    public ResponseEntity<?> getRanking(@PathVariable String sweepId,
+                                        @RequestParam(defaultValue = "50") int limit,
+                                        @RequestParam(required = false) Integer window) {
+        try {
+            SweepSession session = sweepService.getSweep(sweepId);
+            List<SweepRun> ranking = session.getRanking(window, limit);
+            Map<String, Object> response = new HashMap<>();
+            response.put("sweepId", sweepId);
+            response.put("objective", session.getConfig().getObjective());
+            response.put("state", session.getState());
+            response.put("ranking", ranking);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Walk-forward windows: best in-sample run and its out-of-sample result
+     *
+     * GET /api/backtest/sweeps/{sweepId}/windows
+     */
+    @GetMapping("/{sweepId}/windows")
+    public ResponseEntity<?> getWindows(@PathVariable String sweepId) {
+        try {
+            SweepSession session = sweepService.getSweep(sweepId);
+            return ResponseEntity.ok(Map.of(
+                "sweepId", sweepId,
+                "summary", session.getWalkForwardSummary(),
+                "windows", session.getWindows()
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Stop a running sweep, keeping the runs completed so far
+     *
+     * POST /api/backtest/sweeps/{sweepId}/cancel
+     */
+    @PostMapping("/{sweepId}/cancel")
+    public ResponseEntity<?> cancel(@PathVariable String sweepId) {
+        try {
+            sweepService.cancel(sweepId);
+            return ResponseEntity.ok(Map.of("message", "Sweep cancelling", "sweepId", sweepId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Cancel and discard a sweep
+     *
+     * DELETE /api/backtest/sweeps/{sweepId}
+     */
+    @DeleteMapping("/{sweepId}")
+    public ResponseEntity<?> deleteSweep(@PathVariable String sweepId) {
+        if (!sweepService.removeSweep(sweepId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", "Sweep not found: " + sweepId));
+        }
+        return ResponseEntity.ok(Map.of("message", "Sweep removed", "sweepId", sweepId));
+    }
+}
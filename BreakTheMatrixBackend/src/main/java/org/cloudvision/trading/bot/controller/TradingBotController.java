@@ -195,6 +195,24 @@ public class TradingBotController {
         );
     }
 
+    @Operation(summary = "Get Market Data Bus Stats", description = "Per-consumer queue depth, dropped/conflated counts and lag of the market data bus.")
+    @GetMapping("/bus/stats")
+    public Map<String, Object> getMarketDataBusStats() {
+        return Map.of(
+            "published", tradingBot.getMarketDataBus().getPublishedCount(),
+            "subscribers", tradingBot.getMarketDataBus().getStats()
+        );
+    }
+
+    @Operation(summary = "Get Strategy Lane Stats", description = "Queue depth, processed count and latency of each per-symbol strategy execution lane.")
+    @GetMapping("/lanes/stats")
+    public Map<String, Object> getStrategyLaneStats() {
+        return Map.of(
+            "lanes", tradingBot.getExecutionEngine().getLaneCount(),
+            "stats", tradingBot.getExecutionEngine().getStats()
+        );
+    }
+
     // Strategy Management
     @Operation(summary = "Get All Strategies", description = "Get all registered strategies with their status and statistics")
     @GetMapping("/strategies")
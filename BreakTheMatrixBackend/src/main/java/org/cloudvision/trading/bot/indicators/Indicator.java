@@ -148,6 +148,32 @@ public interface Indicator {
      */
     int getMinRequiredCandles(Map<String, Object> params);
     
+    /**
+     * Serialize the state for a checkpoint (optional)
+     * 
+     * Checkpoints let the instance manager restore instances on startup without replaying
+     * their whole history. Override together with {@link #restoreState}.
+     * 
+     * @param state Current state
+     * @param params Configuration parameters
+     * @return Snapshot bytes, or null if the state can only be rebuilt by replaying candles (default)
+     */
+    default byte[] snapshotState(Object state, Map<String, Object> params) {
+        return null;
+    }
+    
+    /**
+     * Rebuild the state from {@link #snapshotState} bytes (optional)
+     * 
+     * @param snapshot Bytes written by snapshotState
+     * @param recentCandles Candles the instance had processed when the snapshot was taken, oldest first
+     * @param params Configuration parameters
+     * @return Restored state
+     */
+    default Object restoreState(byte[] snapshot, List<CandlestickData> recentCandles, Map<String, Object> params) {
+        throw new UnsupportedOperationException(getId() + " does not support state snapshots");
+    }
+    
     /**
      * Validate parameters before calculation
      * Throws IllegalArgumentException if parameters are invalid
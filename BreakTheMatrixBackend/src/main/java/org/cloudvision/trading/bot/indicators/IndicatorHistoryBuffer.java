@@ -0,0 +1,345 @@
+package org.cloudvision.trading.bot.indicators;
+
+import org.cloudvision.trading.model.CandlestickData;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Append-only history of one indicator instance's results.
+ *
+ * Rows are stored column-wise in fixed-size chunks: epoch-millis timestamps, the candle, the
+ * extra fields and one fixed-point column per output series (long mantissa + byte scale, so a
+ * value reads back exactly as the indicator produced it). A chunk is never rewritten; when the
+ * buffer holds more than its capacity the oldest chunk is dropped as a whole.
+ *
+ * Readers take a {@link View}: the published chunk list plus a row range. It needs no lock,
+ * copies nothing, and keeps showing the same rows while the writer appends.
+ *
+ * One writer at a time (the instance's update path, see IndicatorInstanceManager); any number of readers.
+ */
+public class IndicatorHistoryBuffer {
+
+    static final int CHUNK_SIZE = 512;
+
+    /** Scale marker for "no value in this row" */
+    private static final byte ABSENT = Byte.MIN_VALUE;
+    private static final MathContext LONG_PRECISION = new MathContext(18);
+
+    private static final double[] POW10 = new double[19];
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    private final int capacity;
+
+    // Published in this order by the writer: layout (when a chunk is added), then end
+    private volatile Layout layout;
+    private volatile long end; // rows ever appended, exclusive
+
+    public IndicatorHistoryBuffer(int capacity) {
+        this.capacity = capacity;
+        this.layout = new Layout(new Chunk[0], 0, 0);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Number of rows a view would currently contain
+     */
+    public int size() {
+        return view().size();
+    }
+
+    public void append(IndicatorInstanceManager.IndicatorResult result) {
+        long row = end;
+        Layout current = layout;
+        int chunkIndex = (int) (row / CHUNK_SIZE - current.firstChunk);
+
+        if (chunkIndex == current.chunks.length) {
+            current = addChunk(current, row);
+            layout = current;
+            chunkIndex = current.chunks.length - 1;
+        }
+
+        current.chunks[chunkIndex].write((int) (row % CHUNK_SIZE), result);
+        end = row + 1;
+    }
+
+    /**
+     * Forget all rows (parameter change); views taken before keep their rows
+     */
+    public void clear() {
+        long row = end;
+        layout = new Layout(new Chunk[0], row / CHUNK_SIZE, row);
+    }
+
+    /**
+     * All retained rows, oldest first
+     */
+    public View view() {
+        long e = end;
+        Layout current = layout;
+        long start = Math.max(Math.max(current.start, e - capacity), current.firstChunk * CHUNK_SIZE);
+        return new View(current, Math.min(start, e), (int) Math.max(0, e - start));
+    }
+
+    private Layout addChunk(Layout current, long row) {
+        Chunk previous = current.chunks.length > 0 ? current.chunks[current.chunks.length - 1] : null;
+        Chunk chunk = new Chunk(previous);
+
+        // Drop chunks that only hold rows older than the retained window
+        long retainedFrom = Math.max(current.start, row + 1 - capacity);
+        long firstChunk = current.chunks.length == 0 ? row / CHUNK_SIZE : current.firstChunk;
+        int drop = 0;
+        while (drop < current.chunks.length && (firstChunk + drop + 1) * CHUNK_SIZE <= retainedFrom) {
+            drop++;
+        }
+
+        Chunk[] chunks = new Chunk[current.chunks.length - drop + 1];
+        System.arraycopy(current.chunks, drop, chunks, 0, current.chunks.length - drop);
+        chunks[chunks.length - 1] = chunk;
+        return new Layout(chunks, firstChunk + drop, current.start);
+    }
+
+    private static final class Layout {
+        final Chunk[] chunks;
+        final long firstChunk; // chunk number of chunks[0]
+        final long start;      // first row still valid after clear()
+
+        Layout(Chunk[] chunks, long firstChunk, long start) {
+            this.chunks = chunks;
+            this.firstChunk = firstChunk;
+            this.start = start;
+        }
+
+        Chunk chunkOf(long row) {
+            return chunks[(int) (row / CHUNK_SIZE - firstChunk)];
+        }
+    }
+
+    private static final class Chunk {
+        final long[] times = new long[CHUNK_SIZE];
+        final CandlestickData[] candles = new CandlestickData[CHUNK_SIZE];
+        final Object[] extras = new Object[CHUNK_SIZE];
+        // Copy-on-write so readers never see a map being modified; insertion order = series order
+        volatile Map<String, Column> columns;
+
+        Chunk(Chunk previous) {
+            Map<String, Column> inherited = new LinkedHashMap<>();
+            if (previous != null) {
+                for (String series : previous.columns.keySet()) {
+                    inherited.put(series, new Column());
+                }
+            }
+            this.columns = inherited;
+        }
+
+        void write(int slot, IndicatorInstanceManager.IndicatorResult result) {
+            times[slot] = result.getTimestamp().toEpochMilli();
+            candles[slot] = result.getCandle();
+            extras[slot] = result.getAdditionalData().isEmpty() ? null : result.getAdditionalData();
+
+            for (Map.Entry<String, BigDecimal> entry : result.getValues().entrySet()) {
+                if (entry.getValue() == null) {
+                    continue;
+                }
+                Column column = columns.get(entry.getKey());
+                if (column == null) {
+                    Map<String, Column> grown = new LinkedHashMap<>(columns);
+                    column = new Column();
+                    grown.put(entry.getKey(), column);
+                    columns = grown;
+                }
+                column.set(slot, entry.getValue());
+            }
+        }
+    }
+
+    private static final class Column {
+        final long[] mantissas = new long[CHUNK_SIZE];
+        final byte[] scales = new byte[CHUNK_SIZE];
+
+        Column() {
+            Arrays.fill(scales, ABSENT);
+        }
+
+        void set(int slot, BigDecimal value) {
+            // Rare: more than 18 digits or an extreme scale; keep 18 significant digits
+            if (value.unscaledValue().bitLength() > 63 || value.scale() <= ABSENT || value.scale() > Byte.MAX_VALUE) {
+                value = value.round(LONG_PRECISION);
+                if (value.scale() > Byte.MAX_VALUE) {
+                    value = value.setScale(Byte.MAX_VALUE, RoundingMode.HALF_UP);
+                }
+            }
+            mantissas[slot] = value.unscaledValue().longValue();
+            scales[slot] = (byte) value.scale();
+        }
+    }
+
+    /**
+     * Immutable, zero-copy window over the buffer. Indexes run from 0 (oldest) to size()-1;
+     * {@link #get} builds an IndicatorResult on demand, the typed accessors read the columns directly.
+     */
+    public static final class View extends AbstractList<IndicatorInstanceManager.IndicatorResult>
+            implements RandomAccess {
+
+        public static final View EMPTY = new View(new Layout(new Chunk[0], 0, 0), 0, 0);
+
+        private final Layout layout;
+        private final long from;
+        private final int size;
+
+        private View(Layout layout, long from, int size) {
+            this.layout = layout;
+            this.from = from;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public IndicatorInstanceManager.IndicatorResult get(int index) {
+            long row = row(index);
+            Chunk chunk = layout.chunkOf(row);
+            int slot = (int) (row % CHUNK_SIZE);
+
+            Map<String, BigDecimal> values = new LinkedHashMap<>();
+            for (Map.Entry<String, Column> entry : chunk.columns.entrySet()) {
+                Column column = entry.getValue();
+                if (column.scales[slot] != ABSENT) {
+                    values.put(entry.getKey(), BigDecimal.valueOf(column.mantissas[slot], column.scales[slot]));
+                }
+            }
+            return new IndicatorInstanceManager.IndicatorResult(
+                Instant.ofEpochMilli(chunk.times[slot]), values, chunk.candles[slot], getExtra(index)
+            );
+        }
+
+        public long getTimeMillis(int index) {
+            long row = row(index);
+            return layout.chunkOf(row).times[(int) (row % CHUNK_SIZE)];
+        }
+
+        public CandlestickData getCandle(int index) {
+            long row = row(index);
+            return layout.chunkOf(row).candles[(int) (row % CHUNK_SIZE)];
+        }
+
+        /**
+         * Extra fields (shapes, color, ...) of a row, or null if it had none
+         */
+        @SuppressWarnings("unchecked")
+        public Map<String, Object> getExtra(int index) {
+            long row = row(index);
+            return (Map<String, Object>) layout.chunkOf(row).extras[(int) (row % CHUNK_SIZE)];
+        }
+
+        public boolean hasValue(String series, int index) {
+            long row = row(index);
+            Column column = layout.chunkOf(row).columns.get(series);
+            return column != null && column.scales[(int) (row % CHUNK_SIZE)] != ABSENT;
+        }
+
+        /**
+         * Value of a series as a double, NaN if the row has none
+         */
+        public double getDouble(String series, int index) {
+            long row = row(index);
+            Column column = layout.chunkOf(row).columns.get(series);
+            int slot = (int) (row % CHUNK_SIZE);
+            if (column == null || column.scales[slot] == ABSENT) {
+                return Double.NaN;
+            }
+            int scale = column.scales[slot];
+            long mantissa = column.mantissas[slot];
+            if (scale == 0) {
+                return mantissa;
+            }
+            return scale > 0 && scale <= 18 ? mantissa / POW10[scale] : BigDecimal.valueOf(mantissa, scale).doubleValue();
+        }
+
+        public BigDecimal getValue(String series, int index) {
+            long row = row(index);
+            Column column = layout.chunkOf(row).columns.get(series);
+            int slot = (int) (row % CHUNK_SIZE);
+            if (column == null || column.scales[slot] == ABSENT) {
+                return null;
+            }
+            return BigDecimal.valueOf(column.mantissas[slot], column.scales[slot]);
+        }
+
+        /**
+         * Series names seen in this window, in first-seen order
+         */
+        public Set<String> getSeriesNames() {
+            Set<String> names = new LinkedHashSet<>();
+            if (size == 0) {
+                return names;
+            }
+            for (long row = from; row < from + size; row = (row / CHUNK_SIZE + 1) * CHUNK_SIZE) {
+                names.addAll(layout.chunkOf(row).columns.keySet());
+            }
+            return names;
+        }
+
+        @Override
+        public View subList(int fromIndex, int toIndex) {
+            if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+                throw new IndexOutOfBoundsException("subList(" + fromIndex + ", " + toIndex + ") of " + size);
+            }
+            return new View(layout, from + fromIndex, toIndex - fromIndex);
+        }
+
+        /**
+         * The newest {@code count} rows
+         */
+        public View last(int count) {
+            return count >= size ? this : subList(size - Math.max(0, count), size);
+        }
+
+        /**
+         * Rows with sinceMillis <= time <= untilMillis; either bound may be null
+         */
+        public View between(Long sinceMillis, Long untilMillis) {
+            int fromIndex = sinceMillis != null ? lowerBound(sinceMillis) : 0;
+            int toIndex = untilMillis != null ? lowerBound(untilMillis + 1) : size;
+            return subList(fromIndex, Math.max(fromIndex, toIndex));
+        }
+
+        /**
+         * First index whose time is >= epochMillis (size() if none); rows are in time order
+         */
+        public int lowerBound(long epochMillis) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (getTimeMillis(mid) < epochMillis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private long row(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " of " + size);
+            }
+            return from + index;
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package org.cloudvision.trading.bot.indicators;
 
+import org.cloudvision.trading.bot.indicators.graph.IndicatorGraphRegistry;
+import org.cloudvision.trading.bot.indicators.graph.SharedSeriesState;
 import org.cloudvision.trading.bot.strategy.IndicatorMetadata;
 import org.cloudvision.trading.model.CandlestickData;
 import org.cloudvision.trading.service.CandlestickHistoryService;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Collectors;
 
 /**
@@ -26,6 +32,14 @@ import java.util.stream.Collectors;
  * into a single, cohesive API.
  * 
  * Thread-Safe: All operations use ConcurrentHashMap and atomic operations
+ * 
+ * Candle closes are dispatched over a precomputed per-context instance array; the
+ * instances of one context are independent, so they are updated in parallel on a
+ * fork-join pool and joined before the results are returned.
+ * 
+ * Indicators whose state implements SharedSeriesState read primitive series (SMA, ...)
+ * from nodes; after the history replay those nodes move onto the context's shared graph, so a
+ * series used by several instances or strategies is computed once per candle.
  */
 @Service
 public class IndicatorInstanceManager {
@@ -41,9 +55,18 @@ public class IndicatorInstanceManager {
     // Index for fast lookups by symbol/provider/interval
     private final Map<String, Set<String>> instancesByContext = new ConcurrentHashMap<>();
     
+    // Candle-close dispatch: contextKey -> instances with their resolved indicator (rebuilt on (de)activation)
+    private final Map<String, Dispatch[]> dispatchByContext = new ConcurrentHashMap<>();
+    private final Object dispatchLock = new Object(); // serializes dispatch rebuilds and clearAll
+    private final ForkJoinPool dispatchPool;
+    
+    @Autowired(required = false)
+    private IndicatorGraphRegistry graphRegistry;
+    
     @Autowired
     public IndicatorInstanceManager(List<Indicator> indicatorList,
-                                   CandlestickHistoryService historyService) {
+                                   CandlestickHistoryService historyService,
+                                   @Value("${trading.indicators.parallelism:0}") int parallelism) {
         this.historyService = historyService;
         
         // Register all indicators
@@ -51,7 +74,19 @@ public class IndicatorInstanceManager {
             indicators.put(indicator.getId(), indicator);
         }
         
-        System.out.println("✅ IndicatorInstanceManager initialized with " + indicators.size() + " indicators");
+        // 1 = update instances one by one on the calling thread
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.dispatchPool = threads > 1 ? new ForkJoinPool(threads) : null;
+        
+        System.out.println("✅ IndicatorInstanceManager initialized with " + indicators.size() + " indicators" +
+                         " (candle dispatch parallelism: " + threads + ")");
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (dispatchPool != null) {
+            dispatchPool.shutdownNow();
+        }
     }
     
     // ============================================================
@@ -190,10 +225,14 @@ public class IndicatorInstanceManager {
             instance.addHistoricalResult(indicatorResult);
         }
         
+        // Compute shared series once per candle from now on
+        shareSeries(instance);
+        
         // Add to context index for fast lookups
         String contextKey = generateContextKey(provider, symbol, interval);
         instancesByContext.computeIfAbsent(contextKey, k -> ConcurrentHashMap.newKeySet())
                          .add(instanceKey);
+        rebuildDispatch(contextKey);
         
         System.out.println("✅ Activated indicator: " + indicatorId + 
                          " for " + symbol + " " + interval + 
@@ -285,10 +324,14 @@ public class IndicatorInstanceManager {
             instance.addHistoricalResult(indicatorResult);
         }
         
+        // Compute shared series once per candle from now on
+        shareSeries(instance);
+        
         // Add to context index
         String contextKey = generateContextKey(provider, symbol, interval);
         instancesByContext.computeIfAbsent(contextKey, k -> ConcurrentHashMap.newKeySet())
                          .add(instanceKey);
+        rebuildDispatch(contextKey);
         
         System.out.println("✅ Activated indicator: " + indicatorId + 
                          " for " + symbol + " " + interval + 
@@ -319,6 +362,10 @@ public class IndicatorInstanceManager {
                     instancesByContext.remove(contextKey);
                 }
             }
+            rebuildDispatch(contextKey);
+            
+            // Let go of the series nodes this instance was reading
+            releaseSeries(instance);
             
             System.out.println("✅ Deactivated indicator: " + instance.getIndicatorId() + 
                              " for " + instance.getSymbol() + " " + instance.getInterval() +
@@ -401,41 +448,49 @@ public class IndicatorInstanceManager {
             newParams
         );
         
-        // Update the instance state and params
-        instance.updateParams(newParams, state, minRequired);
-        
-        // Clear old historical results
-        instance.clearHistoricalResults();
-        
-        // Recalculate all historical data with new parameters
-        System.out.println("📊 Recalculating historical buffer with " + candles.size() + " candles...");
-        for (int i = minRequired; i < candles.size(); i++) {
-            CandlestickData candle = candles.get(i);
+        // Live candles and ticks wait while the history is rebuilt
+        synchronized (instance) {
+            // The old state's series nodes are no longer needed
+            releaseSeries(instance);
             
-            // Process the candle with new state
-            Map<String, Object> result = indicator.onNewCandle(candle, newParams, instance.getState().getState());
+            // Update the instance state and params
+            instance.updateParams(newParams, state, minRequired);
             
-            // Extract values and new state
-            @SuppressWarnings("unchecked")
-            Map<String, BigDecimal> values = (Map<String, BigDecimal>) result.get("values");
-            Object newState = result.get("state");
+            // Clear old historical results
+            instance.clearHistoricalResults();
             
-            // Extract additional data
-            Map<String, Object> additionalData = extractAdditionalData(result);
-            
-            // Update state
-            instance.getState().setState(newState);
-            instance.getState().incrementCandleCount();
-            
-            // Create and store result
-            IndicatorResult indicatorResult = new IndicatorResult(
-                candle.getOpenTime(),
-                values != null ? values : Map.of(),
-                candle,
-                additionalData
-            );
+            // Recalculate all historical data with new parameters
+            System.out.println("📊 Recalculating historical buffer with " + candles.size() + " candles...");
+            for (int i = minRequired; i < candles.size(); i++) {
+                CandlestickData candle = candles.get(i);
+                
+                // Process the candle with new state
+                Map<String, Object> result = indicator.onNewCandle(candle, newParams, instance.getState().getState());
+                
+                // Extract values and new state
+                @SuppressWarnings("unchecked")
+                Map<String, BigDecimal> values = (Map<String, BigDecimal>) result.get("values");
+                Object newState = result.get("state");
+                
+                // Extract additional data
+                Map<String, Object> additionalData = extractAdditionalData(result);
+                
+                // Update state
+                instance.getState().setState(newState);
+                instance.getState().incrementCandleCount();
+                
+                // Create and store result
+                IndicatorResult indicatorResult = new IndicatorResult(
+                    candle.getOpenTime(),
+                    values != null ? values : Map.of(),
+                    candle,
+                    additionalData
+                );
+                
+                instance.addHistoricalResult(indicatorResult);
+            }
             
-            instance.addHistoricalResult(indicatorResult);
+            shareSeries(instance);
         }
         
         System.out.println("✅ Updated indicator instance (same key)");
@@ -444,7 +499,135 @@ public class IndicatorInstanceManager {
         
         return instanceKey; // Return the same key
     }
-    
+
+    /**
+     * Capture an instance for a checkpoint: configuration, stored results (zero-copy view)
+     * and, if the indicator supports it, a snapshot of its state
+     */
+    public InstanceCheckpoint checkpointInstance(IndicatorInstance instance) {
+        Indicator indicator = getIndicator(instance.getIndicatorId());
+
+        synchronized (instance) {
+            IndicatorState state = instance.getState();
+            byte[] snapshot = null;
+            try {
+                snapshot = indicator.snapshotState(state.getState(), state.getParams());
+            } catch (Exception e) {
+                System.err.println("⚠️ Could not snapshot " + instance.getInstanceKey() + ": " + e.getMessage());
+            }
+
+            return new InstanceCheckpoint(
+                instance.getIndicatorId(), instance.getProvider(), instance.getSymbol(),
+                instance.getInterval(), state.getParams(), instance.getAllHistoricalResults(),
+                snapshot, instance.getUpdateCount()
+            );
+        }
+    }
+
+    /**
+     * Bring back an instance from a checkpoint.
+     *
+     * With a state snapshot the stored results are reused as they are and only candles that
+     * closed after the checkpoint are applied. Without one the indicator is re-warmed by
+     * replaying the checkpointed candles, so no exchange round trip is needed either way.
+     *
+     * @return Instance key of the restored (or already active) instance
+     */
+    public String restoreInstance(InstanceCheckpoint checkpoint) {
+        String indicatorId = checkpoint.getIndicatorId();
+        String provider = checkpoint.getProvider();
+        String symbol = checkpoint.getSymbol();
+        String interval = checkpoint.getInterval();
+        Map<String, Object> params = checkpoint.getParams();
+
+        String instanceKey = generateInstanceKey(indicatorId, provider, symbol, interval, params);
+        if (activeInstances.containsKey(instanceKey)) {
+            System.out.println("ℹ️ Indicator already active: " + instanceKey);
+            return instanceKey;
+        }
+
+        Indicator indicator = getIndicator(indicatorId);
+
+        List<IndicatorResult> history = checkpoint.getHistory();
+        List<CandlestickData> candles = new ArrayList<>(history.size());
+        for (IndicatorResult result : history) {
+            if (result.getCandle() != null) {
+                candles.add(result.getCandle());
+            }
+        }
+        Object state = null;
+        if (checkpoint.getStateSnapshot() != null) {
+            try {
+                state = indicator.restoreState(checkpoint.getStateSnapshot(), candles, params);
+            } catch (Exception e) {
+                System.err.println("⚠️ Could not restore state of " + instanceKey + ", re-warming: " + e.getMessage());
+            }
+        }
+
+        if (state == null) {
+            List<CandlestickData> replay = new ArrayList<>(candles);
+            replay.addAll(closedAfter(provider, symbol, interval, candles.isEmpty()
+                ? Long.MIN_VALUE : candles.get(candles.size() - 1).getOpenTime().toEpochMilli()));
+            return replay.isEmpty()
+                ? activateIndicator(indicatorId, provider, symbol, interval, params)
+                : activateIndicatorWithCandles(indicatorId, replay, params);
+        }
+
+        int minRequired = indicator.getMinRequiredCandles(params);
+        IndicatorState indicatorState = new IndicatorState(
+            indicatorId, provider, symbol, interval, params, state, minRequired + history.size()
+        );
+        IndicatorInstance instance = new IndicatorInstance(
+            instanceKey, indicatorId, provider, symbol, interval, params, indicatorState
+        );
+        instance.updateCount = checkpoint.getUpdateCount();
+        for (IndicatorResult result : history) {
+            instance.addHistoricalResult(result);
+        }
+
+        // Register first so no live close can slip between the catch-up and the dispatch; live
+        // closes wait on the monitor and are skipped if the catch-up already applied them
+        int caughtUp = 0;
+        synchronized (instance) {
+            activeInstances.put(instanceKey, instance);
+            String contextKey = generateContextKey(provider, symbol, interval);
+            instancesByContext.computeIfAbsent(contextKey, k -> ConcurrentHashMap.newKeySet())
+                             .add(instanceKey);
+            rebuildDispatch(contextKey);
+
+            // Candles that closed while the application was down
+            for (CandlestickData candle : closedAfter(provider, symbol, interval, instance.getLastClosedTimeMillis())) {
+                if (!instance.isAlreadyApplied(candle)) {
+                    applyCandleLocked(instance, indicator, candle);
+                    caughtUp++;
+                }
+            }
+
+            shareSeries(instance);
+        }
+
+        System.out.println("♻️ Restored indicator: " + indicatorId +
+                         " for " + symbol + " " + interval +
+                         " from checkpoint (" + history.size() + " results, " +
+                         caughtUp + " candles caught up)");
+
+        return instanceKey;
+    }
+
+    /**
+     * Closed candles in the history service that opened after {@code afterMillis}, oldest first
+     */
+    private List<CandlestickData> closedAfter(String provider, String symbol, String interval, long afterMillis) {
+        List<CandlestickData> newer = new ArrayList<>();
+        for (CandlestickData candle : historyService.getLastNCandlesticks(
+                provider, symbol, interval, IndicatorInstance.MAX_HISTORY_SIZE)) {
+            if (candle.isClosed() && candle.getOpenTime().toEpochMilli() > afterMillis) {
+                newer.add(candle);
+            }
+        }
+        return newer;
+    }
+
     /**
      * Update a specific indicator instance with a new candle
      * 
@@ -459,8 +642,61 @@ public class IndicatorInstanceManager {
             return null;
         }
         
+        return applyCandle(instance, getIndicator(instance.getIndicatorId()), candle);
+    }
+
+    /**
+     * Fresh copy of an instance (same key, indicator and params) warmed up on the given candles.
+     *
+     * The copy is not registered: it receives no live candles and its series nodes stay on a
+     * private graph, so it shares nothing with the live instance or with other copies. Only its
+     * owner may touch it, through {@link #updateDetached}.
+     *
+     * @param source Live instance (or an earlier copy) to take the configuration from
+     * @param warmup Candles preceding the first candle the copy will be fed, oldest first
+     */
+    public IndicatorInstance forkInstance(IndicatorInstance source, List<CandlestickData> warmup) {
+        Indicator indicator = getIndicator(source.getIndicatorId());
+        Map<String, Object> params = new HashMap<>(source.getParams());
+
+        int minRequired = indicator.getMinRequiredCandles(params);
+        Object state = indicator.onInit(warmup.subList(0, Math.min(minRequired, warmup.size())), params);
+
+        IndicatorState indicatorState = new IndicatorState(
+            source.getIndicatorId(), source.getProvider(), source.getSymbol(), source.getInterval(),
+            params, state, minRequired
+        );
+        IndicatorInstance fork = new IndicatorInstance(
+            source.getInstanceKey(), source.getIndicatorId(), source.getProvider(),
+            source.getSymbol(), source.getInterval(), params, indicatorState
+        );
+
+        for (int i = minRequired; i < warmup.size(); i++) {
+            applyCandleLocked(fork, indicator, warmup.get(i));
+        }
+
+        return fork;
+    }
+
+    /**
+     * Update an instance obtained from {@link #forkInstance} with a new candle (caller's thread, no locking)
+     */
+    public IndicatorResult updateDetached(IndicatorInstance fork, CandlestickData candle) {
+        return applyCandleLocked(fork, getIndicator(fork.getIndicatorId()), candle);
+    }
+
+    /**
+     * Run one closed candle through an instance and store the result.
+     * Synchronized on the instance so a candle never interleaves with a tick or another candle.
+     */
+    private IndicatorResult applyCandle(IndicatorInstance instance, Indicator indicator, CandlestickData candle) {
+        synchronized (instance) {
+            return applyCandleLocked(instance, indicator, candle);
+        }
+    }
+    
+    private IndicatorResult applyCandleLocked(IndicatorInstance instance, Indicator indicator, CandlestickData candle) {
         IndicatorState state = instance.getState();
-        Indicator indicator = getIndicator(state.getIndicatorId());
         
         // Process the new candle with current state
         Map<String, Object> result = indicator.onNewCandle(candle, state.getParams(), state.getState());
@@ -502,13 +738,13 @@ public class IndicatorInstanceManager {
      * 
      * @param instanceKey Instance key
      * @param count Number of historical results to retrieve (or all if greater than stored)
-     * @return List of IndicatorResults that were actually calculated by the instance
+     * @return Read-only view of the IndicatorResults that were actually calculated by the instance
      */
-    public List<IndicatorResult> getHistoricalData(String instanceKey, int count) {
+    public IndicatorHistoryBuffer.View getHistoricalData(String instanceKey, int count) {
         IndicatorInstance instance = activeInstances.get(instanceKey);
         
         if (instance == null) {
-            return List.of();
+            return IndicatorHistoryBuffer.View.EMPTY;
         }
         
         // Return stored historical results (not recalculated!)
@@ -526,22 +762,111 @@ public class IndicatorInstanceManager {
             candle.getProvider(), candle.getSymbol(), candle.getInterval()
         );
         
-        Set<String> contextInstances = instancesByContext.get(contextKey);
+        Dispatch[] dispatch = dispatchByContext.get(contextKey);
         
-        if (contextInstances == null || contextInstances.isEmpty()) {
+        if (dispatch == null) {
             return Map.of();
         }
         
-        Map<String, IndicatorResult> results = new HashMap<>();
+        IndicatorResult[] results = new IndicatorResult[dispatch.length];
         
-        for (String instanceKey : contextInstances) {
-            IndicatorResult result = updateWithCandle(instanceKey, candle);
-            if (result != null) {
-                results.put(instanceKey, result);
+        if (dispatchPool == null || dispatch.length == 1) {
+            for (int i = 0; i < dispatch.length; i++) {
+                results[i] = dispatchCandle(dispatch[i], candle);
+            }
+        } else {
+            // Fork all but the first instance; the calling thread takes the first one itself
+            ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[dispatch.length - 1];
+            for (int i = 1; i < dispatch.length; i++) {
+                int slot = i;
+                tasks[i - 1] = dispatchPool.submit(() -> {
+                    results[slot] = dispatchCandle(dispatch[slot], candle);
+                });
+            }
+            results[0] = dispatchCandle(dispatch[0], candle);
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
             }
         }
         
-        return results;
+        // Activation order, so batched frames list indicators the same way every candle
+        Map<String, IndicatorResult> joined = new LinkedHashMap<>(dispatch.length * 2);
+        for (int i = 0; i < dispatch.length; i++) {
+            if (results[i] != null) {
+                joined.put(dispatch[i].instance.getInstanceKey(), results[i]);
+            }
+        }
+        
+        return joined;
+    }
+    
+    /**
+     * One instance's share of a candle close; a failing indicator is logged and skipped
+     * so it does not hold back the rest of the context
+     */
+    private IndicatorResult dispatchCandle(Dispatch dispatch, CandlestickData candle) {
+        try {
+            synchronized (dispatch.instance) {
+                // Already applied by a restore catch-up that raced this close
+                if (dispatch.instance.isAlreadyApplied(candle)) {
+                    return null;
+                }
+                // Deactivated or cleared after this close picked up the dispatch array
+                if (activeInstances.get(dispatch.instance.getInstanceKey()) != dispatch.instance) {
+                    return null;
+                }
+                return applyCandleLocked(dispatch.instance, dispatch.indicator, candle);
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Indicator " + dispatch.instance.getInstanceKey() + " failed on candle close: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Recompute the dispatch array of a context after an instance was added or removed
+     */
+    private void rebuildDispatch(String contextKey) {
+        synchronized (dispatchLock) {
+            Set<String> contextInstances = instancesByContext.get(contextKey);
+            List<Dispatch> dispatch = new ArrayList<>();
+            if (contextInstances != null) {
+                for (String instanceKey : contextInstances) {
+                    IndicatorInstance instance = activeInstances.get(instanceKey);
+                    if (instance != null) {
+                        dispatch.add(new Dispatch(instance, getIndicator(instance.getIndicatorId())));
+                    }
+                }
+            }
+            if (dispatch.isEmpty()) {
+                dispatchByContext.remove(contextKey);
+            } else {
+                dispatch.sort(Comparator.comparing(d -> d.instance.getCreatedAt()));
+                dispatchByContext.put(contextKey, dispatch.toArray(new Dispatch[0]));
+            }
+        }
+    }
+    
+    /**
+     * Move the series nodes of an instance's state onto the shared graph of its context
+     */
+    private void shareSeries(IndicatorInstance instance) {
+        Object state = instance.getState().getState();
+        if (graphRegistry != null && state instanceof SharedSeriesState) {
+            graphRegistry.share(instance.getProvider(), instance.getSymbol(), instance.getInterval(),
+                ((SharedSeriesState) state).getSeriesBinding());
+        }
+    }
+    
+    private void releaseSeries(IndicatorInstance instance) {
+        Object state = instance.getState().getState();
+        if (state instanceof SharedSeriesState) {
+            if (graphRegistry != null) {
+                graphRegistry.release(((SharedSeriesState) state).getSeriesBinding());
+            } else {
+                ((SharedSeriesState) state).getSeriesBinding().release();
+            }
+        }
     }
     
     /**
@@ -561,20 +886,25 @@ public class IndicatorInstanceManager {
         IndicatorState state = instance.getState();
         Indicator indicator = getIndicator(state.getIndicatorId());
         
-        // Process the tick with current state
-        Map<String, Object> result = indicator.onNewTick(price, state.getParams(), state.getState());
-        
-        // Extract values and new state
-        @SuppressWarnings("unchecked")
-        Map<String, BigDecimal> values = (Map<String, BigDecimal>) result.get("values");
-        Object newState = result.get("state");
-        
-        // Extract additional data
-        Map<String, Object> additionalData = extractAdditionalData(result);
-        
-        // Update state (though usually unchanged for ticks)
-        if (newState != null) {
-            state.setState(newState);
+        Map<String, BigDecimal> values;
+        Map<String, Object> additionalData;
+        synchronized (instance) {
+            // Process the tick with current state
+            Map<String, Object> result = indicator.onNewTick(price, state.getParams(), state.getState());
+            
+            // Extract values and new state
+            @SuppressWarnings("unchecked")
+            Map<String, BigDecimal> tickValues = (Map<String, BigDecimal>) result.get("values");
+            values = tickValues;
+            Object newState = result.get("state");
+            
+            // Extract additional data
+            additionalData = extractAdditionalData(result);
+            
+            // Update state (though usually unchanged for ticks)
+            if (newState != null) {
+                state.setState(newState);
+            }
         }
         
         // NOTE: We don't store tick results in historical buffer - only closed candles
@@ -737,13 +1067,23 @@ public class IndicatorInstanceManager {
     }
     
     /**
-     * Clear all active indicators
+     * Clear all active indicators: they stop receiving candle closes and give back their series nodes
      */
     public void clearAll() {
-        int count = activeInstances.size();
-        activeInstances.clear();
-        instancesByContext.clear();
-        System.out.println("🗑️ Cleared all " + count + " active indicator instances");
+        List<IndicatorInstance> cleared;
+        synchronized (dispatchLock) {
+            cleared = new ArrayList<>(activeInstances.values());
+            activeInstances.clear();
+            instancesByContext.clear();
+            dispatchByContext.clear();
+        }
+        for (IndicatorInstance instance : cleared) {
+            // Waits for a candle close still being applied to the instance
+            synchronized (instance) {
+                releaseSeries(instance);
+            }
+        }
+        System.out.println("🗑️ Cleared all " + cleared.size() + " active indicator instances");
     }
     
     // ============================================================
@@ -797,6 +1137,11 @@ public class IndicatorInstanceManager {
      * This includes: boxes, orderBlocks, shapes, color, etc.
      */
     private Map<String, Object> extractAdditionalData(Map<String, Object> result) {
+        // Most indicators only return values and state
+        int internal = (result.containsKey("values") ? 1 : 0) + (result.containsKey("state") ? 1 : 0);
+        if (result.size() == internal) {
+            return Map.of();
+        }
         Map<String, Object> additionalData = new HashMap<>();
         for (Map.Entry<String, Object> entry : result.entrySet()) {
             String key = entry.getKey();
@@ -812,9 +1157,59 @@ public class IndicatorInstanceManager {
     // Data Classes
     // ============================================================
     
+    /**
+     * Instance paired with its indicator implementation, resolved once per activation
+     */
+    private static class Dispatch {
+        final IndicatorInstance instance;
+        final Indicator indicator;
+        
+        Dispatch(IndicatorInstance instance, Indicator indicator) {
+            this.instance = instance;
+            this.indicator = indicator;
+        }
+    }
+    
+    /**
+     * What a checkpoint keeps of one indicator instance
+     */
+    public static class InstanceCheckpoint {
+        private final String indicatorId;
+        private final String provider;
+        private final String symbol;
+        private final String interval;
+        private final Map<String, Object> params;
+        private final List<IndicatorResult> history;
+        private final byte[] stateSnapshot;
+        private final long updateCount;
+
+        public InstanceCheckpoint(String indicatorId, String provider, String symbol, String interval,
+                                  Map<String, Object> params, List<IndicatorResult> history,
+                                  byte[] stateSnapshot, long updateCount) {
+            this.indicatorId = indicatorId;
+            this.provider = provider;
+            this.symbol = symbol;
+            this.interval = interval;
+            this.params = params != null ? params : Map.of();
+            this.history = history != null ? history : List.of();
+            this.stateSnapshot = stateSnapshot;
+            this.updateCount = updateCount;
+        }
+
+        public String getIndicatorId() { return indicatorId; }
+        public String getProvider() { return provider; }
+        public String getSymbol() { return symbol; }
+        public String getInterval() { return interval; }
+        public Map<String, Object> getParams() { return params; }
+        public List<IndicatorResult> getHistory() { return history; }
+        /** Indicator state snapshot, or null if the indicator has no snapshot support */
+        public byte[] getStateSnapshot() { return stateSnapshot; }
+        public long getUpdateCount() { return updateCount; }
+    }
+
     /**
      * Represents the state of an indicator instance
-     * 
+     *
      * This object tracks:
      * - Indicator configuration (id, params)
      * - Trading context (symbol, provider, interval)
@@ -925,7 +1320,7 @@ public class IndicatorInstanceManager {
         private long updateCount;
         
         // Historical results storage (circular buffer with max size)
-        private final java.util.Deque<IndicatorResult> historicalResults;
+        private final IndicatorHistoryBuffer historicalResults;
         public static final int MAX_HISTORY_SIZE = 5000;
         
         public IndicatorInstance(String instanceKey, String indicatorId, 
@@ -942,7 +1337,7 @@ public class IndicatorInstanceManager {
             this.createdAt = Instant.now();
             this.lastUpdate = Instant.now();
             this.updateCount = 0;
-            this.historicalResults = new java.util.LinkedList<>();
+            this.historicalResults = new IndicatorHistoryBuffer(MAX_HISTORY_SIZE);
         }
         
         // Getters
@@ -987,29 +1382,49 @@ public class IndicatorInstanceManager {
             this.historicalResults.clear();
         }
         
-        // Historical results management
+        // Historical results management (keeps only the last MAX_HISTORY_SIZE results)
         public void addHistoricalResult(IndicatorResult result) {
-            historicalResults.addLast(result);
-            // Keep only last MAX_HISTORY_SIZE results
-            while (historicalResults.size() > MAX_HISTORY_SIZE) {
-                historicalResults.removeFirst();
-            }
+            historicalResults.append(result);
         }
         
-        public List<IndicatorResult> getHistoricalResults(int count) {
-            int size = historicalResults.size();
-            int startIndex = Math.max(0, size - count);
-            return new ArrayList<>(historicalResults).subList(startIndex, size);
+        /**
+         * Newest {@code count} results as a read-only view (no copy, stays valid while updates continue)
+         */
+        public IndicatorHistoryBuffer.View getHistoricalResults(int count) {
+            return historicalResults.view().last(count);
         }
         
-        public List<IndicatorResult> getAllHistoricalResults() {
-            return new ArrayList<>(historicalResults);
+        public IndicatorHistoryBuffer.View getAllHistoricalResults() {
+            return historicalResults.view();
         }
         
         public int getHistoricalResultCount() {
             return historicalResults.size();
         }
         
+        /**
+         * Open time (epoch millis) of the newest result computed from a closed candle,
+         * or Long.MIN_VALUE if there is none
+         */
+        public long getLastClosedTimeMillis() {
+            IndicatorHistoryBuffer.View view = historicalResults.view();
+            for (int i = view.size() - 1; i >= 0; i--) {
+                CandlestickData candle = view.getCandle(i);
+                if (candle == null || candle.isClosed()) {
+                    return view.getTimeMillis(i);
+                }
+            }
+            return Long.MIN_VALUE;
+        }
+        
+        /**
+         * Whether a closed candle at or after this candle's open time is already in the results
+         * (a result for the same candle while it was still forming does not count)
+         */
+        public boolean isAlreadyApplied(CandlestickData candle) {
+            return candle.getOpenTime().toEpochMilli() <= getLastClosedTimeMillis();
+        }
+        
         @Override
         public String toString() {
             return String.format("IndicatorInstance[%s:%s:%s:%s, updates=%d]",
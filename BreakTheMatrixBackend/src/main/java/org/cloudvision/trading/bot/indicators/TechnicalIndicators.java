@@ -8,7 +8,9 @@ import java.util.List;
  * Technical Indicators Calculator
  * Provides common technical analysis indicators for trading strategies
  * 
- * This class is stateless and thread-safe - all methods are static
+ * This class is stateless and thread-safe - all methods are static.
+ * Every call recomputes from the full list; for per-candle updates use the O(1) kernels
+ * in {@link org.cloudvision.trading.bot.indicators.streaming}.
  */
 public class TechnicalIndicators {
     
@@ -475,9 +477,9 @@ public class TechnicalIndicators {
     // ==================== Helper Methods ====================
     
     /**
-     * Calculate square root using Newton's method
+     * Calculate square root using Newton's method (8 decimals)
      */
-    private static BigDecimal sqrt(BigDecimal value) {
+    public static BigDecimal sqrt(BigDecimal value) {
         if (value.compareTo(BigDecimal.ZERO) == 0) {
             return BigDecimal.ZERO;
         }
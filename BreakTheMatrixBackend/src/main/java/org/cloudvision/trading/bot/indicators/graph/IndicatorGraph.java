@@ -0,0 +1,159 @@
+package org.cloudvision.trading.bot.indicators.graph;
+
+import org.cloudvision.trading.model.CandlestickData;
+
+import java.util.*;
+
+/**
+ * DAG of series nodes for one provider/symbol/interval context.
+ *
+ * Nodes are deduplicated by {@link SeriesDefinition#getKey()}: every subscriber asking for
+ * {@code sma(close,20)} gets the same node, so the cost of a candle close grows with the number
+ * of distinct series rather than with the number of indicator instances and strategies.
+ * Nodes are kept in creation order, which is a topological order (inputs are created first).
+ *
+ * Subscribers hold a {@link SeriesBinding} and call {@link #advance} with each closed candle;
+ * nodes ignore candles they have already seen, so the first caller computes and the others read.
+ */
+public class IndicatorGraph {
+
+    private final Map<String, SeriesNode> nodes = new LinkedHashMap<>();
+
+    // Snapshot of nodes in topological order, replaced whenever a node is added or removed
+    private volatile SeriesNode[] order = new SeriesNode[0];
+
+    /**
+     * Acquire nodes for the given definitions (creating missing ones and their inputs)
+     */
+    public synchronized SeriesBinding bind(List<SeriesDefinition> definitions) {
+        SeriesNode[] bound = new SeriesNode[definitions.size()];
+        for (int i = 0; i < bound.length; i++) {
+            bound[i] = resolve(definitions.get(i));
+            bound[i].refCount++;
+        }
+        publish();
+        return new SeriesBinding(this, bound);
+    }
+
+    /**
+     * Advance every node to this candle; safe to call from several subscribers at once.
+     * Forming candles are ignored: a node consumes each candle once, so it has to be the closed update.
+     */
+    public void advance(CandlestickData candle) {
+        if (!candle.isClosed()) {
+            return;
+        }
+        for (SeriesNode node : order) {
+            node.advance(candle);
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Keys of the nodes currently computed, in topological order
+     */
+    public synchronized List<String> getSeriesKeys() {
+        return new ArrayList<>(nodes.keySet());
+    }
+
+    /**
+     * Take over the nodes of a binding that was warmed up on its own graph.
+     *
+     * Nodes this graph already has replace the binding's copies; the others move here with
+     * their state. Refused (nothing changes) when a node this graph already has is at a different
+     * candle than the binding's copy, since the two could not be swapped without a jump.
+     * The binding's graph must hold no other binding.
+     *
+     * @return true if the binding now runs on this graph
+     */
+    synchronized boolean adopt(SeriesBinding binding) {
+        IndicatorGraph from = binding.getGraph();
+        if (from == this) {
+            return true;
+        }
+
+        synchronized (from) {
+            for (SeriesNode node : from.nodes.values()) {
+                SeriesNode existing = nodes.get(node.key);
+                if (existing != null && existing.getLastOpenTime() != node.getLastOpenTime()) {
+                    return false;
+                }
+            }
+
+            Map<SeriesNode, SeriesNode> mapped = new IdentityHashMap<>();
+            for (SeriesNode node : from.nodes.values()) {
+                SeriesNode existing = nodes.get(node.key);
+                if (existing != null) {
+                    existing.refCount += node.refCount;
+                    mapped.put(node, existing);
+                } else {
+                    for (int i = 0; i < node.inputs.length; i++) {
+                        node.inputs[i] = mapped.get(node.inputs[i]);
+                    }
+                    nodes.put(node.key, node);
+                    mapped.put(node, node);
+                }
+            }
+
+            SeriesNode[] bound = binding.getNodes();
+            SeriesNode[] rebound = new SeriesNode[bound.length];
+            for (int i = 0; i < bound.length; i++) {
+                rebound[i] = mapped.get(bound[i]);
+            }
+
+            from.nodes.clear();
+            from.publish();
+            publish();
+            binding.rebind(this, rebound);
+        }
+        return true;
+    }
+
+    /**
+     * Drop one reference to each node; nodes nobody holds or depends on are removed
+     */
+    synchronized void release(SeriesNode[] bound) {
+        for (SeriesNode node : bound) {
+            node.refCount--;
+        }
+
+        // Walk dependants before inputs, keeping what is held or used by a kept node
+        List<SeriesNode> all = new ArrayList<>(nodes.values());
+        Set<SeriesNode> needed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = all.size() - 1; i >= 0; i--) {
+            SeriesNode node = all.get(i);
+            if (node.refCount > 0 || needed.contains(node)) {
+                needed.addAll(Arrays.asList(node.inputs));
+            } else {
+                nodes.remove(node.key);
+            }
+        }
+        publish();
+    }
+
+    private SeriesNode resolve(SeriesDefinition definition) {
+        SeriesNode node = nodes.get(definition.getKey());
+        if (node == null) {
+            List<SeriesDefinition> inputs = definition.getInputs();
+            SeriesNode[] inputNodes = new SeriesNode[inputs.size()];
+            for (int i = 0; i < inputNodes.length; i++) {
+                inputNodes[i] = resolve(inputs.get(i));
+            }
+            node = definition.create(inputNodes);
+            node.key = definition.getKey();
+            nodes.put(node.key, node);
+        }
+        return node;
+    }
+
+    private void publish() {
+        order = nodes.values().toArray(new SeriesNode[0]);
+    }
+}
@@ -0,0 +1,70 @@
+package org.cloudvision.trading.bot.indicators.graph;
+
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared indicator graphs, one per provider/symbol/interval.
+ *
+ * Indicator instances and strategies warm up a detached {@link SeriesBinding} on history and
+ * then {@link #share} it; from then on a series used by several of them is computed once per candle.
+ */
+@Service
+public class IndicatorGraphRegistry {
+
+    // contextKey (provider:symbol:interval) -> graph
+    private final Map<String, IndicatorGraph> graphs = new ConcurrentHashMap<>();
+
+    /**
+     * Move a warmed-up binding onto the context's shared graph.
+     * If the shared graph is at a different candle the binding stays on its own graph and keeps working.
+     *
+     * @return true if the binding is now shared
+     */
+    public synchronized boolean share(String provider, String symbol, String interval, SeriesBinding binding) {
+        String contextKey = contextKey(provider, symbol, interval);
+        IndicatorGraph graph = graphs.computeIfAbsent(contextKey, k -> new IndicatorGraph());
+
+        boolean shared = graph.adopt(binding);
+        if (!shared) {
+            System.out.println("⚠️ Series of " + contextKey + " not shared: shared graph is at a different candle");
+            if (graph.isEmpty()) {
+                graphs.remove(contextKey);
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Release a binding, dropping the context's graph once nothing uses it
+     */
+    public synchronized void release(SeriesBinding binding) {
+        IndicatorGraph graph = binding.getGraph();
+        binding.release();
+        if (graph.isEmpty()) {
+            graphs.values().remove(graph);
+        }
+    }
+
+    public IndicatorGraph getGraph(String provider, String symbol, String interval) {
+        return graphs.get(contextKey(provider, symbol, interval));
+    }
+
+    /**
+     * Series computed per context, for diagnostics
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Map.Entry<String, IndicatorGraph> entry : graphs.entrySet()) {
+            stats.put(entry.getKey(), entry.getValue().getSeriesKeys());
+        }
+        return stats;
+    }
+
+    private static String contextKey(String provider, String symbol, String interval) {
+        return String.format("%s:%s:%s", provider, symbol, interval);
+    }
+}
@@ -0,0 +1,254 @@
+package org.cloudvision.trading.bot.indicators.graph;
+
+import org.cloudvision.trading.bot.indicators.streaming.EmaKernel;
+import org.cloudvision.trading.bot.indicators.streaming.RmaKernel;
+import org.cloudvision.trading.bot.indicators.streaming.SeriesKernel;
+import org.cloudvision.trading.bot.indicators.streaming.SmaKernel;
+import org.cloudvision.trading.model.CandlestickData;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * Primitive series that indicators and strategies can share through an {@link IndicatorGraph}.
+ *
+ * Moving averages use the DECIMAL streaming kernels, so values equal the TechnicalIndicators
+ * helpers (8 decimals). Example: {@code Series.sma(Series.source("close"), 20)}.
+ */
+public final class Series {
+
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+    private static final BigDecimal THREE = BigDecimal.valueOf(3);
+    private static final BigDecimal FOUR = BigDecimal.valueOf(4);
+
+    private Series() {
+    }
+
+    /**
+     * Candle price: open, high, low, close, volume, hl2, hlc3 or ohlc4 (anything else is close)
+     */
+    public static SeriesDefinition source(String source) {
+        String name = source != null ? source.toLowerCase() : "close";
+        switch (name) {
+            case "open", "high", "low", "close", "volume", "hl2", "hlc3", "ohlc4" -> { }
+            default -> name = "close";
+        }
+        String field = name;
+        return new SeriesDefinition(field, List.of(), inputs -> new SourceNode(field));
+    }
+
+    /**
+     * Simple moving average; while the first {@code period} candles come in, the node's warm-up value
+     * is the average of the candles seen so far
+     */
+    public static SeriesDefinition sma(SeriesDefinition input, int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+        return new SeriesDefinition("sma(" + input.getKey() + "," + period + ")", List.of(input),
+            inputs -> new SmaNode(inputs, new SmaKernel(period)));
+    }
+
+    public static SeriesDefinition ema(SeriesDefinition input, int period) {
+        return kernel("ema", input, period);
+    }
+
+    /**
+     * Wilder's running moving average
+     */
+    public static SeriesDefinition rma(SeriesDefinition input, int period) {
+        return kernel("rma", input, period);
+    }
+
+    /**
+     * True range; starts with the second candle (it needs the previous close)
+     */
+    public static SeriesDefinition trueRange() {
+        return new SeriesDefinition("tr", List.of(), inputs -> new TrueRangeNode());
+    }
+
+    /**
+     * Average true range: SMA of the true range (same as TechnicalIndicators.calculateATR and
+     * AtrKernel), or Wilder's RMA when {@code wilderSmoothing} is set
+     */
+    public static SeriesDefinition atr(int period, boolean wilderSmoothing) {
+        return wilderSmoothing ? rma(trueRange(), period) : sma(trueRange(), period);
+    }
+
+    /**
+     * Highest value of the last {@code period} candles (rolling high)
+     */
+    public static SeriesDefinition highest(SeriesDefinition input, int period) {
+        return extreme("highest", input, period, 1);
+    }
+
+    /**
+     * Lowest value of the last {@code period} candles (rolling low)
+     */
+    public static SeriesDefinition lowest(SeriesDefinition input, int period) {
+        return extreme("lowest", input, period, -1);
+    }
+
+    private static SeriesDefinition kernel(String function, SeriesDefinition input, int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+        return new SeriesDefinition(function + "(" + input.getKey() + "," + period + ")", List.of(input),
+            inputs -> new KernelNode(inputs, "ema".equals(function) ? new EmaKernel(period) : new RmaKernel(period)));
+    }
+
+    private static SeriesDefinition extreme(String function, SeriesDefinition input, int period, int sign) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+        return new SeriesDefinition(function + "(" + input.getKey() + "," + period + ")", List.of(input),
+            inputs -> new ExtremeNode(inputs, period, sign));
+    }
+
+    private static final class SourceNode extends SeriesNode {
+        private final String field;
+
+        SourceNode(String field) {
+            super(new SeriesNode[0]);
+            this.field = field;
+        }
+
+        @Override
+        protected BigDecimal compute(CandlestickData candle) {
+            return switch (field) {
+                case "open" -> candle.getOpen();
+                case "high" -> candle.getHigh();
+                case "low" -> candle.getLow();
+                case "volume" -> candle.getVolume();
+                case "hl2" -> candle.getHigh().add(candle.getLow()).divide(TWO, 8, RoundingMode.HALF_UP);
+                case "hlc3" -> candle.getHigh().add(candle.getLow()).add(candle.getClose())
+                    .divide(THREE, 8, RoundingMode.HALF_UP);
+                case "ohlc4" -> candle.getOpen().add(candle.getHigh()).add(candle.getLow()).add(candle.getClose())
+                    .divide(FOUR, 8, RoundingMode.HALF_UP);
+                default -> candle.getClose();
+            };
+        }
+
+        @Override
+        protected BigDecimal previewValue(BigDecimal price) {
+            // A tick only carries the last price
+            return "volume".equals(field) ? null : price;
+        }
+    }
+
+    private static final class SmaNode extends SeriesNode {
+        private final SmaKernel kernel;
+
+        SmaNode(SeriesNode[] inputs, SmaKernel kernel) {
+            super(inputs);
+            this.kernel = kernel;
+        }
+
+        @Override
+        protected BigDecimal compute(CandlestickData candle) {
+            BigDecimal value = input(0);
+            return value != null ? kernel.update(value) : kernel.getValue();
+        }
+
+        @Override
+        protected BigDecimal previewValue(BigDecimal price) {
+            BigDecimal value = inputNode(0).preview(price);
+            return value != null ? kernel.preview(value) : null;
+        }
+
+        @Override
+        protected BigDecimal warmupValue() {
+            return kernel.getPartialValue();
+        }
+
+        @Override
+        protected BigDecimal previewWarmupValue(BigDecimal price) {
+            BigDecimal value = inputNode(0).preview(price);
+            return value != null ? kernel.previewPartial(value) : null;
+        }
+    }
+
+    private static final class KernelNode extends SeriesNode {
+        private final SeriesKernel kernel;
+
+        KernelNode(SeriesNode[] inputs, SeriesKernel kernel) {
+            super(inputs);
+            this.kernel = kernel;
+        }
+
+        @Override
+        protected BigDecimal compute(CandlestickData candle) {
+            BigDecimal value = input(0);
+            return value != null ? kernel.update(value) : kernel.getValue();
+        }
+
+        @Override
+        protected BigDecimal previewValue(BigDecimal price) {
+            if (!(kernel instanceof EmaKernel)) {
+                return null;
+            }
+            BigDecimal value = inputNode(0).preview(price);
+            return value != null ? ((EmaKernel) kernel).preview(value) : null;
+        }
+    }
+
+    private static final class TrueRangeNode extends SeriesNode {
+        private BigDecimal previousClose;
+
+        TrueRangeNode() {
+            super(new SeriesNode[0]);
+        }
+
+        @Override
+        protected BigDecimal compute(CandlestickData candle) {
+            BigDecimal result = null;
+            if (previousClose != null) {
+                BigDecimal hl = candle.getHigh().subtract(candle.getLow());
+                BigDecimal hc = candle.getHigh().subtract(previousClose).abs();
+                BigDecimal lc = candle.getLow().subtract(previousClose).abs();
+                result = hl.max(hc).max(lc);
+            }
+            previousClose = candle.getClose();
+            return result;
+        }
+    }
+
+    /**
+     * Rolling max (sign 1) or min (sign -1) with a monotonic deque, amortized O(1) per candle
+     */
+    private static final class ExtremeNode extends SeriesNode {
+        private final int period;
+        private final int sign;
+        private final ArrayDeque<BigDecimal> values = new ArrayDeque<>();
+        private final ArrayDeque<Long> positions = new ArrayDeque<>();
+        private long position;
+
+        ExtremeNode(SeriesNode[] inputs, int period, int sign) {
+            super(inputs);
+            this.period = period;
+            this.sign = sign;
+        }
+
+        @Override
+        protected BigDecimal compute(CandlestickData candle) {
+            BigDecimal value = input(0);
+            if (value == null) {
+                return values.isEmpty() || position < period ? null : values.peekFirst();
+            }
+            while (!values.isEmpty() && values.peekLast().compareTo(value) * sign <= 0) {
+                values.pollLast();
+                positions.pollLast();
+            }
+            values.addLast(value);
+            positions.addLast(position);
+            position++;
+            while (positions.peekFirst() <= position - 1 - period) {
+                values.pollFirst();
+                positions.pollFirst();
+            }
+            return position < period ? null : values.peekFirst();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.cloudvision.trading.bot.indicators.graph;
+
+import org.cloudvision.trading.model.CandlestickData;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A subscriber's handle on its series nodes, in the order the definitions were given.
+ *
+ * A binding starts on a graph of its own ({@link #detached}) so it can be warmed up with
+ * history; {@link IndicatorGraphRegistry#share} then moves it onto the shared graph of its
+ * context. The binding object stays the same, so holders never notice the move.
+ */
+public class SeriesBinding {
+
+    private volatile IndicatorGraph graph;
+    private volatile SeriesNode[] nodes;
+
+    SeriesBinding(IndicatorGraph graph, SeriesNode[] nodes) {
+        this.graph = graph;
+        this.nodes = nodes;
+    }
+
+    /**
+     * New binding on a private graph
+     */
+    public static SeriesBinding detached(List<SeriesDefinition> definitions) {
+        return new IndicatorGraph().bind(definitions);
+    }
+
+    /**
+     * Advance the graph this binding is on to the candle (no-op if it already is)
+     */
+    public void advance(CandlestickData candle) {
+        graph.advance(candle);
+    }
+
+    /**
+     * Value of the {@code index}-th series, or null while warming up
+     */
+    public BigDecimal getValue(int index) {
+        return nodes[index].getValue();
+    }
+
+    /**
+     * Value of the {@code index}-th series after this closed candle, even if another subscriber of the
+     * shared graph has already advanced it further; call after {@link #advance} with the same candle
+     * @throws IllegalStateException if the node is more than {@link SeriesNode#HISTORY} candles past it
+     */
+    public BigDecimal getValueAt(int index, CandlestickData candle) {
+        return nodes[index].getValueAt(candle.getOpenTime().toEpochMilli());
+    }
+
+    /**
+     * Warm-up counterpart of {@link #getValueAt}
+     */
+    public BigDecimal getWarmupValueAt(int index, CandlestickData candle) {
+        return nodes[index].getWarmupValueAt(candle.getOpenTime().toEpochMilli());
+    }
+
+    /**
+     * Open time (epoch millis) of the last candle the {@code index}-th series consumed
+     */
+    public long getLastOpenTime(int index) {
+        return nodes[index].getLastOpenTime();
+    }
+
+    public double getDoubleValue(int index) {
+        return nodes[index].getDoubleValue();
+    }
+
+    /**
+     * Value of the {@code index}-th series if the forming candle closed at {@code price}
+     */
+    public BigDecimal preview(int index, BigDecimal price) {
+        return nodes[index].preview(price);
+    }
+
+    /**
+     * Value of the {@code index}-th series, or its warm-up value (see {@link SeriesNode#getWarmupValue()})
+     */
+    public BigDecimal getWarmupValue(int index) {
+        return nodes[index].getWarmupValue();
+    }
+
+    /**
+     * Same as {@link #preview}, falling back to the warm-up value
+     */
+    public BigDecimal previewWarmup(int index, BigDecimal price) {
+        return nodes[index].previewWarmup(price);
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    public IndicatorGraph getGraph() {
+        return graph;
+    }
+
+    SeriesNode[] getNodes() {
+        return nodes;
+    }
+
+    void rebind(IndicatorGraph graph, SeriesNode[] nodes) {
+        this.nodes = nodes;
+        this.graph = graph;
+    }
+
+    /**
+     * Give the nodes back; the binding must not be used afterwards
+     */
+    public void release() {
+        graph.release(nodes);
+    }
+}
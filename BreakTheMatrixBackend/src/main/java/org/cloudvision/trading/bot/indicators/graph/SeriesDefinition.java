@@ -0,0 +1,49 @@
+package org.cloudvision.trading.bot.indicators.graph;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Identity and factory of a series node. Two definitions with the same key - function plus
+ * parameters plus input keys, e.g. {@code sma(close,20)} - describe the same series, so an
+ * {@link IndicatorGraph} keeps a single node for them. Build definitions with {@link Series}.
+ */
+public final class SeriesDefinition {
+
+    private final String key;
+    private final List<SeriesDefinition> inputs;
+    private final Function<SeriesNode[], SeriesNode> factory;
+
+    SeriesDefinition(String key, List<SeriesDefinition> inputs, Function<SeriesNode[], SeriesNode> factory) {
+        this.key = key;
+        this.inputs = inputs;
+        this.factory = factory;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public List<SeriesDefinition> getInputs() {
+        return inputs;
+    }
+
+    SeriesNode create(SeriesNode[] inputNodes) {
+        return factory.apply(inputNodes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SeriesDefinition && key.equals(((SeriesDefinition) o).key);
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
@@ -0,0 +1,163 @@
+package org.cloudvision.trading.bot.indicators.graph;
+
+import org.cloudvision.trading.model.CandlestickData;
+
+import java.math.BigDecimal;
+
+/**
+ * One series of an {@link IndicatorGraph}: a primitive function (source price, SMA, EMA, true range, ...)
+ * over the candles of a context and the outputs of its input nodes.
+ *
+ * A node moves forward in candle time only: {@link #advance} with a candle at or before the last one
+ * it saw is a no-op, so every subscriber of a shared graph may advance it and the work is done once.
+ * Only closed candles reach a node (see {@link IndicatorGraph#advance}); a forming candle is read
+ * through {@link #preview} instead.
+ *
+ * Subscribers of a shared graph run on different threads and may be several candles apart, so the
+ * current value can already be a later candle's. A node therefore remembers its values for the last
+ * {@link #HISTORY} candles; {@link #getValueAt} returns the value after a given candle.
+ */
+public abstract class SeriesNode {
+
+    String key;
+    SeriesNode[] inputs;
+    int refCount; // bindings holding this node directly; guarded by the owning graph
+
+    /** Candles whose values a node remembers, i.e. how far a subscriber may lag behind the others */
+    public static final int HISTORY = 512;
+
+    private long lastOpenTime = Long.MIN_VALUE;
+    private volatile BigDecimal value;
+
+    // Ring of (open time, value, warm-up value) per consumed candle, oldest overwritten first
+    private final long[] historyTimes = new long[HISTORY];
+    private final BigDecimal[] historyValues = new BigDecimal[HISTORY];
+    private final BigDecimal[] historyWarmupValues = new BigDecimal[HISTORY];
+    private int historyNext;
+    private int historySize;
+
+    protected SeriesNode(SeriesNode[] inputs) {
+        this.inputs = inputs;
+    }
+
+    final synchronized void advance(CandlestickData candle) {
+        long time = candle.getOpenTime().toEpochMilli();
+        if (time <= lastOpenTime) {
+            return;
+        }
+        value = compute(candle);
+        lastOpenTime = time;
+
+        historyTimes[historyNext] = time;
+        historyValues[historyNext] = value;
+        historyWarmupValues[historyNext] = warmupValue();
+        historyNext = (historyNext + 1) % HISTORY;
+        historySize = Math.min(historySize + 1, HISTORY);
+    }
+
+    /**
+     * Value after the given candle; inputs have already been advanced to it
+     * @return New value, or null while warming up
+     */
+    protected abstract BigDecimal compute(CandlestickData candle);
+
+    /**
+     * Value this node would have if the forming candle closed at {@code price}, without changing it
+     * @return Preview value, or null if the node cannot preview (default) or would not be ready
+     */
+    protected BigDecimal previewValue(BigDecimal price) {
+        return null;
+    }
+
+    public final synchronized BigDecimal preview(BigDecimal price) {
+        return previewValue(price);
+    }
+
+    /**
+     * Value to show while the node warms up, e.g. the average of the candles seen so far; the value once ready
+     * @return Warm-up value, or null if the node has none (default: {@link #getValue()})
+     */
+    protected BigDecimal warmupValue() {
+        return value;
+    }
+
+    /**
+     * Warm-up counterpart of {@link #previewValue} (default: {@link #previewValue})
+     */
+    protected BigDecimal previewWarmupValue(BigDecimal price) {
+        return previewValue(price);
+    }
+
+    public final synchronized BigDecimal getWarmupValue() {
+        return warmupValue();
+    }
+
+    public final synchronized BigDecimal previewWarmup(BigDecimal price) {
+        return previewWarmupValue(price);
+    }
+
+    /**
+     * Value after the candle that opened at {@code openTime}, or null if the node was warming up then
+     * @throws IllegalStateException if the node did not consume that candle or no longer remembers it
+     */
+    public final synchronized BigDecimal getValueAt(long openTime) {
+        return historyValues[slotOf(openTime)];
+    }
+
+    /**
+     * Warm-up value after the candle that opened at {@code openTime} (see {@link #getWarmupValue()})
+     * @throws IllegalStateException if the node did not consume that candle or no longer remembers it
+     */
+    public final synchronized BigDecimal getWarmupValueAt(long openTime) {
+        return historyWarmupValues[slotOf(openTime)];
+    }
+
+    private int slotOf(long openTime) {
+        // Lagging subscribers are usually a candle or two behind, so search from the newest entry
+        for (int i = 1; i <= historySize; i++) {
+            int slot = Math.floorMod(historyNext - i, HISTORY);
+            if (historyTimes[slot] == openTime) {
+                return slot;
+            }
+            if (historyTimes[slot] < openTime) {
+                break;
+            }
+        }
+        throw new IllegalStateException("Series " + key + " has no value for the candle at " + openTime +
+            " (last candle " + lastOpenTime + ", " + historySize + " remembered)");
+    }
+
+    /**
+     * Current value of input {@code index}
+     */
+    protected BigDecimal input(int index) {
+        return inputs[index].getValue();
+    }
+
+    protected SeriesNode inputNode(int index) {
+        return inputs[index];
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Value after the last candle, or null while warming up
+     */
+    public BigDecimal getValue() {
+        return value;
+    }
+
+    public double getDoubleValue() {
+        BigDecimal current = value;
+        return current != null ? current.doubleValue() : Double.NaN;
+    }
+
+    /**
+     * Open time (epoch millis) of the last candle this node consumed
+     */
+    public synchronized long getLastOpenTime() {
+        return lastOpenTime;
+    }
+}
@@ -0,0 +1,11 @@
+package org.cloudvision.trading.bot.indicators.graph;
+
+/**
+ * Implemented by indicator state objects that read their inputs from series nodes.
+ * After the history has been replayed, IndicatorInstanceManager moves the binding onto the
+ * shared graph of the instance's context and releases it when the instance goes away.
+ */
+public interface SharedSeriesState {
+
+    SeriesBinding getSeriesBinding();
+}
@@ -1,6 +1,9 @@
 package org.cloudvision.trading.bot.indicators.impl;
 
 import org.cloudvision.trading.bot.indicators.*;
+import org.cloudvision.trading.bot.indicators.graph.Series;
+import org.cloudvision.trading.bot.indicators.graph.SeriesBinding;
+import org.cloudvision.trading.bot.indicators.graph.SharedSeriesState;
 import org.cloudvision.trading.bot.strategy.IndicatorMetadata;
 import org.cloudvision.trading.model.CandlestickData;
 import org.springframework.stereotype.Component;
@@ -21,50 +24,63 @@ import java.util.stream.Collectors;
 public class SMAIndicator extends AbstractIndicator {
     
     /**
-     * Internal state class to track SMA calculation data
-     * Uses a circular buffer for efficient rolling window calculations
-     * Thread-safe implementation to handle concurrent access
+     * Internal state: the SMA is a node of an indicator graph (see IndicatorGraph).
+     * The binding starts out private; once the instance manager shares it, instances and
+     * strategies averaging the same source and period compute it once per candle.
+     * Until period candles were seen, the average of the available candles is reported.
      */
-    public static class SMAState {
-        private final LinkedList<BigDecimal> priceBuffer;
+    public static class SMAState implements SharedSeriesState {
+        private final SeriesBinding series;
         private final int period;
-        private BigDecimal sum;
         
-        public SMAState(int period) {
+        public SMAState(int period, String source) {
             this.period = period;
-            this.priceBuffer = new LinkedList<>();
-            this.sum = BigDecimal.ZERO;
+            this.series = SeriesBinding.detached(List.of(Series.sma(Series.source(source), period)));
         }
         
-        public synchronized void addPrice(BigDecimal price) {
-            priceBuffer.add(price);
-            sum = sum.add(price);
-            
-            // Remove oldest price if buffer exceeds period
-            if (priceBuffer.size() > period) {
-                BigDecimal removed = priceBuffer.removeFirst();
-                sum = sum.subtract(removed);
+        /**
+         * Advance to a closed candle (no-op if the shared node already has it). A forming candle,
+         * e.g. the tail of the history replayed on activation, is only previewed so that its
+         * closed update is still applied.
+         *
+         * The value is looked up by the candle's open time: another subscriber of the shared node
+         * (a strategy on its own bus worker) may already have advanced it past this candle.
+         * @return SMA after the candle (average of the available candles until period were seen)
+         */
+        public BigDecimal addCandle(CandlestickData candle) {
+            if (!candle.isClosed()) {
+                if (series.getLastOpenTime(0) >= candle.getOpenTime().toEpochMilli()) {
+                    // The node already consumed this candle's closed update, which supersedes the preview
+                    return series.getWarmupValueAt(0, candle);
+                }
+                return series.previewWarmup(0, candle.getClose());
             }
+            series.advance(candle);
+            return series.getWarmupValueAt(0, candle);
         }
         
-        public synchronized BigDecimal calculateSMA() {
-            if (priceBuffer.isEmpty()) {
-                return BigDecimal.ZERO;
-            }
-            if (priceBuffer.size() < period) {
-                // Not enough data yet, return average of available data
-                return sum.divide(BigDecimal.valueOf(priceBuffer.size()), 8, java.math.RoundingMode.HALF_UP);
-            }
-            return sum.divide(BigDecimal.valueOf(period), 8, java.math.RoundingMode.HALF_UP);
+        /**
+         * Current SMA, or null before the first candle
+         */
+        public BigDecimal calculateSMA() {
+            return series.getWarmupValue(0);
         }
         
-        public synchronized int getBufferSize() {
-            return priceBuffer.size();
+        /**
+         * SMA if the forming candle closed at this price; the state is not changed
+         */
+        public BigDecimal previewSMA(BigDecimal price) {
+            return series.previewWarmup(0, price);
         }
         
         public int getPeriod() {
             return period;
         }
+        
+        @Override
+        public SeriesBinding getSeriesBinding() {
+            return series;
+        }
     }
     
     public SMAIndicator() {
@@ -140,13 +156,12 @@ public class SMAIndicator extends AbstractIndicator {
         String source = getStringParameter(params, "source", "close");
         
         // Create initial state
-        SMAState state = new SMAState(period);
+        SMAState state = new SMAState(period, source);
         
         // Process historical candles to build initial state
         if (historicalCandles != null && !historicalCandles.isEmpty()) {
             for (CandlestickData candle : historicalCandles) {
-                BigDecimal price = extractPrice(candle, source);
-                state.addPrice(price);
+                state.addCandle(candle);
             }
         }
         
@@ -163,13 +178,6 @@ public class SMAIndicator extends AbstractIndicator {
      */
     @Override
     public Map<String, Object> onNewCandle(CandlestickData candle, Map<String, Object> params, Object state) {
-
-        System.out.println("SMAIndicator.onNewCandle");
-        // candle info, params and state for debugging
-        System.out.println("Candle: " + candle);
-        System.out.println("Params: " + params);
-        System.out.println("State: " + state);
-
         if (candle == null) {
             throw new IllegalArgumentException("Candle cannot be null");
         }
@@ -181,18 +189,16 @@ public class SMAIndicator extends AbstractIndicator {
         String source = getStringParameter(params, "source", "close");
         
         // Cast or create state
-        SMAState smaState = (state instanceof SMAState) ? (SMAState) state : new SMAState(period);
+        SMAState smaState = (state instanceof SMAState) ? (SMAState) state : new SMAState(period, source);
         
-        // Extract price and add to buffer
-        BigDecimal price = extractPrice(candle, source);
-        smaState.addPrice(price);
-        
-        // Calculate SMA from current state
-        BigDecimal sma = smaState.calculateSMA();
+        // Advance the SMA node with this candle
+        BigDecimal sma = smaState.addCandle(candle);
         
         // Build result
         Map<String, BigDecimal> values = new HashMap<>();
-        values.put("sma", sma);
+        if (sma != null) {
+            values.put("sma", sma);
+        }
         
         Map<String, Object> result = new HashMap<>();
         result.put("values", values);
@@ -217,7 +223,8 @@ public class SMAIndicator extends AbstractIndicator {
         if (state == null || !(state instanceof SMAState)) {
             return Map.of(
                 "values", Map.of(),
-                "state", state != null ? state : new SMAState(getIntParameter(params, "period", 20))
+                "state", state != null ? state : new SMAState(getIntParameter(params, "period", 20),
+                    getStringParameter(params, "source", "close"))
             );
         }
         
@@ -225,11 +232,13 @@ public class SMAIndicator extends AbstractIndicator {
         SMAState smaState = (SMAState) state;
         
         // Calculate real-time SMA by simulating what it would be if we added the current price
-        // We create a temporary calculation without modifying the actual state
-        BigDecimal realtimeSMA = calculateRealtimeSMA(smaState, price);
+        // The node computes a preview without modifying its state
+        BigDecimal realtimeSMA = smaState.previewSMA(price);
         
         Map<String, BigDecimal> values = new HashMap<>();
-        values.put("sma", realtimeSMA);
+        if (realtimeSMA != null) {
+            values.put("sma", realtimeSMA);
+        }
         
         Map<String, Object> result = new HashMap<>();
         result.put("values", values);
@@ -238,40 +247,6 @@ public class SMAIndicator extends AbstractIndicator {
         return result;
     }
     
-    /**
-     * Calculate real-time SMA by temporarily adding current price to the buffer
-     * This gives a preview of where the SMA will move without actually modifying state
-     * Thread-safe to prevent concurrent modification issues
-     */
-    private BigDecimal calculateRealtimeSMA(SMAState state, BigDecimal currentPrice) {
-        synchronized (state) {
-            if (state.priceBuffer.isEmpty()) {
-                return currentPrice;
-            }
-            
-            // Calculate sum with the new price included
-            BigDecimal tempSum = state.sum.add(currentPrice);
-            
-            // If buffer is at capacity, we'd remove the oldest, so subtract it
-            int bufferSize = state.priceBuffer.size();
-            if (bufferSize >= state.period) {
-                // Defensive check to prevent race conditions
-                if (state.priceBuffer.isEmpty()) {
-                    return currentPrice;
-                }
-                tempSum = tempSum.subtract(state.priceBuffer.getFirst());
-                return tempSum.divide(BigDecimal.valueOf(state.period), 8, java.math.RoundingMode.HALF_UP);
-            } else {
-                // Not at capacity yet, just add to the sum
-                // Defensive check in case buffer was cleared
-                if (bufferSize == 0) {
-                    return currentPrice;
-                }
-                return tempSum.divide(BigDecimal.valueOf(bufferSize + 1), 8, java.math.RoundingMode.HALF_UP);
-            }
-        }
-    }
-    
     @Override
     public Map<String, IndicatorMetadata> getVisualizationMetadata(Map<String, Object> params) {
         params = mergeWithDefaults(params);
@@ -299,22 +274,22 @@ public class SMAIndicator extends AbstractIndicator {
     }
     
     /**
-     * Extract price from candle based on source type
+     * Nothing to write: the SMA only depends on the last period candles, which the checkpoint keeps
      */
-    private BigDecimal extractPrice(CandlestickData candle, String source) {
-        return switch (source.toLowerCase()) {
-            case "open" -> candle.getOpen();
-            case "high" -> candle.getHigh();
-            case "low" -> candle.getLow();
-            case "close" -> candle.getClose();
-            case "hl2" -> candle.getHigh().add(candle.getLow())
-                .divide(BigDecimal.valueOf(2), 8, java.math.RoundingMode.HALF_UP);
-            case "hlc3" -> candle.getHigh().add(candle.getLow()).add(candle.getClose())
-                .divide(BigDecimal.valueOf(3), 8, java.math.RoundingMode.HALF_UP);
-            case "ohlc4" -> candle.getOpen().add(candle.getHigh()).add(candle.getLow()).add(candle.getClose())
-                .divide(BigDecimal.valueOf(4), 8, java.math.RoundingMode.HALF_UP);
-            default -> candle.getClose();
-        };
+    @Override
+    public byte[] snapshotState(Object state, Map<String, Object> params) {
+        return state instanceof SMAState ? new byte[0] : null;
+    }
+    
+    @Override
+    public Object restoreState(byte[] snapshot, List<CandlestickData> recentCandles, Map<String, Object> params) {
+        params = mergeWithDefaults(params);
+        int period = getIntParameter(params, "period", 20);
+        SMAState state = new SMAState(period, getStringParameter(params, "source", "close"));
+        for (CandlestickData candle : recentCandles.subList(Math.max(0, recentCandles.size() - period), recentCandles.size())) {
+            state.addCandle(candle);
+        }
+        return state;
     }
 }
 
@@ -1,10 +1,17 @@
 package org.cloudvision.trading.bot.indicators.impl;
 
+import org.cloudvision.trading.bot.checkpoint.CheckpointIO;
 import org.cloudvision.trading.bot.indicators.*;
 import org.cloudvision.trading.bot.strategy.IndicatorMetadata;
 import org.cloudvision.trading.model.CandlestickData;
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
@@ -206,6 +213,36 @@ public class VolumeIndicator extends AbstractIndicator {
         return 1;  // Only needs 1 candle to show volume
     }
     
+    @Override
+    public byte[] snapshotState(Object state, Map<String, Object> params) {
+        if (!(state instanceof VolumeState)) {
+            return null;
+        }
+        VolumeState volumeState = (VolumeState) state;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            CheckpointIO.writeDecimal(out, volumeState.getLastVolume());
+            CheckpointIO.writeNullableString(out, volumeState.getLastColor());
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    @Override
+    public Object restoreState(byte[] snapshot, List<CandlestickData> recentCandles, Map<String, Object> params) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot))) {
+            VolumeState state = new VolumeState();
+            state.setLastVolume(CheckpointIO.readDecimal(in));
+            state.setLastColor(CheckpointIO.readNullableString(in));
+            return state;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
     // ============================================================
     // Helper methods
     // ============================================================
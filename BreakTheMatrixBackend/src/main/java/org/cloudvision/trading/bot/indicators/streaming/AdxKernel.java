@@ -0,0 +1,164 @@
+package org.cloudvision.trading.bot.indicators.streaming;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Average Directional Index (Wilder): +DI / -DI from RMA-smoothed directional movement and true range,
+ * ADX = RMA of DX = 100 * |+DI - -DI| / (+DI + -DI).
+ * 
+ * TechnicalIndicators.calculateADX is a placeholder (always 50); this kernel is the full calculation.
+ */
+public class AdxKernel extends StreamingKernel {
+    private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+    
+    private final int period;
+    private final RmaKernel trueRange;
+    private final RmaKernel plusMovement;
+    private final RmaKernel minusMovement;
+    private final RmaKernel adx;
+    
+    private BigDecimal previousHigh;
+    private BigDecimal previousLow;
+    private BigDecimal previousClose;
+    private BigDecimal plusDI;
+    private BigDecimal minusDI;
+    
+    private double doublePreviousHigh;
+    private double doublePreviousLow;
+    private double doublePreviousClose;
+    private double doublePlusDI = Double.NaN;
+    private double doubleMinusDI = Double.NaN;
+    
+    public AdxKernel(int period) {
+        this(period, Arithmetic.DECIMAL);
+    }
+    
+    public AdxKernel(int period, Arithmetic arithmetic) {
+        super(arithmetic);
+        checkPeriod(period);
+        this.period = period;
+        this.trueRange = new RmaKernel(period, arithmetic);
+        this.plusMovement = new RmaKernel(period, arithmetic);
+        this.minusMovement = new RmaKernel(period, arithmetic);
+        this.adx = new RmaKernel(period, arithmetic);
+    }
+    
+    /**
+     * Add the next bar
+     * @return Current ADX (0-100), or null until 2 * period bars were seen
+     */
+    public BigDecimal update(BigDecimal high, BigDecimal low, BigDecimal close) {
+        if (isDouble()) {
+            update(high.doubleValue(), low.doubleValue(), close.doubleValue());
+            return getValue();
+        }
+        count++;
+        if (previousHigh != null) {
+            BigDecimal up = high.subtract(previousHigh);
+            BigDecimal down = previousLow.subtract(low);
+            BigDecimal plusDM = up.compareTo(down) > 0 && up.signum() > 0 ? up : BigDecimal.ZERO;
+            BigDecimal minusDM = down.compareTo(up) > 0 && down.signum() > 0 ? down : BigDecimal.ZERO;
+            
+            BigDecimal tr = trueRange.update(AtrKernel.trueRange(high, low, previousClose));
+            BigDecimal plus = plusMovement.update(plusDM);
+            BigDecimal minus = minusMovement.update(minusDM);
+            
+            if (tr != null) {
+                plusDI = tr.signum() == 0 ? BigDecimal.ZERO
+                    : ONE_HUNDRED.multiply(plus).divide(tr, SCALE, RoundingMode.HALF_UP);
+                minusDI = tr.signum() == 0 ? BigDecimal.ZERO
+                    : ONE_HUNDRED.multiply(minus).divide(tr, SCALE, RoundingMode.HALF_UP);
+                BigDecimal diSum = plusDI.add(minusDI);
+                adx.update(diSum.signum() == 0 ? BigDecimal.ZERO
+                    : ONE_HUNDRED.multiply(plusDI.subtract(minusDI).abs()).divide(diSum, SCALE, RoundingMode.HALF_UP));
+            }
+        }
+        previousHigh = high;
+        previousLow = low;
+        previousClose = close;
+        return getValue();
+    }
+    
+    /**
+     * Add the next bar
+     * @return Current ADX (0-100), or NaN until 2 * period bars were seen
+     */
+    public double update(double high, double low, double close) {
+        if (!isDouble()) {
+            update(BigDecimal.valueOf(high), BigDecimal.valueOf(low), BigDecimal.valueOf(close));
+            return getDoubleValue();
+        }
+        count++;
+        if (count > 1) {
+            double up = high - doublePreviousHigh;
+            double down = doublePreviousLow - low;
+            double plusDM = up > down && up > 0 ? up : 0;
+            double minusDM = down > up && down > 0 ? down : 0;
+            
+            double tr = trueRange.update(AtrKernel.trueRange(high, low, doublePreviousClose));
+            double plus = plusMovement.update(plusDM);
+            double minus = minusMovement.update(minusDM);
+            
+            if (!Double.isNaN(tr)) {
+                doublePlusDI = tr == 0 ? 0 : 100 * plus / tr;
+                doubleMinusDI = tr == 0 ? 0 : 100 * minus / tr;
+                double diSum = doublePlusDI + doubleMinusDI;
+                adx.update(diSum == 0 ? 0 : 100 * Math.abs(doublePlusDI - doubleMinusDI) / diSum);
+            }
+        }
+        doublePreviousHigh = high;
+        doublePreviousLow = low;
+        doublePreviousClose = close;
+        return getDoubleValue();
+    }
+    
+    @Override
+    public boolean isReady() {
+        return adx.isReady();
+    }
+    
+    public BigDecimal getValue() {
+        return adx.getValue();
+    }
+    
+    public double getDoubleValue() {
+        return adx.getDoubleValue();
+    }
+    
+    public BigDecimal getPlusDI() {
+        return isDouble() ? toDecimal(doublePlusDI) : plusDI;
+    }
+    
+    public BigDecimal getMinusDI() {
+        return isDouble() ? toDecimal(doubleMinusDI) : minusDI;
+    }
+    
+    public double getDoublePlusDI() {
+        return isDouble() ? doublePlusDI : plusDI != null ? plusDI.doubleValue() : Double.NaN;
+    }
+    
+    public double getDoubleMinusDI() {
+        return isDouble() ? doubleMinusDI : minusDI != null ? minusDI.doubleValue() : Double.NaN;
+    }
+    
+    public int getPeriod() {
+        return period;
+    }
+    
+    @Override
+    public void reset() {
+        super.reset();
+        trueRange.reset();
+        plusMovement.reset();
+        minusMovement.reset();
+        adx.reset();
+        previousHigh = null;
+        previousLow = null;
+        previousClose = null;
+        plusDI = null;
+        minusDI = null;
+        doublePlusDI = Double.NaN;
+        doubleMinusDI = Double.NaN;
+    }
+}
@@ -0,0 +1,98 @@
+package org.cloudvision.trading.bot.indicators.streaming;
+
+import java.math.BigDecimal;
+
+/**
+ * Average True Range over a rolling window of true ranges.
+ * 
+ * The default (SMA of the last N true ranges) equals TechnicalIndicators.calculateATR over the
+ * last N + 1 bars; Wilder smoothing (RMA of true ranges) is available as an option.
+ */
+public class AtrKernel extends StreamingKernel {
+    private final int period;
+    private final SeriesKernel smoother;
+    
+    private BigDecimal previousClose;
+    private double doublePreviousClose;
+    
+    public AtrKernel(int period) {
+        this(period, false, Arithmetic.DECIMAL);
+    }
+    
+    public AtrKernel(int period, boolean wilderSmoothing, Arithmetic arithmetic) {
+        super(arithmetic);
+        checkPeriod(period);
+        this.period = period;
+        this.smoother = wilderSmoothing ? new RmaKernel(period, arithmetic) : new SmaKernel(period, arithmetic);
+    }
+    
+    /**
+     * Add the next bar
+     * @return Current ATR, or null until period + 1 bars were seen
+     */
+    public BigDecimal update(BigDecimal high, BigDecimal low, BigDecimal close) {
+        if (isDouble()) {
+            update(high.doubleValue(), low.doubleValue(), close.doubleValue());
+            return getValue();
+        }
+        count++;
+        if (previousClose != null) {
+            smoother.update(trueRange(high, low, previousClose));
+        }
+        previousClose = close;
+        return getValue();
+    }
+    
+    /**
+     * Add the next bar
+     * @return Current ATR, or NaN until period + 1 bars were seen
+     */
+    public double update(double high, double low, double close) {
+        if (!isDouble()) {
+            update(BigDecimal.valueOf(high), BigDecimal.valueOf(low), BigDecimal.valueOf(close));
+            return getDoubleValue();
+        }
+        count++;
+        if (count > 1) {
+            smoother.update(trueRange(high, low, doublePreviousClose));
+        }
+        doublePreviousClose = close;
+        return getDoubleValue();
+    }
+    
+    @Override
+    public boolean isReady() {
+        return smoother.isReady();
+    }
+    
+    public BigDecimal getValue() {
+        return smoother.getValue();
+    }
+    
+    public double getDoubleValue() {
+        return smoother.getDoubleValue();
+    }
+    
+    public int getPeriod() {
+        return period;
+    }
+    
+    @Override
+    public void reset() {
+        super.reset();
+        smoother.reset();
+        previousClose = null;
+        doublePreviousClose = 0;
+    }
+    
+    static BigDecimal trueRange(BigDecimal high, BigDecimal low, BigDecimal previousClose) {
+        BigDecimal hl = high.subtract(low);
+        BigDecimal hc = high.subtract(previousClose).abs();
+        BigDecimal lc = low.subtract(previousClose).abs();
+        return hl.max(hc).max(lc);
+    }
+    
+    static double trueRange(double high, double low, double previousClose) {
+        return Math.max(high - low, Math.max(Math.abs(high - previousClose), Math.abs(low - previousClose)));
+    }
+}
@@ -0,0 +1,101 @@
+package org.cloudvision.trading.bot.indicators.streaming;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Exponential Moving Average, seeded with the SMA of the first N values.
+ * DECIMAL results equal TechnicalIndicators.calculateEMA over all values fed so far (to 8 decimals).
+ */
+public class EmaKernel extends SeriesKernel {
+    private final int period;
+    private final BigDecimal multiplier;
+    private final double doubleMultiplier;
+    
+    private BigDecimal ema = BigDecimal.ZERO; // running sum until the seed is complete
+    private double doubleEma;
+    
+    public EmaKernel(int period) {
+        this(period, Arithmetic.DECIMAL);
+    }
+    
+    public EmaKernel(int period, Arithmetic arithmetic) {
+        super(arithmetic);
+        checkPeriod(period);
+        this.period = period;
+        this.multiplier = new BigDecimal("2").divide(new BigDecimal(period + 1), SCALE, RoundingMode.HALF_UP);
+        this.doubleMultiplier = multiplier.doubleValue();
+    }
+    
+    @Override
+    protected void pushDecimal(BigDecimal value) {
+        if (count < period) {
+            ema = ema.add(value);
+        } else if (count == period) {
+            ema = ema.add(value).divide(new BigDecimal(period), SCALE, RoundingMode.HALF_UP);
+        } else {
+            ema = capScale(value.subtract(ema).multiply(multiplier).add(ema));
+        }
+    }
+    
+    @Override
+    protected void pushDouble(double value) {
+        if (count < period) {
+            doubleEma += value;
+        } else if (count == period) {
+            doubleEma = (doubleEma + value) / period;
+        } else {
+            doubleEma += (value - doubleEma) * doubleMultiplier;
+        }
+    }
+    
+    @Override
+    public boolean isReady() {
+        return count >= period;
+    }
+    
+    @Override
+    public BigDecimal getValue() {
+        if (!isReady()) return null;
+        return isDouble() ? toDecimal(doubleEma) : round(ema);
+    }
+    
+    @Override
+    public double getDoubleValue() {
+        if (!isReady()) return Double.NaN;
+        return isDouble() ? doubleEma : ema.doubleValue();
+    }
+    
+    /**
+     * Unrounded DECIMAL state (for kernels that combine EMAs before rounding)
+     */
+    BigDecimal getState() {
+        return isReady() ? ema : null;
+    }
+    
+    /**
+     * Value after {@code value} would be added, without adding it (null if it would not be ready yet)
+     */
+    public BigDecimal preview(BigDecimal value) {
+        if (count + 1 < period) return null;
+        if (isDouble()) {
+            double v = value.doubleValue();
+            return toDecimal(count + 1 == period ? (doubleEma + v) / period : doubleEma + (v - doubleEma) * doubleMultiplier);
+        }
+        if (count + 1 == period) {
+            return ema.add(value).divide(new BigDecimal(period), SCALE, RoundingMode.HALF_UP);
+        }
+        return round(capScale(value.subtract(ema).multiply(multiplier).add(ema)));
+    }
+    
+    public int getPeriod() {
+        return period;
+    }
+    
+    @Override
+    public void reset() {
+        super.reset();
+        ema = BigDecimal.ZERO;
+        doubleEma = 0;
+    }
+}
@@ -0,0 +1,90 @@
+package org.cloudvision.trading.bot.indicators.streaming;
+
+import java.math.BigDecimal;
+
+/**
+ * Hull Moving Average: HMA = WMA(2 * WMA(n/2) - WMA(n), sqrt(n)), built from three O(1) WMA kernels.
+ * 
+ * TechnicalIndicators.calculateHMA only returns the inner term 2 * WMA(n/2) - WMA(n);
+ * that value is available here as {@link #getRawValue()}.
+ */
+public class HmaKernel extends SeriesKernel {
+    private final int period;
+    private final WmaKernel halfWma;
+    private final WmaKernel fullWma;
+    private final WmaKernel sqrtWma;
+    
+    private BigDecimal raw;
+    private double doubleRaw = Double.NaN;
+    
+    public HmaKernel(int period) {
+        this(period, Arithmetic.DECIMAL);
+    }
+    
+    public HmaKernel(int period, Arithmetic arithmetic) {
+        super(arithmetic);
+        if (period < 2) {
+            throw new IllegalArgumentException("HMA period must be at least 2: " + period);
+        }
+        this.period = period;
+        this.halfWma = new WmaKernel(period / 2, arithmetic);
+        this.fullWma = new WmaKernel(period, arithmetic);
+        this.sqrtWma = new WmaKernel(Math.max(1, (int) Math.sqrt(period)), arithmetic);
+    }
+    
+    @Override
+    protected void pushDecimal(BigDecimal value) {
+        BigDecimal half = halfWma.update(value);
+        BigDecimal full = fullWma.update(value);
+        if (half != null && full != null) {
+            raw = half.add(half).subtract(full);
+            sqrtWma.update(raw);
+        }
+    }
+    
+    @Override
+    protected void pushDouble(double value) {
+        double half = halfWma.update(value);
+        double full = fullWma.update(value);
+        if (!Double.isNaN(half) && !Double.isNaN(full)) {
+            doubleRaw = 2 * half - full;
+            sqrtWma.update(doubleRaw);
+        }
+    }
+    
+    @Override
+    public boolean isReady() {
+        return sqrtWma.isReady();
+    }
+    
+    @Override
+    public BigDecimal getValue() {
+        return sqrtWma.getValue();
+    }
+    
+    @Override
+    public double getDoubleValue() {
+        return sqrtWma.getDoubleValue();
+    }
+    
+    /**
+     * 2 * WMA(n/2) - WMA(n), or null until WMA(n) is ready
+     */
+    public BigDecimal getRawValue() {
+        return isDouble() ? toDecimal(doubleRaw) : raw;
+    }
+    
+    public int getPeriod() {
+        return period;
+    }
+    
+    @Override
+    public void reset() {
+        super.reset();
+        halfWma.reset();
+        fullWma.reset();
+        sqrtWma.reset();
+        raw = null;
+        doubleRaw = Double.NaN;
+    }
+}
@@ -0,0 +1,100 @@
+package org.cloudvision.trading.bot.indicators.streaming;
+
+import java.math.BigDecimal;
+
+/**
+ * Moving Average Convergence Divergence: MACD line = EMA(fast) - EMA(slow),
+ * signal = EMA(MACD line, signal period), histogram = MACD line - signal.
+ * 
+ * The MACD line matches TechnicalIndicators.calculateMACD; unlike the list version the signal
+ * line is a real EMA of the MACD history instead of a copy of the MACD line.
+ */
+public class MacdKernel extends SeriesKernel {
+    private final EmaKernel fast;
+    private final EmaKernel slow;
+    private final EmaKernel signal;
+    
+    private BigDecimal macd;
+    private double doubleMacd = Double.NaN;
+    
+    public MacdKernel(int fastPeriod, int slowPeriod, int signalPeriod) {
+        this(fastPeriod, slowPeriod, signalPeriod, Arithmetic.DECIMAL);
+    }
+    
+    public MacdKernel(int fastPeriod, int slowPeriod, int signalPeriod, Arithmetic arithmetic) {
+        super(arithmetic);
+        this.fast = new EmaKernel(fastPeriod, arithmetic);
+        this.slow = new EmaKernel(slowPeriod, arithmetic);
+        this.signal = new EmaKernel(signalPeriod, arithmetic);
+    }
+    
+    @Override
+    protected void pushDecimal(BigDecimal value) {
+        fast.update(value);
+        slow.update(value);
+        if (fast.isReady() && slow.isReady()) {
+            macd = round(fast.getState().subtract(slow.getState()));
+            signal.update(macd);
+        }
+    }
+    
+    @Override
+    protected void pushDouble(double value) {
+        double fastValue = fast.update(value);
+        double slowValue = slow.update(value);
+        if (!Double.isNaN(fastValue) && !Double.isNaN(slowValue)) {
+            doubleMacd = fastValue - slowValue;
+            signal.update(doubleMacd);
+        }
+    }
+    
+    /**
+     * True once the MACD line is available; the signal line needs signalPeriod more values
+     */
+    @Override
+    public boolean isReady() {
+        return fast.isReady() && slow.isReady();
+    }
+    
+    /**
+     * MACD line
+     */
+    @Override
+    public BigDecimal getValue() {
+        if (!isReady()) return null;
+        return isDouble() ? toDecimal(doubleMacd) : macd;
+    }
+    
+    @Override
+    public double getDoubleValue() {
+        if (!isReady()) return Double.NaN;
+        return isDouble() ? doubleMacd : macd.doubleValue();
+    }
+    
+    public BigDecimal getSignal() {
+        return signal.getValue();
+    }
+    
+    public double getDoubleSignal() {
+        return signal.getDoubleValue();
+    }
+    
+    public BigDecimal getHistogram() {
+        BigDecimal signalValue = signal.getValue();
+        return signalValue != null ? getValue().subtract(signalValue) : null;
+    }
+    
+    public double getDoubleHistogram() {
+        return getDoubleValue() - signal.getDoubleValue();
+    }
+    
+    @Override
+    public void reset() {
+        super.reset();
+        fast.reset();
+        slow.reset();
+        signal.reset();
+        macd = null;
+        doubleMacd = Double.NaN;
+    }
+}
@@ -0,0 +1,81 @@
+package org.cloudvision.trading.bot.indicators.streaming;
+
+import java.math.BigDecimal;
+
+/**
+ * On-Balance Volume: running total of volume, added on up closes and subtracted on down closes.
+ * DECIMAL results equal TechnicalIndicators.calculateOBV over all values fed so far.
+ */
+public class ObvKernel extends StreamingKernel {
+    private BigDecimal previousClose;
+    private BigDecimal obv = BigDecimal.ZERO;
+    private double doublePreviousClose;
+    private double doubleObv;
+    
+    public ObvKernel() {
+        this(Arithmetic.DECIMAL);
+    }
+    
+    public ObvKernel(Arithmetic arithmetic) {
+        super(arithmetic);
+    }
+    
+    public BigDecimal update(BigDecimal close, BigDecimal volume) {
+        if (isDouble()) {
+            update(close.doubleValue(), volume.doubleValue());
+            return getValue();
+        }
+        count++;
+        if (previousClose != null) {
+            int direction = close.compareTo(previousClose);
+            if (direction > 0) {
+                obv = obv.add(volume);
+            } else if (direction < 0) {
+                obv = obv.subtract(volume);
+            }
+        }
+        previousClose = close;
+        return getValue();
+    }
+    
+    public double update(double close, double volume) {
+        if (!isDouble()) {
+            update(BigDecimal.valueOf(close), BigDecimal.valueOf(volume));
+            return getDoubleValue();
+        }
+        count++;
+        if (count > 1) {
+            if (close > doublePreviousClose) {
+                doubleObv += volume;
+            } else if (close < doublePreviousClose) {
+                doubleObv -= volume;
+            }
+        }
+        doublePreviousClose = close;
+        return getDoubleValue();
+    }
+    
+    @Override
+    public boolean isReady() {
+        return count >= 2;
+    }
+    
+    public BigDecimal getValue() {
+        if (!isReady()) return null;
+        return isDouble() ? toDecimal(doubleObv) : obv;
+    }
+    
+    public double getDoubleValue() {
+        if (!isReady()) return Double.NaN;
+        return isDouble() ? doubleObv : obv.doubleValue();
+    }
+    
+    @Override
+    public void reset() {
+        super.reset();
+        previousClose = null;
+        obv = BigDecimal.ZERO;
+        doublePreviousClose = 0;
+        doubleObv = 0;
+    }
+}
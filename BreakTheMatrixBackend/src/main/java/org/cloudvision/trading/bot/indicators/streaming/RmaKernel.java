@@ -0,0 +1,81 @@
+package org.cloudvision.trading.bot.indicators.streaming;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Running (Wilder's) Moving Average, seeded with the SMA of the first N values.
+ * DECIMAL results equal TechnicalIndicators.calculateRMA over all values fed so far (to 8 decimals).
+ */
+public class RmaKernel extends SeriesKernel {
+    private final int period;
+    private final BigDecimal alpha;
+    private final BigDecimal oneMinusAlpha;
+    private final double doubleAlpha;
+    
+    private BigDecimal rma = BigDecimal.ZERO; // running sum until the seed is complete
+    private double doubleRma;
+    
+    public RmaKernel(int period) {
+        this(period, Arithmetic.DECIMAL);
+    }
+    
+    public RmaKernel(int period, Arithmetic arithmetic) {
+        super(arithmetic);
+        checkPeriod(period);
+        this.period = period;
+        this.alpha = BigDecimal.ONE.divide(new BigDecimal(period), SCALE, RoundingMode.HALF_UP);
+        this.oneMinusAlpha = BigDecimal.ONE.subtract(alpha);
+        this.doubleAlpha = alpha.doubleValue();
+    }
+    
+    @Override
+    protected void pushDecimal(BigDecimal value) {
+        if (count < period) {
+            rma = rma.add(value);
+        } else if (count == period) {
+            rma = rma.add(value).divide(new BigDecimal(period), SCALE, RoundingMode.HALF_UP);
+        } else {
+            rma = capScale(value.multiply(alpha).add(rma.multiply(oneMinusAlpha)));
+        }
+    }
+    
+    @Override
+    protected void pushDouble(double value) {
+        if (count < period) {
+            doubleRma += value;
+        } else if (count == period) {
+            doubleRma = (doubleRma + value) / period;
+        } else {
+            doubleRma = value * doubleAlpha + doubleRma * (1 - doubleAlpha);
+        }
+    }
+    
+    @Override
+    public boolean isReady() {
+        return count >= period;
+    }
+    
+    @Override
+    public BigDecimal getValue() {
+        if (!isReady()) return null;
+        return isDouble() ? toDecimal(doubleRma) : round(rma);
+    }
+    
+    @Override
+    public double getDoubleValue() {
+        if (!isReady()) return Double.NaN;
+        return isDouble() ? doubleRma : rma.doubleValue();
+    }
+    
+    public int getPeriod() {
+        return period;
+    }
+    
+    @Override
+    public void reset() {
+        super.reset();
+        rma = BigDecimal.ZERO;
+        doubleRma = 0;
+    }
+}
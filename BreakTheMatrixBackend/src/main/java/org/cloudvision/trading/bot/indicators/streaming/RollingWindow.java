@@ -0,0 +1,89 @@
+package org.cloudvision.trading.bot.indicators.streaming;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Fixed-capacity ring of the last N values, backed by BigDecimal[] or double[] depending on the arithmetic
+ */
+final class RollingWindow {
+    private final int capacity;
+    private final BigDecimal[] decimals;
+    private final double[] doubles;
+    private int head; // next write position (= oldest value once full)
+    private int size;
+    
+    RollingWindow(int capacity, StreamingKernel.Arithmetic arithmetic) {
+        this.capacity = capacity;
+        this.decimals = arithmetic == StreamingKernel.Arithmetic.DECIMAL ? new BigDecimal[capacity] : null;
+        this.doubles = arithmetic == StreamingKernel.Arithmetic.DOUBLE ? new double[capacity] : null;
+    }
+    
+    /**
+     * Add a value, returning the evicted one (null while the window is filling)
+     */
+    BigDecimal push(BigDecimal value) {
+        BigDecimal evicted = size == capacity ? decimals[head] : null;
+        decimals[head] = value;
+        advance();
+        return evicted;
+    }
+    
+    /**
+     * Add a value, returning the evicted one (NaN while the window is filling)
+     */
+    double push(double value) {
+        double evicted = size == capacity ? doubles[head] : Double.NaN;
+        doubles[head] = value;
+        advance();
+        return evicted;
+    }
+    
+    private void advance() {
+        head = head + 1 == capacity ? 0 : head + 1;
+        if (size < capacity) size++;
+    }
+    
+    /**
+     * i-th value, oldest first
+     */
+    BigDecimal getDecimal(int i) {
+        return decimals[index(i)];
+    }
+    
+    double getDouble(int i) {
+        return doubles[index(i)];
+    }
+    
+    private int index(int i) {
+        int start = size == capacity ? head : 0;
+        int index = start + i;
+        return index >= capacity ? index - capacity : index;
+    }
+    
+    boolean isFull() {
+        return size == capacity;
+    }
+    
+    /**
+     * True right after the window has been completely overwritten once more.
+     * Double kernels re-sum the window at that point so rounding drift stays bounded (amortized O(1)).
+     */
+    boolean isAtCycleStart() {
+        return head == 0 && size == capacity;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    int capacity() {
+        return capacity;
+    }
+    
+    void clear() {
+        if (decimals != null) Arrays.fill(decimals, null);
+        head = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,139 @@
+package org.cloudvision.trading.bot.indicators.streaming;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Relative Strength Index with Wilder smoothing of average gain / loss.
+ * DECIMAL results equal TechnicalIndicators.calculateRSI over all values fed so far (2 decimals).
+ */
+public class RsiKernel extends SeriesKernel {
+    private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+    
+    private final int period;
+    private final BigDecimal periodDecimal;
+    private final BigDecimal periodMinusOne;
+    
+    private BigDecimal previous;
+    private BigDecimal avgGain = BigDecimal.ZERO; // sums until the first average
+    private BigDecimal avgLoss = BigDecimal.ZERO;
+    private BigDecimal rsi;
+    
+    private double doublePrevious;
+    private double doubleAvgGain;
+    private double doubleAvgLoss;
+    private double doubleRsi = Double.NaN;
+    
+    public RsiKernel(int period) {
+        this(period, Arithmetic.DECIMAL);
+    }
+    
+    public RsiKernel(int period, Arithmetic arithmetic) {
+        super(arithmetic);
+        checkPeriod(period);
+        this.period = period;
+        this.periodDecimal = new BigDecimal(period);
+        this.periodMinusOne = new BigDecimal(period - 1);
+    }
+    
+    @Override
+    protected void pushDecimal(BigDecimal value) {
+        if (count == 1) {
+            previous = value;
+            return;
+        }
+        
+        BigDecimal change = value.subtract(previous);
+        previous = value;
+        BigDecimal gain = change.signum() > 0 ? change : BigDecimal.ZERO;
+        BigDecimal loss = change.signum() < 0 ? change.negate() : BigDecimal.ZERO;
+        
+        long changes = count - 1;
+        if (changes < period) {
+            avgGain = avgGain.add(gain);
+            avgLoss = avgLoss.add(loss);
+            return;
+        }
+        if (changes == period) {
+            avgGain = avgGain.add(gain).divide(periodDecimal, SCALE, RoundingMode.HALF_UP);
+            avgLoss = avgLoss.add(loss).divide(periodDecimal, SCALE, RoundingMode.HALF_UP);
+        } else {
+            avgGain = avgGain.multiply(periodMinusOne).add(gain).divide(periodDecimal, SCALE, RoundingMode.HALF_UP);
+            avgLoss = avgLoss.multiply(periodMinusOne).add(loss).divide(periodDecimal, SCALE, RoundingMode.HALF_UP);
+        }
+        
+        if (avgLoss.signum() == 0) {
+            rsi = ONE_HUNDRED;
+        } else {
+            // RSI = 100 - (100 / (1 + RS))
+            BigDecimal rs = avgGain.divide(avgLoss, SCALE, RoundingMode.HALF_UP);
+            rsi = ONE_HUNDRED.subtract(ONE_HUNDRED.divide(BigDecimal.ONE.add(rs), 2, RoundingMode.HALF_UP));
+        }
+    }
+    
+    @Override
+    protected void pushDouble(double value) {
+        if (count == 1) {
+            doublePrevious = value;
+            return;
+        }
+        
+        double change = value - doublePrevious;
+        doublePrevious = value;
+        double gain = change > 0 ? change : 0;
+        double loss = change < 0 ? -change : 0;
+        
+        long changes = count - 1;
+        if (changes < period) {
+            doubleAvgGain += gain;
+            doubleAvgLoss += loss;
+            return;
+        }
+        if (changes == period) {
+            doubleAvgGain = (doubleAvgGain + gain) / period;
+            doubleAvgLoss = (doubleAvgLoss + loss) / period;
+        } else {
+            doubleAvgGain = (doubleAvgGain * (period - 1) + gain) / period;
+            doubleAvgLoss = (doubleAvgLoss * (period - 1) + loss) / period;
+        }
+        
+        doubleRsi = doubleAvgLoss == 0 ? 100 : 100 - 100 / (1 + doubleAvgGain / doubleAvgLoss);
+    }
+    
+    @Override
+    public boolean isReady() {
+        return count > period;
+    }
+    
+    /**
+     * RSI (0-100) with 2 decimals in DECIMAL mode, or null until period + 1 values were seen
+     */
+    @Override
+    public BigDecimal getValue() {
+        if (!isReady()) return null;
+        return isDouble() ? toDecimal(doubleRsi) : rsi;
+    }
+    
+    @Override
+    public double getDoubleValue() {
+        if (!isReady()) return Double.NaN;
+        return isDouble() ? doubleRsi : rsi.doubleValue();
+    }
+    
+    public int getPeriod() {
+        return period;
+    }
+    
+    @Override
+    public void reset() {
+        super.reset();
+        previous = null;
+        avgGain = BigDecimal.ZERO;
+        avgLoss = BigDecimal.ZERO;
+        rsi = null;
+        doublePrevious = 0;
+        doubleAvgGain = 0;
+        doubleAvgLoss = 0;
+        doubleRsi = Double.NaN;
+    }
+}
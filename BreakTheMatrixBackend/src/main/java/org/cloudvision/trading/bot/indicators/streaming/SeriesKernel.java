@@ -0,0 +1,56 @@
+package org.cloudvision.trading.bot.indicators.streaming;
+
+import java.math.BigDecimal;
+
+/**
+ * Streaming kernel over a single series of values (usually closes).
+ * Both update methods accept either arithmetic; the value is converted when it does not match.
+ */
+public abstract class SeriesKernel extends StreamingKernel {
+    
+    protected SeriesKernel(Arithmetic arithmetic) {
+        super(arithmetic);
+    }
+    
+    /**
+     * Add the next value
+     * @return Current value, or null until enough values were seen
+     */
+    public final BigDecimal update(BigDecimal value) {
+        count++;
+        if (isDouble()) {
+            pushDouble(value.doubleValue());
+        } else {
+            pushDecimal(value);
+        }
+        return getValue();
+    }
+    
+    /**
+     * Add the next value
+     * @return Current value, or NaN until enough values were seen
+     */
+    public final double update(double value) {
+        count++;
+        if (isDouble()) {
+            pushDouble(value);
+        } else {
+            pushDecimal(BigDecimal.valueOf(value));
+        }
+        return getDoubleValue();
+    }
+    
+    /**
+     * Current value with 8 decimals, or null until enough values were seen
+     */
+    public abstract BigDecimal getValue();
+    
+    /**
+     * Current value, or NaN until enough values were seen
+     */
+    public abstract double getDoubleValue();
+    
+    protected abstract void pushDecimal(BigDecimal value);
+    
+    protected abstract void pushDouble(double value);
+}
@@ -0,0 +1,119 @@
+package org.cloudvision.trading.bot.indicators.streaming;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Simple Moving Average over a rolling window (running sum).
+ * DECIMAL results equal TechnicalIndicators.calculateSMA over the same last N values.
+ */
+public class SmaKernel extends SeriesKernel {
+    private final int period;
+    private final BigDecimal divisor;
+    private final RollingWindow window;
+    
+    private BigDecimal sum = BigDecimal.ZERO;
+    private double doubleSum;
+    
+    public SmaKernel(int period) {
+        this(period, Arithmetic.DECIMAL);
+    }
+    
+    public SmaKernel(int period, Arithmetic arithmetic) {
+        super(arithmetic);
+        checkPeriod(period);
+        this.period = period;
+        this.divisor = new BigDecimal(period);
+        this.window = new RollingWindow(period, arithmetic);
+    }
+    
+    @Override
+    protected void pushDecimal(BigDecimal value) {
+        BigDecimal evicted = window.push(value);
+        sum = sum.add(value);
+        if (evicted != null) {
+            sum = sum.subtract(evicted);
+        }
+    }
+    
+    @Override
+    protected void pushDouble(double value) {
+        double evicted = window.push(value);
+        if (window.isAtCycleStart()) {
+            doubleSum = 0;
+            for (int i = 0; i < period; i++) {
+                doubleSum += window.getDouble(i);
+            }
+        } else {
+            doubleSum += value;
+            if (!Double.isNaN(evicted)) {
+                doubleSum -= evicted;
+            }
+        }
+    }
+    
+    @Override
+    public boolean isReady() {
+        return window.isFull();
+    }
+    
+    @Override
+    public BigDecimal getValue() {
+        if (!isReady()) return null;
+        return isDouble() ? toDecimal(doubleSum / period) : sum.divide(divisor, SCALE, RoundingMode.HALF_UP);
+    }
+    
+    @Override
+    public double getDoubleValue() {
+        if (!isReady()) return Double.NaN;
+        return isDouble() ? doubleSum / period : getValue().doubleValue();
+    }
+    
+    /**
+     * Value after {@code value} would be added, without adding it (null if it would not be ready yet)
+     */
+    public BigDecimal preview(BigDecimal value) {
+        if (window.size() + 1 < period) return null;
+        if (isDouble()) {
+            double evicted = window.isFull() ? window.getDouble(0) : 0;
+            return toDecimal((doubleSum + value.doubleValue() - evicted) / period);
+        }
+        BigDecimal next = sum.add(value);
+        if (window.isFull()) {
+            next = next.subtract(window.getDecimal(0));
+        }
+        return next.divide(divisor, SCALE, RoundingMode.HALF_UP);
+    }
+    
+    /**
+     * Average of the values seen so far while the window fills, then the same as {@link #getValue()}
+     * (null before the first value)
+     */
+    public BigDecimal getPartialValue() {
+        int size = window.size();
+        if (size == 0 || isReady()) return getValue();
+        return isDouble() ? toDecimal(doubleSum / size) : sum.divide(new BigDecimal(size), SCALE, RoundingMode.HALF_UP);
+    }
+    
+    /**
+     * Partial average after {@code value} would be added, without adding it (same as preview once it would be ready)
+     */
+    public BigDecimal previewPartial(BigDecimal value) {
+        int size = window.size() + 1;
+        if (size >= period) return preview(value);
+        return isDouble() ? toDecimal((doubleSum + value.doubleValue()) / size)
+            : sum.add(value).divide(new BigDecimal(size), SCALE, RoundingMode.HALF_UP);
+    }
+    
+    public int getPeriod() {
+        return period;
+    }
+    
+    @Override
+    public void reset() {
+        super.reset();
+        window.clear();
+        sum = BigDecimal.ZERO;
+        doubleSum = 0;
+    }
+}
@@ -0,0 +1,147 @@
+package org.cloudvision.trading.bot.indicators.streaming;
+
+import org.cloudvision.trading.bot.indicators.TechnicalIndicators;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Population standard deviation over a rolling window, plus the window mean (Bollinger middle band).
+ * 
+ * DECIMAL keeps exact running sums of x and x^2 and uses sum((x - m)^2) = sumSq - 2m * sum + n * m^2,
+ * so results equal TechnicalIndicators.calculateStandardDeviation over the same last N values.
+ * DOUBLE sums values relative to a shift (the oldest value at the last re-sum) to avoid cancellation
+ * and uses Math.sqrt, so it can differ from the fixed 10-step Newton square root for large variances.
+ */
+public class StdDevKernel extends SeriesKernel {
+    private final int period;
+    private final BigDecimal periodDecimal;
+    private final RollingWindow window;
+    
+    private BigDecimal sum = BigDecimal.ZERO;
+    private BigDecimal sumSquares = BigDecimal.ZERO;
+    private BigDecimal mean;
+    private BigDecimal stdDev;
+    
+    private double shift = Double.NaN;
+    private double doubleSum;
+    private double doubleSumSquares;
+    
+    public StdDevKernel(int period) {
+        this(period, Arithmetic.DECIMAL);
+    }
+    
+    public StdDevKernel(int period, Arithmetic arithmetic) {
+        super(arithmetic);
+        checkPeriod(period);
+        this.period = period;
+        this.periodDecimal = new BigDecimal(period);
+        this.window = new RollingWindow(period, arithmetic);
+    }
+    
+    @Override
+    protected void pushDecimal(BigDecimal value) {
+        BigDecimal evicted = window.push(value);
+        sum = sum.add(value);
+        sumSquares = sumSquares.add(value.multiply(value));
+        if (evicted != null) {
+            sum = sum.subtract(evicted);
+            sumSquares = sumSquares.subtract(evicted.multiply(evicted));
+        }
+        
+        if (window.isFull()) {
+            mean = sum.divide(periodDecimal, SCALE, RoundingMode.HALF_UP);
+            BigDecimal sumSquaredDiff = sumSquares
+                .subtract(mean.multiply(sum).multiply(BigDecimal.valueOf(2)))
+                .add(mean.multiply(mean).multiply(periodDecimal));
+            BigDecimal variance = sumSquaredDiff.divide(periodDecimal, SCALE, RoundingMode.HALF_UP);
+            stdDev = TechnicalIndicators.sqrt(variance);
+        }
+    }
+    
+    @Override
+    protected void pushDouble(double value) {
+        if (Double.isNaN(shift)) {
+            shift = value;
+        }
+        double evicted = window.push(value);
+        if (window.isAtCycleStart()) {
+            shift = window.getDouble(0);
+            doubleSum = 0;
+            doubleSumSquares = 0;
+            for (int i = 0; i < period; i++) {
+                double d = window.getDouble(i) - shift;
+                doubleSum += d;
+                doubleSumSquares += d * d;
+            }
+            return;
+        }
+        double d = value - shift;
+        doubleSum += d;
+        doubleSumSquares += d * d;
+        if (!Double.isNaN(evicted)) {
+            double e = evicted - shift;
+            doubleSum -= e;
+            doubleSumSquares -= e * e;
+        }
+    }
+    
+    @Override
+    public boolean isReady() {
+        return window.isFull();
+    }
+    
+    @Override
+    public BigDecimal getValue() {
+        if (!isReady()) return null;
+        return isDouble() ? toDecimal(getDoubleValue()) : stdDev;
+    }
+    
+    @Override
+    public double getDoubleValue() {
+        if (!isReady()) return Double.NaN;
+        if (!isDouble()) return stdDev.doubleValue();
+        double variance = (doubleSumSquares - doubleSum * doubleSum / period) / period;
+        return Math.sqrt(Math.max(0, variance));
+    }
+    
+    /**
+     * Mean of the window (same as the SMA), or null until the window is full
+     */
+    public BigDecimal getMean() {
+        if (!isReady()) return null;
+        return isDouble() ? toDecimal(getDoubleMean()) : mean;
+    }
+    
+    public double getDoubleMean() {
+        if (!isReady()) return Double.NaN;
+        return isDouble() ? shift + doubleSum / period : mean.doubleValue();
+    }
+    
+    /**
+     * Bollinger Bands [upper, middle, lower], same layout as TechnicalIndicators.calculateBollingerBands
+     */
+    public BigDecimal[] getBollingerBands(BigDecimal standardDeviations) {
+        if (!isReady()) return null;
+        BigDecimal middle = getMean();
+        BigDecimal offset = getValue().multiply(standardDeviations);
+        return new BigDecimal[] { middle.add(offset), middle, middle.subtract(offset) };
+    }
+    
+    public int getPeriod() {
+        return period;
+    }
+    
+    @Override
+    public void reset() {
+        super.reset();
+        window.clear();
+        sum = BigDecimal.ZERO;
+        sumSquares = BigDecimal.ZERO;
+        mean = null;
+        stdDev = null;
+        shift = Double.NaN;
+        doubleSum = 0;
+        doubleSumSquares = 0;
+    }
+}
@@ -0,0 +1,79 @@
+package org.cloudvision.trading.bot.indicators.streaming;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Base class for stateful streaming indicator kernels.
+ * 
+ * A kernel is fed one value (or bar) at a time and updates its result in O(1), instead of
+ * recomputing from a full price list like {@link org.cloudvision.trading.bot.indicators.TechnicalIndicators}.
+ * 
+ * DECIMAL arithmetic uses the same BigDecimal rounding as TechnicalIndicators (results have 8 decimals);
+ * DOUBLE arithmetic is faster and allocation-free. Kernels are not thread-safe - use one instance per series.
+ */
+public abstract class StreamingKernel {
+    
+    public enum Arithmetic {
+        DECIMAL,
+        DOUBLE
+    }
+    
+    /** Scale of BigDecimal results, same as TechnicalIndicators */
+    public static final int SCALE = 8;
+    
+    /** Recursive state (EMA, RMA) is rounded to this scale so that BigDecimal updates stay O(1) */
+    static final int STATE_SCALE = 16;
+    
+    protected final Arithmetic arithmetic;
+    protected long count;
+    
+    protected StreamingKernel(Arithmetic arithmetic) {
+        this.arithmetic = arithmetic;
+    }
+    
+    /**
+     * Whether enough values have been seen to produce a result
+     */
+    public abstract boolean isReady();
+    
+    /**
+     * Forget all values (e.g. on a new session or a gap in the data)
+     */
+    public void reset() {
+        count = 0;
+    }
+    
+    public Arithmetic getArithmetic() {
+        return arithmetic;
+    }
+    
+    /**
+     * Number of values fed since creation or the last reset
+     */
+    public long getCount() {
+        return count;
+    }
+    
+    protected boolean isDouble() {
+        return arithmetic == Arithmetic.DOUBLE;
+    }
+    
+    static BigDecimal toDecimal(double value) {
+        return Double.isFinite(value) ? BigDecimal.valueOf(value).setScale(SCALE, RoundingMode.HALF_UP) : null;
+    }
+    
+    static BigDecimal round(BigDecimal value) {
+        return value != null ? value.setScale(SCALE, RoundingMode.HALF_UP) : null;
+    }
+    
+    static BigDecimal capScale(BigDecimal value) {
+        return value.scale() > STATE_SCALE ? value.setScale(STATE_SCALE, RoundingMode.HALF_UP) : value;
+    }
+    
+    static void checkPeriod(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+    }
+}
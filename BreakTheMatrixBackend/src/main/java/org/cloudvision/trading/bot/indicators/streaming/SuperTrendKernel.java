@@ -0,0 +1,179 @@
+package org.cloudvision.trading.bot.indicators.streaming;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * SuperTrend with a rolling ATR; the previous SuperTrend value and direction are kept internally.
+ * 
+ * Band and direction rules are the ones of TechnicalIndicators.calculateSuperTrend, so DECIMAL results
+ * equal calling it on the last ATR period + 1 bars with the previous result threaded through.
+ * Direction uses the Pine Script convention: -1 = uptrend, +1 = downtrend (0 until ready).
+ */
+public class SuperTrendKernel extends StreamingKernel {
+    private static final BigDecimal TWO = new BigDecimal("2");
+    
+    private final AtrKernel atr;
+    private final BigDecimal multiplier;
+    private final double doubleMultiplier;
+    
+    private BigDecimal previousClose;
+    private BigDecimal superTrend;
+    private double doublePreviousClose;
+    private double doubleSuperTrend = Double.NaN;
+    private int direction;
+    
+    public SuperTrendKernel(int atrPeriod, BigDecimal multiplier) {
+        this(atrPeriod, multiplier, Arithmetic.DECIMAL);
+    }
+    
+    public SuperTrendKernel(int atrPeriod, BigDecimal multiplier, Arithmetic arithmetic) {
+        super(arithmetic);
+        this.atr = new AtrKernel(atrPeriod, false, arithmetic);
+        this.multiplier = multiplier;
+        this.doubleMultiplier = multiplier.doubleValue();
+    }
+    
+    /**
+     * Add the next bar
+     * @return Current SuperTrend value, or null until ATR period + 1 bars were seen
+     */
+    public BigDecimal update(BigDecimal high, BigDecimal low, BigDecimal close) {
+        if (isDouble()) {
+            update(high.doubleValue(), low.doubleValue(), close.doubleValue());
+            return getValue();
+        }
+        return update(high, low, close, atr.update(high, low, close));
+    }
+    
+    /**
+     * Add the next bar with an ATR computed elsewhere, e.g. a shared {@code Series.atr} node
+     * (the internal ATR is then not used). DECIMAL only.
+     * @param atrValue ATR after this bar, or null while it warms up
+     * @return Current SuperTrend value, or null while the ATR is not ready
+     */
+    public BigDecimal update(BigDecimal high, BigDecimal low, BigDecimal close, BigDecimal atrValue) {
+        if (isDouble()) {
+            throw new IllegalStateException("An external ATR is only supported with DECIMAL arithmetic");
+        }
+        count++;
+        if (atrValue == null) {
+            previousClose = close;
+            return null;
+        }
+        
+        BigDecimal hl2 = high.add(low).divide(TWO, SCALE, RoundingMode.HALF_UP);
+        BigDecimal basicUpperBand = hl2.add(multiplier.multiply(atrValue));
+        BigDecimal basicLowerBand = hl2.subtract(multiplier.multiply(atrValue));
+        
+        BigDecimal finalUpperBand = basicUpperBand;
+        BigDecimal finalLowerBand = basicLowerBand;
+        if (superTrend != null) {
+            if (basicUpperBand.compareTo(superTrend) >= 0 && previousClose.compareTo(superTrend) <= 0) {
+                finalUpperBand = superTrend;
+            }
+            if (basicLowerBand.compareTo(superTrend) <= 0 && previousClose.compareTo(superTrend) >= 0) {
+                finalLowerBand = superTrend;
+            }
+        }
+        
+        direction = nextDirection(direction, close.compareTo(finalUpperBand), close.compareTo(finalLowerBand));
+        superTrend = direction > 0 ? finalUpperBand : finalLowerBand;
+        previousClose = close;
+        return superTrend;
+    }
+    
+    /**
+     * Add the next bar
+     * @return Current SuperTrend value, or NaN until ATR period + 1 bars were seen
+     */
+    public double update(double high, double low, double close) {
+        if (!isDouble()) {
+            update(BigDecimal.valueOf(high), BigDecimal.valueOf(low), BigDecimal.valueOf(close));
+            return getDoubleValue();
+        }
+        count++;
+        double atrValue = atr.update(high, low, close);
+        if (Double.isNaN(atrValue)) {
+            doublePreviousClose = close;
+            return Double.NaN;
+        }
+        
+        double hl2 = (high + low) / 2;
+        double basicUpperBand = hl2 + doubleMultiplier * atrValue;
+        double basicLowerBand = hl2 - doubleMultiplier * atrValue;
+        
+        double finalUpperBand = basicUpperBand;
+        double finalLowerBand = basicLowerBand;
+        if (!Double.isNaN(doubleSuperTrend)) {
+            if (basicUpperBand >= doubleSuperTrend && doublePreviousClose <= doubleSuperTrend) {
+                finalUpperBand = doubleSuperTrend;
+            }
+            if (basicLowerBand <= doubleSuperTrend && doublePreviousClose >= doubleSuperTrend) {
+                finalLowerBand = doubleSuperTrend;
+            }
+        }
+        
+        direction = nextDirection(direction, Double.compare(close, finalUpperBand), Double.compare(close, finalLowerBand));
+        doubleSuperTrend = direction > 0 ? finalUpperBand : finalLowerBand;
+        doublePreviousClose = close;
+        return doubleSuperTrend;
+    }
+    
+    /**
+     * @param closeVsUpper sign of close - final upper band
+     * @param closeVsLower sign of close - final lower band
+     */
+    private static int nextDirection(int previousDirection, int closeVsUpper, int closeVsLower) {
+        if (previousDirection == 0) {
+            return closeVsUpper <= 0 ? 1 : -1;
+        }
+        if (previousDirection < 0) {
+            // Uptrend: flips when close falls to the lower band
+            return closeVsLower <= 0 ? 1 : -1;
+        }
+        // Downtrend: flips when close reaches the upper band
+        return closeVsUpper >= 0 ? -1 : 1;
+    }
+    
+    @Override
+    public boolean isReady() {
+        return direction != 0;
+    }
+    
+    public BigDecimal getValue() {
+        if (!isReady()) return null;
+        return isDouble() ? toDecimal(doubleSuperTrend) : superTrend;
+    }
+    
+    public double getDoubleValue() {
+        if (!isReady()) return Double.NaN;
+        return isDouble() ? doubleSuperTrend : superTrend.doubleValue();
+    }
+    
+    /**
+     * -1 = uptrend, +1 = downtrend, 0 = not ready
+     */
+    public int getDirection() {
+        return direction;
+    }
+    
+    public boolean isUptrend() {
+        return direction < 0;
+    }
+    
+    public AtrKernel getAtr() {
+        return atr;
+    }
+    
+    @Override
+    public void reset() {
+        super.reset();
+        atr.reset();
+        previousClose = null;
+        superTrend = null;
+        doublePreviousClose = 0;
+        doubleSuperTrend = Double.NaN;
+        direction = 0;
+    }
+}
@@ -0,0 +1,121 @@
+package org.cloudvision.trading.bot.indicators.streaming;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Volume Weighted Average Price: sum(price * volume) / sum(volume).
+ * 
+ * With period <= 0 the sums are cumulative (call {@link #reset()} at session start); otherwise they
+ * cover the last N values and DECIMAL results equal TechnicalIndicators.calculateVWAP on that window.
+ */
+public class VwapKernel extends StreamingKernel {
+    private final int period;
+    private final RollingWindow priceVolumes;
+    private final RollingWindow volumes;
+    
+    private BigDecimal sumPriceVolume = BigDecimal.ZERO;
+    private BigDecimal sumVolume = BigDecimal.ZERO;
+    private double doubleSumPriceVolume;
+    private double doubleSumVolume;
+    
+    /**
+     * Cumulative (session) VWAP
+     */
+    public VwapKernel() {
+        this(0, Arithmetic.DECIMAL);
+    }
+    
+    public VwapKernel(int period, Arithmetic arithmetic) {
+        super(arithmetic);
+        this.period = period;
+        this.priceVolumes = period > 0 ? new RollingWindow(period, arithmetic) : null;
+        this.volumes = period > 0 ? new RollingWindow(period, arithmetic) : null;
+    }
+    
+    public BigDecimal update(BigDecimal price, BigDecimal volume) {
+        if (isDouble()) {
+            update(price.doubleValue(), volume.doubleValue());
+            return getValue();
+        }
+        count++;
+        BigDecimal priceVolume = price.multiply(volume);
+        sumPriceVolume = sumPriceVolume.add(priceVolume);
+        sumVolume = sumVolume.add(volume);
+        if (priceVolumes != null) {
+            BigDecimal evictedPriceVolume = priceVolumes.push(priceVolume);
+            BigDecimal evictedVolume = volumes.push(volume);
+            if (evictedPriceVolume != null) {
+                sumPriceVolume = sumPriceVolume.subtract(evictedPriceVolume);
+                sumVolume = sumVolume.subtract(evictedVolume);
+            }
+        }
+        return getValue();
+    }
+    
+    public double update(double price, double volume) {
+        if (!isDouble()) {
+            update(BigDecimal.valueOf(price), BigDecimal.valueOf(volume));
+            return getDoubleValue();
+        }
+        count++;
+        double priceVolume = price * volume;
+        if (priceVolumes == null) {
+            doubleSumPriceVolume += priceVolume;
+            doubleSumVolume += volume;
+            return getDoubleValue();
+        }
+        double evictedPriceVolume = priceVolumes.push(priceVolume);
+        double evictedVolume = volumes.push(volume);
+        if (priceVolumes.isAtCycleStart()) {
+            doubleSumPriceVolume = 0;
+            doubleSumVolume = 0;
+            for (int i = 0; i < period; i++) {
+                doubleSumPriceVolume += priceVolumes.getDouble(i);
+                doubleSumVolume += volumes.getDouble(i);
+            }
+        } else {
+            doubleSumPriceVolume += priceVolume;
+            doubleSumVolume += volume;
+            if (!Double.isNaN(evictedPriceVolume)) {
+                doubleSumPriceVolume -= evictedPriceVolume;
+                doubleSumVolume -= evictedVolume;
+            }
+        }
+        return getDoubleValue();
+    }
+    
+    @Override
+    public boolean isReady() {
+        return priceVolumes != null ? priceVolumes.isFull() : count > 0;
+    }
+    
+    /**
+     * VWAP (zero when there was no volume), or null until ready
+     */
+    public BigDecimal getValue() {
+        if (!isReady()) return null;
+        if (isDouble()) return toDecimal(getDoubleValue());
+        return sumVolume.signum() == 0 ? BigDecimal.ZERO
+            : sumPriceVolume.divide(sumVolume, SCALE, RoundingMode.HALF_UP);
+    }
+    
+    public double getDoubleValue() {
+        if (!isReady()) return Double.NaN;
+        if (!isDouble()) return getValue().doubleValue();
+        return doubleSumVolume == 0 ? 0 : doubleSumPriceVolume / doubleSumVolume;
+    }
+    
+    @Override
+    public void reset() {
+        super.reset();
+        if (priceVolumes != null) {
+            priceVolumes.clear();
+            volumes.clear();
+        }
+        sumPriceVolume = BigDecimal.ZERO;
+        sumVolume = BigDecimal.ZERO;
+        doubleSumPriceVolume = 0;
+        doubleSumVolume = 0;
+    }
+}
@@ -0,0 +1,100 @@
+package org.cloudvision.trading.bot.indicators.streaming;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Linearly Weighted Moving Average over a rolling window.
+ * The weighted sum is updated in O(1): W' = W - S + N * x, where S is the plain window sum.
+ * DECIMAL results equal TechnicalIndicators.calculateWMA over the same last N values.
+ */
+public class WmaKernel extends SeriesKernel {
+    private final int period;
+    private final BigDecimal periodDecimal;
+    private final BigDecimal weightSum;
+    private final RollingWindow window;
+    
+    private BigDecimal sum = BigDecimal.ZERO;
+    private BigDecimal weightedSum = BigDecimal.ZERO;
+    private double doubleSum;
+    private double doubleWeightedSum;
+    
+    public WmaKernel(int period) {
+        this(period, Arithmetic.DECIMAL);
+    }
+    
+    public WmaKernel(int period, Arithmetic arithmetic) {
+        super(arithmetic);
+        checkPeriod(period);
+        this.period = period;
+        this.periodDecimal = new BigDecimal(period);
+        this.weightSum = new BigDecimal((long) period * (period + 1) / 2);
+        this.window = new RollingWindow(period, arithmetic);
+    }
+    
+    @Override
+    protected void pushDecimal(BigDecimal value) {
+        boolean wasFull = window.isFull();
+        BigDecimal evicted = window.push(value);
+        if (wasFull) {
+            weightedSum = weightedSum.subtract(sum).add(value.multiply(periodDecimal));
+            sum = sum.subtract(evicted).add(value);
+        } else {
+            // Filling: the new value gets weight = its position in the window
+            weightedSum = weightedSum.add(value.multiply(new BigDecimal(window.size())));
+            sum = sum.add(value);
+        }
+    }
+    
+    @Override
+    protected void pushDouble(double value) {
+        boolean wasFull = window.isFull();
+        double evicted = window.push(value);
+        if (window.isAtCycleStart()) {
+            doubleSum = 0;
+            doubleWeightedSum = 0;
+            for (int i = 0; i < period; i++) {
+                double v = window.getDouble(i);
+                doubleSum += v;
+                doubleWeightedSum += v * (i + 1);
+            }
+        } else if (wasFull) {
+            doubleWeightedSum = doubleWeightedSum - doubleSum + value * period;
+            doubleSum = doubleSum - evicted + value;
+        } else {
+            doubleWeightedSum += value * window.size();
+            doubleSum += value;
+        }
+    }
+    
+    @Override
+    public boolean isReady() {
+        return window.isFull();
+    }
+    
+    @Override
+    public BigDecimal getValue() {
+        if (!isReady()) return null;
+        return isDouble() ? toDecimal(getDoubleValue()) : weightedSum.divide(weightSum, SCALE, RoundingMode.HALF_UP);
+    }
+    
+    @Override
+    public double getDoubleValue() {
+        if (!isReady()) return Double.NaN;
+        return isDouble() ? doubleWeightedSum / ((double) period * (period + 1) / 2) : getValue().doubleValue();
+    }
+    
+    public int getPeriod() {
+        return period;
+    }
+    
+    @Override
+    public void reset() {
+        super.reset();
+        window.clear();
+        sum = BigDecimal.ZERO;
+        weightedSum = BigDecimal.ZERO;
+        doubleSum = 0;
+        doubleWeightedSum = 0;
+    }
+}
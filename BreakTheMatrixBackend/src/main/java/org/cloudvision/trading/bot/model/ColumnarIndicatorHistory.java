@@ -0,0 +1,229 @@
+package org.cloudvision.trading.bot.model;
+
+import org.cloudvision.trading.bot.indicators.IndicatorHistoryBuffer;
+import org.cloudvision.trading.bot.indicators.IndicatorInstanceManager;
+import org.cloudvision.trading.bot.strategy.IndicatorMetadata;
+import org.cloudvision.trading.bot.visualization.ShapeRegistry;
+import org.cloudvision.trading.model.CandlestickData;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Columnar layout for historical indicator data of one provider/symbol/interval context.
+ *
+ * All indicators share one time axis: {@code time.base} is the first timestamp (epoch seconds)
+ * and {@code time.deltas[i]} is the gap to the previous row (0 for the first), so a steady
+ * interval becomes a run of identical small numbers. Candles are sent once as OHLCV columns
+ * on that axis. Each indicator starts at row {@code offset} and has one number array per series
+ * (null where it produced no value); point colors and leftover extras are only sent when present.
+ *
+ * The frontend expands this back to the per-point format with {@code expandColumnarHistory}
+ * in helpers/columnarHistory.js.
+ */
+public class ColumnarIndicatorHistory {
+
+    private final String provider;
+    private final String symbol;
+    private final String interval;
+    private final List<Entry> entries = new ArrayList<>();
+    private final List<CandlestickData> candles = new ArrayList<>();
+
+    public ColumnarIndicatorHistory(String provider, String symbol, String interval) {
+        this.provider = provider;
+        this.symbol = symbol;
+        this.interval = interval;
+    }
+
+    public ColumnarIndicatorHistory add(IndicatorInstanceManager.IndicatorInstance instance,
+                                        IndicatorHistoryBuffer.View dataPoints,
+                                        Map<String, IndicatorMetadata> metadata) {
+        entries.add(new Entry(instance, dataPoints, metadata));
+        return this;
+    }
+
+    /**
+     * Candles to put on the time axis even where no indicator has a row
+     */
+    public ColumnarIndicatorHistory addCandles(List<CandlestickData> candles) {
+        this.candles.addAll(candles);
+        return this;
+    }
+
+    public Map<String, Object> toMap() {
+        // Shared time axis and one candle per row
+        TreeMap<Long, CandlestickData> rows = new TreeMap<>();
+        for (CandlestickData candle : candles) {
+            rows.putIfAbsent(Math.floorDiv(candle.getOpenTime().toEpochMilli(), 1000), candle);
+        }
+        for (Entry entry : entries) {
+            IndicatorHistoryBuffer.View view = entry.dataPoints;
+            for (int i = 0; i < view.size(); i++) {
+                rows.putIfAbsent(Math.floorDiv(view.getTimeMillis(i), 1000), view.getCandle(i));
+            }
+        }
+
+        int rowCount = rows.size();
+        Map<Long, Integer> rowIndex = new HashMap<>(rowCount * 2);
+        long[] deltas = new long[rowCount];
+        Double[] open = new Double[rowCount];
+        Double[] high = new Double[rowCount];
+        Double[] low = new Double[rowCount];
+        Double[] close = new Double[rowCount];
+        Double[] volume = new Double[rowCount];
+        long base = rowCount > 0 ? rows.firstKey() : 0;
+        long previous = base;
+        int row = 0;
+        for (Map.Entry<Long, CandlestickData> entry : rows.entrySet()) {
+            long time = entry.getKey();
+            rowIndex.put(time, row);
+            deltas[row] = time - previous;
+            previous = time;
+            CandlestickData candle = entry.getValue();
+            if (candle != null) {
+                open[row] = toDouble(candle.getOpen());
+                high[row] = toDouble(candle.getHigh());
+                low[row] = toDouble(candle.getLow());
+                close[row] = toDouble(candle.getClose());
+                volume[row] = toDouble(candle.getVolume());
+            }
+            row++;
+        }
+
+        Map<String, Object> time = new LinkedHashMap<>();
+        time.put("base", base);
+        time.put("deltas", deltas);
+
+        Map<String, Object> candles = new LinkedHashMap<>();
+        candles.put("open", open);
+        candles.put("high", high);
+        candles.put("low", low);
+        candles.put("close", close);
+        candles.put("volume", volume);
+
+        List<Map<String, Object>> indicators = new ArrayList<>();
+        for (Entry entry : entries) {
+            indicators.add(entry.toMap(rowIndex));
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("format", "columnar");
+        response.put("provider", provider);
+        response.put("symbol", symbol);
+        response.put("interval", interval);
+        response.put("rowCount", rowCount);
+        response.put("time", time);
+        response.put("candles", candles);
+        response.put("indicatorCount", indicators.size());
+        response.put("indicators", indicators);
+        return response;
+    }
+
+    private static Double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : null;
+    }
+
+    private static class Entry {
+        final IndicatorInstanceManager.IndicatorInstance instance;
+        final IndicatorHistoryBuffer.View dataPoints;
+        final Map<String, IndicatorMetadata> metadata;
+
+        Entry(IndicatorInstanceManager.IndicatorInstance instance,
+              IndicatorHistoryBuffer.View dataPoints,
+              Map<String, IndicatorMetadata> metadata) {
+            this.instance = instance;
+            this.dataPoints = dataPoints;
+            this.metadata = metadata;
+        }
+
+        Map<String, Object> toMap(Map<Long, Integer> rowIndex) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("indicatorId", instance.getIndicatorId());
+            map.put("instanceKey", instance.getInstanceKey());
+            map.put("params", instance.getParams());
+            map.put("updateCount", instance.getUpdateCount());
+            map.put("metadata", metadata);
+            map.put("dataPointCount", dataPoints.size());
+
+            if (dataPoints.isEmpty()) {
+                map.put("offset", 0);
+                map.put("series", Map.of());
+                return map;
+            }
+
+            int count = dataPoints.size();
+            int[] slots = new int[count];
+            int offset = rowIndex.get(secondsAt(0));
+            for (int i = 0; i < count; i++) {
+                slots[i] = rowIndex.get(secondsAt(i)) - offset;
+            }
+            int length = slots[count - 1] + 1;
+
+            // Read straight from the history columns
+            Map<String, Double[]> series = new LinkedHashMap<>();
+            for (String name : dataPoints.getSeriesNames()) {
+                Double[] column = new Double[length];
+                boolean any = false;
+                for (int i = 0; i < count; i++) {
+                    if (dataPoints.hasValue(name, i)) {
+                        column[slots[i]] = dataPoints.getDouble(name, i);
+                        any = true;
+                    }
+                }
+                if (any) {
+                    series.put(name, column);
+                }
+            }
+
+            String[] colors = null;
+            Map<Integer, Map<String, Object>> extras = new LinkedHashMap<>();
+            List<Map<String, Object>> withExtras = new ArrayList<>();
+
+            for (int i = 0; i < count; i++) {
+                Map<String, Object> extra = dataPoints.getExtra(i);
+                if (extra == null) {
+                    continue;
+                }
+                withExtras.add(extra);
+
+                // Shapes go to "shapes" (deduplicated below), color and the rest stay per row
+                Map<String, Object> additionalData = new HashMap<>(extra);
+                additionalData.keySet().removeIf(ShapeRegistry::isShapeType);
+                Object color = additionalData.remove("color");
+                if (color instanceof String) {
+                    if (colors == null) {
+                        colors = new String[length];
+                    }
+                    colors[slots[i]] = (String) color;
+                }
+                if (!additionalData.isEmpty()) {
+                    extras.put(slots[i], additionalData);
+                }
+            }
+
+            map.put("offset", offset);
+            map.put("series", series);
+            if (colors != null) {
+                map.put("colors", colors);
+            }
+            if (!extras.isEmpty()) {
+                map.put("extras", extras);
+            }
+
+            Map<String, List<Map<String, Object>>> shapes = IndicatorResponse.collectShapesFrom(withExtras);
+            if (!shapes.isEmpty()) {
+                Map<String, Integer> summary = new HashMap<>();
+                for (Map.Entry<String, List<Map<String, Object>>> shape : shapes.entrySet()) {
+                    summary.put(shape.getKey(), shape.getValue().size());
+                }
+                map.put("shapes", shapes);
+                map.put("shapesSummary", summary);
+            }
+            return map;
+        }
+
+        private long secondsAt(int index) {
+            return Math.floorDiv(dataPoints.getTimeMillis(index), 1000);
+        }
+    }
+}
@@ -9,7 +9,6 @@ import org.cloudvision.trading.model.CandlestickData;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Unified response structure for indicator data
@@ -303,13 +302,16 @@ public class IndicatorResponse {
         }
         
         // Get all keys from first data point
-        Map<String, BigDecimal> firstValues = dataPoints.get(0).getValues();
+        Set<String> keys = dataPoints.get(0).getValues().keySet();
+        for (String key : keys) {
+            seriesData.put(key, new ArrayList<>(dataPoints.size()));
+        }
         
-        for (String key : firstValues.keySet()) {
-            List<SeriesPoint> seriesPoints = dataPoints.stream()
-                .map(dp -> SeriesPoint.from(dp, key))
-                .collect(Collectors.toList());
-            seriesData.put(key, seriesPoints);
+        // One pass over the points (history views build each point on access)
+        for (IndicatorInstanceManager.IndicatorResult dp : dataPoints) {
+            for (String key : keys) {
+                seriesData.get(key).add(SeriesPoint.from(dp, key));
+            }
         }
         
         return seriesData;
@@ -318,12 +320,24 @@ public class IndicatorResponse {
     private static Map<String, List<Map<String, Object>>> collectShapes(
             List<IndicatorInstanceManager.IndicatorResult> dataPoints) {
         
+        List<Map<String, Object>> additionalData = new ArrayList<>(dataPoints.size());
+        for (IndicatorInstanceManager.IndicatorResult dp : dataPoints) {
+            additionalData.add(dp.getAdditionalData());
+        }
+        return collectShapesFrom(additionalData);
+    }
+    
+    /**
+     * Shapes of all points, grouped by type and deduplicated
+     */
+    static Map<String, List<Map<String, Object>>> collectShapesFrom(List<Map<String, Object>> additionalDataList) {
+        
         Map<String, List<Map<String, Object>>> shapesByType = new HashMap<>();
         
-        for (IndicatorInstanceManager.IndicatorResult dp : dataPoints) {
-            if (dp.getAdditionalData() != null) {
+        for (Map<String, Object> additionalData : additionalDataList) {
+            if (additionalData != null) {
                 Map<String, List<Map<String, Object>>> shapesFromPoint = 
-                    ShapeRegistry.extractShapes(dp.getAdditionalData());
+                    ShapeRegistry.extractShapes(additionalData);
                 
                 if (!shapesFromPoint.isEmpty()) {
                     for (Map.Entry<String, List<Map<String, Object>>> entry : shapesFromPoint.entrySet()) {
@@ -0,0 +1,69 @@
+package org.cloudvision.trading.bot.replay;
+
+import org.cloudvision.trading.bot.indicators.IndicatorHistoryBuffer;
+import org.cloudvision.trading.bot.indicators.IndicatorInstanceManager;
+import org.cloudvision.trading.model.CandlestickData;
+
+import java.util.List;
+
+/**
+ * Batch of consecutive candles emitted in turbo mode, with the rows each indicator produced for them.
+ * The rows are views on the forks' history buffers, so listeners should consume them right away.
+ */
+public class ReplayBatch {
+
+    private final String sessionId;
+    private final int startIndex;
+    private final int totalCandles;
+    private final List<CandlestickData> candles;
+    private final List<IndicatorRows> indicators;
+    private final long elapsedMillis;
+    private final double candlesPerSecond;
+
+    public ReplayBatch(String sessionId,
+                      int startIndex,
+                      int totalCandles,
+                      List<CandlestickData> candles,
+                      List<IndicatorRows> indicators,
+                      long elapsedMillis,
+                      double candlesPerSecond) {
+        this.sessionId = sessionId;
+        this.startIndex = startIndex;
+        this.totalCandles = totalCandles;
+        this.candles = candles;
+        this.indicators = indicators;
+        this.elapsedMillis = elapsedMillis;
+        this.candlesPerSecond = candlesPerSecond;
+    }
+
+    // Getters
+    public String getSessionId() { return sessionId; }
+    public int getStartIndex() { return startIndex; }
+    public int getEndIndex() { return startIndex + candles.size(); }
+    public int getTotalCandles() { return totalCandles; }
+    public List<CandlestickData> getCandles() { return candles; }
+    public List<IndicatorRows> getIndicators() { return indicators; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public double getCandlesPerSecond() { return candlesPerSecond; }
+
+    public double getProgress() {
+        return totalCandles > 0 ? (getEndIndex() * 100.0 / totalCandles) : 0.0;
+    }
+
+    /**
+     * One indicator fork and its results for the batch's candles
+     */
+    public static class IndicatorRows {
+        private final IndicatorInstanceManager.IndicatorInstance instance;
+        private final IndicatorHistoryBuffer.View rows;
+
+        public IndicatorRows(IndicatorInstanceManager.IndicatorInstance instance,
+                             IndicatorHistoryBuffer.View rows) {
+            this.instance = instance;
+            this.rows = rows;
+        }
+
+        public IndicatorInstanceManager.IndicatorInstance getInstance() { return instance; }
+        public IndicatorHistoryBuffer.View getRows() { return rows; }
+    }
+}
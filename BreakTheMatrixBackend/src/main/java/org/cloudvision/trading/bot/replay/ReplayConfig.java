@@ -20,6 +20,10 @@ public class ReplayConfig {
     private final Instant startTime;
     private final Instant endTime;
     private final double speed; // Playback speed multiplier (1.0 = normal, 2.0 = 2x, etc.)
+    private final boolean turbo; // Process the range as fast as possible and emit batches instead of per-candle events
+    private final int batchSize; // Candles per batch in turbo mode
+    
+    public static final int DEFAULT_BATCH_SIZE = 1000;
     
     private ReplayConfig(Builder builder) {
         this.provider = builder.provider;
@@ -28,6 +32,8 @@ public class ReplayConfig {
         this.startTime = builder.startTime;
         this.endTime = builder.endTime;
         this.speed = builder.speed;
+        this.turbo = builder.turbo;
+        this.batchSize = builder.batchSize;
     }
     
     /**
@@ -40,13 +46,17 @@ public class ReplayConfig {
             @JsonProperty("interval") String interval,
             @JsonProperty("startTime") Instant startTime,
             @JsonProperty("endTime") Instant endTime,
-            @JsonProperty("speed") Double speed) {
+            @JsonProperty("speed") Double speed,
+            @JsonProperty("turbo") Boolean turbo,
+            @JsonProperty("batchSize") Integer batchSize) {
         this.provider = provider;
         this.symbol = symbol;
         this.interval = interval;
         this.startTime = startTime;
         this.endTime = endTime;
         this.speed = speed != null ? speed : 1.0;
+        this.turbo = turbo != null && turbo;
+        this.batchSize = batchSize != null && batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
     }
     
     // Getters
@@ -56,6 +66,8 @@ public class ReplayConfig {
     public Instant getStartTime() { return startTime; }
     public Instant getEndTime() { return endTime; }
     public double getSpeed() { return speed; }
+    public boolean isTurbo() { return turbo; }
+    public int getBatchSize() { return batchSize; }
     
     // Builder pattern
     public static Builder builder() {
@@ -69,6 +81,8 @@ public class ReplayConfig {
         private Instant startTime;
         private Instant endTime;
         private double speed = 1.0;
+        private boolean turbo = false;
+        private int batchSize = DEFAULT_BATCH_SIZE;
         
         public Builder provider(String provider) {
             this.provider = provider;
@@ -100,6 +114,16 @@ public class ReplayConfig {
             return this;
         }
         
+        public Builder turbo(boolean turbo) {
+            this.turbo = turbo;
+            return this;
+        }
+        
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+        
         public ReplayConfig build() {
             // Validation
             if (provider == null || provider.isEmpty()) {
@@ -114,6 +138,9 @@ public class ReplayConfig {
             if (speed <= 0) {
                 throw new IllegalArgumentException("Speed must be positive");
             }
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Batch size must be positive");
+            }
             
             return new ReplayConfig(this);
         }
@@ -53,7 +53,7 @@ public class ReplayService {
         List<CandlestickData> candles;
         
         if (config.getStartTime() != null && config.getEndTime() != null) {
-            // Load candles within time range
+            // Load candles within time range (older parts are paged in from the on-disk archive)
             candles = historyService.getCandlesticks(
                 config.getProvider(),
                 config.getSymbol(),
@@ -101,7 +101,8 @@ public class ReplayService {
             sessionId,
             config,
             candles,
-            indicatorManager
+            indicatorManager,
+            historyService
         );
         
         // Initialize indicators
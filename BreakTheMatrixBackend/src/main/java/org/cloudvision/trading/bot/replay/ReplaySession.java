@@ -4,6 +4,7 @@ import org.cloudvision.trading.bot.indicators.IndicatorInstanceManager;
 import org.cloudvision.trading.model.CandlestickData;
 import org.cloudvision.trading.service.CandlestickHistoryService;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -12,6 +13,10 @@ import java.util.function.BiConsumer;
 /**
  * Represents a replay session that plays historical candles with indicators
  * Supports playback controls (play, pause, stop, speed adjustment)
+ * 
+ * The session never feeds the live indicator instances: it forks fresh copies of them,
+ * warmed up on the candles preceding the replay position, and updates those on the
+ * playback thread only. Live processing and other sessions are left untouched.
  */
 public class ReplaySession implements Runnable {
     
@@ -19,17 +24,34 @@ public class ReplaySession implements Runnable {
     private final ReplayConfig config;
     private final List<CandlestickData> candles;
     private final IndicatorInstanceManager indicatorManager;
+    private final CandlestickHistoryService historyService;
     
     // Playback state
     private volatile ReplayState state;
     private volatile double speed;
     private volatile int currentIndex;
     
-    // Indicator instances created for this replay
+    // Guards currentIndex and rewarm together: a jump must not be overwritten by the playback advancing
+    private final Object positionLock = new Object();
+    
+    // Minimum number of candles the forked indicators are warmed up on
+    private static final int WARMUP_CANDLES = 500;
+    
+    // Live indicator instances the replay mirrors (configuration only, never updated)
     private final List<String> indicatorInstanceKeys;
+    private final List<IndicatorInstanceManager.IndicatorInstance> sourceInstances;
+    
+    // Candles preceding the replay range, used to warm up the forks
+    private List<CandlestickData> warmupCandles = List.of();
+    private int warmupCount = WARMUP_CANDLES;
+    
+    // Forked indicator instances, owned by the playback thread
+    private List<IndicatorInstanceManager.IndicatorInstance> forks = List.of();
+    private volatile boolean rewarm = true;
     
-    // Event listeners
+    // Event listeners (per-candle events, and batches in turbo mode)
     private final List<BiConsumer<ReplaySession, ReplayEvent>> eventListeners;
+    private final List<BiConsumer<ReplaySession, ReplayBatch>> batchListeners;
     
     // Thread management
     private Thread playbackThread;
@@ -39,27 +61,32 @@ public class ReplaySession implements Runnable {
     private final Instant createdAt;
     private Instant startedAt;
     private Instant completedAt;
+    private volatile double candlesPerSecond;
     
     public ReplaySession(String sessionId,
                         ReplayConfig config,
                         List<CandlestickData> candles,
-                        IndicatorInstanceManager indicatorManager) {
+                        IndicatorInstanceManager indicatorManager,
+                        CandlestickHistoryService historyService) {
         this.sessionId = sessionId;
         this.config = config;
         this.candles = new ArrayList<>(candles); // Copy to prevent external modifications
         this.indicatorManager = indicatorManager;
+        this.historyService = historyService;
         this.state = ReplayState.INITIALIZING;
         this.speed = config.getSpeed();
         this.currentIndex = 0;
         this.indicatorInstanceKeys = new ArrayList<>();
+        this.sourceInstances = new ArrayList<>();
         this.eventListeners = new ArrayList<>();
+        this.batchListeners = new ArrayList<>();
         this.createdAt = Instant.now();
         this.shouldStop = false;
     }
     
     /**
      * Initialize indicators for this replay session
-     * Automatically finds and attaches to existing indicators for the context
+     * Mirrors the existing indicators of the context and loads the candles to warm their forks up on
      */
     public void initialize() throws Exception {
         System.out.println("🎬 Initializing replay session: " + sessionId);
@@ -80,9 +107,15 @@ public class ReplaySession implements Runnable {
             
             for (IndicatorInstanceManager.IndicatorInstance instance : existingInstances) {
                 indicatorInstanceKeys.add(instance.getInstanceKey());
-                System.out.println("✅ Attached to indicator: " + instance.getIndicatorId() + 
+                sourceInstances.add(instance);
+                warmupCount = Math.max(warmupCount, indicatorManager.getIndicator(instance.getIndicatorId())
+                    .getMinRequiredCandles(instance.getParams()));
+                System.out.println("✅ Mirroring indicator: " + instance.getIndicatorId() + 
                                  " (" + instance.getInstanceKey() + ")");
             }
+            
+            warmupCandles = loadWarmupCandles();
+            System.out.println("   Warm-up candles before range: " + warmupCandles.size());
         } else {
             System.out.println("⚠️ No existing indicators found for this context");
             System.out.println("   Replay will show candles only (no indicators)");
@@ -98,7 +131,10 @@ public class ReplaySession implements Runnable {
     public void play() {
         if (state == ReplayState.COMPLETED) {
             // Restart from beginning
-            currentIndex = 0;
+            synchronized (positionLock) {
+                currentIndex = 0;
+                rewarm = true;
+            }
         }
         
         if (state == ReplayState.PLAYING) {
@@ -174,7 +210,10 @@ public class ReplaySession implements Runnable {
         if (index < 0 || index >= candles.size()) {
             throw new IllegalArgumentException("Index out of bounds: " + index);
         }
-        this.currentIndex = index;
+        synchronized (positionLock) {
+            this.currentIndex = index;
+            this.rewarm = true;
+        }
         System.out.println("⏩ Jumped to index " + index + ": " + sessionId);
     }
     
@@ -185,58 +224,23 @@ public class ReplaySession implements Runnable {
         this.eventListeners.add(listener);
     }
     
+    /**
+     * Add batch listener (turbo mode)
+     */
+    public void addBatchListener(BiConsumer<ReplaySession, ReplayBatch> listener) {
+        this.batchListeners.add(listener);
+    }
+    
     /**
      * Main playback loop
      */
     @Override
     public void run() {
         try {
-            while (currentIndex < candles.size() && !shouldStop) {
-                // Check if paused
-                while (state == ReplayState.PAUSED && !shouldStop) {
-                    Thread.sleep(100);
-                }
-                
-                if (shouldStop || state == ReplayState.STOPPED) {
-                    break;
-                }
-                
-                // Get current candle
-                CandlestickData candle = candles.get(currentIndex);
-                
-                // Update indicators
-                Map<String, IndicatorInstanceManager.IndicatorResult> indicatorResults = new HashMap<>();
-                for (String instanceKey : indicatorInstanceKeys) {
-                    IndicatorInstanceManager.IndicatorResult result = 
-                        indicatorManager.updateWithCandle(instanceKey, candle);
-                    
-                    if (result != null) {
-                        indicatorResults.put(instanceKey, result);
-                    }
-                }
-                
-                // Create event
-                ReplayEvent event = new ReplayEvent(
-                    sessionId,
-                    currentIndex,
-                    candles.size(),
-                    candle,
-                    indicatorResults,
-                    state,
-                    speed
-                );
-                
-                // Notify listeners
-                notifyListeners(event);
-                
-                // Move to next candle
-                currentIndex++;
-                
-                // Calculate delay based on speed
-                long delayMs = calculateDelay(speed);
-                if (delayMs > 0) {
-                    Thread.sleep(delayMs);
-                }
+            if (config.isTurbo()) {
+                runTurbo();
+            } else {
+                runPaced();
             }
             
             // Playback completed
@@ -267,6 +271,208 @@ public class ReplaySession implements Runnable {
         }
     }
     
+    /**
+     * Paced playback: one event per candle, delayed according to the speed
+     */
+    private void runPaced() throws InterruptedException {
+        while (currentIndex < candles.size() && !shouldStop) {
+            // Check if paused
+            while (state == ReplayState.PAUSED && !shouldStop) {
+                Thread.sleep(100);
+            }
+            
+            if (shouldStop || state == ReplayState.STOPPED) {
+                break;
+            }
+            
+            // Fork the indicators at the current position (start, restart or jump)
+            int index;
+            boolean jumped;
+            synchronized (positionLock) {
+                index = currentIndex;
+                jumped = rewarm;
+                rewarm = false;
+            }
+            if (jumped) {
+                forkIndicators(index);
+            }
+            
+            // Get current candle
+            CandlestickData candle = candles.get(index);
+            
+            // Update this session's indicator forks
+            Map<String, IndicatorInstanceManager.IndicatorResult> indicatorResults = new HashMap<>();
+            for (IndicatorInstanceManager.IndicatorInstance fork : forks) {
+                IndicatorInstanceManager.IndicatorResult result = 
+                    indicatorManager.updateDetached(fork, candle);
+                
+                if (result != null) {
+                    indicatorResults.put(fork.getInstanceKey(), result);
+                }
+            }
+            
+            // Create event
+            ReplayEvent event = new ReplayEvent(
+                sessionId,
+                index,
+                candles.size(),
+                candle,
+                indicatorResults,
+                state,
+                speed
+            );
+            
+            // Notify listeners
+            notifyListeners(event);
+            
+            // Move to next candle, unless a jump arrived meanwhile
+            advanceTo(index + 1);
+            
+            // Calculate delay based on speed
+            long delayMs = calculateDelay(speed);
+            if (delayMs > 0) {
+                Thread.sleep(delayMs);
+            }
+        }
+    }
+    
+    /**
+     * Turbo playback: process the rest of the range without delays and emit the results
+     * in batches of {@code batchSize} candles, measuring throughput as it goes
+     */
+    private void runTurbo() throws InterruptedException {
+        int batchSize = Math.min(config.getBatchSize(), IndicatorInstanceManager.IndicatorInstance.MAX_HISTORY_SIZE);
+        long started = System.nanoTime();
+        int processed = 0;
+        int index = currentIndex;
+        int batchStart = index;
+        
+        while ((index < candles.size() || rewarm) && !shouldStop) {
+            // Check if paused
+            while (state == ReplayState.PAUSED && !shouldStop) {
+                Thread.sleep(100);
+            }
+            
+            if (shouldStop || state == ReplayState.STOPPED) {
+                break;
+            }
+            
+            // Fork the indicators at the current position (start, restart or jump)
+            if (rewarm) {
+                if (index > batchStart) {
+                    emitBatch(batchStart, index, started, processed);
+                }
+                synchronized (positionLock) {
+                    rewarm = false;
+                    index = currentIndex;
+                }
+                batchStart = index;
+                forkIndicators(index);
+            }
+            
+            CandlestickData candle = candles.get(index);
+            for (IndicatorInstanceManager.IndicatorInstance fork : forks) {
+                indicatorManager.updateDetached(fork, candle);
+            }
+            index++;
+            processed++;
+            advanceTo(index);
+            
+            if (index - batchStart >= batchSize) {
+                emitBatch(batchStart, index, started, processed);
+                batchStart = index;
+            }
+        }
+        
+        if (index > batchStart) {
+            emitBatch(batchStart, index, started, processed);
+        }
+        
+        System.out.println("⚡ Turbo replay processed " + processed + " candles in " +
+                         (System.nanoTime() - started) / 1_000_000 + " ms (" +
+                         String.format("%.0f", candlesPerSecond) + " candles/sec): " + sessionId);
+    }
+    
+    /**
+     * Publish the playback position; a pending jump wins, so the loop picks up its index next
+     */
+    private void advanceTo(int index) {
+        synchronized (positionLock) {
+            if (!rewarm) {
+                currentIndex = index;
+            }
+        }
+    }
+    
+    /**
+     * Notify batch listeners of candles [from, to) and the rows the forks produced for them
+     */
+    private void emitBatch(int from, int to, long started, int processed) {
+        long elapsedNanos = System.nanoTime() - started;
+        candlesPerSecond = elapsedNanos > 0 ? processed * 1_000_000_000.0 / elapsedNanos : 0.0;
+        
+        List<ReplayBatch.IndicatorRows> rows = new ArrayList<>(forks.size());
+        for (IndicatorInstanceManager.IndicatorInstance fork : forks) {
+            rows.add(new ReplayBatch.IndicatorRows(fork, fork.getHistoricalResults(to - from)));
+        }
+        
+        ReplayBatch batch = new ReplayBatch(
+            sessionId,
+            from,
+            candles.size(),
+            candles.subList(from, to),
+            rows,
+            elapsedNanos / 1_000_000,
+            candlesPerSecond
+        );
+        
+        for (BiConsumer<ReplaySession, ReplayBatch> listener : batchListeners) {
+            try {
+                listener.accept(this, batch);
+            } catch (Exception e) {
+                System.err.println("❌ Error in replay batch listener: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Replace the forks with fresh copies warmed up on the candles just before {@code index}
+     */
+    private void forkIndicators(int index) {
+        List<CandlestickData> warmup = new ArrayList<>(warmupCandles);
+        warmup.addAll(candles.subList(Math.max(0, index - warmupCount), index));
+        if (warmup.size() > warmupCount) {
+            warmup = warmup.subList(warmup.size() - warmupCount, warmup.size());
+        }
+        
+        List<IndicatorInstanceManager.IndicatorInstance> forked = new ArrayList<>(sourceInstances.size());
+        for (IndicatorInstanceManager.IndicatorInstance source : sourceInstances) {
+            forked.add(indicatorManager.forkInstance(source, warmup));
+        }
+        forks = forked;
+    }
+    
+    /**
+     * Candles preceding the replay range (paged in from the archive when needed)
+     */
+    private List<CandlestickData> loadWarmupCandles() {
+        if (candles.isEmpty()) {
+            return List.of();
+        }
+        
+        CandlestickData first = candles.get(0);
+        Duration candleDuration = Duration.between(first.getOpenTime(), first.getCloseTime()).plusMillis(1);
+        Instant start = first.getOpenTime().minus(candleDuration.multipliedBy(warmupCount));
+        
+        List<CandlestickData> before = historyService.getCandlesticks(
+            config.getProvider(), config.getSymbol(), config.getInterval(),
+            start, first.getOpenTime().minusMillis(1)
+        );
+        return before.size() > warmupCount
+            ? new ArrayList<>(before.subList(before.size() - warmupCount, before.size()))
+            : before;
+    }
+    
     /**
      * Calculate delay between candles based on speed
      */
@@ -292,11 +498,12 @@ public class ReplaySession implements Runnable {
      * Cleanup resources
      */
     private void cleanup() {
-        // Don't deactivate indicators - they're existing instances used by live system
-        System.out.println("ℹ️ Cleanup: Keeping indicators active (they're used by live system)");
+        // Forks are private to this session; the live instances were never touched
+        System.out.println("ℹ️ Cleanup: Dropping " + sourceInstances.size() + " indicator fork(s)");
         
         indicatorInstanceKeys.clear();
         eventListeners.clear();
+        batchListeners.clear();
     }
     
     // Getters
@@ -335,6 +542,11 @@ public class ReplaySession implements Runnable {
         status.put("totalCandles", candles.size());
         status.put("progress", getProgress());
         status.put("speed", speed);
+        status.put("turbo", config.isTurbo());
+        if (config.isTurbo()) {
+            status.put("batchSize", config.getBatchSize());
+            status.put("candlesPerSecond", candlesPerSecond);
+        }
         status.put("provider", config.getProvider());
         status.put("symbol", config.getSymbol());
         status.put("interval", config.getInterval());
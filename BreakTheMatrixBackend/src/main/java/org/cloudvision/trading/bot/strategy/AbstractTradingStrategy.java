@@ -2,6 +2,7 @@ package org.cloudvision.trading.bot.strategy;
 
 import org.cloudvision.trading.bot.account.AccountManager;
 import org.cloudvision.trading.bot.account.TradingAccount;
+import org.cloudvision.trading.bot.checkpoint.CheckpointIO;
 import org.cloudvision.trading.bot.model.Order;
 import org.cloudvision.trading.bot.model.OrderSide;
 import org.cloudvision.trading.bot.model.OrderType;
@@ -10,10 +11,16 @@ import org.cloudvision.trading.model.TradingData;
 import org.cloudvision.trading.model.TradingDataType;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Abstract base class for trading strategies
@@ -25,6 +32,7 @@ public abstract class AbstractTradingStrategy implements TradingStrategy {
     protected StrategyStats stats;
     protected boolean enabled = true;
     protected boolean bootstrapped = false;
+    protected volatile boolean restoredFromCheckpoint = false;
     
     @Autowired(required = false)
     protected AccountManager accountManager;
@@ -32,17 +40,20 @@ public abstract class AbstractTradingStrategy implements TradingStrategy {
     @Autowired(required = false)
     protected org.cloudvision.trading.service.CandlestickHistoryService candlestickHistoryService;
     
+    // Per-symbol state. TradingBot runs a symbol on a single execution lane, so each key has
+    // one writer; concurrent maps keep different symbols safe to update in parallel.
+
     // Track which provider each symbol uses (for reading from history service)
-    protected final Map<String, String> symbolProviders = new HashMap<>();
+    protected final Map<String, String> symbolProviders = new ConcurrentHashMap<>();
     
     // Track which interval each symbol uses
-    protected final Map<String, String> symbolIntervals = new HashMap<>();
+    protected final Map<String, String> symbolIntervals = new ConcurrentHashMap<>();
     
     // Signal tracking (1 = bullish, -1 = bearish, 0 = neutral)
-    protected final Map<String, BigDecimal> lastSignal = new HashMap<>();
+    protected final Map<String, BigDecimal> lastSignal = new ConcurrentHashMap<>();
     
     // Timestamp of last data point for each symbol
-    protected final Map<String, Instant> lastUpdateTime = new HashMap<>();
+    protected final Map<String, Instant> lastUpdateTime = new ConcurrentHashMap<>();
 
     @Override
     public final List<Order> analyze(TradingData data) {
@@ -58,12 +69,14 @@ public abstract class AbstractTradingStrategy implements TradingStrategy {
         }
 
         // Track provider and interval for this symbol (for reading from history service)
-        if (data.getCandlestickData() != null) {
+        if (data.getCandlestickData() != null && data.getProvider() != null) {
             symbolProviders.put(priceData.symbol, data.getProvider());
             symbolIntervals.put(priceData.symbol, data.getCandlestickData().getInterval());
         }
         
-        lastUpdateTime.put(priceData.symbol, priceData.timestamp);
+        if (priceData.timestamp != null) {
+            lastUpdateTime.put(priceData.symbol, priceData.timestamp);
+        }
 
         // Call strategy-specific analysis
         return analyzePrice(priceData);
@@ -431,6 +444,18 @@ public abstract class AbstractTradingStrategy implements TradingStrategy {
     public StrategyStats getStats() {
         return stats;
     }
+    
+    @Override
+    public StrategyConfig getConfig() {
+        return config;
+    }
+    
+    @Override
+    public void useIsolatedServices(AccountManager accountManager,
+                                    org.cloudvision.trading.service.CandlestickHistoryService historyService) {
+        this.accountManager = accountManager;
+        this.candlestickHistoryService = historyService;
+    }
 
     /**
      * Inner class to hold extracted price data
@@ -545,6 +570,7 @@ public abstract class AbstractTradingStrategy implements TradingStrategy {
         
         // Reset bootstrapped flag
         bootstrapped = false;
+        restoredFromCheckpoint = false;
         
         // Reset stats if they exist
         if (stats != null) {
@@ -553,5 +579,80 @@ public abstract class AbstractTradingStrategy implements TradingStrategy {
         
         System.out.println("🔄 " + getStrategyName() + " state reset - all memory cleared");
     }
+    
+    /**
+     * Snapshot of the per-symbol tracking maps plus whatever {@link #writeStrategyState} adds.
+     * Candle history is not included; it comes back from the candle archive.
+     * Returns null unless the strategy opts in via {@link #supportsCheckpoint}.
+     */
+    @Override
+    public byte[] snapshotState() {
+        if (!supportsCheckpoint()) {
+            return null;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeBoolean(bootstrapped);
+            CheckpointIO.writeStringMap(out, symbolProviders);
+            CheckpointIO.writeStringMap(out, symbolIntervals);
+            CheckpointIO.writeDecimalMap(out, lastSignal);
+            writeStrategyState(out);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            System.err.println("❌ Failed to snapshot " + getStrategyName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    @Override
+    public boolean restoreState(byte[] snapshot) {
+        if (!supportsCheckpoint()) {
+            return false; // bootstrap from history instead
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot))) {
+            boolean wasBootstrapped = in.readBoolean();
+            Map<String, String> providers = CheckpointIO.readStringMap(in);
+            Map<String, String> intervals = CheckpointIO.readStringMap(in);
+            Map<String, BigDecimal> signals = CheckpointIO.readDecimalMap(in);
+            readStrategyState(in);
+            
+            symbolProviders.putAll(providers);
+            symbolIntervals.putAll(intervals);
+            lastSignal.putAll(signals);
+            bootstrapped = wasBootstrapped;
+            restoredFromCheckpoint = true;
+            return true;
+        } catch (IOException e) {
+            System.err.println("❌ Failed to restore " + getStrategyName() + " from checkpoint: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    @Override
+    public boolean isRestoredFromCheckpoint() {
+        return restoredFromCheckpoint;
+    }
+    
+    /**
+     * Whether snapshotState captures everything the strategy needs to trade warm.
+     * Strategies that keep state outside writeStrategyState (order blocks, price histories)
+     * must leave this false so they are bootstrapped from history after a restart.
+     */
+    protected boolean supportsCheckpoint() {
+        return false;
+    }
+    
+    /**
+     * Write strategy-specific state after the common fields (see snapshotState)
+     * Subclasses with state worth keeping across restarts override this, readStrategyState and supportsCheckpoint
+     */
+    protected void writeStrategyState(DataOutputStream out) throws IOException {
+        // Default implementation writes nothing
+    }
+    
+    protected void readStrategyState(DataInputStream in) throws IOException {
+        // Default implementation reads nothing
+    }
 }
-
@@ -25,7 +25,7 @@ public class StrategyStats {
         this.startTime = Instant.now();
     }
 
-    public void addTrade(BigDecimal pnl) {
+    public synchronized void addTrade(BigDecimal pnl) {
         totalTrades++;
         if (pnl.compareTo(BigDecimal.ZERO) > 0) {
             winningTrades++;
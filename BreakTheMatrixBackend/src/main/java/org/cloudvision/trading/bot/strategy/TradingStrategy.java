@@ -1,8 +1,10 @@
 package org.cloudvision.trading.bot.strategy;
 
+import org.cloudvision.trading.bot.account.AccountManager;
 import org.cloudvision.trading.bot.model.Order;
 import org.cloudvision.trading.model.CandlestickData;
 import org.cloudvision.trading.model.TradingData;
+import org.cloudvision.trading.service.CandlestickHistoryService;
 
 import java.util.List;
 import java.util.Map;
@@ -84,4 +86,43 @@ public interface TradingStrategy {
      * Call when disabling/re-enabling strategy to start fresh
      */
     void reset();
+    
+    /**
+     * Serialize per-symbol state for a checkpoint (optional)
+     * @return Snapshot bytes, or null if the strategy must be bootstrapped from history (default)
+     */
+    default byte[] snapshotState() {
+        return null;
+    }
+    
+    /**
+     * Restore state written by {@link #snapshotState}; the strategy then counts as bootstrapped
+     * @return true if the state was restored
+     */
+    default boolean restoreState(byte[] snapshot) {
+        return false;
+    }
+    
+    /**
+     * Whether the current state came from a checkpoint rather than a historical bootstrap
+     */
+    default boolean isRestoredFromCheckpoint() {
+        return false;
+    }
+    
+    /**
+     * Get the configuration passed to {@link #initialize}, or null if not exposed
+     */
+    default StrategyConfig getConfig() {
+        return null;
+    }
+    
+    /**
+     * Read candle history and positions from the given services instead of the live ones.
+     * Used on private instances for backtests; live-only outputs (visualization) stay off.
+     * @throws UnsupportedOperationException if the strategy depends on live-only services
+     */
+    default void useIsolatedServices(AccountManager accountManager, CandlestickHistoryService historyService) {
+        throw new UnsupportedOperationException(getStrategyName() + " cannot run on isolated services");
+    }
 }
@@ -1,7 +1,11 @@
 package org.cloudvision.trading.bot.strategy.impl;
 
+import org.cloudvision.trading.bot.checkpoint.CheckpointIO;
 import org.cloudvision.trading.bot.indicators.TechnicalIndicators;
-import org.cloudvision.trading.bot.indicators.impl.SMAIndicator;
+import org.cloudvision.trading.bot.indicators.graph.IndicatorGraphRegistry;
+import org.cloudvision.trading.bot.indicators.graph.Series;
+import org.cloudvision.trading.bot.indicators.graph.SeriesBinding;
+import org.cloudvision.trading.bot.indicators.graph.SeriesDefinition;
 import org.cloudvision.trading.bot.model.*;
 import org.cloudvision.trading.bot.strategy.*;
 import org.cloudvision.trading.bot.visualization.StrategyVisualizationData;
@@ -10,9 +14,13 @@ import org.cloudvision.trading.model.CandlestickData;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class MovingAverageStrategy extends AbstractTradingStrategy {
@@ -20,16 +28,19 @@ public class MovingAverageStrategy extends AbstractTradingStrategy {
     @Autowired
     private VisualizationManager visualizationManager;
     
-    @Autowired
-    private SMAIndicator smaIndicator;
+    @Autowired(required = false)
+    private IndicatorGraphRegistry graphRegistry;
     
     // Strategy parameters
     private int shortPeriod = 10;
     private int longPeriod = 20;
     
     // Track previous MA values for crossover detection
-    private final Map<String, BigDecimal> previousShortMA = new HashMap<>();
-    private final Map<String, BigDecimal> previousLongMA = new HashMap<>();
+    private final Map<String, BigDecimal> previousShortMA = new ConcurrentHashMap<>();
+    private final Map<String, BigDecimal> previousLongMA = new ConcurrentHashMap<>();
+    
+    // Short (index 0) and long (index 1) SMA nodes per symbol, shared with SMA indicator instances
+    private final Map<String, SeriesBinding> movingAverages = new ConcurrentHashMap<>();
     
     @Override
     protected List<Order> analyzePrice(PriceData priceData) {
@@ -41,14 +52,23 @@ public class MovingAverageStrategy extends AbstractTradingStrategy {
             return Collections.emptyList();
         }
         
-        List<CandlestickData> candles = getCandlestickHistory(symbol, getMaxHistorySize());
-        
-        // Calculate moving averages using SMAIndicator with new event-driven API
-        Map<String, Object> shortParams = Map.of("period", shortPeriod);
-        Map<String, Object> longParams = Map.of("period", longPeriod);
-        
-        BigDecimal shortMA = calculateSMA(candles, shortParams);
-        BigDecimal longMA = calculateSMA(candles, longParams);
+        // Moving averages come from the symbol's SMA nodes, advanced once per closed candle.
+        // A closed candle reads the values after that candle: the indicator lane may have advanced the nodes further.
+        SeriesBinding averages = subscribeMovingAverages(symbol);
+        CandlestickData candle = priceData.rawData.getCandlestickData();
+        BigDecimal shortMA;
+        BigDecimal longMA;
+        if (candle != null && candle.isClosed()) {
+            averages.advance(candle);
+            shortMA = averages.getValueAt(0, candle);
+            longMA = averages.getValueAt(1, candle);
+        } else {
+            shortMA = averages.getValue(0);
+            longMA = averages.getValue(1);
+        }
+        if (shortMA == null || longMA == null) {
+            return Collections.emptyList();
+        }
         
         // Get previous MA values for crossover detection
         BigDecimal prevShortMA = previousShortMA.get(symbol);
@@ -195,6 +215,9 @@ public class MovingAverageStrategy extends AbstractTradingStrategy {
             this.longPeriod = (Integer) config.getParameter("longPeriod");
         }
         
+        // Periods may have changed
+        releaseMovingAverages();
+        
         // Register with visualization manager
         if (visualizationManager != null) {
             visualizationManager.registerStrategy(getStrategyId(), getSymbols());
@@ -216,10 +239,29 @@ public class MovingAverageStrategy extends AbstractTradingStrategy {
         // Clear MA-specific state
         previousShortMA.clear();
         previousLongMA.clear();
+        releaseMovingAverages();
         
         System.out.println("🔄 MA Strategy: Cleared previous MA values");
     }
     
+    @Override
+    protected boolean supportsCheckpoint() {
+        return true;
+    }
+    
+    @Override
+    protected void writeStrategyState(DataOutputStream out) throws IOException {
+        // Previous MAs for crossover detection; the SMA nodes are rebuilt from candle history
+        CheckpointIO.writeDecimalMap(out, previousShortMA);
+        CheckpointIO.writeDecimalMap(out, previousLongMA);
+    }
+    
+    @Override
+    protected void readStrategyState(DataInputStream in) throws IOException {
+        previousShortMA.putAll(CheckpointIO.readDecimalMap(in));
+        previousLongMA.putAll(CheckpointIO.readDecimalMap(in));
+    }
+    
     @Override
     public Map<String, IndicatorMetadata> getIndicatorMetadata() {
         Map<String, IndicatorMetadata> metadata = new HashMap<>();
@@ -267,11 +309,12 @@ public class MovingAverageStrategy extends AbstractTradingStrategy {
             List<CandlestickData> candles = getCandlestickHistory(symbol, getMaxHistorySize());
             
             if (candles.size() >= longPeriod) {
-                Map<String, Object> shortParams = Map.of("period", shortPeriod);
-                Map<String, Object> longParams = Map.of("period", longPeriod);
-                
-                BigDecimal shortMA = calculateSMA(candles, shortParams);
-                BigDecimal longMA = calculateSMA(candles, longParams);
+                SeriesBinding averages = subscribeMovingAverages(symbol);
+                BigDecimal shortMA = averages.getValue(0);
+                BigDecimal longMA = averages.getValue(1);
+                if (shortMA == null || longMA == null) {
+                    continue;
+                }
                 
                 // Store initial MA values for crossover detection
                 previousShortMA.put(symbol, shortMA);
@@ -320,30 +363,24 @@ public class MovingAverageStrategy extends AbstractTradingStrategy {
                 symbolIntervals.put(symbol, candles.get(0).getInterval());
             }
             
-            // Build price history progressively - simulating how candles arrive in real-time
+            // Advance private SMA nodes candle by candle - simulating how candles arrive in real-time
+            SeriesDefinition close = Series.source("close");
+            SeriesBinding averages = SeriesBinding.detached(List.of(
+                Series.sma(close, shortPeriod), Series.sma(close, longPeriod)
+            ));
             int generatedCount = 0;
             BigDecimal prevShortMA = null;
             BigDecimal prevLongMA = null;
             
-            // For each candle, calculate indicators based ONLY on candles up to that point
-            for (int i = 0; i < candles.size(); i++) {
-                CandlestickData currentCandle = candles.get(i);
+            // Each value depends ONLY on candles up to that point
+            for (CandlestickData currentCandle : candles) {
+                averages.advance(currentCandle);
                 
-                // Get all candles from start up to current candle (inclusive)
-                List<CandlestickData> progressiveCandles = new ArrayList<>();
-                for (int j = 0; j <= i; j++) {
-                    progressiveCandles.add(candles.get(j));
-                }
+                BigDecimal shortMA = averages.getValue(0);
+                BigDecimal longMA = averages.getValue(1);
                 
-                // Only calculate indicators once we have enough data
-                if (progressiveCandles.size() >= longPeriod) {
-                    // Calculate indicators using the same method as real-time
-                    Map<String, Object> shortParams = Map.of("period", shortPeriod);
-                    Map<String, Object> longParams = Map.of("period", longPeriod);
-                    
-                    BigDecimal shortMA = calculateSMA(progressiveCandles, shortParams);
-                    BigDecimal longMA = calculateSMA(progressiveCandles, longParams);
-                    
+                // Only use indicators once we have enough data
+                if (shortMA != null && longMA != null) {
                     // Determine action based on ACTUAL crossover detection
                     String action = "HOLD";
                     if (prevShortMA != null && prevLongMA != null) {
@@ -488,28 +525,34 @@ public class MovingAverageStrategy extends AbstractTradingStrategy {
     }
     
     /**
-     * Helper method to calculate SMA using the new event-driven API
-     * This wraps the new onInit/onNewCandle pattern for convenient use
+     * SMA nodes for a symbol, created on first use: warmed up on the symbol's candle history,
+     * then moved onto the shared graph of its provider/symbol/interval
      */
-    private BigDecimal calculateSMA(List<CandlestickData> candles, Map<String, Object> params) {
-        if (candles == null || candles.isEmpty()) {
-            return BigDecimal.ZERO;
+    private SeriesBinding subscribeMovingAverages(String symbol) {
+        return movingAverages.computeIfAbsent(symbol, s -> {
+            SeriesDefinition close = Series.source("close");
+            SeriesBinding binding = SeriesBinding.detached(List.of(
+                Series.sma(close, shortPeriod), Series.sma(close, longPeriod)
+            ));
+            for (CandlestickData candle : getCandlestickHistory(s, getMaxHistorySize())) {
+                binding.advance(candle);
+            }
+            if (graphRegistry != null && symbolProviders.containsKey(s) && symbolIntervals.containsKey(s)) {
+                graphRegistry.share(symbolProviders.get(s), s, symbolIntervals.get(s), binding);
+            }
+            return binding;
+        });
+    }
+    
+    private void releaseMovingAverages() {
+        for (SeriesBinding binding : movingAverages.values()) {
+            if (graphRegistry != null) {
+                graphRegistry.release(binding);
+            } else {
+                binding.release();
+            }
         }
-        
-        // Initialize indicator with all but the last candle
-        List<CandlestickData> initCandles = candles.size() > 1 
-            ? candles.subList(0, candles.size() - 1) 
-            : Collections.emptyList();
-        Object state = smaIndicator.onInit(initCandles, params);
-        
-        // Process the last candle to get the current value
-        CandlestickData lastCandle = candles.get(candles.size() - 1);
-        Map<String, Object> result = smaIndicator.onNewCandle(lastCandle, params, state);
-        
-        // Extract the SMA value from the result
-        @SuppressWarnings("unchecked")
-        Map<String, BigDecimal> values = (Map<String, BigDecimal>) result.get("values");
-        return values.getOrDefault("sma", BigDecimal.ZERO);
+        movingAverages.clear();
     }
 }
 
@@ -15,6 +15,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Order Block Detector Strategy (Visualization Only)
@@ -88,20 +89,20 @@ public class OrderBlockStrategy extends AbstractTradingStrategy {
     }
     
     // Store order blocks for each symbol
-    private final Map<String, LinkedList<OrderBlock>> bullishOrderBlocks = new HashMap<>();
-    private final Map<String, LinkedList<OrderBlock>> bearishOrderBlocks = new HashMap<>();
+    private final Map<String, LinkedList<OrderBlock>> bullishOrderBlocks = new ConcurrentHashMap<>();
+    private final Map<String, LinkedList<OrderBlock>> bearishOrderBlocks = new ConcurrentHashMap<>();
     
     // Store candlestick history for each symbol
-    private final Map<String, List<BigDecimal>> highHistory = new HashMap<>();
-    private final Map<String, List<BigDecimal>> lowHistory = new HashMap<>();
-    private final Map<String, List<BigDecimal>> volumeHistory = new HashMap<>();
-    private final Map<String, List<Instant>> timestampHistory = new HashMap<>();
+    private final Map<String, List<BigDecimal>> highHistory = new ConcurrentHashMap<>();
+    private final Map<String, List<BigDecimal>> lowHistory = new ConcurrentHashMap<>();
+    private final Map<String, List<BigDecimal>> volumeHistory = new ConcurrentHashMap<>();
+    private final Map<String, List<Instant>> timestampHistory = new ConcurrentHashMap<>();
     
     // Market structure oscillator (0 = uptrend, 1 = downtrend)
-    private final Map<String, Integer> marketStructure = new HashMap<>();
+    private final Map<String, Integer> marketStructure = new ConcurrentHashMap<>();
     
     // Bar index counter
-    private final Map<String, Integer> barIndexCounter = new HashMap<>();
+    private final Map<String, Integer> barIndexCounter = new ConcurrentHashMap<>();
     
     @Override
     protected List<Order> analyzePrice(PriceData priceData) {
@@ -19,6 +19,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Order Flow Trading Strategy
@@ -73,16 +74,16 @@ public class OrderFlowStrategy extends AbstractTradingStrategy {
     private double minVolumeMultiplier = 1.2; // Minimum volume as multiple of average
     
     // State tracking
-    private final Map<String, BigDecimal> previousCVD = new HashMap<>();
-    private final Map<String, List<BigDecimal>> cvdHistory = new HashMap<>();
-    private final Map<String, String> lastDivergenceType = new HashMap<>();
-    private final Map<String, Instant> lastDivergenceTime = new HashMap<>();
-    private final Map<String, BigDecimal> entryPrice = new HashMap<>();
-    private final Map<String, BigDecimal> stopLoss = new HashMap<>();
-    private final Map<String, BigDecimal> takeProfit = new HashMap<>();
+    private final Map<String, BigDecimal> previousCVD = new ConcurrentHashMap<>();
+    private final Map<String, List<BigDecimal>> cvdHistory = new ConcurrentHashMap<>();
+    private final Map<String, String> lastDivergenceType = new ConcurrentHashMap<>();
+    private final Map<String, Instant> lastDivergenceTime = new ConcurrentHashMap<>();
+    private final Map<String, BigDecimal> entryPrice = new ConcurrentHashMap<>();
+    private final Map<String, BigDecimal> stopLoss = new ConcurrentHashMap<>();
+    private final Map<String, BigDecimal> takeProfit = new ConcurrentHashMap<>();
     
     // Visual signal tracking
-    private final Map<String, List<Map<String, Object>>> signalMarkers = new HashMap<>();
+    private final Map<String, List<Map<String, Object>>> signalMarkers = new ConcurrentHashMap<>();
     
     @Override
     protected List<Order> analyzePrice(PriceData priceData) {
@@ -858,6 +859,13 @@ public class OrderFlowStrategy extends AbstractTradingStrategy {
             " | Volume Confirmation: " + useVolumeConfirmation);
     }
     
+    @Override
+    public void useIsolatedServices(org.cloudvision.trading.bot.account.AccountManager accountManager,
+                                    org.cloudvision.trading.service.CandlestickHistoryService historyService) {
+        // Footprints come from the live trade feed and are looked up by wall-clock time
+        throw new UnsupportedOperationException(getStrategyName() + " reads live footprint data and cannot run on isolated services");
+    }
+    
     @Override
     protected int getMaxHistorySize() {
         return Math.max(cvdLookback, divergenceLookback) + 20;
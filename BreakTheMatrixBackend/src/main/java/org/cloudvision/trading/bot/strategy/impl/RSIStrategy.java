@@ -1,6 +1,7 @@
 package org.cloudvision.trading.bot.strategy.impl;
 
 import org.cloudvision.trading.bot.indicators.TechnicalIndicators;
+import org.cloudvision.trading.bot.indicators.streaming.RsiKernel;
 import org.cloudvision.trading.bot.model.Order;
 import org.cloudvision.trading.bot.strategy.AbstractTradingStrategy;
 import org.cloudvision.trading.bot.strategy.IndicatorMetadata;
@@ -223,16 +224,16 @@ public class RSIStrategy extends AbstractTradingStrategy {
             // Sort chronologically by openTime (matches CandlestickHistoryService order)
             candles.sort(Comparator.comparing(CandlestickData::getOpenTime));
             
-            // Build price history progressively and calculate RSI
-            List<BigDecimal> progressivePrices = new ArrayList<>();
+            // Advance a streaming RSI once per candle (same values as calculateRSI over the prefix)
+            RsiKernel rsiKernel = new RsiKernel(rsiPeriod);
             BigDecimal previousSignal = null;
             
             for (CandlestickData candle : candles) {
-                progressivePrices.add(candle.getClose());
+                rsiKernel.update(candle.getClose());
                 
-                // Only calculate RSI once we have enough data
-                if (progressivePrices.size() >= rsiPeriod + 1) {
-                    BigDecimal rsi = TechnicalIndicators.calculateRSI(progressivePrices, rsiPeriod);
+                // Only use RSI once we have enough data
+                if (rsiKernel.isReady()) {
+                    BigDecimal rsi = rsiKernel.getValue();
                     
                     if (rsi != null) {
                         // Determine action based on RSI levels
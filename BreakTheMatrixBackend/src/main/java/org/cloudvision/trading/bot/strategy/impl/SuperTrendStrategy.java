@@ -1,6 +1,9 @@
 package org.cloudvision.trading.bot.strategy.impl;
 
-import org.cloudvision.trading.bot.indicators.TechnicalIndicators;
+import org.cloudvision.trading.bot.indicators.graph.IndicatorGraphRegistry;
+import org.cloudvision.trading.bot.indicators.graph.Series;
+import org.cloudvision.trading.bot.indicators.graph.SeriesBinding;
+import org.cloudvision.trading.bot.indicators.streaming.SuperTrendKernel;
 import org.cloudvision.trading.bot.model.*;
 import org.cloudvision.trading.bot.strategy.*;
 import org.cloudvision.trading.bot.visualization.StrategyVisualizationData;
@@ -14,6 +17,7 @@ import org.springframework.stereotype.Component;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
@@ -22,17 +26,16 @@ public class SuperTrendStrategy extends AbstractTradingStrategy {
     @Autowired
     private VisualizationManager visualizationManager;
     
+    @Autowired(required = false)
+    private IndicatorGraphRegistry graphRegistry;
+    
     // Strategy parameters
     private int atrPeriod = 10;
     private BigDecimal atrMultiplier = new BigDecimal("3");
     
-    // Store candle data (high, low, close) for each symbol
-    private final Map<String, List<BigDecimal>> highHistory = new HashMap<>();
-    private final Map<String, List<BigDecimal>> lowHistory = new HashMap<>();
-    
-    // Store previous SuperTrend values for calculation
-    private final Map<String, BigDecimal> previousSuperTrend = new HashMap<>();
-    private final Map<String, BigDecimal> previousDirection = new HashMap<>();
+    // Streaming SuperTrend per symbol, advanced once per closed candle. The ATR comes from the symbol's
+    // shared atr node; the historical visualization computes it the same way, so live and chart values agree.
+    private final Map<String, SymbolSuperTrend> superTrends = new ConcurrentHashMap<>();
     
     @Override
     protected List<Order> analyzePrice(PriceData priceData) {
@@ -46,36 +49,22 @@ public class SuperTrendStrategy extends AbstractTradingStrategy {
         
         CandlestickData candle = priceData.rawData.getCandlestickData();
         
-        // Update high/low history
-        updateCandleHistory(symbol, candle.getHigh(), candle.getLow());
-        
-        // Need enough data for SuperTrend calculation
-        if (!hasEnoughData(symbol, atrPeriod + 1)) {
-            return Collections.emptyList();
-        }
-        
-        List<BigDecimal> highs = highHistory.get(symbol);
-        List<BigDecimal> lows = lowHistory.get(symbol);
-        List<BigDecimal> closes = getPriceHistory(symbol);
+        // No state yet (first candle since start or reset): replay the stored history
+        SymbolSuperTrend symbolSuperTrend = superTrends.computeIfAbsent(symbol,
+            k -> subscribe(symbol, getCandlestickHistory(symbol, getMaxHistorySize()), candle.getOpenTime()));
+        SuperTrendKernel kernel = symbolSuperTrend.kernel;
         
         // Calculate SuperTrend
-        BigDecimal[] superTrendResult = TechnicalIndicators.calculateSuperTrend(
-            highs, lows, closes, atrPeriod, atrMultiplier,
-            previousSuperTrend.get(symbol),
-            previousDirection.get(symbol)
-        );
+        int previousDirection = kernel.getDirection();
+        BigDecimal superTrend = symbolSuperTrend.update(candle);
         
-        if (superTrendResult == null) {
+        // Need enough data for SuperTrend calculation
+        if (superTrend == null) {
             return Collections.emptyList();
         }
         
-        BigDecimal superTrend = superTrendResult[0];
-        BigDecimal direction = superTrendResult[1];
-        
-        // Update stored values for next calculation
-        previousSuperTrend.put(symbol, superTrend);
-        BigDecimal oldDirection = previousDirection.get(symbol);
-        previousDirection.put(symbol, direction);
+        BigDecimal direction = BigDecimal.valueOf(kernel.getDirection());
+        BigDecimal oldDirection = previousDirection != 0 ? BigDecimal.valueOf(previousDirection) : null;
         
         // Generate trading signals
         List<Order> orders = new ArrayList<>();
@@ -238,12 +227,9 @@ public class SuperTrendStrategy extends AbstractTradingStrategy {
         super.reset();
         
         // Clear SuperTrend-specific state
-        highHistory.clear();
-        lowHistory.clear();
-        previousSuperTrend.clear();
-        previousDirection.clear();
+        releaseSuperTrends();
         
-        System.out.println("🔄 SuperTrend Strategy: Cleared high/low history and previous SuperTrend values");
+        System.out.println("🔄 SuperTrend Strategy: Cleared SuperTrend state");
     }
     
     @Override
@@ -273,23 +259,17 @@ public class SuperTrendStrategy extends AbstractTradingStrategy {
             String symbol = entry.getKey();
             List<CandlestickData> candles = entry.getValue();
             
-            if (candles.size() >= atrPeriod + 1) {
-                List<BigDecimal> highs = highHistory.get(symbol);
-                List<BigDecimal> lows = lowHistory.get(symbol);
-                List<BigDecimal> closes = getPriceHistory(symbol);
-                
-                BigDecimal[] result = TechnicalIndicators.calculateSuperTrend(
-                    highs, lows, closes, atrPeriod, atrMultiplier, null, null
-                );
-                
-                if (result != null) {
-                    previousSuperTrend.put(symbol, result[0]);
-                    previousDirection.put(symbol, result[1]);
-                    
-                    // Pine Script convention: direction < 0 = uptrend (bullish), direction > 0 = downtrend (bearish)
-                    System.out.println("📊 " + symbol + " initial SuperTrend: " + result[0] + 
-                                     " (" + (result[1].compareTo(BigDecimal.ZERO) < 0 ? "BULLISH" : "BEARISH") + ")");
-                }
+            SymbolSuperTrend superTrend = subscribe(symbol, candles, null);
+            SymbolSuperTrend previous = superTrends.put(symbol, superTrend);
+            if (previous != null) {
+                release(previous);
+            }
+            SuperTrendKernel kernel = superTrend.kernel;
+            
+            if (kernel.isReady()) {
+                // Pine Script convention: direction < 0 = uptrend (bullish), direction > 0 = downtrend (bearish)
+                System.out.println("📊 " + symbol + " initial SuperTrend: " + kernel.getValue() + 
+                                 " (" + (kernel.isUptrend() ? "BULLISH" : "BEARISH") + ")");
             }
         }
     }
@@ -317,49 +297,38 @@ public class SuperTrendStrategy extends AbstractTradingStrategy {
             // Sort chronologically by openTime (matches CandlestickHistoryService order)
             candles.sort(Comparator.comparing(CandlestickData::getOpenTime));
             
-            // Build price history progressively and calculate indicators
-            List<BigDecimal> progressiveHighs = new ArrayList<>();
-            List<BigDecimal> progressiveLows = new ArrayList<>();
-            List<BigDecimal> progressiveCloses = new ArrayList<>();
-            BigDecimal prevST = null;
+            // Advance a private SuperTrend once per closed candle (rolling ATR over the last atrPeriod bars)
+            SymbolSuperTrend superTrendSeries = new SymbolSuperTrend(atrPeriod, atrMultiplier);
             BigDecimal prevDir = null;
             
             for (CandlestickData candle : candles) {
-                progressiveHighs.add(candle.getHigh());
-                progressiveLows.add(candle.getLow());
-                progressiveCloses.add(candle.getClose());
+                if (!candle.isClosed()) {
+                    continue;
+                }
+                BigDecimal superTrend = superTrendSeries.update(candle);
                 
-                // Only calculate indicators once we have enough data
-                if (progressiveCloses.size() >= atrPeriod + 1) {
-                    BigDecimal[] result = TechnicalIndicators.calculateSuperTrend(
-                        progressiveHighs, progressiveLows, progressiveCloses, 
-                        atrPeriod, atrMultiplier, prevST, prevDir
-                    );
+                // Only use indicators once we have enough data
+                if (superTrend != null) {
+                    BigDecimal direction = BigDecimal.valueOf(superTrendSeries.kernel.getDirection());
                     
-                    if (result != null) {
-                        BigDecimal superTrend = result[0];
-                        BigDecimal direction = result[1];
-                        
-                        // Determine action based on direction change
-                        // Pine Script convention: direction < 0 = uptrend, direction > 0 = downtrend
-                        String action = "HOLD";
-                        if (prevDir != null) {
-                            if (direction.compareTo(BigDecimal.ZERO) < 0 && 
-                                prevDir.compareTo(BigDecimal.ZERO) > 0) {
-                                action = "BUY"; // Switched from downtrend to uptrend
-                            } else if (direction.compareTo(BigDecimal.ZERO) > 0 && 
-                                      prevDir.compareTo(BigDecimal.ZERO) < 0) {
-                                action = "SELL"; // Switched from uptrend to downtrend
-                            }
+                    // Determine action based on direction change
+                    // Pine Script convention: direction < 0 = uptrend, direction > 0 = downtrend
+                    String action = "HOLD";
+                    if (prevDir != null) {
+                        if (direction.compareTo(BigDecimal.ZERO) < 0 && 
+                            prevDir.compareTo(BigDecimal.ZERO) > 0) {
+                            action = "BUY"; // Switched from downtrend to uptrend
+                        } else if (direction.compareTo(BigDecimal.ZERO) > 0 && 
+                                  prevDir.compareTo(BigDecimal.ZERO) < 0) {
+                            action = "SELL"; // Switched from uptrend to downtrend
                         }
-                        
-                        // Generate visualization data
-                        generateVisualizationData(symbol, candle.getClose(), superTrend, 
-                                                direction, action, candle.getCloseTime());
-                        
-                        prevST = superTrend;
-                        prevDir = direction;
                     }
+                    
+                    // Generate visualization data
+                    generateVisualizationData(symbol, candle.getClose(), superTrend, 
+                                            direction, action, candle.getCloseTime());
+                    
+                    prevDir = direction;
                 }
             }
             
@@ -369,20 +338,38 @@ public class SuperTrendStrategy extends AbstractTradingStrategy {
     }
     
     /**
-     * Update high/low history for a symbol
+     * SuperTrend for a symbol, advanced over the closed candles (oldest first) that open before
+     * {@code before}, then moved onto the shared graph of its provider/symbol/interval
+     * @param before Open time bound, or null for all candles
      */
-    private void updateCandleHistory(String symbol, BigDecimal high, BigDecimal low) {
-        List<BigDecimal> highs = highHistory.computeIfAbsent(symbol, k -> new ArrayList<>());
-        List<BigDecimal> lows = lowHistory.computeIfAbsent(symbol, k -> new ArrayList<>());
-        
-        highs.add(high);
-        lows.add(low);
-        
-        // Keep history manageable
-        int maxHistorySize = getMaxHistorySize();
-        if (highs.size() > maxHistorySize + 10) {
-            highs.subList(0, highs.size() - maxHistorySize - 5).clear();
-            lows.subList(0, lows.size() - maxHistorySize - 5).clear();
+    private SymbolSuperTrend subscribe(String symbol, List<CandlestickData> candles, java.time.Instant before) {
+        SymbolSuperTrend superTrend = new SymbolSuperTrend(atrPeriod, atrMultiplier);
+        for (CandlestickData candle : candles) {
+            if (before != null && !candle.getOpenTime().isBefore(before)) {
+                break;
+            }
+            if (candle.isClosed()) {
+                superTrend.update(candle);
+            }
+        }
+        if (graphRegistry != null && symbolProviders.containsKey(symbol) && symbolIntervals.containsKey(symbol)) {
+            graphRegistry.share(symbolProviders.get(symbol), symbol, symbolIntervals.get(symbol), superTrend.atr);
+        }
+        return superTrend;
+    }
+    
+    private void releaseSuperTrends() {
+        for (SymbolSuperTrend superTrend : superTrends.values()) {
+            release(superTrend);
+        }
+        superTrends.clear();
+    }
+    
+    private void release(SymbolSuperTrend superTrend) {
+        if (graphRegistry != null) {
+            graphRegistry.release(superTrend.atr);
+        } else {
+            superTrend.atr.release();
         }
     }
     
@@ -440,19 +427,34 @@ public class SuperTrendStrategy extends AbstractTradingStrategy {
     }
     
     /**
-     * Calculate current ATR for a symbol (for visualization)
+     * Current ATR for a symbol (for visualization), same rolling definition as the SuperTrend bands
      */
     private BigDecimal calculateCurrentATR(String symbol) {
-        List<BigDecimal> highs = highHistory.get(symbol);
-        List<BigDecimal> lows = lowHistory.get(symbol);
-        List<BigDecimal> closes = getPriceHistory(symbol);
+        SymbolSuperTrend superTrend = superTrends.get(symbol);
+        BigDecimal atr = superTrend != null ? superTrend.atr.getValue(0) : null;
+        return atr != null ? atr : BigDecimal.ZERO;
+    }
+    
+    /**
+     * SuperTrend of one symbol: ATR from an atr series node (shared once live), bands and direction from the kernel
+     */
+    private static final class SymbolSuperTrend {
+        final SeriesBinding atr;
+        final SuperTrendKernel kernel;
         
-        if (highs != null && lows != null && closes != null && 
-            closes.size() >= atrPeriod + 1) {
-            return TechnicalIndicators.calculateATR(highs, lows, closes, atrPeriod);
+        SymbolSuperTrend(int atrPeriod, BigDecimal multiplier) {
+            this.atr = SeriesBinding.detached(List.of(Series.atr(atrPeriod, false)));
+            this.kernel = new SuperTrendKernel(atrPeriod, multiplier);
         }
         
-        return BigDecimal.ZERO;
+        /**
+         * Advance to a closed candle
+         * @return SuperTrend after the candle, or null until ATR period + 1 candles were seen
+         */
+        BigDecimal update(CandlestickData candle) {
+            atr.advance(candle);
+            // By open time: the shared node may already be past this candle
+            return kernel.update(candle.getHigh(), candle.getLow(), candle.getClose(), atr.getValueAt(0, candle));
+        }
     }
 }
-
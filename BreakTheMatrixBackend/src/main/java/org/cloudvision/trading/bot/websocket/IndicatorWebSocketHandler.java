@@ -8,10 +8,14 @@ import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.cloudvision.trading.bot.TradingBot;
+import org.cloudvision.trading.service.MarketDataBus.BackpressurePolicy;
 import org.cloudvision.trading.bot.indicators.IndicatorInstanceManager;
 import org.cloudvision.trading.bot.model.IndicatorResponse;
 import org.cloudvision.trading.model.CandlestickData;
 import org.cloudvision.trading.model.TradingData;
+import org.cloudvision.trading.websocket.BinaryFrameEncoder;
+import org.cloudvision.trading.websocket.OutboundFrame;
+import org.cloudvision.trading.websocket.WebSocketBroadcaster;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
@@ -21,6 +25,7 @@ import org.springframework.web.socket.handler.TextWebSocketHandler;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * WebSocket handler for streaming real-time indicator updates
@@ -37,6 +42,8 @@ import java.util.concurrent.ConcurrentHashMap;
  * Message Format:
  * {"action": "subscribe", "instanceKeys": ["Binance:BTCUSDT:5m:sma:7a8b9c"]}
  * {"action": "subscribeContext", "provider": "Binance", "symbol": "BTCUSDT", "interval": "5m"}
+ * Both subscribe actions accept "encoding": "binary" for candle and indicator-value frames
+ * (see BinaryFrameEncoder); updates carrying shapes or other extra data stay JSON.
  * {"action": "unsubscribe"}
  * {"action": "listActive"}
  */
@@ -63,6 +70,7 @@ public class IndicatorWebSocketHandler extends TextWebSocketHandler {
     
     private final TradingBot tradingBot;
     private final IndicatorInstanceManager instanceManager;
+    private final WebSocketBroadcaster broadcaster;
     private final ObjectMapper objectMapper;
     
     // Active WebSocket sessions
@@ -75,9 +83,11 @@ public class IndicatorWebSocketHandler extends TextWebSocketHandler {
     private final Map<String, Set<String>> sessionContextSubscriptions = new ConcurrentHashMap<>();
     
     public IndicatorWebSocketHandler(TradingBot tradingBot, 
-                                     IndicatorInstanceManager instanceManager) {
+                                     IndicatorInstanceManager instanceManager,
+                                     WebSocketBroadcaster broadcaster) {
         this.tradingBot = tradingBot;
         this.instanceManager = instanceManager;
+        this.broadcaster = broadcaster;
         
         // Configure ObjectMapper
         this.objectMapper = new ObjectMapper();
@@ -89,14 +99,18 @@ public class IndicatorWebSocketHandler extends TextWebSocketHandler {
         bigDecimalModule.addSerializer(java.math.BigDecimal.class, new BigDecimalSerializer());
         this.objectMapper.registerModule(bigDecimalModule);
         
-        // Register with TradingBot to receive candlestick data
-        this.tradingBot.addDataHandler(this::processData);
+        // Register with TradingBot to receive candlestick data. Closed candles advance indicator
+        // state and must never be dropped, so they get their own blocking subscription; chart
+        // updates and ticks stay on the lossy one
+        this.tradingBot.addDataHandler("indicator-candles", BackpressurePolicy.BLOCK, this::processClosedCandle);
+        this.tradingBot.addDataHandler("indicator-websocket", BackpressurePolicy.CONFLATE_BY_SYMBOL, this::processData);
         
         System.out.println("✅ IndicatorWebSocketHandler initialized");
     }
     
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        broadcaster.register("indicator", session);
         sessions.put(session.getId(), session);
         System.out.println("📡 Indicator WebSocket connected: " + session.getId());
         
@@ -107,7 +121,7 @@ public class IndicatorWebSocketHandler extends TextWebSocketHandler {
             "actions", Arrays.asList("subscribe", "subscribeContext", "unsubscribe", "listActive")
         );
         
-        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(welcomeMessage)));
+        broadcaster.send(session, new TextMessage(objectMapper.writeValueAsString(welcomeMessage)));
     }
     
     @Override
@@ -116,6 +130,7 @@ public class IndicatorWebSocketHandler extends TextWebSocketHandler {
         sessions.remove(sessionId);
         sessionSubscriptions.remove(sessionId);
         sessionContextSubscriptions.remove(sessionId);
+        broadcaster.unregister(session);
         
         System.out.println("📡 Indicator WebSocket disconnected: " + sessionId);
     }
@@ -169,6 +184,8 @@ public class IndicatorWebSocketHandler extends TextWebSocketHandler {
             k -> ConcurrentHashMap.newKeySet()
         );
         
+        applyEncoding(session, messageData);
+        
         List<String> valid = new ArrayList<>();
         List<String> invalid = new ArrayList<>();
         
@@ -189,11 +206,20 @@ public class IndicatorWebSocketHandler extends TextWebSocketHandler {
             response.put("invalidInstances", invalid);
         }
         
-        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(response)));
+        broadcaster.send(session, new TextMessage(objectMapper.writeValueAsString(response)));
         System.out.println("✅ Session " + session.getId() + " subscribed to " + 
                          valid.size() + " indicator(s)");
     }
     
+    /**
+     * Optional "encoding": "json" (default) or "binary" for this session's data frames
+     */
+    private void applyEncoding(WebSocketSession session, Map<String, Object> messageData) {
+        if (messageData.containsKey("encoding")) {
+            broadcaster.setEncoding(session, WebSocketBroadcaster.Encoding.parse(messageData.get("encoding")));
+        }
+    }
+    
     private void handleSubscribeContext(WebSocketSession session, Map<String, Object> messageData) 
             throws IOException {
         String provider = (String) messageData.get("provider");
@@ -213,6 +239,7 @@ public class IndicatorWebSocketHandler extends TextWebSocketHandler {
             k -> ConcurrentHashMap.newKeySet()
         );
         contextSubscriptions.add(contextKey);
+        applyEncoding(session, messageData);
         
         // Get current active instances for this context
         List<IndicatorInstanceManager.IndicatorInstance> instances = 
@@ -228,7 +255,7 @@ public class IndicatorWebSocketHandler extends TextWebSocketHandler {
             "activeInstances", instances.size()
         );
         
-        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(response)));
+        broadcaster.send(session, new TextMessage(objectMapper.writeValueAsString(response)));
         System.out.println("✅ Session " + session.getId() + " subscribed to context " + contextKey);
     }
     
@@ -241,7 +268,7 @@ public class IndicatorWebSocketHandler extends TextWebSocketHandler {
             "message", "Unsubscribed from all indicator updates"
         );
         
-        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(response)));
+        broadcaster.send(session, new TextMessage(objectMapper.writeValueAsString(response)));
         System.out.println("✅ Session " + session.getId() + " unsubscribed from all indicators");
     }
     
@@ -267,7 +294,7 @@ public class IndicatorWebSocketHandler extends TextWebSocketHandler {
             "instances", instanceData
         );
         
-        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(response)));
+        broadcaster.send(session, new TextMessage(objectMapper.writeValueAsString(response)));
     }
     
     // ============================================================
@@ -275,7 +302,17 @@ public class IndicatorWebSocketHandler extends TextWebSocketHandler {
     // ============================================================
     
     /**
-     * Process incoming trading data and update indicators
+     * Apply closed candles to the indicator instances (lossless subscription)
+     */
+    private void processClosedCandle(TradingData data) {
+        if (data.hasCandlestickData() && data.getCandlestickData().isClosed()) {
+            processCandleClose(data.getCandlestickData());
+        }
+    }
+    
+    /**
+     * Broadcast candle updates and real-time ticks (lossy subscription; closed candles
+     * are applied by processClosedCandle)
      */
     private void processData(TradingData data) {
         // Process candlestick data (closed candles and real-time ticks)
@@ -285,10 +322,7 @@ public class IndicatorWebSocketHandler extends TextWebSocketHandler {
             // Broadcast raw candle update to all sessions (for chart updates)
             broadcastCandleUpdate(candle);
             
-            if (candle.isClosed()) {
-                // Closed candle - full indicator update
-                processCandleClose(candle);
-            } else {
+            if (!candle.isClosed()) {
                 // Real-time tick - update indicators with current price
                 processTick(candle.getProvider(), candle.getSymbol(), 
                            candle.getInterval(), candle.getClose());
@@ -318,13 +352,8 @@ public class IndicatorWebSocketHandler extends TextWebSocketHandler {
             return; // No active indicators for this context
         }
         
-        // Broadcast updates to subscribed sessions
-        for (Map.Entry<String, IndicatorInstanceManager.IndicatorResult> entry : results.entrySet()) {
-            String instanceKey = entry.getKey();
-            IndicatorInstanceManager.IndicatorResult result = entry.getValue();
-            
-            broadcastIndicatorUpdate(instanceKey, result, candle);
-        }
+        // One batched frame per session instead of one frame per indicator
+        broadcastIndicatorBatch(results, candle);
     }
     
     /**
@@ -367,64 +396,91 @@ public class IndicatorWebSocketHandler extends TextWebSocketHandler {
     }
     
     /**
-     * Broadcast indicator update to subscribed sessions
+     * Broadcast the results of one candle close to subscribed sessions, all indicators in one
+     * "indicatorBatch" frame. Sessions that picked only some instances get a frame with just
+     * those; sessions with the same selection share one encoded frame.
      */
-    private void broadcastIndicatorUpdate(String instanceKey, 
-                                         IndicatorInstanceManager.IndicatorResult result,
+    private void broadcastIndicatorBatch(Map<String, IndicatorInstanceManager.IndicatorResult> results,
                                          CandlestickData candle) {
         try {
-            IndicatorInstanceManager.IndicatorInstance instance = 
-                instanceManager.getInstance(instanceKey);
-            
-            if (instance == null) {
-                return;
-            }
-            
             String contextKey = String.format("%s:%s:%s", 
-                instance.getProvider(), instance.getSymbol(), instance.getInterval());
-            
-            // Create unified response for WebSocket update
-            IndicatorResponse indicatorResponse = IndicatorResponse.forWebSocketUpdate(
-                instance, 
-                result, 
-                candle
-            );
-            
-            // Build update message wrapper
-            Map<String, Object> updateMessage = new HashMap<>();
-            updateMessage.put("type", "indicatorUpdate");
-            updateMessage.put("data", indicatorResponse);
-            
-            TextMessage message = new TextMessage(objectMapper.writeValueAsString(updateMessage));
+                candle.getProvider(), candle.getSymbol(), candle.getInterval());
             
-            // Send to subscribed sessions
+            Map<List<String>, OutboundFrame> framesBySelection = new HashMap<>();
             int sentCount = 0;
             for (Map.Entry<String, WebSocketSession> sessionEntry : sessions.entrySet()) {
-                String sessionId = sessionEntry.getKey();
-                WebSocketSession session = sessionEntry.getValue();
-                
-                try {
-                    if (session.isOpen() && shouldSendToSession(sessionId, instanceKey, contextKey)) {
-                        session.sendMessage(message);
-                        sentCount++;
+                List<String> selection = new ArrayList<>();
+                for (String instanceKey : results.keySet()) {
+                    if (shouldSendToSession(sessionEntry.getKey(), instanceKey, contextKey)) {
+                        selection.add(instanceKey);
                     }
-                } catch (IOException e) {
-                    System.err.println("❌ Failed to send indicator update to session " + 
-                                     sessionId + ": " + e.getMessage());
                 }
+                if (selection.isEmpty()) {
+                    continue;
+                }
+                
+                // Encoded once per wire format; closed-candle updates are never conflated
+                OutboundFrame frame = framesBySelection.computeIfAbsent(selection,
+                    keys -> buildIndicatorBatchFrame(keys, results, candle));
+                broadcaster.send(sessionEntry.getValue(), frame, null);
+                sentCount++;
             }
             
             if (sentCount > 0) {
-                System.out.println("📤 Broadcast indicator update (" + instance.getIndicatorId() + 
-                                 ") to " + sentCount + " session(s)");
+                System.out.println("📤 Broadcast " + results.size() + " indicator update(s) for " + contextKey +
+                                 " to " + sentCount + " session(s)");
             }
             
         } catch (Exception e) {
-            System.err.println("❌ Failed to broadcast indicator update: " + e.getMessage());
+            System.err.println("❌ Failed to broadcast indicator updates: " + e.getMessage());
             e.printStackTrace();
         }
     }
     
+    private OutboundFrame buildIndicatorBatchFrame(List<String> instanceKeys,
+                                                   Map<String, IndicatorInstanceManager.IndicatorResult> results,
+                                                   CandlestickData candle) {
+        List<String> keys = new ArrayList<>();
+        List<IndicatorInstanceManager.IndicatorInstance> instances = new ArrayList<>();
+        List<IndicatorInstanceManager.IndicatorResult> selected = new ArrayList<>();
+        List<Map<String, java.math.BigDecimal>> values = new ArrayList<>();
+        boolean binaryCompatible = true;
+        for (String instanceKey : instanceKeys) {
+            IndicatorInstanceManager.IndicatorInstance instance = instanceManager.getInstance(instanceKey);
+            if (instance == null) {
+                continue; // deactivated while the candle was processed
+            }
+            IndicatorInstanceManager.IndicatorResult result = results.get(instanceKey);
+            keys.add(instanceKey);
+            instances.add(instance);
+            selected.add(result);
+            values.add(result.getValues());
+            binaryCompatible &= result.getAdditionalData().isEmpty();
+        }
+        
+        Supplier<Object> json = () -> {
+            List<IndicatorResponse> updates = new ArrayList<>(instances.size());
+            for (int i = 0; i < instances.size(); i++) {
+                updates.add(IndicatorResponse.forWebSocketUpdate(instances.get(i), selected.get(i), candle));
+            }
+            Map<String, Object> batchMessage = new HashMap<>();
+            batchMessage.put("type", "indicatorBatch");
+            batchMessage.put("provider", candle.getProvider());
+            batchMessage.put("symbol", candle.getSymbol());
+            batchMessage.put("interval", candle.getInterval());
+            batchMessage.put("timestamp", candle.getOpenTime());
+            batchMessage.put("count", updates.size());
+            batchMessage.put("updates", updates);
+            return batchMessage;
+        };
+        
+        // Binary only when every update is plain values (shapes and colors need JSON)
+        return new OutboundFrame(objectMapper, json, binaryCompatible
+            ? () -> BinaryFrameEncoder.encodeIndicatorBatch(candle.getSymbol(), candle.getOpenTime(),
+                                                           candle.getClose(), keys, values)
+            : null);
+    }
+    
     /**
      * Broadcast raw candlestick update to all sessions subscribed to this context
      */
@@ -455,22 +511,18 @@ public class IndicatorWebSocketHandler extends TextWebSocketHandler {
             candleData.put("closed", candle.isClosed());
             updateMessage.put("candle", candleData);
             
-            TextMessage message = new TextMessage(objectMapper.writeValueAsString(updateMessage));
+            // Encoded once per wire format; updates of the same forming candle replace each other in slow queues
+            OutboundFrame frame = new OutboundFrame(objectMapper, () -> updateMessage,
+                                                    () -> BinaryFrameEncoder.encodeCandle(candle));
+            String conflationKey = candle.isClosed() ? null
+                : "candle|" + contextKey + "|" + candle.getOpenTime().toEpochMilli();
             
             // Send to all sessions subscribed to this context
             int sentCount = 0;
             for (Map.Entry<String, WebSocketSession> entry : sessions.entrySet()) {
-                String sessionId = entry.getKey();
-                WebSocketSession session = entry.getValue();
-                
-                try {
-                    if (session.isOpen() && shouldSendToContext(sessionId, contextKey)) {
-                        session.sendMessage(message);
-                        sentCount++;
-                    }
-                } catch (IOException e) {
-                    System.err.println("❌ Failed to send candle update to session " + 
-                                     sessionId + ": " + e.getMessage());
+                if (shouldSendToContext(entry.getKey(), contextKey)) {
+                    broadcaster.send(entry.getValue(), frame, conflationKey);
+                    sentCount++;
                 }
             }
             
@@ -522,22 +574,20 @@ public class IndicatorWebSocketHandler extends TextWebSocketHandler {
             updateMessage.put("price", price);
             updateMessage.put("data", indicatorResponse);
             
-            TextMessage message = new TextMessage(objectMapper.writeValueAsString(updateMessage));
+            // Encoded once per wire format; only the latest tick per instance matters to a slow client
+            OutboundFrame frame = new OutboundFrame(objectMapper, () -> updateMessage,
+                () -> result.getAdditionalData().isEmpty()
+                    ? BinaryFrameEncoder.encodeIndicator(symbol, instanceKey, result.getTimestamp(),
+                                                         price, result.getValues(), true)
+                    : null);
+            String conflationKey = "tick|" + instanceKey;
             
             // Send to subscribed sessions
             int sentCount = 0;
             for (Map.Entry<String, WebSocketSession> sessionEntry : sessions.entrySet()) {
-                String sessionId = sessionEntry.getKey();
-                WebSocketSession session = sessionEntry.getValue();
-                
-                try {
-                    if (session.isOpen() && shouldSendToSession(sessionId, instanceKey, contextKey)) {
-                        session.sendMessage(message);
-                        sentCount++;
-                    }
-                } catch (IOException e) {
-                    System.err.println("❌ Failed to send tick update to session " + 
-                                     sessionId + ": " + e.getMessage());
+                if (shouldSendToSession(sessionEntry.getKey(), instanceKey, contextKey)) {
+                    broadcaster.send(sessionEntry.getValue(), frame, conflationKey);
+                    sentCount++;
                 }
             }
             
@@ -578,7 +628,7 @@ public class IndicatorWebSocketHandler extends TextWebSocketHandler {
                 "type", "error",
                 "error", errorMessage
             );
-            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(error)));
+            broadcaster.send(session, new TextMessage(objectMapper.writeValueAsString(error)));
         } catch (IOException e) {
             System.err.println("Failed to send error message: " + e.getMessage());
         }
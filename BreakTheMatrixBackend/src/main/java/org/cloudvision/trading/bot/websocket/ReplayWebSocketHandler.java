@@ -4,7 +4,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.cloudvision.trading.bot.indicators.IndicatorInstanceManager;
+import org.cloudvision.trading.bot.model.ColumnarIndicatorHistory;
 import org.cloudvision.trading.bot.model.IndicatorResponse;
+import org.cloudvision.trading.bot.replay.ReplayBatch;
 import org.cloudvision.trading.bot.replay.ReplayEvent;
 import org.cloudvision.trading.bot.replay.ReplayService;
 import org.cloudvision.trading.bot.replay.ReplaySession;
@@ -22,11 +24,13 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * WebSocket handler for streaming replay updates
  * Clients subscribe to replay sessions and receive real-time updates
+ * Turbo sessions send one "replayBatch" message per batch, in the columnar history layout
  */
 @Component
 public class ReplayWebSocketHandler extends TextWebSocketHandler {
     
     private final ReplayService replayService;
+    private final IndicatorInstanceManager indicatorManager;
     private final ObjectMapper objectMapper;
     
     // Active WebSocket sessions
@@ -35,8 +39,9 @@ public class ReplayWebSocketHandler extends TextWebSocketHandler {
     // Session subscriptions: wsSessionId -> replay sessionId
     private final Map<String, String> sessionSubscriptions = new ConcurrentHashMap<>();
     
-    public ReplayWebSocketHandler(ReplayService replayService) {
+    public ReplayWebSocketHandler(ReplayService replayService, IndicatorInstanceManager indicatorManager) {
         this.replayService = replayService;
+        this.indicatorManager = indicatorManager;
         
         // Configure ObjectMapper
         this.objectMapper = new ObjectMapper();
@@ -134,6 +139,9 @@ public class ReplayWebSocketHandler extends TextWebSocketHandler {
         replaySession.addEventListener((rs, event) -> {
             broadcastReplayEvent(session.getId(), event);
         });
+        replaySession.addBatchListener((rs, batch) -> {
+            broadcastReplayBatch(session.getId(), batch);
+        });
         
         // Send confirmation
         Map<String, Object> response = new HashMap<>();
@@ -230,6 +238,47 @@ public class ReplayWebSocketHandler extends TextWebSocketHandler {
         }
     }
     
+    /**
+     * Send a turbo batch: progress and throughput plus candles and indicator rows in columnar form
+     */
+    private void broadcastReplayBatch(String wsSessionId, ReplayBatch batch) {
+        WebSocketSession session = sessions.get(wsSessionId);
+        
+        if (session == null || !session.isOpen()) {
+            return;
+        }
+        
+        try {
+            List<CandlestickData> candles = batch.getCandles();
+            CandlestickData first = candles.get(0);
+            ColumnarIndicatorHistory history = new ColumnarIndicatorHistory(
+                first.getProvider(), first.getSymbol(), first.getInterval()
+            ).addCandles(candles);
+            
+            for (ReplayBatch.IndicatorRows rows : batch.getIndicators()) {
+                IndicatorInstanceManager.IndicatorInstance instance = rows.getInstance();
+                history.add(instance, rows.getRows(),
+                    indicatorManager.getVisualizationMetadata(instance.getIndicatorId(), instance.getParams()));
+            }
+            
+            Map<String, Object> message = new HashMap<>();
+            message.put("type", "replayBatch");
+            message.put("sessionId", batch.getSessionId());
+            message.put("startIndex", batch.getStartIndex());
+            message.put("currentIndex", batch.getEndIndex());
+            message.put("totalCandles", batch.getTotalCandles());
+            message.put("progress", batch.getProgress());
+            message.put("elapsedMs", batch.getElapsedMillis());
+            message.put("candlesPerSecond", batch.getCandlesPerSecond());
+            message.put("data", history.toMap());
+            
+            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(message)));
+            
+        } catch (Exception e) {
+            System.err.println("❌ Error broadcasting replay batch: " + e.getMessage());
+        }
+    }
+    
     /**
      * Serialize candlestick data for WebSocket
      */
@@ -0,0 +1,180 @@
+package org.cloudvision.trading.bot.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.cloudvision.trading.bot.backtest.SweepService;
+import org.cloudvision.trading.bot.backtest.SweepSession;
+import org.cloudvision.trading.bot.backtest.SweepState;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * WebSocket handler for streaming parameter sweep progress
+ * Clients subscribe to a sweep and receive "sweepProgress" messages (status with the best run so far)
+ * while it runs, then one "sweepFinished" message
+ */
+@Component
+public class SweepWebSocketHandler extends TextWebSocketHandler {
+
+    private final SweepService sweepService;
+    private final ObjectMapper objectMapper;
+
+    // Active WebSocket sessions
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+
+    // Subscriptions: wsSessionId -> sweep and the listener registered on it
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    public SweepWebSocketHandler(SweepService sweepService) {
+        this.sweepService = sweepService;
+
+        // Configure ObjectMapper
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        System.out.println("✅ SweepWebSocketHandler initialized");
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        sessions.put(session.getId(), session);
+        System.out.println("📡 Sweep WebSocket connected: " + session.getId());
+
+        Map<String, Object> welcomeMessage = Map.of(
+            "type", "connected",
+            "message", "Sweep stream connected",
+            "actions", Arrays.asList("subscribe", "unsubscribe")
+        );
+        send(session, welcomeMessage);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
+        sessions.remove(session.getId());
+        unsubscribe(session.getId());
+        System.out.println("📡 Sweep WebSocket disconnected: " + session.getId());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> messageData = objectMapper.readValue(message.getPayload(), Map.class);
+
+            String action = (String) messageData.get("action");
+            if (action == null) {
+                sendError(session, "Action is required");
+                return;
+            }
+
+            if ("subscribe".equals(action)) {
+                handleSubscribe(session, messageData);
+            } else if ("unsubscribe".equals(action)) {
+                unsubscribe(session.getId());
+                send(session, Map.of("type", "unsubscribed", "message", "Unsubscribed from sweep updates"));
+            } else {
+                sendError(session, "Unknown action: " + action);
+            }
+
+        } catch (Exception e) {
+            sendError(session, "Error processing message: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Subscribe to a sweep; the current status is sent immediately
+     */
+    private void handleSubscribe(WebSocketSession session, Map<String, Object> messageData) throws IOException {
+        String sweepId = (String) messageData.get("sweepId");
+        if (sweepId == null || sweepId.isEmpty()) {
+            sendError(session, "sweepId is required");
+            return;
+        }
+        if (!sweepService.hasSweep(sweepId)) {
+            sendError(session, "Sweep not found: " + sweepId);
+            return;
+        }
+
+        unsubscribe(session.getId());
+
+        String wsSessionId = session.getId();
+        SweepSession sweep = sweepService.getSweep(sweepId);
+        Consumer<SweepSession> listener = s -> broadcastStatus(wsSessionId, s);
+        subscriptions.put(wsSessionId, new Subscription(sweep, listener));
+        sweep.addListener(listener);
+
+        send(session, Map.of("type", "subscribed", "sweepId", sweepId));
+        broadcastStatus(wsSessionId, sweep);
+
+        System.out.println("✅ WebSocket session " + wsSessionId + " subscribed to sweep: " + sweepId);
+    }
+
+    private void unsubscribe(String wsSessionId) {
+        Subscription subscription = subscriptions.remove(wsSessionId);
+        if (subscription != null) {
+            subscription.sweep.removeListener(subscription.listener);
+        }
+    }
+
+    /**
+     * Send the sweep status to a subscribed WebSocket session (called from sweep worker threads)
+     */
+    private void broadcastStatus(String wsSessionId, SweepSession sweep) {
+        WebSocketSession session = sessions.get(wsSessionId);
+        if (session == null || !session.isOpen()) {
+            return;
+        }
+
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", sweep.getState() == SweepState.RUNNING ? "sweepProgress" : "sweepFinished");
+        message.put("data", sweep.getStatus());
+        if (sweep.getState() != SweepState.RUNNING) {
+            message.put("ranking", sweep.getRanking(null, 10));
+        }
+
+        try {
+            send(session, message);
+        } catch (IOException e) {
+            System.err.println("❌ Error broadcasting sweep status: " + e.getMessage());
+        }
+    }
+
+    private void send(WebSocketSession session, Map<String, Object> message) throws IOException {
+        String json = objectMapper.writeValueAsString(message);
+        // Progress arrives from several pool threads; a WebSocket session allows one sender at a time
+        synchronized (session) {
+            session.sendMessage(new TextMessage(json));
+        }
+    }
+
+    /**
+     * Send error message to WebSocket client
+     */
+    private void sendError(WebSocketSession session, String errorMessage) {
+        try {
+            send(session, Map.of("type", "error", "error", errorMessage));
+        } catch (IOException e) {
+            System.err.println("Failed to send error message: " + e.getMessage());
+        }
+    }
+
+    private static class Subscription {
+        private final SweepSession sweep;
+        private final Consumer<SweepSession> listener;
+
+        Subscription(SweepSession sweep, Consumer<SweepSession> listener) {
+            this.sweep = sweep;
+            this.listener = listener;
+        }
+    }
+}
@@ -92,6 +92,7 @@ public class TradingConfig {
 
     /**
      * Subscribe to kline data for all symbols
+     * Higher timeframes (trading.aggregation.intervals) are derived from this stream, not subscribed
      */
     private void subscribeToMarketData() {
 
@@ -4,6 +4,7 @@ import org.cloudvision.trading.model.CandlestickData;
 import org.cloudvision.trading.model.TimeInterval;
 import org.cloudvision.trading.service.CandlestickHistoryService;
 import org.cloudvision.trading.service.UniversalTradingDataService;
+import org.cloudvision.trading.websocket.WebSocketBroadcaster;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,6 +21,9 @@ public class TradingController {
     
     @Autowired(required = false)
     private CandlestickHistoryService candlestickHistoryService;
+    
+    @Autowired(required = false)
+    private WebSocketBroadcaster webSocketBroadcaster;
 
     public TradingController(UniversalTradingDataService tradingService) {
         this.tradingService = tradingService;
@@ -127,6 +131,20 @@ public class TradingController {
         }
     }
     
+    /**
+     * Outbound WebSocket queues: depth, drops, conflation and lag per session
+     */
+    @GetMapping("/websocket/stats")
+    public Map<String, Object> getWebSocketStats() {
+        if (webSocketBroadcaster == null) {
+            return Map.of("error", "WebSocketBroadcaster not available");
+        }
+        return Map.of(
+            "sessions", webSocketBroadcaster.getSessionCount(),
+            "channels", webSocketBroadcaster.getStats()
+        );
+    }
+    
     /**
      * Debug endpoint to check latest candles with full details
      */
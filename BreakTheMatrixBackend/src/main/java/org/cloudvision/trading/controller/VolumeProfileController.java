@@ -0,0 +1,217 @@
+package org.cloudvision.trading.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.cloudvision.trading.model.TimeInterval;
+import org.cloudvision.trading.profile.VolumeProfile;
+import org.cloudvision.trading.profile.VolumeProfileService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * REST API for streaming volume / TPO profiles
+ */
+@RestController
+@RequestMapping("/api/profile")
+@Tag(name = "Volume Profile", description = "Session, day, week, range and composite volume/TPO profiles")
+@CrossOrigin(origins = "*")
+public class VolumeProfileController {
+
+    private final VolumeProfileService profileService;
+
+    public VolumeProfileController(VolumeProfileService profileService) {
+        this.profileService = profileService;
+    }
+
+    @GetMapping("/current")
+    @Operation(summary = "Get the forming profile of a period", description = "Volume/TPO profile of the current session (8h), day or week so far")
+    public ResponseEntity<?> getCurrentProfile(
+            @RequestParam String symbol,
+            @RequestParam(defaultValue = "1d") String period,
+            @RequestParam(defaultValue = "true") boolean levels) {
+        try {
+            VolumeProfile profile = profileService.getCurrentProfile(symbol, TimeInterval.fromString(period));
+            return profileResponse(symbol, profile, levels);
+        } catch (Exception e) {
+            return error(e);
+        }
+    }
+
+    @GetMapping("/history")
+    @Operation(summary = "Get closed profiles of a period", description = "Most recent closed session/day/week profiles, oldest first")
+    public ResponseEntity<?> getHistory(
+            @RequestParam String symbol,
+            @RequestParam(defaultValue = "1d") String period,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "false") boolean levels) {
+        try {
+            List<Map<String, Object>> profiles = profileService
+                    .getCompletedProfiles(symbol, TimeInterval.fromString(period), limit).stream()
+                    .map(profile -> serializeProfile(profile, levels))
+                    .collect(Collectors.toList());
+
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "symbol", symbol,
+                "period", period,
+                "count", profiles.size(),
+                "profiles", profiles
+            ));
+        } catch (Exception e) {
+            return error(e);
+        }
+    }
+
+    @GetMapping("/range")
+    @Operation(summary = "Get the profile of a time range", description = "Profile between two epoch-millisecond times (e.g. the visible chart range); 'to' defaults to now")
+    public ResponseEntity<?> getRangeProfile(
+            @RequestParam String symbol,
+            @RequestParam long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(defaultValue = "true") boolean levels) {
+        try {
+            long end = to != null ? to : System.currentTimeMillis();
+            if (end < from) {
+                throw new IllegalArgumentException("'to' must not be before 'from'");
+            }
+            return profileResponse(symbol, profileService.getRangeProfile(symbol, from, end), levels);
+        } catch (Exception e) {
+            return error(e);
+        }
+    }
+
+    @GetMapping("/composite")
+    @Operation(summary = "Get a composite profile", description = "Profile of the last N periods (the forming one included)")
+    public ResponseEntity<?> getCompositeProfile(
+            @RequestParam String symbol,
+            @RequestParam(defaultValue = "1d") String period,
+            @RequestParam(defaultValue = "5") int count,
+            @RequestParam(defaultValue = "true") boolean levels) {
+        try {
+            VolumeProfile profile = profileService.getCompositeProfile(symbol, TimeInterval.fromString(period), count);
+            return profileResponse(symbol, profile, levels);
+        } catch (Exception e) {
+            return error(e);
+        }
+    }
+
+    @PostMapping("/row-size")
+    @Operation(summary = "Set row size for a symbol", description = "Price grouping of the symbol's profiles (e.g., 10 for BTC); collected profiles are reset")
+    public ResponseEntity<?> setRowSize(
+            @RequestParam String symbol,
+            @RequestParam String rowSize) {
+        try {
+            profileService.setRowSize(symbol, new BigDecimal(rowSize));
+
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "message", "Row size set for " + symbol,
+                "symbol", symbol,
+                "rowSize", rowSize
+            ));
+        } catch (Exception e) {
+            return error(e);
+        }
+    }
+
+    @GetMapping("/info")
+    @Operation(summary = "Get volume profile information", description = "Tracked symbols, periods and endpoints")
+    public ResponseEntity<?> getInfo() {
+        Map<String, Object> rowSizes = new TreeMap<>();
+        for (String symbol : profileService.getSymbols()) {
+            rowSizes.put(symbol, profileService.getRowSize(symbol));
+        }
+        return ResponseEntity.ok(Map.of(
+            "enabled", profileService.isEnabled(),
+            "periods", profileService.getPeriods().stream().map(TimeInterval::getValue).collect(Collectors.toList()),
+            "rowSizes", rowSizes,
+            "features", List.of(
+                "Point of Control (POC)",
+                "Value Area High/Low",
+                "TPO POC and value area",
+                "High/Low Volume Nodes (HVN/LVN)"
+            ),
+            "rest", Map.of(
+                "baseUrl", "/api/profile",
+                "endpoints", List.of(
+                    "/current?symbol=BTCUSDT&period=1d",
+                    "/history?symbol=BTCUSDT&period=8h&limit=10",
+                    "/range?symbol=BTCUSDT&from=1759500000000&to=1759510000000",
+                    "/composite?symbol=BTCUSDT&period=1d&count=5"
+                )
+            )
+        ));
+    }
+
+    private ResponseEntity<?> profileResponse(String symbol, VolumeProfile profile, boolean levels) {
+        if (profile == null || profile.isEmpty()) {
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "message", "No profile data available yet. Trades need to be collected first.",
+                "profile", (Object) null
+            ));
+        }
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "symbol", symbol,
+            "profile", serializeProfile(profile, levels)
+        ));
+    }
+
+    private ResponseEntity<?> error(Exception e) {
+        return ResponseEntity.badRequest().body(Map.of(
+            "success", false,
+            "error", String.valueOf(e.getMessage())
+        ));
+    }
+
+    private Map<String, Object> serializeProfile(VolumeProfile profile, boolean includeLevels) {
+        Map<String, Object> data = new HashMap<>();
+
+        data.put("symbol", profile.getSymbol());
+        data.put("period", profile.getPeriod());
+        data.put("startTime", profile.getStartTime());
+        data.put("endTime", profile.getEndTime());
+        data.put("partial", profile.isPartial());
+        data.put("rowSize", profile.getRowSize());
+
+        // Volume metrics
+        data.put("totalVolume", profile.getTotalVolume());
+        data.put("buyVolume", profile.getBuyVolume());
+        data.put("sellVolume", profile.getSellVolume());
+        data.put("delta", profile.getDelta());
+
+        // Key levels
+        data.put("pointOfControl", profile.getPointOfControl());
+        data.put("valueAreaHigh", profile.getValueAreaHigh());
+        data.put("valueAreaLow", profile.getValueAreaLow());
+        data.put("tpoPointOfControl", profile.getTpoPointOfControl());
+        data.put("tpoValueAreaHigh", profile.getTpoValueAreaHigh());
+        data.put("tpoValueAreaLow", profile.getTpoValueAreaLow());
+        data.put("highVolumeNodes", profile.getHighVolumeNodes());
+        data.put("lowVolumeNodes", profile.getLowVolumeNodes());
+        data.put("rows", profile.getLevels().size());
+
+        if (includeLevels) {
+            // Sorted by price descending, like the footprint volume profile
+            List<Map<String, Object>> rows = new ArrayList<>(profile.getLevels().size());
+            for (int i = profile.getLevels().size() - 1; i >= 0; i--) {
+                VolumeProfile.Level level = profile.getLevels().get(i);
+                Map<String, Object> levelData = new HashMap<>();
+                levelData.put("price", level.getPrice());
+                levelData.put("buyVolume", level.getBuyVolume());
+                levelData.put("sellVolume", level.getSellVolume());
+                levelData.put("totalVolume", level.getTotalVolume());
+                levelData.put("tpoCount", level.getTpoCount());
+                rows.add(levelData);
+            }
+            data.put("levels", rows);
+        }
+
+        return data;
+    }
+}
@@ -17,6 +17,9 @@ public class CandlestickData {
     private final String interval;
     private final String provider;
     private final boolean isClosed;
+    
+    // Fixed-point view, created on first use (or attached by a FixedCandle adapter)
+    private volatile FixedCandle fixed;
 
     public CandlestickData(String symbol, Instant openTime, Instant closeTime,
                           BigDecimal open, BigDecimal high, BigDecimal low, BigDecimal close,
@@ -52,6 +55,35 @@ public class CandlestickData {
     public String getProvider() { return provider; }
     public boolean isClosed() { return isClosed; }
 
+    /**
+     * Fixed-point view of this candle: the one it was created from, or an 8-decimal conversion (cached)
+     */
+    public FixedCandle toFixed() {
+        FixedCandle current = fixed;
+        if (current == null) {
+            current = FixedCandle.from(this, InstrumentSpec.defaultFor(symbol));
+            fixed = current;
+        }
+        return current;
+    }
+    
+    /**
+     * Fixed-point view of this candle at the instrument's precision (cached)
+     */
+    public FixedCandle toFixed(InstrumentSpec spec) {
+        FixedCandle current = fixed;
+        if (current == null || current.getPriceScale() != spec.getPriceScale()
+                || current.getQuantityScale() != FixedPoint.fittingScale(volume, spec.getQuantityScale())) {
+            current = FixedCandle.from(this, spec);
+            fixed = current;
+        }
+        return current;
+    }
+
+    void attachFixed(FixedCandle fixed) {
+        this.fixed = fixed;
+    }
+
     @Override
     public String toString() {
         return String.format("CandlestickData{symbol='%s', interval='%s', open=%s, high=%s, low=%s, close=%s, volume=%s, openTime=%s, provider='%s', closed=%s}",
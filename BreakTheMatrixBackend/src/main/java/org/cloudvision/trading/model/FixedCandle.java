@@ -0,0 +1,145 @@
+package org.cloudvision.trading.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Primitive-backed candle: fixed-point OHLC/volume, epoch-millis times.
+ * Counterpart of {@link CandlestickData} for hot paths (history store, indicators).
+ */
+public class FixedCandle {
+    /** Quote volume is price * quantity; it is kept with 8 decimals, fewer if a long cannot hold it */
+    public static final int QUOTE_SCALE = InstrumentSpec.DEFAULT_SCALE;
+
+    private final String symbol;
+    private final long openTime;
+    private final long closeTime;
+    private final long open;
+    private final long high;
+    private final long low;
+    private final long close;
+    private final long volume;
+    private final long quoteAssetVolume;
+    private final int priceScale;
+    private final int quantityScale;
+    private final int quoteScale;
+    private final int numberOfTrades;
+    private final String interval;
+    private final String provider;
+    private final boolean isClosed;
+
+    public FixedCandle(String symbol, long openTime, long closeTime,
+                       long open, long high, long low, long close,
+                       long volume, long quoteAssetVolume, int priceScale, int quantityScale,
+                       int numberOfTrades, String interval, String provider, boolean isClosed) {
+        this(symbol, openTime, closeTime, open, high, low, close, volume, quoteAssetVolume, priceScale, quantityScale,
+            QUOTE_SCALE, numberOfTrades, interval, provider, isClosed);
+    }
+
+    public FixedCandle(String symbol, long openTime, long closeTime,
+                       long open, long high, long low, long close,
+                       long volume, long quoteAssetVolume, int priceScale, int quantityScale, int quoteScale,
+                       int numberOfTrades, String interval, String provider, boolean isClosed) {
+        this.symbol = symbol;
+        this.openTime = openTime;
+        this.closeTime = closeTime;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        this.quoteAssetVolume = quoteAssetVolume;
+        this.priceScale = priceScale;
+        this.quantityScale = quantityScale;
+        this.quoteScale = quoteScale;
+        this.numberOfTrades = numberOfTrades;
+        this.interval = interval;
+        this.provider = provider;
+        this.isClosed = isClosed;
+    }
+
+    /**
+     * Convert a BigDecimal candle using the instrument's precision. Volumes too large for a long
+     * at that precision (a week of a low-priced coin) keep fewer decimals.
+     */
+    public static FixedCandle from(CandlestickData candle, InstrumentSpec spec) {
+        int priceScale = spec.getPriceScale();
+        int quantityScale = FixedPoint.fittingScale(candle.getVolume(), spec.getQuantityScale());
+        BigDecimal quote = candle.getQuoteAssetVolume();
+        int quoteScale = quote != null ? FixedPoint.fittingScale(quote, QUOTE_SCALE) : QUOTE_SCALE;
+        return new FixedCandle(
+            candle.getSymbol(),
+            candle.getOpenTime().toEpochMilli(),
+            candle.getCloseTime().toEpochMilli(),
+            FixedPoint.toScaled(candle.getOpen(), priceScale),
+            FixedPoint.toScaled(candle.getHigh(), priceScale),
+            FixedPoint.toScaled(candle.getLow(), priceScale),
+            FixedPoint.toScaled(candle.getClose(), priceScale),
+            FixedPoint.toScaled(candle.getVolume(), quantityScale),
+            quote != null ? FixedPoint.toScaled(quote, quoteScale) : 0,
+            priceScale,
+            quantityScale,
+            quoteScale,
+            candle.getNumberOfTrades(),
+            candle.getInterval(),
+            candle.getProvider(),
+            candle.isClosed()
+        );
+    }
+
+    /**
+     * Adapter for code that works with {@link CandlestickData}; the result keeps a reference to this candle
+     */
+    public CandlestickData toCandlestickData() {
+        CandlestickData candle = new CandlestickData(
+            symbol,
+            Instant.ofEpochMilli(openTime),
+            Instant.ofEpochMilli(closeTime),
+            FixedPoint.toBigDecimal(open, priceScale),
+            FixedPoint.toBigDecimal(high, priceScale),
+            FixedPoint.toBigDecimal(low, priceScale),
+            FixedPoint.toBigDecimal(close, priceScale),
+            FixedPoint.toBigDecimal(volume, quantityScale),
+            FixedPoint.toBigDecimal(quoteAssetVolume, quoteScale),
+            numberOfTrades,
+            interval,
+            provider,
+            isClosed
+        );
+        candle.attachFixed(this);
+        return candle;
+    }
+
+    public String getSymbol() { return symbol; }
+    public long getOpenTime() { return openTime; }
+    public long getCloseTime() { return closeTime; }
+    public long getOpen() { return open; }
+    public long getHigh() { return high; }
+    public long getLow() { return low; }
+    public long getClose() { return close; }
+    public long getVolume() { return volume; }
+    public long getQuoteAssetVolume() { return quoteAssetVolume; }
+    public int getPriceScale() { return priceScale; }
+    public int getQuantityScale() { return quantityScale; }
+    public int getQuoteScale() { return quoteScale; }
+    public int getNumberOfTrades() { return numberOfTrades; }
+    public String getInterval() { return interval; }
+    public String getProvider() { return provider; }
+    public boolean isClosed() { return isClosed; }
+
+    // double views for indicator math
+    public double getOpenDouble() { return FixedPoint.toDouble(open, priceScale); }
+    public double getHighDouble() { return FixedPoint.toDouble(high, priceScale); }
+    public double getLowDouble() { return FixedPoint.toDouble(low, priceScale); }
+    public double getCloseDouble() { return FixedPoint.toDouble(close, priceScale); }
+    public double getVolumeDouble() { return FixedPoint.toDouble(volume, quantityScale); }
+
+    @Override
+    public String toString() {
+        return String.format("FixedCandle{symbol='%s', interval='%s', open=%s, high=%s, low=%s, close=%s, volume=%s, openTime=%d, closed=%s}",
+                symbol, interval,
+                FixedPoint.toBigDecimal(open, priceScale), FixedPoint.toBigDecimal(high, priceScale),
+                FixedPoint.toBigDecimal(low, priceScale), FixedPoint.toBigDecimal(close, priceScale),
+                FixedPoint.toBigDecimal(volume, quantityScale), openTime, isClosed);
+    }
+}
@@ -0,0 +1,130 @@
+package org.cloudvision.trading.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Helpers for fixed-point numbers: a {@code long} mantissa plus a decimal scale,
+ * i.e. value = mantissa / 10^scale.
+ *
+ * The scale is not stored in the long; every holder keeps it next to the value
+ * (see {@link InstrumentSpec}, {@link FixedCandle}, {@link FixedTrade}).
+ */
+public final class FixedPoint {
+
+    /** Largest supported scale (10^18 still fits in a long) */
+    public static final int MAX_SCALE = 18;
+
+    private static final long[] POW10 = new long[MAX_SCALE + 1];
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i <= MAX_SCALE; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    private FixedPoint() {
+    }
+
+    public static long pow10(int scale) {
+        return POW10[scale];
+    }
+
+    /**
+     * BigDecimal -> mantissa at the given scale (HALF_UP)
+     */
+    public static long toScaled(BigDecimal value, int scale) {
+        return toScaled(value, scale, RoundingMode.HALF_UP);
+    }
+
+    public static long toScaled(BigDecimal value, int scale, RoundingMode rounding) {
+        if (value.scale() == scale) {
+            // Common case (exchange strings with a fixed number of decimals): no rescaling
+            return value.unscaledValue().longValueExact();
+        }
+        return value.setScale(scale, rounding).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long scaled, int scale) {
+        return BigDecimal.valueOf(scaled, scale);
+    }
+
+    public static double toDouble(long scaled, int scale) {
+        return (double) scaled / POW10[scale];
+    }
+
+    /**
+     * double -> mantissa (HALF_UP). Exact for values that came from a decimal with at most
+     * {@code scale} digits, as long as the mantissa stays below 2^53.
+     */
+    public static long fromDouble(double value, int scale) {
+        return Math.round(value * POW10[scale]);
+    }
+
+    /**
+     * Change the scale of a mantissa; reducing the scale rounds HALF_UP
+     */
+    public static long rescale(long scaled, int fromScale, int toScale) {
+        if (fromScale == toScale) {
+            return scaled;
+        }
+        if (toScale > fromScale) {
+            return Math.multiplyExact(scaled, POW10[toScale - fromScale]);
+        }
+        return divideHalfUp(scaled, POW10[fromScale - toScale]);
+    }
+
+    /**
+     * Largest scale up to {@code maxScale} at which {@code value} fits in a long
+     * (cumulative volumes can outgrow an instrument's quantity scale)
+     */
+    public static int fittingScale(BigDecimal value, int maxScale) {
+        int integerDigits = value.precision() - value.scale();
+        return Math.max(0, Math.min(maxScale, MAX_SCALE - integerDigits));
+    }
+
+    /**
+     * Number of decimals of a tick/step size ("0.01000000" -> 2)
+     */
+    public static int scaleOf(BigDecimal increment) {
+        return Math.max(0, increment.stripTrailingZeros().scale());
+    }
+
+    /**
+     * Round a price to a multiple of {@code tick} (both at the same scale), HALF_UP
+     */
+    public static long roundToTick(long price, long tick) {
+        return divideHalfUp(price, tick) * tick;
+    }
+
+    /**
+     * Number of ticks in {@code price} (HALF_UP); the price level index used for grouping
+     */
+    public static long toTicks(long price, long tick) {
+        return divideHalfUp(price, tick);
+    }
+
+    /**
+     * a * b where b has {@code bScale} decimals; the result keeps a's scale (HALF_UP).
+     * Falls back to BigDecimal only if the intermediate product overflows.
+     */
+    public static long multiply(long a, long b, int bScale) {
+        long hi = Math.multiplyHigh(a, b);
+        long lo = a * b;
+        if ((hi == 0 && lo >= 0) || (hi == -1 && lo < 0)) {
+            return divideHalfUp(lo, POW10[bScale]);
+        }
+        return BigDecimal.valueOf(a).multiply(BigDecimal.valueOf(b))
+            .divide(BigDecimal.valueOf(POW10[bScale]), 0, RoundingMode.HALF_UP)
+            .longValueExact();
+    }
+
+    private static long divideHalfUp(long value, long divisor) {
+        long quotient = value / divisor;
+        long remainder = value % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += value < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+}
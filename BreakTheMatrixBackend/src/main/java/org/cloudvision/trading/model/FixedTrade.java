@@ -0,0 +1,99 @@
+package org.cloudvision.trading.model;
+
+import java.time.Instant;
+
+/**
+ * Primitive-backed trade: fixed-point price/quantity, epoch-millis timestamp.
+ * Counterpart of {@link TradeData} for hot paths (footprint building, order flow).
+ */
+public class FixedTrade {
+    private final long tradeId;
+    private final String symbol;
+    private final long price;
+    private final long quantity;
+    private final int priceScale;
+    private final int quantityScale;
+    private final long timestamp;
+    private final boolean isBuyerMaker;
+    private final String provider;
+    private final long firstTradeId; // -1 if not an aggregate trade
+    private final long lastTradeId;  // -1 if not an aggregate trade
+
+    public FixedTrade(long tradeId, String symbol, long price, long quantity, int priceScale, int quantityScale,
+                      long timestamp, boolean isBuyerMaker, String provider, long firstTradeId, long lastTradeId) {
+        this.tradeId = tradeId;
+        this.symbol = symbol;
+        this.price = price;
+        this.quantity = quantity;
+        this.priceScale = priceScale;
+        this.quantityScale = quantityScale;
+        this.timestamp = timestamp;
+        this.isBuyerMaker = isBuyerMaker;
+        this.provider = provider;
+        this.firstTradeId = firstTradeId;
+        this.lastTradeId = lastTradeId;
+    }
+
+    /**
+     * Convert a BigDecimal trade using the instrument's precision
+     */
+    public static FixedTrade from(TradeData trade, InstrumentSpec spec) {
+        return new FixedTrade(
+            trade.getTradeId(),
+            trade.getSymbol(),
+            spec.toPrice(trade.getPrice()),
+            spec.toQuantity(trade.getQuantity()),
+            spec.getPriceScale(),
+            spec.getQuantityScale(),
+            trade.getTimestamp().toEpochMilli(),
+            trade.isBuyerMaker(),
+            trade.getProvider(),
+            trade.getFirstTradeId() != null ? trade.getFirstTradeId() : -1,
+            trade.getLastTradeId() != null ? trade.getLastTradeId() : -1
+        );
+    }
+
+    /**
+     * Adapter for code that works with {@link TradeData}; the result keeps a reference to this trade
+     */
+    public TradeData toTradeData() {
+        TradeData trade = new TradeData(
+            tradeId,
+            symbol,
+            FixedPoint.toBigDecimal(price, priceScale),
+            FixedPoint.toBigDecimal(quantity, quantityScale),
+            FixedPoint.toBigDecimal(price, priceScale).multiply(FixedPoint.toBigDecimal(quantity, quantityScale)),
+            Instant.ofEpochMilli(timestamp),
+            isBuyerMaker,
+            provider,
+            isAggregateTrade() ? firstTradeId : null,
+            isAggregateTrade() ? lastTradeId : null
+        );
+        trade.attachFixed(this);
+        return trade;
+    }
+
+    public long getTradeId() { return tradeId; }
+    public String getSymbol() { return symbol; }
+    public long getPrice() { return price; }
+    public long getQuantity() { return quantity; }
+    public int getPriceScale() { return priceScale; }
+    public int getQuantityScale() { return quantityScale; }
+    public long getTimestamp() { return timestamp; }
+    public boolean isBuyerMaker() { return isBuyerMaker; }
+    public boolean isAggressiveBuy() { return !isBuyerMaker; }
+    public String getProvider() { return provider; }
+    public long getFirstTradeId() { return firstTradeId; }
+    public long getLastTradeId() { return lastTradeId; }
+    public boolean isAggregateTrade() { return firstTradeId >= 0 && lastTradeId >= 0; }
+
+    public double getPriceDouble() { return FixedPoint.toDouble(price, priceScale); }
+    public double getQuantityDouble() { return FixedPoint.toDouble(quantity, quantityScale); }
+
+    @Override
+    public String toString() {
+        return String.format("FixedTrade{id=%d, symbol='%s', price=%s, qty=%s, side=%s, timestamp=%d}",
+                tradeId, symbol, FixedPoint.toBigDecimal(price, priceScale), FixedPoint.toBigDecimal(quantity, quantityScale),
+                isBuyerMaker ? "SELL" : "BUY", timestamp);
+    }
+}
@@ -131,6 +131,16 @@ public class FootprintCandle {
             this.tradeCount = 0;
         }
         
+        /**
+         * Level with totals already accumulated (e.g. by a fixed-point builder)
+         */
+        public PriceLevelVolume(BigDecimal price, BigDecimal buyVolume, BigDecimal sellVolume, int tradeCount) {
+            this.price = price;
+            this.buyVolume = buyVolume;
+            this.sellVolume = sellVolume;
+            this.tradeCount = tradeCount;
+        }
+        
         public void addBuyVolume(BigDecimal volume) {
             this.buyVolume = this.buyVolume.add(volume);
             this.tradeCount++;
@@ -0,0 +1,80 @@
+package org.cloudvision.trading.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Price/quantity precision of one instrument, taken from the exchange's tick size
+ * (price increment) and step size (quantity increment).
+ *
+ * Prices are fixed-point with {@link #getPriceScale()} decimals, quantities with
+ * {@link #getQuantityScale()} decimals.
+ */
+public class InstrumentSpec {
+
+    /** Binance publishes prices and quantities with at most 8 decimals */
+    public static final int DEFAULT_SCALE = 8;
+
+    private final String symbol;
+    private final int priceScale;
+    private final int quantityScale;
+    private final long tickSize;   // at priceScale
+    private final long stepSize;   // at quantityScale
+    private final BigDecimal tickSizeDecimal;
+    private final BigDecimal stepSizeDecimal;
+
+    public InstrumentSpec(String symbol, BigDecimal tickSize, BigDecimal stepSize) {
+        this.symbol = symbol;
+        this.priceScale = FixedPoint.scaleOf(tickSize);
+        this.quantityScale = FixedPoint.scaleOf(stepSize);
+        if (priceScale > FixedPoint.MAX_SCALE || quantityScale > FixedPoint.MAX_SCALE) {
+            throw new IllegalArgumentException("Unsupported precision for " + symbol +
+                                               ": tick " + tickSize + ", step " + stepSize);
+        }
+        this.tickSize = FixedPoint.toScaled(tickSize, priceScale);
+        this.stepSize = FixedPoint.toScaled(stepSize, quantityScale);
+        this.tickSizeDecimal = tickSize.stripTrailingZeros();
+        this.stepSizeDecimal = stepSize.stripTrailingZeros();
+    }
+
+    /**
+     * Lossless default for symbols whose filters are unknown: 8 decimals for both
+     */
+    public static InstrumentSpec defaultFor(String symbol) {
+        BigDecimal increment = BigDecimal.ONE.movePointLeft(DEFAULT_SCALE);
+        return new InstrumentSpec(symbol, increment, increment);
+    }
+
+    public String getSymbol() { return symbol; }
+    public int getPriceScale() { return priceScale; }
+    public int getQuantityScale() { return quantityScale; }
+    public long getTickSize() { return tickSize; }
+    public long getStepSize() { return stepSize; }
+    public BigDecimal getTickSizeDecimal() { return tickSizeDecimal; }
+    public BigDecimal getStepSizeDecimal() { return stepSizeDecimal; }
+
+    public long toPrice(BigDecimal price) {
+        return FixedPoint.toScaled(price, priceScale);
+    }
+
+    public long toQuantity(BigDecimal quantity) {
+        return FixedPoint.toScaled(quantity, quantityScale);
+    }
+
+    public BigDecimal priceToDecimal(long price) {
+        return FixedPoint.toBigDecimal(price, priceScale);
+    }
+
+    public BigDecimal quantityToDecimal(long quantity) {
+        return FixedPoint.toBigDecimal(quantity, quantityScale);
+    }
+
+    public double priceToDouble(long price) {
+        return FixedPoint.toDouble(price, priceScale);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("InstrumentSpec{symbol='%s', tickSize=%s, stepSize=%s}",
+                symbol, tickSizeDecimal.toPlainString(), stepSizeDecimal.toPlainString());
+    }
+}
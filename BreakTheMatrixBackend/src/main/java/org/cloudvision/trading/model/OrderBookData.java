@@ -15,14 +15,29 @@ public class OrderBookData {
     private final List<OrderBookLevel> asks;
     private final String provider;
     
+    // Optional precomputed running totals (index i = sum of the best i+1 levels)
+    private final BigDecimal[] cumulativeBidVolume;
+    private final BigDecimal[] cumulativeAskVolume;
+    
     public OrderBookData(String symbol, long lastUpdateId, Instant timestamp,
                         List<OrderBookLevel> bids, List<OrderBookLevel> asks, String provider) {
+        this(symbol, lastUpdateId, timestamp, bids, asks, provider, null, null);
+    }
+    
+    /**
+     * Constructor for snapshots of a maintained book, with depth sums already computed
+     */
+    public OrderBookData(String symbol, long lastUpdateId, Instant timestamp,
+                        List<OrderBookLevel> bids, List<OrderBookLevel> asks, String provider,
+                        BigDecimal[] cumulativeBidVolume, BigDecimal[] cumulativeAskVolume) {
         this.symbol = symbol;
         this.lastUpdateId = lastUpdateId;
         this.timestamp = timestamp;
         this.bids = bids;
         this.asks = asks;
         this.provider = provider;
+        this.cumulativeBidVolume = cumulativeBidVolume;
+        this.cumulativeAskVolume = cumulativeAskVolume;
     }
     
     // Getters
@@ -61,6 +76,9 @@ public class OrderBookData {
      * Get total bid volume up to N levels
      */
     public BigDecimal getTotalBidVolume(int levels) {
+        if (cumulativeBidVolume != null) {
+            return cumulativeAt(cumulativeBidVolume, levels);
+        }
         return bids.stream()
                 .limit(levels)
                 .map(OrderBookLevel::getQuantity)
@@ -71,12 +89,22 @@ public class OrderBookData {
      * Get total ask volume up to N levels
      */
     public BigDecimal getTotalAskVolume(int levels) {
+        if (cumulativeAskVolume != null) {
+            return cumulativeAt(cumulativeAskVolume, levels);
+        }
         return asks.stream()
                 .limit(levels)
                 .map(OrderBookLevel::getQuantity)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
     
+    private static BigDecimal cumulativeAt(BigDecimal[] cumulative, int levels) {
+        if (levels <= 0 || cumulative.length == 0) {
+            return BigDecimal.ZERO;
+        }
+        return cumulative[Math.min(levels, cumulative.length) - 1];
+    }
+    
     @Override
     public String toString() {
         return String.format("OrderBookData{symbol='%s', bids=%d, asks=%d, bestBid=%s, bestAsk=%s, spread=%s, updateId=%d}",
@@ -1,33 +1,78 @@
 package org.cloudvision.trading.model;
 
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
 public enum TimeInterval {
-    ONE_SECOND("1s"),
-    ONE_MINUTE("1m"),
-    THREE_MINUTES("3m"),
-    FIVE_MINUTES("5m"),
-    FIFTEEN_MINUTES("15m"),
-    THIRTY_MINUTES("30m"),
-    ONE_HOUR("1h"),
-    TWO_HOURS("2h"),
-    FOUR_HOURS("4h"),
-    SIX_HOURS("6h"),
-    EIGHT_HOURS("8h"),
-    TWELVE_HOURS("12h"),
-    ONE_DAY("1d"),
-    THREE_DAYS("3d"),
-    ONE_WEEK("1w"),
-    ONE_MONTH("1M");
+    ONE_SECOND("1s", 1),
+    ONE_MINUTE("1m", 60),
+    THREE_MINUTES("3m", 180),
+    FIVE_MINUTES("5m", 300),
+    FIFTEEN_MINUTES("15m", 900),
+    THIRTY_MINUTES("30m", 1800),
+    ONE_HOUR("1h", 3600),
+    TWO_HOURS("2h", 7200),
+    FOUR_HOURS("4h", 14400),
+    SIX_HOURS("6h", 21600),
+    EIGHT_HOURS("8h", 28800),
+    TWELVE_HOURS("12h", 43200),
+    ONE_DAY("1d", 86400),
+    THREE_DAYS("3d", 259200),
+    ONE_WEEK("1w", 604800),
+    ONE_MONTH("1M", 2592000); // Nominal 30 days; candles follow calendar months
+
+    // 1970-01-01 was a Thursday; weekly candles open on Monday 00:00 UTC
+    private static final long WEEK_OFFSET_MILLIS = 4L * 86400 * 1000;
 
     private final String value;
+    private final long seconds;
 
-    TimeInterval(String value) {
+    TimeInterval(String value, long seconds) {
         this.value = value;
+        this.seconds = seconds;
     }
 
     public String getValue() {
         return value;
     }
 
+    /**
+     * Candle duration in seconds (nominal for {@link #ONE_MONTH})
+     */
+    public long getSeconds() {
+        return seconds;
+    }
+
+    public long getMillis() {
+        return seconds * 1000;
+    }
+
+    /**
+     * Open time (epoch millis) of the candle containing the given time, UTC-aligned like the exchange
+     */
+    public long alignOpenTime(long epochMillis) {
+        if (this == ONE_MONTH) {
+            ZonedDateTime time = Instant.ofEpochMilli(epochMillis).atZone(ZoneOffset.UTC);
+            return time.withDayOfMonth(1).toLocalDate().atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        }
+        long millis = getMillis();
+        if (this == ONE_WEEK) {
+            return Math.floorDiv(epochMillis - WEEK_OFFSET_MILLIS, millis) * millis + WEEK_OFFSET_MILLIS;
+        }
+        return Math.floorDiv(epochMillis, millis) * millis;
+    }
+
+    /**
+     * Open time (epoch millis) of the candle after the one opening at {@code openTimeMillis}
+     */
+    public long nextOpenTime(long openTimeMillis) {
+        if (this == ONE_MONTH) {
+            return Instant.ofEpochMilli(openTimeMillis).atZone(ZoneOffset.UTC).plusMonths(1).toInstant().toEpochMilli();
+        }
+        return openTimeMillis + getMillis();
+    }
+
     public static TimeInterval fromString(String value) {
         for (TimeInterval interval : TimeInterval.values()) {
             if (interval.value.equals(value)) {
@@ -20,6 +20,9 @@ public class TradeData {
     private final Long firstTradeId;
     private final Long lastTradeId;
     
+    // Fixed-point view, created on first use (or attached by a FixedTrade adapter)
+    private volatile FixedTrade fixed;
+    
     public TradeData(long tradeId, String symbol, BigDecimal price, BigDecimal quantity,
                      BigDecimal quoteQuantity, Instant timestamp, boolean isBuyerMaker,
                      String provider) {
@@ -56,6 +59,35 @@ public class TradeData {
     public Long getLastTradeId() { return lastTradeId; }
     public boolean isAggregateTrade() { return firstTradeId != null && lastTradeId != null; }
     
+    /**
+     * Fixed-point view of this trade: the one it was created from, or an 8-decimal conversion (cached)
+     */
+    public FixedTrade toFixed() {
+        FixedTrade current = fixed;
+        if (current == null) {
+            current = FixedTrade.from(this, InstrumentSpec.defaultFor(symbol));
+            fixed = current;
+        }
+        return current;
+    }
+    
+    /**
+     * Fixed-point view of this trade at the instrument's precision (cached)
+     */
+    public FixedTrade toFixed(InstrumentSpec spec) {
+        FixedTrade current = fixed;
+        if (current == null || current.getPriceScale() != spec.getPriceScale()
+                || current.getQuantityScale() != spec.getQuantityScale()) {
+            current = FixedTrade.from(this, spec);
+            fixed = current;
+        }
+        return current;
+    }
+    
+    void attachFixed(FixedTrade fixed) {
+        this.fixed = fixed;
+    }
+    
     @Override
     public String toString() {
         String side = isBuyerMaker ? "SELL" : "BUY";
@@ -15,6 +15,9 @@ public class TradingData {
     private final CandlestickData candlestickData;
     private final TradeData tradeData;
     private final OrderBookData orderBookData;
+    
+    // Built by this service (e.g. a higher timeframe aggregated from 1m klines), not received from the provider
+    private final boolean derived;
 
     // Constructor for simple price data (TICKER, etc.)
     public TradingData(String symbol, BigDecimal price, BigDecimal volume, 
@@ -28,11 +31,18 @@ public class TradingData {
         this.candlestickData = null;
         this.tradeData = null;
         this.orderBookData = null;
+        this.derived = false;
     }
 
     // Constructor for candlestick data (KLINE)
     public TradingData(String symbol, Instant timestamp, String provider, 
                       TradingDataType type, CandlestickData candlestickData) {
+        this(symbol, timestamp, provider, type, candlestickData, false);
+    }
+    
+    // Constructor for candlestick data, marking candles derived from another stream
+    public TradingData(String symbol, Instant timestamp, String provider,
+                      TradingDataType type, CandlestickData candlestickData, boolean derived) {
         this.symbol = symbol;
         this.timestamp = timestamp;
         this.provider = provider;
@@ -43,6 +53,7 @@ public class TradingData {
         // For KLINE, price and volume come from candlestick data
         this.price = candlestickData != null ? candlestickData.getClose() : null;
         this.volume = candlestickData != null ? candlestickData.getVolume() : null;
+        this.derived = derived;
     }
     
     // Constructor for trade data (TRADE, AGGREGATE_TRADE)
@@ -58,6 +69,7 @@ public class TradingData {
         // For TRADE, price and volume come from trade data
         this.price = tradeData != null ? tradeData.getPrice() : null;
         this.volume = tradeData != null ? tradeData.getQuantity() : null;
+        this.derived = false;
     }
     
     // Constructor for order book data (ORDER_BOOK, BOOK_TICKER)
@@ -73,6 +85,7 @@ public class TradingData {
         // For ORDER_BOOK, use best bid as price
         this.price = orderBookData != null ? orderBookData.getBestBid() : null;
         this.volume = null; // No single volume for order book
+        this.derived = false;
     }
 
     public String getSymbol() { return symbol; }
@@ -88,6 +101,7 @@ public class TradingData {
     public boolean hasCandlestickData() { return candlestickData != null; }
     public boolean hasTradeData() { return tradeData != null; }
     public boolean hasOrderBookData() { return orderBookData != null; }
+    public boolean isDerived() { return derived; }
 
     @Override
     public String toString() {
@@ -0,0 +1,43 @@
+package org.cloudvision.trading.orderbook;
+
+/**
+ * One depth update (or a full snapshot) in primitive form.
+ *
+ * Prices and quantities are fixed-point longs with {@link LocalOrderBook#SCALE} decimals.
+ * A quantity of zero removes the level. For a snapshot, firstUpdateId == finalUpdateId == lastUpdateId.
+ */
+public class DepthDiff {
+    private final long firstUpdateId;
+    private final long finalUpdateId;
+    private final long eventTime;
+    private final long[] bidPrices;
+    private final long[] bidQuantities;
+    private final long[] askPrices;
+    private final long[] askQuantities;
+
+    public DepthDiff(long firstUpdateId, long finalUpdateId, long eventTime,
+                     long[] bidPrices, long[] bidQuantities,
+                     long[] askPrices, long[] askQuantities) {
+        this.firstUpdateId = firstUpdateId;
+        this.finalUpdateId = finalUpdateId;
+        this.eventTime = eventTime;
+        this.bidPrices = bidPrices;
+        this.bidQuantities = bidQuantities;
+        this.askPrices = askPrices;
+        this.askQuantities = askQuantities;
+    }
+
+    public static DepthDiff snapshot(long lastUpdateId, long eventTime,
+                                     long[] bidPrices, long[] bidQuantities,
+                                     long[] askPrices, long[] askQuantities) {
+        return new DepthDiff(lastUpdateId, lastUpdateId, eventTime, bidPrices, bidQuantities, askPrices, askQuantities);
+    }
+
+    public long getFirstUpdateId() { return firstUpdateId; }
+    public long getFinalUpdateId() { return finalUpdateId; }
+    public long getEventTime() { return eventTime; }
+    public long[] getBidPrices() { return bidPrices; }
+    public long[] getBidQuantities() { return bidQuantities; }
+    public long[] getAskPrices() { return askPrices; }
+    public long[] getAskQuantities() { return askQuantities; }
+}
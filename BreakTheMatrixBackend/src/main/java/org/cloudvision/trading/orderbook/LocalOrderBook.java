@@ -0,0 +1,274 @@
+package org.cloudvision.trading.orderbook;
+
+import org.cloudvision.trading.model.OrderBookData;
+import org.cloudvision.trading.model.OrderBookData.OrderBookLevel;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Full L2 order book for one symbol, kept in primitive sorted arrays.
+ *
+ * Prices and quantities are fixed-point longs with {@link #SCALE} decimals, so level
+ * lookups, updates and depth sums never touch BigDecimal. BigDecimal is only produced
+ * when a top-N {@link OrderBookData} snapshot is published.
+ */
+public class LocalOrderBook {
+
+    /** Binance prices/quantities have at most 8 decimals */
+    public static final int SCALE = 8;
+    private static final long ONE = 100_000_000L;
+
+    private final String symbol;
+    private final BookSide bids = new BookSide(true);
+    private final BookSide asks = new BookSide(false);
+    private long lastUpdateId;
+
+    public LocalOrderBook(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * Replace the whole book with a snapshot
+     */
+    public synchronized void loadSnapshot(DepthDiff snapshot) {
+        bids.clear();
+        asks.clear();
+        apply(snapshot);
+    }
+
+    /**
+     * Apply a diff; zero quantities remove levels
+     */
+    public synchronized void apply(DepthDiff diff) {
+        long[] bp = diff.getBidPrices(), bq = diff.getBidQuantities();
+        for (int i = 0; i < bp.length; i++) {
+            bids.set(bp[i], bq[i]);
+        }
+        long[] ap = diff.getAskPrices(), aq = diff.getAskQuantities();
+        for (int i = 0; i < ap.length; i++) {
+            asks.set(ap[i], aq[i]);
+        }
+        lastUpdateId = diff.getFinalUpdateId();
+    }
+
+    public synchronized void clear() {
+        bids.clear();
+        asks.clear();
+        lastUpdateId = 0;
+    }
+
+    public String getSymbol() { return symbol; }
+    public synchronized long getLastUpdateId() { return lastUpdateId; }
+    public synchronized int getBidLevelCount() { return bids.size; }
+    public synchronized int getAskLevelCount() { return asks.size; }
+
+    /** Best bid in fixed-point, or 0 if the side is empty (O(1)) */
+    public synchronized long getBestBidScaled() { return bids.bestPrice(); }
+
+    /** Best ask in fixed-point, or 0 if the side is empty (O(1)) */
+    public synchronized long getBestAskScaled() { return asks.bestPrice(); }
+
+    /** Spread in fixed-point, or 0 if either side is empty (O(1)) */
+    public synchronized long getSpreadScaled() {
+        if (bids.size == 0 || asks.size == 0) {
+            return 0;
+        }
+        return asks.bestPrice() - bids.bestPrice();
+    }
+
+    public synchronized double getMidPrice() {
+        if (bids.size == 0 || asks.size == 0) {
+            return 0.0;
+        }
+        return (bids.bestPrice() + asks.bestPrice()) / 2.0 / ONE;
+    }
+
+    /** Total bid quantity of the best {@code levels} levels, fixed-point (O(levels)) */
+    public synchronized long getBidDepthScaled(int levels) { return bids.depth(levels); }
+
+    /** Total ask quantity of the best {@code levels} levels, fixed-point (O(levels)) */
+    public synchronized long getAskDepthScaled(int levels) { return asks.depth(levels); }
+
+    /**
+     * Consistent top-N snapshot with precomputed cumulative depth
+     */
+    public synchronized OrderBookData toOrderBookData(int depth, Instant timestamp, String provider) {
+        return new OrderBookData(
+            symbol,
+            lastUpdateId,
+            timestamp,
+            bids.topLevels(depth),
+            asks.topLevels(depth),
+            provider,
+            bids.cumulative(depth),
+            asks.cumulative(depth)
+        );
+    }
+
+    // ===== fixed-point helpers =====
+
+    /**
+     * Parse a plain decimal string ("12345.67000000") into a fixed-point long without BigDecimal
+     * @throws ArithmeticException if the value does not fit (above about 9.2e10 at 8 decimals)
+     */
+    public static long parseScaled(String decimal) {
+        return parseScaled(decimal.toCharArray(), 0, decimal.length());
+    }
+
+    /**
+     * Same as {@link #parseScaled(String)} on a slice of a char buffer (e.g. a streaming
+     * parser's text buffer), so no String is created
+     */
+    public static long parseScaled(char[] buffer, int offset, int length) {
+        long integerPart = 0;
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean negative = false;
+        boolean inFraction = false;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            char c = buffer[i];
+            if (c == '-' && i == offset) {
+                negative = true;
+            } else if (c == '.') {
+                inFraction = true;
+            } else if (c >= '0' && c <= '9') {
+                if (inFraction) {
+                    if (fractionDigits < SCALE) {
+                        fraction = fraction * 10 + (c - '0');
+                        fractionDigits++;
+                    }
+                } else {
+                    integerPart = Math.addExact(Math.multiplyExact(integerPart, 10L), c - '0');
+                }
+            } else {
+                throw new NumberFormatException("Not a plain decimal: " + new String(buffer, offset, length));
+            }
+        }
+        for (int i = fractionDigits; i < SCALE; i++) {
+            fraction *= 10;
+        }
+        long value = Math.addExact(Math.multiplyExact(integerPart, ONE), fraction);
+        return negative ? -value : value;
+    }
+
+    public static BigDecimal toBigDecimal(long scaled) {
+        return BigDecimal.valueOf(scaled, SCALE).stripTrailingZeros();
+    }
+
+    /**
+     * One side of the book. Levels are kept sorted with the best price at the END of the
+     * arrays, so the frequent updates near the touch shift only a few elements.
+     */
+    private static class BookSide {
+        // Far levels beyond this are dropped; they are outside any snapshot we publish
+        private static final int MAX_LEVELS = 10_000;
+
+        private final boolean isBid;
+        private long[] prices = new long[256];
+        private long[] quantities = new long[256];
+        private int size;
+
+        BookSide(boolean isBid) {
+            this.isBid = isBid;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        long bestPrice() {
+            return size == 0 ? 0 : prices[size - 1];
+        }
+
+        /**
+         * Storage order: bids ascending (best = highest at end), asks descending (best = lowest at end)
+         */
+        private boolean before(long a, long b) {
+            return isBid ? a < b : a > b;
+        }
+
+        void set(long price, long quantity) {
+            int idx = find(price);
+            if (idx >= 0) {
+                if (quantity == 0) {
+                    System.arraycopy(prices, idx + 1, prices, idx, size - idx - 1);
+                    System.arraycopy(quantities, idx + 1, quantities, idx, size - idx - 1);
+                    size--;
+                } else {
+                    quantities[idx] = quantity;
+                }
+                return;
+            }
+            if (quantity == 0) {
+                return;
+            }
+            int insertAt = -(idx + 1);
+            if (size == prices.length) {
+                prices = Arrays.copyOf(prices, size * 2);
+                quantities = Arrays.copyOf(quantities, size * 2);
+            }
+            System.arraycopy(prices, insertAt, prices, insertAt + 1, size - insertAt);
+            System.arraycopy(quantities, insertAt, quantities, insertAt + 1, size - insertAt);
+            prices[insertAt] = price;
+            quantities[insertAt] = quantity;
+            size++;
+
+            if (size > MAX_LEVELS + MAX_LEVELS / 4) {
+                int drop = size - MAX_LEVELS;
+                System.arraycopy(prices, drop, prices, 0, MAX_LEVELS);
+                System.arraycopy(quantities, drop, quantities, 0, MAX_LEVELS);
+                size = MAX_LEVELS;
+            }
+        }
+
+        /** Binary search; returns index or -(insertionPoint + 1) */
+        private int find(long price) {
+            int lo = 0, hi = size - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                long p = prices[mid];
+                if (p == price) {
+                    return mid;
+                }
+                if (before(p, price)) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return -(lo + 1);
+        }
+
+        long depth(int levels) {
+            long total = 0;
+            for (int i = size - 1, n = 0; i >= 0 && n < levels; i--, n++) {
+                total += quantities[i];
+            }
+            return total;
+        }
+
+        List<OrderBookLevel> topLevels(int levels) {
+            int n = Math.min(levels, size);
+            List<OrderBookLevel> out = new ArrayList<>(n);
+            for (int i = size - 1; i >= size - n; i--) {
+                out.add(new OrderBookLevel(toBigDecimal(prices[i]), toBigDecimal(quantities[i])));
+            }
+            return out;
+        }
+
+        BigDecimal[] cumulative(int levels) {
+            int n = Math.min(levels, size);
+            BigDecimal[] out = new BigDecimal[n];
+            long running = 0;
+            for (int k = 0; k < n; k++) {
+                running += quantities[size - 1 - k];
+                out[k] = toBigDecimal(running);
+            }
+            return out;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.cloudvision.trading.orderbook;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a {@link LocalOrderBook} in sync with a diff depth stream using update-id sequencing.
+ *
+ * Procedure (Binance "manage a local order book correctly"):
+ * 1. Buffer diffs and request a REST snapshot.
+ * 2. Drop buffered diffs with finalUpdateId <= snapshot.lastUpdateId.
+ * 3. The first applied diff must satisfy firstUpdateId <= lastUpdateId + 1 <= finalUpdateId.
+ * 4. Every following diff must start at previous finalUpdateId + 1, otherwise a gap
+ *    is detected and the book is resynchronized from a fresh snapshot.
+ */
+public class OrderBookSynchronizer {
+
+    // Cap on diffs buffered while a snapshot is in flight
+    private static final int MAX_BUFFERED_DIFFS = 10_000;
+
+    private final LocalOrderBook book;
+    private final Consumer<String> snapshotRequester;
+    private final Deque<DepthDiff> buffer = new ArrayDeque<>();
+
+    private boolean synced = false;
+    private boolean snapshotPending = false;
+    private boolean awaitingFirstDiff = false;
+    private long lastUpdateId = 0;
+
+    private long appliedDiffs = 0;
+    private long resyncCount = 0;
+
+    /**
+     * @param snapshotRequester asynchronously fetches a snapshot for the symbol and
+     *                          delivers it through {@link #onSnapshot(DepthDiff)}
+     */
+    public OrderBookSynchronizer(String symbol, Consumer<String> snapshotRequester) {
+        this.book = new LocalOrderBook(symbol);
+        this.snapshotRequester = snapshotRequester;
+    }
+
+    /**
+     * Handle a diff from the stream.
+     *
+     * @return true if the book changed and a new snapshot should be published
+     */
+    public synchronized boolean onDiff(DepthDiff diff) {
+        if (!synced) {
+            buffer.addLast(diff);
+            if (buffer.size() > MAX_BUFFERED_DIFFS) {
+                buffer.pollFirst();
+            }
+            requestSnapshot();
+            return false;
+        }
+        return applyInSequence(diff);
+    }
+
+    /**
+     * Handle a REST snapshot, then replay buffered diffs on top of it.
+     *
+     * @return true if the book is now synced and should be published
+     */
+    public synchronized boolean onSnapshot(DepthDiff snapshot) {
+        snapshotPending = false;
+
+        // Drop diffs already contained in the snapshot
+        while (!buffer.isEmpty() && buffer.peekFirst().getFinalUpdateId() <= snapshot.getFinalUpdateId()) {
+            buffer.pollFirst();
+        }
+        if (!buffer.isEmpty() && buffer.peekFirst().getFirstUpdateId() > snapshot.getFinalUpdateId() + 1) {
+            // Snapshot is older than the buffered stream: get a newer one
+            System.out.println("📚 " + book.getSymbol() + " snapshot " + snapshot.getFinalUpdateId() +
+                             " is behind the stream, requesting another");
+            requestSnapshot();
+            return false;
+        }
+
+        book.loadSnapshot(snapshot);
+        lastUpdateId = snapshot.getFinalUpdateId();
+        synced = true;
+        awaitingFirstDiff = true;
+
+        List<DepthDiff> pending = new ArrayList<>(buffer);
+        buffer.clear();
+        for (DepthDiff diff : pending) {
+            if (!synced) {
+                // A gap during replay restarted the procedure; keep buffering the rest
+                buffer.addLast(diff);
+            } else {
+                applyInSequence(diff);
+            }
+        }
+        if (synced) {
+            System.out.println("📚 " + book.getSymbol() + " order book synced at update " + lastUpdateId +
+                             " (" + book.getBidLevelCount() + " bids, " + book.getAskLevelCount() + " asks)");
+        }
+        return synced;
+    }
+
+    /**
+     * The snapshot request failed; the next buffered diff will trigger another one
+     */
+    public synchronized void onSnapshotFailed() {
+        snapshotPending = false;
+    }
+
+    /**
+     * Forget the book (e.g. after the stream reconnects); the next diff triggers a new snapshot
+     */
+    public synchronized void reset() {
+        synced = false;
+        snapshotPending = false;
+        awaitingFirstDiff = false;
+        buffer.clear();
+        book.clear();
+    }
+
+    public LocalOrderBook getBook() { return book; }
+    public synchronized boolean isSynced() { return synced; }
+    public synchronized long getAppliedDiffs() { return appliedDiffs; }
+    public synchronized long getResyncCount() { return resyncCount; }
+
+    private boolean applyInSequence(DepthDiff diff) {
+        if (diff.getFinalUpdateId() <= lastUpdateId) {
+            return false; // stale
+        }
+        if (awaitingFirstDiff) {
+            if (diff.getFirstUpdateId() > lastUpdateId + 1) {
+                resync(diff);
+                return false;
+            }
+            awaitingFirstDiff = false;
+        } else if (diff.getFirstUpdateId() != lastUpdateId + 1) {
+            resync(diff);
+            return false;
+        }
+        book.apply(diff);
+        lastUpdateId = diff.getFinalUpdateId();
+        appliedDiffs++;
+        return true;
+    }
+
+    private void resync(DepthDiff diff) {
+        System.err.println("⚠️ " + book.getSymbol() + " depth gap: expected update " + (lastUpdateId + 1) +
+                         ", got " + diff.getFirstUpdateId() + ". Resyncing from snapshot...");
+        resyncCount++;
+        synced = false;
+        awaitingFirstDiff = false;
+        buffer.clear();
+        buffer.addLast(diff);
+        requestSnapshot();
+    }
+
+    private void requestSnapshot() {
+        if (snapshotPending) {
+            return;
+        }
+        snapshotPending = true;
+        snapshotRequester.accept(book.getSymbol());
+    }
+}
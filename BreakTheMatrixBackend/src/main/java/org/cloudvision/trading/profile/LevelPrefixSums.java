@@ -0,0 +1,215 @@
+package org.cloudvision.trading.profile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Time-sliced prefix sums over a profile ladder, for range profiles without rescanning trades.
+ *
+ * Closed time slices (e.g. one minute of trades) are appended in order and stored as sparse rows.
+ * Slices are grouped into blocks; each block keeps a dense checkpoint of everything appended before
+ * it. The profile of [from, to) is prefix(to) - prefix(from), where each prefix is a checkpoint
+ * plus the sparse slices in front of it, so a query costs O(rows + blockSize * rows per slice)
+ * regardless of the range length.
+ *
+ * Whole blocks are evicted once more than {@code maxSlices} slices are retained. The evicted sum is
+ * then subtracted from the running total and every checkpoint, so the sums cover retained slices
+ * only and stay bounded however long the book runs.
+ * Not thread-safe.
+ */
+public class LevelPrefixSums {
+
+    private final int blockSize;
+    private final int maxSlices;
+
+    private final List<Block> blocks = new ArrayList<>();
+    private final ProfileLadder total = new ProfileLadder(); // Sum of every retained slice
+    private int sliceCount; // Retained slices
+
+    public LevelPrefixSums(int blockSize, int maxSlices) {
+        if (blockSize < 1 || maxSlices < 1) {
+            throw new IllegalArgumentException("blockSize and maxSlices must be positive");
+        }
+        this.blockSize = blockSize;
+        this.maxSlices = maxSlices;
+    }
+
+    /**
+     * Append a closed slice; {@code time} must be later than the previous slice's
+     */
+    public void append(long time, ProfileLadder slice) {
+        Block last = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+        if (last != null && time <= last.times[last.size - 1]) {
+            throw new IllegalArgumentException("Slices must be appended in time order");
+        }
+        if (last == null || last.size == blockSize) {
+            last = new Block(blockSize, total.copy());
+            blocks.add(last);
+        }
+        last.add(time, slice);
+        total.add(slice, 1);
+        sliceCount++;
+
+        while (blocks.size() > 1 && sliceCount - blocks.get(0).size >= maxSlices) {
+            sliceCount -= blocks.remove(0).size;
+            rebase();
+        }
+    }
+
+    /**
+     * Make the oldest retained checkpoint zero: O(blocks * rows), once per evicted block
+     */
+    private void rebase() {
+        ProfileLadder evicted = blocks.get(0).before.copy();
+        if (evicted.isEmpty()) {
+            return;
+        }
+        for (Block block : blocks) {
+            block.before.add(evicted, -1);
+            block.before.trim();
+        }
+        total.add(evicted, -1);
+        total.trim();
+    }
+
+    /**
+     * Sum of the slices whose time is in [from, to)
+     */
+    public ProfileLadder range(long from, long to) {
+        ProfileLadder result = new ProfileLadder();
+        if (blocks.isEmpty() || to <= from) {
+            return result;
+        }
+        int[] start = position(from);
+        int[] end = position(to);
+        if (start[0] == blocks.size()) {
+            return result;
+        }
+
+        if (start[0] == end[0]) {
+            Block block = blocks.get(start[0]);
+            for (int i = start[1]; i < end[1]; i++) {
+                block.addSlice(result, i, 1);
+            }
+            return result;
+        }
+
+        // prefix(end) - prefix(start)
+        if (end[0] == blocks.size()) {
+            result.add(total, 1);
+        } else {
+            Block block = blocks.get(end[0]);
+            result.add(block.before, 1);
+            for (int i = 0; i < end[1]; i++) {
+                block.addSlice(result, i, 1);
+            }
+        }
+        Block block = blocks.get(start[0]);
+        result.add(block.before, -1);
+        for (int i = 0; i < start[1]; i++) {
+            block.addSlice(result, i, -1);
+        }
+        return result;
+    }
+
+    /**
+     * Time of the oldest retained slice, or Long.MAX_VALUE if there is none
+     */
+    public long getFirstTime() {
+        return blocks.isEmpty() ? Long.MAX_VALUE : blocks.get(0).times[0];
+    }
+
+    public int getSliceCount() {
+        return sliceCount;
+    }
+
+    /**
+     * {block, slice} of the first slice at or after {@code time}; {blocks.size(), 0} if none
+     */
+    private int[] position(long time) {
+        int low = 0;
+        int high = blocks.size() - 1;
+        int blockIndex = blocks.size();
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Block block = blocks.get(mid);
+            if (block.times[block.size - 1] >= time) {
+                blockIndex = mid;
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        if (blockIndex == blocks.size()) {
+            return new int[]{blockIndex, 0};
+        }
+
+        Block block = blocks.get(blockIndex);
+        low = 0;
+        high = block.size - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (block.times[mid] >= time) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return new int[]{blockIndex, low};
+    }
+
+    /**
+     * Up to blockSize sparse slices plus the checkpoint in front of them
+     */
+    private static class Block {
+        private final ProfileLadder before;
+        private final long[] times;
+        private final long[][] levels;
+        private final long[][] buy;
+        private final long[][] sell;
+        private final int[][] tpo;
+        private int size;
+
+        Block(int capacity, ProfileLadder before) {
+            this.before = before;
+            this.times = new long[capacity];
+            this.levels = new long[capacity][];
+            this.buy = new long[capacity][];
+            this.sell = new long[capacity][];
+            this.tpo = new int[capacity][];
+        }
+
+        void add(long time, ProfileLadder slice) {
+            int rows = 0;
+            for (long level = slice.getMinLevel(); level <= slice.getMaxLevel(); level++) {
+                if (slice.getVolume(level) != 0 || slice.getTpo(level) != 0) {
+                    rows++;
+                }
+            }
+            long[] sliceLevels = new long[rows];
+            long[] sliceBuy = new long[rows];
+            long[] sliceSell = new long[rows];
+            int[] sliceTpo = new int[rows];
+            int k = 0;
+            for (long level = slice.getMinLevel(); level <= slice.getMaxLevel(); level++) {
+                if (slice.getVolume(level) != 0 || slice.getTpo(level) != 0) {
+                    sliceLevels[k] = level;
+                    sliceBuy[k] = slice.getBuyVolume(level);
+                    sliceSell[k] = slice.getSellVolume(level);
+                    sliceTpo[k] = slice.getTpo(level);
+                    k++;
+                }
+            }
+            times[size] = time;
+            levels[size] = sliceLevels;
+            buy[size] = sliceBuy;
+            sell[size] = sliceSell;
+            tpo[size] = sliceTpo;
+            size++;
+        }
+
+        void addSlice(ProfileLadder target, int index, int sign) {
+            target.add(levels[index], buy[index], sell[index], tpo[index], sign);
+        }
+    }
+}
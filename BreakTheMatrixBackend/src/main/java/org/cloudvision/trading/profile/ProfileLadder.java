@@ -0,0 +1,202 @@
+package org.cloudvision.trading.profile;
+
+import java.util.Arrays;
+
+/**
+ * Dense buy/sell volume and TPO ladder over price rows.
+ *
+ * A row is identified by its level: the price divided by the row size (HALF_UP, like footprint
+ * levels). The arrays cover [baseLevel, baseLevel + capacity) and grow in either direction as new
+ * rows appear, so updates are O(1) without boxing. Volumes are fixed-point longs at the owner's
+ * quantity scale; TPO values count the TPO periods in which a row traded. Sums are checked: an
+ * overflow throws ArithmeticException instead of wrapping.
+ *
+ * Not thread-safe.
+ */
+public class ProfileLadder {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Guard against a bad price or a tiny row size allocating a huge ladder */
+    public static final int MAX_LEVELS = 1 << 20;
+
+    private long baseLevel;
+    private long[] buy = new long[0];
+    private long[] sell = new long[0];
+    private int[] tpo = new int[0];
+
+    // Range of rows written since the last clear (may include rows that are back to zero)
+    private long minLevel = Long.MAX_VALUE;
+    private long maxLevel = Long.MIN_VALUE;
+
+    public void addVolume(long level, long quantity, boolean buyer) {
+        int i = index(level);
+        if (buyer) {
+            buy[i] = Math.addExact(buy[i], quantity);
+        } else {
+            sell[i] = Math.addExact(sell[i], quantity);
+        }
+    }
+
+    public void addTpo(long level, int count) {
+        int i = index(level);
+        tpo[i] += count;
+    }
+
+    /**
+     * Add (sign 1) or subtract (sign -1) every row of another ladder
+     */
+    public void add(ProfileLadder other, int sign) {
+        if (other.isEmpty()) {
+            return;
+        }
+        index(other.minLevel);
+        index(other.maxLevel);
+        for (long level = other.minLevel; level <= other.maxLevel; level++) {
+            int from = (int) (level - other.baseLevel);
+            int to = (int) (level - baseLevel);
+            buy[to] = Math.addExact(buy[to], sign * other.buy[from]);
+            sell[to] = Math.addExact(sell[to], sign * other.sell[from]);
+            tpo[to] = Math.addExact(tpo[to], sign * other.tpo[from]);
+        }
+    }
+
+    /**
+     * Add (sign 1) or subtract (sign -1) sparse rows
+     */
+    public void add(long[] levels, long[] buyVolume, long[] sellVolume, int[] tpoCount, int sign) {
+        if (levels.length == 0) {
+            return;
+        }
+        index(levels[0]);
+        index(levels[levels.length - 1]);
+        for (int k = 0; k < levels.length; k++) {
+            int i = (int) (levels[k] - baseLevel);
+            buy[i] = Math.addExact(buy[i], sign * buyVolume[k]);
+            sell[i] = Math.addExact(sell[i], sign * sellVolume[k]);
+            tpo[i] = Math.addExact(tpo[i], sign * tpoCount[k]);
+        }
+    }
+
+    /**
+     * Zero the written rows; the arrays are kept for reuse
+     */
+    public void clear() {
+        if (isEmpty()) {
+            return;
+        }
+        int from = (int) (minLevel - baseLevel);
+        int to = (int) (maxLevel - baseLevel) + 1;
+        Arrays.fill(buy, from, to, 0L);
+        Arrays.fill(sell, from, to, 0L);
+        Arrays.fill(tpo, from, to, 0);
+        minLevel = Long.MAX_VALUE;
+        maxLevel = Long.MIN_VALUE;
+    }
+
+    /**
+     * Shrink the written range to the rows that are not zero (e.g. after subtracting a ladder)
+     */
+    public void trim() {
+        while (minLevel <= maxLevel && isZero(minLevel)) minLevel++;
+        while (maxLevel >= minLevel && isZero(maxLevel)) maxLevel--;
+        if (minLevel > maxLevel) {
+            minLevel = Long.MAX_VALUE;
+            maxLevel = Long.MIN_VALUE;
+        }
+    }
+
+    private boolean isZero(long level) {
+        int i = (int) (level - baseLevel);
+        return buy[i] == 0 && sell[i] == 0 && tpo[i] == 0;
+    }
+
+    /**
+     * Copy sized to the written rows
+     */
+    public ProfileLadder copy() {
+        ProfileLadder copy = new ProfileLadder();
+        if (isEmpty()) {
+            return copy;
+        }
+        int from = (int) (minLevel - baseLevel);
+        int to = (int) (maxLevel - baseLevel) + 1;
+        copy.baseLevel = minLevel;
+        copy.buy = Arrays.copyOfRange(buy, from, to);
+        copy.sell = Arrays.copyOfRange(sell, from, to);
+        copy.tpo = Arrays.copyOfRange(tpo, from, to);
+        copy.minLevel = minLevel;
+        copy.maxLevel = maxLevel;
+        return copy;
+    }
+
+    public boolean isEmpty() {
+        return minLevel > maxLevel;
+    }
+
+    public long getMinLevel() { return minLevel; }
+    public long getMaxLevel() { return maxLevel; }
+
+    public long getBuyVolume(long level) {
+        long i = level - baseLevel;
+        return i >= 0 && i < buy.length ? buy[(int) i] : 0L;
+    }
+
+    public long getSellVolume(long level) {
+        long i = level - baseLevel;
+        return i >= 0 && i < sell.length ? sell[(int) i] : 0L;
+    }
+
+    public long getVolume(long level) {
+        long i = level - baseLevel;
+        return i >= 0 && i < buy.length ? Math.addExact(buy[(int) i], sell[(int) i]) : 0L;
+    }
+
+    public int getTpo(long level) {
+        long i = level - baseLevel;
+        return i >= 0 && i < tpo.length ? tpo[(int) i] : 0;
+    }
+
+    /**
+     * Array index of a row, growing the ladder if needed
+     */
+    private int index(long level) {
+        if (buy.length == 0) {
+            allocate(INITIAL_CAPACITY, level - INITIAL_CAPACITY / 2);
+        } else if (level < baseLevel || level >= baseLevel + buy.length) {
+            grow(level);
+        }
+        if (level < minLevel) minLevel = level;
+        if (level > maxLevel) maxLevel = level;
+        return (int) (level - baseLevel);
+    }
+
+    private void grow(long level) {
+        long low = Math.min(level, baseLevel);
+        long high = Math.max(level, baseLevel + buy.length - 1);
+        long span = high - low + 1;
+        if (span > MAX_LEVELS) {
+            throw new IllegalArgumentException("Profile range of " + span + " rows exceeds " + MAX_LEVELS +
+                " (row size too small for the price range?)");
+        }
+        int capacity = (int) Math.min(MAX_LEVELS, Math.max(buy.length * 2L, span * 2));
+        // Headroom on the side that grew
+        long newBase = level < baseLevel ? high - capacity + 1 : low;
+
+        long[] oldBuy = buy;
+        long[] oldSell = sell;
+        int[] oldTpo = tpo;
+        int offset = (int) (baseLevel - newBase);
+        allocate(capacity, newBase);
+        System.arraycopy(oldBuy, 0, buy, offset, oldBuy.length);
+        System.arraycopy(oldSell, 0, sell, offset, oldSell.length);
+        System.arraycopy(oldTpo, 0, tpo, offset, oldTpo.length);
+    }
+
+    private void allocate(int capacity, long base) {
+        baseLevel = base;
+        buy = new long[capacity];
+        sell = new long[capacity];
+        tpo = new int[capacity];
+    }
+}
@@ -0,0 +1,65 @@
+package org.cloudvision.trading.profile;
+
+import org.cloudvision.trading.model.TimeInterval;
+
+import java.util.List;
+
+/**
+ * Shape of the profiles kept per symbol: rolling periods, slice and TPO period lengths,
+ * prefix-sum retention and the analysis parameters.
+ */
+public class ProfileSettings {
+
+    private final List<TimeInterval> periods;
+    private final long sliceMillis;
+    private final long tpoMillis;
+    private final int checkpointSlices;
+    private final int retainedSlices;
+    private final int historyLimit;
+    private final int valueAreaPercent;
+    private final int nodeWindow;
+
+    /**
+     * @param periods Rolling profile periods (e.g. 8h sessions, 1d, 1w)
+     * @param slice Time resolution of range profiles
+     * @param tpoPeriod TPO bracket; a whole number of slices that divides every period
+     * @param checkpointSlices Slices between dense prefix-sum checkpoints
+     * @param retentionHours How far back range and composite profiles can reach
+     * @param historyLimit Closed profiles kept per period
+     */
+    public ProfileSettings(List<TimeInterval> periods, TimeInterval slice, TimeInterval tpoPeriod,
+                           int checkpointSlices, int retentionHours, int historyLimit,
+                           int valueAreaPercent, int nodeWindow) {
+        if (tpoPeriod.getMillis() % slice.getMillis() != 0) {
+            throw new IllegalArgumentException("TPO period " + tpoPeriod.getValue() +
+                " is not a whole number of " + slice.getValue() + " slices");
+        }
+        for (TimeInterval period : periods) {
+            if (period != TimeInterval.ONE_MONTH && period != TimeInterval.ONE_WEEK
+                && period.getMillis() % tpoPeriod.getMillis() != 0) {
+                throw new IllegalArgumentException("Profile period " + period.getValue() +
+                    " is not a whole number of " + tpoPeriod.getValue() + " TPO periods");
+            }
+        }
+        if (valueAreaPercent < 1 || valueAreaPercent > 100) {
+            throw new IllegalArgumentException("valueAreaPercent must be between 1 and 100");
+        }
+        this.periods = List.copyOf(periods);
+        this.sliceMillis = slice.getMillis();
+        this.tpoMillis = tpoPeriod.getMillis();
+        this.checkpointSlices = Math.max(1, checkpointSlices);
+        this.retainedSlices = (int) Math.max(1, retentionHours * 3_600_000L / sliceMillis);
+        this.historyLimit = Math.max(1, historyLimit);
+        this.valueAreaPercent = valueAreaPercent;
+        this.nodeWindow = Math.max(0, nodeWindow);
+    }
+
+    public List<TimeInterval> getPeriods() { return periods; }
+    public long getSliceMillis() { return sliceMillis; }
+    public long getTpoMillis() { return tpoMillis; }
+    public int getCheckpointSlices() { return checkpointSlices; }
+    public int getRetainedSlices() { return retainedSlices; }
+    public int getHistoryLimit() { return historyLimit; }
+    public int getValueAreaPercent() { return valueAreaPercent; }
+    public int getNodeWindow() { return nodeWindow; }
+}
@@ -0,0 +1,219 @@
+package org.cloudvision.trading.profile;
+
+import org.cloudvision.trading.model.FixedPoint;
+import org.cloudvision.trading.model.FixedTrade;
+import org.cloudvision.trading.model.TimeInterval;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * All volume profiles of one symbol, maintained incrementally from its trades.
+ *
+ * Each trade is O(1) per rolling period: it is rounded to a price row and added to the current
+ * slice and to the ladder of every period (session, day, week, ...). A row earns one TPO the first
+ * time it trades in each TPO period. Closed slices go into {@link LevelPrefixSums}, which answers
+ * range and composite profiles; closed periods are analyzed once and kept as history.
+ *
+ * Not thread-safe; callers serialize access per book.
+ */
+public class SymbolProfileBook {
+
+    private final String symbol;
+    private final BigDecimal rowSize;
+    private final ProfileSettings settings;
+
+    // Price precision taken from the first trade; volumes at the instrument's quantity (step) scale
+    private int priceScale = -1;
+    private final int quantityScale;
+    private long rowTick; // rowSize at priceScale
+
+    private long lastTime = Long.MIN_VALUE;
+
+    private long sliceOpen = Long.MIN_VALUE;
+    private long sliceEnd = Long.MIN_VALUE;
+    private final ProfileLadder slice = new ProfileLadder();
+    private final LevelPrefixSums prefixSums;
+
+    private long tpoPeriodEnd = Long.MIN_VALUE;
+    private final ProfileLadder tpoTouches = new ProfileLadder(); // Rows traded in the current TPO period
+
+    private final List<PeriodState> periods = new ArrayList<>();
+
+    /**
+     * @param quantityScale Decimals kept for volumes: the instrument's step size scale, so a long holds
+     *                      weeks of volume even for coins that trade in billions of units
+     */
+    public SymbolProfileBook(String symbol, BigDecimal rowSize, int quantityScale, ProfileSettings settings) {
+        this.symbol = symbol;
+        this.rowSize = rowSize;
+        this.quantityScale = quantityScale;
+        this.settings = settings;
+        this.prefixSums = new LevelPrefixSums(settings.getCheckpointSlices(), settings.getRetainedSlices());
+        for (TimeInterval interval : settings.getPeriods()) {
+            periods.add(new PeriodState(interval));
+        }
+    }
+
+    public BigDecimal getRowSize() {
+        return rowSize;
+    }
+
+    public void onTrade(FixedTrade trade) {
+        if (priceScale < 0) {
+            priceScale = Math.max(trade.getPriceScale(), FixedPoint.scaleOf(rowSize));
+            rowTick = FixedPoint.toScaled(rowSize, priceScale);
+        }
+        // Trades arrive in order per symbol; a late one is counted in the current slice
+        long time = Math.max(trade.getTimestamp(), lastTime);
+        advance(time);
+
+        long price = FixedPoint.rescale(trade.getPrice(), trade.getPriceScale(), priceScale);
+        long quantity = FixedPoint.rescale(trade.getQuantity(), trade.getQuantityScale(), quantityScale);
+        long level = FixedPoint.toTicks(price, rowTick);
+        boolean buyer = trade.isAggressiveBuy();
+
+        boolean newTpo = tpoTouches.getTpo(level) == 0;
+        if (newTpo) {
+            tpoTouches.addTpo(level, 1);
+        }
+        add(slice, level, quantity, buyer, newTpo);
+        for (PeriodState period : periods) {
+            add(period.ladder, level, quantity, buyer, newTpo);
+        }
+    }
+
+    private static void add(ProfileLadder ladder, long level, long quantity, boolean buyer, boolean newTpo) {
+        ladder.addVolume(level, quantity, buyer);
+        if (newTpo) {
+            ladder.addTpo(level, 1);
+        }
+    }
+
+    /**
+     * Close the slice, TPO period and profile periods that end at or before {@code time}
+     */
+    public void advance(long time) {
+        if (time < lastTime) {
+            return;
+        }
+        lastTime = time;
+
+        if (time > sliceEnd) {
+            if (!slice.isEmpty()) {
+                prefixSums.append(sliceOpen, slice);
+                slice.clear();
+            }
+            sliceOpen = Math.floorDiv(time, settings.getSliceMillis()) * settings.getSliceMillis();
+            sliceEnd = sliceOpen + settings.getSliceMillis() - 1;
+        }
+        if (time > tpoPeriodEnd) {
+            tpoTouches.clear();
+            long open = Math.floorDiv(time, settings.getTpoMillis()) * settings.getTpoMillis();
+            tpoPeriodEnd = open + settings.getTpoMillis() - 1;
+        }
+        for (PeriodState period : periods) {
+            if (time > period.closeTime) {
+                period.roll(time);
+            }
+        }
+    }
+
+    /**
+     * Profile of the period currently forming, or null if the period is not tracked or has no trades yet
+     */
+    public VolumeProfile getCurrentProfile(TimeInterval interval) {
+        PeriodState period = find(interval);
+        if (period == null || period.openTime == Long.MIN_VALUE) {
+            return null;
+        }
+        return analyze(interval.getValue(), period.openTime, period.closeTime, period.partial, period.ladder);
+    }
+
+    /**
+     * Closed profiles of a period, oldest first
+     */
+    public List<VolumeProfile> getCompletedProfiles(TimeInterval interval, int limit) {
+        PeriodState period = find(interval);
+        if (period == null) {
+            return new ArrayList<>();
+        }
+        List<VolumeProfile> result = new ArrayList<>(period.completed);
+        return result.subList(Math.max(0, result.size() - limit), result.size());
+    }
+
+    /**
+     * Profile of the trades in [from, to], answered from the prefix sums plus the open slice.
+     * Resolution is one slice; TPO counts are exact when the range is aligned to the TPO period.
+     */
+    public VolumeProfile getRangeProfile(String label, long from, long to) {
+        long end = to == Long.MAX_VALUE ? to : to + 1;
+        ProfileLadder ladder = prefixSums.range(from, end);
+        if (!slice.isEmpty() && sliceOpen >= from && sliceOpen < end) {
+            ladder.add(slice, 1);
+        }
+        long covered = Math.min(prefixSums.getFirstTime(), slice.isEmpty() ? Long.MAX_VALUE : sliceOpen);
+        boolean partial = covered > from;
+        return analyze(label, from, Math.min(to, Math.max(lastTime, from)), partial, ladder);
+    }
+
+    /**
+     * Composite of the current period and the {@code count - 1} periods before it
+     */
+    public VolumeProfile getCompositeProfile(TimeInterval interval, int count) {
+        PeriodState period = find(interval);
+        long open = period != null && period.openTime != Long.MIN_VALUE
+            ? period.openTime : interval.alignOpenTime(Math.max(lastTime, 0));
+        for (int i = 1; i < count; i++) {
+            open = interval.alignOpenTime(open - 1);
+        }
+        return getRangeProfile("composite", open, Long.MAX_VALUE);
+    }
+
+    private VolumeProfile analyze(String label, long from, long to, boolean partial, ProfileLadder ladder) {
+        return VolumeProfile.of(symbol, label, Instant.ofEpochMilli(from), Instant.ofEpochMilli(to), partial,
+            ladder, rowSize, quantityScale, settings.getValueAreaPercent(), settings.getNodeWindow());
+    }
+
+    private PeriodState find(TimeInterval interval) {
+        for (PeriodState period : periods) {
+            if (period.interval == interval) {
+                return period;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Rolling profile of one period interval
+     */
+    private class PeriodState {
+        private final TimeInterval interval;
+        private final ProfileLadder ladder = new ProfileLadder();
+        private final Deque<VolumeProfile> completed = new ArrayDeque<>();
+        private long openTime = Long.MIN_VALUE;
+        private long closeTime = Long.MIN_VALUE;
+        private boolean partial = true; // The first period starts wherever trade collection started
+
+        PeriodState(TimeInterval interval) {
+            this.interval = interval;
+        }
+
+        void roll(long time) {
+            if (!ladder.isEmpty()) {
+                completed.addLast(analyze(interval.getValue(), openTime, closeTime, partial, ladder));
+                while (completed.size() > settings.getHistoryLimit()) {
+                    completed.removeFirst();
+                }
+                ladder.clear();
+            }
+            partial = openTime == Long.MIN_VALUE;
+            openTime = interval.alignOpenTime(time);
+            closeTime = interval.nextOpenTime(openTime) - 1;
+        }
+    }
+}
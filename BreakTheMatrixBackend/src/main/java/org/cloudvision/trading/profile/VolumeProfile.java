@@ -0,0 +1,285 @@
+package org.cloudvision.trading.profile;
+
+import org.cloudvision.trading.model.FixedPoint;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Volume profile and TPO (time price opportunity) profile of one time range, with
+ * point of control, value area and high/low volume nodes.
+ *
+ * Built from a {@link ProfileLadder} in a few linear passes over its rows: the value area grows from the POC one row at a
+ * time towards the side with more volume (CBOT style); volume nodes are rows whose smoothed volume
+ * is the extreme of their neighbourhood and well above (HVN) or below (LVN) the average row.
+ */
+public class VolumeProfile {
+
+    /** Smoothed row volume relative to the average row for a high / low volume node */
+    private static final double HVN_FACTOR = 1.5;
+    private static final double LVN_FACTOR = 0.5;
+
+    private final String symbol;
+    private final String period; // Period interval ("1d"), "range" or "composite"
+    private final Instant startTime;
+    private final Instant endTime;
+    private final boolean partial; // Range not fully covered by collected trades
+    private final BigDecimal rowSize;
+
+    private final BigDecimal totalVolume;
+    private final BigDecimal buyVolume;
+    private final BigDecimal sellVolume;
+    private final BigDecimal delta;
+
+    private final BigDecimal pointOfControl;
+    private final BigDecimal valueAreaHigh;
+    private final BigDecimal valueAreaLow;
+
+    private final BigDecimal tpoPointOfControl;
+    private final BigDecimal tpoValueAreaHigh;
+    private final BigDecimal tpoValueAreaLow;
+
+    private final List<BigDecimal> highVolumeNodes;
+    private final List<BigDecimal> lowVolumeNodes;
+    private final List<Level> levels; // Ascending price
+
+    private VolumeProfile(String symbol, String period, Instant startTime, Instant endTime, boolean partial,
+                          BigDecimal rowSize, BigDecimal totalVolume, BigDecimal buyVolume, BigDecimal sellVolume,
+                          BigDecimal pointOfControl, BigDecimal valueAreaHigh, BigDecimal valueAreaLow,
+                          BigDecimal tpoPointOfControl, BigDecimal tpoValueAreaHigh, BigDecimal tpoValueAreaLow,
+                          List<BigDecimal> highVolumeNodes, List<BigDecimal> lowVolumeNodes, List<Level> levels) {
+        this.symbol = symbol;
+        this.period = period;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.partial = partial;
+        this.rowSize = rowSize;
+        this.totalVolume = totalVolume;
+        this.buyVolume = buyVolume;
+        this.sellVolume = sellVolume;
+        this.delta = buyVolume.subtract(sellVolume);
+        this.pointOfControl = pointOfControl;
+        this.valueAreaHigh = valueAreaHigh;
+        this.valueAreaLow = valueAreaLow;
+        this.tpoPointOfControl = tpoPointOfControl;
+        this.tpoValueAreaHigh = tpoValueAreaHigh;
+        this.tpoValueAreaLow = tpoValueAreaLow;
+        this.highVolumeNodes = highVolumeNodes;
+        this.lowVolumeNodes = lowVolumeNodes;
+        this.levels = levels;
+    }
+
+    /**
+     * Analyze a ladder
+     * @param quantityScale Fixed-point scale of the ladder's volumes
+     * @param valueAreaPercent Share of the volume (and of the TPOs) inside the value area, e.g. 70
+     * @param nodeWindow Rows on each side averaged before looking for volume nodes
+     */
+    public static VolumeProfile of(String symbol, String period, Instant startTime, Instant endTime, boolean partial,
+                                   ProfileLadder ladder, BigDecimal rowSize, int quantityScale,
+                                   int valueAreaPercent, int nodeWindow) {
+        BigDecimal zero = FixedPoint.toBigDecimal(0, Math.max(quantityScale, 0));
+
+        // Trim rows that are empty (a range difference can leave zeros at the edges)
+        long low = ladder.getMinLevel();
+        long high = ladder.getMaxLevel();
+        while (low <= high && ladder.getVolume(low) == 0 && ladder.getTpo(low) == 0) low++;
+        while (high >= low && ladder.getVolume(high) == 0 && ladder.getTpo(high) == 0) high--;
+        if (ladder.isEmpty() || low > high) {
+            return new VolumeProfile(symbol, period, startTime, endTime, partial, rowSize, zero, zero, zero,
+                null, null, null, null, null, null,
+                Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+        }
+
+        int rows = (int) (high - low + 1);
+        long[] volume = new long[rows];
+        long[] tpo = new long[rows];
+        long totalBuy = 0;
+        long totalSell = 0;
+        List<Level> levels = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            long level = low + i;
+            long buy = ladder.getBuyVolume(level);
+            long sell = ladder.getSellVolume(level);
+            volume[i] = Math.addExact(buy, sell);
+            tpo[i] = ladder.getTpo(level);
+            totalBuy = Math.addExact(totalBuy, buy);
+            totalSell = Math.addExact(totalSell, sell);
+            levels.add(new Level(price(level, rowSize), FixedPoint.toBigDecimal(buy, quantityScale),
+                FixedPoint.toBigDecimal(sell, quantityScale), (int) tpo[i]));
+        }
+
+        int poc = pointOfControl(volume);
+        int[] valueArea = valueArea(volume, poc, valueAreaPercent);
+        int tpoPoc = pointOfControl(tpo);
+        int[] tpoValueArea = valueArea(tpo, tpoPoc, valueAreaPercent);
+
+        List<BigDecimal> highNodes = new ArrayList<>();
+        List<BigDecimal> lowNodes = new ArrayList<>();
+        findVolumeNodes(volume, nodeWindow, low, rowSize, highNodes, lowNodes);
+
+        return new VolumeProfile(symbol, period, startTime, endTime, partial, rowSize,
+            FixedPoint.toBigDecimal(Math.addExact(totalBuy, totalSell), quantityScale),
+            FixedPoint.toBigDecimal(totalBuy, quantityScale), FixedPoint.toBigDecimal(totalSell, quantityScale),
+            price(low + poc, rowSize), price(low + valueArea[1], rowSize), price(low + valueArea[0], rowSize),
+            price(low + tpoPoc, rowSize), price(low + tpoValueArea[1], rowSize), price(low + tpoValueArea[0], rowSize),
+            highNodes, lowNodes, levels);
+    }
+
+    /**
+     * Row with the most volume; ties go to the row nearest the middle of the profile
+     */
+    private static int pointOfControl(long[] values) {
+        int poc = 0;
+        int middle2 = values.length - 1; // 2 * middle index
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > values[poc]
+                || (values[i] == values[poc] && Math.abs(2 * i - middle2) < Math.abs(2 * poc - middle2))) {
+                poc = i;
+            }
+        }
+        return poc;
+    }
+
+    /**
+     * {low row, high row} of the value area around {@code poc}
+     */
+    private static int[] valueArea(long[] values, int poc, int percent) {
+        long total = 0;
+        for (long value : values) {
+            total = Math.addExact(total, value);
+        }
+        // Integer math: accumulated / total >= percent / 100, i.e. accumulated >= ceil(total * percent / 100)
+        long target = total / 100 * percent + (total % 100 * percent + 99) / 100;
+        int down = poc - 1;
+        int up = poc + 1;
+        long accumulated = values[poc];
+        while (accumulated < target && (down >= 0 || up < values.length)) {
+            long below = down >= 0 ? values[down] : -1;
+            long above = up < values.length ? values[up] : -1;
+            if (above >= below) {
+                accumulated += above;
+                up++;
+            } else {
+                accumulated += below;
+                down--;
+            }
+        }
+        return new int[]{down + 1, up - 1};
+    }
+
+    /**
+     * Peaks / troughs of the moving average over 2 * window + 1 rows (sliding sum; O(rows * window))
+     */
+    private static void findVolumeNodes(long[] volume, int window, long lowLevel, BigDecimal rowSize,
+                                        List<BigDecimal> highNodes, List<BigDecimal> lowNodes) {
+        int rows = volume.length;
+        if (rows < 3) {
+            return;
+        }
+        double[] smoothed = new double[rows];
+        double sum = 0;
+        double total = 0;
+        for (int i = 0; i < Math.min(window, rows); i++) {
+            sum += volume[i];
+        }
+        for (int i = 0; i < rows; i++) {
+            int add = i + window;
+            int remove = i - window - 1;
+            if (add < rows) sum += volume[add];
+            if (remove >= 0) sum -= volume[remove];
+            int count = Math.min(rows - 1, i + window) - Math.max(0, i - window) + 1;
+            smoothed[i] = sum / count;
+            total += volume[i];
+        }
+        double average = total / rows;
+
+        for (int i = 1; i < rows - 1; i++) {
+            double value = smoothed[i];
+            if (value >= HVN_FACTOR * average && isExtreme(smoothed, i, window, 1)) {
+                highNodes.add(price(lowLevel + i, rowSize));
+            } else if (value <= LVN_FACTOR * average && isExtreme(smoothed, i, window, -1)) {
+                lowNodes.add(price(lowLevel + i, rowSize));
+            }
+        }
+    }
+
+    /**
+     * True if row i is the highest (direction 1) or lowest (-1) within {@code window} rows on each
+     * side; on a plateau only the first row counts
+     */
+    private static boolean isExtreme(double[] values, int i, int window, int direction) {
+        int from = Math.max(0, i - Math.max(window, 1));
+        int to = Math.min(values.length - 1, i + Math.max(window, 1));
+        double value = values[i] * direction;
+        for (int j = from; j <= to; j++) {
+            double other = values[j] * direction;
+            if (other > value || (other == value && j < i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static BigDecimal price(long level, BigDecimal rowSize) {
+        return BigDecimal.valueOf(level).multiply(rowSize);
+    }
+
+    public String getSymbol() { return symbol; }
+    public String getPeriod() { return period; }
+    public Instant getStartTime() { return startTime; }
+    public Instant getEndTime() { return endTime; }
+    public boolean isPartial() { return partial; }
+    public BigDecimal getRowSize() { return rowSize; }
+    public BigDecimal getTotalVolume() { return totalVolume; }
+    public BigDecimal getBuyVolume() { return buyVolume; }
+    public BigDecimal getSellVolume() { return sellVolume; }
+    public BigDecimal getDelta() { return delta; }
+    public BigDecimal getPointOfControl() { return pointOfControl; }
+    public BigDecimal getValueAreaHigh() { return valueAreaHigh; }
+    public BigDecimal getValueAreaLow() { return valueAreaLow; }
+    public BigDecimal getTpoPointOfControl() { return tpoPointOfControl; }
+    public BigDecimal getTpoValueAreaHigh() { return tpoValueAreaHigh; }
+    public BigDecimal getTpoValueAreaLow() { return tpoValueAreaLow; }
+    public List<BigDecimal> getHighVolumeNodes() { return highVolumeNodes; }
+    public List<BigDecimal> getLowVolumeNodes() { return lowVolumeNodes; }
+    public List<Level> getLevels() { return levels; }
+
+    public boolean isEmpty() {
+        return levels.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("VolumeProfile{symbol='%s', period='%s', volume=%s, POC=%s, VA=[%s-%s], " +
+                "TPO POC=%s, HVN=%d, LVN=%d, rows=%d}",
+                symbol, period, totalVolume, pointOfControl, valueAreaLow, valueAreaHigh,
+                tpoPointOfControl, highVolumeNodes.size(), lowVolumeNodes.size(), levels.size());
+    }
+
+    /**
+     * One price row
+     */
+    public static class Level {
+        private final BigDecimal price;
+        private final BigDecimal buyVolume;
+        private final BigDecimal sellVolume;
+        private final int tpoCount;
+
+        public Level(BigDecimal price, BigDecimal buyVolume, BigDecimal sellVolume, int tpoCount) {
+            this.price = price;
+            this.buyVolume = buyVolume;
+            this.sellVolume = sellVolume;
+            this.tpoCount = tpoCount;
+        }
+
+        public BigDecimal getPrice() { return price; }
+        public BigDecimal getBuyVolume() { return buyVolume; }
+        public BigDecimal getSellVolume() { return sellVolume; }
+        public BigDecimal getTotalVolume() { return buyVolume.add(sellVolume); }
+        public int getTpoCount() { return tpoCount; }
+    }
+}
@@ -0,0 +1,213 @@
+package org.cloudvision.trading.profile;
+
+import org.cloudvision.trading.bot.TradingBot;
+import org.cloudvision.trading.model.TimeInterval;
+import org.cloudvision.trading.model.TradeData;
+import org.cloudvision.trading.model.TradingData;
+import org.cloudvision.trading.service.InstrumentRegistry;
+import org.cloudvision.trading.service.MarketDataBus.BackpressurePolicy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming volume / TPO profiles per symbol, built from the trade stream.
+ *
+ * Keeps rolling session, day and week profiles (configurable), their recent history, and
+ * time-sliced prefix sums so any range (visible chart range, last N days) is answered without
+ * rescanning trades. Prices are grouped into rows of a per-symbol row size; unless configured,
+ * the row size is picked from the first trade price (about 0.1% of price, a power of ten).
+ */
+@Service
+public class VolumeProfileService {
+
+    private final boolean enabled;
+    private final ProfileSettings settings;
+    private final Map<String, BigDecimal> configuredRowSizes = new ConcurrentHashMap<>();
+
+    // symbol -> profiles; each book is guarded by its own monitor
+    private final Map<String, SymbolProfileBook> books = new ConcurrentHashMap<>();
+
+    // Step sizes: volumes are kept at the instrument's quantity scale rather than 8 decimals
+    @Autowired(required = false)
+    private InstrumentRegistry instrumentRegistry;
+
+    public VolumeProfileService(TradingBot tradingBot,
+                                @Value("${trading.profile.enabled:true}") boolean enabled,
+                                @Value("${trading.profile.periods:8h,1d,1w}") String periods,
+                                @Value("${trading.profile.slice:1m}") String slice,
+                                @Value("${trading.profile.tpo-period:30m}") String tpoPeriod,
+                                @Value("${trading.profile.checkpoint-slices:60}") int checkpointSlices,
+                                @Value("${trading.profile.retention-hours:168}") int retentionHours,
+                                @Value("${trading.profile.history:30}") int historyLimit,
+                                @Value("${trading.profile.value-area-percent:70}") int valueAreaPercent,
+                                @Value("${trading.profile.node-window:4}") int nodeWindow,
+                                @Value("${trading.profile.row-sizes:}") String rowSizes) {
+        this.enabled = enabled;
+
+        List<TimeInterval> periodIntervals = new ArrayList<>();
+        for (String value : periods.split(",")) {
+            if (!value.isBlank()) {
+                periodIntervals.add(TimeInterval.fromString(value.trim()));
+            }
+        }
+        this.settings = new ProfileSettings(periodIntervals, TimeInterval.fromString(slice.trim()),
+            TimeInterval.fromString(tpoPeriod.trim()), checkpointSlices, retentionHours, historyLimit,
+            valueAreaPercent, nodeWindow);
+
+        // "BTCUSDT:10,ETHUSDT:1"
+        for (String entry : rowSizes.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length == 2) {
+                configuredRowSizes.put(parts[0].trim().toUpperCase(), new BigDecimal(parts[1].trim()));
+            }
+        }
+
+        if (enabled) {
+            tradingBot.addDataHandler("volume-profile", BackpressurePolicy.BLOCK, this::processData);
+        }
+        System.out.println("✅ VolumeProfileService initialized (" +
+                         (enabled ? "periods: " + settings.getPeriods() : "disabled") + ")");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<TimeInterval> getPeriods() {
+        return settings.getPeriods();
+    }
+
+    public Set<String> getSymbols() {
+        return new TreeSet<>(books.keySet());
+    }
+
+    /**
+     * Row size of a symbol, or null if it has no profile yet
+     */
+    public BigDecimal getRowSize(String symbol) {
+        SymbolProfileBook book = books.get(symbol);
+        return book != null ? book.getRowSize() : configuredRowSizes.get(symbol);
+    }
+
+    /**
+     * Set the row size of a symbol; its collected profiles are discarded
+     */
+    public void setRowSize(String symbol, BigDecimal rowSize) {
+        if (rowSize.signum() <= 0) {
+            throw new IllegalArgumentException("Row size must be positive");
+        }
+        configuredRowSizes.put(symbol, rowSize);
+        books.remove(symbol);
+        System.out.println("📊 Volume profile row size for " + symbol + " set to " + rowSize.toPlainString());
+    }
+
+    private void processData(TradingData data) {
+        if (!data.hasTradeData()) {
+            return;
+        }
+        TradeData trade = data.getTradeData();
+        SymbolProfileBook book = books.computeIfAbsent(trade.getSymbol(), symbol -> newBook(symbol, trade));
+        try {
+            synchronized (book) {
+                book.onTrade(trade.toFixed());
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Error updating volume profile for " + trade.getSymbol() + ": " + e.getMessage());
+        }
+    }
+
+    private SymbolProfileBook newBook(String symbol, TradeData firstTrade) {
+        BigDecimal rowSize = configuredRowSizes.get(symbol);
+        if (rowSize == null) {
+            rowSize = defaultRowSize(firstTrade.getPrice());
+        }
+        int quantityScale = instrumentRegistry != null
+            ? instrumentRegistry.getSpec(symbol).getQuantityScale()
+            : firstTrade.toFixed().getQuantityScale();
+        System.out.println("📊 Building volume profiles for " + symbol + " (row size " + rowSize.toPlainString() +
+                         ", " + quantityScale + " volume decimals)");
+        return new SymbolProfileBook(symbol, rowSize, quantityScale, settings);
+    }
+
+    /**
+     * Power of ten about 1/1000 of the price (BTC ~60000 -> 10, ETH ~3000 -> 1)
+     */
+    static BigDecimal defaultRowSize(BigDecimal price) {
+        if (price.signum() <= 0) {
+            return new BigDecimal("0.01");
+        }
+        int magnitude = price.precision() - price.scale() - 1; // floor(log10(price))
+        return BigDecimal.ONE.movePointRight(magnitude - 3);
+    }
+
+    /**
+     * Close slices and periods whose time is up even when the symbol has no trades
+     */
+    @Scheduled(fixedRate = 1000)
+    public void rollProfiles() {
+        long now = System.currentTimeMillis();
+        for (SymbolProfileBook book : books.values()) {
+            synchronized (book) {
+                book.advance(now);
+            }
+        }
+    }
+
+    /**
+     * Profile of the forming period (e.g. today's), or null if there is none
+     */
+    public VolumeProfile getCurrentProfile(String symbol, TimeInterval period) {
+        SymbolProfileBook book = books.get(symbol);
+        if (book == null) {
+            return null;
+        }
+        synchronized (book) {
+            return book.getCurrentProfile(period);
+        }
+    }
+
+    /**
+     * Closed profiles of a period, oldest first
+     */
+    public List<VolumeProfile> getCompletedProfiles(String symbol, TimeInterval period, int limit) {
+        SymbolProfileBook book = books.get(symbol);
+        if (book == null) {
+            return new ArrayList<>();
+        }
+        synchronized (book) {
+            return book.getCompletedProfiles(period, limit);
+        }
+    }
+
+    /**
+     * Profile of the trades between two times (epoch millis, inclusive), e.g. the visible chart range
+     */
+    public VolumeProfile getRangeProfile(String symbol, long fromMillis, long toMillis) {
+        SymbolProfileBook book = books.get(symbol);
+        if (book == null) {
+            return null;
+        }
+        synchronized (book) {
+            return book.getRangeProfile("range", fromMillis, toMillis);
+        }
+    }
+
+    /**
+     * Composite of the last {@code count} periods, the forming one included
+     */
+    public VolumeProfile getCompositeProfile(String symbol, TimeInterval period, int count) {
+        SymbolProfileBook book = books.get(symbol);
+        if (book == null) {
+            return null;
+        }
+        synchronized (book) {
+            return book.getCompositeProfile(period, Math.max(1, count));
+        }
+    }
+}
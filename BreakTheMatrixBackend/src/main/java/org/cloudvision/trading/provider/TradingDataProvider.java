@@ -31,6 +31,32 @@ public interface TradingDataProvider {
     List<CandlestickData> getHistoricalKlines(String symbol, TimeInterval interval, int limit);
     List<CandlestickData> getHistoricalKlines(String symbol, TimeInterval interval, Instant startTime, Instant endTime);
     
+    /**
+     * Fetch the last {@code limit} klines, handing each fetched page to {@code pageConsumer}
+     * in chronological order as it arrives. Providers without pagination deliver one page.
+     */
+    default List<CandlestickData> getHistoricalKlines(String symbol, TimeInterval interval, int limit,
+                                                      Consumer<List<CandlestickData>> pageConsumer) {
+        List<CandlestickData> klines = getHistoricalKlines(symbol, interval, limit);
+        if (pageConsumer != null && !klines.isEmpty()) {
+            pageConsumer.accept(klines);
+        }
+        return klines;
+    }
+    
+    /**
+     * Fetch klines for a time range, handing each fetched page to {@code pageConsumer}
+     * in chronological order as it arrives. Providers without pagination deliver one page.
+     */
+    default List<CandlestickData> getHistoricalKlines(String symbol, TimeInterval interval, Instant startTime, Instant endTime,
+                                                      Consumer<List<CandlestickData>> pageConsumer) {
+        List<CandlestickData> klines = getHistoricalKlines(symbol, interval, startTime, endTime);
+        if (pageConsumer != null && !klines.isEmpty()) {
+            pageConsumer.accept(klines);
+        }
+        return klines;
+    }
+    
     void setDataHandler(Consumer<TradingData> handler);
     List<String> getSupportedSymbols();
     List<TimeInterval> getSupportedIntervals();
@@ -0,0 +1,273 @@
+package org.cloudvision.trading.provider.impl;
+
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.model.TimeInterval;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Paginated, parallel historical kline backfill for the Binance REST API.
+ *
+ * A time range is split into pages of at most 1000 bars. Pages are fetched on a small
+ * shared pool (the bounded in-flight window), every request first reserves its weight
+ * against the per-minute limit, and finished pages are handed to the caller strictly in
+ * chronological order as soon as the contiguous prefix is complete.
+ */
+class BinanceKlineBackfill {
+
+    static final int MAX_KLINES_PER_REQUEST = 1000;
+
+    // Binance: /api/v3/klines costs 2 weight, 6000 weight per minute per IP
+    private static final int KLINES_REQUEST_WEIGHT = 2;
+    private static final int WEIGHT_LIMIT_PER_MINUTE = 6000;
+    private static final int WEIGHT_SAFETY_MARGIN = 600;
+
+    private static final int MAX_IN_FLIGHT = 8;
+    private static final int MAX_PAGE_ATTEMPTS = 3;
+
+    /**
+     * Fetches a single page: [startMs, endMs], at most {@code limit} bars
+     */
+    interface PageFetcher {
+        Page fetch(long startMs, long endMs, int limit) throws Exception;
+    }
+
+    /**
+     * Result of one page request
+     */
+    static class Page {
+        final List<CandlestickData> candles;
+        final int statusCode;
+        final int usedWeight;       // from X-MBX-USED-WEIGHT-1M, -1 if absent
+        final long retryAfterMillis; // from Retry-After on 429/418, 0 if absent
+
+        Page(List<CandlestickData> candles, int statusCode, int usedWeight, long retryAfterMillis) {
+            this.candles = candles;
+            this.statusCode = statusCode;
+            this.usedWeight = usedWeight;
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        boolean isRateLimited() {
+            return statusCode == 429 || statusCode == 418;
+        }
+    }
+
+    private final ExecutorService fetchPool;
+    private final WeightLimiter weightLimiter = new WeightLimiter();
+
+    BinanceKlineBackfill() {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.fetchPool = Executors.newFixedThreadPool(MAX_IN_FLIGHT, r -> {
+            Thread t = new Thread(r, "binance-backfill-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Fetch all bars with openTime in [start, end].
+     *
+     * @param pageConsumer receives each page in chronological order as it becomes available (may be null)
+     * @return all bars, sorted by openTime, de-duplicated
+     */
+    List<CandlestickData> fetchRange(String symbol, TimeInterval interval, Instant start, Instant end,
+                                     PageFetcher fetcher, Consumer<List<CandlestickData>> pageConsumer) {
+        long startMs = start.toEpochMilli();
+        long endMs = end.toEpochMilli();
+        if (endMs < startMs) {
+            return new ArrayList<>();
+        }
+
+        long pageSpan = interval.getMillis() * MAX_KLINES_PER_REQUEST;
+        List<long[]> ranges = new ArrayList<>();
+        for (long s = startMs; s <= endMs; s += pageSpan) {
+            ranges.add(new long[]{s, Math.min(s + pageSpan - 1, endMs)});
+        }
+
+        long startedAt = System.currentTimeMillis();
+        System.out.println("📥 Backfilling " + symbol + " (" + interval.getValue() + "): " + ranges.size() +
+                         " page(s) from " + start + " to " + end);
+
+        InOrderEmitter emitter = new InOrderEmitter(ranges.size(), pageConsumer);
+        List<Future<?>> futures = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            final int pageIndex = i;
+            final long[] range = ranges.get(i);
+            futures.add(fetchPool.submit(() -> {
+                List<CandlestickData> candles;
+                try {
+                    candles = fetchPageWithRetry(fetcher, range[0], range[1]);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    candles = List.of();
+                } catch (Exception e) {
+                    // A missing page leaves a gap but must not hold back the pages after it
+                    System.err.println("❌ Backfill page failed for " + symbol + " [" +
+                                     Instant.ofEpochMilli(range[0]) + "]: " + e.getMessage());
+                    candles = List.of();
+                }
+                emitter.complete(pageIndex, candles);
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                break;
+            } catch (ExecutionException e) {
+                System.err.println("❌ Backfill task failed for " + symbol + ": " + e.getCause().getMessage());
+            }
+        }
+
+        List<CandlestickData> result = emitter.stitched();
+        long elapsed = Math.max(1, System.currentTimeMillis() - startedAt);
+        System.out.println("✅ Backfilled " + result.size() + " bars for " + symbol + " (" + interval.getValue() +
+                         ") in " + elapsed + "ms (" + (result.size() * 1000L / elapsed) + " bars/sec)");
+        return result;
+    }
+
+    void shutdown() {
+        fetchPool.shutdownNow();
+    }
+
+    private List<CandlestickData> fetchPageWithRetry(PageFetcher fetcher, long startMs, long endMs) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            weightLimiter.acquire(KLINES_REQUEST_WEIGHT);
+            Page page = fetcher.fetch(startMs, endMs, MAX_KLINES_PER_REQUEST);
+            weightLimiter.observe(page.usedWeight);
+
+            if (page.statusCode == 200) {
+                return page.candles;
+            }
+            if (attempt >= MAX_PAGE_ATTEMPTS) {
+                throw new IllegalStateException("HTTP " + page.statusCode + " after " + attempt + " attempts");
+            }
+            if (page.isRateLimited()) {
+                long backoff = page.retryAfterMillis > 0 ? page.retryAfterMillis : 60_000;
+                System.err.println("⚠️ Binance rate limit hit (HTTP " + page.statusCode + "), backing off " + backoff + "ms");
+                weightLimiter.block(backoff);
+            } else {
+                Thread.sleep(1000L * attempt);
+            }
+        }
+    }
+
+    /**
+     * Collects pages completed out of order and releases the contiguous prefix in order.
+     *
+     * The consumer (storage I/O) runs outside the lock, so fetch threads finishing meanwhile
+     * are not held up. One thread drains at a time, which keeps the pages in order: a thread
+     * completing a page while another drains leaves it to that drainer.
+     */
+    static class InOrderEmitter {
+        private final List<List<CandlestickData>> pages;
+        private final Consumer<List<CandlestickData>> consumer;
+        private int nextToEmit = 0;
+        private boolean draining = false;
+
+        InOrderEmitter(int pageCount, Consumer<List<CandlestickData>> consumer) {
+            this.pages = new ArrayList<>(Collections.nCopies(pageCount, null));
+            this.consumer = consumer;
+        }
+
+        void complete(int index, List<CandlestickData> candles) {
+            synchronized (this) {
+                pages.set(index, candles);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            while (true) {
+                List<List<CandlestickData>> ready = new ArrayList<>();
+                synchronized (this) {
+                    while (nextToEmit < pages.size() && pages.get(nextToEmit) != null) {
+                        ready.add(pages.get(nextToEmit++));
+                    }
+                    if (ready.isEmpty()) {
+                        draining = false;
+                        return;
+                    }
+                }
+                for (List<CandlestickData> page : ready) {
+                    if (consumer != null && !page.isEmpty()) {
+                        try {
+                            consumer.accept(page);
+                        } catch (Exception e) {
+                            System.err.println("❌ Backfill page consumer failed: " + e.getMessage());
+                        }
+                    }
+                }
+            }
+        }
+
+        synchronized List<CandlestickData> stitched() {
+            // Pages are disjoint by construction, but de-duplicate defensively by open time
+            List<CandlestickData> result = new ArrayList<>();
+            long lastOpenTime = Long.MIN_VALUE;
+            for (List<CandlestickData> page : pages) {
+                if (page == null) {
+                    continue;
+                }
+                for (CandlestickData candle : page) {
+                    long openTime = candle.getOpenTime().toEpochMilli();
+                    if (openTime > lastOpenTime) {
+                        result.add(candle);
+                        lastOpenTime = openTime;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Client-side accounting of the per-minute request weight, corrected by the
+     * server-reported usage after every response.
+     */
+    static class WeightLimiter {
+        private long windowMinute = -1;
+        private int used = 0;
+        private long blockedUntil = 0;
+
+        synchronized void acquire(int weight) throws InterruptedException {
+            while (true) {
+                long now = System.currentTimeMillis();
+                if (now < blockedUntil) {
+                    wait(blockedUntil - now);
+                    continue;
+                }
+                long minute = now / 60_000L;
+                if (minute != windowMinute) {
+                    windowMinute = minute;
+                    used = 0;
+                }
+                if (used + weight <= WEIGHT_LIMIT_PER_MINUTE - WEIGHT_SAFETY_MARGIN) {
+                    used += weight;
+                    return;
+                }
+                // Budget exhausted: wait for the next minute window
+                wait(Math.max(1, (minute + 1) * 60_000L - now));
+            }
+        }
+
+        synchronized void observe(int serverUsedWeight) {
+            if (serverUsedWeight >= 0 && System.currentTimeMillis() / 60_000L == windowMinute) {
+                used = Math.max(used, serverUsedWeight);
+            }
+        }
+
+        synchronized void block(long millis) {
+            blockedUntil = Math.max(blockedUntil, System.currentTimeMillis() + millis);
+            notifyAll();
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package org.cloudvision.trading.provider.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.cloudvision.trading.model.FixedPoint;
+import org.cloudvision.trading.orderbook.LocalOrderBook;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Single-pass decoder for Binance WebSocket messages built on Jackson's streaming parser.
+ *
+ * Instead of materializing a JsonNode tree and probing it field by field, every message
+ * is scanned once into a reusable {@link Event}. Prices and quantities are parsed straight
+ * from the parser's char buffer into fixed-point longs ({@link LocalOrderBook#SCALE}
+ * decimals), and symbols/intervals are interned, so a decoded trade allocates nothing.
+ * Kline and 24h volumes are cumulative and can exceed what a long holds at 8 decimals,
+ * so they are decoded as BigDecimal.
+ *
+ * Not thread-safe: use one decoder per thread. The returned event is overwritten by the next call.
+ */
+class BinanceStreamDecoder {
+
+    enum EventType {
+        KLINE, TICKER, TRADE, AGG_TRADE, DEPTH_UPDATE, PARTIAL_DEPTH, BOOK_TICKER,
+        SUBSCRIPTION_RESULT, ERROR, UNKNOWN
+    }
+
+    /**
+     * Decoded message. Only the fields of the decoded {@link EventType} are meaningful;
+     * prices/quantities are fixed-point longs.
+     */
+    static class Event {
+        EventType type;
+        String symbol;
+        long eventTime;         // E
+
+        // trade / aggTrade
+        long tradeId;           // t
+        long aggTradeId;        // a (aggTrade)
+        long firstTradeId;      // f
+        long lastTradeId;       // l
+        long tradeTime;         // T
+        long price;             // p
+        long quantity;          // q
+        boolean buyerMaker;     // m
+
+        // depthUpdate (U/u) and partial depth (lastUpdateId)
+        long firstUpdateId;
+        long finalUpdateId;
+        int bidCount;
+        int askCount;
+        long[] bidPrices = new long[64];
+        long[] bidQuantities = new long[64];
+        long[] askPrices = new long[64];
+        long[] askQuantities = new long[64];
+
+        // bookTicker
+        long bestBidPrice;      // b
+        long bestBidQuantity;   // B
+        long bestAskPrice;      // a
+        long bestAskQuantity;   // A
+
+        // 24hrTicker (its quote volume "q" goes to quoteVolume)
+        long lastPrice;         // c
+        BigDecimal volume;      // v
+
+        // kline (k)
+        String interval;
+        long openTime;
+        long closeTime;
+        long open;
+        long high;
+        long low;
+        long close;
+        BigDecimal klineVolume;
+        BigDecimal quoteVolume; // kline q, 24hrTicker q
+        int numberOfTrades;
+        boolean closed;
+
+        // subscription response
+        int requestId;
+
+        void reset() {
+            type = EventType.UNKNOWN;
+            symbol = null;
+            eventTime = 0;
+
+            tradeId = 0;
+            aggTradeId = 0;
+            firstTradeId = 0;
+            lastTradeId = 0;
+            tradeTime = 0;
+            price = 0;
+            quantity = 0;
+            buyerMaker = false;
+
+            firstUpdateId = 0;
+            finalUpdateId = 0;
+            bidCount = 0;
+            askCount = 0;
+
+            bestBidPrice = 0;
+            bestBidQuantity = 0;
+            bestAskPrice = 0;
+            bestAskQuantity = 0;
+
+            lastPrice = 0;
+            volume = null;
+
+            interval = null;
+            openTime = 0;
+            closeTime = 0;
+            open = 0;
+            high = 0;
+            low = 0;
+            close = 0;
+            klineVolume = null;
+            quoteVolume = null;
+            numberOfTrades = 0;
+            closed = false;
+
+            requestId = -1;
+        }
+
+        long[] bidPricesCopy() { return Arrays.copyOf(bidPrices, bidCount); }
+        long[] bidQuantitiesCopy() { return Arrays.copyOf(bidQuantities, bidCount); }
+        long[] askPricesCopy() { return Arrays.copyOf(askPrices, askCount); }
+        long[] askQuantitiesCopy() { return Arrays.copyOf(askQuantities, askCount); }
+    }
+
+    private static final int MAX_INTERNED = 512;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Event event = new Event();
+    private final String[] interned = new String[MAX_INTERNED];
+    private int internedCount = 0;
+
+    /**
+     * Decode one message into the reusable event
+     */
+    Event decode(String message) throws IOException {
+        Event e = event;
+        e.reset();
+        String eventName = null;
+        boolean resultNull = false;
+        boolean hasError = false;
+        boolean hasLastUpdateId = false;
+
+        try (JsonParser p = jsonFactory.createParser(message)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                return e;
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+                switch (field) {
+                    case "e":
+                        eventName = intern(p, false);
+                        break;
+                    case "E":
+                        e.eventTime = p.getLongValue();
+                        break;
+                    case "s":
+                        e.symbol = intern(p, true);
+                        break;
+                    case "t":
+                        e.tradeId = p.getLongValue();
+                        break;
+                    case "T":
+                        e.tradeTime = p.getLongValue();
+                        break;
+                    case "p":
+                        e.price = scaled(p);
+                        break;
+                    case "q":
+                        // trade/aggTrade: quantity; 24hrTicker: quote volume, which can exceed a long at 8 decimals
+                        if (isTrade(eventName)) {
+                            e.quantity = scaled(p);
+                        } else {
+                            e.quoteVolume = decimal(p);
+                        }
+                        break;
+                    case "m":
+                        e.buyerMaker = value == JsonToken.VALUE_TRUE;
+                        break;
+                    case "f":
+                        if (value == JsonToken.VALUE_NUMBER_INT) e.firstTradeId = p.getLongValue();
+                        break;
+                    case "l":
+                        // aggTrade: last trade id (number); 24hrTicker: low price (string)
+                        if (value == JsonToken.VALUE_NUMBER_INT) e.lastTradeId = p.getLongValue();
+                        break;
+                    case "U":
+                        e.firstUpdateId = p.getLongValue();
+                        break;
+                    case "u":
+                        e.finalUpdateId = p.getLongValue();
+                        break;
+                    case "lastUpdateId":
+                        e.firstUpdateId = e.finalUpdateId = p.getLongValue();
+                        hasLastUpdateId = true;
+                        break;
+                    case "a":
+                        // aggTrade: id (number); depthUpdate: asks (array); bookTicker: best ask (string)
+                        if (value == JsonToken.VALUE_NUMBER_INT) {
+                            e.aggTradeId = p.getLongValue();
+                        } else if (value == JsonToken.START_ARRAY) {
+                            readLevels(p, false);
+                        } else if (value == JsonToken.VALUE_STRING) {
+                            e.bestAskPrice = scaled(p);
+                        }
+                        break;
+                    case "b":
+                        if (value == JsonToken.START_ARRAY) {
+                            readLevels(p, true);
+                        } else if (value == JsonToken.VALUE_STRING) {
+                            e.bestBidPrice = scaled(p);
+                        }
+                        break;
+                    case "A":
+                        if (value == JsonToken.VALUE_STRING) e.bestAskQuantity = scaled(p);
+                        break;
+                    case "B":
+                        if (value == JsonToken.VALUE_STRING) e.bestBidQuantity = scaled(p);
+                        break;
+                    case "asks":
+                        readLevels(p, false);
+                        break;
+                    case "bids":
+                        readLevels(p, true);
+                        break;
+                    case "c":
+                        if (value == JsonToken.VALUE_STRING) e.lastPrice = scaled(p);
+                        break;
+                    case "v":
+                        if (value == JsonToken.VALUE_STRING) e.volume = decimal(p);
+                        break;
+                    case "k":
+                        readKline(p);
+                        break;
+                    case "result":
+                        resultNull = value == JsonToken.VALUE_NULL;
+                        p.skipChildren();
+                        break;
+                    case "id":
+                        if (value == JsonToken.VALUE_NUMBER_INT) e.requestId = p.getIntValue();
+                        break;
+                    case "error":
+                        hasError = true;
+                        p.skipChildren();
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+        }
+
+        if (eventName != null) {
+            e.type = eventType(eventName);
+            if ((e.type == EventType.TRADE || e.type == EventType.AGG_TRADE) && e.quoteVolume != null) {
+                // "q" came before "e": it was the trade quantity after all
+                e.quantity = FixedPoint.toScaled(e.quoteVolume, LocalOrderBook.SCALE);
+                e.quoteVolume = null;
+            }
+        } else if (resultNull) {
+            e.type = EventType.SUBSCRIPTION_RESULT;
+        } else if (hasError) {
+            e.type = EventType.ERROR;
+        } else if (hasLastUpdateId) {
+            e.type = EventType.PARTIAL_DEPTH;
+        } else if (e.symbol != null && e.finalUpdateId != 0) {
+            // Raw bookTicker stream messages carry no "e" field
+            e.type = EventType.BOOK_TICKER;
+        }
+        return e;
+    }
+
+    private static EventType eventType(String name) {
+        switch (name) {
+            case "kline": return EventType.KLINE;
+            case "24hrTicker": return EventType.TICKER;
+            case "trade": return EventType.TRADE;
+            case "aggTrade": return EventType.AGG_TRADE;
+            case "depthUpdate": return EventType.DEPTH_UPDATE;
+            case "bookTicker": return EventType.BOOK_TICKER;
+            default: return EventType.UNKNOWN;
+        }
+    }
+
+    private static boolean isTrade(String eventName) {
+        return "trade".equals(eventName) || "aggTrade".equals(eventName);
+    }
+
+    private void readKline(JsonParser p) throws IOException {
+        Event e = event;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            switch (field) {
+                case "t": e.openTime = p.getLongValue(); break;
+                case "T": e.closeTime = p.getLongValue(); break;
+                case "s": e.symbol = intern(p, true); break;
+                case "i": e.interval = intern(p, false); break;
+                case "o": e.open = scaled(p); break;
+                case "h": e.high = scaled(p); break;
+                case "l": e.low = scaled(p); break;
+                case "c": e.close = scaled(p); break;
+                case "v": e.klineVolume = decimal(p); break;
+                case "q": e.quoteVolume = decimal(p); break;
+                case "n": e.numberOfTrades = p.getIntValue(); break;
+                case "x": e.closed = value == JsonToken.VALUE_TRUE; break;
+                default: p.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Read [[price, qty], ...] into the event's bid or ask arrays
+     */
+    private void readLevels(JsonParser p, boolean bids) throws IOException {
+        Event e = event;
+        int n = 0;
+        long[] prices = bids ? e.bidPrices : e.askPrices;
+        long[] quantities = bids ? e.bidQuantities : e.askQuantities;
+        while (p.nextToken() == JsonToken.START_ARRAY) {
+            p.nextToken();
+            long price = scaled(p);
+            p.nextToken();
+            long quantity = scaled(p);
+            // Ignore any extra elements of the level
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                p.skipChildren();
+            }
+            if (n == prices.length) {
+                prices = Arrays.copyOf(prices, n * 2);
+                quantities = Arrays.copyOf(quantities, n * 2);
+            }
+            prices[n] = price;
+            quantities[n] = quantity;
+            n++;
+        }
+        if (bids) {
+            e.bidPrices = prices;
+            e.bidQuantities = quantities;
+            e.bidCount = n;
+        } else {
+            e.askPrices = prices;
+            e.askQuantities = quantities;
+            e.askCount = n;
+        }
+    }
+
+    private static long scaled(JsonParser p) throws IOException {
+        return LocalOrderBook.parseScaled(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+    }
+
+    private static BigDecimal decimal(JsonParser p) throws IOException {
+        return new BigDecimal(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+    }
+
+    /**
+     * Return a cached String for the current text value; symbols are upper-cased on first sight
+     */
+    private String intern(JsonParser p, boolean upperCase) throws IOException {
+        char[] buffer = p.getTextCharacters();
+        int offset = p.getTextOffset();
+        int length = p.getTextLength();
+        for (int i = 0; i < internedCount; i++) {
+            String candidate = interned[i];
+            if (matches(candidate, buffer, offset, length, upperCase)) {
+                return candidate;
+            }
+        }
+        String value = new String(buffer, offset, length);
+        if (upperCase) {
+            value = value.toUpperCase();
+        }
+        if (internedCount < MAX_INTERNED) {
+            interned[internedCount++] = value;
+        }
+        return value;
+    }
+
+    private static boolean matches(String candidate, char[] buffer, int offset, int length, boolean upperCase) {
+        if (candidate.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = buffer[offset + i];
+            if (upperCase && c >= 'a' && c <= 'z') {
+                c = (char) (c - 32);
+            }
+            if (candidate.charAt(i) != c) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -2,8 +2,14 @@ package org.cloudvision.trading.provider.impl;
 
 import org.cloudvision.trading.model.*;
 import org.cloudvision.trading.model.OrderBookData.OrderBookLevel;
+import org.cloudvision.trading.orderbook.DepthDiff;
+import org.cloudvision.trading.orderbook.LocalOrderBook;
+import org.cloudvision.trading.orderbook.OrderBookSynchronizer;
 import org.cloudvision.trading.provider.TradingDataProvider;
+import org.cloudvision.trading.service.InstrumentRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import jakarta.annotation.PreDestroy;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -46,15 +52,28 @@ public class BinanceTradingProvider implements TradingDataProvider {
     private final Map<String, Integer> subscribedOrderBooks = new ConcurrentHashMap<>();
     private final Set<String> subscribedBookTickers = ConcurrentHashMap.newKeySet();
     
+    // Local L2 books maintained from the diff depth stream (snapshot + sequenced diffs)
+    private final Map<String, OrderBookSynchronizer> orderBookSynchronizers = new ConcurrentHashMap<>();
+    private static final int ORDER_BOOK_SNAPSHOT_LIMIT = 1000;
+    
+    // Tick/step sizes from /exchangeInfo for the fixed-point model
+    @Autowired(required = false)
+    private InstrumentRegistry instrumentRegistry;
+    
     // Number of historical candles to fetch on reconnect
     private static final int HISTORICAL_CANDLES_ON_RECONNECT = 500;
     
     private WebSocketClient webSocketClient;
     private final ObjectMapper objectMapper;
+    // Streaming decoder for WebSocket messages; events are reused, so one decoder per thread
+    private final ThreadLocal<BinanceStreamDecoder> streamDecoder = ThreadLocal.withInitial(BinanceStreamDecoder::new);
     private final AtomicInteger requestId = new AtomicInteger(1);
     private final ScheduledExecutorService executorService = Executors.newScheduledThreadPool(4);
     private final HttpClient httpClient;
     
+    // Paginated, parallel REST backfill (Binance returns at most 1000 klines per request)
+    private final BinanceKlineBackfill klineBackfill = new BinanceKlineBackfill();
+    
     // Flag to prevent manual disconnect from triggering reconnect
     private volatile boolean manualDisconnect = false;
     
@@ -169,6 +188,9 @@ public class BinanceTradingProvider implements TradingDataProvider {
                 sendSubscriptionMessage(stream, true);
             }
             
+            // Diff sequences do not survive a reconnect; books resync on the next diff
+            orderBookSynchronizers.values().forEach(OrderBookSynchronizer::reset);
+            
             // Load historical data for all subscribed klines
             System.out.println("📊 Loading historical data on reconnect...");
             loadHistoricalDataOnReconnect();
@@ -292,6 +314,7 @@ public class BinanceTradingProvider implements TradingDataProvider {
         subscribedAggregateTrades.clear();
         subscribedOrderBooks.clear();
         subscribedBookTickers.clear();
+        orderBookSynchronizers.clear();
         
         if (webSocketClient != null && !webSocketClient.isClosed()) {
             webSocketClient.close();
@@ -300,6 +323,19 @@ public class BinanceTradingProvider implements TradingDataProvider {
         System.out.println("🔌 Binance provider disconnected");
     }
 
+    /**
+     * Application shutdown: disconnect and stop the backfill and scheduler threads.
+     * Not part of disconnect(), which a later connect() may follow.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (connected) {
+            disconnect();
+        }
+        klineBackfill.shutdown();
+        executorService.shutdownNow();
+    }
+
     @Override
     public void subscribe(String symbol) {
         if (!connected) {
@@ -355,6 +391,7 @@ public class BinanceTradingProvider implements TradingDataProvider {
             activeStreams.add(streamName);
             
             System.out.println("✅ Successfully subscribed to " + symbol + " klines (" + interval.getValue() + ")");
+            loadInstrumentSpec(symbol);
             
             // Load historical data immediately after subscribing
             System.out.println("📊 Loading historical data for " + symbol + " (" + interval.getValue() + ")...");
@@ -419,53 +456,40 @@ public class BinanceTradingProvider implements TradingDataProvider {
      */
     private void handleBinanceMessage(String message) {
         try {
-            JsonNode json = objectMapper.readTree(message);
-            
-            // Handle subscription responses
-            if (json.has("result") && json.get("result").isNull()) {
-                int id = json.has("id") ? json.get("id").asInt() : -1;
-                System.out.println("✅ Subscription response received (id: " + id + ")");
-                return;
-            }
-            
-            // Handle error responses
-            if (json.has("error")) {
-                System.err.println("❌ Binance error: " + json.get("error"));
-                return;
-            }
-            
-            // Handle kline stream data
-            if (json.has("e") && "kline".equals(json.get("e").asText())) {
-                handleKlineDataDirect(json);
-            } 
-            // Handle ticker stream data
-            else if (json.has("e") && "24hrTicker".equals(json.get("e").asText())) {
-                String streamName = json.has("stream") ? json.get("stream").asText() : "unknown";
-                handleTickerData(streamName, json);
-            } 
-            // Handle trade stream data
-            else if (json.has("e") && "trade".equals(json.get("e").asText())) {
-                handleTradeDataDirect(json);
-            }
-            // Handle aggregate trade stream data
-            else if (json.has("e") && "aggTrade".equals(json.get("e").asText())) {
-                handleAggregateTradeDataDirect(json);
-            }
-            // Handle depth/order book update (differential depth stream)
-            else if (json.has("e") && "depthUpdate".equals(json.get("e").asText())) {
-                handleDepthUpdateDirect(json);
-            }
-            // Handle partial book depth (no "e" field, has "lastUpdateId")
-            else if (json.has("lastUpdateId") && json.has("bids") && json.has("asks")) {
-                handlePartialBookDepth(json);
-            }
-            // Handle book ticker
-            else if (json.has("e") && "bookTicker".equals(json.get("e").asText())) {
-                handleBookTickerDirect(json);
-            }
-            // Unknown message type
-            else if (!json.has("result")) {
-//                System.out.println("📈 Received other data: " + message.substring(0, Math.min(200, message.length())));
+            BinanceStreamDecoder.Event event = streamDecoder.get().decode(message);
+            
+            switch (event.type) {
+                case SUBSCRIPTION_RESULT:
+                    System.out.println("✅ Subscription response received (id: " + event.requestId + ")");
+                    break;
+                case ERROR:
+                    System.err.println("❌ Binance error: " + message.substring(0, Math.min(200, message.length())));
+                    break;
+                case KLINE:
+                    handleKlineDataDirect(event);
+                    break;
+                case TICKER:
+                    handleTickerData(event);
+                    break;
+                case TRADE:
+                    handleTradeDataDirect(event);
+                    break;
+                case AGG_TRADE:
+                    handleAggregateTradeDataDirect(event);
+                    break;
+                case DEPTH_UPDATE:
+                    handleDepthUpdateDirect(event);
+                    break;
+                case PARTIAL_DEPTH:
+                    handlePartialBookDepth(event);
+                    break;
+                case BOOK_TICKER:
+                    handleBookTickerDirect(event);
+                    break;
+                default:
+                    // Unknown message type
+//                    System.out.println("📈 Received other data: " + message.substring(0, Math.min(200, message.length())));
+                    break;
             }
             
         } catch (Exception e) {
@@ -475,45 +499,46 @@ public class BinanceTradingProvider implements TradingDataProvider {
         }
     }
     
+    /**
+     * Precision of a symbol: its exchange filters once loaded, the 8-decimal default until then
+     */
+    private InstrumentSpec instrumentSpec(String symbol) {
+        return instrumentRegistry != null ? instrumentRegistry.getSpec(symbol) : InstrumentSpec.defaultFor(symbol);
+    }
+    
+    /**
+     * Fixed-point value from the decoder as BigDecimal (Binance sends 8 decimals)
+     */
+    private static BigDecimal decimal(long scaled) {
+        return BigDecimal.valueOf(scaled, LocalOrderBook.SCALE);
+    }
+    
     /**
      * Handle kline data directly from stream (not wrapped in stream/data)
      */
-    private void handleKlineDataDirect(JsonNode json) {
+    private void handleKlineDataDirect(BinanceStreamDecoder.Event kline) {
         try {
-            JsonNode kline = json.get("k");
-            
-            String symbol = kline.get("s").asText().toUpperCase();
-            Instant openTime = Instant.ofEpochMilli(kline.get("t").asLong());
-            Instant closeTime = Instant.ofEpochMilli(kline.get("T").asLong());
-            BigDecimal open = new BigDecimal(kline.get("o").asText());
-            BigDecimal high = new BigDecimal(kline.get("h").asText());
-            BigDecimal low = new BigDecimal(kline.get("l").asText());
-            BigDecimal close = new BigDecimal(kline.get("c").asText());
-            BigDecimal volume = new BigDecimal(kline.get("v").asText());
-            BigDecimal quoteVolume = new BigDecimal(kline.get("q").asText());
-            int numberOfTrades = kline.get("n").asInt();
-            String intervalStr = kline.get("i").asText();
-            boolean isClosed = kline.get("x").asBoolean();
-            
+            // Volumes are decoded as BigDecimal (a day's quote volume does not fit a long at 8 decimals);
+            // the fixed-point view is built on demand at the instrument's precision
             CandlestickData candlestick = new CandlestickData(
-                symbol,
-                openTime,
-                closeTime,
-                open,
-                high,
-                low,
-                close,
-                volume,
-                quoteVolume,
-                numberOfTrades,
-                intervalStr,
+                kline.symbol,
+                Instant.ofEpochMilli(kline.openTime),
+                Instant.ofEpochMilli(kline.closeTime),
+                decimal(kline.open),
+                decimal(kline.high),
+                decimal(kline.low),
+                decimal(kline.close),
+                kline.klineVolume,
+                kline.quoteVolume,
+                kline.numberOfTrades,
+                kline.interval,
                 getProviderName(),
-                isClosed
+                kline.closed
             );
             
             TradingData tradingData = new TradingData(
-                symbol,
-                closeTime,
+                candlestick.getSymbol(),
+                candlestick.getCloseTime(),
                 getProviderName(),
                 TradingDataType.KLINE,
                 candlestick
@@ -523,7 +548,6 @@ public class BinanceTradingProvider implements TradingDataProvider {
                 dataHandler.accept(tradingData);
             }
 
-
         } catch (Exception e) {
             System.err.println("❌ Error parsing direct kline data: " + e.getMessage());
             e.printStackTrace();
@@ -561,6 +585,22 @@ public class BinanceTradingProvider implements TradingDataProvider {
 
     @Override
     public List<CandlestickData> getHistoricalKlines(String symbol, TimeInterval interval, int limit) {
+        return getHistoricalKlines(symbol, interval, limit, null);
+    }
+
+    @Override
+    public List<CandlestickData> getHistoricalKlines(String symbol, TimeInterval interval, int limit,
+                                                     Consumer<List<CandlestickData>> pageConsumer) {
+        if (limit > BinanceKlineBackfill.MAX_KLINES_PER_REQUEST) {
+            // Page backwards from now; the last bar is the forming one
+            long intervalMillis = interval.getMillis();
+            long now = System.currentTimeMillis();
+            long currentOpen = now - (now % intervalMillis);
+            Instant startTime = Instant.ofEpochMilli(currentOpen - (limit - 1) * intervalMillis);
+            List<CandlestickData> klines = getHistoricalKlines(symbol, interval, startTime, Instant.ofEpochMilli(now), pageConsumer);
+            return klines.size() > limit ? new ArrayList<>(klines.subList(klines.size() - limit, klines.size())) : klines;
+        }
+        
         try {
             System.out.println("📊 Fetching " + limit + " historical klines for " + symbol + " (" + interval.getValue() + ")");
             
@@ -568,7 +608,7 @@ public class BinanceTradingProvider implements TradingDataProvider {
                 BINANCE_REST_API_URL,
                 symbol.toUpperCase(),
                 interval.getValue(),
-                Math.min(limit, 1000) // Binance max is 1000
+                limit
             );
             
             HttpRequest request = HttpRequest.newBuilder()
@@ -585,7 +625,11 @@ public class BinanceTradingProvider implements TradingDataProvider {
                 return new ArrayList<>();
             }
             
-            return parseKlineResponse(response.body(), symbol, interval.getValue());
+            List<CandlestickData> klines = parseKlineResponse(response.body(), symbol, interval.getValue());
+            if (pageConsumer != null && !klines.isEmpty()) {
+                pageConsumer.accept(klines);
+            }
+            return klines;
             
         } catch (java.net.http.HttpTimeoutException e) {
             System.err.println("❌ Timeout fetching historical klines for " + symbol + ": Request took longer than 15 seconds");
@@ -599,42 +643,98 @@ public class BinanceTradingProvider implements TradingDataProvider {
 
     @Override
     public List<CandlestickData> getHistoricalKlines(String symbol, TimeInterval interval, Instant startTime, Instant endTime) {
-        try {
-            System.out.println("📊 Fetching historical klines for " + symbol + " (" + interval.getValue() + ") from " + 
-                             startTime + " to " + endTime);
-            
-            String url = String.format("%s/klines?symbol=%s&interval=%s&startTime=%d&endTime=%d&limit=1000",
-                BINANCE_REST_API_URL,
-                symbol.toUpperCase(),
-                interval.getValue(),
-                startTime.toEpochMilli(),
-                endTime.toEpochMilli()
-            );
-            
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .timeout(java.time.Duration.ofSeconds(15)) // Request timeout
-                .GET()
-                .build();
-            
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            
-            if (response.statusCode() != 200) {
-                System.err.println("❌ Failed to fetch historical data. Status: " + response.statusCode());
-                System.err.println("Response: " + response.body());
-                return new ArrayList<>();
-            }
-            
-            return parseKlineResponse(response.body(), symbol, interval.getValue());
-            
-        } catch (java.net.http.HttpTimeoutException e) {
-            System.err.println("❌ Timeout fetching historical klines for " + symbol + ": Request took longer than 15 seconds");
-            return new ArrayList<>();
-        } catch (Exception e) {
-            System.err.println("❌ Error fetching historical klines: " + e.getMessage());
-            e.printStackTrace();
-            return new ArrayList<>();
+        return getHistoricalKlines(symbol, interval, startTime, endTime, null);
+    }
+
+    @Override
+    public List<CandlestickData> getHistoricalKlines(String symbol, TimeInterval interval, Instant startTime, Instant endTime,
+                                                     Consumer<List<CandlestickData>> pageConsumer) {
+        return klineBackfill.fetchRange(symbol, interval, startTime, endTime,
+            (startMs, endMs, limit) -> fetchKlinePage(symbol, interval, startMs, endMs, limit),
+            pageConsumer);
+    }
+    
+    /**
+     * Fetch a single page of klines for [startMs, endMs] and report the server-side weight usage
+     */
+    private BinanceKlineBackfill.Page fetchKlinePage(String symbol, TimeInterval interval,
+                                                     long startMs, long endMs, int limit) throws Exception {
+        String url = String.format("%s/klines?symbol=%s&interval=%s&startTime=%d&endTime=%d&limit=%d",
+            BINANCE_REST_API_URL,
+            symbol.toUpperCase(),
+            interval.getValue(),
+            startMs,
+            endMs,
+            limit
+        );
+        
+        HttpRequest request = HttpRequest.newBuilder()
+            .uri(URI.create(url))
+            .timeout(java.time.Duration.ofSeconds(15)) // Request timeout
+            .GET()
+            .build();
+        
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        
+        int usedWeight = response.headers().firstValue("x-mbx-used-weight-1m")
+            .map(Integer::parseInt)
+            .orElse(-1);
+        long retryAfterMillis = response.headers().firstValue("retry-after")
+            .map(v -> Long.parseLong(v.trim()) * 1000L)
+            .orElse(0L);
+        
+        if (response.statusCode() != 200) {
+            System.err.println("❌ Failed to fetch kline page for " + symbol + ". Status: " + response.statusCode());
+            return new BinanceKlineBackfill.Page(new ArrayList<>(), response.statusCode(), usedWeight, retryAfterMillis);
         }
+        
+        return new BinanceKlineBackfill.Page(
+            parseKlineResponse(response.body(), symbol, interval.getValue()),
+            200, usedWeight, retryAfterMillis);
+    }
+
+    /**
+     * Register the symbol's PRICE_FILTER tick size and LOT_SIZE step size (asynchronously, once)
+     */
+    private void loadInstrumentSpec(String symbol) {
+        if (instrumentRegistry == null || instrumentRegistry.hasExchangeSpec(symbol.toUpperCase())) {
+            return;
+        }
+        executorService.submit(() -> {
+            try {
+                String url = String.format("%s/exchangeInfo?symbol=%s", BINANCE_REST_API_URL, symbol.toUpperCase());
+                HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(url))
+                    .timeout(java.time.Duration.ofSeconds(15))
+                    .GET()
+                    .build();
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    System.err.println("❌ Failed to fetch exchange info for " + symbol + ". Status: " + response.statusCode());
+                    return;
+                }
+                
+                JsonNode symbols = objectMapper.readTree(response.body()).get("symbols");
+                if (symbols == null || symbols.isEmpty()) {
+                    return;
+                }
+                BigDecimal tickSize = null;
+                BigDecimal stepSize = null;
+                for (JsonNode filter : symbols.get(0).get("filters")) {
+                    String type = filter.get("filterType").asText();
+                    if ("PRICE_FILTER".equals(type)) {
+                        tickSize = new BigDecimal(filter.get("tickSize").asText());
+                    } else if ("LOT_SIZE".equals(type)) {
+                        stepSize = new BigDecimal(filter.get("stepSize").asText());
+                    }
+                }
+                if (tickSize != null && stepSize != null && tickSize.signum() > 0 && stepSize.signum() > 0) {
+                    instrumentRegistry.register(symbol.toUpperCase(), tickSize, stepSize);
+                }
+            } catch (Exception e) {
+                System.err.println("❌ Error loading exchange info for " + symbol + ": " + e.getMessage());
+            }
+        });
     }
 
     /**
@@ -700,11 +800,11 @@ public class BinanceTradingProvider implements TradingDataProvider {
     /**
      * Handle ticker data from Binance WebSocket
      */
-    private void handleTickerData(String streamName, JsonNode data) {
+    private void handleTickerData(BinanceStreamDecoder.Event data) {
         try {
-            String symbol = data.get("s").asText().toUpperCase();
-            BigDecimal price = new BigDecimal(data.get("c").asText()); // Close price
-            BigDecimal volume = new BigDecimal(data.get("v").asText()); // Volume
+            String symbol = data.symbol;
+            BigDecimal price = decimal(data.lastPrice); // Close price
+            BigDecimal volume = data.volume; // Volume
             
             TradingData tradingData = new TradingData(
                 symbol,
@@ -803,6 +903,7 @@ public class BinanceTradingProvider implements TradingDataProvider {
             activeStreams.add(streamName);
             
             System.out.println("✅ Successfully subscribed to " + symbol + " trades");
+            loadInstrumentSpec(symbol);
         } catch (Exception e) {
             System.err.println("❌ Failed to subscribe to " + symbol + " trades: " + e.getMessage());
             e.printStackTrace();
@@ -841,6 +942,7 @@ public class BinanceTradingProvider implements TradingDataProvider {
             activeStreams.add(streamName);
             
             System.out.println("✅ Successfully subscribed to " + symbol + " aggregate trades");
+            loadInstrumentSpec(symbol);
         } catch (Exception e) {
             System.err.println("❌ Failed to subscribe to " + symbol + " aggregate trades: " + e.getMessage());
             e.printStackTrace();
@@ -879,10 +981,12 @@ public class BinanceTradingProvider implements TradingDataProvider {
             sendSubscriptionMessage(streamName, true);
             
             subscribedOrderBooks.put(symbol, depth);
+            orderBookSynchronizers.computeIfAbsent(symbol.toUpperCase(),
+                s -> new OrderBookSynchronizer(s, this::requestDepthSnapshot));
             activeStreams.add(streamName);
             
             System.out.println("✅ Successfully subscribed to " + symbol + " order book (differential depth stream)");
-            System.out.println("💡 Tip: Differential depth stream sends updates. First message may have many levels.");
+            System.out.println("💡 A local book is synced from a REST snapshot; consumers receive top-" + depth + " snapshots.");
         } catch (Exception e) {
             System.err.println("❌ Failed to subscribe to " + symbol + " order book: " + e.getMessage());
             e.printStackTrace();
@@ -898,6 +1002,7 @@ public class BinanceTradingProvider implements TradingDataProvider {
                 sendSubscriptionMessage(streamName, false);
                 
                 subscribedOrderBooks.remove(symbol);
+                orderBookSynchronizers.remove(symbol.toUpperCase());
                 activeStreams.remove(streamName);
                 
                 System.out.println("📚 Unsubscribed from " + symbol + " order book");
@@ -950,32 +1055,28 @@ public class BinanceTradingProvider implements TradingDataProvider {
     /**
      * Handle individual trade data from Binance WebSocket
      */
-    private void handleTradeDataDirect(JsonNode json) {
+    private void handleTradeDataDirect(BinanceStreamDecoder.Event trade) {
         try {
-            String symbol = json.get("s").asText().toUpperCase();
-            long tradeId = json.get("t").asLong();
-            BigDecimal price = new BigDecimal(json.get("p").asText());
-            BigDecimal quantity = new BigDecimal(json.get("q").asText());
-            Instant timestamp = Instant.ofEpochMilli(json.get("T").asLong());
-            boolean isBuyerMaker = json.get("m").asBoolean();
-            
-            // Calculate quote quantity
-            BigDecimal quoteQuantity = price.multiply(quantity);
-            
-            TradeData tradeData = new TradeData(
-                tradeId,
-                symbol,
-                price,
-                quantity,
-                quoteQuantity,
-                timestamp,
-                isBuyerMaker,
-                getProviderName()
+            // Decoded at 8 decimals; kept at the symbol's tick/step precision (exact for exchange values)
+            InstrumentSpec spec = instrumentSpec(trade.symbol);
+            FixedTrade fixedTrade = new FixedTrade(
+                trade.tradeId,
+                trade.symbol,
+                FixedPoint.rescale(trade.price, LocalOrderBook.SCALE, spec.getPriceScale()),
+                FixedPoint.rescale(trade.quantity, LocalOrderBook.SCALE, spec.getQuantityScale()),
+                spec.getPriceScale(),
+                spec.getQuantityScale(),
+                trade.tradeTime,
+                trade.buyerMaker,
+                getProviderName(),
+                -1,
+                -1
             );
+            TradeData tradeData = fixedTrade.toTradeData();
             
             TradingData tradingData = new TradingData(
-                symbol,
-                timestamp,
+                tradeData.getSymbol(),
+                tradeData.getTimestamp(),
                 getProviderName(),
                 TradingDataType.TRADE,
                 tradeData
@@ -985,8 +1086,8 @@ public class BinanceTradingProvider implements TradingDataProvider {
                 dataHandler.accept(tradingData);
             }
             
-            String side = isBuyerMaker ? "SELL" : "BUY";
-            System.out.println("💹 " + symbol + " TRADE: " + side + " " + quantity + " @ " + price);
+            String side = trade.buyerMaker ? "SELL" : "BUY";
+            System.out.println("💹 " + tradeData.getSymbol() + " TRADE: " + side + " " + tradeData.getQuantity() + " @ " + tradeData.getPrice());
             
         } catch (Exception e) {
             System.err.println("❌ Error parsing trade data: " + e.getMessage());
@@ -997,36 +1098,27 @@ public class BinanceTradingProvider implements TradingDataProvider {
     /**
      * Handle aggregate trade data from Binance WebSocket
      */
-    private void handleAggregateTradeDataDirect(JsonNode json) {
+    private void handleAggregateTradeDataDirect(BinanceStreamDecoder.Event trade) {
         try {
-            String symbol = json.get("s").asText().toUpperCase();
-            long aggTradeId = json.get("a").asLong();
-            BigDecimal price = new BigDecimal(json.get("p").asText());
-            BigDecimal quantity = new BigDecimal(json.get("q").asText());
-            Instant timestamp = Instant.ofEpochMilli(json.get("T").asLong());
-            boolean isBuyerMaker = json.get("m").asBoolean();
-            long firstTradeId = json.get("f").asLong();
-            long lastTradeId = json.get("l").asLong();
-            
-            // Calculate quote quantity
-            BigDecimal quoteQuantity = price.multiply(quantity);
-            
-            TradeData tradeData = new TradeData(
-                aggTradeId,
-                symbol,
-                price,
-                quantity,
-                quoteQuantity,
-                timestamp,
-                isBuyerMaker,
+            InstrumentSpec spec = instrumentSpec(trade.symbol);
+            FixedTrade fixedTrade = new FixedTrade(
+                trade.aggTradeId,
+                trade.symbol,
+                FixedPoint.rescale(trade.price, LocalOrderBook.SCALE, spec.getPriceScale()),
+                FixedPoint.rescale(trade.quantity, LocalOrderBook.SCALE, spec.getQuantityScale()),
+                spec.getPriceScale(),
+                spec.getQuantityScale(),
+                trade.tradeTime,
+                trade.buyerMaker,
                 getProviderName(),
-                firstTradeId,
-                lastTradeId
+                trade.firstTradeId,
+                trade.lastTradeId
             );
+            TradeData tradeData = fixedTrade.toTradeData();
             
             TradingData tradingData = new TradingData(
-                symbol,
-                timestamp,
+                tradeData.getSymbol(),
+                tradeData.getTimestamp(),
                 getProviderName(),
                 TradingDataType.AGGREGATE_TRADE,
                 tradeData
@@ -1036,10 +1128,10 @@ public class BinanceTradingProvider implements TradingDataProvider {
                 dataHandler.accept(tradingData);
             }
             
-            String side = isBuyerMaker ? "SELL" : "BUY";
-            int numTrades = (int)(lastTradeId - firstTradeId + 1);
-//            System.out.println("📊 " + symbol + " AGG_TRADE: " + side + " " + quantity + " @ " + price +
-//                             " (" + numTrades + " trades)");
+//            String side = trade.buyerMaker ? "SELL" : "BUY";
+//            int numTrades = (int)(trade.lastTradeId - trade.firstTradeId + 1);
+//            System.out.println("📊 " + tradeData.getSymbol() + " AGG_TRADE: " + side + " " + tradeData.getQuantity() +
+//                             " @ " + tradeData.getPrice() + " (" + numTrades + " trades)");
             
         } catch (Exception e) {
             System.err.println("❌ Error parsing aggregate trade data: " + e.getMessage());
@@ -1048,73 +1140,139 @@ public class BinanceTradingProvider implements TradingDataProvider {
     }
     
     /**
-     * Handle order book depth update from Binance WebSocket (differential depth stream)
+     * Handle order book depth update from Binance WebSocket (differential depth stream).
+     * The diff is applied to the local book; consumers receive a consistent top-N snapshot.
      */
-    private void handleDepthUpdateDirect(JsonNode json) {
+    private void handleDepthUpdateDirect(BinanceStreamDecoder.Event depth) {
         try {
-            String symbol = json.get("s").asText().toUpperCase();
-            long updateId = json.get("u").asLong();
-            Instant timestamp = Instant.now(); // Binance doesn't provide timestamp in depth updates
-            
-            // Parse bids
-            List<OrderBookLevel> bids = new ArrayList<>();
-            JsonNode bidsArray = json.get("b");
-            if (bidsArray != null && bidsArray.isArray()) {
-                for (JsonNode bid : bidsArray) {
-                    BigDecimal price = new BigDecimal(bid.get(0).asText());
-                    BigDecimal quantity = new BigDecimal(bid.get(1).asText());
-                    bids.add(new OrderBookLevel(price, quantity));
-                }
-            }
-            
-            // Parse asks
-            List<OrderBookLevel> asks = new ArrayList<>();
-            JsonNode asksArray = json.get("a");
-            if (asksArray != null && asksArray.isArray()) {
-                for (JsonNode ask : asksArray) {
-                    BigDecimal price = new BigDecimal(ask.get(0).asText());
-                    BigDecimal quantity = new BigDecimal(ask.get(1).asText());
-                    asks.add(new OrderBookLevel(price, quantity));
-                }
+            String symbol = depth.symbol;
+            long firstUpdateId = depth.firstUpdateId;
+            long finalUpdateId = depth.finalUpdateId;
+            long eventTime = depth.eventTime != 0 ? depth.eventTime : System.currentTimeMillis();
+            
+            // The decoder's level arrays are reused; the diff may be buffered, so it gets its own copy
+            long[] bidPrices = depth.bidPricesCopy();
+            long[] bidQuantities = depth.bidQuantitiesCopy();
+            long[] askPrices = depth.askPricesCopy();
+            long[] askQuantities = depth.askQuantitiesCopy();
+            
+            // Diffs still in flight after an unsubscribe must not bring the book back
+            OrderBookSynchronizer synchronizer = orderBookSynchronizers.get(symbol);
+            if (synchronizer == null) {
+                return;
             }
             
-            OrderBookData orderBookData = new OrderBookData(
-                symbol,
-                updateId,
-                timestamp,
-                bids,
-                asks,
-                getProviderName()
-            );
-            
-            TradingData tradingData = new TradingData(
-                symbol,
-                timestamp,
-                getProviderName(),
-                TradingDataType.ORDER_BOOK,
-                orderBookData
-            );
+            DepthDiff diff = new DepthDiff(firstUpdateId, finalUpdateId, eventTime,
+                bidPrices, bidQuantities, askPrices, askQuantities);
             
-            if (dataHandler != null) {
-                dataHandler.accept(tradingData);
+            synchronized (synchronizer) {
+                if (synchronizer.onDiff(diff)) {
+                    publishOrderBook(symbol, synchronizer, Instant.ofEpochMilli(eventTime));
+                }
             }
 
-//            System.out.println("📚 " + symbol + " ORDER_BOOK (diff): " + bids.size() + " bids, " +
-//                             asks.size() + " asks, spread=" + orderBookData.getSpread());
-
         } catch (Exception e) {
             System.err.println("❌ Error parsing depth update: " + e.getMessage());
             e.printStackTrace();
         }
     }
     
+    /**
+     * Fetch a REST depth snapshot asynchronously and hand it to the symbol's synchronizer
+     */
+    private void requestDepthSnapshot(String symbol) {
+        executorService.submit(() -> {
+            OrderBookSynchronizer synchronizer = orderBookSynchronizers.get(symbol);
+            if (synchronizer == null) {
+                return;
+            }
+            try {
+                String url = String.format("%s/depth?symbol=%s&limit=%d",
+                    BINANCE_REST_API_URL, symbol, ORDER_BOOK_SNAPSHOT_LIMIT);
+                
+                HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(url))
+                    .timeout(java.time.Duration.ofSeconds(15))
+                    .GET()
+                    .build();
+                
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    System.err.println("❌ Failed to fetch depth snapshot for " + symbol + ". Status: " + response.statusCode());
+                    synchronizer.onSnapshotFailed();
+                    return;
+                }
+                
+                JsonNode json = objectMapper.readTree(response.body());
+                long lastUpdateId = json.get("lastUpdateId").asLong();
+                JsonNode bidsArray = json.get("bids");
+                JsonNode asksArray = json.get("asks");
+                
+                long[] bidPrices = new long[bidsArray.size()];
+                long[] bidQuantities = new long[bidsArray.size()];
+                for (int i = 0; i < bidsArray.size(); i++) {
+                    bidPrices[i] = LocalOrderBook.parseScaled(bidsArray.get(i).get(0).asText());
+                    bidQuantities[i] = LocalOrderBook.parseScaled(bidsArray.get(i).get(1).asText());
+                }
+                long[] askPrices = new long[asksArray.size()];
+                long[] askQuantities = new long[asksArray.size()];
+                for (int i = 0; i < asksArray.size(); i++) {
+                    askPrices[i] = LocalOrderBook.parseScaled(asksArray.get(i).get(0).asText());
+                    askQuantities[i] = LocalOrderBook.parseScaled(asksArray.get(i).get(1).asText());
+                }
+                
+                DepthDiff snapshot = DepthDiff.snapshot(lastUpdateId, System.currentTimeMillis(),
+                    bidPrices, bidQuantities, askPrices, askQuantities);
+                
+                synchronized (synchronizer) {
+                    if (synchronizer.onSnapshot(snapshot)) {
+                        publishOrderBook(symbol, synchronizer, Instant.now());
+                    }
+                }
+            } catch (Exception e) {
+                System.err.println("❌ Error fetching depth snapshot for " + symbol + ": " + e.getMessage());
+                synchronizer.onSnapshotFailed();
+            }
+        });
+    }
+    
+    /**
+     * Forward a consistent top-N snapshot of the local book.
+     * Callers hold the synchronizer's lock from applying the update through publishing, so the
+     * stream thread and the snapshot executor publish books in update-id order.
+     */
+    private void publishOrderBook(String symbol, OrderBookSynchronizer synchronizer, Instant timestamp) {
+        if (dataHandler == null) {
+            return;
+        }
+        int depth = subscribedOrderBooks.getOrDefault(symbol, 
+            subscribedOrderBooks.getOrDefault(symbol.toLowerCase(), 20));
+        OrderBookData orderBookData = synchronizer.getBook().toOrderBookData(depth, timestamp, getProviderName());
+        
+        dataHandler.accept(new TradingData(
+            symbol,
+            timestamp,
+            getProviderName(),
+            TradingDataType.ORDER_BOOK,
+            orderBookData
+        ));
+    }
+    
+    /**
+     * Get the locally maintained L2 book for a symbol (null if not subscribed)
+     */
+    public LocalOrderBook getLocalOrderBook(String symbol) {
+        OrderBookSynchronizer synchronizer = orderBookSynchronizers.get(symbol.toUpperCase());
+        return synchronizer != null ? synchronizer.getBook() : null;
+    }
+    
     /**
      * Handle partial book depth from Binance WebSocket (@depth5, @depth10, @depth20)
      * Format: {"lastUpdateId": xxx, "bids": [[price, qty], ...], "asks": [[price, qty], ...]}
      */
-    private void handlePartialBookDepth(JsonNode json) {
+    private void handlePartialBookDepth(BinanceStreamDecoder.Event depth) {
         try {
-            long updateId = json.get("lastUpdateId").asLong();
+            long updateId = depth.finalUpdateId;
             Instant timestamp = Instant.now();
             
             // The symbol is not in the message, we need to track it from the stream name
@@ -1122,25 +1280,15 @@ public class BinanceTradingProvider implements TradingDataProvider {
             // This is a limitation of partial book depth streams
             
             // Parse bids
-            List<OrderBookLevel> bids = new ArrayList<>();
-            JsonNode bidsArray = json.get("bids");
-            if (bidsArray != null && bidsArray.isArray()) {
-                for (JsonNode bid : bidsArray) {
-                    BigDecimal price = new BigDecimal(bid.get(0).asText());
-                    BigDecimal quantity = new BigDecimal(bid.get(1).asText());
-                    bids.add(new OrderBookLevel(price, quantity));
-                }
+            List<OrderBookLevel> bids = new ArrayList<>(depth.bidCount);
+            for (int i = 0; i < depth.bidCount; i++) {
+                bids.add(new OrderBookLevel(decimal(depth.bidPrices[i]), decimal(depth.bidQuantities[i])));
             }
             
             // Parse asks
-            List<OrderBookLevel> asks = new ArrayList<>();
-            JsonNode asksArray = json.get("asks");
-            if (asksArray != null && asksArray.isArray()) {
-                for (JsonNode ask : asksArray) {
-                    BigDecimal price = new BigDecimal(ask.get(0).asText());
-                    BigDecimal quantity = new BigDecimal(ask.get(1).asText());
-                    asks.add(new OrderBookLevel(price, quantity));
-                }
+            List<OrderBookLevel> asks = new ArrayList<>(depth.askCount);
+            for (int i = 0; i < depth.askCount; i++) {
+                asks.add(new OrderBookLevel(decimal(depth.askPrices[i]), decimal(depth.askQuantities[i])));
             }
             
             // Try to determine symbol from subscribed order books
@@ -1184,16 +1332,16 @@ public class BinanceTradingProvider implements TradingDataProvider {
     /**
      * Handle book ticker data from Binance WebSocket
      */
-    private void handleBookTickerDirect(JsonNode json) {
+    private void handleBookTickerDirect(BinanceStreamDecoder.Event ticker) {
         try {
-            String symbol = json.get("s").asText().toUpperCase();
-            long updateId = json.get("u").asLong();
+            String symbol = ticker.symbol;
+            long updateId = ticker.finalUpdateId;
             Instant timestamp = Instant.now();
             
-            BigDecimal bestBidPrice = new BigDecimal(json.get("b").asText());
-            BigDecimal bestBidQty = new BigDecimal(json.get("B").asText());
-            BigDecimal bestAskPrice = new BigDecimal(json.get("a").asText());
-            BigDecimal bestAskQty = new BigDecimal(json.get("A").asText());
+            BigDecimal bestBidPrice = decimal(ticker.bestBidPrice);
+            BigDecimal bestBidQty = decimal(ticker.bestBidQuantity);
+            BigDecimal bestAskPrice = decimal(ticker.bestAskPrice);
+            BigDecimal bestAskQty = decimal(ticker.bestAskQuantity);
             
             // Create minimal order book with just best bid/ask
             List<OrderBookLevel> bids = List.of(new OrderBookLevel(bestBidPrice, bestBidQty));
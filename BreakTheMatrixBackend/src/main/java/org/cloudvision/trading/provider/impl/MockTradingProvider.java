@@ -237,7 +237,7 @@ public class MockTradingProvider implements TradingDataProvider {
         
         // Generate kline data at interval rate
         // Start after one interval to avoid overlap with historical data
-        long delaySeconds = getIntervalSeconds(interval);
+        long delaySeconds = interval.getSeconds();
         executorService.scheduleAtFixedRate(() -> generateKlineData(symbol, interval), 
             delaySeconds, delaySeconds, TimeUnit.SECONDS);
         
@@ -299,7 +299,7 @@ public class MockTradingProvider implements TradingDataProvider {
         
         List<CandlestickData> candles = new ArrayList<>();
         
-        long intervalSeconds = getIntervalSeconds(interval);
+        long intervalSeconds = interval.getSeconds();
         Instant now = Instant.now();
         
         // Calculate proper start time (align to interval boundaries)
@@ -400,7 +400,7 @@ public class MockTradingProvider implements TradingDataProvider {
     public List<CandlestickData> getHistoricalKlines(String symbol, TimeInterval interval, 
                                                      Instant startTime, Instant endTime) {
         long durationSeconds = endTime.getEpochSecond() - startTime.getEpochSecond();
-        long intervalSeconds = getIntervalSeconds(interval);
+        long intervalSeconds = interval.getSeconds();
         int limit = (int) (durationSeconds / intervalSeconds);
         
         return getHistoricalKlines(symbol, interval, Math.min(limit, 1000));
@@ -480,7 +480,7 @@ public class MockTradingProvider implements TradingDataProvider {
                 CandlestickData lastCandle = cachedCandles.get(cachedCandles.size() - 1);
                 
                 // Calculate which interval period we're currently in
-                long intervalSeconds = getIntervalSeconds(interval);
+                long intervalSeconds = interval.getSeconds();
                 long currentPeriodStart = (now.getEpochSecond() / intervalSeconds) * intervalSeconds;
                 Instant currentPeriodStartTime = Instant.ofEpochSecond(currentPeriodStart);
                 
@@ -683,7 +683,7 @@ public class MockTradingProvider implements TradingDataProvider {
             MarketState state = marketStates.get(symbol);
             if (state == null) return;
             
-            long intervalSeconds = getIntervalSeconds(interval);
+            long intervalSeconds = interval.getSeconds();
             Instant now = Instant.now();
             
             // Calculate the proper interval boundaries
@@ -916,27 +916,6 @@ public class MockTradingProvider implements TradingDataProvider {
         return new BigDecimal(volume).setScale(2, RoundingMode.HALF_UP);
     }
     
-    private long getIntervalSeconds(TimeInterval interval) {
-        switch (interval) {
-            case ONE_MINUTE: return 60;
-            case THREE_MINUTES: return 180;
-            case FIVE_MINUTES: return 300;
-            case FIFTEEN_MINUTES: return 900;
-            case THIRTY_MINUTES: return 1800;
-            case ONE_HOUR: return 3600;
-            case TWO_HOURS: return 7200;
-            case FOUR_HOURS: return 14400;
-            case SIX_HOURS: return 21600;
-            case EIGHT_HOURS: return 28800;
-            case TWELVE_HOURS: return 43200;
-            case ONE_DAY: return 86400;
-            case THREE_DAYS: return 259200;
-            case ONE_WEEK: return 604800;
-            case ONE_MONTH: return 2592000;
-            default: return 60;
-        }
-    }
-    
     // ========== ORDER FLOW STUB IMPLEMENTATIONS ==========
     // Mock provider doesn't generate order flow data yet
     
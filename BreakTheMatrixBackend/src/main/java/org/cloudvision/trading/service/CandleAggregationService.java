@@ -0,0 +1,277 @@
+package org.cloudvision.trading.service;
+
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.model.TimeInterval;
+import org.cloudvision.trading.model.TradeData;
+import org.cloudvision.trading.model.TradingData;
+import org.cloudvision.trading.model.TradingDataType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Derives every configured timeframe from a single market data stream per symbol.
+ *
+ * A symbol is registered either through its base kline subscription (1m by default) or as a trade
+ * source. Intervals that are also subscribed natively at the provider are never derived, so the
+ * provider's candles are the only ones stored and published for them.
+ * Each incoming base kline or trade updates the symbol's {@link CandleAggregator}, and the
+ * resulting candles (forming and closed) are stored in {@link CandlestickHistoryService} and passed
+ * to the candle handler, so history, indicators and charts see derived intervals like subscribed
+ * ones. They are flagged as derived, and the trading bot does not run strategies on them.
+ */
+@Service
+public class CandleAggregationService {
+
+    private final CandlestickHistoryService historyService;
+    private final boolean enabled;
+    private final List<TimeInterval> intervals;
+    private final TimeInterval baseInterval;
+    private final int bootstrapBaseCandles;
+
+    // "provider_symbol" -> aggregator; one map per source kind
+    private final Map<String, CandleAggregator> klineSources = new ConcurrentHashMap<>();
+    private final Map<String, CandleAggregator> tradeSources = new ConcurrentHashMap<>();
+
+    // "provider_symbol" -> kline intervals subscribed at the provider
+    private final Map<String, Set<String>> nativeIntervals = new ConcurrentHashMap<>();
+
+    private volatile Consumer<TradingData> candleHandler;
+
+    public CandleAggregationService(CandlestickHistoryService historyService,
+                                    @Value("${trading.aggregation.enabled:true}") boolean enabled,
+                                    @Value("${trading.aggregation.intervals:3m,5m,15m,1h,4h,1d}") String intervals,
+                                    @Value("${trading.aggregation.base-interval:1m}") String baseInterval,
+                                    @Value("${trading.aggregation.bootstrap-base-candles:5000}") int bootstrapBaseCandles) {
+        this.historyService = historyService;
+        this.enabled = enabled;
+        this.baseInterval = TimeInterval.fromString(baseInterval.trim());
+        this.bootstrapBaseCandles = bootstrapBaseCandles;
+
+        List<TimeInterval> parsed = new ArrayList<>();
+        for (String value : intervals.split(",")) {
+            if (!value.isBlank()) {
+                parsed.add(TimeInterval.fromString(value.trim()));
+            }
+        }
+        parsed.sort(Comparator.comparingLong(TimeInterval::getSeconds));
+        this.intervals = Collections.unmodifiableList(parsed);
+
+        System.out.println("✅ CandleAggregationService initialized (" + (enabled ? "intervals: " + this.intervals : "disabled") + ")");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<TimeInterval> getIntervals() {
+        return intervals;
+    }
+
+    /**
+     * Where derived candles go after they are stored (as KLINE data flagged {@link TradingData#isDerived()})
+     */
+    public void setCandleHandler(Consumer<TradingData> candleHandler) {
+        this.candleHandler = candleHandler;
+    }
+
+    public TimeInterval getBaseInterval() {
+        return baseInterval;
+    }
+
+    /**
+     * Record a kline subscription at the provider. The base interval starts the symbol's aggregator;
+     * any other interval is stored as it arrives and is no longer derived.
+     * @return the intervals derived from this subscription (empty unless it is the base interval)
+     */
+    public List<TimeInterval> onKlineSubscribed(String provider, String symbol, TimeInterval interval) {
+        nativeIntervals.computeIfAbsent(key(provider, symbol), k -> ConcurrentHashMap.newKeySet())
+            .add(interval.getValue());
+        if (interval != baseInterval) {
+            return List.of();
+        }
+        CandleAggregator existing = klineSources.get(key(provider, symbol));
+        if (existing != null) {
+            return existing.getTargets();
+        }
+        return registerKlineSource(provider, symbol, interval);
+    }
+
+    /**
+     * Forget a kline subscription; dropping the base interval stops the symbol's kline aggregator
+     * and dropping another interval lets it be derived again
+     */
+    public void onKlineUnsubscribed(String provider, String symbol, TimeInterval interval) {
+        Set<String> subscribed = nativeIntervals.get(key(provider, symbol));
+        if (subscribed != null) {
+            subscribed.remove(interval.getValue());
+        }
+        if (interval == baseInterval) {
+            klineSources.remove(key(provider, symbol));
+        }
+    }
+
+    /**
+     * Derive the configured intervals above {@code baseInterval} from the symbol's klines, except
+     * those subscribed natively. The derived history is rebuilt from the stored base candles first.
+     * @return the intervals that will be derived (empty if disabled or none fit the base)
+     */
+    public List<TimeInterval> registerKlineSource(String provider, String symbol, TimeInterval baseInterval) {
+        if (!enabled) {
+            return List.of();
+        }
+        List<TimeInterval> targets = new ArrayList<>();
+        for (TimeInterval interval : intervals) {
+            if (CandleAggregator.canDerive(baseInterval, interval) && !isNative(provider, symbol, interval.getValue())) {
+                targets.add(interval);
+            }
+        }
+        if (targets.isEmpty()) {
+            return targets;
+        }
+
+        CandleAggregator aggregator = new CandleAggregator(provider, symbol, baseInterval, targets);
+        synchronized (aggregator) {
+            klineSources.put(key(provider, symbol), aggregator);
+            bootstrap(aggregator, targets);
+        }
+        System.out.println("🧱 Deriving " + targets + " for " + provider + ":" + symbol + " from " +
+                         baseInterval.getValue() + " klines");
+        return targets;
+    }
+
+    /**
+     * Build every configured interval (plus 1m) for the symbol from its trade stream
+     */
+    public List<TimeInterval> registerTradeSource(String provider, String symbol) {
+        if (!enabled) {
+            return List.of();
+        }
+        List<TimeInterval> targets = new ArrayList<>();
+        targets.add(TimeInterval.ONE_MINUTE);
+        for (TimeInterval interval : intervals) {
+            if (!targets.contains(interval)) {
+                targets.add(interval);
+            }
+        }
+        targets.removeIf(interval -> isNative(provider, symbol, interval.getValue()));
+        if (targets.isEmpty()) {
+            return targets;
+        }
+        tradeSources.put(key(provider, symbol), new CandleAggregator(provider, symbol, null, targets));
+        System.out.println("🧱 Building " + targets + " for " + provider + ":" + symbol + " from trades");
+        return targets;
+    }
+
+    public void unregister(String provider, String symbol) {
+        klineSources.remove(key(provider, symbol));
+        tradeSources.remove(key(provider, symbol));
+    }
+
+    /**
+     * Update the derived candles for one market data event (no-op for unregistered sources)
+     */
+    public void onData(TradingData data) {
+        if (data.getType() == TradingDataType.KLINE && data.getCandlestickData() != null) {
+            CandlestickData candle = data.getCandlestickData();
+            CandleAggregator aggregator = klineSources.get(key(candle.getProvider(), candle.getSymbol()));
+            if (aggregator != null && aggregator.getBaseInterval().getValue().equals(candle.getInterval())) {
+                synchronized (aggregator) {
+                    aggregator.onCandle(candle, this::publish);
+                }
+            }
+        } else if (data.hasTradeData()) {
+            TradeData trade = data.getTradeData();
+            CandleAggregator aggregator = tradeSources.get(key(data.getProvider(), trade.getSymbol()));
+            if (aggregator != null) {
+                synchronized (aggregator) {
+                    aggregator.onTrade(trade, this::publish);
+                }
+            }
+        }
+    }
+
+    /**
+     * Close trade-built candles whose time is up even when no further trade arrives
+     */
+    @Scheduled(fixedRate = 1000)
+    public void closeExpiredCandles() {
+        if (tradeSources.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (CandleAggregator aggregator : tradeSources.values()) {
+            synchronized (aggregator) {
+                aggregator.closeExpired(now, this::publish);
+            }
+        }
+    }
+
+    private void publish(CandlestickData candle) {
+        // Subscribed natively after the aggregator started: the provider's candles win
+        if (isNative(candle.getProvider(), candle.getSymbol(), candle.getInterval())) {
+            return;
+        }
+        historyService.addCandlestick(candle);
+        Consumer<TradingData> handler = candleHandler;
+        if (handler != null) {
+            handler.accept(new TradingData(candle.getSymbol(), candle.getCloseTime(), candle.getProvider(),
+                TradingDataType.KLINE, candle, true));
+        }
+    }
+
+    /**
+     * Fill the derived histories from the stored base candles (paged in from the archive if needed).
+     * Bulk-stored without going through the candle handler.
+     */
+    private void bootstrap(CandleAggregator aggregator, List<TimeInterval> targets) {
+        String provider = aggregator.getProvider();
+        String symbol = aggregator.getSymbol();
+        TimeInterval base = aggregator.getBaseInterval();
+
+        Instant end = Instant.now();
+        Instant start = end.minusMillis(base.getMillis() * bootstrapBaseCandles);
+        List<CandlestickData> baseCandles = historyService.getCandlesticks(provider, symbol, base.getValue(), start, end);
+        if (baseCandles.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<CandlestickData>> closed = new HashMap<>();
+        Map<String, CandlestickData> forming = new HashMap<>();
+        for (CandlestickData candle : baseCandles) {
+            aggregator.onCandle(candle, derived -> {
+                if (derived.isClosed()) {
+                    closed.computeIfAbsent(derived.getInterval(), k -> new ArrayList<>()).add(derived);
+                    forming.remove(derived.getInterval());
+                } else {
+                    forming.put(derived.getInterval(), derived);
+                }
+            });
+        }
+
+        for (TimeInterval target : targets) {
+            List<CandlestickData> candles = closed.get(target.getValue());
+            if (candles != null) {
+                historyService.addCandlesticks(provider, symbol, target.getValue(), candles);
+            }
+            CandlestickData current = forming.get(target.getValue());
+            if (current != null) {
+                historyService.addCandlestick(current);
+            }
+        }
+    }
+
+    private boolean isNative(String provider, String symbol, String interval) {
+        Set<String> subscribed = nativeIntervals.get(key(provider, symbol));
+        return subscribed != null && subscribed.contains(interval);
+    }
+
+    private static String key(String provider, String symbol) {
+        return provider + "_" + symbol;
+    }
+}
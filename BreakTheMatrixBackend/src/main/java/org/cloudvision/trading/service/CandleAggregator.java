@@ -0,0 +1,247 @@
+package org.cloudvision.trading.service;
+
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.model.TimeInterval;
+import org.cloudvision.trading.model.TradeData;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Builds higher-timeframe candles for one provider/symbol incrementally, from either
+ * base-interval klines (forming and closed) or individual trades.
+ *
+ * Each target interval keeps one bucket: the sums of the closed base candles (or trades) folded
+ * into it so far, plus the latest forming base candle. Every input is O(1) per target interval
+ * and yields the target's current candle; the candle is marked closed once the base candle that
+ * ends the bucket closes (kline source), or once a later trade or {@link #closeExpired} passes its
+ * end (trade source). A bucket whose start was missed (the stream began mid-bucket) is skipped
+ * rather than emitted with a wrong open.
+ *
+ * Not thread-safe; callers serialize access per aggregator.
+ */
+public class CandleAggregator {
+
+    private final String provider;
+    private final String symbol;
+    private final TimeInterval baseInterval; // null when built from trades
+    private final Bucket[] buckets;
+
+    /**
+     * @param baseInterval Interval of the klines fed in, or null to build from trades
+     * @param targets Intervals to build; for a kline source each must be a whole multiple of the base
+     */
+    public CandleAggregator(String provider, String symbol, TimeInterval baseInterval, List<TimeInterval> targets) {
+        this.provider = provider;
+        this.symbol = symbol;
+        this.baseInterval = baseInterval;
+        this.buckets = new Bucket[targets.size()];
+        for (int i = 0; i < buckets.length; i++) {
+            TimeInterval target = targets.get(i);
+            if (baseInterval != null && !canDerive(baseInterval, target)) {
+                throw new IllegalArgumentException("Cannot build " + target.getValue() + " candles from " +
+                    baseInterval.getValue());
+            }
+            buckets[i] = new Bucket(target);
+        }
+    }
+
+    /**
+     * True if candles of {@code target} are made of whole candles of {@code base}
+     */
+    public static boolean canDerive(TimeInterval base, TimeInterval target) {
+        if (target.getSeconds() <= base.getSeconds()) {
+            return false;
+        }
+        if (target == TimeInterval.ONE_MONTH || target == TimeInterval.ONE_WEEK) {
+            // Calendar/Monday-aligned; any base that divides a day lines up with them
+            return TimeInterval.ONE_DAY.getSeconds() % base.getSeconds() == 0;
+        }
+        return base != TimeInterval.ONE_MONTH && base != TimeInterval.ONE_WEEK
+            && target.getSeconds() % base.getSeconds() == 0;
+    }
+
+    public String getProvider() { return provider; }
+    public String getSymbol() { return symbol; }
+    public TimeInterval getBaseInterval() { return baseInterval; }
+
+    public List<TimeInterval> getTargets() {
+        List<TimeInterval> targets = new ArrayList<>(buckets.length);
+        for (Bucket bucket : buckets) {
+            targets.add(bucket.interval);
+        }
+        return targets;
+    }
+
+    /**
+     * Fold in a base-interval kline (forming updates and the final closed candle)
+     * @param out Receives the current candle of every target interval that changed
+     */
+    public void onCandle(CandlestickData candle, Consumer<CandlestickData> out) {
+        long openTime = candle.getOpenTime().toEpochMilli();
+        long closeTime = candle.getCloseTime().toEpochMilli();
+        for (Bucket bucket : buckets) {
+            if (!bucket.roll(openTime, out) || bucket.closedEmitted) {
+                continue; // Late candle of an already finished bucket
+            }
+            if (candle.isClosed()) {
+                if (openTime <= bucket.lastFolded) {
+                    continue; // Duplicate of a closed candle already folded in
+                }
+                bucket.fold(candle.getOpen(), candle.getHigh(), candle.getLow(), candle.getClose(),
+                    candle.getVolume(), orZero(candle.getQuoteAssetVolume()), candle.getNumberOfTrades());
+                bucket.lastFolded = openTime;
+                bucket.forming = null;
+            } else {
+                bucket.forming = candle;
+            }
+            bucket.emit(closeTime >= bucket.closeTime && candle.isClosed(), out);
+        }
+    }
+
+    /**
+     * Fold in a trade (individual or aggregate)
+     * @param out Receives the current candle of every target interval, preceded by any candle it closes
+     */
+    public void onTrade(TradeData trade, Consumer<CandlestickData> out) {
+        long time = trade.getTimestamp().toEpochMilli();
+        BigDecimal quote = trade.getQuoteQuantity() != null
+            ? trade.getQuoteQuantity() : trade.getPrice().multiply(trade.getQuantity());
+        for (Bucket bucket : buckets) {
+            if (!bucket.roll(time, out) || bucket.closedEmitted) {
+                continue;
+            }
+            BigDecimal price = trade.getPrice();
+            bucket.fold(price, price, price, price, trade.getQuantity(), quote, 1);
+            bucket.emit(false, out);
+        }
+    }
+
+    /**
+     * Close the buckets whose end time has passed (a trade source sees no input once trading pauses)
+     */
+    public void closeExpired(long nowMillis, Consumer<CandlestickData> out) {
+        for (Bucket bucket : buckets) {
+            if (bucket.active && !bucket.closedEmitted && nowMillis > bucket.closeTime) {
+                bucket.emit(true, out);
+            }
+        }
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    /**
+     * Aggregation state of one target interval
+     */
+    private class Bucket {
+        private final TimeInterval interval;
+
+        private boolean active; // A bucket has been started
+        private boolean partial; // Its start was missed: tracked, never emitted
+        private boolean closedEmitted;
+        private long openTime = Long.MIN_VALUE;
+        private long closeTime;
+        private long lastFolded = Long.MIN_VALUE; // Open time of the newest closed base candle folded in
+
+        // Closed base candles (or trades) folded in so far; open == null while empty
+        private BigDecimal open;
+        private BigDecimal high;
+        private BigDecimal low;
+        private BigDecimal close;
+        private BigDecimal volume;
+        private BigDecimal quoteVolume;
+        private int trades;
+
+        // Latest forming base candle of this bucket, if any
+        private CandlestickData forming;
+
+        Bucket(TimeInterval interval) {
+            this.interval = interval;
+        }
+
+        /**
+         * Move to the bucket containing {@code time}, closing the current one if it was never closed
+         * @return false if {@code time} belongs to an earlier bucket
+         */
+        boolean roll(long time, Consumer<CandlestickData> out) {
+            if (active && time >= openTime && time <= closeTime) {
+                return true;
+            }
+            long bucketOpen = interval.alignOpenTime(time);
+            if (active && bucketOpen < openTime) {
+                return false;
+            }
+            if (active && !closedEmitted) {
+                emit(true, out);
+            }
+            // Klines must start at the bucket open; trades only miss the start of the first bucket
+            partial = baseInterval != null ? time != bucketOpen : !active;
+            active = true;
+            closedEmitted = false;
+            openTime = bucketOpen;
+            closeTime = interval.nextOpenTime(bucketOpen) - 1;
+            open = null;
+            forming = null;
+            trades = 0;
+            return true;
+        }
+
+        void fold(BigDecimal o, BigDecimal h, BigDecimal l, BigDecimal c, BigDecimal v, BigDecimal q, int n) {
+            if (open == null) {
+                open = o;
+                high = h;
+                low = l;
+                volume = v;
+                quoteVolume = q;
+            } else {
+                if (h.compareTo(high) > 0) high = h;
+                if (l.compareTo(low) < 0) low = l;
+                volume = volume.add(v);
+                quoteVolume = quoteVolume.add(q);
+            }
+            close = c;
+            trades += n;
+        }
+
+        void emit(boolean closed, Consumer<CandlestickData> out) {
+            if (closed) {
+                closedEmitted = true;
+            }
+            if (partial || (open == null && forming == null)) {
+                return;
+            }
+
+            BigDecimal o = open;
+            BigDecimal h = high;
+            BigDecimal l = low;
+            BigDecimal c = close;
+            BigDecimal v = volume;
+            BigDecimal q = quoteVolume;
+            int n = trades;
+            if (forming != null) {
+                if (o == null) {
+                    o = forming.getOpen();
+                    h = forming.getHigh();
+                    l = forming.getLow();
+                    v = forming.getVolume();
+                    q = orZero(forming.getQuoteAssetVolume());
+                } else {
+                    if (forming.getHigh().compareTo(h) > 0) h = forming.getHigh();
+                    if (forming.getLow().compareTo(l) < 0) l = forming.getLow();
+                    v = v.add(forming.getVolume());
+                    q = q.add(orZero(forming.getQuoteAssetVolume()));
+                }
+                c = forming.getClose();
+                n += forming.getNumberOfTrades();
+            }
+
+            out.accept(new CandlestickData(symbol, Instant.ofEpochMilli(openTime), Instant.ofEpochMilli(closeTime),
+                o, h, l, c, v, q, n, interval.getValue(), provider, closed));
+        }
+    }
+}
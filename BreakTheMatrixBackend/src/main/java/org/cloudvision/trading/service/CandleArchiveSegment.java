@@ -0,0 +1,229 @@
+package org.cloudvision.trading.service;
+
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.model.FixedPoint;
+import org.cloudvision.trading.model.InstrumentSpec;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One memory-mapped segment file of the candle archive.
+ *
+ * Layout (little-endian):
+ *   header  (64 bytes): magic, version, recordSize, capacity, committed record count
+ *   records (72 bytes each): openTime, closeTime, open, high, low, close, volume, quoteVolume, trades,
+ *                            volume scale (1 byte), quote volume scale (1 byte), 2 bytes padding
+ *
+ * Prices and volumes are fixed-point mantissas (see {@link FixedPoint}) with 8 decimals, so candles
+ * read back exactly as they were written. A volume too large for a long at 8 decimals keeps fewer;
+ * its scale is stored in the record.
+ *
+ * Records are written once and never modified. The committed count in the header is
+ * updated after each record, so a crash can at most lose the record being written.
+ */
+class CandleArchiveSegment {
+
+    static final int MAGIC = 0x43414E44; // "CAND"
+    static final int VERSION = 2;
+    static final int SCALE = InstrumentSpec.DEFAULT_SCALE;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 72;
+
+    private static final int COUNT_OFFSET = 16;
+
+    private final Path path;
+    private final int capacity;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private volatile int count;
+
+    private CandleArchiveSegment(Path path, int capacity, FileChannel channel, MappedByteBuffer buffer, int count) {
+        this.path = path;
+        this.capacity = capacity;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.count = count;
+    }
+
+    /**
+     * Create a new, empty segment file
+     */
+    static CandleArchiveSegment create(Path path, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+            HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, RECORD_SIZE);
+        buffer.putInt(12, capacity);
+        buffer.putLong(COUNT_OFFSET, 0);
+        return new CandleArchiveSegment(path, capacity, channel, buffer, 0);
+    }
+
+    /**
+     * Open an existing segment file
+     */
+    static CandleArchiveSegment open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new IOException("Segment too small: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != RECORD_SIZE) {
+                throw new IOException("Not a candle archive segment (or unsupported version): " + path);
+            }
+            int capacity = buffer.getInt(12);
+            long count = buffer.getLong(COUNT_OFFSET);
+            if (count < 0 || count > capacity || HEADER_SIZE + (long) capacity * RECORD_SIZE > fileSize) {
+                throw new IOException("Corrupt segment header: " + path);
+            }
+            return new CandleArchiveSegment(path, capacity, channel, buffer, (int) count);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    Path getPath() { return path; }
+    int size() { return count; }
+    int capacity() { return capacity; }
+    boolean isFull() { return count >= capacity; }
+
+    long firstOpenTime() {
+        return openTimeAt(0);
+    }
+
+    long lastOpenTime() {
+        return openTimeAt(count - 1);
+    }
+
+    long openTimeAt(int index) {
+        return buffer.getLong(offset(index));
+    }
+
+    /**
+     * Append one record. Caller (the owning series) serializes writers.
+     * @throws ArithmeticException if a price does not fit a long at 8 decimals; nothing is written then
+     */
+    void append(CandlestickData candle) {
+        int index = count;
+        if (isFull()) {
+            throw new IllegalStateException("Segment full: " + path);
+        }
+        // Convert everything before writing, so a value out of range cannot leave a half-written record
+        BigDecimal quote = candle.getQuoteAssetVolume() != null ? candle.getQuoteAssetVolume() : BigDecimal.ZERO;
+        int volumeScale = FixedPoint.fittingScale(candle.getVolume(), SCALE);
+        int quoteScale = FixedPoint.fittingScale(quote, SCALE);
+        long open = FixedPoint.toScaled(candle.getOpen(), SCALE);
+        long high = FixedPoint.toScaled(candle.getHigh(), SCALE);
+        long low = FixedPoint.toScaled(candle.getLow(), SCALE);
+        long close = FixedPoint.toScaled(candle.getClose(), SCALE);
+        long volume = FixedPoint.toScaled(candle.getVolume(), volumeScale);
+        long quoteVolume = FixedPoint.toScaled(quote, quoteScale);
+
+        int pos = offset(index);
+        buffer.putLong(pos, candle.getOpenTime().toEpochMilli());
+        buffer.putLong(pos + 8, candle.getCloseTime().toEpochMilli());
+        buffer.putLong(pos + 16, open);
+        buffer.putLong(pos + 24, high);
+        buffer.putLong(pos + 32, low);
+        buffer.putLong(pos + 40, close);
+        buffer.putLong(pos + 48, volume);
+        buffer.putLong(pos + 56, quoteVolume);
+        buffer.putInt(pos + 64, candle.getNumberOfTrades());
+        buffer.put(pos + 68, (byte) volumeScale);
+        buffer.put(pos + 69, (byte) quoteScale);
+        buffer.putShort(pos + 70, (short) 0);
+
+        // Commit: header count first, then publish to readers
+        buffer.putLong(COUNT_OFFSET, index + 1);
+        count = index + 1;
+    }
+
+    /**
+     * Decode records [from, to) into candles
+     */
+    void read(int from, int to, String provider, String symbol, String interval, List<CandlestickData> out) {
+        for (int i = from; i < to; i++) {
+            int pos = offset(i);
+            out.add(new CandlestickData(
+                symbol,
+                Instant.ofEpochMilli(buffer.getLong(pos)),
+                Instant.ofEpochMilli(buffer.getLong(pos + 8)),
+                decimal(pos + 16, SCALE),
+                decimal(pos + 24, SCALE),
+                decimal(pos + 32, SCALE),
+                decimal(pos + 40, SCALE),
+                decimal(pos + 48, buffer.get(pos + 68)),
+                decimal(pos + 56, buffer.get(pos + 69)),
+                buffer.getInt(pos + 64),
+                interval,
+                provider,
+                true
+            ));
+        }
+    }
+
+    /**
+     * First index with openTime >= t (may equal size())
+     */
+    int lowerBound(long t) {
+        int lo = 0, hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (openTimeAt(mid) < t) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * First index with openTime > t (may equal size())
+     */
+    int upperBound(long t) {
+        int lo = 0, hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (openTimeAt(mid) <= t) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private BigDecimal decimal(int pos, int scale) {
+        return FixedPoint.toBigDecimal(buffer.getLong(pos), scale);
+    }
+
+    private static int offset(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+}
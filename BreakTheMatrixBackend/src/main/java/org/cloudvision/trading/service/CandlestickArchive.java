@@ -0,0 +1,306 @@
+package org.cloudvision.trading.service;
+
+import jakarta.annotation.PreDestroy;
+import org.cloudvision.trading.model.CandlestickData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Persistent, append-only archive of closed candlesticks.
+ *
+ * One directory per provider/symbol/interval, holding fixed-size segment files
+ * of fixed-size binary records that are read back through memory-mapped buffers.
+ * The heap only holds the hot window in {@link CandlestickHistoryService};
+ * everything older is paged in from here on demand.
+ */
+@Service
+public class CandlestickArchive {
+
+    // 131072 records per segment = ~91 days of 1m candles, ~9 MB per file
+    static final int RECORDS_PER_SEGMENT = 1 << 17;
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path baseDirectory;
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    public CandlestickArchive(@Value("${trading.archive.directory:data/candles}") String baseDirectory) {
+        this.baseDirectory = Paths.get(baseDirectory);
+        System.out.println("🗄️ Candle archive directory: " + this.baseDirectory.toAbsolutePath());
+    }
+
+    /**
+     * Append a closed candle. Candles that are not newer than the archived tail are ignored.
+     *
+     * @return true if the candle was written
+     */
+    public boolean append(CandlestickData candle) {
+        if (!isFinal(candle)) {
+            return false;
+        }
+        Series s = getSeries(candle.getProvider(), candle.getSymbol(), candle.getInterval());
+        if (s == null) {
+            return false;
+        }
+        return s.append(candle);
+    }
+
+    /**
+     * Append a batch of candles (sorted internally). Only closed candles newer
+     * than the archived tail are written.
+     *
+     * @return number of candles written
+     */
+    public int appendAll(String provider, String symbol, String interval, List<CandlestickData> candles) {
+        Series s = getSeries(provider, symbol, interval);
+        if (s == null || candles.isEmpty()) {
+            return 0;
+        }
+        List<CandlestickData> sorted = new ArrayList<>(candles);
+        sorted.sort(Comparator.comparing(CandlestickData::getOpenTime));
+        int written = 0;
+        for (CandlestickData candle : sorted) {
+            if (isFinal(candle) && s.append(candle)) {
+                written++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Read archived candles with openTime in [startTime, endTime] (inclusive)
+     */
+    public List<CandlestickData> getCandlesticks(String provider, String symbol, String interval,
+                                                 Instant startTime, Instant endTime) {
+        Series s = getSeries(provider, symbol, interval);
+        if (s == null) {
+            return new ArrayList<>();
+        }
+        return s.range(startTime.toEpochMilli(), endTime.toEpochMilli());
+    }
+
+    /**
+     * Read the newest {@code count} archived candles, oldest first
+     */
+    public List<CandlestickData> getLastNCandlesticks(String provider, String symbol, String interval, int count) {
+        Series s = getSeries(provider, symbol, interval);
+        if (s == null) {
+            return new ArrayList<>();
+        }
+        return s.last(count);
+    }
+
+    /**
+     * Open time of the newest archived candle, or null if nothing is archived
+     */
+    public Instant getLastOpenTime(String provider, String symbol, String interval) {
+        Series s = getSeries(provider, symbol, interval);
+        if (s == null) {
+            return null;
+        }
+        long last = s.lastOpenTime();
+        return last == Long.MIN_VALUE ? null : Instant.ofEpochMilli(last);
+    }
+
+    /**
+     * Number of archived candles
+     */
+    public long getCandlestickCount(String provider, String symbol, String interval) {
+        Series s = getSeries(provider, symbol, interval);
+        return s == null ? 0 : s.size();
+    }
+
+    /**
+     * Flush all mapped segments to disk
+     */
+    public void flush() {
+        series.values().forEach(Series::force);
+    }
+
+    @PreDestroy
+    public void close() {
+        for (Series s : series.values()) {
+            s.close();
+        }
+        series.clear();
+        System.out.println("🗄️ Candle archive closed");
+    }
+
+    /**
+     * REST klines are all flagged closed, including the still-forming last one,
+     * so also require the close time to be in the past.
+     */
+    private static boolean isFinal(CandlestickData candle) {
+        return candle.isClosed() && candle.getCloseTime().toEpochMilli() < System.currentTimeMillis();
+    }
+
+    private Series getSeries(String provider, String symbol, String interval) {
+        String key = provider + "_" + symbol.toUpperCase() + "_" + interval;
+        Series existing = series.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            return series.computeIfAbsent(key, k -> {
+                try {
+                    return Series.open(directoryFor(provider, symbol, interval),
+                        provider, symbol.toUpperCase(), interval);
+                } catch (IOException e) {
+                    throw new java.io.UncheckedIOException(e);
+                }
+            });
+        } catch (java.io.UncheckedIOException e) {
+            System.err.println("❌ Failed to open candle archive for " + key + ": " + e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    private Path directoryFor(String provider, String symbol, String interval) {
+        // "1M" (month) and "1m" (minute) would collide on case-insensitive file systems
+        String intervalDir = "1M".equals(interval) ? "1mo" : interval;
+        return baseDirectory.resolve(provider).resolve(symbol.toUpperCase()).resolve(intervalDir);
+    }
+
+    /**
+     * All segments for one provider/symbol/interval, ordered by time
+     */
+    private static class Series {
+        private final Path directory;
+        private final String provider;
+        private final String symbol;
+        private final String interval;
+        private final List<CandleArchiveSegment> segments = new ArrayList<>();
+        private volatile long lastOpenTime = Long.MIN_VALUE;
+
+        private Series(Path directory, String provider, String symbol, String interval) {
+            this.directory = directory;
+            this.provider = provider;
+            this.symbol = symbol;
+            this.interval = interval;
+        }
+
+        static Series open(Path directory, String provider, String symbol, String interval) throws IOException {
+            Files.createDirectories(directory);
+            Series s = new Series(directory, provider, symbol, interval);
+
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(directory)) {
+                files = listing
+                    .filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+            }
+            for (Path file : files) {
+                CandleArchiveSegment segment = CandleArchiveSegment.open(file);
+                s.segments.add(segment);
+                if (segment.size() > 0) {
+                    s.lastOpenTime = segment.lastOpenTime();
+                }
+            }
+            if (!files.isEmpty()) {
+                System.out.println("🗄️ Opened archive " + provider + "_" + symbol + "_" + interval +
+                                 ": " + s.size() + " candles in " + s.segments.size() + " segment(s)");
+            }
+            return s;
+        }
+
+        synchronized boolean append(CandlestickData candle) {
+            long openTime = candle.getOpenTime().toEpochMilli();
+            if (openTime <= lastOpenTime) {
+                return false;
+            }
+            try {
+                CandleArchiveSegment tail = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+                if (tail == null || tail.isFull()) {
+                    if (tail != null) {
+                        tail.force();
+                    }
+                    tail = CandleArchiveSegment.create(
+                        directory.resolve(String.format("%08d%s", segments.size(), SEGMENT_SUFFIX)),
+                        RECORDS_PER_SEGMENT);
+                    segments.add(tail);
+                }
+                tail.append(candle);
+                lastOpenTime = openTime;
+                return true;
+            } catch (IOException e) {
+                System.err.println("❌ Failed to append to candle archive " + directory + ": " + e.getMessage());
+                return false;
+            } catch (ArithmeticException e) {
+                // A price past a long at 8 decimals; the segment was left untouched
+                System.err.println("❌ Candle at " + candle.getOpenTime() + " not archived in " + directory +
+                                 ": " + e.getMessage());
+                return false;
+            }
+        }
+
+        synchronized List<CandlestickData> range(long start, long end) {
+            List<CandlestickData> out = new ArrayList<>();
+            for (CandleArchiveSegment segment : segments) {
+                if (segment.size() == 0 || segment.lastOpenTime() < start) {
+                    continue;
+                }
+                if (segment.firstOpenTime() > end) {
+                    break;
+                }
+                int from = segment.lowerBound(start);
+                int to = segment.upperBound(end);
+                if (from < to) {
+                    segment.read(from, to, provider, symbol, interval, out);
+                }
+            }
+            return out;
+        }
+
+        synchronized List<CandlestickData> last(int count) {
+            LinkedList<List<CandlestickData>> chunks = new LinkedList<>();
+            int remaining = count;
+            for (int i = segments.size() - 1; i >= 0 && remaining > 0; i--) {
+                CandleArchiveSegment segment = segments.get(i);
+                int n = Math.min(remaining, segment.size());
+                List<CandlestickData> chunk = new ArrayList<>(n);
+                segment.read(segment.size() - n, segment.size(), provider, symbol, interval, chunk);
+                chunks.addFirst(chunk);
+                remaining -= n;
+            }
+            List<CandlestickData> out = new ArrayList<>(count - remaining);
+            chunks.forEach(out::addAll);
+            return out;
+        }
+
+        long lastOpenTime() {
+            return lastOpenTime;
+        }
+
+        synchronized long size() {
+            long total = 0;
+            for (CandleArchiveSegment segment : segments) {
+                total += segment.size();
+            }
+            return total;
+        }
+
+        synchronized void force() {
+            segments.forEach(CandleArchiveSegment::force);
+        }
+
+        synchronized void close() {
+            for (CandleArchiveSegment segment : segments) {
+                try {
+                    segment.close();
+                } catch (IOException e) {
+                    System.err.println("⚠️ Failed to close segment " + segment.getPath() + ": " + e.getMessage());
+                }
+            }
+            segments.clear();
+        }
+    }
+}
@@ -1,63 +1,50 @@
 package org.cloudvision.trading.service;
 
 import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.model.FixedCandle;
+import org.cloudvision.trading.model.InstrumentSpec;
 import org.cloudvision.trading.model.TimeInterval;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 /**
  * Centralized in-memory storage for candlestick historical data.
  * Single source of truth for all strategies.
+ * 
+ * Memory only holds a hot window per key; closed candles are also written to the
+ * on-disk {@link CandlestickArchive} and older ranges are paged in from there.
  */
 @Service
 public class CandlestickHistoryService {
     
     // Key: "PROVIDER_SYMBOL_INTERVAL" (e.g., "Binance_BTCUSDT_1m")
-    // Value: Sorted list of candlesticks
-    private final Map<String, List<CandlestickData>> candlestickHistory = new ConcurrentHashMap<>();
+    // Value: Fixed-capacity ring buffer ordered by open time
+    private final Map<String, CandlestickRingBuffer> candlestickHistory = new ConcurrentHashMap<>();
     
     // Configuration
     private static final int DEFAULT_MAX_CANDLES = 1000; // Keep last 1000 candles per symbol/interval
     private final Map<String, Integer> maxCandlesConfig = new ConcurrentHashMap<>();
     
+    @Autowired(required = false)
+    private CandlestickArchive archive;
+    
+    @Autowired(required = false)
+    private InstrumentRegistry instrumentRegistry;
+    
     /**
-     * Add a new candlestick to history
+     * Add a new candlestick to history.
+     * O(1) for the usual cases: a new candle or an update of the forming candle.
      */
     public void addCandlestick(CandlestickData candlestick) {
         String key = createKey(candlestick.getProvider(), candlestick.getSymbol(), candlestick.getInterval());
+        getOrCreateBuffer(key).put(candlestick);
         
-        List<CandlestickData> candles = candlestickHistory.computeIfAbsent(key, k -> new ArrayList<>());
-        
-        synchronized (candles) {
-            // Check if this candlestick already exists (by timestamp)
-            boolean exists = candles.stream()
-                .anyMatch(c -> c.getOpenTime().equals(candlestick.getOpenTime()));
-            
-            if (!exists) {
-                candles.add(candlestick);
-                
-                // Keep sorted by time
-                candles.sort(Comparator.comparing(CandlestickData::getOpenTime));
-                
-                // Trim old data if exceeds max
-                int maxCandles = maxCandlesConfig.getOrDefault(key, DEFAULT_MAX_CANDLES);
-                if (candles.size() > maxCandles) {
-                    int toRemove = candles.size() - maxCandles;
-                    candles.subList(0, toRemove).clear();
-                }
-            } else {
-                // Update existing candlestick (for live updates)
-                for (int i = 0; i < candles.size(); i++) {
-                    if (candles.get(i).getOpenTime().equals(candlestick.getOpenTime())) {
-                        candles.set(i, candlestick);
-                        break;
-                    }
-                }
-            }
+        if (archive != null && candlestick.isClosed()) {
+            archive.append(candlestick);
         }
     }
     
@@ -66,73 +53,114 @@ public class CandlestickHistoryService {
      */
     public void addCandlesticks(String provider, String symbol, String interval, List<CandlestickData> candlesticks) {
         String key = createKey(provider, symbol, interval);
+        CandlestickRingBuffer buffer = getOrCreateBuffer(key);
         
-        List<CandlestickData> candles = candlestickHistory.computeIfAbsent(key, k -> new ArrayList<>());
+        int added = buffer.putAll(candlesticks);
         
-        synchronized (candles) {
-            // Add all candlesticks that don't exist yet
-            Set<Instant> existingTimes = candles.stream()
-                .map(CandlestickData::getOpenTime)
-                .collect(Collectors.toSet());
-            
-            List<CandlestickData> newCandles = candlesticks.stream()
-                .filter(c -> !existingTimes.contains(c.getOpenTime()))
-                .collect(Collectors.toList());
-            
-            candles.addAll(newCandles);
-            
-            // Keep sorted by time
-            candles.sort(Comparator.comparing(CandlestickData::getOpenTime));
-            
-            // Trim old data if exceeds max
-            int maxCandles = maxCandlesConfig.getOrDefault(key, DEFAULT_MAX_CANDLES);
-            if (candles.size() > maxCandles) {
-                int toRemove = candles.size() - maxCandles;
-                candles.subList(0, toRemove).clear();
-            }
-            
-            System.out.println("📦 Stored " + newCandles.size() + " new candles for " + key + 
-                             " (total: " + candles.size() + ")");
+        int archived = 0;
+        if (archive != null) {
+            archived = archive.appendAll(provider, symbol, interval, candlesticks);
         }
+        
+        System.out.println("📦 Stored " + added + " new candles for " + key + 
+                         " (total: " + buffer.size() + ", archived: " + archived + ")");
+    }
+    
+    /**
+     * Warm the in-memory window from the on-disk archive
+     * @return number of candles loaded
+     */
+    public int loadFromArchive(String provider, String symbol, String interval, int count) {
+        if (archive == null) {
+            return 0;
+        }
+        String key = createKey(provider, symbol, interval);
+        CandlestickRingBuffer buffer = getOrCreateBuffer(key);
+        List<CandlestickData> archived = archive.getLastNCandlesticks(
+            provider, symbol, interval, Math.min(count, buffer.capacity()));
+        if (archived.isEmpty()) {
+            return 0;
+        }
+        buffer.putAll(archived);
+        System.out.println("🗄️ Loaded " + archived.size() + " candles for " + key + " from archive");
+        return archived.size();
+    }
+    
+    /**
+     * Open time of the newest archived (closed) candle, or null if nothing is archived
+     */
+    public Instant getLastArchivedOpenTime(String provider, String symbol, String interval) {
+        return archive != null ? archive.getLastOpenTime(provider, symbol, interval) : null;
     }
     
     /**
      * Get all candlesticks for a provider, symbol and interval
      */
     public List<CandlestickData> getCandlesticks(String provider, String symbol, String interval) {
-        String key = createKey(provider, symbol, interval);
-        List<CandlestickData> candles = candlestickHistory.get(key);
-        return candles != null ? new ArrayList<>(candles) : Collections.emptyList();
+        CandlestickRingBuffer buffer = candlestickHistory.get(createKey(provider, symbol, interval));
+        return buffer != null ? buffer.all() : Collections.emptyList();
     }
     
     /**
-     * Get last N candlesticks for a provider, symbol and interval
+     * Get last N candlesticks for a provider, symbol and interval.
+     * Only the requested tail is copied.
      */
     public List<CandlestickData> getLastNCandlesticks(String provider, String symbol, String interval, int count) {
-        List<CandlestickData> allCandles = getCandlesticks(provider, symbol, interval);
-        
-        if (allCandles.size() <= count) {
-            return allCandles;
+        CandlestickRingBuffer buffer = candlestickHistory.get(createKey(provider, symbol, interval));
+        return buffer != null ? buffer.last(count) : Collections.emptyList();
+    }
+    
+    /**
+     * Get last N candlesticks in fixed-point form, using the symbol's exchange precision
+     */
+    public List<FixedCandle> getLastNFixedCandles(String provider, String symbol, String interval, int count) {
+        List<CandlestickData> candles = getLastNCandlesticks(provider, symbol, interval, count);
+        InstrumentSpec spec = instrumentRegistry != null
+            ? instrumentRegistry.getSpec(symbol) : InstrumentSpec.defaultFor(symbol);
+        List<FixedCandle> result = new ArrayList<>(candles.size());
+        for (CandlestickData candle : candles) {
+            result.add(candle.toFixed(spec));
         }
-        
-        return allCandles.subList(allCandles.size() - count, allCandles.size());
+        return result;
     }
     
     /**
-     * Get candlesticks within a time range
+     * Get close prices of the last N candlesticks as primitives (oldest first)
+     */
+    public double[] getLastNCloses(String provider, String symbol, String interval, int count) {
+        CandlestickRingBuffer buffer = candlestickHistory.get(createKey(provider, symbol, interval));
+        return buffer != null ? buffer.lastCloses(count) : new double[0];
+    }
+    
+    /**
+     * Get candlesticks within a time range (binary search on open time).
+     * The part of the range older than the in-memory window is paged in from the archive.
      */
     public List<CandlestickData> getCandlesticks(String provider, String symbol, String interval, Instant startTime, Instant endTime) {
-        return getCandlesticks(provider, symbol, interval).stream()
-            .filter(c -> !c.getOpenTime().isBefore(startTime) && !c.getOpenTime().isAfter(endTime))
-            .collect(Collectors.toList());
+        CandlestickRingBuffer buffer = candlestickHistory.get(createKey(provider, symbol, interval));
+        CandlestickData oldestInMemory = buffer != null ? buffer.oldest() : null;
+        
+        if (archive == null || (oldestInMemory != null && !startTime.isBefore(oldestInMemory.getOpenTime()))) {
+            return buffer != null ? buffer.range(startTime, endTime) : Collections.emptyList();
+        }
+        
+        // Archive covers [startTime, oldestInMemory), memory covers the rest
+        Instant archiveEnd = oldestInMemory != null && oldestInMemory.getOpenTime().isBefore(endTime)
+            ? oldestInMemory.getOpenTime().minusMillis(1)
+            : endTime;
+        List<CandlestickData> result = archive.getCandlesticks(provider, symbol, interval, startTime, archiveEnd);
+        if (buffer != null && oldestInMemory != null && !oldestInMemory.getOpenTime().isAfter(endTime)) {
+            result.addAll(buffer.range(oldestInMemory.getOpenTime(), endTime));
+        }
+        return result;
     }
     
     /**
      * Get the latest (most recent) candlestick
      */
     public CandlestickData getLatestCandlestick(String provider, String symbol, String interval) {
-        List<CandlestickData> candles = getCandlesticks(provider, symbol, interval);
-        return candles.isEmpty() ? null : candles.get(candles.size() - 1);
+        CandlestickRingBuffer buffer = candlestickHistory.get(createKey(provider, symbol, interval));
+        return buffer != null ? buffer.latest() : null;
     }
     
     /**
@@ -140,8 +168,8 @@ public class CandlestickHistoryService {
      */
     public int getCandlestickCount(String provider, String symbol, String interval) {
         String key = createKey(provider, symbol, interval);
-        List<CandlestickData> candles = candlestickHistory.get(key);
-        return candles != null ? candles.size() : 0;
+        CandlestickRingBuffer buffer = candlestickHistory.get(key);
+        return buffer != null ? buffer.size() : 0;
     }
     
     /**
@@ -157,6 +185,10 @@ public class CandlestickHistoryService {
     public void setMaxCandles(String provider, String symbol, String interval, int maxCandles) {
         String key = createKey(provider, symbol, interval);
         maxCandlesConfig.put(key, maxCandles);
+        CandlestickRingBuffer buffer = candlestickHistory.get(key);
+        if (buffer != null) {
+            buffer.resize(maxCandles);
+        }
         System.out.println("⚙️ Set max candles for " + key + " to " + maxCandles);
     }
     
@@ -182,7 +214,7 @@ public class CandlestickHistoryService {
      */
     public Map<String, Integer> getStorageStats() {
         Map<String, Integer> stats = new HashMap<>();
-        candlestickHistory.forEach((key, candles) -> stats.put(key, candles.size()));
+        candlestickHistory.forEach((key, buffer) -> stats.put(key, buffer.size()));
         return stats;
     }
     
@@ -191,10 +223,10 @@ public class CandlestickHistoryService {
      */
     public String getMemoryUsageEstimate() {
         long totalCandles = candlestickHistory.values().stream()
-            .mapToInt(List::size)
+            .mapToInt(CandlestickRingBuffer::size)
             .sum();
         
-        // Rough estimate: ~200 bytes per candlestick
+        // Rough estimate: ~200 bytes per candlestick (object + primitive columns)
         long estimatedBytes = totalCandles * 200;
         
         if (estimatedBytes < 1024) {
@@ -206,6 +238,11 @@ public class CandlestickHistoryService {
         }
     }
     
+    private CandlestickRingBuffer getOrCreateBuffer(String key) {
+        return candlestickHistory.computeIfAbsent(key,
+            k -> new CandlestickRingBuffer(maxCandlesConfig.getOrDefault(k, DEFAULT_MAX_CANDLES)));
+    }
+    
     /**
      * Create a unique key for provider + symbol + interval
      */
@@ -223,11 +260,11 @@ public class CandlestickHistoryService {
         if (candlestickHistory.isEmpty()) {
             System.out.println("  No data stored");
         } else {
-            candlestickHistory.forEach((key, candles) -> {
-                CandlestickData oldest = candles.isEmpty() ? null : candles.get(0);
-                CandlestickData newest = candles.isEmpty() ? null : candles.get(candles.size() - 1);
+            candlestickHistory.forEach((key, buffer) -> {
+                CandlestickData oldest = buffer.oldest();
+                CandlestickData newest = buffer.latest();
                 
-                System.out.printf("  %-20s : %4d candles", key, candles.size());
+                System.out.printf("  %-20s : %4d candles", key, buffer.size());
                 if (oldest != null && newest != null) {
                     System.out.printf(" (%s to %s)", oldest.getOpenTime(), newest.getOpenTime());
                 }
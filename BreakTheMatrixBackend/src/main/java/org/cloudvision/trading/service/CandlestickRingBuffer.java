@@ -0,0 +1,386 @@
+package org.cloudvision.trading.service;
+
+import org.cloudvision.trading.model.CandlestickData;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Fixed-capacity ring buffer of candlesticks for a single provider/symbol/interval.
+ *
+ * Open times and OHLCV values are kept in primitive columns so that appends,
+ * in-place updates of the forming candle and time lookups never allocate.
+ * The original {@link CandlestickData} objects are kept alongside so reads can
+ * hand them out without rebuilding BigDecimals.
+ *
+ * All methods are synchronized on the buffer; callers never need extra locking.
+ */
+public class CandlestickRingBuffer {
+
+    private int capacity;
+    private int head;  // physical index of the oldest candle
+    private int size;
+
+    private long[] openTimes;
+    private double[] opens;
+    private double[] highs;
+    private double[] lows;
+    private double[] closes;
+    private double[] volumes;
+    private CandlestickData[] candles;
+
+    public CandlestickRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int newCapacity) {
+        this.capacity = newCapacity;
+        this.head = 0;
+        this.size = 0;
+        this.openTimes = new long[newCapacity];
+        this.opens = new double[newCapacity];
+        this.highs = new double[newCapacity];
+        this.lows = new double[newCapacity];
+        this.closes = new double[newCapacity];
+        this.volumes = new double[newCapacity];
+        this.candles = new CandlestickData[newCapacity];
+    }
+
+    /**
+     * Insert or update a candle.
+     * Both live cases are decided against the tail alone: newer candles are appended in O(1) and
+     * the forming candle is replaced in place in O(1). Only older candles (back-fills) are located
+     * by binary search, and they only shift the buffer when they are missing.
+     *
+     * @return true if a new candle was inserted, false if an existing one was updated
+     */
+    public synchronized boolean put(CandlestickData candle) {
+        long openTime = candle.getOpenTime().toEpochMilli();
+
+        if (size == 0) {
+            append(candle, openTime);
+            return true;
+        }
+        int tail = physical(size - 1);
+        long tailOpenTime = openTimes[tail];
+        if (openTime == tailOpenTime) {
+            write(tail, candle, openTime);
+            return false;
+        }
+        if (openTime > tailOpenTime) {
+            append(candle, openTime);
+            return true;
+        }
+
+        // Out-of-order back-fill
+        int logical = search(openTime);
+        if (logical >= 0) {
+            write(physical(logical), candle, openTime);
+            return false;
+        }
+
+        insertAt(-(logical + 1), candle, openTime);
+        return true;
+    }
+
+    /**
+     * Bulk insert. Candles newer than the current tail are appended directly;
+     * anything overlapping existing data is merged in a single pass.
+     *
+     * @return number of candles that were not already present
+     */
+    public synchronized int putAll(List<CandlestickData> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CandlestickData> sorted = new ArrayList<>(batch);
+        sorted.sort(Comparator.comparing(CandlestickData::getOpenTime));
+
+        long firstNew = sorted.get(0).getOpenTime().toEpochMilli();
+        if (size == 0 || firstNew > openTimes[physical(size - 1)]) {
+            int added = 0;
+            long last = Long.MIN_VALUE;
+            for (CandlestickData candle : sorted) {
+                long openTime = candle.getOpenTime().toEpochMilli();
+                if (openTime == last) {
+                    write(physical(size - 1), candle, openTime);
+                } else {
+                    append(candle, openTime);
+                    added++;
+                }
+                last = openTime;
+            }
+            return added;
+        }
+
+        // Overlapping range: merge existing and new (existing candles win on equal open time)
+        CandlestickData[] existing = toArray(0, size);
+        List<CandlestickData> merged = new ArrayList<>(existing.length + sorted.size());
+        int i = 0, j = 0, added = 0;
+        while (i < existing.length || j < sorted.size()) {
+            if (j >= sorted.size()) {
+                merged.add(existing[i++]);
+                continue;
+            }
+            if (i >= existing.length) {
+                CandlestickData candle = sorted.get(j++);
+                if (merged.isEmpty() || !merged.get(merged.size() - 1).getOpenTime().equals(candle.getOpenTime())) {
+                    merged.add(candle);
+                    added++;
+                }
+                continue;
+            }
+            int cmp = existing[i].getOpenTime().compareTo(sorted.get(j).getOpenTime());
+            if (cmp < 0) {
+                merged.add(existing[i++]);
+            } else if (cmp > 0) {
+                CandlestickData candle = sorted.get(j++);
+                if (merged.isEmpty() || !merged.get(merged.size() - 1).getOpenTime().equals(candle.getOpenTime())) {
+                    merged.add(candle);
+                    added++;
+                }
+            } else {
+                j++;
+            }
+        }
+
+        rebuild(merged);
+        return added;
+    }
+
+    /**
+     * Change the capacity, keeping the newest candles.
+     */
+    public synchronized void resize(int newCapacity) {
+        if (newCapacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + newCapacity);
+        }
+        if (newCapacity == capacity) {
+            return;
+        }
+        int keep = Math.min(size, newCapacity);
+        CandlestickData[] newest = toArray(size - keep, size);
+        allocate(newCapacity);
+        for (CandlestickData candle : newest) {
+            append(candle, candle.getOpenTime().toEpochMilli());
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized int capacity() {
+        return capacity;
+    }
+
+    public synchronized CandlestickData latest() {
+        return size == 0 ? null : candles[physical(size - 1)];
+    }
+
+    public synchronized CandlestickData oldest() {
+        return size == 0 ? null : candles[head];
+    }
+
+    /**
+     * Copy of all candles, oldest first
+     */
+    public synchronized List<CandlestickData> all() {
+        return new ArrayList<>(Arrays.asList(toArray(0, size)));
+    }
+
+    /**
+     * Copy of the newest {@code count} candles, oldest first.
+     * Only the requested tail is copied.
+     */
+    public synchronized List<CandlestickData> last(int count) {
+        int n = Math.max(0, Math.min(count, size));
+        return new ArrayList<>(Arrays.asList(toArray(size - n, size)));
+    }
+
+    /**
+     * Candles with openTime in [startTime, endTime] (inclusive), located by binary search
+     */
+    public synchronized List<CandlestickData> range(Instant startTime, Instant endTime) {
+        int from = lowerBound(startTime.toEpochMilli());
+        int to = upperBound(endTime.toEpochMilli());
+        if (from >= to) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.asList(toArray(from, to)));
+    }
+
+    /**
+     * Close prices of the newest {@code count} candles, oldest first, without boxing
+     */
+    public synchronized double[] lastCloses(int count) {
+        return lastColumn(closes, count);
+    }
+
+    public synchronized double[] lastHighs(int count) {
+        return lastColumn(highs, count);
+    }
+
+    public synchronized double[] lastLows(int count) {
+        return lastColumn(lows, count);
+    }
+
+    public synchronized double[] lastOpens(int count) {
+        return lastColumn(opens, count);
+    }
+
+    public synchronized double[] lastVolumes(int count) {
+        return lastColumn(volumes, count);
+    }
+
+    public synchronized long[] lastOpenTimes(int count) {
+        int n = Math.max(0, Math.min(count, size));
+        long[] out = new long[n];
+        int start = size - n;
+        for (int i = 0; i < n; i++) {
+            out[i] = openTimes[physical(start + i)];
+        }
+        return out;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(candles, null);
+        head = 0;
+        size = 0;
+    }
+
+    // ===== internals (caller holds the lock) =====
+
+    private int physical(int logical) {
+        int idx = head + logical;
+        return idx >= capacity ? idx - capacity : idx;
+    }
+
+    private void append(CandlestickData candle, long openTime) {
+        int idx;
+        if (size < capacity) {
+            idx = physical(size);
+            size++;
+        } else {
+            // Overwrite the oldest slot
+            idx = head;
+            head = head + 1 == capacity ? 0 : head + 1;
+        }
+        write(idx, candle, openTime);
+    }
+
+    private void write(int idx, CandlestickData candle, long openTime) {
+        openTimes[idx] = openTime;
+        opens[idx] = candle.getOpen().doubleValue();
+        highs[idx] = candle.getHigh().doubleValue();
+        lows[idx] = candle.getLow().doubleValue();
+        closes[idx] = candle.getClose().doubleValue();
+        volumes[idx] = candle.getVolume().doubleValue();
+        candles[idx] = candle;
+    }
+
+    /**
+     * Insert at a logical position inside the window (rare: late historical candles)
+     */
+    private void insertAt(int logical, CandlestickData candle, long openTime) {
+        if (size == capacity && logical == 0) {
+            // Older than everything we can hold
+            return;
+        }
+        List<CandlestickData> merged = new ArrayList<>(size + 1);
+        merged.addAll(Arrays.asList(toArray(0, logical)));
+        merged.add(candle);
+        merged.addAll(Arrays.asList(toArray(logical, size)));
+        rebuild(merged);
+    }
+
+    private void rebuild(List<CandlestickData> sorted) {
+        int from = Math.max(0, sorted.size() - capacity);
+        Arrays.fill(candles, null);
+        head = 0;
+        size = 0;
+        for (int i = from; i < sorted.size(); i++) {
+            CandlestickData candle = sorted.get(i);
+            append(candle, candle.getOpenTime().toEpochMilli());
+        }
+    }
+
+    private CandlestickData[] toArray(int fromLogical, int toLogical) {
+        int n = toLogical - fromLogical;
+        CandlestickData[] out = new CandlestickData[n];
+        if (n == 0) {
+            return out;
+        }
+        int start = physical(fromLogical);
+        int firstChunk = Math.min(n, capacity - start);
+        System.arraycopy(candles, start, out, 0, firstChunk);
+        if (firstChunk < n) {
+            System.arraycopy(candles, 0, out, firstChunk, n - firstChunk);
+        }
+        return out;
+    }
+
+    private double[] lastColumn(double[] column, int count) {
+        int n = Math.max(0, Math.min(count, size));
+        double[] out = new double[n];
+        int start = physical(size - n);
+        int firstChunk = Math.min(n, capacity - start);
+        System.arraycopy(column, start, out, 0, firstChunk);
+        if (firstChunk < n) {
+            System.arraycopy(column, 0, out, firstChunk, n - firstChunk);
+        }
+        return out;
+    }
+
+    /**
+     * Binary search over the logical window.
+     * @return logical index, or -(insertionPoint + 1) if absent
+     */
+    private int search(long openTime) {
+        int lo = 0, hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long t = openTimes[physical(mid)];
+            if (t < openTime) {
+                lo = mid + 1;
+            } else if (t > openTime) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    /** First logical index with openTime >= t */
+    private int lowerBound(long t) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (openTimes[physical(mid)] < t) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /** First logical index with openTime > t */
+    private int upperBound(long t) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (openTimes[physical(mid)] <= t) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -4,7 +4,6 @@ import org.cloudvision.trading.model.*;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -44,6 +43,27 @@ public class FootprintCandleService {
      * Process a trade and update the corresponding footprint candle
      */
     public FootprintCandle processTrade(TradeData trade, TimeInterval interval) {
+        FootprintBuilder builder = addTradeToBuilder(trade.toFixed(), interval);
+        
+        // Return current state (may be incomplete)
+        return builder.build(false);
+    }
+    
+    /**
+     * Add a trade without building the current candle (the fixed-point view is used)
+     */
+    public void addTrade(TradeData trade, TimeInterval interval) {
+        addTradeToBuilder(trade.toFixed(), interval);
+    }
+    
+    /**
+     * Add a fixed-point trade; no BigDecimal is involved until a candle is built
+     */
+    public void addTrade(FixedTrade trade, TimeInterval interval) {
+        addTradeToBuilder(trade, interval);
+    }
+    
+    private FootprintBuilder addTradeToBuilder(FixedTrade trade, TimeInterval interval) {
         String symbol = trade.getSymbol();
         long candleTime = getCandleTime(trade.getTimestamp(), interval);
         
@@ -51,13 +71,12 @@ public class FootprintCandleService {
         FootprintBuilder builder = footprintBuilders
                 .computeIfAbsent(symbol, k -> new ConcurrentHashMap<>())
                 .computeIfAbsent(interval.getValue(), k -> new ConcurrentHashMap<>())
-                .computeIfAbsent(candleTime, k -> new FootprintBuilder(symbol, interval.getValue(), candleTime));
+                .computeIfAbsent(candleTime, k -> new FootprintBuilder(symbol, interval.getValue(), candleTime,
+                                                                         getTickSize(symbol)));
         
         // Add trade to builder
-        builder.addTrade(trade, getTickSize(symbol));
-        
-        // Return current state (may be incomplete)
-        return builder.build(false);
+        builder.addTrade(trade);
+        return builder;
     }
     
     /**
@@ -119,22 +138,12 @@ public class FootprintCandleService {
     }
     
     private long getCandleTime(Instant timestamp, TimeInterval interval) {
-        long intervalSeconds = getIntervalSeconds(interval);
-        return (timestamp.getEpochSecond() / intervalSeconds) * intervalSeconds;
+        return getCandleTime(timestamp.toEpochMilli(), interval);
     }
     
-    private long getIntervalSeconds(TimeInterval interval) {
-        switch (interval) {
-            case ONE_MINUTE: return 60;
-            case THREE_MINUTES: return 180;
-            case FIVE_MINUTES: return 300;
-            case FIFTEEN_MINUTES: return 900;
-            case THIRTY_MINUTES: return 1800;
-            case ONE_HOUR: return 3600;
-            case FOUR_HOURS: return 14400;
-            case ONE_DAY: return 86400;
-            default: return 60;
-        }
+    private long getCandleTime(long timestampMillis, TimeInterval interval) {
+        long intervalSeconds = interval.getSeconds();
+        return (Math.floorDiv(timestampMillis, 1000L) / intervalSeconds) * intervalSeconds;
     }
     
     private BigDecimal getTickSize(String symbol) {
@@ -142,87 +151,128 @@ public class FootprintCandleService {
     }
     
     /**
-     * Builder for constructing footprint candles from trades
+     * Builder for constructing footprint candles from trades.
+     * 
+     * Prices are grouped into tick-size levels and all sums are kept in fixed-point longs;
+     * BigDecimal values are only created in {@link #build(boolean)}.
      */
     private static class FootprintBuilder {
         private final String symbol;
         private final String interval;
         private final long candleTime;
+        private final BigDecimal tickSize;
+        
+        // Fixed-point precision, taken from the first trade
+        private int priceScale = -1;
+        private int quantityScale = -1;
+        private long tick; // tickSize at priceScale
         
-        private BigDecimal open;
-        private BigDecimal high;
-        private BigDecimal low;
-        private BigDecimal close;
+        // OHLC as tick indexes
+        private long open;
+        private long high;
+        private long low;
+        private long close;
         
-        private BigDecimal totalVolume = BigDecimal.ZERO;
-        private BigDecimal totalBuyVolume = BigDecimal.ZERO;
-        private BigDecimal totalSellVolume = BigDecimal.ZERO;
+        private long totalBuyVolume;
+        private long totalSellVolume;
+        
+        // Price levels: tick index -> slot in the parallel arrays below
+        private final LevelIndex levelIndex = new LevelIndex();
+        private long[] levelTicks = new long[64];
+        private long[] levelBuyVolume = new long[64];
+        private long[] levelSellVolume = new long[64];
+        private int[] levelTradeCount = new int[64];
+        private int levelCount = 0;
         
-        private final Map<BigDecimal, FootprintCandle.PriceLevelVolume> volumeProfile = new ConcurrentHashMap<>();
         private int tradeCount = 0;
-        private Instant firstTradeTime;
-        private Instant lastTradeTime;
+        private long lastTradeTime = Long.MIN_VALUE;
         
-        public FootprintBuilder(String symbol, String interval, long candleTime) {
+        public FootprintBuilder(String symbol, String interval, long candleTime, BigDecimal tickSize) {
             this.symbol = symbol;
             this.interval = interval;
             this.candleTime = candleTime;
+            this.tickSize = tickSize;
         }
         
-        public void addTrade(TradeData trade, BigDecimal tickSize) {
-            BigDecimal price = trade.getPrice();
-            BigDecimal quantity = trade.getQuantity();
+        public synchronized void addTrade(FixedTrade trade) {
+            if (priceScale < 0) {
+                priceScale = Math.max(trade.getPriceScale(), FixedPoint.scaleOf(tickSize));
+                quantityScale = trade.getQuantityScale();
+                tick = FixedPoint.toScaled(tickSize, priceScale);
+            }
+            long price = FixedPoint.rescale(trade.getPrice(), trade.getPriceScale(), priceScale);
+            long quantity = FixedPoint.rescale(trade.getQuantity(), trade.getQuantityScale(), quantityScale);
             boolean isBuy = trade.isAggressiveBuy();
             
             // Round price to tick size
-            price = roundToTickSize(price, tickSize);
+            long level = FixedPoint.toTicks(price, tick);
             
             // Update OHLC
-            if (open == null) {
-                open = price;
-                high = price;
-                low = price;
-                firstTradeTime = trade.getTimestamp();
+            if (tradeCount == 0) {
+                open = level;
+                high = level;
+                low = level;
             } else {
-                if (price.compareTo(high) > 0) high = price;
-                if (price.compareTo(low) < 0) low = price;
+                if (level > high) high = level;
+                if (level < low) low = level;
             }
-            close = price;
+            close = level;
             lastTradeTime = trade.getTimestamp();
             
-            // Update volume
-            totalVolume = totalVolume.add(quantity);
-            if (isBuy) {
-                totalBuyVolume = totalBuyVolume.add(quantity);
-            } else {
-                totalSellVolume = totalSellVolume.add(quantity);
-            }
-            
-            // Update volume profile
-            FootprintCandle.PriceLevelVolume level = volumeProfile.computeIfAbsent(
-                    price, p -> new FootprintCandle.PriceLevelVolume(p)
-            );
-            
+            // Update volume and volume profile
+            int slot = slotFor(level);
+            // Checked: an overflowing sum must fail loudly, not wrap into a negative volume
             if (isBuy) {
-                level.addBuyVolume(quantity);
+                totalBuyVolume = Math.addExact(totalBuyVolume, quantity);
+                levelBuyVolume[slot] = Math.addExact(levelBuyVolume[slot], quantity);
             } else {
-                level.addSellVolume(quantity);
+                totalSellVolume = Math.addExact(totalSellVolume, quantity);
+                levelSellVolume[slot] = Math.addExact(levelSellVolume[slot], quantity);
             }
+            levelTradeCount[slot]++;
             
             tradeCount++;
         }
         
-        public FootprintCandle build(boolean isClosed) {
-            if (open == null) {
+        private int slotFor(long level) {
+            int slot = levelIndex.get(level);
+            if (slot >= 0) {
+                return slot;
+            }
+            if (levelCount == levelTicks.length) {
+                int newLength = levelCount * 2;
+                levelTicks = Arrays.copyOf(levelTicks, newLength);
+                levelBuyVolume = Arrays.copyOf(levelBuyVolume, newLength);
+                levelSellVolume = Arrays.copyOf(levelSellVolume, newLength);
+                levelTradeCount = Arrays.copyOf(levelTradeCount, newLength);
+            }
+            slot = levelCount++;
+            levelTicks[slot] = level;
+            levelIndex.put(level, slot);
+            return slot;
+        }
+        
+        public synchronized FootprintCandle build(boolean isClosed) {
+            if (tradeCount == 0) {
                 // No trades yet - return empty candle
                 return null;
             }
             
             // Calculate delta
-            BigDecimal delta = totalBuyVolume.subtract(totalSellVolume);
+            long delta = totalBuyVolume - totalSellVolume;
             
-            // Calculate Point of Control (price with highest volume)
-            BigDecimal poc = calculatePOC();
+            // Build the volume profile and find the Point of Control (price with highest volume)
+            Map<BigDecimal, FootprintCandle.PriceLevelVolume> volumeProfile = new HashMap<>(levelCount * 2);
+            int pocSlot = 0;
+            for (int i = 0; i < levelCount; i++) {
+                volumeProfile.put(levelPrice(levelTicks[i]), new FootprintCandle.PriceLevelVolume(
+                    levelPrice(levelTicks[i]), quantity(levelBuyVolume[i]), quantity(levelSellVolume[i]),
+                    levelTradeCount[i]));
+                if (levelVolume(i) > levelVolume(pocSlot)) {
+                    pocSlot = i;
+                }
+            }
+            BigDecimal poc = levelPrice(levelTicks[pocSlot]);
             
             // Calculate Value Area (70% of volume)
             BigDecimal[] valueArea = calculateValueArea();
@@ -230,68 +280,126 @@ public class FootprintCandleService {
             BigDecimal val = valueArea[1];
             
             // Calculate cumulative delta (would need historical data for accurate value)
-            BigDecimal cumulativeDelta = delta; // Simplified - should track across candles
+            BigDecimal deltaDecimal = quantity(delta);
+            BigDecimal cumulativeDelta = deltaDecimal; // Simplified - should track across candles
             
             Instant openTime = Instant.ofEpochSecond(candleTime);
-            Instant closeTime = lastTradeTime != null ? lastTradeTime : openTime;
+            Instant closeTime = lastTradeTime != Long.MIN_VALUE ? Instant.ofEpochMilli(lastTradeTime) : openTime;
             
             return new FootprintCandle(
                     symbol, openTime, closeTime, interval,
-                    open, high, low, close,
-                    totalVolume, totalBuyVolume, totalSellVolume,
-                    new HashMap<>(volumeProfile),
-                    delta, cumulativeDelta,
+                    levelPrice(open), levelPrice(high), levelPrice(low), levelPrice(close),
+                    quantity(Math.addExact(totalBuyVolume, totalSellVolume)), quantity(totalBuyVolume), quantity(totalSellVolume),
+                    volumeProfile,
+                    deltaDecimal, cumulativeDelta,
                     poc, vah, val,
                     tradeCount
             );
         }
         
-        private BigDecimal calculatePOC() {
-            if (volumeProfile.isEmpty()) return BigDecimal.ZERO;
-            
-            return volumeProfile.entrySet().stream()
-                    .max(Comparator.comparing(e -> e.getValue().getTotalVolume()))
-                    .map(Map.Entry::getKey)
-                    .orElse(BigDecimal.ZERO);
-        }
-        
         private BigDecimal[] calculateValueArea() {
-            if (volumeProfile.isEmpty()) {
-                return new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO};
-            }
-            
             // Sort levels by volume (descending)
-            List<Map.Entry<BigDecimal, FootprintCandle.PriceLevelVolume>> sorted = new ArrayList<>(volumeProfile.entrySet());
-            sorted.sort((a, b) -> b.getValue().getTotalVolume().compareTo(a.getValue().getTotalVolume()));
-            
-            // Find 70% of total volume
-            BigDecimal targetVolume = totalVolume.multiply(new BigDecimal("0.7"));
-            BigDecimal accumulatedVolume = BigDecimal.ZERO;
+            Integer[] slots = new Integer[levelCount];
+            for (int i = 0; i < levelCount; i++) {
+                slots[i] = i;
+            }
+            Arrays.sort(slots, (a, b) -> Long.compare(levelVolume(b), levelVolume(a)));
             
-            BigDecimal maxPrice = null;
-            BigDecimal minPrice = null;
+            // Find 70% of total volume: accumulated >= ceil(total * 7 / 10), computed without overflow
+            long totalVolume = Math.addExact(totalBuyVolume, totalSellVolume);
+            long targetVolume = totalVolume / 10 * 7 + (totalVolume % 10 * 7 + 9) / 10;
+            long accumulatedVolume = 0;
+            long maxLevel = Long.MIN_VALUE;
+            long minLevel = Long.MAX_VALUE;
             
-            for (Map.Entry<BigDecimal, FootprintCandle.PriceLevelVolume> entry : sorted) {
-                accumulatedVolume = accumulatedVolume.add(entry.getValue().getTotalVolume());
+            for (int slot : slots) {
+                accumulatedVolume = Math.addExact(accumulatedVolume, levelVolume(slot));
                 
-                BigDecimal price = entry.getKey();
-                if (maxPrice == null || price.compareTo(maxPrice) > 0) maxPrice = price;
-                if (minPrice == null || price.compareTo(minPrice) < 0) minPrice = price;
+                long level = levelTicks[slot];
+                if (level > maxLevel) maxLevel = level;
+                if (level < minLevel) minLevel = level;
                 
-                if (accumulatedVolume.compareTo(targetVolume) >= 0) {
+                if (accumulatedVolume >= targetVolume) {
                     break;
                 }
             }
             
             return new BigDecimal[]{
-                    maxPrice != null ? maxPrice : high,
-                    minPrice != null ? minPrice : low
+                    levelPrice(maxLevel != Long.MIN_VALUE ? maxLevel : high),
+                    levelPrice(minLevel != Long.MAX_VALUE ? minLevel : low)
             };
         }
         
-        private BigDecimal roundToTickSize(BigDecimal price, BigDecimal tickSize) {
-            return price.divide(tickSize, 0, RoundingMode.HALF_UP).multiply(tickSize);
+        private long levelVolume(int slot) {
+            return Math.addExact(levelBuyVolume[slot], levelSellVolume[slot]);
+        }
+        
+        /**
+         * Tick index -> price, with the tick size's scale (same representation as tick-rounded BigDecimals)
+         */
+        private BigDecimal levelPrice(long level) {
+            return BigDecimal.valueOf(level).multiply(tickSize);
+        }
+        
+        private BigDecimal quantity(long value) {
+            return FixedPoint.toBigDecimal(value, quantityScale);
+        }
+    }
+    
+    /**
+     * Open-addressing map from price tick index to level slot, without boxing
+     */
+    private static class LevelIndex {
+        private long[] keys = new long[128];
+        private int[] values = new int[128];
+        private boolean[] used = new boolean[128];
+        private int size = 0;
+        
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; used[i]; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return -1;
+        }
+        
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (used[i] && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (!used[i]) {
+                used[i] = true;
+                size++;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+        
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            boolean[] oldUsed = used;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+        
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
         }
     }
 }
-
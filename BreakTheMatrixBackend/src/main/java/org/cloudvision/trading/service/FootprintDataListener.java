@@ -1,6 +1,7 @@
 package org.cloudvision.trading.service;
 
 import org.cloudvision.trading.bot.TradingBot;
+import org.cloudvision.trading.service.MarketDataBus.BackpressurePolicy;
 import org.cloudvision.trading.model.*;
 import org.springframework.stereotype.Component;
 
@@ -38,7 +39,7 @@ public class FootprintDataListener {
 //    @PostConstruct
     public void initialize() {
         // Register to receive all trading data
-        tradingBot.addDataHandler(this::processData);
+        tradingBot.addDataHandler("footprint-builder", BackpressurePolicy.BLOCK, this::processData);
         System.out.println("✅ FootprintDataListener initialized - building footprint candles from trades");
         System.out.println("📊 Active intervals: " + activeIntervals);
     }
@@ -82,8 +83,8 @@ public class FootprintDataListener {
                 // Update last candle time
                 symbolTimes.put(interval.getValue(), currentCandleTime);
                 
-                // Process the trade
-                footprintService.processTrade(trade, interval);
+                // Process the trade (fixed-point; the candle is only built when it is read)
+                footprintService.addTrade(trade, interval);
                 
             } catch (Exception e) {
                 System.err.println("❌ Error processing trade for footprint: " + e.getMessage());
@@ -96,27 +97,10 @@ public class FootprintDataListener {
      * Get the candle time bucket for a given timestamp and interval
      */
     private long getCandleTime(Instant timestamp, TimeInterval interval) {
-        long intervalSeconds = getIntervalSeconds(interval);
+        long intervalSeconds = interval.getSeconds();
         return (timestamp.getEpochSecond() / intervalSeconds) * intervalSeconds;
     }
     
-    /**
-     * Get interval duration in seconds
-     */
-    private long getIntervalSeconds(TimeInterval interval) {
-        switch (interval) {
-            case ONE_MINUTE: return 60;
-            case THREE_MINUTES: return 180;
-            case FIVE_MINUTES: return 300;
-            case FIFTEEN_MINUTES: return 900;
-            case THIRTY_MINUTES: return 1800;
-            case ONE_HOUR: return 3600;
-            case FOUR_HOURS: return 14400;
-            case ONE_DAY: return 86400;
-            default: return 60;
-        }
-    }
-    
     /**
      * Scheduled task to close old candles periodically
      * Runs every 10 seconds to ensure candles get closed even if trades are sparse
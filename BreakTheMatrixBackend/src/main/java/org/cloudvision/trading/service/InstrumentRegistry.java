@@ -0,0 +1,45 @@
+package org.cloudvision.trading.service;
+
+import org.cloudvision.trading.model.InstrumentSpec;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-symbol price/quantity precision used by the fixed-point model.
+ *
+ * Providers register the exchange filters (tick size / step size) when a symbol is first
+ * subscribed. Until then a symbol gets the lossless 8-decimal default.
+ */
+@Service
+public class InstrumentRegistry {
+
+    private final Map<String, InstrumentSpec> specs = new ConcurrentHashMap<>();
+
+    public InstrumentSpec getSpec(String symbol) {
+        InstrumentSpec spec = specs.get(symbol);
+        return spec != null ? spec : specs.computeIfAbsent(symbol, InstrumentSpec::defaultFor);
+    }
+
+    public boolean hasExchangeSpec(String symbol) {
+        InstrumentSpec spec = specs.get(symbol);
+        return spec != null && !isDefault(spec);
+    }
+
+    public void register(String symbol, BigDecimal tickSize, BigDecimal stepSize) {
+        InstrumentSpec spec = new InstrumentSpec(symbol, tickSize, stepSize);
+        specs.put(symbol, spec);
+        System.out.println("📐 Registered instrument " + spec);
+    }
+
+    public Map<String, InstrumentSpec> getAllSpecs() {
+        return Map.copyOf(specs);
+    }
+
+    private static boolean isDefault(InstrumentSpec spec) {
+        return spec.getPriceScale() == InstrumentSpec.DEFAULT_SCALE && spec.getTickSize() == 1
+            && spec.getQuantityScale() == InstrumentSpec.DEFAULT_SCALE && spec.getStepSize() == 1;
+    }
+}
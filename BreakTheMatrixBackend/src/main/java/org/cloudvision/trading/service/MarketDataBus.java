@@ -0,0 +1,337 @@
+package org.cloudvision.trading.service;
+
+import jakarta.annotation.PreDestroy;
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.model.TradingData;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Fan-out of market data to independent consumers.
+ *
+ * Every subscriber gets its own bounded queue and its own worker thread, so a slow
+ * consumer (a WebSocket broadcast, the footprint builder, a strategy) only delays
+ * itself and never the provider thread that publishes. What happens when a queue is
+ * full is chosen per subscriber via {@link BackpressurePolicy}.
+ */
+@Service
+public class MarketDataBus {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 8192;
+
+    public enum BackpressurePolicy {
+        /** Full queue: discard the oldest pending event */
+        DROP_OLDEST,
+        /**
+         * Replace a pending event with a newer one for the same symbol/type (a forming
+         * kline only with the same candle); trades are never conflated. Full queue: drop oldest.
+         */
+        CONFLATE_BY_SYMBOL,
+        /** Full queue: the publisher waits. Use only for consumers that must see every event. */
+        BLOCK
+    }
+
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicLong published = new AtomicLong();
+
+    /**
+     * Register a consumer with its own queue and worker thread.
+     * Subscribing again with the same name replaces the previous subscription.
+     */
+    public Subscription subscribe(String name, BackpressurePolicy policy, int capacity,
+                                  Consumer<TradingData> handler) {
+        Subscription subscription = new Subscription(name, policy, capacity, handler);
+        Subscription previous = subscriptions.put(name, subscription);
+        if (previous != null) {
+            previous.stop();
+        }
+        subscription.start();
+        System.out.println("🚌 Market data subscriber '" + name + "' registered (" + policy +
+                         ", capacity " + capacity + ", total: " + subscriptions.size() + ")");
+        return subscription;
+    }
+
+    public void unsubscribe(String name) {
+        Subscription subscription = subscriptions.remove(name);
+        if (subscription != null) {
+            subscription.stop();
+            System.out.println("🚌 Market data subscriber '" + name + "' removed");
+        }
+    }
+
+    /**
+     * Hand an event to every subscriber. Only BLOCK subscribers with a full queue can make this wait.
+     */
+    public void publish(TradingData data) {
+        published.incrementAndGet();
+        for (Subscription subscription : subscriptions.values()) {
+            subscription.offer(data);
+        }
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    /**
+     * Lag metrics per subscriber
+     */
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new TreeMap<>();
+        for (Subscription subscription : subscriptions.values()) {
+            stats.put(subscription.getName(), subscription.getStats());
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscription subscription : subscriptions.values()) {
+            subscription.stop();
+        }
+        subscriptions.clear();
+    }
+
+    /**
+     * Conflation key, or null if the event must never be replaced by a newer one
+     */
+    public static String conflationKey(TradingData data) {
+        switch (data.getType()) {
+            case TICKER:
+            case ORDER_BOOK:
+            case BOOK_TICKER:
+                return data.getProvider() + "|" + data.getSymbol() + "|" + data.getType();
+            case KLINE:
+                // Updates of the same candle replace each other; the closed update wins
+                CandlestickData candle = data.getCandlestickData();
+                if (candle == null) {
+                    return null;
+                }
+                return data.getProvider() + "|" + data.getSymbol() + "|" + candle.getInterval() +
+                       "|" + candle.getOpenTime().toEpochMilli();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * One consumer: bounded queue + dedicated worker thread + metrics
+     */
+    public static class Subscription implements Runnable {
+        private final String name;
+        private final BackpressurePolicy policy;
+        private final int capacity;
+        private final Consumer<TradingData> handler;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        private final Condition notFull = lock.newCondition();
+        private final ArrayDeque<Slot> queue = new ArrayDeque<>();
+        private final Map<String, Slot> pendingByKey = new HashMap<>();
+
+        private final AtomicLong delivered = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong conflated = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong blockedNanos = new AtomicLong();
+        private volatile long lastLagNanos;
+        private volatile long maxLagNanos;
+        private volatile long lastHandlerNanos;
+        private volatile long maxHandlerNanos;
+
+        private volatile boolean running;
+        private Thread worker;
+
+        Subscription(String name, BackpressurePolicy policy, int capacity, Consumer<TradingData> handler) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("capacity must be positive");
+            }
+            this.name = name;
+            this.policy = policy;
+            this.capacity = capacity;
+            this.handler = handler;
+        }
+
+        void start() {
+            running = true;
+            worker = new Thread(this, "market-data-" + name);
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        void stop() {
+            running = false;
+            lock.lock();
+            try {
+                queue.clear();
+                pendingByKey.clear();
+                notEmpty.signalAll();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (worker != null) {
+                worker.interrupt();
+            }
+        }
+
+        void offer(TradingData data) {
+            if (!running) {
+                return;
+            }
+            String key = policy == BackpressurePolicy.CONFLATE_BY_SYMBOL ? conflationKey(data) : null;
+            lock.lock();
+            try {
+                if (key != null) {
+                    Slot pending = pendingByKey.get(key);
+                    if (pending != null) {
+                        // Keep the original enqueue time so lag reflects how stale the slot is
+                        pending.data = data;
+                        conflated.incrementAndGet();
+                        return;
+                    }
+                }
+
+                if (queue.size() >= capacity) {
+                    if (policy == BackpressurePolicy.BLOCK) {
+                        long waitStart = System.nanoTime();
+                        while (queue.size() >= capacity && running) {
+                            try {
+                                notFull.await(100, TimeUnit.MILLISECONDS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                dropped.incrementAndGet();
+                                return;
+                            }
+                        }
+                        blockedNanos.addAndGet(System.nanoTime() - waitStart);
+                        if (!running) {
+                            return;
+                        }
+                    } else {
+                        Slot oldest = queue.pollFirst();
+                        if (oldest != null && oldest.key != null) {
+                            pendingByKey.remove(oldest.key);
+                        }
+                        dropped.incrementAndGet();
+                    }
+                }
+
+                Slot slot = new Slot(data, key, System.nanoTime());
+                queue.addLast(slot);
+                if (key != null) {
+                    pendingByKey.put(key, slot);
+                }
+                notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                Slot slot;
+                lock.lock();
+                try {
+                    while (queue.isEmpty() && running) {
+                        notEmpty.await();
+                    }
+                    if (!running) {
+                        return;
+                    }
+                    slot = queue.pollFirst();
+                    if (slot.key != null) {
+                        pendingByKey.remove(slot.key);
+                    }
+                    notFull.signal();
+                } catch (InterruptedException e) {
+                    return;
+                } finally {
+                    lock.unlock();
+                }
+
+                long start = System.nanoTime();
+                long lag = start - slot.enqueuedNanos;
+                lastLagNanos = lag;
+                if (lag > maxLagNanos) {
+                    maxLagNanos = lag;
+                }
+                try {
+                    handler.accept(slot.data);
+                    delivered.incrementAndGet();
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    System.err.println("❌ Error in market data subscriber '" + name + "': " + e.getMessage());
+                    e.printStackTrace();
+                }
+                long took = System.nanoTime() - start;
+                lastHandlerNanos = took;
+                if (took > maxHandlerNanos) {
+                    maxHandlerNanos = took;
+                }
+            }
+        }
+
+        public String getName() { return name; }
+        public BackpressurePolicy getPolicy() { return policy; }
+        public int getCapacity() { return capacity; }
+
+        public int getQueueDepth() {
+            lock.lock();
+            try {
+                return queue.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public long getDelivered() { return delivered.get(); }
+        public long getDropped() { return dropped.get(); }
+        public long getConflated() { return conflated.get(); }
+
+        /**
+         * Reset the max lag / handler time watermarks
+         */
+        public void resetWatermarks() {
+            maxLagNanos = 0;
+            maxHandlerNanos = 0;
+        }
+
+        public Map<String, Object> getStats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("policy", policy.name());
+            stats.put("capacity", capacity);
+            stats.put("queueDepth", getQueueDepth());
+            stats.put("delivered", delivered.get());
+            stats.put("dropped", dropped.get());
+            stats.put("conflated", conflated.get());
+            stats.put("failed", failed.get());
+            stats.put("lastLagMicros", lastLagNanos / 1_000);
+            stats.put("maxLagMicros", maxLagNanos / 1_000);
+            stats.put("lastHandlerMicros", lastHandlerNanos / 1_000);
+            stats.put("maxHandlerMicros", maxHandlerNanos / 1_000);
+            stats.put("publisherBlockedMillis", blockedNanos.get() / 1_000_000);
+            return stats;
+        }
+    }
+
+    private static class Slot {
+        TradingData data;
+        final String key;
+        final long enqueuedNanos;
+
+        Slot(TradingData data, String key, long enqueuedNanos) {
+            this.data = data;
+            this.key = key;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+}
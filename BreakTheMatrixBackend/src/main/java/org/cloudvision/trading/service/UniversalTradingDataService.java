@@ -21,6 +21,12 @@ public class UniversalTradingDataService {
     
     @Autowired(required = false)
     private CandlestickHistoryService candlestickHistoryService;
+    
+    @Autowired(required = false)
+    private CandleAggregationService candleAggregationService;
+    
+    // Candles to backfill per subscription when nothing is archived yet
+    private static final int HISTORICAL_BOOTSTRAP_CANDLES = 5000;
 
     public void registerProvider(TradingDataProvider provider) {
         providers.put(provider.getProviderName(), provider);
@@ -48,11 +54,26 @@ public class UniversalTradingDataService {
             // First, fetch and store historical data so strategies have immediate data
             if (candlestickHistoryService != null) {
                 try {
-                    System.out.println("📥 Fetching historical data for " + symbol + " before subscribing...");
-                    List<CandlestickData> historicalData = provider.getHistoricalKlines(symbol, interval, 5000);
+                    // Warm memory from the on-disk archive, then only fetch what is missing since
+                    int fromArchive = candlestickHistoryService.loadFromArchive(
+                        providerName, symbol, interval.getValue(), 5000);
+                    Instant lastArchived = candlestickHistoryService.getLastArchivedOpenTime(
+                        providerName, symbol, interval.getValue());
+                    
+                    // Pages are streamed into the store (and archive) in order as they arrive
+                    Consumer<List<CandlestickData>> storePage = page ->
+                        candlestickHistoryService.addCandlesticks(providerName, symbol, interval.getValue(), page);
+                    
+                    List<CandlestickData> historicalData;
+                    if (fromArchive > 0 && lastArchived != null) {
+                        System.out.println("📥 Fetching candles for " + symbol + " since last archived " + lastArchived + "...");
+                        historicalData = provider.getHistoricalKlines(symbol, interval, lastArchived, Instant.now(), storePage);
+                    } else {
+                        System.out.println("📥 Fetching historical data for " + symbol + " before subscribing...");
+                        historicalData = provider.getHistoricalKlines(symbol, interval, HISTORICAL_BOOTSTRAP_CANDLES, storePage);
+                    }
                     
                     if (!historicalData.isEmpty()) {
-                        candlestickHistoryService.addCandlesticks(providerName, symbol, interval.getValue(), historicalData);
                         System.out.println("✅ Stored " + historicalData.size() + " historical candles for " + symbol);
                     }
                 } catch (Exception e) {
@@ -60,16 +81,36 @@ public class UniversalTradingDataService {
                 }
             }
             
+            // A base (1m) stream derives the higher timeframes; other intervals just stop being derived
+            if (candleAggregationService != null) {
+                candleAggregationService.setCandleHandler(this::forward);
+                candleAggregationService.onKlineSubscribed(providerName, symbol, interval);
+            }
+            
             // Then subscribe to real-time updates
             provider.subscribeToKlines(symbol, interval);
         }
     }
 
+    /**
+     * Build candles for all aggregation intervals from the symbol's trade stream
+     * (subscribe to trades or aggregate trades separately)
+     */
+    public void aggregateCandlesFromTrades(String providerName, String symbol) {
+        if (candleAggregationService != null) {
+            candleAggregationService.setCandleHandler(this::forward);
+            candleAggregationService.registerTradeSource(providerName, symbol);
+        }
+    }
+
     public void unsubscribeFromKlines(String providerName, String symbol, TimeInterval interval) {
         TradingDataProvider provider = providers.get(providerName);
         if (provider != null && provider.isConnected()) {
             provider.unsubscribeFromKlines(symbol, interval);
         }
+        if (candleAggregationService != null) {
+            candleAggregationService.onKlineUnsubscribed(providerName, symbol, interval);
+        }
     }
 
     public void setGlobalDataHandler(Consumer<TradingData> handler) {
@@ -90,7 +131,18 @@ public class UniversalTradingDataService {
             candlestickHistoryService.addCandlestick(candlestick);
         }
         
-        // Forward data to global handler (TradingBot) for strategy execution
+        forward(data);
+        
+        // Derived candles are stored and forwarded after the event they come from
+        if (candleAggregationService != null) {
+            candleAggregationService.onData(data);
+        }
+    }
+    
+    /**
+     * Forward data to the global handler (TradingBot) for strategy execution
+     */
+    private void forward(TradingData data) {
         if (globalDataHandler != null) {
             try {
                 globalDataHandler.accept(data);
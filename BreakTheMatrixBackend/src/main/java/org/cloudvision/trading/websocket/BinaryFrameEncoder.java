@@ -0,0 +1,280 @@
+package org.cloudvision.trading.websocket;
+
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.model.OrderBookData;
+import org.cloudvision.trading.model.TradeData;
+import org.cloudvision.trading.model.TradingData;
+import org.springframework.web.socket.BinaryMessage;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixed-layout binary frames for clients that subscribe with {@code "encoding": "binary"}.
+ *
+ * All numbers are little-endian. Prices, quantities, ids and epoch-millis times are f64
+ * (what the chart uses anyway; ids and times are exact up to 2^53). Strings are
+ * length-prefixed UTF-8: str8 = u8 length, str16 = u16 length. Missing values are NaN.
+ *
+ * Every frame starts with: u8 schemaId, u8 version, u8 flags, str8 symbol.
+ * <pre>
+ * 1 CANDLE         flags: 1 = closed
+ *                  str8 interval, f64 openTime, f64 closeTime, f64 open, f64 high, f64 low,
+ *                  f64 close, f64 volume, f64 quoteVolume, u32 numberOfTrades
+ * 2 TRADE          flags: 1 = buyer is maker (aggressive sell), 2 = aggregate trade
+ *                  f64 timestamp, f64 tradeId, f64 price, f64 quantity, f64 quoteQuantity,
+ *                  f64 firstTradeId, f64 lastTradeId
+ * 3 BOOK           f64 timestamp, f64 lastUpdateId, f64 bestBid, f64 bestAsk, f64 spread,
+ *                  f64 bidVolume5, f64 askVolume5, f64 bidVolume10, f64 askVolume10,
+ *                  u16 bidCount, u16 askCount, then (f64 price, f64 quantity) per bid and per ask
+ * 4 INDICATOR      flags: 1 = real-time tick (not stored in history)
+ *                  str16 instanceKey, f64 timestamp, f64 price, u8 count, then (str8 name, f64 value)
+ * 5 TRADE_SUMMARY  trades merged over a conflation window
+ *                  u16 windowMs, u32 updates, u32 trades, f64 open, f64 high, f64 low, f64 close,
+ *                  f64 vwap, f64 volume, f64 buyVolume, f64 sellVolume, f64 quoteVolume,
+ *                  f64 startTime, f64 endTime, f64 firstTradeId, f64 lastTradeId
+ * 6 INDICATOR_BATCH every indicator update of one candle close
+ *                  f64 timestamp, f64 price, u16 count, then per update:
+ *                  str16 instanceKey, u8 valueCount, then (str8 name, f64 value)
+ * </pre>
+ * The frontend decoder is {@code decodeBinaryFrame} in OrderFlowService.js.
+ */
+public final class BinaryFrameEncoder {
+
+    public static final int VERSION = 1;
+
+    public static final int CANDLE = 1;
+    public static final int TRADE = 2;
+    public static final int BOOK = 3;
+    public static final int INDICATOR = 4;
+    public static final int TRADE_SUMMARY = 5;
+    public static final int INDICATOR_BATCH = 6;
+
+    private BinaryFrameEncoder() {
+    }
+
+    /**
+     * Frame for a market data event, or null if its type has no binary schema (send JSON instead)
+     */
+    public static BinaryMessage encode(TradingData data) {
+        if (data.hasCandlestickData()) {
+            return encodeCandle(data.getCandlestickData());
+        }
+        if (data.hasTradeData()) {
+            return encodeTrade(data.getSymbol(), data.getTradeData());
+        }
+        if (data.hasOrderBookData()) {
+            return encodeBook(data.getSymbol(), data.getTimestamp(), data.getOrderBookData());
+        }
+        return null;
+    }
+
+    public static BinaryMessage encodeCandle(CandlestickData candle) {
+        FrameWriter out = new FrameWriter(128);
+        out.header(CANDLE, candle.isClosed() ? 1 : 0, candle.getSymbol());
+        out.str8(candle.getInterval());
+        out.time(candle.getOpenTime());
+        out.time(candle.getCloseTime());
+        out.num(candle.getOpen());
+        out.num(candle.getHigh());
+        out.num(candle.getLow());
+        out.num(candle.getClose());
+        out.num(candle.getVolume());
+        out.num(candle.getQuoteAssetVolume());
+        out.u32(candle.getNumberOfTrades());
+        return out.toMessage();
+    }
+
+    public static BinaryMessage encodeTrade(String symbol, TradeData trade) {
+        int flags = (trade.isBuyerMaker() ? 1 : 0) | (trade.isAggregateTrade() ? 2 : 0);
+        FrameWriter out = new FrameWriter(96);
+        out.header(TRADE, flags, symbol);
+        out.time(trade.getTimestamp());
+        out.f64(trade.getTradeId());
+        out.num(trade.getPrice());
+        out.num(trade.getQuantity());
+        out.num(trade.getQuoteQuantity());
+        out.f64(trade.isAggregateTrade() ? trade.getFirstTradeId() : -1);
+        out.f64(trade.isAggregateTrade() ? trade.getLastTradeId() : -1);
+        return out.toMessage();
+    }
+
+    public static BinaryMessage encodeBook(String symbol, Instant timestamp, OrderBookData book) {
+        List<OrderBookData.OrderBookLevel> bids = book.getBids();
+        List<OrderBookData.OrderBookLevel> asks = book.getAsks();
+        int bidCount = Math.min(bids.size(), 0xFFFF);
+        int askCount = Math.min(asks.size(), 0xFFFF);
+
+        FrameWriter out = new FrameWriter(96 + 16 * (bidCount + askCount));
+        out.header(BOOK, 0, symbol);
+        out.time(timestamp != null ? timestamp : book.getTimestamp());
+        out.f64(book.getLastUpdateId());
+        out.num(book.getBestBid());
+        out.num(book.getBestAsk());
+        out.num(book.getSpread());
+        out.num(book.getTotalBidVolume(5));
+        out.num(book.getTotalAskVolume(5));
+        out.num(book.getTotalBidVolume(10));
+        out.num(book.getTotalAskVolume(10));
+        out.u16(bidCount);
+        out.u16(askCount);
+        for (int i = 0; i < bidCount; i++) {
+            out.num(bids.get(i).getPrice());
+            out.num(bids.get(i).getQuantity());
+        }
+        for (int i = 0; i < askCount; i++) {
+            out.num(asks.get(i).getPrice());
+            out.num(asks.get(i).getQuantity());
+        }
+        return out.toMessage();
+    }
+
+    public static BinaryMessage encodeIndicator(String symbol, String instanceKey, Instant timestamp,
+                                                BigDecimal price, Map<String, BigDecimal> values, boolean tick) {
+        FrameWriter out = new FrameWriter(64 + instanceKey.length() + 24 * Math.min(values.size(), 0xFF));
+        out.header(INDICATOR, tick ? 1 : 0, symbol);
+        out.str16(instanceKey);
+        out.time(timestamp);
+        out.num(price);
+        values(out, values);
+        return out.toMessage();
+    }
+
+    /**
+     * u8 count, then (str8 name, f64 value) per entry
+     */
+    private static void values(FrameWriter out, Map<String, BigDecimal> values) {
+        int count = Math.min(values.size(), 0xFF);
+        out.u8(count);
+        int written = 0;
+        for (Map.Entry<String, BigDecimal> entry : values.entrySet()) {
+            if (written++ == count) {
+                break;
+            }
+            out.str8(entry.getKey());
+            out.num(entry.getValue());
+        }
+    }
+
+    public static BinaryMessage encodeIndicatorBatch(String symbol, Instant timestamp, BigDecimal price,
+                                                     List<String> instanceKeys,
+                                                     List<Map<String, BigDecimal>> valuesPerKey) {
+        int count = Math.min(instanceKeys.size(), 0xFFFF);
+        FrameWriter out = new FrameWriter(64 + 96 * count);
+        out.header(INDICATOR_BATCH, 0, symbol);
+        out.time(timestamp);
+        out.num(price);
+        out.u16(count);
+        for (int i = 0; i < count; i++) {
+            out.str16(instanceKeys.get(i));
+            values(out, valuesPerKey.get(i));
+        }
+        return out.toMessage();
+    }
+
+    public static BinaryMessage encodeTradeSummary(TickSummary summary, int windowMs) {
+        FrameWriter out = new FrameWriter(160);
+        out.header(TRADE_SUMMARY, 0, summary.getSymbol());
+        out.u16(windowMs);
+        out.u32(summary.getUpdates());
+        out.u32(summary.getTradeCount());
+        out.num(summary.getOpen());
+        out.num(summary.getHigh());
+        out.num(summary.getLow());
+        out.num(summary.getClose());
+        out.num(summary.getVwap());
+        out.num(summary.getVolume());
+        out.num(summary.getBuyVolume());
+        out.num(summary.getSellVolume());
+        out.num(summary.getQuoteVolume());
+        out.time(summary.getStartTime());
+        out.time(summary.getEndTime());
+        out.f64(summary.getFirstTradeId());
+        out.f64(summary.getLastTradeId());
+        return out.toMessage();
+    }
+
+    /**
+     * Little-endian buffer that grows as needed
+     */
+    private static class FrameWriter {
+        private ByteBuffer buffer;
+
+        FrameWriter(int initialCapacity) {
+            buffer = ByteBuffer.allocate(initialCapacity).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        void header(int schemaId, int flags, String symbol) {
+            u8(schemaId);
+            u8(VERSION);
+            u8(flags);
+            str8(symbol);
+        }
+
+        void u8(int value) {
+            ensure(1);
+            buffer.put((byte) value);
+        }
+
+        void u16(int value) {
+            ensure(2);
+            buffer.putShort((short) value);
+        }
+
+        void u32(long value) {
+            ensure(4);
+            buffer.putInt((int) value);
+        }
+
+        void f64(double value) {
+            ensure(8);
+            buffer.putDouble(value);
+        }
+
+        void num(BigDecimal value) {
+            f64(value != null ? value.doubleValue() : Double.NaN);
+        }
+
+        void time(Instant instant) {
+            f64(instant != null ? instant.toEpochMilli() : Double.NaN);
+        }
+
+        void str8(String value) {
+            byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            int length = Math.min(bytes.length, 0xFF);
+            u8(length);
+            ensure(length);
+            buffer.put(bytes, 0, length);
+        }
+
+        void str16(String value) {
+            byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            int length = Math.min(bytes.length, 0xFFFF);
+            u16(length);
+            ensure(length);
+            buffer.put(bytes, 0, length);
+        }
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes))
+                                             .order(ByteOrder.LITTLE_ENDIAN);
+                buffer.flip();
+                grown.put(buffer);
+                buffer = grown;
+            }
+        }
+
+        BinaryMessage toMessage() {
+            byte[] frame = new byte[buffer.position()];
+            buffer.flip();
+            buffer.get(frame);
+            return new BinaryMessage(frame);
+        }
+    }
+}
@@ -3,7 +3,10 @@ package org.cloudvision.trading.websocket;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PreDestroy;
 import org.cloudvision.trading.bot.TradingBot;
+import org.cloudvision.trading.service.MarketDataBus;
+import org.cloudvision.trading.service.MarketDataBus.BackpressurePolicy;
 import org.cloudvision.trading.model.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
@@ -26,6 +29,8 @@ import java.util.concurrent.ConcurrentHashMap;
  * 
  * Message Format:
  * {"action": "subscribe", "symbol": "BTCUSDT", "types": ["TRADE", "ORDER_BOOK"]}
+ * {"action": "subscribe", "symbol": "BTCUSDT", "throttleMs": 100}  (merged trades / latest book every 100ms)
+ * {"action": "subscribe", "symbol": "BTCUSDT", "encoding": "binary"}  (data frames per BinaryFrameEncoder)
  * {"action": "unsubscribe", "symbol": "BTCUSDT"}
  * {"action": "getStats"}
  */
@@ -33,6 +38,7 @@ import java.util.concurrent.ConcurrentHashMap;
 public class OrderFlowWebSocketHandler extends TextWebSocketHandler {
     
     private final TradingBot tradingBot;
+    private final WebSocketBroadcaster broadcaster;
     private final ObjectMapper objectMapper;
     private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
     
@@ -42,11 +48,15 @@ public class OrderFlowWebSocketHandler extends TextWebSocketHandler {
     // Session type filters: sessionId -> Set of data types to filter
     private final Map<String, Set<TradingDataType>> sessionTypeFilters = new ConcurrentHashMap<>();
     
+    // Sessions that asked for a rate ("throttleMs") get merged ticks instead of every update
+    private final TickConflator conflator = new TickConflator("orderflow", this::broadcastSummaries);
+    
     // Statistics tracking
     private final Map<String, OrderFlowStats> symbolStats = new ConcurrentHashMap<>();
     
-    public OrderFlowWebSocketHandler(TradingBot tradingBot) {
+    public OrderFlowWebSocketHandler(TradingBot tradingBot, WebSocketBroadcaster broadcaster) {
         this.tradingBot = tradingBot;
+        this.broadcaster = broadcaster;
         
         // Configure ObjectMapper for Java 8 time support
         this.objectMapper = new ObjectMapper();
@@ -54,13 +64,22 @@ public class OrderFlowWebSocketHandler extends TextWebSocketHandler {
         this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         
         // Register with TradingBot to receive order flow data
-        this.tradingBot.addDataHandler(this::broadcastOrderFlowData);
+        this.tradingBot.addDataHandler("orderflow-websocket", BackpressurePolicy.CONFLATE_BY_SYMBOL, this::broadcastOrderFlowData);
         
         System.out.println("✅ OrderFlowWebSocketHandler initialized");
     }
     
+    /**
+     * Application shutdown: stop the conflation windows' scheduler thread
+     */
+    @PreDestroy
+    public void shutdown() {
+        conflator.shutdown();
+    }
+    
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        broadcaster.register("orderflow", session);
         sessions.put(session.getId(), session);
         System.out.println("📡 Order Flow WebSocket connected: " + session.getId());
         
@@ -71,7 +90,7 @@ public class OrderFlowWebSocketHandler extends TextWebSocketHandler {
             "supportedTypes", Arrays.asList("TRADE", "AGGREGATE_TRADE", "ORDER_BOOK", "BOOK_TICKER")
         );
         
-        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(welcomeMessage)));
+        broadcaster.send(session, new TextMessage(objectMapper.writeValueAsString(welcomeMessage)));
     }
     
     @Override
@@ -107,6 +126,8 @@ public class OrderFlowWebSocketHandler extends TextWebSocketHandler {
         sessions.remove(session.getId());
         sessionSymbolFilters.remove(session.getId());
         sessionTypeFilters.remove(session.getId());
+        conflator.removeSession(session.getId());
+        broadcaster.unregister(session);
         System.out.println("🔌 Order Flow WebSocket disconnected: " + session.getId());
     }
     
@@ -144,13 +165,25 @@ public class OrderFlowWebSocketHandler extends TextWebSocketHandler {
             )));
         }
         
+        // Optional rate: 50/100/250/500/1000 ms, 0 = every tick
+        if (messageData.containsKey("throttleMs")) {
+            conflator.setSessionWindow(session.getId(), TickConflator.normalizeWindow(messageData.get("throttleMs")));
+        }
+        
+        // Optional wire format for data frames: "json" (default) or "binary"
+        if (messageData.containsKey("encoding")) {
+            broadcaster.setEncoding(session, WebSocketBroadcaster.Encoding.parse(messageData.get("encoding")));
+        }
+        
         Map<String, Object> response = Map.of(
             "type", "subscribed",
             "symbol", symbol != null ? symbol : "ALL",
-            "types", typeStrings != null ? typeStrings : "ALL"
+            "types", typeStrings != null ? typeStrings : "ALL",
+            "throttleMs", conflator.getSessionWindow(session.getId()),
+            "encoding", broadcaster.getEncoding(session).name().toLowerCase()
         );
         
-        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(response)));
+        broadcaster.send(session, new TextMessage(objectMapper.writeValueAsString(response)));
         System.out.println("✅ Session " + session.getId() + " subscribed to " + symbol + " order flow");
     }
     
@@ -172,7 +205,7 @@ public class OrderFlowWebSocketHandler extends TextWebSocketHandler {
             "symbol", symbol != null ? symbol : "ALL"
         );
         
-        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(response)));
+        broadcaster.send(session, new TextMessage(objectMapper.writeValueAsString(response)));
     }
     
     private void handleGetStats(WebSocketSession session) throws IOException {
@@ -194,7 +227,7 @@ public class OrderFlowWebSocketHandler extends TextWebSocketHandler {
             "data", stats
         );
         
-        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(response)));
+        broadcaster.send(session, new TextMessage(objectMapper.writeValueAsString(response)));
     }
     
     private void broadcastOrderFlowData(TradingData data) {
@@ -207,84 +240,108 @@ public class OrderFlowWebSocketHandler extends TextWebSocketHandler {
             // Update statistics
             updateStats(data);
             
-            // Build message
-            Map<String, Object> messageData = new HashMap<>();
-            messageData.put("type", "orderFlow");
-            messageData.put("dataType", data.getType().toString());
-            messageData.put("symbol", data.getSymbol());
-            messageData.put("timestamp", data.getTimestamp());
-            messageData.put("provider", data.getProvider());
-            
-            // Add specific data based on type
-            if (data.hasTradeData()) {
-                TradeData trade = data.getTradeData();
-                messageData.put("trade", Map.of(
-                    "tradeId", trade.getTradeId(),
-                    "price", trade.getPrice(),
-                    "quantity", trade.getQuantity(),
-                    "quoteQuantity", trade.getQuoteQuantity(),
-                    "isBuyerMaker", trade.isBuyerMaker(),
-                    "isAggressiveBuy", trade.isAggressiveBuy(),
-                    "isAggressiveSell", trade.isAggressiveSell(),
-                    "isAggregate", trade.isAggregateTrade(),
-                    "firstTradeId", trade.getFirstTradeId(),
-                    "lastTradeId", trade.getLastTradeId()
-                ));
-            } else if (data.hasOrderBookData()) {
-                OrderBookData orderBook = data.getOrderBookData();
-                
-                // Convert order book levels
-                List<Map<String, Object>> bids = new ArrayList<>();
-                for (OrderBookData.OrderBookLevel level : orderBook.getBids()) {
-                    bids.add(Map.of("price", level.getPrice(), "quantity", level.getQuantity()));
-                }
-                
-                List<Map<String, Object>> asks = new ArrayList<>();
-                for (OrderBookData.OrderBookLevel level : orderBook.getAsks()) {
-                    asks.add(Map.of("price", level.getPrice(), "quantity", level.getQuantity()));
-                }
-                
-                messageData.put("orderBook", Map.of(
-                    "lastUpdateId", orderBook.getLastUpdateId(),
-                    "bids", bids,
-                    "asks", asks,
-                    "bestBid", orderBook.getBestBid(),
-                    "bestAsk", orderBook.getBestAsk(),
-                    "spread", orderBook.getSpread(),
-                    "bidVolume5", orderBook.getTotalBidVolume(5),
-                    "askVolume5", orderBook.getTotalAskVolume(5),
-                    "bidVolume10", orderBook.getTotalBidVolume(10),
-                    "askVolume10", orderBook.getTotalAskVolume(10)
-                ));
-            }
+            // Throttled sessions receive this as part of their window's summary
+            conflator.add(data);
             
-            String jsonData = objectMapper.writeValueAsString(messageData);
-            TextMessage message = new TextMessage(jsonData);
+            // Encoded once per wire format, queued per session; trades are never conflated, book snapshots are
+            OutboundFrame frame = new OutboundFrame(objectMapper, () -> buildMessage(data),
+                                                    () -> BinaryFrameEncoder.encode(data));
+            String conflationKey = MarketDataBus.conflationKey(data);
             
-            // Broadcast to filtered sessions
-            int sentCount = 0;
+            // Broadcast to filtered sessions that receive every update
             for (Map.Entry<String, WebSocketSession> entry : sessions.entrySet()) {
-                WebSocketSession session = entry.getValue();
                 String sessionId = entry.getKey();
+                if (conflator.getSessionWindow(sessionId) == 0 && shouldSendToSession(sessionId, data)) {
+                    broadcaster.send(entry.getValue(), frame, conflationKey);
+                }
+            }
+            
+        } catch (Exception e) {
+            System.err.println("❌ Failed to broadcast order flow data: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Send the merged ticks of one window (trade mini-OHLC/VWAP, latest book) to the sessions that chose it
+     */
+    private void broadcastSummaries(int windowMs, List<TickSummary> summaries) {
+        for (TickSummary summary : summaries) {
+            try {
+                TradingData latest = summary.getLatest();
+                OutboundFrame frame = new OutboundFrame(objectMapper, () -> {
+                    Map<String, Object> messageData = buildMessage(latest);
+                    messageData.put("conflated", summary.toMap(windowMs));
+                    return messageData;
+                }, () -> summary.hasTrades()
+                    ? BinaryFrameEncoder.encodeTradeSummary(summary, windowMs)
+                    : BinaryFrameEncoder.encode(latest));
                 
-                try {
-                    if (session.isOpen() && shouldSendToSession(sessionId, data)) {
-                        session.sendMessage(message);
-                        sentCount++;
+                for (Map.Entry<String, WebSocketSession> entry : sessions.entrySet()) {
+                    String sessionId = entry.getKey();
+                    if (conflator.getSessionWindow(sessionId) == windowMs && shouldSendToSession(sessionId, latest)) {
+                        broadcaster.send(entry.getValue(), frame, summary.getConflationKey());
                     }
-                } catch (IOException e) {
-                    System.err.println("❌ Failed to send order flow to session " + sessionId + ": " + e.getMessage());
                 }
+            } catch (Exception e) {
+                System.err.println("❌ Failed to broadcast conflated order flow: " + e.getMessage());
             }
+        }
+    }
+    
+    private Map<String, Object> buildMessage(TradingData data) {
+        // Build message
+        Map<String, Object> messageData = new HashMap<>();
+        messageData.put("type", "orderFlow");
+        messageData.put("dataType", data.getType().toString());
+        messageData.put("symbol", data.getSymbol());
+        messageData.put("timestamp", data.getTimestamp());
+        messageData.put("provider", data.getProvider());
+        
+        // Add specific data based on type
+        if (data.hasTradeData()) {
+            TradeData trade = data.getTradeData();
+            messageData.put("trade", Map.of(
+                "tradeId", trade.getTradeId(),
+                "price", trade.getPrice(),
+                "quantity", trade.getQuantity(),
+                "quoteQuantity", trade.getQuoteQuantity(),
+                "isBuyerMaker", trade.isBuyerMaker(),
+                "isAggressiveBuy", trade.isAggressiveBuy(),
+                "isAggressiveSell", trade.isAggressiveSell(),
+                "isAggregate", trade.isAggregateTrade(),
+                "firstTradeId", trade.getFirstTradeId(),
+                "lastTradeId", trade.getLastTradeId()
+            ));
+        } else if (data.hasOrderBookData()) {
+            OrderBookData orderBook = data.getOrderBookData();
             
-            if (sentCount > 0) {
-//                System.out.println("📤 Broadcast order flow (" + data.getType() + ") to " + sentCount + " sessions");
+            // Convert order book levels
+            List<Map<String, Object>> bids = new ArrayList<>();
+            for (OrderBookData.OrderBookLevel level : orderBook.getBids()) {
+                bids.add(Map.of("price", level.getPrice(), "quantity", level.getQuantity()));
             }
             
-        } catch (Exception e) {
-            System.err.println("❌ Failed to broadcast order flow data: " + e.getMessage());
-            e.printStackTrace();
+            List<Map<String, Object>> asks = new ArrayList<>();
+            for (OrderBookData.OrderBookLevel level : orderBook.getAsks()) {
+                asks.add(Map.of("price", level.getPrice(), "quantity", level.getQuantity()));
+            }
+            
+            messageData.put("orderBook", Map.of(
+                "lastUpdateId", orderBook.getLastUpdateId(),
+                "bids", bids,
+                "asks", asks,
+                "bestBid", orderBook.getBestBid(),
+                "bestAsk", orderBook.getBestAsk(),
+                "spread", orderBook.getSpread(),
+                "bidVolume5", orderBook.getTotalBidVolume(5),
+                "askVolume5", orderBook.getTotalAskVolume(5),
+                "bidVolume10", orderBook.getTotalBidVolume(10),
+                "askVolume10", orderBook.getTotalAskVolume(10)
+            ));
         }
+        
+        return messageData;
     }
     
     private boolean shouldSendToSession(String sessionId, TradingData data) {
@@ -337,7 +394,7 @@ public class OrderFlowWebSocketHandler extends TextWebSocketHandler {
             "type", "error",
             "message", error
         );
-        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(errorMessage)));
+        broadcaster.send(session, new TextMessage(objectMapper.writeValueAsString(errorMessage)));
     }
     
     private static class OrderFlowStats {
@@ -0,0 +1,51 @@
+package org.cloudvision.trading.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.util.function.Supplier;
+
+/**
+ * One broadcast payload with lazily built JSON and binary encodings.
+ *
+ * A handler creates one frame per event and passes it to every target session; only the
+ * encodings some session actually asked for are built, each exactly once. Not thread-safe:
+ * use it from the broadcasting thread only.
+ */
+public class OutboundFrame {
+    private final ObjectMapper objectMapper;
+    private final Supplier<Object> jsonPayload;
+    private final Supplier<BinaryMessage> binaryEncoder;
+
+    private TextMessage text;
+    private BinaryMessage binary;
+    private boolean binaryEncoded;
+
+    /**
+     * @param binaryEncoder may return null when this payload has no binary layout
+     */
+    public OutboundFrame(ObjectMapper objectMapper, Supplier<Object> jsonPayload, Supplier<BinaryMessage> binaryEncoder) {
+        this.objectMapper = objectMapper;
+        this.jsonPayload = jsonPayload;
+        this.binaryEncoder = binaryEncoder;
+    }
+
+    public WebSocketMessage<?> encode(WebSocketBroadcaster.Encoding encoding) throws JsonProcessingException {
+        if (encoding == WebSocketBroadcaster.Encoding.BINARY) {
+            if (!binaryEncoded) {
+                binary = binaryEncoder != null ? binaryEncoder.get() : null;
+                binaryEncoded = true;
+            }
+            if (binary != null) {
+                return binary;
+            }
+        }
+        if (text == null) {
+            text = new TextMessage(objectMapper.writeValueAsBytes(jsonPayload.get()));
+        }
+        return text;
+    }
+}
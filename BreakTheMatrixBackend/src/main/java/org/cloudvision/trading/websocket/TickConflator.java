@@ -0,0 +1,187 @@
+package org.cloudvision.trading.websocket;
+
+import org.cloudvision.trading.model.TradingData;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Rate limiter for chart clients: merges ticks per symbol/type over a window and emits
+ * one {@link TickSummary} per key when the window ends.
+ *
+ * Each session picks its own window (0 = every tick). A window is only active while at
+ * least one session uses it, and every active window keeps its own pending summaries.
+ */
+public class TickConflator {
+
+    /** Windows a client can ask for; other values are rounded up to the next one */
+    public static final int[] SUPPORTED_WINDOWS_MS = {50, 100, 250, 500, 1000};
+
+    private final String name;
+    private final BiConsumer<Integer, List<TickSummary>> flushHandler;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, Integer> sessionWindows = new ConcurrentHashMap<>();
+    private final Map<Integer, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * @param flushHandler receives (windowMs, summaries) on the conflator thread when a window ends
+     */
+    public TickConflator(String name, BiConsumer<Integer, List<TickSummary>> flushHandler) {
+        this.name = name;
+        this.flushHandler = flushHandler;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tick-conflator-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Map a requested rate (ms, may be null) to a supported window; 0 means unthrottled
+     */
+    public static int normalizeWindow(Object requested) {
+        if (!(requested instanceof Number)) {
+            return 0;
+        }
+        int millis = ((Number) requested).intValue();
+        if (millis <= 0) {
+            return 0;
+        }
+        for (int window : SUPPORTED_WINDOWS_MS) {
+            if (millis <= window) {
+                return window;
+            }
+        }
+        return SUPPORTED_WINDOWS_MS[SUPPORTED_WINDOWS_MS.length - 1];
+    }
+
+    /**
+     * Conflation key of an event: one pending summary per provider/symbol/type (and interval for klines)
+     */
+    public static String keyOf(TradingData data) {
+        String key = data.getProvider() + "|" + data.getSymbol() + "|" + data.getType();
+        if (data.hasCandlestickData()) {
+            key += "|" + data.getCandlestickData().getInterval();
+        }
+        return key;
+    }
+
+    public synchronized void setSessionWindow(String sessionId, int windowMs) {
+        Integer previous = windowMs > 0 ? sessionWindows.put(sessionId, windowMs) : sessionWindows.remove(sessionId);
+        if (previous != null && previous != windowMs) {
+            releaseWindow(previous);
+        }
+        if (windowMs > 0 && (previous == null || previous != windowMs)) {
+            windows.computeIfAbsent(windowMs, this::startWindow).sessions++;
+        }
+    }
+
+    public synchronized void removeSession(String sessionId) {
+        Integer previous = sessionWindows.remove(sessionId);
+        if (previous != null) {
+            releaseWindow(previous);
+        }
+    }
+
+    /**
+     * Window of a session, 0 if it receives every tick
+     */
+    public int getSessionWindow(String sessionId) {
+        return sessionWindows.getOrDefault(sessionId, 0);
+    }
+
+    public boolean hasThrottledSessions() {
+        return !windows.isEmpty();
+    }
+
+    /**
+     * Merge an event into every active window
+     */
+    public void add(TradingData data) {
+        if (windows.isEmpty()) {
+            return;
+        }
+        String key = keyOf(data);
+        for (Window window : windows.values()) {
+            window.merge(key, data);
+        }
+    }
+
+    /**
+     * Drop pending summaries for a key, e.g. when a closed candle supersedes its forming updates
+     */
+    public void discard(TradingData data) {
+        String key = keyOf(data);
+        for (Window window : windows.values()) {
+            window.discard(key);
+        }
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private Window startWindow(int windowMs) {
+        Window window = new Window(windowMs);
+        window.future = scheduler.scheduleAtFixedRate(() -> flush(window), windowMs, windowMs, TimeUnit.MILLISECONDS);
+        System.out.println("⏱️ Tick conflation window " + windowMs + "ms started for " + name);
+        return window;
+    }
+
+    private void releaseWindow(int windowMs) {
+        Window window = windows.get(windowMs);
+        if (window != null && --window.sessions <= 0) {
+            windows.remove(windowMs);
+            window.future.cancel(false);
+            System.out.println("⏱️ Tick conflation window " + windowMs + "ms stopped for " + name);
+        }
+    }
+
+    private void flush(Window window) {
+        List<TickSummary> summaries = window.drain();
+        if (summaries.isEmpty()) {
+            return;
+        }
+        try {
+            flushHandler.accept(window.windowMs, summaries);
+        } catch (Exception e) {
+            System.err.println("❌ Error flushing " + window.windowMs + "ms window for " + name + ": " + e.getMessage());
+        }
+    }
+
+    private static class Window {
+        final int windowMs;
+        int sessions; // guarded by the conflator
+        ScheduledFuture<?> future;
+        private Map<String, TickSummary> pending = new LinkedHashMap<>();
+
+        Window(int windowMs) {
+            this.windowMs = windowMs;
+        }
+
+        synchronized void merge(String key, TradingData data) {
+            pending.computeIfAbsent(key, TickSummary::new).merge(data);
+        }
+
+        synchronized void discard(String key) {
+            pending.remove(key);
+        }
+
+        synchronized List<TickSummary> drain() {
+            if (pending.isEmpty()) {
+                return List.of();
+            }
+            List<TickSummary> drained = new ArrayList<>(pending.values());
+            pending = new LinkedHashMap<>();
+            return drained;
+        }
+    }
+}
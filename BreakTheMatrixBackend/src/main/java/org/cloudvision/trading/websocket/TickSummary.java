@@ -0,0 +1,141 @@
+package org.cloudvision.trading.websocket;
+
+import org.cloudvision.trading.model.TradeData;
+import org.cloudvision.trading.model.TradingData;
+import org.cloudvision.trading.model.TradingDataType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Everything one symbol/type produced during a conflation window: the latest event
+ * (book snapshot, ticker, forming candle) and, for trades, a mini-OHLC with volume and VWAP.
+ */
+public class TickSummary {
+    private final String key;
+    private TradingData latest;
+    private int updates;
+
+    // Trade aggregation (only when the window saw trades)
+    private int tradeCount;
+    private BigDecimal open;
+    private BigDecimal high;
+    private BigDecimal low;
+    private BigDecimal close;
+    private BigDecimal volume = BigDecimal.ZERO;
+    private BigDecimal buyVolume = BigDecimal.ZERO;
+    private BigDecimal sellVolume = BigDecimal.ZERO;
+    private BigDecimal quoteVolume = BigDecimal.ZERO;
+    private long firstTradeId = -1;
+    private long lastTradeId = -1;
+    private Instant startTime;
+    private Instant endTime;
+
+    TickSummary(String key) {
+        this.key = key;
+    }
+
+    void merge(TradingData data) {
+        latest = data;
+        updates++;
+        if (data.hasTradeData()) {
+            mergeTrade(data.getTradeData());
+        }
+    }
+
+    private void mergeTrade(TradeData trade) {
+        BigDecimal price = trade.getPrice();
+        BigDecimal quantity = trade.getQuantity();
+        if (price == null || quantity == null) {
+            return;
+        }
+        if (tradeCount == 0) {
+            open = price;
+            high = price;
+            low = price;
+            firstTradeId = trade.isAggregateTrade() ? trade.getFirstTradeId() : trade.getTradeId();
+            startTime = trade.getTimestamp();
+        } else {
+            if (price.compareTo(high) > 0) high = price;
+            if (price.compareTo(low) < 0) low = price;
+        }
+        close = price;
+        lastTradeId = trade.isAggregateTrade() ? trade.getLastTradeId() : trade.getTradeId();
+        endTime = trade.getTimestamp();
+        tradeCount++;
+
+        volume = volume.add(quantity);
+        if (trade.isAggressiveBuy()) {
+            buyVolume = buyVolume.add(quantity);
+        } else {
+            sellVolume = sellVolume.add(quantity);
+        }
+        quoteVolume = quoteVolume.add(trade.getQuoteQuantity() != null
+            ? trade.getQuoteQuantity() : price.multiply(quantity));
+    }
+
+    public String getKey() { return key; }
+
+    /**
+     * Outbox key for {@code CONFLATE_BY_KEY}: snapshots (book, ticker, forming candle) may replace each other,
+     * but a summary with trades is a delta that the next window does not repeat, so it is never conflated
+     */
+    public String getConflationKey() {
+        return hasTrades() ? null : key;
+    }
+    public TradingData getLatest() { return latest; }
+    public String getSymbol() { return latest.getSymbol(); }
+    public TradingDataType getType() { return latest.getType(); }
+    public int getUpdates() { return updates; }
+    public int getTradeCount() { return tradeCount; }
+    public boolean hasTrades() { return tradeCount > 0; }
+    public BigDecimal getOpen() { return open; }
+    public BigDecimal getHigh() { return high; }
+    public BigDecimal getLow() { return low; }
+    public BigDecimal getClose() { return close; }
+    public BigDecimal getVolume() { return volume; }
+    public BigDecimal getBuyVolume() { return buyVolume; }
+    public BigDecimal getSellVolume() { return sellVolume; }
+    public BigDecimal getQuoteVolume() { return quoteVolume; }
+    public Instant getStartTime() { return startTime; }
+    public Instant getEndTime() { return endTime; }
+    public long getFirstTradeId() { return firstTradeId; }
+    public long getLastTradeId() { return lastTradeId; }
+
+    public BigDecimal getVwap() {
+        if (volume.signum() == 0) {
+            return close;
+        }
+        return quoteVolume.divide(volume, 8, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Summary fields added to the outgoing message
+     */
+    public Map<String, Object> toMap(int windowMs) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("windowMs", windowMs);
+        map.put("updates", updates);
+        if (hasTrades()) {
+            map.put("trades", tradeCount);
+            map.put("open", open);
+            map.put("high", high);
+            map.put("low", low);
+            map.put("close", close);
+            map.put("vwap", getVwap());
+            map.put("volume", volume);
+            map.put("buyVolume", buyVolume);
+            map.put("sellVolume", sellVolume);
+            map.put("delta", buyVolume.subtract(sellVolume));
+            map.put("quoteVolume", quoteVolume);
+            map.put("firstTradeId", firstTradeId);
+            map.put("lastTradeId", lastTradeId);
+            map.put("startTime", startTime);
+            map.put("endTime", endTime);
+        }
+        return map;
+    }
+}
@@ -3,7 +3,10 @@ package org.cloudvision.trading.websocket;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PreDestroy;
 import org.cloudvision.trading.bot.TradingBot;
+import org.cloudvision.trading.service.MarketDataBus;
+import org.cloudvision.trading.service.MarketDataBus.BackpressurePolicy;
 import org.cloudvision.trading.model.TradingData;
 import org.cloudvision.trading.model.TimeInterval;
 import org.cloudvision.trading.service.UniversalTradingDataService;
@@ -22,12 +25,18 @@ public class TradingWebSocketHandler extends TextWebSocketHandler {
     
     private final UniversalTradingDataService tradingService;
     private final TradingBot tradingBot;
+    private final WebSocketBroadcaster broadcaster;
     private final ObjectMapper objectMapper;
     private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    
+    // Sessions that asked for a rate ("throttleMs") get merged ticks instead of every update
+    private final TickConflator conflator = new TickConflator("trading", this::broadcastSummaries);
 
-    public TradingWebSocketHandler(UniversalTradingDataService tradingService, TradingBot tradingBot) {
+    public TradingWebSocketHandler(UniversalTradingDataService tradingService, TradingBot tradingBot,
+                                   WebSocketBroadcaster broadcaster) {
         this.tradingService = tradingService;
         this.tradingBot = tradingBot;
+        this.broadcaster = broadcaster;
         
         // Configure ObjectMapper for Java 8 time support
         this.objectMapper = new ObjectMapper();
@@ -36,17 +45,26 @@ public class TradingWebSocketHandler extends TextWebSocketHandler {
         
         // Register with TradingBot to receive forwarded data
         System.out.println("🔧 Registering WebSocket handler with TradingBot");
-        this.tradingBot.addDataHandler(this::broadcastTradingData);
+        this.tradingBot.addDataHandler("trading-websocket", BackpressurePolicy.CONFLATE_BY_SYMBOL, this::broadcastTradingData);
         System.out.println("✅ WebSocket handler registered with TradingBot successfully");
     }
+    
+    /**
+     * Application shutdown: stop the conflation windows' scheduler thread
+     */
+    @PreDestroy
+    public void shutdown() {
+        conflator.shutdown();
+    }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        broadcaster.register("trading", session);
         sessions.put(session.getId(), session);
         System.out.println("Trading WebSocket connected: " + session.getId());
         
         // Send welcome message
-        session.sendMessage(new TextMessage("{\"type\":\"connected\",\"message\":\"Trading data stream connected\"}"));
+        broadcaster.send(session, new TextMessage("{\"type\":\"connected\",\"message\":\"Trading data stream connected\"}"));
     }
 
     @Override
@@ -64,14 +82,22 @@ public class TradingWebSocketHandler extends TextWebSocketHandler {
                 case "subscribe":
                     String provider = (String) messageData.get("provider");
                     String symbol = (String) messageData.get("symbol");
+                    applyStreamOptions(session, messageData);
                     handleSubscribe(session, provider, symbol);
                     break;
                 case "subscribeKlines":
                     String klineProvider = (String) messageData.get("provider");
                     String klineSymbol = (String) messageData.get("symbol");
                     String interval = (String) messageData.get("interval");
+                    applyStreamOptions(session, messageData);
                     handleSubscribeKlines(session, klineProvider, klineSymbol, interval);
                     break;
+                case "setRate":
+                    applyStreamOptions(session, messageData);
+                    broadcaster.send(session, new TextMessage("{\"type\":\"rate\",\"throttleMs\":" +
+                                                              conflator.getSessionWindow(session.getId()) +
+                                                              ",\"encoding\":\"" + broadcaster.getEncoding(session) + "\"}"));
+                    break;
                 case "getProviders":
                     handleGetProviders(session);
                     break;
@@ -80,19 +106,34 @@ public class TradingWebSocketHandler extends TextWebSocketHandler {
                     handleGetIntervals(session, intervalProvider);
                     break;
                 default:
-                    session.sendMessage(new TextMessage("{\"type\":\"error\",\"message\":\"Unknown action: " + action + "\"}"));
+                    broadcaster.send(session, new TextMessage("{\"type\":\"error\",\"message\":\"Unknown action: " + action + "\"}"));
             }
         } catch (Exception e) {
-            session.sendMessage(new TextMessage("{\"type\":\"error\",\"message\":\"Invalid message format\"}"));
+            broadcaster.send(session, new TextMessage("{\"type\":\"error\",\"message\":\"Invalid message format\"}"));
         }
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
         sessions.remove(session.getId());
+        conflator.removeSession(session.getId());
+        broadcaster.unregister(session);
         System.out.println("Trading WebSocket disconnected: " + session.getId());
     }
 
+    /**
+     * Optional "throttleMs" (50/100/250/500/1000, 0 = every tick) selects this session's update rate,
+     * optional "encoding" ("json" or "binary", see {@link BinaryFrameEncoder}) its wire format
+     */
+    private void applyStreamOptions(WebSocketSession session, Map<String, Object> messageData) {
+        if (messageData.containsKey("throttleMs")) {
+            conflator.setSessionWindow(session.getId(), TickConflator.normalizeWindow(messageData.get("throttleMs")));
+        }
+        if (messageData.containsKey("encoding")) {
+            broadcaster.setEncoding(session, WebSocketBroadcaster.Encoding.parse(messageData.get("encoding")));
+        }
+    }
+
     private void handleSubscribe(WebSocketSession session, String provider, String symbol) throws IOException {
         try {
             tradingService.connectProvider(provider);
@@ -102,13 +143,13 @@ public class TradingWebSocketHandler extends TextWebSocketHandler {
                 "{\"type\":\"subscribed\",\"provider\":\"%s\",\"symbol\":\"%s\"}", 
                 provider, symbol
             );
-            session.sendMessage(new TextMessage(response));
+            broadcaster.send(session, new TextMessage(response));
         } catch (Exception e) {
             String errorResponse = String.format(
                 "{\"type\":\"error\",\"message\":\"Failed to subscribe to %s on %s: %s\"}", 
                 symbol, provider, e.getMessage()
             );
-            session.sendMessage(new TextMessage(errorResponse));
+            broadcaster.send(session, new TextMessage(errorResponse));
         }
     }
 
@@ -128,7 +169,7 @@ public class TradingWebSocketHandler extends TextWebSocketHandler {
                     "{\"type\":\"error\",\"message\":\"Provider %s is not available or failed to connect\"}", 
                     provider
                 );
-                session.sendMessage(new TextMessage(errorResponse));
+                broadcaster.send(session, new TextMessage(errorResponse));
                 return;
             }
             
@@ -139,7 +180,7 @@ public class TradingWebSocketHandler extends TextWebSocketHandler {
                 "{\"type\":\"subscribedKlines\",\"provider\":\"%s\",\"symbol\":\"%s\",\"interval\":\"%s\"}", 
                 provider, symbol, interval
             );
-            session.sendMessage(new TextMessage(response));
+            broadcaster.send(session, new TextMessage(response));
             
             System.out.println("✅ Klines subscription processed successfully");
             
@@ -151,7 +192,7 @@ public class TradingWebSocketHandler extends TextWebSocketHandler {
                 "{\"type\":\"error\",\"message\":\"Failed to subscribe to %s klines (%s) on %s: %s\"}", 
                 symbol, interval, provider, e.getMessage()
             );
-            session.sendMessage(new TextMessage(errorResponse));
+            broadcaster.send(session, new TextMessage(errorResponse));
         }
     }
 
@@ -159,9 +200,9 @@ public class TradingWebSocketHandler extends TextWebSocketHandler {
         try {
             String providers = objectMapper.writeValueAsString(tradingService.getProviders());
             String response = String.format("{\"type\":\"providers\",\"data\":%s}", providers);
-            session.sendMessage(new TextMessage(response));
+            broadcaster.send(session, new TextMessage(response));
         } catch (Exception e) {
-            session.sendMessage(new TextMessage("{\"type\":\"error\",\"message\":\"Failed to get providers\"}"));
+            broadcaster.send(session, new TextMessage("{\"type\":\"error\",\"message\":\"Failed to get providers\"}"));
         }
     }
 
@@ -173,135 +214,161 @@ public class TradingWebSocketHandler extends TextWebSocketHandler {
                     .toList()
             );
             String response = String.format("{\"type\":\"intervals\",\"provider\":\"%s\",\"data\":%s}", provider, intervals);
-            session.sendMessage(new TextMessage(response));
+            broadcaster.send(session, new TextMessage(response));
         } catch (Exception e) {
-            session.sendMessage(new TextMessage("{\"type\":\"error\",\"message\":\"Failed to get intervals\"}"));
+            broadcaster.send(session, new TextMessage("{\"type\":\"error\",\"message\":\"Failed to get intervals\"}"));
         }
     }
 
     private void broadcastTradingData(TradingData data) {
-//        System.out.println("🚀 broadcastTradingData() method called with: " + data.getSymbol());
         try {
-//            System.out.println("📡 Broadcasting data to " + sessions.size() + " WebSocket sessions: " + data.getSymbol());
+            // Closed candles are never delayed; they replace any pending forming update of the same candle
+            boolean closedCandle = data.hasCandlestickData() && data.getCandlestickData().isClosed();
+            if (closedCandle) {
+                conflator.discard(data);
+            } else {
+                conflator.add(data);
+            }
             
-            Map<String, Object> messageData = Map.of(
-                "type", "candleUpdate", // Frontend expects "candleUpdate" for real-time candle updates
-                "symbol", data.getSymbol(),
-                "timestamp", data.getTimestamp(),
-                "provider", data.getProvider(),
-                "dataType", data.getType().toString()
-            );
-
-            // Add candlestick data if available
-            if (data.hasCandlestickData()) {
-                var candlestick = data.getCandlestickData();
-                messageData = new java.util.HashMap<>(messageData);
-                
-                Map<String, Object> candlestickMap = new java.util.HashMap<>();
-                // Convert BigDecimal to double for proper charting display
-                candlestickMap.put("open", candlestick.getOpen().doubleValue());
-                candlestickMap.put("high", candlestick.getHigh().doubleValue());
-                candlestickMap.put("low", candlestick.getLow().doubleValue());
-                candlestickMap.put("close", candlestick.getClose().doubleValue());
-                candlestickMap.put("volume", candlestick.getVolume().doubleValue());
-                candlestickMap.put("quoteAssetVolume", candlestick.getQuoteAssetVolume().doubleValue());
-                candlestickMap.put("numberOfTrades", candlestick.getNumberOfTrades());
-                candlestickMap.put("interval", candlestick.getInterval());
-                // Timestamps - provide both formats for compatibility
-                candlestickMap.put("openTime", candlestick.getOpenTime().toString());
-                candlestickMap.put("closeTime", candlestick.getCloseTime().toString());
-                candlestickMap.put("time", candlestick.getOpenTime().getEpochSecond()); // Unix seconds (TradingView)
-                candlestickMap.put("timestamp", candlestick.getOpenTime().getEpochSecond()); // Unix seconds (alias)
-                candlestickMap.put("timeMs", candlestick.getOpenTime().toEpochMilli()); // Unix milliseconds (Chart.js)
-                candlestickMap.put("isClosed", candlestick.isClosed());
-                
-                // Frontend expects "candle" key, not "candlestick"
-                messageData.put("candle", candlestickMap);
-            } 
-            // Add trade data if available (order flow)
-            else if (data.hasTradeData()) {
-                messageData = new java.util.HashMap<>(messageData);
-                var trade = data.getTradeData();
-                
-                Map<String, Object> tradeMap = new java.util.HashMap<>();
-                tradeMap.put("tradeId", trade.getTradeId());
-                tradeMap.put("price", trade.getPrice());
-                tradeMap.put("quantity", trade.getQuantity());
-                tradeMap.put("quoteQuantity", trade.getQuoteQuantity());
-                tradeMap.put("isBuyerMaker", trade.isBuyerMaker());
-                tradeMap.put("isAggressiveBuy", trade.isAggressiveBuy());
-                tradeMap.put("isAggressiveSell", trade.isAggressiveSell());
-                tradeMap.put("isAggregate", trade.isAggregateTrade());
-                tradeMap.put("timestamp", trade.getTimestamp());
-                
-                if (trade.isAggregateTrade()) {
-                    tradeMap.put("firstTradeId", trade.getFirstTradeId());
-                    tradeMap.put("lastTradeId", trade.getLastTradeId());
+            // Encoded once per wire format, queued per session; a slow client only backs up its own queue
+            OutboundFrame frame = new OutboundFrame(objectMapper, () -> buildMessage(data),
+                                                    () -> BinaryFrameEncoder.encode(data));
+            String conflationKey = MarketDataBus.conflationKey(data);
+            
+            // Broadcast to sessions that receive every update
+            for (WebSocketSession session : sessions.values()) {
+                if (closedCandle || conflator.getSessionWindow(session.getId()) == 0) {
+                    broadcaster.send(session, frame, conflationKey);
                 }
-                
-                messageData.put("trade", tradeMap);
             }
-            // Add order book data if available (order flow)
-            else if (data.hasOrderBookData()) {
-                messageData = new java.util.HashMap<>(messageData);
-                var orderBook = data.getOrderBookData();
-                
-                Map<String, Object> orderBookMap = new java.util.HashMap<>();
-                orderBookMap.put("lastUpdateId", orderBook.getLastUpdateId());
-                orderBookMap.put("bestBid", orderBook.getBestBid());
-                orderBookMap.put("bestAsk", orderBook.getBestAsk());
-                orderBookMap.put("spread", orderBook.getSpread());
-                
-                // Convert bid levels
-                java.util.List<Map<String, Object>> bids = new java.util.ArrayList<>();
-                for (var level : orderBook.getBids()) {
-                    bids.add(Map.of("price", level.getPrice(), "quantity", level.getQuantity()));
-                }
-                orderBookMap.put("bids", bids);
+        } catch (Exception e) {
+            System.err.println("Failed to broadcast trading data: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Send the merged ticks of one window to the sessions that chose it
+     */
+    private void broadcastSummaries(int windowMs, java.util.List<TickSummary> summaries) {
+        for (TickSummary summary : summaries) {
+            try {
+                OutboundFrame frame = new OutboundFrame(objectMapper, () -> {
+                    Map<String, Object> messageData = buildMessage(summary.getLatest());
+                    messageData.put("conflated", summary.toMap(windowMs));
+                    return messageData;
+                }, () -> summary.hasTrades()
+                    ? BinaryFrameEncoder.encodeTradeSummary(summary, windowMs)
+                    : BinaryFrameEncoder.encode(summary.getLatest()));
                 
-                // Convert ask levels
-                java.util.List<Map<String, Object>> asks = new java.util.ArrayList<>();
-                for (var level : orderBook.getAsks()) {
-                    asks.add(Map.of("price", level.getPrice(), "quantity", level.getQuantity()));
+                for (WebSocketSession session : sessions.values()) {
+                    if (conflator.getSessionWindow(session.getId()) == windowMs) {
+                        broadcaster.send(session, frame, summary.getConflationKey());
+                    }
                 }
-                orderBookMap.put("asks", asks);
-                
-                // Add volume aggregates
-                orderBookMap.put("bidVolume5", orderBook.getTotalBidVolume(5));
-                orderBookMap.put("askVolume5", orderBook.getTotalAskVolume(5));
-                orderBookMap.put("bidVolume10", orderBook.getTotalBidVolume(10));
-                orderBookMap.put("askVolume10", orderBook.getTotalAskVolume(10));
-                
-                messageData.put("orderBook", orderBookMap);
-            } 
-            else {
-                // Add simple price/volume data
-                messageData = new java.util.HashMap<>(messageData);
-                messageData.put("price", data.getPrice());
-                messageData.put("volume", data.getVolume());
+            } catch (Exception e) {
+                System.err.println("Failed to broadcast conflated trading data: " + e.getMessage());
             }
+        }
+    }
 
-            String jsonData = objectMapper.writeValueAsString(messageData);
+    private Map<String, Object> buildMessage(TradingData data) {
+        Map<String, Object> messageData = Map.of(
+            "type", "candleUpdate", // Frontend expects "candleUpdate" for real-time candle updates
+            "symbol", data.getSymbol(),
+            "timestamp", data.getTimestamp(),
+            "provider", data.getProvider(),
+            "dataType", data.getType().toString()
+        );
+
+        // Add candlestick data if available
+        if (data.hasCandlestickData()) {
+            var candlestick = data.getCandlestickData();
+            messageData = new java.util.HashMap<>(messageData);
             
-            TextMessage message = new TextMessage(jsonData);
+            Map<String, Object> candlestickMap = new java.util.HashMap<>();
+            // Convert BigDecimal to double for proper charting display
+            candlestickMap.put("open", candlestick.getOpen().doubleValue());
+            candlestickMap.put("high", candlestick.getHigh().doubleValue());
+            candlestickMap.put("low", candlestick.getLow().doubleValue());
+            candlestickMap.put("close", candlestick.getClose().doubleValue());
+            candlestickMap.put("volume", candlestick.getVolume().doubleValue());
+            candlestickMap.put("quoteAssetVolume", candlestick.getQuoteAssetVolume().doubleValue());
+            candlestickMap.put("numberOfTrades", candlestick.getNumberOfTrades());
+            candlestickMap.put("interval", candlestick.getInterval());
+            // Timestamps - provide both formats for compatibility
+            candlestickMap.put("openTime", candlestick.getOpenTime().toString());
+            candlestickMap.put("closeTime", candlestick.getCloseTime().toString());
+            candlestickMap.put("time", candlestick.getOpenTime().getEpochSecond()); // Unix seconds (TradingView)
+            candlestickMap.put("timestamp", candlestick.getOpenTime().getEpochSecond()); // Unix seconds (alias)
+            candlestickMap.put("timeMs", candlestick.getOpenTime().toEpochMilli()); // Unix milliseconds (Chart.js)
+            candlestickMap.put("isClosed", candlestick.isClosed());
             
-            // Broadcast to all connected sessions
-            int sentCount = 0;
-            for (WebSocketSession session : sessions.values()) {
-                try {
-                    if (session.isOpen()) {
-                        session.sendMessage(message);
-                        sentCount++;
-                    } else {
-                        System.out.println("⚠️ Session " + session.getId() + " is closed, skipping");
-                    }
-                } catch (IOException e) {
-                    System.err.println("Failed to send message to session " + session.getId() + ": " + e.getMessage());
-                }
+            // Frontend expects "candle" key, not "candlestick"
+            messageData.put("candle", candlestickMap);
+        } 
+        // Add trade data if available (order flow)
+        else if (data.hasTradeData()) {
+            messageData = new java.util.HashMap<>(messageData);
+            var trade = data.getTradeData();
+            
+            Map<String, Object> tradeMap = new java.util.HashMap<>();
+            tradeMap.put("tradeId", trade.getTradeId());
+            tradeMap.put("price", trade.getPrice());
+            tradeMap.put("quantity", trade.getQuantity());
+            tradeMap.put("quoteQuantity", trade.getQuoteQuantity());
+            tradeMap.put("isBuyerMaker", trade.isBuyerMaker());
+            tradeMap.put("isAggressiveBuy", trade.isAggressiveBuy());
+            tradeMap.put("isAggressiveSell", trade.isAggressiveSell());
+            tradeMap.put("isAggregate", trade.isAggregateTrade());
+            tradeMap.put("timestamp", trade.getTimestamp());
+            
+            if (trade.isAggregateTrade()) {
+                tradeMap.put("firstTradeId", trade.getFirstTradeId());
+                tradeMap.put("lastTradeId", trade.getLastTradeId());
             }
-//            System.out.println("✅ Successfully broadcast to " + sentCount + " sessions");
-        } catch (Exception e) {
-            System.err.println("Failed to broadcast trading data: " + e.getMessage());
+            
+            messageData.put("trade", tradeMap);
+        }
+        // Add order book data if available (order flow)
+        else if (data.hasOrderBookData()) {
+            messageData = new java.util.HashMap<>(messageData);
+            var orderBook = data.getOrderBookData();
+            
+            Map<String, Object> orderBookMap = new java.util.HashMap<>();
+            orderBookMap.put("lastUpdateId", orderBook.getLastUpdateId());
+            orderBookMap.put("bestBid", orderBook.getBestBid());
+            orderBookMap.put("bestAsk", orderBook.getBestAsk());
+            orderBookMap.put("spread", orderBook.getSpread());
+            
+            // Convert bid levels
+            java.util.List<Map<String, Object>> bids = new java.util.ArrayList<>();
+            for (var level : orderBook.getBids()) {
+                bids.add(Map.of("price", level.getPrice(), "quantity", level.getQuantity()));
+            }
+            orderBookMap.put("bids", bids);
+            
+            // Convert ask levels
+            java.util.List<Map<String, Object>> asks = new java.util.ArrayList<>();
+            for (var level : orderBook.getAsks()) {
+                asks.add(Map.of("price", level.getPrice(), "quantity", level.getQuantity()));
+            }
+            orderBookMap.put("asks", asks);
+            
+            // Add volume aggregates
+            orderBookMap.put("bidVolume5", orderBook.getTotalBidVolume(5));
+            orderBookMap.put("askVolume5", orderBook.getTotalAskVolume(5));
+            orderBookMap.put("bidVolume10", orderBook.getTotalBidVolume(10));
+            orderBookMap.put("askVolume10", orderBook.getTotalAskVolume(10));
+            
+            messageData.put("orderBook", orderBookMap);
+        } 
+        else {
+            // Add simple price/volume data
+            messageData = new java.util.HashMap<>(messageData);
+            messageData.put("price", data.getPrice());
+            messageData.put("volume", data.getVolume());
         }
+
+        return messageData;
     }
-}
+}
\ No newline at end of file
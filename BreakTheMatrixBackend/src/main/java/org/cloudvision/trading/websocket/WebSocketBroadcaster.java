@@ -0,0 +1,381 @@
+package org.cloudvision.trading.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Non-blocking outbound path shared by the WebSocket handlers.
+ *
+ * Handlers encode a payload once ({@link OutboundFrame}) and hand the same message to
+ * every target session. Each session has a bounded queue that is drained by a small pool
+ * of sender threads, so a slow browser only backs up its own queue and never the
+ * market-data thread that broadcasts. What happens when a queue is full is chosen with
+ * {@link OverflowPolicy}.
+ */
+@Service
+public class WebSocketBroadcaster {
+
+    public enum OverflowPolicy {
+        /** Full queue: discard the oldest pending message */
+        DROP_OLDEST,
+        /**
+         * Replace a pending message with a newer one for the same key; messages without a
+         * key are never replaced. Full queue: drop oldest.
+         */
+        CONFLATE_BY_KEY,
+        /** Full queue: close the session; the client is expected to reconnect and resync */
+        DISCONNECT
+    }
+
+    /** Wire format of a session's data frames; control messages (replies, errors) are always JSON */
+    public enum Encoding {
+        JSON,
+        /** {@link BinaryFrameEncoder} layouts where one exists, JSON otherwise */
+        BINARY;
+
+        /**
+         * Parse the "encoding" field of a subscribe message; anything unknown is JSON
+         */
+        public static Encoding parse(Object requested) {
+            return requested != null && "binary".equalsIgnoreCase(requested.toString()) ? BINARY : JSON;
+        }
+    }
+
+    /** Messages a sender writes to one session before giving other sessions a turn */
+    private static final int MAX_BATCH = 64;
+
+    private final int queueCapacity;
+    private final int sendTimeLimitMillis;
+    private final int bufferSizeLimit;
+    private final OverflowPolicy defaultPolicy;
+    private final ExecutorService senders;
+    private final Map<String, SessionOutbox> outboxes = new ConcurrentHashMap<>();
+
+    public WebSocketBroadcaster(@Value("${trading.websocket.queue-capacity:1024}") int queueCapacity,
+                                @Value("${trading.websocket.sender-threads:2}") int senderThreads,
+                                @Value("${trading.websocket.send-time-limit-ms:10000}") int sendTimeLimitMillis,
+                                @Value("${trading.websocket.buffer-size-limit:524288}") int bufferSizeLimit,
+                                @Value("${trading.websocket.overflow-policy:CONFLATE_BY_KEY}") OverflowPolicy defaultPolicy) {
+        if (queueCapacity <= 0 || senderThreads <= 0) {
+            throw new IllegalArgumentException("queue capacity and sender threads must be positive");
+        }
+        this.queueCapacity = queueCapacity;
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.defaultPolicy = defaultPolicy;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ws-sender-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        System.out.println("📮 WebSocket broadcaster ready (" + senderThreads + " sender(s), queue " +
+                         queueCapacity + ", overflow " + defaultPolicy + ")");
+    }
+
+    /**
+     * Start queuing for a newly connected session using the configured overflow policy
+     */
+    public void register(String channel, WebSocketSession session) {
+        register(channel, session, defaultPolicy);
+    }
+
+    public void register(String channel, WebSocketSession session, OverflowPolicy policy) {
+        SessionOutbox outbox = new SessionOutbox(channel, session, policy);
+        SessionOutbox previous = outboxes.put(session.getId(), outbox);
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    public void setEncoding(WebSocketSession session, Encoding encoding) {
+        SessionOutbox outbox = outboxes.get(session.getId());
+        if (outbox != null) {
+            outbox.encoding = encoding;
+        }
+    }
+
+    public Encoding getEncoding(WebSocketSession session) {
+        SessionOutbox outbox = outboxes.get(session.getId());
+        return outbox != null ? outbox.encoding : Encoding.JSON;
+    }
+
+    public void unregister(WebSocketSession session) {
+        SessionOutbox outbox = outboxes.remove(session.getId());
+        if (outbox != null) {
+            outbox.close();
+        }
+    }
+
+    /**
+     * Queue a message that must not be conflated (replies, closed candles, trades)
+     */
+    public void send(WebSocketSession session, WebSocketMessage<?> message) {
+        send(session, message, null);
+    }
+
+    /**
+     * Queue a message; under {@link OverflowPolicy#CONFLATE_BY_KEY} a pending message with the same key is replaced
+     */
+    public void send(WebSocketSession session, WebSocketMessage<?> message, String conflationKey) {
+        SessionOutbox outbox = outboxes.get(session.getId());
+        if (outbox != null) {
+            outbox.offer(message, conflationKey);
+        }
+    }
+
+    /**
+     * Queue a frame in the session's negotiated encoding; each encoding is produced at most once per frame
+     */
+    public void send(WebSocketSession session, OutboundFrame frame, String conflationKey) throws JsonProcessingException {
+        SessionOutbox outbox = outboxes.get(session.getId());
+        if (outbox != null) {
+            outbox.offer(frame.encode(outbox.encoding), conflationKey);
+        }
+    }
+
+    public int getSessionCount() {
+        return outboxes.size();
+    }
+
+    /**
+     * Queue depth, drop/conflation counts and lag per session, grouped by channel
+     */
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new TreeMap<>();
+        for (SessionOutbox outbox : outboxes.values()) {
+            stats.computeIfAbsent(outbox.channel, k -> new TreeMap<>())
+                 .put(outbox.sessionId, outbox.getStats());
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (SessionOutbox outbox : outboxes.values()) {
+            outbox.close();
+        }
+        outboxes.clear();
+        senders.shutdownNow();
+    }
+
+    /**
+     * One session: bounded queue, at most one drain task in flight (keeps per-session order), metrics
+     */
+    private class SessionOutbox implements Runnable {
+        private final String channel;
+        private final String sessionId;
+        private final WebSocketSession session;
+        private final OverflowPolicy policy;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<Slot> queue = new ArrayDeque<>();
+        private final Map<String, Slot> pendingByKey = new HashMap<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean open = true;
+        private volatile Encoding encoding = Encoding.JSON;
+
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong conflated = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private volatile long lastLagNanos;
+        private volatile long maxLagNanos;
+
+        SessionOutbox(String channel, WebSocketSession session, OverflowPolicy policy) {
+            this.channel = channel;
+            this.sessionId = session.getId();
+            // The decorator bounds a single stuck write (time and buffered bytes) on top of our queue
+            this.session = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMillis, bufferSizeLimit);
+            this.policy = policy;
+        }
+
+        void offer(WebSocketMessage<?> message, String key) {
+            if (!open) {
+                return;
+            }
+            if (policy != OverflowPolicy.CONFLATE_BY_KEY) {
+                key = null;
+            }
+            boolean disconnect = false;
+            lock.lock();
+            try {
+                if (key != null) {
+                    Slot pending = pendingByKey.get(key);
+                    if (pending != null) {
+                        // Keep the original enqueue time so lag reflects how stale the slot is
+                        pending.message = message;
+                        conflated.incrementAndGet();
+                        return;
+                    }
+                }
+
+                if (queue.size() >= queueCapacity) {
+                    if (policy == OverflowPolicy.DISCONNECT) {
+                        disconnect = true;
+                    } else {
+                        Slot oldest = queue.pollFirst();
+                        if (oldest != null && oldest.key != null) {
+                            pendingByKey.remove(oldest.key);
+                        }
+                        dropped.incrementAndGet();
+                    }
+                }
+
+                if (!disconnect) {
+                    Slot slot = new Slot(message, key, System.nanoTime());
+                    queue.addLast(slot);
+                    if (key != null) {
+                        pendingByKey.put(key, slot);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (disconnect) {
+                System.err.println("⚠️ WebSocket session " + sessionId + " (" + channel + ") is too slow, disconnecting");
+                dropped.incrementAndGet();
+                close();
+                senders.execute(() -> closeQuietly(CloseStatus.SESSION_NOT_RELIABLE));
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                senders.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (int i = 0; i < MAX_BATCH && open; i++) {
+                    Slot slot;
+                    lock.lock();
+                    try {
+                        slot = queue.pollFirst();
+                        if (slot != null && slot.key != null) {
+                            pendingByKey.remove(slot.key);
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                    if (slot == null) {
+                        break;
+                    }
+
+                    long lag = System.nanoTime() - slot.enqueuedNanos;
+                    lastLagNanos = lag;
+                    if (lag > maxLagNanos) {
+                        maxLagNanos = lag;
+                    }
+                    try {
+                        if (session.isOpen()) {
+                            session.sendMessage(forSession(slot.message));
+                            sent.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        System.err.println("❌ Failed to send to session " + sessionId + ": " + e.getMessage());
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+            }
+            // Messages queued while we were finishing (or a full batch) need another turn
+            if (open && getQueueDepth() > 0) {
+                schedule();
+            }
+        }
+
+        /**
+         * Binary payloads are shared by all sessions and the container consumes the buffer it
+         * writes, so every session gets its own view of the same bytes
+         */
+        private WebSocketMessage<?> forSession(WebSocketMessage<?> message) {
+            if (message instanceof BinaryMessage) {
+                BinaryMessage binary = (BinaryMessage) message;
+                return new BinaryMessage(binary.getPayload().duplicate(), binary.isLast());
+            }
+            return message;
+        }
+
+        void close() {
+            open = false;
+            lock.lock();
+            try {
+                queue.clear();
+                pendingByKey.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void closeQuietly(CloseStatus status) {
+            try {
+                session.close(status);
+            } catch (Exception e) {
+                System.err.println("❌ Failed to close session " + sessionId + ": " + e.getMessage());
+            }
+        }
+
+        int getQueueDepth() {
+            lock.lock();
+            try {
+                return queue.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Map<String, Object> getStats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("policy", policy.name());
+            stats.put("encoding", encoding.name());
+            stats.put("queueDepth", getQueueDepth());
+            stats.put("sent", sent.get());
+            stats.put("dropped", dropped.get());
+            stats.put("conflated", conflated.get());
+            stats.put("failed", failed.get());
+            stats.put("lastLagMicros", lastLagNanos / 1_000);
+            stats.put("maxLagMicros", maxLagNanos / 1_000);
+            return stats;
+        }
+    }
+
+    private static class Slot {
+        WebSocketMessage<?> message;
+        final String key;
+        final long enqueuedNanos;
+
+        Slot(WebSocketMessage<?> message, String key, long enqueuedNanos) {
+            this.message = message;
+            this.key = key;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+}
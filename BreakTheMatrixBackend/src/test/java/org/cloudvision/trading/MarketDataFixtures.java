@@ -0,0 +1,129 @@
+package org.cloudvision.trading;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.model.TradeData;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Recorded market data shared by the tests and the JMH benchmarks.
+ *
+ * Candles come from the 1m BTCUSDT fixture (1000 candles, the last one still forming).
+ * There is no recorded trade tape, so trades are derived deterministically from the candles:
+ * each candle's volume is split over a price path open -> high -> low -> close (or open -> low -> high -> close).
+ */
+public final class MarketDataFixtures {
+
+    public static final String CANDLE_FIXTURE = "src/test/java/org/cloudvision/1mbtc.json";
+
+    private static List<CandlestickData> candles;
+
+    private MarketDataFixtures() {
+    }
+
+    /**
+     * Candles of the 1m BTCUSDT fixture, oldest first
+     */
+    public static synchronized List<CandlestickData> candles() {
+        if (candles == null) {
+            candles = Collections.unmodifiableList(loadCandles(Path.of(CANDLE_FIXTURE)));
+        }
+        return candles;
+    }
+
+    /**
+     * Trades derived from the fixture candles (at most {@code tradesPerCandle} per candle), oldest first
+     */
+    public static List<TradeData> trades(int tradesPerCandle) {
+        return trades(candles(), tradesPerCandle);
+    }
+
+    /**
+     * Trades derived from {@code source} (at most {@code tradesPerCandle} per candle), oldest first
+     */
+    public static List<TradeData> trades(List<CandlestickData> source, int tradesPerCandle) {
+        Random random = new Random(42);
+        List<TradeData> trades = new ArrayList<>();
+        long tradeId = 1;
+        for (CandlestickData candle : source) {
+            int count = Math.max(1, Math.min(tradesPerCandle, candle.getNumberOfTrades()));
+            BigDecimal quantity = candle.getVolume().divide(BigDecimal.valueOf(count), 8, RoundingMode.HALF_UP);
+            if (quantity.signum() == 0) {
+                quantity = new BigDecimal("0.00001000");
+            }
+            boolean upCandle = candle.getClose().compareTo(candle.getOpen()) >= 0;
+            BigDecimal[] path = upCandle
+                ? new BigDecimal[] { candle.getOpen(), candle.getLow(), candle.getHigh(), candle.getClose() }
+                : new BigDecimal[] { candle.getOpen(), candle.getHigh(), candle.getLow(), candle.getClose() };
+            long start = candle.getOpenTime().toEpochMilli();
+            long step = Math.max(1, 60_000 / count);
+
+            for (int i = 0; i < count; i++) {
+                BigDecimal price = pathPrice(path, count == 1 ? 1.0 : (double) i / (count - 1));
+                trades.add(new TradeData(
+                    tradeId++, candle.getSymbol(), price, quantity, price.multiply(quantity),
+                    Instant.ofEpochMilli(start + i * step), random.nextBoolean(), candle.getProvider()
+                ));
+            }
+        }
+        return trades;
+    }
+
+    /**
+     * Candles from a JSON array in the fixture format
+     */
+    public static List<CandlestickData> loadCandles(Path path) {
+        try {
+            ObjectMapper mapper = new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+            JsonNode root = mapper.readTree(Files.readAllBytes(path));
+            List<CandlestickData> result = new ArrayList<>(root.size());
+            for (JsonNode node : root) {
+                result.add(new CandlestickData(
+                    node.get("symbol").asText(),
+                    Instant.parse(node.get("openTime").asText()),
+                    Instant.parse(node.get("closeTime").asText()),
+                    decimal(node, "open"),
+                    decimal(node, "high"),
+                    decimal(node, "low"),
+                    decimal(node, "close"),
+                    decimal(node, "volume"),
+                    decimal(node, "quoteAssetVolume"),
+                    node.get("numberOfTrades").asInt(),
+                    node.get("interval").asText(),
+                    node.get("provider").asText(),
+                    node.get("closed").asBoolean()
+                ));
+            }
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read candle fixture " + path.toAbsolutePath(), e);
+        }
+    }
+
+    private static BigDecimal pathPrice(BigDecimal[] path, double position) {
+        double scaled = position * (path.length - 1);
+        int segment = Math.min((int) scaled, path.length - 2);
+        BigDecimal fraction = BigDecimal.valueOf(scaled - segment);
+        BigDecimal from = path[segment];
+        BigDecimal to = path[segment + 1];
+        return from.add(to.subtract(from).multiply(fraction)).setScale(2, RoundingMode.HALF_UP).setScale(8);
+    }
+
+    private static BigDecimal decimal(JsonNode node, String field) {
+        // Fixture numbers are written with 8 decimals, like the exchange strings
+        return node.get(field).decimalValue().setScale(8, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,235 @@
+package org.cloudvision.trading.bot.backtest;
+
+import org.cloudvision.trading.bot.account.AccountManager;
+import org.cloudvision.trading.bot.account.PositionSide;
+import org.cloudvision.trading.bot.model.Order;
+import org.cloudvision.trading.bot.model.OrderSide;
+import org.cloudvision.trading.bot.model.OrderType;
+import org.cloudvision.trading.bot.strategy.IndicatorMetadata;
+import org.cloudvision.trading.bot.strategy.StrategyConfig;
+import org.cloudvision.trading.bot.strategy.StrategyStats;
+import org.cloudvision.trading.bot.strategy.TradingStrategy;
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.model.TradingData;
+import org.cloudvision.trading.service.CandlestickHistoryService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fees, slippage, partial closes and realized P&L of a backtest, checked against hand-computed values
+ */
+class BacktestEngineTest {
+
+    private static final Instant START = Instant.parse("2025-10-03T00:00:00Z");
+    private static final BigDecimal FEE_RATE = new BigDecimal("0.001");
+    private static final BigDecimal SLIPPAGE_BPS = BigDecimal.TEN;
+
+    @Test
+    void scriptedRunMatchesHandComputedAccounting() {
+        BacktestConfig config = BacktestConfig.builder()
+            .strategyId("scripted")
+            .provider("Binance")
+            .symbol("BTCUSDT")
+            .interval("1m")
+            .feeRate(FEE_RATE)
+            .slippageBps(SLIPPAGE_BPS)
+            .fillOnNextOpen(true)
+            .warmupCandles(0)
+            .build();
+        List<CandlestickData> candles = List.of(
+            candle(0, "100", "101", "99", "100"),
+            candle(1, "100", "106", "99", "105"),
+            candle(2, "110", "111", "108", "108"));
+        // Buy 2 on the first close, sell 1 on the second; the rest is flattened at the end of data
+        ScriptedStrategy strategy = new ScriptedStrategy(Map.of(
+            0, order(OrderSide.BUY, "2", "100"),
+            1, order(OrderSide.SELL, "1", "105")));
+
+        BacktestResult result = new BacktestEngine(config).run("bt-1", strategy, List.of(), candles, null);
+
+        assertEquals(2, result.getFilledOrders());
+        assertEquals(0, result.getRejectedOrders());
+        List<BacktestTrade> trades = result.getTrades();
+        assertEquals(2, trades.size());
+
+        // Entry at the open of candle 1 plus 10 bps: 100.1, fee 0.2002 for 2
+        // Exit of 1 at the open of candle 2 minus 10 bps: 109.89, fee 0.10989, half the entry fee attributed
+        BacktestTrade partial = trades.get(0);
+        assertEquals(BacktestTrade.ExitReason.SIGNAL, partial.getExitReason());
+        assertEquals(PositionSide.LONG, partial.getSide());
+        assertEquals(START.plusSeconds(60), partial.getEntryTime());
+        assertEquals(START.plusSeconds(120), partial.getExitTime());
+        assertExact("100.10000000", partial.getEntryPrice());
+        assertExact("109.89000000", partial.getExitPrice());
+        assertExact("1", partial.getQuantity());
+        assertExact("9.79", partial.getGrossPnL());
+        assertExact("0.20999", partial.getFees());
+        assertExact("9.58001", partial.getNetPnL());
+
+        // Remaining 1 closed at the last close minus 10 bps: 107.892, fee 0.107892 plus the other half entry fee
+        BacktestTrade rest = trades.get(1);
+        assertEquals(BacktestTrade.ExitReason.END_OF_DATA, rest.getExitReason());
+        assertExact("107.89200000", rest.getExitPrice());
+        assertExact("7.792", rest.getGrossPnL());
+        assertExact("0.207992", rest.getFees());
+        assertExact("7.584008", rest.getNetPnL());
+
+        BacktestStats stats = result.getStats();
+        assertEquals(2, stats.getTotalTrades());
+        assertExact("17.164018", stats.getNetProfit());
+        assertExact("0.417982", stats.getTotalFees());
+        assertExact("10017.164018", stats.getFinalEquity());
+
+        // Per candle: flat, open long 2 marked at 105, long 1 marked at 108 then flattened
+        List<BacktestResult.EquityPoint> curve = result.getEquityCurve(10);
+        assertEquals(3, curve.size());
+        assertEquals(10000.0, curve.get(0).getEquity(), 1e-9);
+        assertEquals(10009.5998, curve.get(1).getEquity(), 1e-9);
+        assertEquals(10017.164018, curve.get(2).getEquity(), 1e-9);
+        assertEquals(candles.get(2).getCloseTime(), curve.get(2).getTime());
+    }
+
+    @Test
+    void stopGappedThroughFillsAtTheOpen() {
+        BacktestAccount account = new BacktestAccount("bt-2", new BigDecimal("10000"), FEE_RATE, SLIPPAGE_BPS);
+        Order entry = new Order("o-1", "BTCUSDT", OrderType.MARKET, OrderSide.SELL,
+            new BigDecimal("0.5"), new BigDecimal("200"), "scripted");
+        entry.setPositionSide(PositionSide.SHORT);
+        entry.setSuggestedStopLoss(new BigDecimal("210"));
+        account.setClock(START);
+        account.executeOrder(entry);
+
+        // Short at 199.8 (200 minus 10 bps), notional 99.9, fee 0.0999
+        assertExact("199.80000000", entry.getExecutedPrice());
+        assertExact("9999.9001", account.getBalance());
+        assertExact("9900.0001", account.getAvailableBalance());
+
+        // Opens above the stop: covered at the open 212 plus 10 bps
+        account.setClock(START.plusSeconds(60));
+        account.checkExits("BTCUSDT", new BigDecimal("212"), new BigDecimal("215"), new BigDecimal("211"));
+
+        BacktestTrade trade = account.getTrades().get(0);
+        assertEquals(BacktestTrade.ExitReason.STOP_LOSS, trade.getExitReason());
+        assertExact("212.21200000", trade.getExitPrice());
+        assertExact("-6.206", trade.getGrossPnL());
+        assertExact("0.206006", trade.getFees());
+        assertExact("9993.587994", account.getBalance());
+        assertExact("9993.587994", account.getAvailableBalance());
+        assertTrue(account.getOpenPositions().isEmpty());
+    }
+
+    @Test
+    void entryBeyondTheAvailableBalanceIsRejected() {
+        BacktestAccount account = new BacktestAccount("bt-3", new BigDecimal("100"), FEE_RATE, BigDecimal.ZERO);
+        // Notional 100 plus a fee of 0.1 exceeds the balance
+        Order order = order(OrderSide.BUY, "1", "100");
+        account.executeOrder(order);
+
+        assertEquals(1, account.getRejectedOrderCount());
+        assertEquals(0, account.getFilledOrderCount());
+        assertExact("100", account.getBalance());
+        assertTrue(account.getOpenPositions().isEmpty());
+    }
+
+    private static void assertExact(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), "expected " + expected + " but was " + actual);
+    }
+
+    private static CandlestickData candle(int index, String open, String high, String low, String close) {
+        Instant openTime = START.plusSeconds(60L * index);
+        return new CandlestickData("BTCUSDT", openTime, openTime.plusMillis(59_999),
+            new BigDecimal(open), new BigDecimal(high), new BigDecimal(low), new BigDecimal(close),
+            BigDecimal.ONE, new BigDecimal(close), 1, "1m", "Binance", true);
+    }
+
+    private static Order order(OrderSide side, String quantity, String price) {
+        Order order = new Order("o-" + side + quantity, "BTCUSDT", OrderType.MARKET, side,
+            new BigDecimal(quantity), new BigDecimal(price), "scripted");
+        order.setPositionSide(PositionSide.LONG);
+        return order;
+    }
+
+    /**
+     * Emits a fixed order on the close of the n-th candle it sees
+     */
+    private static class ScriptedStrategy implements TradingStrategy {
+        private final Map<Integer, Order> script;
+        private int candles = 0;
+
+        private ScriptedStrategy(Map<Integer, Order> script) {
+            this.script = script;
+        }
+
+        @Override
+        public List<Order> analyze(TradingData data) {
+            Order order = script.get(candles++);
+            return order != null ? List.of(order) : List.of();
+        }
+
+        @Override
+        public void useIsolatedServices(AccountManager accountManager, CandlestickHistoryService historyService) {
+        }
+
+        @Override
+        public void bootstrapWithHistoricalData(List<CandlestickData> historicalData) {
+        }
+
+        @Override
+        public boolean isBootstrapped() {
+            return true;
+        }
+
+        @Override
+        public String getStrategyId() {
+            return "scripted";
+        }
+
+        @Override
+        public String getStrategyName() {
+            return "Scripted";
+        }
+
+        @Override
+        public List<String> getSymbols() {
+            return List.of("BTCUSDT");
+        }
+
+        @Override
+        public void initialize(StrategyConfig config) {
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+        }
+
+        @Override
+        public StrategyStats getStats() {
+            return null;
+        }
+
+        @Override
+        public Map<String, IndicatorMetadata> getIndicatorMetadata() {
+            return Map.of();
+        }
+
+        @Override
+        public void generateHistoricalVisualizationData(List<CandlestickData> historicalData) {
+        }
+
+        @Override
+        public void reset() {
+            candles = 0;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.cloudvision.trading.bot.backtest;
+
+import org.cloudvision.trading.MarketDataFixtures;
+import org.cloudvision.trading.bot.strategy.StrategyConfig;
+import org.cloudvision.trading.bot.strategy.impl.SuperTrendStrategy;
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.service.CandlestickHistoryService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SuperTrend parameter sets must trade and score differently when run the way SweepService runs them
+ */
+class SuperTrendSweepTest {
+
+    private static final int WARMUP = 200;
+
+    private final BacktestService backtestService = new BacktestService(new CandlestickHistoryService(), 10);
+
+    @Test
+    void parameterSetsScoreDifferently() {
+        List<CandlestickData> candles = new ArrayList<>();
+        for (CandlestickData candle : MarketDataFixtures.candles()) {
+            if (candle.isClosed()) {
+                candles.add(candle);
+            }
+        }
+
+        BacktestConfig base = BacktestConfig.builder()
+            .strategyId("supertrend")
+            .provider("Binance")
+            .symbol("BTCUSDT")
+            .interval("1m")
+            .warmupCandles(WARMUP)
+            .build();
+        SweepConfig sweep = new SweepConfig(base,
+            Map.of("atrPeriod", List.of(7, 10, 20), "atrMultiplier", List.of(2, 3)),
+            null, null, null, "total_return", null, null, null);
+        sweep.validate(100);
+
+        SuperTrendStrategy template = new SuperTrendStrategy();
+        template.initialize(new StrategyConfig("supertrend", List.of("BTCUSDT")));
+
+        List<SweepRun> runs = new ArrayList<>();
+        Set<Double> scores = new HashSet<>();
+        for (long combination : sweep.sampleCombinations()) {
+            Map<String, Object> parameters = sweep.getCombination(combination);
+            BacktestResult result = backtestService.run(base.withParameters(parameters), template,
+                candles.subList(0, WARMUP), candles.subList(WARMUP, candles.size()), null);
+            SweepRun run = new SweepRun(combination, 0, parameters, result, sweep.getObjective(),
+                sweep.getMinTrades());
+            assertTrue(run.isQualified(), "no trades for " + parameters);
+            runs.add(run);
+            scores.add(run.getScore());
+        }
+
+        assertEquals(6, runs.size());
+        assertTrue(scores.size() > 1, "every parameter set scored " + scores);
+    }
+}
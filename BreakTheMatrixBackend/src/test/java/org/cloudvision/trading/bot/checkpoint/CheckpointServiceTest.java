@@ -0,0 +1,92 @@
+package org.cloudvision.trading.bot.checkpoint;
+
+import org.cloudvision.trading.MarketDataFixtures;
+import org.cloudvision.trading.bot.indicators.IndicatorInstanceManager;
+import org.cloudvision.trading.bot.indicators.IndicatorInstanceManager.IndicatorInstance;
+import org.cloudvision.trading.bot.indicators.IndicatorInstanceManager.IndicatorResult;
+import org.cloudvision.trading.bot.indicators.impl.SMAIndicator;
+import org.cloudvision.trading.bot.indicators.impl.VolumeIndicator;
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.service.CandlestickHistoryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Indicators restored from a checkpoint must carry on exactly where the checkpointed ones were
+ */
+class CheckpointServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restoredIndicatorsContinueLikeTheOriginals() throws IOException {
+        List<CandlestickData> candles = MarketDataFixtures.candles().stream().filter(CandlestickData::isClosed).toList();
+        List<CandlestickData> warmup = candles.subList(0, 300);
+        List<CandlestickData> after = candles.subList(300, 340);
+
+        Map<String, Object> smaParams = new LinkedHashMap<>();
+        smaParams.put("period", 20);
+        smaParams.put("source", "close");
+        smaParams.put("lineWidth", 1.5);
+        smaParams.put("levels", List.of(1, 2.5, "auto"));
+        smaParams.put("style", Map.of("dashed", true, "colors", List.of("#2962FF", "#FF6D00")));
+        Map<String, Object> volumeParams = Map.of("bullishColor", "#00FF00", "bearishColor", "#FF0000");
+
+        IndicatorInstanceManager original = manager();
+        String smaKey = original.activateIndicatorWithCandles("sma", warmup, smaParams);
+        String volumeKey = original.activateIndicatorWithCandles("volume", warmup, volumeParams);
+        String file = directory.resolve("state.bin").toString();
+        new CheckpointService(original, new CandlestickHistoryService(), true, file).writeCheckpoint();
+
+        IndicatorInstanceManager restored = manager();
+        Map<String, Object> stats = new CheckpointService(restored, new CandlestickHistoryService(), true, file).restore();
+        assertEquals(true, stats.get("restored"));
+        assertEquals(2, stats.get("indicators"));
+
+        for (String key : List.of(smaKey, volumeKey)) {
+            IndicatorInstance before = original.getInstance(key);
+            IndicatorInstance instance = restored.getInstance(key);
+            assertNotNull(instance, key);
+            assertEquals(before.getParams(), instance.getParams(), key);
+            assertEquals(before.getUpdateCount(), instance.getUpdateCount(), key);
+            assertEquals(before.getHistoricalResultCount(), instance.getHistoricalResultCount(), key);
+            // Resumed from the state snapshot, not re-warmed
+            assertEquals(before.getState().getState().getClass(), instance.getState().getState().getClass());
+        }
+        // Nested parameters keep their structure and element types
+        Map<String, Object> params = restored.getInstance(smaKey).getParams();
+        assertEquals(List.of(1, 2.5, "auto"), params.get("levels"));
+        assertEquals(1.5, params.get("lineWidth"));
+        assertEquals(Map.of("dashed", true, "colors", List.of("#2962FF", "#FF6D00")), params.get("style"));
+
+        for (CandlestickData candle : after) {
+            for (String key : List.of(smaKey, volumeKey)) {
+                IndicatorResult expected = original.updateWithCandle(key, candle);
+                IndicatorResult actual = restored.updateWithCandle(key, candle);
+                assertEquals(expected.getValues(), actual.getValues(), key + " at " + candle.getOpenTime());
+                assertEquals(expected.getAdditionalData(), actual.getAdditionalData(), key + " at " + candle.getOpenTime());
+            }
+        }
+    }
+
+    @Test
+    void missingCheckpointStartsCold() throws IOException {
+        String file = directory.resolve("absent.bin").toString();
+        Map<String, Object> stats = new CheckpointService(manager(), new CandlestickHistoryService(), true, file).restore();
+        assertEquals(false, stats.get("restored"));
+    }
+
+    private static IndicatorInstanceManager manager() {
+        return new IndicatorInstanceManager(List.of(new SMAIndicator(), new VolumeIndicator()),
+            new CandlestickHistoryService(), 1);
+    }
+}
@@ -0,0 +1,154 @@
+package org.cloudvision.trading.bot.indicators;
+
+import org.cloudvision.trading.bot.indicators.IndicatorInstanceManager.IndicatorInstance;
+import org.cloudvision.trading.bot.indicators.IndicatorInstanceManager.IndicatorResult;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.cloudvision.trading.bot.indicators.IndicatorHistoryBuffer.CHUNK_SIZE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Chunk indexing, eviction and view snapshots of the columnar indicator history
+ */
+class IndicatorHistoryBufferTest {
+
+    private static final long BASE_MILLIS = 1_759_500_000_000L;
+
+    @Test
+    void appendsAcrossChunkBoundaries() {
+        IndicatorHistoryBuffer buffer = new IndicatorHistoryBuffer(5000);
+        int rows = 2 * CHUNK_SIZE + 10;
+        for (int i = 0; i < rows; i++) {
+            buffer.append(result(i));
+        }
+
+        IndicatorHistoryBuffer.View view = buffer.view();
+        assertEquals(rows, view.size());
+        for (int i : new int[]{0, CHUNK_SIZE - 1, CHUNK_SIZE, CHUNK_SIZE + 1, 2 * CHUNK_SIZE, rows - 1}) {
+            assertRow(i, view, i);
+        }
+        // "upper" only starts in the second chunk; names are collected over every chunk of the view
+        assertEquals(Set.of("value", "upper"), view.getSeriesNames());
+        assertFalse(view.hasValue("upper", CHUNK_SIZE - 1));
+        assertEquals(Double.NaN, view.getDouble("upper", CHUNK_SIZE - 1));
+        assertEquals(BigDecimal.valueOf(CHUNK_SIZE + 1, 2), view.getValue("upper", CHUNK_SIZE));
+        assertEquals(CHUNK_SIZE, view.lowerBound(time(CHUNK_SIZE)));
+    }
+
+    @Test
+    void heldViewKeepsItsRowsThroughEviction() {
+        IndicatorHistoryBuffer buffer = new IndicatorHistoryBuffer(2 * CHUNK_SIZE);
+        for (int i = 0; i < 2 * CHUNK_SIZE; i++) {
+            buffer.append(result(i));
+        }
+        IndicatorHistoryBuffer.View held = buffer.view();
+
+        // Three more chunks: every chunk the held view reads is evicted from the buffer
+        for (int i = 2 * CHUNK_SIZE; i < 5 * CHUNK_SIZE; i++) {
+            buffer.append(result(i));
+        }
+
+        assertEquals(2 * CHUNK_SIZE, held.size());
+        for (int i = 0; i < held.size(); i++) {
+            assertRow(i, held, i);
+        }
+        IndicatorHistoryBuffer.View current = buffer.view();
+        assertEquals(2 * CHUNK_SIZE, current.size());
+        assertRow(3 * CHUNK_SIZE, current, 0);
+    }
+
+    @Test
+    void indexesShiftOnceRowsAreEvicted() {
+        // Capacity not a multiple of the chunk size: eviction is by row, chunks are dropped lazily
+        int capacity = CHUNK_SIZE + CHUNK_SIZE / 2;
+        IndicatorHistoryBuffer buffer = new IndicatorHistoryBuffer(capacity);
+        for (int i = 0; i < capacity; i++) {
+            buffer.append(result(i));
+        }
+        IndicatorHistoryBuffer.View before = buffer.view();
+        assertEquals(capacity, before.size());
+        assertRow(0, before, 0);
+
+        int extra = CHUNK_SIZE / 2 + 7;
+        for (int i = capacity; i < capacity + extra; i++) {
+            buffer.append(result(i));
+        }
+        IndicatorHistoryBuffer.View after = buffer.view();
+        assertEquals(capacity, after.size());
+        assertRow(extra, after, 0);
+        assertRow(capacity + extra - 1, after, capacity - 1);
+        assertEquals(0, after.lowerBound(time(0)));
+        assertEquals(CHUNK_SIZE - extra, after.lowerBound(time(CHUNK_SIZE)));
+        assertEquals(after.size(), after.lowerBound(time(capacity + extra)));
+
+        // The view taken before eviction still starts at row 0
+        assertRow(0, before, 0);
+        assertRow(capacity - 1, before, capacity - 1);
+    }
+
+    @Test
+    void clearKeepsEarlierViewsAndRestartsIndexing() {
+        IndicatorHistoryBuffer buffer = new IndicatorHistoryBuffer(5000);
+        for (int i = 0; i < CHUNK_SIZE + 3; i++) {
+            buffer.append(result(i));
+        }
+        IndicatorHistoryBuffer.View before = buffer.view();
+        buffer.clear();
+        assertEquals(0, buffer.size());
+
+        buffer.append(result(1000));
+        buffer.append(result(1001));
+        IndicatorHistoryBuffer.View after = buffer.view();
+        assertEquals(2, after.size());
+        assertRow(1000, after, 0);
+        assertEquals(CHUNK_SIZE + 3, before.size());
+        assertRow(CHUNK_SIZE + 2, before, CHUNK_SIZE + 2);
+    }
+
+    @Test
+    void historicalResultsCountLargerThanSize() {
+        IndicatorInstance instance = new IndicatorInstance("Binance:BTCUSDT:1m:sma:1", "sma",
+            "Binance", "BTCUSDT", "1m", Map.of(), null);
+        assertEquals(0, instance.getHistoricalResults(100).size());
+        for (int i = 0; i < 10; i++) {
+            instance.addHistoricalResult(result(i));
+        }
+
+        IndicatorHistoryBuffer.View all = instance.getHistoricalResults(100);
+        assertEquals(10, all.size());
+        assertRow(0, all, 0);
+        IndicatorHistoryBuffer.View lastThree = instance.getHistoricalResults(3);
+        assertEquals(3, lastThree.size());
+        assertRow(7, lastThree, 0);
+        assertEquals(0, instance.getHistoricalResults(0).size());
+        assertEquals(List.of(), instance.getHistoricalResults(0));
+    }
+
+    private static void assertRow(int row, IndicatorHistoryBuffer.View view, int index) {
+        assertEquals(time(row), view.getTimeMillis(index), "time of row " + row);
+        assertEquals(BigDecimal.valueOf(row, 2), view.getValue("value", index), "value of row " + row);
+        IndicatorResult result = view.get(index);
+        assertEquals(Instant.ofEpochMilli(time(row)), result.getTimestamp());
+        assertEquals(BigDecimal.valueOf(row, 2), result.getValue("value"));
+    }
+
+    private static long time(int row) {
+        return BASE_MILLIS + row * 60_000L;
+    }
+
+    private static IndicatorResult result(int row) {
+        Map<String, BigDecimal> values = new LinkedHashMap<>();
+        values.put("value", BigDecimal.valueOf(row, 2));
+        if (row >= CHUNK_SIZE) {
+            values.put("upper", BigDecimal.valueOf(row + 1, 2));
+        }
+        return new IndicatorResult(Instant.ofEpochMilli(time(row)), values, null, Map.of());
+    }
+}
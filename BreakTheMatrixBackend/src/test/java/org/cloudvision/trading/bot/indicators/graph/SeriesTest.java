@@ -0,0 +1,144 @@
+package org.cloudvision.trading.bot.indicators.graph;
+
+import org.cloudvision.trading.MarketDataFixtures;
+import org.cloudvision.trading.bot.indicators.streaming.AtrKernel;
+import org.cloudvision.trading.bot.indicators.streaming.EmaKernel;
+import org.cloudvision.trading.bot.indicators.streaming.RmaKernel;
+import org.cloudvision.trading.bot.indicators.streaming.SmaKernel;
+import org.cloudvision.trading.bot.indicators.streaming.StreamingKernel.Arithmetic;
+import org.cloudvision.trading.model.CandlestickData;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Graph primitives against the streaming kernels and a brute-force rolling max/min
+ */
+class SeriesTest {
+
+    private static final int PERIOD = 14;
+
+    private final List<CandlestickData> candles = MarketDataFixtures.candles().subList(0, 300);
+
+    @Test
+    void movingAveragesAndAtrMatchKernels() {
+        SeriesDefinition close = Series.source("close");
+        SeriesBinding binding = SeriesBinding.detached(List.of(
+            Series.ema(close, PERIOD), Series.rma(close, PERIOD),
+            Series.atr(PERIOD, false), Series.atr(PERIOD, true)));
+        EmaKernel ema = new EmaKernel(PERIOD);
+        RmaKernel rma = new RmaKernel(PERIOD);
+        AtrKernel atr = new AtrKernel(PERIOD);
+        AtrKernel wilderAtr = new AtrKernel(PERIOD, true, Arithmetic.DECIMAL);
+
+        for (int i = 0; i < candles.size(); i++) {
+            CandlestickData candle = candles.get(i);
+            binding.advance(candle);
+            assertEquals(ema.update(candle.getClose()), binding.getValue(0), "ema " + i);
+            assertEquals(rma.update(candle.getClose()), binding.getValue(1), "rma " + i);
+            assertEquals(atr.update(candle.getHigh(), candle.getLow(), candle.getClose()), binding.getValue(2), "atr " + i);
+            assertEquals(wilderAtr.update(candle.getHigh(), candle.getLow(), candle.getClose()), binding.getValue(3),
+                "wilder atr " + i);
+        }
+    }
+
+    @Test
+    void emaPreviewDoesNotAdvance() {
+        SeriesBinding binding = SeriesBinding.detached(List.of(Series.ema(Series.source("close"), PERIOD)));
+        for (CandlestickData candle : candles.subList(0, 50)) {
+            binding.advance(candle);
+        }
+        EmaKernel next = new EmaKernel(PERIOD);
+        for (CandlestickData candle : candles.subList(0, 51)) {
+            next.update(candle.getClose());
+        }
+
+        BigDecimal before = binding.getValue(0);
+        assertEquals(next.getValue(), binding.preview(0, candles.get(50).getClose()));
+        assertEquals(before, binding.getValue(0));
+    }
+
+    @Test
+    void rollingHighsAndLowsMatchBruteForce() {
+        SeriesBinding binding = SeriesBinding.detached(List.of(
+            Series.highest(Series.source("high"), PERIOD), Series.lowest(Series.source("low"), PERIOD)));
+
+        for (int i = 0; i < candles.size(); i++) {
+            binding.advance(candles.get(i));
+            if (i + 1 < PERIOD) {
+                assertNull(binding.getValue(0));
+                assertNull(binding.getValue(1));
+                continue;
+            }
+            BigDecimal high = candles.get(i).getHigh();
+            BigDecimal low = candles.get(i).getLow();
+            for (int j = i + 1 - PERIOD; j < i; j++) {
+                high = high.max(candles.get(j).getHigh());
+                low = low.min(candles.get(j).getLow());
+            }
+            assertEquals(high, binding.getValue(0), "highest " + i);
+            assertEquals(low, binding.getValue(1), "lowest " + i);
+        }
+    }
+
+    @Test
+    void sharedAtrIsComputedOnce() {
+        IndicatorGraphRegistry registry = new IndicatorGraphRegistry();
+        SeriesBinding first = SeriesBinding.detached(List.of(Series.atr(PERIOD, false)));
+        SeriesBinding second = SeriesBinding.detached(List.of(Series.atr(PERIOD, false), Series.atr(PERIOD * 2, false)));
+        assertTrue(registry.share("Binance", "BTCUSDT", "1m", first));
+        assertTrue(registry.share("Binance", "BTCUSDT", "1m", second));
+
+        // One true range feeding two averages
+        assertEquals(List.of("tr", "sma(tr," + PERIOD + ")", "sma(tr," + PERIOD * 2 + ")"),
+            registry.getGraph("Binance", "BTCUSDT", "1m").getSeriesKeys());
+
+        for (CandlestickData candle : candles) {
+            first.advance(candle);
+            second.advance(candle);
+            assertEquals(first.getValue(0), second.getValue(0));
+        }
+        assertNotNull(first.getValue(0));
+    }
+
+    @Test
+    void laggingSubscriberReadsValuesOfItsOwnCandle() {
+        IndicatorGraphRegistry registry = new IndicatorGraphRegistry();
+        SeriesBinding ahead = SeriesBinding.detached(List.of(Series.sma(Series.source("close"), PERIOD)));
+        SeriesBinding behind = SeriesBinding.detached(List.of(Series.sma(Series.source("close"), PERIOD)));
+        assertTrue(registry.share("Binance", "BTCUSDT", "1m", ahead));
+        assertTrue(registry.share("Binance", "BTCUSDT", "1m", behind));
+
+        // The two subscribers run on different bus workers; here one is always 3 candles behind
+        int lag = 3;
+        SmaKernel expectedAhead = new SmaKernel(PERIOD);
+        SmaKernel expectedBehind = new SmaKernel(PERIOD);
+        for (int i = 0; i < candles.size() + lag; i++) {
+            if (i < candles.size()) {
+                CandlestickData candle = candles.get(i);
+                ahead.advance(candle);
+                assertEquals(expectedAhead.update(candle.getClose()), ahead.getValueAt(0, candle), "ahead " + i);
+            }
+            if (i >= lag) {
+                CandlestickData candle = candles.get(i - lag);
+                behind.advance(candle);
+                assertEquals(expectedBehind.update(candle.getClose()), behind.getValueAt(0, candle), "behind " + (i - lag));
+                assertEquals(expectedBehind.getPartialValue(), behind.getWarmupValueAt(0, candle));
+            }
+        }
+    }
+
+    @Test
+    void candleOutsideTheRememberedWindowIsAnError() {
+        List<CandlestickData> all = MarketDataFixtures.candles();
+        SeriesBinding binding = SeriesBinding.detached(List.of(Series.sma(Series.source("close"), PERIOD)));
+        for (CandlestickData candle : all.subList(0, SeriesNode.HISTORY + 10)) {
+            binding.advance(candle);
+        }
+        assertThrows(IllegalStateException.class, () -> binding.getValueAt(0, all.get(0)));
+        assertNotNull(binding.getValueAt(0, all.get(100)));
+    }
+}
@@ -0,0 +1,128 @@
+package org.cloudvision.trading.bot.indicators.impl;
+
+import org.cloudvision.trading.MarketDataFixtures;
+import org.cloudvision.trading.bot.indicators.graph.IndicatorGraphRegistry;
+import org.cloudvision.trading.model.CandlestickData;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SMA values, warm-up and tick preview against a plain average of the fixture closes
+ */
+class SMAIndicatorTest {
+
+    private static final int PERIOD = 20;
+
+    private final SMAIndicator indicator = new SMAIndicator();
+    private final Map<String, Object> params = Map.of("period", PERIOD);
+    private final List<CandlestickData> candles = MarketDataFixtures.candles().subList(0, 200);
+
+    @Test
+    void reportsPartialAverageDuringWarmUp() {
+        Object state = indicator.onInit(List.of(), params);
+        for (int i = 0; i < candles.size(); i++) {
+            BigDecimal price = candles.get(i).getClose();
+            int from = Math.max(0, i + 1 - PERIOD);
+
+            // Preview of the forming candle, then the closed candle
+            assertEquals(average(i, price, from), sma(indicator.onNewTick(price, params, state)), "tick " + i);
+            Map<String, Object> result = indicator.onNewCandle(candles.get(i), params, state);
+            state = result.get("state");
+            assertEquals(average(i, price, from), sma(result), "candle " + i);
+        }
+    }
+
+    @Test
+    void previewBeforeAnyCandleIsThePrice() {
+        Object state = indicator.onInit(List.of(), params);
+        BigDecimal price = new BigDecimal("61000.5");
+        assertEquals(0, price.compareTo(sma(indicator.onNewTick(price, params, state))));
+    }
+
+    @Test
+    void sharedInstancesKeepWarmUpValues() {
+        IndicatorGraphRegistry registry = new IndicatorGraphRegistry();
+        List<CandlestickData> history = candles.subList(0, 5);
+        SMAIndicator.SMAState first = (SMAIndicator.SMAState) indicator.onInit(history, params);
+        SMAIndicator.SMAState second = (SMAIndicator.SMAState) indicator.onInit(history, params);
+        assertTrue(registry.share("Binance", "BTCUSDT", "1m", first.getSeriesBinding()));
+        assertTrue(registry.share("Binance", "BTCUSDT", "1m", second.getSeriesBinding()));
+        assertEquals(1, registry.getGraph("Binance", "BTCUSDT", "1m").getSeriesKeys().stream()
+            .filter(key -> key.startsWith("sma")).count());
+
+        for (int i = 5; i < 40; i++) {
+            BigDecimal expected = average(i, candles.get(i).getClose(), Math.max(0, i + 1 - PERIOD));
+            assertEquals(expected, first.addCandle(candles.get(i)), "first at " + i);
+            assertEquals(expected, second.addCandle(candles.get(i)), "second at " + i);
+        }
+    }
+
+    @Test
+    void sharedNodeAdvancedOutOfStep() {
+        IndicatorGraphRegistry registry = new IndicatorGraphRegistry();
+        List<CandlestickData> history = candles.subList(0, 5);
+        SMAIndicator.SMAState indicatorLane = (SMAIndicator.SMAState) indicator.onInit(history, params);
+        SMAIndicator.SMAState strategyLane = (SMAIndicator.SMAState) indicator.onInit(history, params);
+        assertTrue(registry.share("Binance", "BTCUSDT", "1m", indicatorLane.getSeriesBinding()));
+        assertTrue(registry.share("Binance", "BTCUSDT", "1m", strategyLane.getSeriesBinding()));
+
+        // The indicator lane runs 30 candles ahead, then the strategy lane catches up
+        for (int i = 5; i < 35; i++) {
+            indicatorLane.addCandle(candles.get(i));
+        }
+        for (int i = 5; i < 35; i++) {
+            BigDecimal expected = average(i, candles.get(i).getClose(), Math.max(0, i + 1 - PERIOD));
+            assertEquals(expected, strategyLane.addCandle(candles.get(i)), "strategy lane at " + i);
+            // A late forming update of a candle the node already closed reads the closed value
+            assertEquals(expected, strategyLane.addCandle(forming(candles.get(i), BigDecimal.ONE)), "forming at " + i);
+        }
+    }
+
+    @Test
+    void closedCandleReplacesFormingUpdate() {
+        // Activation replays history whose tail is the forming candle; its closed update must still count
+        Object state = indicator.onInit(List.of(), params);
+        for (int i = 0; i < candles.size(); i++) {
+            CandlestickData closed = candles.get(i);
+            int from = Math.max(0, i + 1 - PERIOD);
+            BigDecimal formingClose = closed.getClose().add(new BigDecimal("25.5"));
+
+            Map<String, Object> result = indicator.onNewCandle(forming(closed, formingClose), params, state);
+            state = result.get("state");
+            assertEquals(average(i, formingClose, from), sma(result), "forming " + i);
+
+            result = indicator.onNewCandle(closed, params, state);
+            state = result.get("state");
+            assertEquals(average(i, closed.getClose(), from), sma(result), "closed " + i);
+        }
+    }
+
+    private static CandlestickData forming(CandlestickData candle, BigDecimal close) {
+        return new CandlestickData(candle.getSymbol(), candle.getOpenTime(), candle.getCloseTime(),
+            candle.getOpen(), candle.getHigh().max(close), candle.getLow().min(close), close,
+            candle.getVolume(), candle.getQuoteAssetVolume(), candle.getNumberOfTrades(),
+            candle.getInterval(), candle.getProvider(), false);
+    }
+
+    /**
+     * Average of closes [from, i) plus {@code price}
+     */
+    private BigDecimal average(int i, BigDecimal price, int from) {
+        BigDecimal sum = price;
+        for (int j = from; j < i; j++) {
+            sum = sum.add(candles.get(j).getClose());
+        }
+        return sum.divide(BigDecimal.valueOf(i - from + 1), 8, RoundingMode.HALF_UP);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BigDecimal sma(Map<String, Object> result) {
+        return ((Map<String, BigDecimal>) result.get("values")).get("sma");
+    }
+}
@@ -0,0 +1,338 @@
+package org.cloudvision.trading.bot.indicators.streaming;
+
+import org.cloudvision.trading.MarketDataFixtures;
+import org.cloudvision.trading.bot.indicators.TechnicalIndicators;
+import org.cloudvision.trading.bot.indicators.streaming.StreamingKernel.Arithmetic;
+import org.cloudvision.trading.model.CandlestickData;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Streaming kernels against the list-based TechnicalIndicators on the 1m fixture.
+ * DECIMAL kernels must match exactly (after the 8-decimal rounding the kernel documents);
+ * DOUBLE kernels within a small tolerance.
+ *
+ * AdxKernel has no case: TechnicalIndicators.calculateADX is a placeholder that always returns 50,
+ * so there is no reference to compare the full Wilder calculation against.
+ */
+class StreamingKernelParityTest {
+
+    private static final int PERIOD = 14;
+    private static final BigDecimal MULTIPLIER = new BigDecimal("3");
+
+    private final List<BigDecimal> highs = new ArrayList<>();
+    private final List<BigDecimal> lows = new ArrayList<>();
+    private final List<BigDecimal> closes = new ArrayList<>();
+    private final List<BigDecimal> volumes = new ArrayList<>();
+
+    StreamingKernelParityTest() {
+        for (CandlestickData candle : MarketDataFixtures.candles()) {
+            highs.add(candle.getHigh());
+            lows.add(candle.getLow());
+            closes.add(candle.getClose());
+            volumes.add(candle.getVolume());
+        }
+    }
+
+    @Test
+    void smaMatchesTechnicalIndicators() {
+        SmaKernel decimal = new SmaKernel(PERIOD);
+        SmaKernel fast = new SmaKernel(PERIOD, Arithmetic.DOUBLE);
+        for (int i = 0; i < closes.size(); i++) {
+            BigDecimal value = decimal.update(closes.get(i));
+            double fastValue = fast.update(closes.get(i).doubleValue());
+            if (i + 1 < PERIOD) {
+                assertNull(value);
+                assertTrue(Double.isNaN(fastValue));
+                continue;
+            }
+            BigDecimal expected = TechnicalIndicators.calculateSMA(closes.subList(0, i + 1), PERIOD);
+            assertEqualValue(expected, value, "SMA", i);
+            assertClose(expected, fastValue, 1e-6, "SMA", i);
+        }
+    }
+
+    @Test
+    void emaMatchesTechnicalIndicators() {
+        EmaKernel decimal = new EmaKernel(PERIOD);
+        EmaKernel fast = new EmaKernel(PERIOD, Arithmetic.DOUBLE);
+        for (int i = 0; i < closes.size(); i++) {
+            BigDecimal value = decimal.update(closes.get(i));
+            double fastValue = fast.update(closes.get(i).doubleValue());
+            if (i + 1 < PERIOD) {
+                assertNull(value);
+                continue;
+            }
+            BigDecimal expected = TechnicalIndicators.calculateEMA(closes.subList(0, i + 1), PERIOD)
+                .setScale(StreamingKernel.SCALE, RoundingMode.HALF_UP);
+            assertEqualValue(expected, value, "EMA", i);
+            assertClose(expected, fastValue, 1e-6, "EMA", i);
+        }
+    }
+
+    @Test
+    void wmaMatchesTechnicalIndicators() {
+        WmaKernel decimal = new WmaKernel(PERIOD);
+        WmaKernel fast = new WmaKernel(PERIOD, Arithmetic.DOUBLE);
+        for (int i = 0; i < closes.size(); i++) {
+            BigDecimal value = decimal.update(closes.get(i));
+            double fastValue = fast.update(closes.get(i).doubleValue());
+            if (i + 1 < PERIOD) {
+                assertNull(value);
+                assertTrue(Double.isNaN(fastValue));
+                continue;
+            }
+            BigDecimal expected = TechnicalIndicators.calculateWMA(closes.subList(0, i + 1), PERIOD);
+            assertEqualValue(expected, value, "WMA", i);
+            assertClose(expected, fastValue, 1e-6, "WMA", i);
+        }
+    }
+
+    @Test
+    void rmaMatchesTechnicalIndicators() {
+        RmaKernel decimal = new RmaKernel(PERIOD);
+        RmaKernel fast = new RmaKernel(PERIOD, Arithmetic.DOUBLE);
+        for (int i = 0; i < closes.size(); i++) {
+            BigDecimal value = decimal.update(closes.get(i));
+            double fastValue = fast.update(closes.get(i).doubleValue());
+            if (i + 1 < PERIOD) {
+                assertNull(value);
+                continue;
+            }
+            BigDecimal expected = TechnicalIndicators.calculateRMA(closes.subList(0, i + 1), PERIOD)
+                .setScale(StreamingKernel.SCALE, RoundingMode.HALF_UP);
+            assertEqualValue(expected, value, "RMA", i);
+            assertClose(expected, fastValue, 1e-6, "RMA", i);
+        }
+    }
+
+    @Test
+    void hmaRawValueMatchesTechnicalIndicators() {
+        // calculateHMA stops at 2 * WMA(n/2) - WMA(n), which the kernel exposes as the raw value
+        HmaKernel decimal = new HmaKernel(PERIOD);
+        HmaKernel fast = new HmaKernel(PERIOD, Arithmetic.DOUBLE);
+        for (int i = 0; i < closes.size(); i++) {
+            decimal.update(closes.get(i));
+            fast.update(closes.get(i).doubleValue());
+            if (i + 1 < PERIOD) {
+                assertNull(decimal.getRawValue());
+                continue;
+            }
+            BigDecimal expected = TechnicalIndicators.calculateHMA(closes.subList(0, i + 1), PERIOD);
+            assertEqualValue(expected, decimal.getRawValue(), "HMA raw", i);
+            assertClose(expected, fast.getRawValue().doubleValue(), 1e-6, "HMA raw", i);
+        }
+    }
+
+    @Test
+    void vwapMatchesTechnicalIndicators() {
+        VwapKernel session = new VwapKernel();
+        VwapKernel rolling = new VwapKernel(PERIOD, Arithmetic.DECIMAL);
+        VwapKernel fastRolling = new VwapKernel(PERIOD, Arithmetic.DOUBLE);
+        for (int i = 0; i < closes.size(); i++) {
+            BigDecimal sessionValue = session.update(closes.get(i), volumes.get(i));
+            BigDecimal rollingValue = rolling.update(closes.get(i), volumes.get(i));
+            double fastValue = fastRolling.update(closes.get(i).doubleValue(), volumes.get(i).doubleValue());
+
+            BigDecimal expectedSession = TechnicalIndicators.calculateVWAP(closes.subList(0, i + 1),
+                volumes.subList(0, i + 1));
+            assertEqualValue(expectedSession, sessionValue, "session VWAP", i);
+
+            if (i + 1 < PERIOD) {
+                assertNull(rollingValue);
+                continue;
+            }
+            int from = i + 1 - PERIOD;
+            BigDecimal expected = TechnicalIndicators.calculateVWAP(closes.subList(from, i + 1),
+                volumes.subList(from, i + 1));
+            assertEqualValue(expected, rollingValue, "rolling VWAP", i);
+            assertClose(expected, fastValue, 1e-6, "rolling VWAP", i);
+        }
+    }
+
+    @Test
+    void macdLineMatchesTechnicalIndicators() {
+        int fastPeriod = 12;
+        int slowPeriod = 26;
+        MacdKernel decimal = new MacdKernel(fastPeriod, slowPeriod, 9);
+        MacdKernel fast = new MacdKernel(fastPeriod, slowPeriod, 9, Arithmetic.DOUBLE);
+        for (int i = 0; i < closes.size(); i++) {
+            BigDecimal value = decimal.update(closes.get(i));
+            double fastValue = fast.update(closes.get(i).doubleValue());
+            BigDecimal[] expected = TechnicalIndicators.calculateMACD(closes.subList(0, i + 1),
+                fastPeriod, slowPeriod, 9);
+            if (expected == null) {
+                assertNull(value, "MACD ready too early at " + i);
+                continue;
+            }
+            // Only the MACD line: the reference's signal line is a copy of it
+            BigDecimal expectedLine = expected[0].setScale(StreamingKernel.SCALE, RoundingMode.HALF_UP);
+            assertEqualValue(expectedLine, value, "MACD line", i);
+            assertClose(expectedLine, fastValue, 1e-6, "MACD line", i);
+        }
+    }
+
+    @Test
+    void obvMatchesTechnicalIndicators() {
+        ObvKernel decimal = new ObvKernel();
+        ObvKernel fast = new ObvKernel(Arithmetic.DOUBLE);
+        for (int i = 0; i < closes.size(); i++) {
+            BigDecimal value = decimal.update(closes.get(i), volumes.get(i));
+            double fastValue = fast.update(closes.get(i).doubleValue(), volumes.get(i).doubleValue());
+            if (i == 0) {
+                assertNull(value);
+                continue;
+            }
+            BigDecimal expected = TechnicalIndicators.calculateOBV(closes.subList(0, i + 1), volumes.subList(0, i + 1));
+            assertEqualValue(expected, value, "OBV", i);
+            assertClose(expected, fastValue, 1e-6, "OBV", i);
+        }
+    }
+
+    @Test
+    void rsiMatchesTechnicalIndicators() {
+        RsiKernel decimal = new RsiKernel(PERIOD);
+        RsiKernel fast = new RsiKernel(PERIOD, Arithmetic.DOUBLE);
+        for (int i = 0; i < closes.size(); i++) {
+            BigDecimal value = decimal.update(closes.get(i));
+            double fastValue = fast.update(closes.get(i).doubleValue());
+            BigDecimal expected = TechnicalIndicators.calculateRSI(closes.subList(0, i + 1), PERIOD);
+            if (expected == null) {
+                assertNull(value, "RSI ready too early at " + i);
+                continue;
+            }
+            assertEqualValue(expected, value, "RSI", i);
+            // The reference rounds the RSI to 2 decimals
+            assertClose(expected, fastValue, 0.01, "RSI", i);
+        }
+    }
+
+    @Test
+    void stdDevMatchesTechnicalIndicators() {
+        StdDevKernel decimal = new StdDevKernel(PERIOD);
+        StdDevKernel fast = new StdDevKernel(PERIOD, Arithmetic.DOUBLE);
+        BigDecimal deviations = new BigDecimal("2");
+        for (int i = 0; i < closes.size(); i++) {
+            BigDecimal value = decimal.update(closes.get(i));
+            double fastValue = fast.update(closes.get(i).doubleValue());
+            if (i + 1 < PERIOD) {
+                assertNull(value);
+                continue;
+            }
+            List<BigDecimal> prefix = closes.subList(0, i + 1);
+            BigDecimal expected = TechnicalIndicators.calculateStandardDeviation(prefix, PERIOD);
+            assertEqualValue(expected, value, "stddev", i);
+            // The reference's fixed 10-step Newton square root is off for large variances; DOUBLE uses Math.sqrt
+            assertEquals(Math.sqrt(variance(prefix)), fastValue, 1e-6, "DOUBLE stddev at " + i);
+
+            BigDecimal[] expectedBands = TechnicalIndicators.calculateBollingerBands(prefix, PERIOD, deviations);
+            BigDecimal[] bands = decimal.getBollingerBands(deviations);
+            for (int b = 0; b < 3; b++) {
+                assertEqualValue(expectedBands[b], bands[b], "Bollinger band " + b, i);
+            }
+        }
+    }
+
+    @Test
+    void atrMatchesTechnicalIndicatorsOverLastBars() {
+        AtrKernel decimal = new AtrKernel(PERIOD);
+        AtrKernel fast = new AtrKernel(PERIOD, false, Arithmetic.DOUBLE);
+        for (int i = 0; i < closes.size(); i++) {
+            BigDecimal value = decimal.update(highs.get(i), lows.get(i), closes.get(i));
+            double fastValue = fast.update(highs.get(i).doubleValue(), lows.get(i).doubleValue(),
+                closes.get(i).doubleValue());
+            if (i < PERIOD) {
+                assertNull(value);
+                continue;
+            }
+            // calculateATR averages the true ranges of the first period + 1 bars it is given
+            int from = i - PERIOD;
+            BigDecimal expected = TechnicalIndicators.calculateATR(highs.subList(from, i + 1),
+                lows.subList(from, i + 1), closes.subList(from, i + 1), PERIOD);
+            assertEqualValue(expected, value, "ATR", i);
+            assertClose(expected, fastValue, 1e-6, "ATR", i);
+        }
+    }
+
+    @Test
+    void superTrendMatchesTechnicalIndicatorsWithThreadedState() {
+        int period = 10;
+        SuperTrendKernel decimal = new SuperTrendKernel(period, MULTIPLIER);
+        SuperTrendKernel fast = new SuperTrendKernel(period, MULTIPLIER, Arithmetic.DOUBLE);
+        BigDecimal previousValue = null;
+        BigDecimal previousDirection = null;
+        int flips = 0;
+        for (int i = 0; i < closes.size(); i++) {
+            BigDecimal value = decimal.update(highs.get(i), lows.get(i), closes.get(i));
+            double fastValue = fast.update(highs.get(i).doubleValue(), lows.get(i).doubleValue(),
+                closes.get(i).doubleValue());
+            if (i < period) {
+                assertNull(value);
+                assertEquals(0, decimal.getDirection());
+                continue;
+            }
+            int from = i - period;
+            BigDecimal[] expected = TechnicalIndicators.calculateSuperTrend(highs.subList(from, i + 1),
+                lows.subList(from, i + 1), closes.subList(from, i + 1), period, MULTIPLIER,
+                previousValue, previousDirection);
+            assertEqualValue(expected[0], value, "SuperTrend", i);
+            assertEquals(expected[1].intValue(), decimal.getDirection(), "SuperTrend direction at " + i);
+            assertEquals(expected[1].intValue(), fast.getDirection(), "DOUBLE SuperTrend direction at " + i);
+            assertClose(expected[0], fastValue, 1e-6, "SuperTrend", i);
+
+            if (previousDirection != null && previousDirection.compareTo(expected[1]) != 0) {
+                flips++;
+            }
+            previousValue = expected[0];
+            previousDirection = expected[1];
+        }
+        // The fixture has to exercise both trend directions for the band rules to be covered
+        assertTrue(flips > 0, "no SuperTrend flips in the fixture");
+    }
+
+    @Test
+    void resetStartsOver() {
+        RsiKernel rsi = new RsiKernel(PERIOD);
+        SuperTrendKernel superTrend = new SuperTrendKernel(10, MULTIPLIER);
+        for (int i = 0; i < 200; i++) {
+            rsi.update(closes.get(i));
+            superTrend.update(highs.get(i), lows.get(i), closes.get(i));
+        }
+        rsi.reset();
+        superTrend.reset();
+        assertFalse(rsi.isReady());
+        assertFalse(superTrend.isReady());
+
+        List<BigDecimal> tail = closes.subList(200, 400);
+        BigDecimal value = null;
+        for (BigDecimal close : tail) {
+            value = rsi.update(close);
+        }
+        assertEqualValue(TechnicalIndicators.calculateRSI(tail, PERIOD), value, "RSI after reset", 399);
+    }
+
+    private static double variance(List<BigDecimal> prices) {
+        BigDecimal mean = TechnicalIndicators.calculateSMA(prices, PERIOD);
+        BigDecimal sum = BigDecimal.ZERO;
+        for (BigDecimal price : prices.subList(prices.size() - PERIOD, prices.size())) {
+            sum = sum.add(price.subtract(mean).pow(2));
+        }
+        return sum.doubleValue() / PERIOD;
+    }
+
+    private static void assertEqualValue(BigDecimal expected, BigDecimal actual, String name, int index) {
+        assertNotNull(actual, name + " not ready at " + index);
+        assertEquals(0, expected.compareTo(actual), () -> name + " at " + index + ": expected " + expected +
+            " but was " + actual);
+    }
+
+    private static void assertClose(BigDecimal expected, double actual, double tolerance, String name, int index) {
+        assertEquals(expected.doubleValue(), actual, tolerance, () -> "DOUBLE " + name + " at " + index);
+    }
+}
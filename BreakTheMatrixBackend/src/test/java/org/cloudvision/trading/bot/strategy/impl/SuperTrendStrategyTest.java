@@ -0,0 +1,147 @@
+package org.cloudvision.trading.bot.strategy.impl;
+
+import org.cloudvision.trading.MarketDataFixtures;
+import org.cloudvision.trading.bot.account.AccountManager;
+import org.cloudvision.trading.bot.account.PositionSide;
+import org.cloudvision.trading.bot.backtest.BacktestAccount;
+import org.cloudvision.trading.bot.indicators.streaming.SuperTrendKernel;
+import org.cloudvision.trading.bot.model.Order;
+import org.cloudvision.trading.bot.strategy.StrategyConfig;
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.model.TradingData;
+import org.cloudvision.trading.model.TradingDataType;
+import org.cloudvision.trading.service.CandlestickHistoryService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The live path must produce the signals of the streaming SuperTrend used for the chart history
+ */
+class SuperTrendStrategyTest {
+
+    private static final int ATR_PERIOD = 10;
+    private static final BigDecimal MULTIPLIER = new BigDecimal("3");
+    private static final int WARMUP = 300;
+
+    private final List<CandlestickData> candles = closed(MarketDataFixtures.candles());
+    private final CandlestickHistoryService history = new CandlestickHistoryService();
+
+    @Test
+    void bootstrappedSignalsMatchKernel() {
+        SuperTrendStrategy strategy = strategy();
+        List<CandlestickData> warmup = candles.subList(0, WARMUP);
+        history.addCandlesticks("Binance", "BTCUSDT", "1m", warmup);
+        strategy.bootstrapWithHistoricalData(new ArrayList<>(warmup));
+
+        assertEquals(expectedSignals(), run(strategy));
+    }
+
+    @Test
+    void restartWithoutBootstrapWarmsUpFromHistory() {
+        // e.g. after a checkpoint restore: the candles are in the history service but the strategy has no state
+        SuperTrendStrategy strategy = strategy();
+        history.addCandlesticks("Binance", "BTCUSDT", "1m", candles.subList(0, WARMUP));
+
+        assertEquals(expectedSignals(), run(strategy));
+    }
+
+    @Test
+    void atrPeriodChangesTheSignals() {
+        SuperTrendStrategy strategy = strategy();
+        history.addCandlesticks("Binance", "BTCUSDT", "1m", candles.subList(0, WARMUP));
+        List<String> defaults = run(strategy);
+
+        CandlestickHistoryService otherHistory = new CandlestickHistoryService();
+        otherHistory.addCandlesticks("Binance", "BTCUSDT", "1m", candles.subList(0, WARMUP));
+        StrategyConfig config = new StrategyConfig("supertrend-test", List.of("BTCUSDT"));
+        config.setParameter("atrPeriod", 30);
+        SuperTrendStrategy other = new SuperTrendStrategy();
+        other.initialize(config);
+        other.useIsolatedServices(new AccountManager(account()), otherHistory);
+        List<String> slower = new ArrayList<>();
+        for (CandlestickData candle : candles.subList(WARMUP, candles.size())) {
+            otherHistory.addCandlestick(candle);
+            for (Order order : other.analyze(kline(candle))) {
+                slower.add(describe(candle, order));
+            }
+        }
+
+        assertFalse(defaults.isEmpty());
+        assertNotEquals(defaults, slower);
+    }
+
+    private SuperTrendStrategy strategy() {
+        StrategyConfig config = new StrategyConfig("supertrend-test", List.of("BTCUSDT"));
+        config.setParameter("atrPeriod", ATR_PERIOD);
+        config.setParameter("atrMultiplier", "3");
+        SuperTrendStrategy strategy = new SuperTrendStrategy();
+        strategy.initialize(config);
+        strategy.useIsolatedServices(new AccountManager(account()), history);
+        return strategy;
+    }
+
+    private static BacktestAccount account() {
+        return new BacktestAccount("test", new BigDecimal("10000"), BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    /**
+     * Feed the candles after the warm-up like the live pipeline does (history first, then the strategy)
+     */
+    private List<String> run(SuperTrendStrategy strategy) {
+        List<String> signals = new ArrayList<>();
+        for (CandlestickData candle : candles.subList(WARMUP, candles.size())) {
+            history.addCandlestick(candle);
+            for (Order order : strategy.analyze(kline(candle))) {
+                signals.add(describe(candle, order));
+            }
+        }
+        return signals;
+    }
+
+    /**
+     * Orders the strategy should place: one per direction flip (no order is ever filled, so no position blocks it)
+     */
+    private List<String> expectedSignals() {
+        SuperTrendKernel kernel = new SuperTrendKernel(ATR_PERIOD, MULTIPLIER);
+        List<String> signals = new ArrayList<>();
+        for (int i = 0; i < candles.size(); i++) {
+            CandlestickData candle = candles.get(i);
+            int previous = kernel.getDirection();
+            BigDecimal value = kernel.update(candle.getHigh(), candle.getLow(), candle.getClose());
+            if (i < WARMUP || value == null) {
+                continue;
+            }
+            if (kernel.getDirection() < 0 && previous >= 0) {
+                signals.add(candle.getOpenTime() + " LONG stop " + value.multiply(new BigDecimal("0.995")));
+            } else if (kernel.getDirection() > 0 && previous < 0) {
+                signals.add(candle.getOpenTime() + " SHORT stop " + value.multiply(new BigDecimal("1.005")));
+            }
+        }
+        assertTrue(signals.size() > 2, "fixture has too few SuperTrend flips");
+        return signals;
+    }
+
+    private static String describe(CandlestickData candle, Order order) {
+        return candle.getOpenTime() + " " + order.getPositionSide() + " stop " + order.getSuggestedStopLoss();
+    }
+
+    private static TradingData kline(CandlestickData candle) {
+        return new TradingData(candle.getSymbol(), candle.getCloseTime(), candle.getProvider(),
+            TradingDataType.KLINE, candle);
+    }
+
+    private static List<CandlestickData> closed(List<CandlestickData> source) {
+        List<CandlestickData> result = new ArrayList<>();
+        for (CandlestickData candle : source) {
+            if (candle.isClosed()) {
+                result.add(candle);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,229 @@
+package org.cloudvision.trading.orderbook;
+
+import org.cloudvision.trading.model.OrderBookData;
+import org.cloudvision.trading.model.OrderBookData.OrderBookLevel;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Update-id sequencing of the diff depth stream, and the book against a TreeMap reference
+ */
+class OrderBookSynchronizerTest {
+
+    private final List<String> snapshotRequests = new ArrayList<>();
+    private final OrderBookSynchronizer sync = new OrderBookSynchronizer("BTCUSDT", snapshotRequests::add);
+
+    @Test
+    void buffersDiffsUntilSnapshotAndReplaysNewerOnes() {
+        assertFalse(sync.onDiff(diff(95, 101, bid("100.5", "2"))));
+        assertFalse(sync.onDiff(diff(102, 105, bid("100.4", "0"), ask("101", "1.5"))));
+        assertEquals(List.of("BTCUSDT"), snapshotRequests, "one snapshot request while buffering");
+
+        assertTrue(sync.onSnapshot(snapshot(100,
+            new String[][] { { "100.4", "1" }, { "100.3", "1" }, { "99", "5" } },
+            new String[][] { { "101", "3" }, { "102", "4" } })));
+
+        // 95-101 straddles the snapshot and is applied, 102-105 follows it
+        LocalOrderBook book = sync.getBook();
+        assertTrue(sync.isSynced());
+        assertEquals(105, book.getLastUpdateId());
+        assertEquals(2, sync.getAppliedDiffs());
+        assertEquals(LocalOrderBook.parseScaled("100.5"), book.getBestBidScaled());
+        assertEquals(LocalOrderBook.parseScaled("101"), book.getBestAskScaled());
+        assertEquals(3, book.getBidLevelCount()); // 100.5, 100.3, 99 (100.4 removed)
+
+        OrderBookData data = book.toOrderBookData(2, Instant.EPOCH, "Binance");
+        assertEquals(0, new BigDecimal("1.5").compareTo(data.getAsks().get(0).getQuantity()));
+        assertEquals(0, new BigDecimal("3").compareTo(data.getTotalBidVolume(2))); // 2 + 1
+    }
+
+    @Test
+    void staleDiffsAreIgnoredOnceSynced() {
+        sync.onDiff(diff(99, 101, bid("100", "1")));
+        sync.onSnapshot(snapshot(100, new String[][] { { "100", "1" } }, new String[][] { { "101", "1" } }));
+
+        assertFalse(sync.onDiff(diff(90, 101, bid("100", "7"))));
+        assertTrue(sync.onDiff(diff(102, 102, bid("100", "2"))));
+        assertEquals(LocalOrderBook.parseScaled("2"), sync.getBook().getBidDepthScaled(1));
+        assertEquals(1, snapshotRequests.size());
+    }
+
+    @Test
+    void gapTriggersResyncFromNewSnapshot() {
+        sync.onDiff(diff(100, 101));
+        sync.onSnapshot(snapshot(100, new String[][] { { "100", "1" } }, new String[][] { { "101", "1" } }));
+        assertTrue(sync.onDiff(diff(102, 103)));
+
+        // 104 is missing
+        assertFalse(sync.onDiff(diff(105, 106, bid("100", "9"))));
+        assertFalse(sync.isSynced());
+        assertEquals(1, sync.getResyncCount());
+        assertEquals(2, snapshotRequests.size());
+
+        assertFalse(sync.onDiff(diff(107, 108, ask("101", "2"))));
+        assertEquals(2, snapshotRequests.size(), "no second request while one is pending");
+
+        assertTrue(sync.onSnapshot(snapshot(106, new String[][] { { "100", "9" } }, new String[][] { { "101", "1" } })));
+        assertEquals(108, sync.getBook().getLastUpdateId());
+        assertEquals(LocalOrderBook.parseScaled("2"), sync.getBook().getAskDepthScaled(1));
+    }
+
+    @Test
+    void snapshotBehindStreamRequestsAnother() {
+        sync.onDiff(diff(200, 210));
+        assertFalse(sync.onSnapshot(snapshot(150, new String[][] { { "100", "1" } }, new String[0][])));
+        assertFalse(sync.isSynced());
+        assertEquals(2, snapshotRequests.size());
+
+        assertTrue(sync.onSnapshot(snapshot(205, new String[][] { { "100", "1" } }, new String[0][])));
+        assertEquals(210, sync.getBook().getLastUpdateId());
+    }
+
+    @Test
+    void resetWaitsForNewSnapshot() {
+        sync.onDiff(diff(100, 101));
+        sync.onSnapshot(snapshot(100, new String[][] { { "100", "1" } }, new String[0][]));
+        sync.reset();
+
+        assertFalse(sync.isSynced());
+        assertEquals(0, sync.getBook().getBidLevelCount());
+        assertFalse(sync.onDiff(diff(500, 501)));
+        assertEquals(2, snapshotRequests.size());
+    }
+
+    @Test
+    void randomDiffsMatchTreeMapBook() {
+        Random random = new Random(7);
+        TreeMap<Long, Long> bids = new TreeMap<>(Collections.reverseOrder());
+        TreeMap<Long, Long> asks = new TreeMap<>();
+        long tick = LocalOrderBook.parseScaled("0.1");
+        long mid = LocalOrderBook.parseScaled("60000");
+
+        sync.onDiff(diff(1, 1));
+        sync.onSnapshot(DepthDiff.snapshot(0, 0, new long[0], new long[0], new long[0], new long[0]));
+        long updateId = 1;
+        for (int step = 0; step < 5000; step++) {
+            int changes = 1 + random.nextInt(8);
+            long[] bidPrices = new long[changes];
+            long[] bidQuantities = new long[changes];
+            long[] askPrices = new long[changes];
+            long[] askQuantities = new long[changes];
+            for (int i = 0; i < changes; i++) {
+                bidPrices[i] = mid - (1 + random.nextInt(400)) * tick;
+                askPrices[i] = mid + (1 + random.nextInt(400)) * tick;
+                // A third of the updates remove the level
+                bidQuantities[i] = random.nextInt(3) == 0 ? 0 : random.nextInt(1_000_000_000);
+                askQuantities[i] = random.nextInt(3) == 0 ? 0 : random.nextInt(1_000_000_000);
+                put(bids, bidPrices[i], bidQuantities[i]);
+                put(asks, askPrices[i], askQuantities[i]);
+            }
+            long first = updateId + 1;
+            updateId += changes;
+            assertTrue(sync.onDiff(new DepthDiff(first, updateId, step, bidPrices, bidQuantities, askPrices, askQuantities)));
+
+            LocalOrderBook book = sync.getBook();
+            assertEquals(bids.size(), book.getBidLevelCount());
+            assertEquals(asks.size(), book.getAskLevelCount());
+            assertEquals(bids.isEmpty() ? 0 : bids.firstKey(), book.getBestBidScaled());
+            assertEquals(asks.isEmpty() ? 0 : asks.firstKey(), book.getBestAskScaled());
+            assertEquals(depth(bids, 20), book.getBidDepthScaled(20));
+            assertEquals(depth(asks, 20), book.getAskDepthScaled(20));
+        }
+
+        OrderBookData data = sync.getBook().toOrderBookData(50, Instant.EPOCH, "Binance");
+        assertLevels(bids, data.getBids());
+        assertLevels(asks, data.getAsks());
+        assertEquals(0, sync.getResyncCount());
+    }
+
+    @Test
+    void parseScaledRejectsOverflow() {
+        assertEquals(1, LocalOrderBook.parseScaled("0.00000001"));
+        assertEquals(1_234_560_000_000L, LocalOrderBook.parseScaled("12345.6"));
+        assertEquals(0, new BigDecimal("12345.6").compareTo(LocalOrderBook.toBigDecimal(LocalOrderBook.parseScaled("12345.600"))));
+        assertEquals(-150_000_000L, LocalOrderBook.parseScaled("-1.5"));
+
+        char[] buffer = "x92233720368.54775807x".toCharArray();
+        assertEquals(Long.MAX_VALUE, LocalOrderBook.parseScaled(buffer, 1, buffer.length - 2));
+        assertThrows(ArithmeticException.class, () -> LocalOrderBook.parseScaled("92233720368.54775808"));
+        assertThrows(ArithmeticException.class, () -> LocalOrderBook.parseScaled("100000000000"));
+        assertThrows(NumberFormatException.class, () -> LocalOrderBook.parseScaled("1e5"));
+    }
+
+    private static void put(Map<Long, Long> side, long price, long quantity) {
+        if (quantity == 0) {
+            side.remove(price);
+        } else {
+            side.put(price, quantity);
+        }
+    }
+
+    private static long depth(TreeMap<Long, Long> side, int levels) {
+        long total = 0;
+        int n = 0;
+        for (long quantity : side.values()) {
+            if (n++ == levels) {
+                break;
+            }
+            total += quantity;
+        }
+        return total;
+    }
+
+    private static void assertLevels(TreeMap<Long, Long> expected, List<OrderBookLevel> levels) {
+        assertEquals(Math.min(50, expected.size()), levels.size());
+        int i = 0;
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            if (i == levels.size()) {
+                break;
+            }
+            OrderBookLevel level = levels.get(i++);
+            assertEquals(0, LocalOrderBook.toBigDecimal(entry.getKey()).compareTo(level.getPrice()));
+            assertEquals(0, LocalOrderBook.toBigDecimal(entry.getValue()).compareTo(level.getQuantity()));
+        }
+    }
+
+    private static DepthDiff diff(long first, long last, String[]... levels) {
+        List<String[]> bidLevels = new ArrayList<>();
+        List<String[]> askLevels = new ArrayList<>();
+        for (String[] level : levels) {
+            (level[0].equals("bid") ? bidLevels : askLevels).add(new String[] { level[1], level[2] });
+        }
+        long[][] b = scaled(bidLevels.toArray(new String[0][]));
+        long[][] a = scaled(askLevels.toArray(new String[0][]));
+        return new DepthDiff(first, last, 0, b[0], b[1], a[0], a[1]);
+    }
+
+    private static DepthDiff snapshot(long lastUpdateId, String[][] bidLevels, String[][] askLevels) {
+        long[][] b = scaled(bidLevels);
+        long[][] a = scaled(askLevels);
+        return DepthDiff.snapshot(lastUpdateId, 0, b[0], b[1], a[0], a[1]);
+    }
+
+    private static long[][] scaled(String[][] levels) {
+        long[][] result = new long[2][levels.length];
+        for (int i = 0; i < levels.length; i++) {
+            result[0][i] = LocalOrderBook.parseScaled(levels[i][0]);
+            result[1][i] = LocalOrderBook.parseScaled(levels[i][1]);
+        }
+        return result;
+    }
+
+    private static String[] bid(String price, String quantity) {
+        return new String[] { "bid", price, quantity };
+    }
+
+    private static String[] ask(String price, String quantity) {
+        return new String[] { "ask", price, quantity };
+    }
+}
@@ -0,0 +1,164 @@
+package org.cloudvision.trading.profile;
+
+import org.cloudvision.trading.MarketDataFixtures;
+import org.cloudvision.trading.model.FixedPoint;
+import org.cloudvision.trading.model.FixedTrade;
+import org.cloudvision.trading.model.InstrumentSpec;
+import org.cloudvision.trading.model.TimeInterval;
+import org.cloudvision.trading.model.TradeData;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Incremental profiles against a brute-force scan of the fixture trades (about 20k trades)
+ */
+class SymbolProfileBookTest {
+
+    private static final BigDecimal ROW_SIZE = new BigDecimal("5");
+    private static final InstrumentSpec BTCUSDT = new InstrumentSpec("BTCUSDT",
+        new BigDecimal("0.01"), new BigDecimal("0.00001"));
+    private static final long TPO_MILLIS = TimeInterval.THIRTY_MINUTES.getMillis();
+    private static final long SLICE_MILLIS = TimeInterval.ONE_MINUTE.getMillis();
+
+    private final List<FixedTrade> trades = fixedTrades();
+    private final long first = trades.get(0).getTimestamp();
+    private final long last = trades.get(trades.size() - 1).getTimestamp();
+
+    @Test
+    void periodProfilesMatchBruteForce() {
+        SymbolProfileBook book = filledBook(168);
+
+        for (TimeInterval period : List.of(TimeInterval.EIGHT_HOURS, TimeInterval.ONE_DAY, TimeInterval.ONE_WEEK)) {
+            VolumeProfile current = book.getCurrentProfile(period);
+            assertNotNull(current, period.getValue());
+            assertRows(bruteForce(current.getStartTime().toEpochMilli(), Long.MAX_VALUE), current, true);
+
+            for (VolumeProfile closed : book.getCompletedProfiles(period, 10)) {
+                assertRows(bruteForce(closed.getStartTime().toEpochMilli(), closed.getEndTime().toEpochMilli()),
+                    closed, true);
+            }
+        }
+
+        VolumeProfile composite = book.getCompositeProfile(TimeInterval.EIGHT_HOURS, 3);
+        assertRows(bruteForce(composite.getStartTime().toEpochMilli(), Long.MAX_VALUE), composite, true);
+    }
+
+    @Test
+    void randomRangesMatchBruteForce() {
+        SymbolProfileBook book = filledBook(168);
+        Random random = new Random(1);
+        for (int i = 0; i < 300; i++) {
+            long from = first - 3_600_000 + (long) (random.nextDouble() * (last - first + 7_200_000));
+            long to = from + (long) (random.nextDouble() * (last - first));
+            // Ranges aligned to the TPO period have exact TPO counts; others are exact to the slice
+            boolean tpoAligned = i % 2 == 0;
+            long unit = tpoAligned ? TPO_MILLIS : SLICE_MILLIS;
+            from = Math.floorDiv(from, unit) * unit;
+            to = Math.floorDiv(to, unit) * unit + unit - 1;
+
+            assertRows(bruteForce(from, to), book.getRangeProfile("range", from, to), tpoAligned);
+        }
+    }
+
+    @Test
+    void evictedHistoryIsRebasedOutOfTheSums() {
+        // Two hours retained with 7-slice blocks: most of the fixture is evicted along the way
+        SymbolProfileBook book = filledBook(2);
+        long retainedFrom = last - 90 * SLICE_MILLIS;
+        retainedFrom = Math.floorDiv(retainedFrom, SLICE_MILLIS) * SLICE_MILLIS;
+
+        assertRows(bruteForce(retainedFrom, Long.MAX_VALUE), book.getRangeProfile("range", retainedFrom, Long.MAX_VALUE), false);
+
+        // 1000 slices of 1e16 would overflow a running total that kept evicted volume
+        LevelPrefixSums sums = new LevelPrefixSums(7, 120);
+        ProfileLadder slice = new ProfileLadder();
+        for (int minute = 0; minute < 1000; minute++) {
+            slice.clear();
+            slice.addVolume(0, 10_000_000_000_000_000L, true);
+            sums.append(minute * SLICE_MILLIS, slice);
+        }
+        ProfileLadder retained = sums.range(sums.getFirstTime(), Long.MAX_VALUE);
+        long volume = 0;
+        for (long level = retained.getMinLevel(); level <= retained.getMaxLevel(); level++) {
+            volume += retained.getVolume(level);
+        }
+        assertEquals(sums.getSliceCount() * 10_000_000_000_000_000L, volume);
+    }
+
+    @Test
+    void volumeOverflowIsReported() {
+        ProfileLadder ladder = new ProfileLadder();
+        ladder.addVolume(1, Long.MAX_VALUE - 1, true);
+        assertThrows(ArithmeticException.class, () -> ladder.addVolume(1, 2, true));
+    }
+
+    private SymbolProfileBook filledBook(int retentionHours) {
+        ProfileSettings settings = new ProfileSettings(
+            List.of(TimeInterval.EIGHT_HOURS, TimeInterval.ONE_DAY, TimeInterval.ONE_WEEK),
+            TimeInterval.ONE_MINUTE, TimeInterval.THIRTY_MINUTES, 7, retentionHours, 30, 70, 2);
+        SymbolProfileBook book = new SymbolProfileBook("BTCUSDT", ROW_SIZE, BTCUSDT.getQuantityScale(), settings);
+        for (FixedTrade trade : trades) {
+            book.onTrade(trade);
+        }
+        return book;
+    }
+
+    private static List<FixedTrade> fixedTrades() {
+        List<FixedTrade> result = new ArrayList<>();
+        for (TradeData trade : MarketDataFixtures.trades(20)) {
+            result.add(FixedTrade.from(trade, BTCUSDT));
+        }
+        return result;
+    }
+
+    /**
+     * Row -> {buy, sell, tpo} of the trades in [from, toInclusive]
+     */
+    private Map<Long, long[]> bruteForce(long from, long toInclusive) {
+        Map<Long, long[]> rows = new TreeMap<>();
+        Set<String> touched = new HashSet<>();
+        long tick = FixedPoint.toScaled(ROW_SIZE, BTCUSDT.getPriceScale());
+        for (FixedTrade trade : trades) {
+            if (trade.getTimestamp() < from || trade.getTimestamp() > toInclusive) {
+                continue;
+            }
+            long level = FixedPoint.toTicks(trade.getPrice(), tick);
+            long[] row = rows.computeIfAbsent(level, k -> new long[3]);
+            row[trade.isAggressiveBuy() ? 0 : 1] += trade.getQuantity();
+            if (touched.add(level + "|" + Math.floorDiv(trade.getTimestamp(), TPO_MILLIS))) {
+                row[2]++;
+            }
+        }
+        return rows;
+    }
+
+    private static void assertRows(Map<Long, long[]> expected, VolumeProfile profile, boolean compareTpo) {
+        Map<Long, long[]> actual = new TreeMap<>();
+        for (VolumeProfile.Level level : profile.getLevels()) {
+            long buy = FixedPoint.toScaled(level.getBuyVolume(), BTCUSDT.getQuantityScale());
+            long sell = FixedPoint.toScaled(level.getSellVolume(), BTCUSDT.getQuantityScale());
+            if (buy != 0 || sell != 0) {
+                actual.put(level.getPrice().divide(ROW_SIZE).longValueExact(),
+                    new long[]{buy, sell, level.getTpoCount()});
+            }
+        }
+        String where = profile.getPeriod() + " " + profile.getStartTime() + " - " + profile.getEndTime();
+        assertEquals(expected.keySet(), actual.keySet(), where);
+        for (Map.Entry<Long, long[]> row : expected.entrySet()) {
+            long[] expectedRow = compareTpo ? row.getValue() : Arrays.copyOf(row.getValue(), 2);
+            long[] actualRow = compareTpo ? actual.get(row.getKey()) : Arrays.copyOf(actual.get(row.getKey()), 2);
+            assertEquals(Arrays.toString(expectedRow), Arrays.toString(actualRow), where + " row " + row.getKey());
+        }
+    }
+}
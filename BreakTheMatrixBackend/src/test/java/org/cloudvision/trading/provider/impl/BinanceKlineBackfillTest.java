@@ -0,0 +1,160 @@
+package org.cloudvision.trading.provider.impl;
+
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.model.TimeInterval;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pages of a backfill reach the consumer in order and exactly once, whatever order they finish in
+ */
+class BinanceKlineBackfillTest {
+
+    private static final long START = Instant.parse("2025-10-03T00:00:00Z").toEpochMilli();
+    private static final long PAGE_SPAN = TimeInterval.ONE_MINUTE.getMillis() * BinanceKlineBackfill.MAX_KLINES_PER_REQUEST;
+
+    @Test
+    void pagesCompletedOutOfOrderAreEmittedInOrder() {
+        List<Integer> emitted = Collections.synchronizedList(new ArrayList<>());
+        BinanceKlineBackfill.InOrderEmitter emitter = new BinanceKlineBackfill.InOrderEmitter(4,
+            page -> emitted.add(pageOf(page)));
+
+        emitter.complete(2, page(2));
+        emitter.complete(3, page(3));
+        assertEquals(List.of(), emitted);
+        emitter.complete(1, page(1));
+        assertEquals(List.of(), emitted);
+        emitter.complete(0, page(0));
+        assertEquals(List.of(0, 1, 2, 3), emitted);
+
+        List<CandlestickData> stitched = emitter.stitched();
+        assertEquals(8, stitched.size());
+        for (int i = 1; i < stitched.size(); i++) {
+            assertTrue(stitched.get(i).getOpenTime().isAfter(stitched.get(i - 1).getOpenTime()));
+        }
+    }
+
+    @Test
+    void concurrentCompletionsEmitEveryPageExactlyOnce() throws Exception {
+        int pageCount = 200;
+        List<Integer> emitted = Collections.synchronizedList(new ArrayList<>());
+        BinanceKlineBackfill.InOrderEmitter emitter = new BinanceKlineBackfill.InOrderEmitter(pageCount,
+            page -> emitted.add(pageOf(page)));
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < pageCount; i++) {
+            order.add(i);
+        }
+        Collections.shuffle(order, new Random(7));
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int index : order) {
+            pool.submit(() -> {
+                start.await();
+                emitter.complete(index, page(index));
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < pageCount; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, emitted);
+    }
+
+    @Test
+    void failedPageDoesNotHoldBackLaterPages() {
+        BinanceKlineBackfill backfill = new BinanceKlineBackfill();
+        List<Integer> emitted = Collections.synchronizedList(new ArrayList<>());
+        try {
+            List<CandlestickData> result = backfill.fetchRange("BTCUSDT", TimeInterval.ONE_MINUTE,
+                Instant.ofEpochMilli(START), Instant.ofEpochMilli(START + 4 * PAGE_SPAN - 1),
+                (startMs, endMs, limit) -> {
+                    int index = (int) ((startMs - START) / PAGE_SPAN);
+                    if (index == 1) {
+                        throw new IllegalStateException("connection reset");
+                    }
+                    return new BinanceKlineBackfill.Page(page(index), 200, -1, 0);
+                },
+                page -> emitted.add(pageOf(page)));
+
+            assertEquals(List.of(0, 2, 3), emitted);
+            assertEquals(6, result.size());
+        } finally {
+            backfill.shutdown();
+        }
+    }
+
+    @Test
+    void rateLimitedPageIsRetriedAfterTheBackoff() {
+        BinanceKlineBackfill backfill = new BinanceKlineBackfill();
+        List<Long> calls = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger attempts = new AtomicInteger();
+        try {
+            List<CandlestickData> result = backfill.fetchRange("BTCUSDT", TimeInterval.ONE_MINUTE,
+                Instant.ofEpochMilli(START), Instant.ofEpochMilli(START + PAGE_SPAN - 1),
+                (startMs, endMs, limit) -> {
+                    calls.add(System.nanoTime());
+                    if (attempts.incrementAndGet() == 1) {
+                        return new BinanceKlineBackfill.Page(new ArrayList<>(), 429, -1, 300);
+                    }
+                    return new BinanceKlineBackfill.Page(page(0), 200, 10, 0);
+                },
+                null);
+
+            assertEquals(2, calls.size());
+            assertEquals(2, result.size());
+            long waitedMillis = TimeUnit.NANOSECONDS.toMillis(calls.get(1) - calls.get(0));
+            assertTrue(waitedMillis >= 290, "retried after " + waitedMillis + "ms");
+        } finally {
+            backfill.shutdown();
+        }
+    }
+
+    @Test
+    void blockedLimiterHoldsEveryAcquire() throws InterruptedException {
+        BinanceKlineBackfill.WeightLimiter limiter = new BinanceKlineBackfill.WeightLimiter();
+        limiter.acquire(2);
+        limiter.block(200);
+
+        long started = System.nanoTime();
+        limiter.acquire(2);
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        assertTrue(waitedMillis >= 190, "acquired after " + waitedMillis + "ms");
+    }
+
+    /**
+     * Two one-minute candles at the start of the page's range
+     */
+    private static List<CandlestickData> page(int index) {
+        List<CandlestickData> candles = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Instant openTime = Instant.ofEpochMilli(START + index * PAGE_SPAN + i * 60_000L);
+            candles.add(new CandlestickData("BTCUSDT", openTime, openTime.plusMillis(59_999),
+                BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE,
+                1, "1m", "Binance", true));
+        }
+        return candles;
+    }
+
+    private static int pageOf(List<CandlestickData> page) {
+        return (int) ((page.get(0).getOpenTime().toEpochMilli() - START) / PAGE_SPAN);
+    }
+}
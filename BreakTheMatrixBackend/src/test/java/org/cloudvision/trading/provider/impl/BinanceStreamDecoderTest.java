@@ -0,0 +1,83 @@
+package org.cloudvision.trading.provider.impl;
+
+import org.cloudvision.trading.orderbook.LocalOrderBook;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinanceStreamDecoderTest {
+
+    private static final String WEEKLY_KLINE = "{\"e\":\"kline\",\"E\":1759500000000,\"s\":\"BTCUSDT\",\"k\":{" +
+        "\"t\":1759104000000,\"T\":1759708799999,\"s\":\"BTCUSDT\",\"i\":\"1w\",\"o\":\"112000.00000000\"," +
+        "\"c\":\"122500.10000000\",\"h\":\"125000.00000000\",\"l\":\"111500.00000000\",\"v\":\"110000.12345678\"," +
+        "\"n\":25000000,\"x\":false,\"q\":\"130000000000.12345678\"}}";
+
+    private static final String TRADE = "{\"e\":\"trade\",\"E\":1759500000001,\"s\":\"BTCUSDT\",\"t\":42," +
+        "\"p\":\"122500.10000000\",\"q\":\"0.00120000\",\"T\":1759500000000,\"m\":true}";
+
+    // 24h quote volume of a pair quoted in a low-value currency: far past a long at 8 decimals
+    private static final String TICKER = "{\"e\":\"24hrTicker\",\"E\":1759500000002,\"s\":\"BTCIDRT\"," +
+        "\"p\":\"-15000000.00000000\",\"c\":\"1950000000.00000000\",\"v\":\"312.45000000\"," +
+        "\"q\":\"609277500000.12345678\",\"b\":\"1949990000.00000000\",\"a\":\"1950010000.00000000\"}";
+
+    private final BinanceStreamDecoder decoder = new BinanceStreamDecoder();
+
+    @Test
+    void volumesAboveTheFixedPointRangeAreExact() throws Exception {
+        BinanceStreamDecoder.Event event = decoder.decode(WEEKLY_KLINE);
+
+        assertEquals(BinanceStreamDecoder.EventType.KLINE, event.type);
+        assertEquals(12_250_010_000_000L, event.close);
+        assertEquals(new BigDecimal("110000.12345678"), event.klineVolume);
+        // 1.3e19 at 8 decimals: past Long.MAX_VALUE
+        assertEquals(new BigDecimal("130000000000.12345678"), event.quoteVolume);
+    }
+
+    @Test
+    void fieldsOfThePreviousMessageAreCleared() throws Exception {
+        decoder.decode(WEEKLY_KLINE);
+        BinanceStreamDecoder.Event event = decoder.decode(TRADE);
+
+        assertEquals(BinanceStreamDecoder.EventType.TRADE, event.type);
+        assertEquals(42, event.tradeId);
+        assertNull(event.interval);
+        assertNull(event.klineVolume);
+        assertEquals(0, event.close);
+        assertEquals(0, event.openTime);
+
+        event = decoder.decode("{\"result\":null,\"id\":7}");
+        assertEquals(BinanceStreamDecoder.EventType.SUBSCRIPTION_RESULT, event.type);
+        assertEquals(0, event.price);
+        assertEquals(0, event.quantity);
+        assertFalse(event.buyerMaker);
+        assertNull(event.symbol);
+    }
+
+    @Test
+    void tickerQuoteVolumeIsNotATradeQuantity() throws Exception {
+        BinanceStreamDecoder.Event event = decoder.decode(TICKER);
+
+        assertEquals(BinanceStreamDecoder.EventType.TICKER, event.type);
+        assertEquals(195_000_000_000_000_000L, event.lastPrice);
+        assertEquals(new BigDecimal("312.45000000"), event.volume);
+        assertEquals(new BigDecimal("609277500000.12345678"), event.quoteVolume);
+        assertEquals(0, event.quantity);
+
+        // Field order is not guaranteed: a trade whose "q" precedes "e" still gets its quantity
+        event = decoder.decode("{\"q\":\"0.00120000\",\"e\":\"trade\",\"s\":\"BTCUSDT\",\"t\":43," +
+            "\"p\":\"122500.10000000\"}");
+        assertEquals(BinanceStreamDecoder.EventType.TRADE, event.type);
+        assertEquals(120_000L, event.quantity);
+        assertNull(event.quoteVolume);
+    }
+
+    @Test
+    void fixedPointOverflowIsReported() {
+        char[] tooLarge = "92233720368.54775808".toCharArray();
+        assertThrows(ArithmeticException.class, () -> LocalOrderBook.parseScaled(tooLarge, 0, tooLarge.length));
+        assertThrows(ArithmeticException.class, () -> LocalOrderBook.parseScaled("100000000000000000000"));
+        assertEquals(9_223_372_036_854_775_807L, LocalOrderBook.parseScaled("92233720368.54775807"));
+    }
+}
@@ -0,0 +1,68 @@
+package org.cloudvision.trading.service;
+
+import org.cloudvision.trading.MarketDataFixtures;
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.model.TimeInterval;
+import org.cloudvision.trading.model.TradingData;
+import org.cloudvision.trading.model.TradingDataType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CandleAggregationServiceTest {
+
+    private final CandlestickHistoryService history = new CandlestickHistoryService();
+    private final CandleAggregationService service = new CandleAggregationService(history, true, "5m,15m", "1m", 0);
+    private final List<TradingData> published = new ArrayList<>();
+    private int fed; // Fixture candles fed so far
+
+    CandleAggregationServiceTest() {
+        service.setCandleHandler(published::add);
+    }
+
+    @Test
+    void onlyTheBaseIntervalStartsAnAggregator() {
+        assertEquals(List.of(), service.onKlineSubscribed("Binance", "BTCUSDT", TimeInterval.FIVE_MINUTES));
+        assertEquals(List.of(TimeInterval.FIFTEEN_MINUTES),
+            service.onKlineSubscribed("Binance", "BTCUSDT", TimeInterval.ONE_MINUTE));
+
+        feed(60);
+        assertFalse(published.isEmpty());
+        for (TradingData data : published) {
+            assertTrue(data.isDerived());
+            assertEquals("15m", data.getCandlestickData().getInterval());
+        }
+    }
+
+    @Test
+    void nativeSubscriptionAfterTheBaseStopsDerivingThatInterval() {
+        service.onKlineSubscribed("Binance", "BTCUSDT", TimeInterval.ONE_MINUTE);
+        feed(30);
+        assertTrue(published.stream().anyMatch(data -> data.getCandlestickData().getInterval().equals("5m")));
+
+        // Neither the second subscription nor a repeated base one replaces the running aggregator
+        service.onKlineSubscribed("Binance", "BTCUSDT", TimeInterval.FIVE_MINUTES);
+        service.onKlineSubscribed("Binance", "BTCUSDT", TimeInterval.ONE_MINUTE);
+        published.clear();
+        feed(30);
+        assertTrue(published.stream().noneMatch(data -> data.getCandlestickData().getInterval().equals("5m")));
+        assertTrue(published.stream().anyMatch(data -> data.getCandlestickData().getInterval().equals("15m")));
+
+        service.onKlineUnsubscribed("Binance", "BTCUSDT", TimeInterval.ONE_MINUTE);
+        published.clear();
+        feed(30);
+        assertEquals(List.of(), published);
+    }
+
+    private void feed(int count) {
+        List<CandlestickData> candles = MarketDataFixtures.candles();
+        for (int i = 0; i < count; i++, fed++) {
+            CandlestickData candle = candles.get(fed);
+            service.onData(new TradingData(candle.getSymbol(), candle.getCloseTime(), candle.getProvider(),
+                TradingDataType.KLINE, candle));
+        }
+    }
+}
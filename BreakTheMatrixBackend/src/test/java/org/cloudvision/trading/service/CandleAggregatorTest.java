@@ -0,0 +1,175 @@
+package org.cloudvision.trading.service;
+
+import org.cloudvision.trading.MarketDataFixtures;
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.model.TimeInterval;
+import org.cloudvision.trading.model.TradeData;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Streaming aggregation against a plain group-by of the 1m fixture
+ */
+class CandleAggregatorTest {
+
+    private static final List<TimeInterval> TARGETS = List.of(
+        TimeInterval.FIVE_MINUTES, TimeInterval.FIFTEEN_MINUTES, TimeInterval.ONE_HOUR, TimeInterval.FOUR_HOURS);
+
+    @Test
+    void closedBaseCandlesMatchGroupBy() {
+        List<CandlestickData> candles = MarketDataFixtures.candles();
+        CandleAggregator aggregator = new CandleAggregator("Binance", "BTCUSDT", TimeInterval.ONE_MINUTE, TARGETS);
+
+        Set<String> derived = new TreeSet<>();
+        for (CandlestickData candle : candles) {
+            aggregator.onCandle(candle, candle2 -> {
+                if (candle2.isClosed()) {
+                    derived.add(describe(candle2));
+                }
+            });
+        }
+
+        Set<String> expected = groupBy(candles);
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, derived);
+    }
+
+    @Test
+    void formingUpdatesDoNotChangeClosedCandles() {
+        List<CandlestickData> candles = MarketDataFixtures.candles();
+        CandleAggregator aggregator = new CandleAggregator("Binance", "BTCUSDT", TimeInterval.ONE_MINUTE, TARGETS);
+
+        Set<String> derived = new TreeSet<>();
+        List<String> unexpected = new ArrayList<>();
+        for (CandlestickData candle : candles) {
+            // Three forming snapshots per minute, then the candle itself, then a duplicate of a closed one
+            for (int i = 1; i <= 3; i++) {
+                aggregator.onCandle(forming(candle, i), update -> {
+                    if (update.isClosed()) {
+                        unexpected.add(describe(update));
+                    }
+                });
+            }
+            aggregator.onCandle(candle, update -> {
+                if (update.isClosed()) {
+                    derived.add(describe(update));
+                }
+            });
+            if (candle.isClosed()) {
+                aggregator.onCandle(candle, update -> unexpected.add("duplicate " + describe(update)));
+            }
+        }
+
+        assertEquals(List.of(), unexpected);
+        assertEquals(groupBy(candles), derived);
+    }
+
+    @Test
+    void tradesRebuildOneMinuteCandles() {
+        List<CandlestickData> candles = MarketDataFixtures.candles();
+        CandleAggregator aggregator = new CandleAggregator("Binance", "BTCUSDT", null,
+            List.of(TimeInterval.ONE_MINUTE, TimeInterval.FIVE_MINUTES));
+
+        Map<Instant, CandlestickData> built = new TreeMap<>();
+        long tradeId = 1;
+        for (CandlestickData candle : candles) {
+            long open = candle.getOpenTime().toEpochMilli();
+            BigDecimal[] prices = { candle.getOpen(), candle.getHigh(), candle.getLow(), candle.getClose() };
+            for (int i = 0; i < prices.length; i++) {
+                TradeData trade = new TradeData(tradeId++, candle.getSymbol(), prices[i], BigDecimal.ONE, prices[i],
+                    Instant.ofEpochMilli(open + i * 10_000L + 5), false, candle.getProvider());
+                aggregator.onTrade(trade, update -> {
+                    if (update.isClosed() && update.getInterval().equals("1m")) {
+                        built.put(update.getOpenTime(), update);
+                    }
+                });
+            }
+        }
+        aggregator.closeExpired(Long.MAX_VALUE, update -> {
+            if (update.getInterval().equals("1m")) {
+                built.put(update.getOpenTime(), update);
+            }
+        });
+
+        // The first minute is skipped: the aggregator cannot tell whether its start was missed
+        assertEquals(candles.size() - 1, built.size());
+        for (CandlestickData candle : candles.subList(1, candles.size())) {
+            CandlestickData rebuilt = built.get(candle.getOpenTime());
+            assertNotNull(rebuilt, candle.getOpenTime().toString());
+            assertEquals(candle.getOpen(), rebuilt.getOpen());
+            assertEquals(candle.getHigh(), rebuilt.getHigh());
+            assertEquals(candle.getLow(), rebuilt.getLow());
+            assertEquals(candle.getClose(), rebuilt.getClose());
+            assertEquals(4, rebuilt.getNumberOfTrades());
+        }
+    }
+
+    /**
+     * Closed target candles of complete buckets, built by grouping the base candles
+     */
+    private static Set<String> groupBy(List<CandlestickData> candles) {
+        Set<String> result = new TreeSet<>();
+        for (TimeInterval interval : TARGETS) {
+            Map<Long, List<CandlestickData>> buckets = new TreeMap<>();
+            for (CandlestickData candle : candles) {
+                if (candle.isClosed()) {
+                    buckets.computeIfAbsent(interval.alignOpenTime(candle.getOpenTime().toEpochMilli()),
+                        k -> new ArrayList<>()).add(candle);
+                }
+            }
+            for (Map.Entry<Long, List<CandlestickData>> bucket : buckets.entrySet()) {
+                List<CandlestickData> group = bucket.getValue();
+                long open = bucket.getKey();
+                if (group.get(0).getOpenTime().toEpochMilli() != open
+                    || group.size() * TimeInterval.ONE_MINUTE.getMillis() != interval.getMillis()) {
+                    continue; // Started before the fixture or not finished in it
+                }
+                BigDecimal high = group.get(0).getHigh();
+                BigDecimal low = group.get(0).getLow();
+                BigDecimal volume = BigDecimal.ZERO;
+                int trades = 0;
+                for (CandlestickData candle : group) {
+                    high = high.max(candle.getHigh());
+                    low = low.min(candle.getLow());
+                    volume = volume.add(candle.getVolume());
+                    trades += candle.getNumberOfTrades();
+                }
+                result.add(describe(interval.getValue(), Instant.ofEpochMilli(open),
+                    Instant.ofEpochMilli(open + interval.getMillis() - 1), group.get(0).getOpen(), high, low,
+                    group.get(group.size() - 1).getClose(), volume, trades));
+            }
+        }
+        return result;
+    }
+
+    private static CandlestickData forming(CandlestickData candle, int step) {
+        BigDecimal price = candle.getOpen().add(candle.getClose().subtract(candle.getOpen())
+            .multiply(BigDecimal.valueOf(step)).divide(BigDecimal.valueOf(4)));
+        return new CandlestickData(candle.getSymbol(), candle.getOpenTime(), candle.getCloseTime(),
+            candle.getOpen(), candle.getOpen().max(price), candle.getOpen().min(price), price,
+            candle.getVolume().divide(BigDecimal.valueOf(5 - step), 8, RoundingMode.HALF_UP), null, step,
+            candle.getInterval(), candle.getProvider(), false);
+    }
+
+    private static String describe(CandlestickData candle) {
+        return describe(candle.getInterval(), candle.getOpenTime(), candle.getCloseTime(), candle.getOpen(),
+            candle.getHigh(), candle.getLow(), candle.getClose(), candle.getVolume(), candle.getNumberOfTrades());
+    }
+
+    private static String describe(String interval, Instant open, Instant close, BigDecimal o, BigDecimal h,
+                                   BigDecimal l, BigDecimal c, BigDecimal volume, int trades) {
+        return interval + " " + open + "-" + close + " o=" + o + " h=" + h + " l=" + l + " c=" + c +
+            " v=" + volume.stripTrailingZeros().toPlainString() + " n=" + trades;
+    }
+}
@@ -0,0 +1,97 @@
+package org.cloudvision.trading.service;
+
+import org.cloudvision.trading.MarketDataFixtures;
+import org.cloudvision.trading.model.CandlestickData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Archived candles must read back with exactly the prices and volumes they were written with
+ */
+class CandleArchiveSegmentTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void fixtureCandlesRoundTripExactly() throws IOException {
+        List<CandlestickData> candles = MarketDataFixtures.candles().stream().filter(CandlestickData::isClosed).toList();
+        Path file = directory.resolve("00000000.seg");
+        CandleArchiveSegment segment = CandleArchiveSegment.create(file, candles.size());
+        candles.forEach(segment::append);
+        segment.close();
+
+        List<CandlestickData> read = new ArrayList<>();
+        CandleArchiveSegment reopened = CandleArchiveSegment.open(file);
+        reopened.read(0, reopened.size(), "Binance", "BTCUSDT", "1m", read);
+        reopened.close();
+
+        assertEquals(candles.size(), read.size());
+        for (int i = 0; i < candles.size(); i++) {
+            CandlestickData expected = candles.get(i);
+            CandlestickData actual = read.get(i);
+            assertEquals(expected.getOpenTime(), actual.getOpenTime());
+            assertEquals(expected.getCloseTime(), actual.getCloseTime());
+            assertEquals(0, expected.getOpen().compareTo(actual.getOpen()), "open " + i);
+            assertEquals(0, expected.getHigh().compareTo(actual.getHigh()), "high " + i);
+            assertEquals(0, expected.getLow().compareTo(actual.getLow()), "low " + i);
+            assertEquals(0, expected.getClose().compareTo(actual.getClose()), "close " + i);
+            assertEquals(0, expected.getVolume().compareTo(actual.getVolume()), "volume " + i);
+            assertEquals(0, expected.getQuoteAssetVolume().compareTo(actual.getQuoteAssetVolume()), "quote volume " + i);
+            assertEquals(expected.getNumberOfTrades(), actual.getNumberOfTrades());
+        }
+    }
+
+    @Test
+    void volumeTooLargeForEightDecimalsKeepsFewer() throws IOException {
+        // 2e11 units of a low-priced coin: 2e19 at 8 decimals would overflow a long
+        BigDecimal volume = new BigDecimal("200000000000.12345678");
+        BigDecimal price = new BigDecimal("0.00001234");
+        Instant openTime = Instant.parse("2025-10-03T00:00:00Z");
+        CandlestickData candle = new CandlestickData("SHIBUSDT", openTime, openTime.plusMillis(86_399_999),
+            price, price, price, price, volume, volume.multiply(price), 1, "1d", "Binance", true);
+
+        Path file = directory.resolve("00000000.seg");
+        CandleArchiveSegment segment = CandleArchiveSegment.create(file, 1);
+        segment.append(candle);
+
+        List<CandlestickData> read = new ArrayList<>();
+        segment.read(0, 1, "Binance", "SHIBUSDT", "1d", read);
+        segment.close();
+
+        assertEquals(0, price.compareTo(read.get(0).getClose()));
+        assertEquals(0, new BigDecimal("200000000000.123457").compareTo(read.get(0).getVolume()));
+    }
+
+    @Test
+    void priceOutOfRangeWritesNothing() throws IOException {
+        List<CandlestickData> candles = MarketDataFixtures.candles().subList(0, 2);
+        CandlestickData first = candles.get(0);
+        // 1e12 at 8 decimals is past Long.MAX_VALUE
+        BigDecimal huge = new BigDecimal("1000000000000");
+        CandlestickData outOfRange = new CandlestickData(first.getSymbol(), first.getOpenTime(), first.getCloseTime(),
+            first.getOpen(), huge, first.getLow(), first.getClose(), first.getVolume(), first.getQuoteAssetVolume(),
+            first.getNumberOfTrades(), first.getInterval(), first.getProvider(), true);
+
+        CandleArchiveSegment segment = CandleArchiveSegment.create(directory.resolve("00000000.seg"), 2);
+        assertThrows(ArithmeticException.class, () -> segment.append(outOfRange));
+        assertEquals(0, segment.size());
+
+        segment.append(candles.get(1));
+        List<CandlestickData> read = new ArrayList<>();
+        segment.read(0, segment.size(), "Binance", "BTCUSDT", "1m", read);
+        segment.close();
+        assertEquals(1, read.size());
+        assertEquals(candles.get(1).getOpenTime(), read.get(0).getOpenTime());
+        assertEquals(0, candles.get(1).getHigh().compareTo(read.get(0).getHigh()));
+    }
+}
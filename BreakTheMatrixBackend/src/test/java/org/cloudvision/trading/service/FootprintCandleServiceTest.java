@@ -0,0 +1,62 @@
+package org.cloudvision.trading.service;
+
+import org.cloudvision.trading.MarketDataFixtures;
+import org.cloudvision.trading.model.FixedTrade;
+import org.cloudvision.trading.model.FootprintCandle;
+import org.cloudvision.trading.model.InstrumentSpec;
+import org.cloudvision.trading.model.TimeInterval;
+import org.cloudvision.trading.model.TradeData;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FootprintCandleServiceTest {
+
+    private static final InstrumentSpec BTCUSDT = new InstrumentSpec("BTCUSDT",
+        new BigDecimal("0.01"), new BigDecimal("0.00001"));
+
+    @Test
+    void volumesAtTheInstrumentPrecisionMatchBigDecimalSums() {
+        FootprintCandleService service = new FootprintCandleService();
+        // The whole fixture falls in one UTC day
+        List<TradeData> trades = MarketDataFixtures.trades(20);
+
+        BigDecimal buy = BigDecimal.ZERO;
+        BigDecimal sell = BigDecimal.ZERO;
+        long candleTime = trades.get(0).getTimestamp().getEpochSecond() / 86_400 * 86_400;
+        for (TradeData trade : trades) {
+            FixedTrade fixed = FixedTrade.from(trade, BTCUSDT);
+            service.addTrade(fixed, TimeInterval.ONE_DAY);
+            BigDecimal quantity = BTCUSDT.quantityToDecimal(fixed.getQuantity());
+            if (fixed.isAggressiveBuy()) {
+                buy = buy.add(quantity);
+            } else {
+                sell = sell.add(quantity);
+            }
+        }
+
+        FootprintCandle candle = service.closeCandle("BTCUSDT", TimeInterval.ONE_DAY, candleTime);
+        assertNotNull(candle);
+        assertEquals(0, buy.compareTo(candle.getTotalBuyVolume()));
+        assertEquals(0, sell.compareTo(candle.getTotalSellVolume()));
+        assertEquals(0, buy.add(sell).compareTo(candle.getTotalVolume()));
+        assertEquals(trades.size(), candle.getNumberOfTrades());
+        assertEquals(5, candle.getTotalVolume().scale());
+    }
+
+    @Test
+    void overflowingVolumeFailsInsteadOfWrapping() {
+        FootprintCandleService service = new FootprintCandleService();
+        long half = Long.MAX_VALUE / 2 + 1;
+        service.addTrade(trade(1, half), TimeInterval.ONE_MINUTE);
+        assertThrows(ArithmeticException.class, () -> service.addTrade(trade(2, half), TimeInterval.ONE_MINUTE));
+    }
+
+    private static FixedTrade trade(long id, long quantity) {
+        return new FixedTrade(id, "BTCUSDT", 12_250_010L, quantity, 2, 0, 1_759_500_000_000L, false,
+            "Binance", -1, -1);
+    }
+}
@@ -0,0 +1,96 @@
+package org.cloudvision.trading.service;
+
+import org.cloudvision.trading.model.CandlestickData;
+import org.cloudvision.trading.model.TradeData;
+import org.cloudvision.trading.model.TradingData;
+import org.cloudvision.trading.model.TradingDataType;
+import org.cloudvision.trading.service.MarketDataBus.BackpressurePolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Closed klines must survive a trade burst on a lossless subscription
+ */
+class MarketDataBusTest {
+
+    private static final int CANDLES = 20;
+    private static final int TRADES_PER_CANDLE = 200;
+
+    private final MarketDataBus bus = new MarketDataBus();
+
+    @AfterEach
+    void tearDown() {
+        bus.shutdown();
+    }
+
+    @Test
+    void blockingSubscriptionDeliversEveryClosedKlineUnderTradeFlood() throws InterruptedException {
+        List<Long> closedOpenTimes = new ArrayList<>();
+        CountDownLatch allClosed = new CountDownLatch(CANDLES);
+        MarketDataBus.Subscription lossless = bus.subscribe("closed-candles", BackpressurePolicy.BLOCK, 16, data -> {
+            slowHandler();
+            if (data.hasCandlestickData() && data.getCandlestickData().isClosed()) {
+                synchronized (closedOpenTimes) {
+                    closedOpenTimes.add(data.getCandlestickData().getOpenTime().toEpochMilli());
+                }
+                allClosed.countDown();
+            }
+        });
+        MarketDataBus.Subscription lossy = bus.subscribe("ticks", BackpressurePolicy.CONFLATE_BY_SYMBOL, 16,
+                                                         data -> slowHandler());
+
+        List<Long> expected = new ArrayList<>();
+        long tradeId = 1;
+        for (int c = 0; c < CANDLES; c++) {
+            long openTime = 1_700_000_000_000L + c * 60_000L;
+            for (int t = 0; t < TRADES_PER_CANDLE; t++) {
+                bus.publish(trade(tradeId++, openTime + t));
+            }
+            bus.publish(kline(openTime, false));
+            bus.publish(kline(openTime, true));
+            expected.add(openTime);
+        }
+
+        assertTrue(allClosed.await(30, TimeUnit.SECONDS), "closed klines were not all delivered");
+        synchronized (closedOpenTimes) {
+            assertEquals(expected, closedOpenTimes);
+        }
+        assertEquals(0, lossless.getDropped());
+        // The same flood overflows a lossy queue, which is why closed candles need their own subscription
+        assertTrue(lossy.getDropped() > 0);
+    }
+
+    private static void slowHandler() {
+        try {
+            Thread.sleep(0, 200_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static TradingData trade(long tradeId, long timeMillis) {
+        BigDecimal price = new BigDecimal("50000.00");
+        BigDecimal quantity = new BigDecimal("0.01000000");
+        Instant time = Instant.ofEpochMilli(timeMillis);
+        TradeData trade = new TradeData(tradeId, "BTCUSDT", price, quantity, price.multiply(quantity),
+                                        time, false, "Binance");
+        return new TradingData("BTCUSDT", time, "Binance", TradingDataType.TRADE, trade);
+    }
+
+    private static TradingData kline(long openTimeMillis, boolean closed) {
+        BigDecimal price = new BigDecimal("50000.00");
+        Instant openTime = Instant.ofEpochMilli(openTimeMillis);
+        CandlestickData candle = new CandlestickData("BTCUSDT", openTime, openTime.plusMillis(59_999),
+            price, price, price, price, BigDecimal.ONE, price, 1, "1m", "Binance", closed);
+        return new TradingData("BTCUSDT", openTime, "Binance", TradingDataType.KLINE, candle);
+    }
+}
@@ -17,6 +17,7 @@ import { ArrowPrimitive } from './ArrowPrimitive';
 import { MarkerPrimitive } from './MarkerPrimitive';
 import { FillBetweenPrimitive } from './FillBetweenPrimitive';
 import { ChartSeriesManager } from './ChartSeriesManager';
+import { expandColumnarHistory } from './helpers/columnarHistory';
 
 // Global variable for default zoom level (last N candles)
 if (typeof window !== 'undefined' && !window.BTM_DEFAULT_ZOOM_CANDLES) {
@@ -295,7 +296,8 @@ export const ChartComponent = props => {
                     provider: providerName,
                     symbol: symbol,
                     interval: interval,
-                    count: 1000 // Fetch same amount as chart data
+                    count: 1000, // Fetch same amount as chart data
+                    format: 'columnar'
                 };
                 
                 console.log('Fetching indicators with request:', requestBody);
@@ -315,7 +317,7 @@ export const ChartComponent = props => {
                     return;
                 }
                 
-                const response = await res.json();
+                const response = expandColumnarHistory(await res.json());
                 console.log('Indicators response received:', {
                     indicatorCount: response.indicatorCount,
                     fromActiveInstances: response.fromActiveInstances,
@@ -1102,6 +1104,65 @@ export function Chart({ provider, symbol, interval, activeStrategies = [], enabl
             }));
         };
 
+        // Apply one indicator update (a single frame or one entry of a batch) to the chart series
+        const handleIndicatorUpdate = (indicatorData) => {
+            console.log('📊 Indicator Update:', {
+                indicator: indicatorData.indicatorId,
+                instanceKey: indicatorData.instanceKey,
+                time: new Date(indicatorData.timestamp),
+                values: indicatorData.values
+            });
+            
+            // Update status message with last update time
+            const updateTime = new Date(indicatorData.timestamp).toLocaleTimeString();
+            setWsMessage(`Last update: ${updateTime}`);
+            
+            // Update indicator series in real-time without re-fetching
+            if (seriesManagerRef.current && indicatorData.values && indicatorData.timestamp) {
+                const instanceKey = indicatorData.instanceKey;
+                const indicatorPrefix = `indicator_${instanceKey}`;
+                
+                // Convert ISO timestamp to Unix timestamp (seconds)
+                const timeValue = Math.floor(new Date(indicatorData.timestamp).getTime() / 1000);
+                
+                console.log(`Attempting to update indicator ${instanceKey} at time ${timeValue}`, indicatorData.values);
+                
+                // Update each series in the values object
+                Object.entries(indicatorData.values).forEach(([seriesKey, value]) => {
+                    // Try to find and update the series
+                    // Series could be named like: indicator_Binance:ETHUSDT:1m:sma:9998834d_sma
+                    const possibleSeriesIds = [
+                        `${indicatorPrefix}_${seriesKey}`,  // e.g., indicator_Binance:ETHUSDT:1m:sma:9998834d_sma
+                        `${indicatorPrefix}_${indicatorData.indicatorId}`, // e.g., indicator_Binance:ETHUSDT:1m:sma:9998834d_sma (using indicatorId)
+                        indicatorPrefix // Just the prefix (for single-series indicators)
+                    ];
+                    
+                    console.log(`Trying to find series for ${seriesKey}, checking:`, possibleSeriesIds);
+                    
+                    let updated = false;
+                    for (const seriesId of possibleSeriesIds) {
+                        const series = seriesManagerRef.current.getSeries(seriesId);
+                        if (series) {
+                            try {
+                                series.update({ time: timeValue, value: value });
+                                console.log(`✅ Updated ${seriesId} with value ${value} at ${timeValue}`);
+                                updated = true;
+                                break;
+                            } catch (error) {
+                                console.error(`Error updating series ${seriesId}:`, error);
+                            }
+                        }
+                    }
+                    
+                    if (!updated) {
+                        console.warn(`⚠️ Could not find series to update for ${seriesKey}`);
+                        console.warn(`   Tried:`, possibleSeriesIds);
+                        console.warn(`   Available series:`, seriesManagerRef.current.getAllSeriesIds());
+                    }
+                });
+            }
+        };
+
         ws.onmessage = (event) => {
             try {
                 const message = JSON.parse(event.data);
@@ -1171,65 +1232,14 @@ export function Chart({ provider, symbol, interval, activeStrategies = [], enabl
                         }
                         break;
                     
+                    case 'indicatorBatch':
+                        // All indicator updates of one candle close; handle each like a single update
+                        (message.updates || []).forEach(handleIndicatorUpdate);
+                        break;
+                    
                     case 'indicatorUpdate':
                         // Extract indicator data from message.data
-                        const indicatorData = message.data || message;
-                        
-                        console.log('📊 Indicator Update:', {
-                            indicator: indicatorData.indicatorId,
-                            instanceKey: indicatorData.instanceKey,
-                            time: new Date(indicatorData.timestamp),
-                            values: indicatorData.values
-                        });
-                        
-                        // Update status message with last update time
-                        const updateTime = new Date(indicatorData.timestamp).toLocaleTimeString();
-                        setWsMessage(`Last update: ${updateTime}`);
-                        
-                        // Update indicator series in real-time without re-fetching
-                        if (seriesManagerRef.current && indicatorData.values && indicatorData.timestamp) {
-                            const instanceKey = indicatorData.instanceKey;
-                            const indicatorPrefix = `indicator_${instanceKey}`;
-                            
-                            // Convert ISO timestamp to Unix timestamp (seconds)
-                            const timeValue = Math.floor(new Date(indicatorData.timestamp).getTime() / 1000);
-                            
-                            console.log(`Attempting to update indicator ${instanceKey} at time ${timeValue}`, indicatorData.values);
-                            
-                            // Update each series in the values object
-                            Object.entries(indicatorData.values).forEach(([seriesKey, value]) => {
-                                // Try to find and update the series
-                                // Series could be named like: indicator_Binance:ETHUSDT:1m:sma:9998834d_sma
-                                const possibleSeriesIds = [
-                                    `${indicatorPrefix}_${seriesKey}`,  // e.g., indicator_Binance:ETHUSDT:1m:sma:9998834d_sma
-                                    `${indicatorPrefix}_${indicatorData.indicatorId}`, // e.g., indicator_Binance:ETHUSDT:1m:sma:9998834d_sma (using indicatorId)
-                                    indicatorPrefix // Just the prefix (for single-series indicators)
-                                ];
-                                
-                                console.log(`Trying to find series for ${seriesKey}, checking:`, possibleSeriesIds);
-                                
-                                let updated = false;
-                                for (const seriesId of possibleSeriesIds) {
-                                    const series = seriesManagerRef.current.getSeries(seriesId);
-                                    if (series) {
-                                        try {
-                                            series.update({ time: timeValue, value: value });
-                                            console.log(`✅ Updated ${seriesId} with value ${value} at ${timeValue}`);
-                                            updated = true;
-                                            break;
-                                        } catch (error) {
-                                            console.error(`Error updating series ${seriesId}:`, error);
-                                        }
-                                    }
-                                }
-                                
-                                if (!updated) {
-                                    console.warn(`⚠️ Could not find series to update for ${seriesKey}`);
-                                    console.warn(`   Tried:`, possibleSeriesIds);
-                                    console.warn(`   Available series:`, seriesManagerRef.current.getAllSeriesIds());
-                                }
-                            });
-                        }
+                        handleIndicatorUpdate(message.data || message);
                         break;
                         
                     case 'error':
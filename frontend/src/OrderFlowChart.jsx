@@ -7,6 +7,7 @@ import {
 import React, { useEffect, useRef, useState } from 'react';
 import { FootprintPrimitive } from './FootprintPrimitive';
 import { DeltaTablePrimitive } from './DeltaTablePrimitive';
+import { parseSocketMessage } from './OrderFlowService';
 
 export const OrderFlowChart = ({ provider, symbol, interval }) => {
     const chartContainerRef = useRef();
@@ -335,6 +336,7 @@ export const OrderFlowChart = ({ provider, symbol, interval }) => {
         if (!provider || !symbol) return;
 
         const ws = new WebSocket('ws://localhost:8080/orderflow-ws');
+        ws.binaryType = 'arraybuffer'; // market data arrives as binary frames, replies as JSON
         
         ws.onopen = () => {
             console.log('WebSocket connected');
@@ -343,13 +345,15 @@ export const OrderFlowChart = ({ provider, symbol, interval }) => {
             ws.send(JSON.stringify({
                 action: 'subscribe',
                 symbol: symbol,
-                types: ['AGGREGATE_TRADE', 'ORDER_BOOK', 'BOOK_TICKER', 'KLINE']
+                types: ['AGGREGATE_TRADE', 'ORDER_BOOK', 'BOOK_TICKER', 'KLINE'],
+                encoding: 'binary'
             }));
         };
         
         ws.onmessage = (event) => {
             try {
-                const data = JSON.parse(event.data);
+                const data = parseSocketMessage(event.data);
+                if (!data) return;
                 
                 // Handle different data types based on dataType field
                 if (data.dataType === 'ORDER_BOOK') {
@@ -218,6 +218,225 @@ export class OrderFlowService {
     }
 }
 
+/**
+ * Binary WebSocket frames (subscribe with encoding: 'binary').
+ * Layouts are documented in BinaryFrameEncoder.java; all numbers are little-endian.
+ */
+export const BinarySchema = {
+    CANDLE: 1,
+    TRADE: 2,
+    BOOK: 3,
+    INDICATOR: 4,
+    TRADE_SUMMARY: 5,
+    INDICATOR_BATCH: 6
+};
+
+const textDecoder = new TextDecoder();
+
+class FrameReader {
+    constructor(buffer) {
+        this.view = new DataView(buffer);
+        this.bytes = new Uint8Array(buffer);
+        this.offset = 0;
+    }
+
+    u8() {
+        return this.view.getUint8(this.offset++);
+    }
+
+    u16() {
+        const value = this.view.getUint16(this.offset, true);
+        this.offset += 2;
+        return value;
+    }
+
+    u32() {
+        const value = this.view.getUint32(this.offset, true);
+        this.offset += 4;
+        return value;
+    }
+
+    f64() {
+        const value = this.view.getFloat64(this.offset, true);
+        this.offset += 8;
+        return Number.isNaN(value) ? null : value;
+    }
+
+    str(length) {
+        const value = textDecoder.decode(this.bytes.subarray(this.offset, this.offset + length));
+        this.offset += length;
+        return value;
+    }
+
+    str8() {
+        return this.str(this.u8());
+    }
+
+    str16() {
+        return this.str(this.u16());
+    }
+}
+
+/**
+ * Decode a binary frame into the same shape as the JSON message it replaces
+ * Returns null for unknown schemas/versions so callers can skip the frame
+ */
+export function decodeBinaryFrame(buffer) {
+    const reader = new FrameReader(buffer);
+    const schemaId = reader.u8();
+    const version = reader.u8();
+    const flags = reader.u8();
+    const symbol = reader.str8();
+
+    if (version !== 1) {
+        console.warn('[OrderFlow] Unsupported binary frame version', version);
+        return null;
+    }
+
+    switch (schemaId) {
+        case BinarySchema.CANDLE: {
+            const interval = reader.str8();
+            const openTime = reader.f64();
+            const closeTime = reader.f64();
+            const candle = {
+                interval,
+                openTime: new Date(openTime).toISOString(),
+                closeTime: new Date(closeTime).toISOString(),
+                time: Math.floor(openTime / 1000), // Unix seconds (TradingView)
+                timestamp: Math.floor(openTime / 1000),
+                timeMs: openTime,
+                open: reader.f64(),
+                high: reader.f64(),
+                low: reader.f64(),
+                close: reader.f64(),
+                volume: reader.f64(),
+                quoteAssetVolume: reader.f64(),
+                numberOfTrades: reader.u32(),
+                isClosed: (flags & 1) !== 0
+            };
+            candle.closed = candle.isClosed;
+            return { type: 'candleUpdate', dataType: 'KLINE', symbol, interval, timestamp: closeTime, candle };
+        }
+        case BinarySchema.TRADE: {
+            const isBuyerMaker = (flags & 1) !== 0;
+            const isAggregate = (flags & 2) !== 0;
+            const timestamp = reader.f64();
+            const trade = {
+                tradeId: reader.f64(),
+                price: reader.f64(),
+                quantity: reader.f64(),
+                quoteQuantity: reader.f64(),
+                firstTradeId: reader.f64(),
+                lastTradeId: reader.f64(),
+                isBuyerMaker,
+                isAggressiveBuy: !isBuyerMaker,
+                isAggressiveSell: isBuyerMaker,
+                isAggregate,
+                timestamp
+            };
+            if (!isAggregate) {
+                trade.firstTradeId = null;
+                trade.lastTradeId = null;
+            }
+            return {
+                type: 'orderFlow',
+                dataType: isAggregate ? 'AGGREGATE_TRADE' : 'TRADE',
+                symbol,
+                timestamp,
+                trade
+            };
+        }
+        case BinarySchema.BOOK: {
+            const timestamp = reader.f64();
+            const orderBook = {
+                lastUpdateId: reader.f64(),
+                bestBid: reader.f64(),
+                bestAsk: reader.f64(),
+                spread: reader.f64(),
+                bidVolume5: reader.f64(),
+                askVolume5: reader.f64(),
+                bidVolume10: reader.f64(),
+                askVolume10: reader.f64()
+            };
+            const bidCount = reader.u16();
+            const askCount = reader.u16();
+            orderBook.bids = [];
+            for (let i = 0; i < bidCount; i++) {
+                orderBook.bids.push({ price: reader.f64(), quantity: reader.f64() });
+            }
+            orderBook.asks = [];
+            for (let i = 0; i < askCount; i++) {
+                orderBook.asks.push({ price: reader.f64(), quantity: reader.f64() });
+            }
+            return { type: 'orderFlow', dataType: 'ORDER_BOOK', symbol, timestamp, orderBook };
+        }
+        case BinarySchema.INDICATOR: {
+            const instanceKey = reader.str16();
+            const timestamp = reader.f64();
+            const price = reader.f64();
+            const values = readValues(reader);
+            return {
+                type: (flags & 1) !== 0 ? 'indicatorTick' : 'indicatorUpdate',
+                price,
+                data: { instanceKey, symbol, timestamp, values }
+            };
+        }
+        case BinarySchema.INDICATOR_BATCH: {
+            const timestamp = reader.f64();
+            const price = reader.f64();
+            const count = reader.u16();
+            const updates = [];
+            for (let i = 0; i < count; i++) {
+                const instanceKey = reader.str16();
+                updates.push({ instanceKey, symbol, timestamp, values: readValues(reader) });
+            }
+            return { type: 'indicatorBatch', symbol, timestamp, price, count, updates };
+        }
+        case BinarySchema.TRADE_SUMMARY: {
+            const conflated = {
+                windowMs: reader.u16(),
+                updates: reader.u32(),
+                trades: reader.u32(),
+                open: reader.f64(),
+                high: reader.f64(),
+                low: reader.f64(),
+                close: reader.f64(),
+                vwap: reader.f64(),
+                volume: reader.f64(),
+                buyVolume: reader.f64(),
+                sellVolume: reader.f64(),
+                quoteVolume: reader.f64(),
+                startTime: reader.f64(),
+                endTime: reader.f64(),
+                firstTradeId: reader.f64(),
+                lastTradeId: reader.f64()
+            };
+            conflated.delta = conflated.buyVolume - conflated.sellVolume;
+            return { type: 'tradeSummary', dataType: 'TRADE_SUMMARY', symbol, timestamp: conflated.endTime, conflated };
+        }
+        default:
+            console.warn('[OrderFlow] Unknown binary schema', schemaId);
+            return null;
+    }
+}
+
+function readValues(reader) {
+    const count = reader.u8();
+    const values = {};
+    for (let i = 0; i < count; i++) {
+        const name = reader.str8();
+        values[name] = reader.f64();
+    }
+    return values;
+}
+
+/**
+ * Parse a WebSocket message that may be JSON text or a binary frame
+ */
+export function parseSocketMessage(data) {
+    return data instanceof ArrayBuffer ? decodeBinaryFrame(data) : JSON.parse(data);
+}
+
 // Singleton instance
 let orderFlowServiceInstance = null;
 
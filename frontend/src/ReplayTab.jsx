@@ -4,6 +4,7 @@ export function ReplayTab({ provider, symbol, interval }) {
   const [startTime, setStartTime] = useState('');
   const [endTime, setEndTime] = useState('');
   const [speed, setSpeed] = useState(1);
+  const [turbo, setTurbo] = useState(false);
   const [isLoading, setIsLoading] = useState(false);
   const [response, setResponse] = useState(null);
   const [error, setError] = useState(null);
@@ -82,7 +83,8 @@ export function ReplayTab({ provider, symbol, interval }) {
         interval,
         startTime: startTimeISO,
         endTime: endTimeISO,
-        speed: parseFloat(speed)
+        speed: parseFloat(speed),
+        turbo
       };
 
       const res = await fetch('http://localhost:8080/api/replay/create', {
@@ -190,6 +192,21 @@ export function ReplayTab({ provider, symbol, interval }) {
 
           // Candle data is available for chart updates if needed
           // message.candle contains: open, high, low, close, volume, time, etc.
+        } else if (message.type === 'replayBatch') {
+          // Turbo mode: one message per batch, candles and indicator rows in the columnar layout
+          // (expand with expandColumnarHistory from helpers/columnarHistory.js when charting)
+          console.log('Replay batch:', message.startIndex, '-', message.currentIndex, '/', message.totalCandles,
+                      `(${Math.round(message.candlesPerSecond)} candles/sec)`);
+
+          setSessionStatus(prev => ({
+            ...prev,
+            currentIndex: message.currentIndex,
+            totalCandles: message.totalCandles,
+            progress: message.progress,
+            candlesPerSecond: message.candlesPerSecond,
+            sessionId: message.sessionId,
+            indicatorCount: message.data?.indicatorCount ?? prev?.indicatorCount
+          }));
         } else if (message.type === 'complete') {
           console.log('Replay complete');
           // Optionally show a completion notification
@@ -376,7 +393,11 @@ export function ReplayTab({ provider, symbol, interval }) {
               </div>
               <div className="bg-slate-900/50 p-2 rounded">
                 <span className="text-slate-400 block">Speed</span>
-                <span className="text-purple-200 font-medium">{sessionStatus.speed}x</span>
+                <span className="text-purple-200 font-medium">
+                  {sessionStatus.turbo || sessionStatus.candlesPerSecond
+                    ? `Turbo (${Math.round(sessionStatus.candlesPerSecond || 0)} candles/s)`
+                    : `${sessionStatus.speed}x`}
+                </span>
               </div>
               <div className="bg-slate-900/50 p-2 rounded">
                 <span className="text-slate-400 block">Symbol</span>
@@ -610,6 +631,15 @@ export function ReplayTab({ provider, symbol, interval }) {
             <span>Normal (1x)</span>
             <span>Fast (10x)</span>
           </div>
+          <label className="flex items-center gap-2 mt-4 text-sm text-cyan-200 cursor-pointer">
+            <input
+              type="checkbox"
+              checked={turbo}
+              onChange={(e) => setTurbo(e.target.checked)}
+              className="accent-cyan-500"
+            />
+            Turbo (compute the whole range at full speed, results in batches)
+          </label>
         </div>
 
         {/* Create Button */}
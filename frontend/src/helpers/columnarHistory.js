@@ -0,0 +1,72 @@
+/**
+ * Expands a columnar historical indicator response (POST /api/indicators/historical with
+ * format: 'columnar') into the per-point layout used by the default format, so the chart
+ * code does not need to know which one it asked for.
+ * @param {object} response - columnar response from the backend
+ * @returns {object} response with indicators[].series as [{ time, value, color?, extra? }]
+ *                   and candles as [{ time, open, high, low, close, volume }]
+ */
+export function expandColumnarHistory(response) {
+    if (!response || response.format !== 'columnar') {
+        return response;
+    }
+
+    const times = decodeTimeAxis(response.time);
+    const candleColumns = response.candles || {};
+    const candles = [];
+    for (let row = 0; row < times.length; row++) {
+        if (candleColumns.open?.[row] == null) {
+            continue;
+        }
+        candles.push({
+            time: times[row],
+            open: candleColumns.open[row],
+            high: candleColumns.high[row],
+            low: candleColumns.low[row],
+            close: candleColumns.close[row],
+            volume: candleColumns.volume[row],
+        });
+    }
+
+    const indicators = (response.indicators || []).map(indicator => {
+        const offset = indicator.offset || 0;
+        const series = {};
+        for (const [key, column] of Object.entries(indicator.series || {})) {
+            const points = [];
+            for (let slot = 0; slot < column.length; slot++) {
+                if (column[slot] == null) {
+                    continue;
+                }
+                const point = { time: times[offset + slot], value: column[slot] };
+                const color = indicator.colors?.[slot];
+                if (color != null) {
+                    point.color = color;
+                }
+                const extra = indicator.extras?.[slot];
+                if (extra != null) {
+                    point.extra = extra;
+                }
+                points.push(point);
+            }
+            series[key] = points;
+        }
+        return { ...indicator, series };
+    });
+
+    return { ...response, candles, indicators };
+}
+
+/**
+ * @param {{base: number, deltas: number[]}} time - base timestamp plus gap to the previous row
+ * @returns {number[]} absolute timestamps (epoch seconds)
+ */
+export function decodeTimeAxis(time) {
+    const deltas = time?.deltas || [];
+    const times = new Array(deltas.length);
+    let current = time?.base || 0;
+    for (let i = 0; i < deltas.length; i++) {
+        current += deltas[i];
+        times[i] = current;
+    }
+    return times;
+}